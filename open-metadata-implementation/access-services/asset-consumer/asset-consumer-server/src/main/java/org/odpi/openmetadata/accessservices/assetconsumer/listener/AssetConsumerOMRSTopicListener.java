@@ -10,6 +10,7 @@ import org.odpi.openmetadata.frameworks.auditlog.AuditLog;
 import org.odpi.openmetadata.frameworks.connectors.properties.beans.Asset;
 import org.odpi.openmetadata.repositoryservices.connectors.omrstopic.OMRSTopicListenerBase;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceGraph;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -24,7 +25,8 @@ import java.util.List;
 
 /**
  * AssetConsumerOMRSTopicListener received details of each OMRS event from the cohorts that the local server
- * is connected to.  It passes NEW_ENTITY_EVENTs to the publisher.
+ * is connected to.  It passes NEW_ENTITY_EVENTs, the entities from BATCH_INSTANCES_EVENTs and
+ * UPDATED_ENTITY_EVENTs to the publisher.
  */
 public class AssetConsumerOMRSTopicListener extends OMRSTopicListenerBase
 {
@@ -102,6 +104,10 @@ public class AssetConsumerOMRSTopicListener extends OMRSTopicListenerBase
                     this.processUpdatedEntity(instanceEvent.getEntity(),
                                               instanceEvent.getOriginalEntity());
                 }
+                else if (instanceEventType == OMRSInstanceEventType.BATCH_INSTANCES_EVENT)
+                {
+                    this.processNewEntities(instanceEvent.getInstanceBatch());
+                }
             }
             else
             {
@@ -139,6 +145,27 @@ public class AssetConsumerOMRSTopicListener extends OMRSTopicListenerBase
     }
 
 
+    /**
+     * Process each entity from a batch instances event as a new entity.  The bulk add methods of the
+     * repositories send their new entities in batch events rather than a new entity event for each one.
+     *
+     * @param instances  entities and relationships from the batch event
+     */
+    private void processNewEntities(InstanceGraph instances)
+    {
+        if ((instances != null) && (instances.getEntities() != null))
+        {
+            for (EntityDetail entity : instances.getEntities())
+            {
+                if (entity != null)
+                {
+                    this.processNewEntity(entity);
+                }
+            }
+        }
+    }
+
+
     /**
      * Determine whether an updated entity is an Asset.  If it is then publish an Asset Consumer Event about it
      * if the Asset is within the supported zones.
@@ -16,6 +16,7 @@ import org.odpi.openmetadata.frameworks.connectors.ffdc.UserNotAuthorizedExcepti
 import org.odpi.openmetadata.repositoryservices.connectors.omrstopic.OMRSTopicListener;
 import org.odpi.openmetadata.repositoryservices.connectors.openmetadatatopic.OpenMetadataTopicConnector;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceGraph;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Relationship;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryHelper;
 import org.odpi.openmetadata.repositoryservices.events.OMRSEventOriginator;
@@ -158,6 +159,9 @@ public class AssetLineageOMRSTopicListener implements OMRSTopicListener {
                 case DELETED_RELATIONSHIP_EVENT:
                     processDeletedRelationshipEvent(relationship);
                     break;
+                case BATCH_INSTANCES_EVENT:
+                    processInstanceBatchEvent(instanceEvent);
+                    break;
             }
         } catch (OCFCheckedExceptionBase e) {
             log.error("The following exception occurred: \n" + e + "\n \nWhile processing OMRSTopic event: \n" + instanceEvent,
@@ -335,6 +339,34 @@ public class AssetLineageOMRSTopicListener implements OMRSTopicListener {
         }
     }
 
+    /**
+     * Process a batch of new instances.  The batch event replaces the individual new entity and new relationship
+     * events, so each relationship in the batch is processed as a New Relationship event.  New entities are ignored
+     * as they are for a single New Entity event.  A failure to process one relationship is logged and the rest of the
+     * batch is still processed.
+     *
+     * @param instanceEvent the event that carries the batch of new instances
+     */
+    private void processInstanceBatchEvent(OMRSInstanceEvent instanceEvent) {
+        InstanceGraph instanceBatch = instanceEvent.getInstanceBatch();
+        if (instanceBatch == null || CollectionUtils.isEmpty(instanceBatch.getRelationships())) {
+            return;
+        }
+
+        for (Relationship relationship : instanceBatch.getRelationships()) {
+            if (relationship == null) {
+                continue;
+            }
+
+            try {
+                processNewRelationshipEvent(relationship);
+            } catch (Exception e) {
+                log.error("An exception occurred while processing relationship {} from OMRSTopic batch event", relationship.getGUID(), e);
+                logExceptionToAudit(instanceEvent, e);
+            }
+        }
+    }
+
     /**
      * Process the updates for lineage relationship
      *
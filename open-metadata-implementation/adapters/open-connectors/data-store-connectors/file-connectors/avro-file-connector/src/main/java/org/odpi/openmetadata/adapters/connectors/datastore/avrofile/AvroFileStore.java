@@ -0,0 +1,103 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+package org.odpi.openmetadata.adapters.connectors.datastore.avrofile;
+
+import org.odpi.openmetadata.adapters.connectors.datastore.avrofile.ffdc.exception.FileReadException;
+import org.odpi.openmetadata.adapters.connectors.datastore.basicfile.BasicFileStore;
+import org.odpi.openmetadata.adapters.connectors.datastore.basicfile.ffdc.exception.FileException;
+
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Spliterator;
+
+/**
+ * AvroFileStore defines the specific connector api for working with Avro object container files.  An Avro file
+ * holds the schema of its records in its header, followed by blocks of records in the Avro binary encoding.
+ * Each record is returned as a map of field name to value.
+ */
+public interface AvroFileStore extends BasicFileStore
+{
+    /**
+     * Return the name of the file to read.
+     *
+     * @return file name
+     * @throws FileException there is a problem accessing the file
+     * @throws FileReadException - the file name is null, the file does not exist, or is a directory or
+     *                             is not readable.
+     */
+    String   getFileName() throws FileException, FileReadException;
+
+
+    /**
+     * Return the last update data for the file.
+     *
+     * @return Date object
+     * @throws FileException there is a problem accessing the file
+     * @throws FileReadException - the file name is null, the file does not exist, or is a directory or
+     *                             is not readable.
+     */
+    Date     getLastUpdateDate() throws FileException, FileReadException;
+
+
+    /**
+     * Return the JSON text of the schema embedded in the file.  It can be used to catalogue the structure of
+     * the file.
+     *
+     * @return schema text
+     * @throws FileException there is a problem accessing the file
+     * @throws FileReadException the file is not a valid Avro file or can not be read
+     */
+    String   getSchema() throws FileException, FileReadException;
+
+
+    /**
+     * Return the names of the fields in the records of the file, in schema order.
+     *
+     * @return list of field names
+     * @throws FileException there is a problem accessing the file
+     * @throws FileReadException the file is not a valid Avro file, can not be read, or does not hold records
+     */
+    List<String>      getFieldNames() throws FileException, FileReadException;
+
+
+    /**
+     * Return the number of records in the file.  The count is taken from the headers of the data blocks, so the
+     * records are not decoded.
+     *
+     * @return count
+     * @throws FileException there is a problem accessing the file
+     * @throws FileReadException the file is not a valid Avro file or can not be read
+     */
+    long     getRecordCount() throws FileException, FileReadException;
+
+
+    /**
+     * Return an iterator over the records in the file, in the order they appear in the file.  Only the requested
+     * fields are decoded - the others are skipped.
+     *
+     * @param fieldNames names of the fields to return - null for all fields
+     * @return iterator of records - each record is a map of field name to value
+     * @throws FileException there is a problem accessing the file
+     * @throws FileReadException the file is not a valid Avro file, can not be read, does not hold records,
+     *                           or a requested field is not in its schema
+     */
+    Iterator<Map<String, Object>> getRecordIterator(Set<String> fieldNames) throws FileException, FileReadException;
+
+
+    /**
+     * Return a spliterator over the records in the file.  It splits at the boundaries of the data blocks, so
+     * it can be used to process the records with a sequential or parallel stream.  Only the requested
+     * fields are decoded - the others are skipped.
+     *
+     * @param fieldNames names of the fields to return - null for all fields
+     * @return spliterator of records - each record is a map of field name to value
+     * @throws FileException there is a problem accessing the file
+     * @throws FileReadException the file is not a valid Avro file, can not be read, does not hold records,
+     *                           or a requested field is not in its schema
+     */
+    Spliterator<Map<String, Object>> getRecordSpliterator(Set<String> fieldNames) throws FileException, FileReadException;
+}
@@ -3,16 +3,390 @@
 
 package org.odpi.openmetadata.adapters.connectors.datastore.avrofile;
 
+import org.apache.avro.AvroRuntimeException;
+import org.apache.avro.InvalidAvroMagicException;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaParseException;
+import org.apache.avro.file.DataFileReader;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericRecord;
+import org.odpi.openmetadata.adapters.connectors.datastore.avrofile.ffdc.AvroFileConnectorErrorCode;
+import org.odpi.openmetadata.adapters.connectors.datastore.avrofile.ffdc.exception.FileReadException;
 import org.odpi.openmetadata.adapters.connectors.datastore.basicfile.BasicFileStoreConnector;
+import org.odpi.openmetadata.adapters.connectors.datastore.basicfile.ffdc.exception.FileException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+
 
 /**
- * AvroFileStoreConnector works with avro files to retrieve simple objects.
+ * AvroFileStoreConnector works with Avro object container files to retrieve their schema and records.
+ * The files are read with the Apache Avro library, so every codec that the library supports can be used.
  */
-public class AvroFileStoreConnector extends BasicFileStoreConnector
+public class AvroFileStoreConnector extends BasicFileStoreConnector implements AvroFileStore
 {
+    /*
+     * The schema and record count are read the first time they are needed and reread when the file changes.
+     */
+    private Schema fileSchema         = null;
+    private long   loadedLength       = -1;
+    private long   loadedLastModified = -1;
+    private long   recordCount        = -1;
+
     private static final Logger log = LoggerFactory.getLogger(AvroFileStoreConnector.class);
 
+
+    /**
+     * Return the name of the file to read.
+     *
+     * @return file name
+     * @throws FileException problem accessing the file
+     */
+    public String   getFileName() throws FileException
+    {
+        final String  methodName = "getFileName";
+
+        getFile(methodName);
+
+        return fileStoreName;
+    }
+
+
+    /**
+     * Return the last update data for the file.
+     *
+     * @return Date object
+     * @throws FileException problem accessing the file
+     */
+    public Date getLastUpdateDate() throws FileException
+    {
+        final String  methodName = "getLastUpdateDate";
+
+        File fileStore = getFile(methodName);
+
+        return new Date(fileStore.lastModified());
+    }
+
+
+    /**
+     * Return the JSON text of the schema embedded in the file.
+     *
+     * @return schema text
+     * @throws FileException problem accessing the file
+     * @throws FileReadException the file is not a valid Avro file or can not be read
+     */
+    public String   getSchema() throws FileException, FileReadException
+    {
+        final String  methodName = "getSchema";
+
+        return getFileSchema(super.getFile(methodName), methodName).toString();
+    }
+
+
+    /**
+     * Return the names of the fields in the records of the file, in schema order.
+     *
+     * @return list of field names
+     * @throws FileException problem accessing the file
+     * @throws FileReadException the file is not a valid Avro file, can not be read, or does not hold records
+     */
+    public List<String> getFieldNames() throws FileException, FileReadException
+    {
+        final String  methodName = "getFieldNames";
+
+        List<String> fieldNames = new ArrayList<>();
+
+        for (Schema.Field field : getRecordSchema(super.getFile(methodName), methodName).getFields())
+        {
+            fieldNames.add(field.name());
+        }
+
+        return fieldNames;
+    }
+
+
+    /**
+     * Return the number of records in the file.  The count is the total of the counts in the headers of the
+     * data blocks, so the records are not decoded.  Only the first call after the file changes reads the file.
+     *
+     * @return count
+     * @throws FileException problem accessing the file
+     * @throws FileReadException the file is not a valid Avro file or can not be read
+     */
+    public synchronized long getRecordCount() throws FileException, FileReadException
+    {
+        final String  methodName = "getRecordCount";
+
+        File fileStore = super.getFile(methodName);
+
+        getFileSchema(fileStore, methodName);
+
+        if (recordCount < 0)
+        {
+            long count = 0;
+
+            try (DataFileReader<GenericRecord> reader = openReader(fileStore, new GenericDatumReader<>(), methodName))
+            {
+                while (reader.hasNext())
+                {
+                    count += reader.getBlockCount();
+                    reader.nextBlock();
+                }
+            }
+            catch (IOException error)
+            {
+                throw new FileReadException(AvroFileConnectorErrorCode.UNEXPECTED_IO_EXCEPTION.getMessageDefinition(fileStoreName,
+                                                                                                                    error.getMessage()),
+                                            this.getClass().getName(),
+                                            methodName,
+                                            error,
+                                            fileStoreName);
+            }
+            catch (AvroRuntimeException error)
+            {
+                throw new FileReadException(AvroFileConnectorErrorCode.CORRUPT_FILE.getMessageDefinition(fileStoreName,
+                                                                                                         error.getMessage()),
+                                            this.getClass().getName(),
+                                            methodName,
+                                            error,
+                                            fileStoreName);
+            }
+
+            recordCount = count;
+        }
+
+        return recordCount;
+    }
+
+
+    /**
+     * Return an iterator over the records in the file.  The file is closed once the last record has been returned.
+     *
+     * @param fieldNames names of the fields to return - null for all fields
+     * @return iterator of records - each record is a map of field name to value
+     * @throws FileException problem accessing the file
+     * @throws FileReadException the file is not a valid Avro file, can not be read, does not hold records,
+     *                           or a requested field is not in its schema
+     */
+    public Iterator<Map<String, Object>> getRecordIterator(Set<String> fieldNames) throws FileException, FileReadException
+    {
+        return Spliterators.iterator(getRecordSpliterator(fieldNames));
+    }
+
+
+    /**
+     * Return a spliterator over the records in the file.  It splits by byte range without reading the file.
+     * Each part starts at the first sync marker in its range, so StreamSupport.stream(spliterator, true)
+     * processes the data blocks in parallel.
+     *
+     * @param fieldNames names of the fields to return - null for all fields
+     * @return spliterator of records - each record is a map of field name to value
+     * @throws FileException problem accessing the file
+     * @throws FileReadException the file is not a valid Avro file, can not be read, does not hold records,
+     *                           or a requested field is not in its schema
+     */
+    public Spliterator<Map<String, Object>> getRecordSpliterator(Set<String> fieldNames) throws FileException, FileReadException
+    {
+        final String  methodName = "getRecordSpliterator";
+
+        File   fileStore    = super.getFile(methodName);
+        Schema readerSchema = getReaderSchema(getRecordSchema(fileStore, methodName), fieldNames, methodName);
+
+        return new AvroRecordSpliterator(fileStore, readerSchema, 0, fileStore.length());
+    }
+
+
+    /**
+     * Build the schema used to read the records.  It holds only the requested fields, so the Avro library
+     * skips over the values of the other fields rather than decoding them.
+     *
+     * @param schema record schema of the file
+     * @param fieldNames names of the requested fields - null for all fields
+     * @param methodName calling method
+     * @return reader schema
+     * @throws FileReadException a requested field is not in the schema
+     */
+    private Schema getReaderSchema(Schema      schema,
+                                   Set<String> fieldNames,
+                                   String      methodName) throws FileReadException
+    {
+        if (fieldNames == null)
+        {
+            return schema;
+        }
+
+        List<Schema.Field> projectedFields = new ArrayList<>();
+        Set<String>        unmatchedNames  = new HashSet<>(fieldNames);
+
+        for (Schema.Field field : schema.getFields())
+        {
+            if (unmatchedNames.remove(field.name()))
+            {
+                projectedFields.add(new Schema.Field(field, field.schema()));
+            }
+        }
+
+        if (! unmatchedNames.isEmpty())
+        {
+            throw new FileReadException(AvroFileConnectorErrorCode.UNKNOWN_FIELD.getMessageDefinition(unmatchedNames.iterator().next(),
+                                                                                                      fileStoreName),
+                                        this.getClass().getName(),
+                                        methodName,
+                                        fileStoreName);
+        }
+
+        return Schema.createRecord(schema.getName(), schema.getDoc(), schema.getNamespace(), schema.isError(), projectedFields);
+    }
+
+
+    /**
+     * Return the schema of the file, checking that it describes records.
+     *
+     * @param fileStore Avro file
+     * @param methodName calling method
+     * @return record schema
+     * @throws FileReadException the file can not be read or the values in the file are not records
+     */
+    private Schema getRecordSchema(File   fileStore,
+                                   String methodName) throws FileReadException
+    {
+        Schema schema = getFileSchema(fileStore, methodName);
+
+        if (schema.getType() != Schema.Type.RECORD)
+        {
+            throw new FileReadException(AvroFileConnectorErrorCode.NOT_RECORD_SCHEMA.getMessageDefinition(fileStoreName,
+                                                                                                          schema.getType().getName()),
+                                        this.getClass().getName(),
+                                        methodName,
+                                        fileStoreName);
+        }
+
+        return schema;
+    }
+
+
+    /**
+     * Return the schema from the header of the file, reading it if this is the first request or the file has been
+     * updated since it was read.
+     *
+     * @param fileStore Avro file
+     * @param methodName name of calling method
+     * @return schema of the values in the file
+     * @throws FileReadException the file is not a valid Avro file or can not be read
+     */
+    private synchronized Schema getFileSchema(File   fileStore,
+                                              String methodName) throws FileReadException
+    {
+        long fileLength   = fileStore.length();
+        long lastModified = fileStore.lastModified();
+
+        if ((fileSchema == null) || (fileLength != loadedLength) || (lastModified != loadedLastModified))
+        {
+            try (DataFileReader<GenericRecord> reader = openReader(fileStore, new GenericDatumReader<>(), methodName))
+            {
+                fileSchema = reader.getSchema();
+            }
+            catch (IOException error)
+            {
+                throw new FileReadException(AvroFileConnectorErrorCode.UNEXPECTED_IO_EXCEPTION.getMessageDefinition(fileStoreName,
+                                                                                                                    error.getMessage()),
+                                            this.getClass().getName(),
+                                            methodName,
+                                            error,
+                                            fileStoreName);
+            }
+
+            loadedLength       = fileLength;
+            loadedLastModified = lastModified;
+            recordCount        = -1;
+        }
+
+        return fileSchema;
+    }
+
+
+    /**
+     * Open the file with the Avro library, which reads the header.
+     *
+     * @param fileStore Avro file
+     * @param datumReader reader for the values in the file
+     * @param methodName name of calling method
+     * @return open reader positioned at the first data block
+     * @throws FileReadException the file is not a valid Avro file or can not be read
+     */
+    private DataFileReader<GenericRecord> openReader(File                              fileStore,
+                                                     GenericDatumReader<GenericRecord> datumReader,
+                                                     String                            methodName) throws FileReadException
+    {
+        try
+        {
+            return new DataFileReader<>(fileStore, datumReader);
+        }
+        catch (InvalidAvroMagicException error)
+        {
+            throw new FileReadException(AvroFileConnectorErrorCode.NOT_AVRO_FILE.getMessageDefinition(fileStoreName),
+                                        this.getClass().getName(),
+                                        methodName,
+                                        error,
+                                        fileStoreName);
+        }
+        catch (IOException error)
+        {
+            throw new FileReadException(AvroFileConnectorErrorCode.UNEXPECTED_IO_EXCEPTION.getMessageDefinition(fileStoreName,
+                                                                                                                error.getMessage()),
+                                        this.getClass().getName(),
+                                        methodName,
+                                        error,
+                                        fileStoreName);
+        }
+        catch (SchemaParseException error)
+        {
+            throw new FileReadException(AvroFileConnectorErrorCode.INVALID_SCHEMA.getMessageDefinition(fileStoreName,
+                                                                                                       error.getMessage()),
+                                        this.getClass().getName(),
+                                        methodName,
+                                        error,
+                                        fileStoreName);
+        }
+        catch (AvroRuntimeException error)
+        {
+            /*
+             * The header is read when the reader is created so the only other failure is a codec that the
+             * library does not recognize.
+             */
+            throw new FileReadException(AvroFileConnectorErrorCode.UNSUPPORTED_CODEC.getMessageDefinition(fileStoreName,
+                                                                                                          error.getMessage()),
+                                        this.getClass().getName(),
+                                        methodName,
+                                        error,
+                                        fileStoreName);
+        }
+    }
+
+
+    /**
+     * Close the file
+     */
+    public void disconnect()
+    {
+        synchronized (this)
+        {
+            fileSchema  = null;
+            recordCount = -1;
+        }
+
+        try
+        {
+            super.disconnect();
+        }
+        catch (Throwable  exec)
+        {
+            log.debug("Ignoring unexpected exception " + exec.getClass().getSimpleName() + " with message " + exec.getMessage());
+        }
+
+        log.debug("Closing Avro File Store");
+    }
 }
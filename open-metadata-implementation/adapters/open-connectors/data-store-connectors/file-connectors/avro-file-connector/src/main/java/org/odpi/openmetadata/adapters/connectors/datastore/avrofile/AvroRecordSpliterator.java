@@ -0,0 +1,275 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+package org.odpi.openmetadata.adapters.connectors.datastore.avrofile;
+
+import org.apache.avro.Schema;
+import org.apache.avro.file.DataFileReader;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericEnumSymbol;
+import org.apache.avro.generic.GenericFixed;
+import org.apache.avro.generic.GenericRecord;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+
+/**
+ * AvroRecordSpliterator returns the records held in a byte range of an Avro file.  The range splits in half
+ * without reading the file.  Each part opens its own reader, moves to the first sync marker at or after the
+ * start of its range and returns the records of each data block that starts before the end of its range.
+ * This is the same division of the file that the Avro library uses for its own parallel readers, so every
+ * block is returned by exactly one part and the parts can be processed by a parallel stream.
+ *
+ * The records are read with the supplied reader schema, so only the fields it contains are decoded.
+ * The file is closed once the last record of the range has been returned.  If the file can not be read,
+ * an UncheckedIOException is thrown; if a block does not match the schema, an AvroRuntimeException is thrown.
+ */
+class AvroRecordSpliterator implements Spliterator<Map<String, Object>>
+{
+    /*
+     * Ranges smaller than this are not split since they hold few blocks.
+     */
+    private static final long minimumSplitSize = 64 * 1024;
+
+    private final File   file;
+    private final Schema readerSchema;
+    private       long   start;
+    private final long   end;
+
+    /*
+     * The reader is opened when the first record is needed.
+     */
+    private DataFileReader<GenericRecord> reader   = null;
+    private boolean                       finished = false;
+
+
+    /**
+     * Constructor supplies the range to return.
+     *
+     * @param file Avro file
+     * @param readerSchema schema holding the fields to return
+     * @param start first byte of the range
+     * @param end byte after the last byte of the range
+     */
+    AvroRecordSpliterator(File   file,
+                          Schema readerSchema,
+                          long   start,
+                          long   end)
+    {
+        this.file         = file;
+        this.readerSchema = readerSchema;
+        this.start        = start;
+        this.end          = end;
+    }
+
+
+    /**
+     * Pass the next record to the action.
+     *
+     * @param action consumer of the record
+     * @return false if there are no more records
+     */
+    @Override
+    public boolean tryAdvance(Consumer<? super Map<String, Object>> action)
+    {
+        if (finished)
+        {
+            return false;
+        }
+
+        GenericRecord record;
+
+        try
+        {
+            if (reader == null)
+            {
+                GenericDatumReader<GenericRecord> datumReader = new GenericDatumReader<>();
+
+                datumReader.setExpected(readerSchema);
+                reader = new DataFileReader<>(file, datumReader);
+                reader.sync(start);
+            }
+
+            if ((! reader.hasNext()) || (reader.pastSync(end)))
+            {
+                close();
+                return false;
+            }
+
+            record = reader.next();
+        }
+        catch (IOException error)
+        {
+            close();
+            throw new UncheckedIOException("Unable to read Avro file " + file.getName() + ": " + error.getMessage(), error);
+        }
+        catch (RuntimeException error)
+        {
+            close();
+            throw error;
+        }
+
+        action.accept(toMap(record));
+
+        return true;
+    }
+
+
+    /**
+     * Pass the first half of the range to a new spliterator.  Only a spliterator that has not started
+     * reading can be split.
+     *
+     * @return new spliterator or null if the range is too small to split
+     */
+    @Override
+    public Spliterator<Map<String, Object>> trySplit()
+    {
+        if ((reader != null) || (finished) || (end - start < 2 * minimumSplitSize))
+        {
+            return null;
+        }
+
+        long middle = start + ((end - start) / 2);
+
+        AvroRecordSpliterator prefix = new AvroRecordSpliterator(file, readerSchema, start, middle);
+
+        start = middle;
+
+        return prefix;
+    }
+
+
+    /**
+     * Return the number of bytes left in the range.  The number of records in a range is not known without
+     * reading its blocks, so this is used as a relative measure of the work left.
+     *
+     * @return estimate
+     */
+    @Override
+    public long estimateSize()
+    {
+        return finished ? 0 : end - start;
+    }
+
+
+    /**
+     * Return the characteristics of the records.
+     *
+     * @return ORDERED, NONNULL and IMMUTABLE
+     */
+    @Override
+    public int characteristics()
+    {
+        return ORDERED | NONNULL | IMMUTABLE;
+    }
+
+
+    /**
+     * Close the file.
+     */
+    private void close()
+    {
+        finished = true;
+
+        if (reader != null)
+        {
+            try
+            {
+                reader.close();
+            }
+            catch (IOException error)
+            {
+                /*
+                 * Nothing more is read from the file.
+                 */
+            }
+
+            reader = null;
+        }
+    }
+
+
+    /**
+     * Convert a record into a map of field name to value.
+     *
+     * @param record record from the Avro library
+     * @return map
+     */
+    private static Map<String, Object> toMap(GenericRecord record)
+    {
+        Map<String, Object> values = new LinkedHashMap<>();
+
+        for (Schema.Field field : record.getSchema().getFields())
+        {
+            values.put(field.name(), toJavaValue(record.get(field.pos())));
+        }
+
+        return values;
+    }
+
+
+    /**
+     * Convert a value from the Avro library into the Java objects returned by the connector: records and maps
+     * as Map, arrays as List, enum symbols and strings as String, bytes and fixed as byte[].
+     *
+     * @param value value from the Avro library
+     * @return Java value
+     */
+    private static Object toJavaValue(Object value)
+    {
+        if (value instanceof GenericRecord)
+        {
+            return toMap((GenericRecord) value);
+        }
+        else if ((value instanceof CharSequence) || (value instanceof GenericEnumSymbol))
+        {
+            return value.toString();
+        }
+        else if (value instanceof ByteBuffer)
+        {
+            ByteBuffer buffer = ((ByteBuffer) value).duplicate();
+            byte[]     bytes  = new byte[buffer.remaining()];
+
+            buffer.get(bytes);
+            return bytes;
+        }
+        else if (value instanceof GenericFixed)
+        {
+            return ((GenericFixed) value).bytes().clone();
+        }
+        else if (value instanceof Map)
+        {
+            Map<String, Object> values = new LinkedHashMap<>();
+
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet())
+            {
+                values.put(entry.getKey().toString(), toJavaValue(entry.getValue()));
+            }
+
+            return values;
+        }
+        else if (value instanceof Collection)
+        {
+            List<Object> values = new ArrayList<>();
+
+            for (Object element : (Collection<?>) value)
+            {
+                values.add(toJavaValue(element));
+            }
+
+            return values;
+        }
+
+        return value;
+    }
+}
@@ -0,0 +1,126 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.connectors.datastore.avrofile.ffdc;
+
+import org.odpi.openmetadata.frameworks.auditlog.messagesets.ExceptionMessageDefinition;
+import org.odpi.openmetadata.frameworks.auditlog.messagesets.ExceptionMessageSet;
+
+
+/**
+ * The AvroFileConnectorErrorCode is used to define first failure data capture (FFDC) for errors that occur when working with
+ * the Avro File Connector.  It is used in conjunction with both Checked and Runtime (unchecked) exceptions.
+ *
+ * The 5 fields in the enum are:
+ * <ul>
+ *     <li>HTTP Error Code - for translating between REST and JAVA - Typically the numbers used are:</li>
+ *     <li><ul>
+ *         <li>500 - internal error</li>
+ *         <li>400 - invalid parameters</li>
+ *         <li>404 - not found</li>
+ *         <li>409 - data conflict errors - eg item already defined</li>
+ *     </ul></li>
+ *     <li>Error Message Id - to uniquely identify the message</li>
+ *     <li>Error Message Text - includes placeholder to allow additional values to be captured</li>
+ *     <li>SystemAction - describes the result of the error</li>
+ *     <li>UserAction - describes how a consumer should correct the error</li>
+ * </ul>
+ */
+public enum AvroFileConnectorErrorCode implements ExceptionMessageSet
+{
+    NOT_AVRO_FILE(400, "AVRO-FILE-CONNECTOR-400-001",
+            "The file {0} is not an Avro object container file",
+            "The connector is unable to read the file because it does not start with the Avro object container file header.",
+            "Ensure the address property in the Endpoint object of the Connection object names an Avro data file."),
+    INVALID_SCHEMA(400, "AVRO-FILE-CONNECTOR-400-002",
+            "The schema embedded in Avro file {0} is not valid: {1}",
+            "The connector is unable to decode the records in the file because it does not understand their schema.",
+            "Use the error message to correct the program that wrote the file and then rewrite the file."),
+    UNSUPPORTED_CODEC(400, "AVRO-FILE-CONNECTOR-400-003",
+            "The data blocks in Avro file {0} are compressed with a codec that is not supported: {1}",
+            "The connector is unable to decode the records in the file.  The codec is not known to the Apache Avro library.",
+            "Rewrite the file with a codec supported by the Apache Avro library, such as null, deflate, snappy, bzip2 or zstandard."),
+    NOT_RECORD_SCHEMA(400, "AVRO-FILE-CONNECTOR-400-004",
+            "The schema of Avro file {0} is of type {1} rather than a record",
+            "The connector is unable to return the values in the file as records.",
+            "Use getSchema and getRecordCount to work with this file or rewrite it with a record schema."),
+    UNKNOWN_FIELD(400, "AVRO-FILE-CONNECTOR-400-005",
+            "The field {0} requested from Avro file {1} is not in its schema",
+            "The connector is unable to project the records onto the requested fields.",
+            "Use getFieldNames to find the fields in the file and then retry the request."),
+    CORRUPT_FILE(400, "AVRO-FILE-CONNECTOR-400-006",
+            "Avro file {0} is corrupt: {1}",
+            "The connector is unable to decode the data blocks in the file.",
+            "Check that the file was completely written and has not been changed by another program."),
+    UNEXPECTED_IO_EXCEPTION(500, "AVRO-FILE-CONNECTOR-500-001",
+             "The connector received an unexpected IO exception when reading the file named {0}; the error message was: {1}",
+             "The connector is unable to process the Avro file.",
+             "Use details from the error message to determine the cause of the error and retry the request once it is resolved.");
+
+
+    private ExceptionMessageDefinition messageDefinition;
+
+
+    /**
+     * The constructor for AvroFileConnectorErrorCode expects to be passed one of the enumeration rows defined in
+     * AvroFileConnectorErrorCode above.   For example:
+     *
+     *     AvroFileConnectorErrorCode   errorCode = AvroFileConnectorErrorCode.NOT_AVRO_FILE;
+     *
+     * This will expand out to the 5 parameters shown below.
+     *
+     * @param httpErrorCode   error code to use over REST calls
+     * @param errorMessageId   unique Id for the message
+     * @param errorMessage   text for the message
+     * @param systemAction   description of the action taken by the system when the error condition happened
+     * @param userAction   instructions for resolving the error
+     */
+    AvroFileConnectorErrorCode(int  httpErrorCode, String errorMessageId, String errorMessage, String systemAction, String userAction)
+    {
+        this.messageDefinition = new ExceptionMessageDefinition(httpErrorCode,
+                                                                errorMessageId,
+                                                                errorMessage,
+                                                                systemAction,
+                                                                userAction);
+    }
+
+
+    /**
+     * Retrieve a message definition object for an exception.  This method is used when there are no message inserts.
+     *
+     * @return message definition object.
+     */
+    @Override
+    public ExceptionMessageDefinition getMessageDefinition()
+    {
+        return messageDefinition;
+    }
+
+
+    /**
+     * Retrieve a message definition object for an exception.  This method is used when there are values to be inserted into the message.
+     *
+     * @param params array of parameters (all strings).  They are inserted into the message according to the numbering in the message text.
+     * @return message definition object.
+     */
+    @Override
+    public ExceptionMessageDefinition getMessageDefinition(String... params)
+    {
+        messageDefinition.setMessageParameters(params);
+
+        return messageDefinition;
+    }
+
+
+    /**
+     * JSON-style toString
+     *
+     * @return string of property names and values for this enum
+     */
+    @Override
+    public String toString()
+    {
+        return "AvroFileConnectorErrorCode{" +
+                       "messageDefinition=" + messageDefinition +
+                       '}';
+    }
+}
@@ -0,0 +1,396 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.connectors.datastore.avrofile;
+
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.apache.avro.file.CodecFactory;
+import org.apache.avro.file.DataFileWriter;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.odpi.openmetadata.adapters.connectors.datastore.avrofile.ffdc.AvroFileConnectorErrorCode;
+import org.odpi.openmetadata.adapters.connectors.datastore.avrofile.ffdc.exception.FileReadException;
+import org.odpi.openmetadata.frameworks.connectors.properties.ConnectionProperties;
+import org.odpi.openmetadata.frameworks.connectors.properties.beans.Connection;
+import org.odpi.openmetadata.frameworks.connectors.properties.beans.ConnectorType;
+import org.odpi.openmetadata.frameworks.connectors.properties.beans.Endpoint;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * Test that the AvroFileStoreConnector reads container files written by the Apache Avro library.
+ */
+public class AvroFileStoreConnectorTest
+{
+    private static final int recordCount = 20000;
+
+    private static final Schema recordSchema = SchemaBuilder.record("Contact").namespace("org.odpi.test").fields()
+                                                            .requiredLong("id")
+                                                            .requiredString("name")
+                                                            .optionalString("email")
+                                                            .name("phones").type().array().items().stringType().noDefault()
+                                                            .name("attributes").type().map().values().intType().noDefault()
+                                                            .name("kind").type().enumeration("Kind").symbols("PERSON", "TEAM").noDefault()
+                                                            .name("photo").type().bytesType().noDefault()
+                                                            .endRecord();
+
+    private final List<File> testFiles = new ArrayList<>();
+    private       File       testDirectory;
+
+
+    @BeforeClass
+    public void createTestDirectory() throws Exception
+    {
+        testDirectory = Files.createTempDirectory("AvroFileStoreConnectorTest").toFile();
+    }
+
+
+    @AfterClass
+    public void deleteTestFiles()
+    {
+        for (File file : testFiles)
+        {
+            file.delete();
+        }
+
+        testDirectory.delete();
+    }
+
+
+    private Connection getConnection(String   fileName)
+    {
+        final String endpointGUID      = "2a5b3e4f-9d3c-4d4b-8f0d-6c1e2b7a9f10";
+        final String connectorTypeGUID = "0b2e7e1a-4c5d-4e6f-9a8b-1c2d3e4f5a6b";
+        final String connectionGUID    = "6f7e8d9c-0b1a-4c3d-8e5f-7a6b5c4d3e2f";
+
+        final String endpointDescription = "File name.";
+
+        String endpointName    = "AvroFileStore.Endpoint." + fileName;
+
+        Endpoint endpoint = new Endpoint();
+
+        endpoint.setType(Endpoint.getEndpointType());
+        endpoint.setGUID(endpointGUID);
+        endpoint.setQualifiedName(endpointName);
+        endpoint.setDisplayName(endpointName);
+        endpoint.setDescription(endpointDescription);
+        endpoint.setAddress(fileName);
+
+
+        final String connectorTypeDescription   = "AvroFileStore connector type.";
+        final String connectorTypeJavaClassName = AvroFileStoreProvider.class.getName();
+
+        String connectorTypeName = "AvroFileStore.ConnectorType.Test";
+
+        ConnectorType connectorType = new ConnectorType();
+
+        connectorType.setType(ConnectorType.getConnectorTypeType());
+        connectorType.setGUID(connectorTypeGUID);
+        connectorType.setQualifiedName(connectorTypeName);
+        connectorType.setDisplayName(connectorTypeName);
+        connectorType.setDescription(connectorTypeDescription);
+        connectorType.setConnectorProviderClassName(connectorTypeJavaClassName);
+
+
+        final String connectionDescription = "AvroFileStore connection.";
+
+        String connectionName = "AvroFileStore.Connection.Test";
+
+        Connection connection = new Connection();
+
+        connection.setType(Connection.getConnectionType());
+        connection.setGUID(connectionGUID);
+        connection.setQualifiedName(connectionName);
+        connection.setDisplayName(connectionName);
+        connection.setDescription(connectionDescription);
+        connection.setEndpoint(endpoint);
+        connection.setConnectorType(connectorType);
+
+        return connection;
+    }
+
+
+    private AvroFileStoreConnector getConnector(File file) throws Exception
+    {
+        AvroFileStoreConnector connector = new AvroFileStoreConnector();
+
+        connector.initialize(UUID.randomUUID().toString(), new ConnectionProperties(getConnection(file.getPath())));
+        connector.start();
+
+        return connector;
+    }
+
+
+    private File newTestFile(String name)
+    {
+        File file = new File(testDirectory, name);
+
+        testFiles.add(file);
+        return file;
+    }
+
+
+    /**
+     * Write a file with the Avro library.  A small sync interval gives the file many data blocks.
+     *
+     * @param name file name
+     * @param codec compression codec
+     * @return file
+     * @throws Exception problem writing the file
+     */
+    private File writeFile(String name, CodecFactory codec) throws Exception
+    {
+        File file = newTestFile(name);
+
+        try (DataFileWriter<GenericRecord> writer = new DataFileWriter<>(new GenericDatumWriter<GenericRecord>(recordSchema)))
+        {
+            writer.setCodec(codec);
+            writer.setSyncInterval(2048);
+            writer.create(recordSchema, file);
+
+            for (long id = 0; id < recordCount; id++)
+            {
+                GenericRecord record = new GenericData.Record(recordSchema);
+
+                record.put("id", id);
+                record.put("name", "Contact " + id);
+                record.put("email", (id % 2 == 0) ? "contact" + id + "@example.com" : null);
+                record.put("phones", Arrays.asList("555-" + id, "556-" + id));
+                record.put("attributes", Collections.singletonMap("rank", (int) (id % 10)));
+                record.put("kind", new GenericData.EnumSymbol(recordSchema.getField("kind").schema(), (id % 3 == 0) ? "TEAM" : "PERSON"));
+                record.put("photo", ByteBuffer.wrap(new byte[] { (byte) id, (byte) (id >> 8) }));
+
+                writer.append(record);
+            }
+        }
+
+        return file;
+    }
+
+
+    @DataProvider(name = "codecs")
+    public Object[][] codecs()
+    {
+        return new Object[][] {
+                { "null",      CodecFactory.nullCodec() },
+                { "deflate",   CodecFactory.deflateCodec(6) },
+                { "snappy",    CodecFactory.snappyCodec() },
+                { "bzip2",     CodecFactory.bzip2Codec() },
+                { "zstandard", CodecFactory.zstandardCodec(3) } };
+    }
+
+
+    @Test(dataProvider = "codecs")
+    public void testReadFile(String codecName, CodecFactory codec) throws Exception
+    {
+        File                   file      = writeFile("contacts-" + codecName + ".avro", codec);
+        AvroFileStoreConnector connector = getConnector(file);
+
+        assertEquals(new Schema.Parser().parse(connector.getSchema()), recordSchema);
+        assertEquals(connector.getFieldNames(), Arrays.asList("id", "name", "email", "phones", "attributes", "kind", "photo"));
+        assertEquals(connector.getRecordCount(), recordCount);
+
+        Iterator<Map<String, Object>> iterator = connector.getRecordIterator(null);
+        long                          id       = 0;
+
+        while (iterator.hasNext())
+        {
+            Map<String, Object> record = iterator.next();
+
+            assertEquals(record.get("id"), id);
+            assertEquals(record.get("name"), "Contact " + id);
+            assertEquals(record.get("email"), (id % 2 == 0) ? "contact" + id + "@example.com" : null);
+            assertEquals(record.get("phones"), Arrays.asList("555-" + id, "556-" + id));
+            assertEquals(record.get("attributes"), Collections.singletonMap("rank", (int) (id % 10)));
+            assertEquals(record.get("kind"), (id % 3 == 0) ? "TEAM" : "PERSON");
+            assertEquals((byte[]) record.get("photo"), new byte[] { (byte) id, (byte) (id >> 8) });
+
+            id++;
+        }
+
+        assertEquals(id, recordCount);
+
+        connector.disconnect();
+    }
+
+
+    @Test
+    public void testProjection() throws Exception
+    {
+        File                   file      = writeFile("contacts-projection.avro", CodecFactory.deflateCodec(1));
+        AvroFileStoreConnector connector = getConnector(file);
+
+        Iterator<Map<String, Object>> iterator = connector.getRecordIterator(new HashSet<>(Arrays.asList("name", "id")));
+        Map<String, Object>           first    = iterator.next();
+
+        /*
+         * The fields are returned in schema order and the others are not decoded.
+         */
+        assertEquals(new ArrayList<>(first.keySet()), Arrays.asList("id", "name"));
+        assertEquals(first.get("id"), 0L);
+        assertEquals(first.get("name"), "Contact 0");
+
+        try
+        {
+            connector.getRecordIterator(Collections.singleton("unknown"));
+            fail("Unknown field accepted");
+        }
+        catch (FileReadException error)
+        {
+            assertEquals(error.getReportedErrorMessageId(), AvroFileConnectorErrorCode.UNKNOWN_FIELD.getMessageDefinition().getMessageId());
+        }
+
+        connector.disconnect();
+    }
+
+
+    @Test
+    public void testParallelStream() throws Exception
+    {
+        File                   file      = writeFile("contacts-parallel.avro", CodecFactory.snappyCodec());
+        AvroFileStoreConnector connector = getConnector(file);
+
+        assertTrue(file.length() > 4 * 64 * 1024);
+
+        Spliterator<Map<String, Object>> spliterator = connector.getRecordSpliterator(Collections.singleton("id"));
+
+        assertTrue(spliterator.trySplit() != null);
+
+        List<Long> ids = StreamSupport.stream(connector.getRecordSpliterator(Collections.singleton("id")), true)
+                                      .map(record -> (Long) record.get("id"))
+                                      .collect(Collectors.toList());
+
+        /*
+         * Each block is returned by exactly one part and the parts are joined in file order.
+         */
+        assertEquals(ids.size(), recordCount);
+        for (int i = 0; i < recordCount; i++)
+        {
+            assertEquals(ids.get(i).longValue(), i);
+        }
+
+        connector.disconnect();
+    }
+
+
+    @Test
+    public void testFileChanged() throws Exception
+    {
+        File                   file      = writeFile("contacts-changed.avro", CodecFactory.nullCodec());
+        AvroFileStoreConnector connector = getConnector(file);
+
+        assertEquals(connector.getRecordCount(), recordCount);
+
+        Schema changedSchema = SchemaBuilder.record("Count").fields().requiredInt("value").endRecord();
+
+        try (DataFileWriter<GenericRecord> writer = new DataFileWriter<>(new GenericDatumWriter<GenericRecord>(changedSchema)))
+        {
+            writer.create(changedSchema, file);
+
+            GenericRecord record = new GenericData.Record(changedSchema);
+
+            record.put("value", 42);
+            writer.append(record);
+        }
+
+        assertTrue(file.setLastModified(file.lastModified() + 2000));
+
+        assertEquals(connector.getFieldNames(), Collections.singletonList("value"));
+        assertEquals(connector.getRecordCount(), 1);
+        assertEquals(connector.getRecordIterator(null).next().get("value"), 42);
+
+        connector.disconnect();
+    }
+
+
+    @Test
+    public void testNotRecordSchema() throws Exception
+    {
+        File   file   = newTestFile("strings.avro");
+        Schema schema = Schema.create(Schema.Type.STRING);
+
+        try (DataFileWriter<Object> writer = new DataFileWriter<>(new GenericDatumWriter<>(schema)))
+        {
+            writer.create(schema, file);
+            writer.append("one");
+            writer.append("two");
+        }
+
+        AvroFileStoreConnector connector = getConnector(file);
+
+        assertEquals(connector.getRecordCount(), 2);
+
+        try
+        {
+            connector.getFieldNames();
+            fail("String schema treated as record");
+        }
+        catch (FileReadException error)
+        {
+            assertEquals(error.getReportedErrorMessageId(), AvroFileConnectorErrorCode.NOT_RECORD_SCHEMA.getMessageDefinition().getMessageId());
+        }
+
+        connector.disconnect();
+    }
+
+
+    @Test
+    public void testNotAvroFile() throws Exception
+    {
+        File file = newTestFile("notAvro.avro");
+
+        Files.write(file.toPath(), "Id,Name\n1,One\n".getBytes(StandardCharsets.UTF_8));
+
+        AvroFileStoreConnector connector = getConnector(file);
+
+        try
+        {
+            connector.getSchema();
+            fail("CSV file accepted");
+        }
+        catch (FileReadException error)
+        {
+            assertEquals(error.getReportedErrorMessageId(), AvroFileConnectorErrorCode.NOT_AVRO_FILE.getMessageDefinition().getMessageId());
+        }
+
+        connector.disconnect();
+        assertFalse(connector.isActive());
+    }
+
+
+    @Test
+    public void testEmptyFile() throws Exception
+    {
+        File file = newTestFile("empty.avro");
+
+        try (DataFileWriter<GenericRecord> writer = new DataFileWriter<>(new GenericDatumWriter<GenericRecord>(recordSchema)))
+        {
+            writer.create(recordSchema, file);
+        }
+
+        AvroFileStoreConnector connector = getConnector(file);
+
+        assertEquals(connector.getRecordCount(), 0);
+        assertFalse(connector.getRecordIterator(null).hasNext());
+        assertNull(connector.getRecordSpliterator(null).trySplit());
+
+        connector.disconnect();
+    }
+}
@@ -0,0 +1,402 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+package org.odpi.openmetadata.adapters.connectors.datastore.csvfile;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+
+/**
+ * CSVFileLineIndex holds the position of the start of each line in a CSV file so that any line can be read
+ * without reading the lines before it.  The file is memory-mapped in segments of up to 1GB so files larger
+ * than 2GB can be read.  Lines are found by looking for the '\n', '\r' and "\r\n" line terminators, so the file
+ * must use a character set where these are single bytes, such as UTF-8 or ISO-8859-1.
+ *
+ * Building the index reads the whole file once.  The index can be saved in a file next to the CSV file so that
+ * it is only rebuilt when the CSV file changes.  The saved index records the length and last update time of the
+ * CSV file and is ignored if either has changed.
+ */
+class CSVFileLineIndex
+{
+    private static final Logger log = LoggerFactory.getLogger(CSVFileLineIndex.class);
+
+    static final String indexFileSuffix = ".lineindex";
+
+    private static final long indexFileMarker = 0x4353564C696E6531L;   // "CSVLine1"
+    private static final int  segmentShift    = 30;
+    private static final long segmentSize     = 1L << segmentShift;
+    private static final int  scanBufferSize  = 64 * 1024;
+
+    private final long               fileLength;
+    private final long               lastModified;
+    private final Charset            charset;
+    private final MappedByteBuffer[] segments;
+
+    /*
+     * lineStarts[i] is the position of the first byte of line i.  The extra entry at the end is the position
+     * after the last line.
+     */
+    private final long[] lineStarts;
+    private final long   lineCount;
+
+
+    /**
+     * Constructor is private - use load().
+     *
+     * @param fileLength length of the file in bytes
+     * @param lastModified last update time of the file
+     * @param charset character set of the file
+     * @param segments memory-mapped segments of the file
+     * @param lineStarts positions of the start of each line plus the end of the last line
+     * @param lineCount number of lines
+     */
+    private CSVFileLineIndex(long               fileLength,
+                             long               lastModified,
+                             Charset            charset,
+                             MappedByteBuffer[] segments,
+                             long[]             lineStarts,
+                             long               lineCount)
+    {
+        this.fileLength   = fileLength;
+        this.lastModified = lastModified;
+        this.charset      = charset;
+        this.segments     = segments;
+        this.lineStarts   = lineStarts;
+        this.lineCount    = lineCount;
+    }
+
+
+    /**
+     * Map the file and load or build its line index.
+     *
+     * @param file CSV file
+     * @param charset character set of the file
+     * @param persistIndex whether to use and save an index file next to the CSV file
+     * @return line index
+     * @throws IOException unable to read the file
+     */
+    static CSVFileLineIndex load(File    file,
+                                 Charset charset,
+                                 boolean persistIndex) throws IOException
+    {
+        long fileLength   = file.length();
+        long lastModified = file.lastModified();
+
+        MappedByteBuffer[] segments = mapFile(file, fileLength);
+
+        File   indexFile  = new File(file.getPath() + indexFileSuffix);
+        long[] lineStarts = null;
+
+        if (persistIndex)
+        {
+            lineStarts = readIndexFile(indexFile, fileLength, lastModified);
+        }
+
+        if (lineStarts == null)
+        {
+            lineStarts = buildLineStarts(segments, fileLength);
+
+            if (persistIndex)
+            {
+                writeIndexFile(indexFile, fileLength, lastModified, lineStarts);
+            }
+        }
+
+        return new CSVFileLineIndex(fileLength, lastModified, charset, segments, lineStarts, lineStarts.length - 1);
+    }
+
+
+    /**
+     * Map the file in read-only segments.
+     *
+     * @param file CSV file
+     * @param fileLength length of the file in bytes
+     * @return mapped segments
+     * @throws IOException unable to map the file
+     */
+    private static MappedByteBuffer[] mapFile(File file,
+                                              long fileLength) throws IOException
+    {
+        MappedByteBuffer[] segments = new MappedByteBuffer[(int) ((fileLength + segmentSize - 1) >>> segmentShift)];
+
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ))
+        {
+            for (int i = 0; i < segments.length; i++)
+            {
+                long position = (long) i << segmentShift;
+
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(segmentSize, fileLength - position));
+            }
+        }
+
+        return segments;
+    }
+
+
+    /**
+     * Scan the file for line terminators.  Lines at the end of the file that only contain white space are not
+     * included, which matches the way the connector has always counted records.
+     *
+     * @param segments mapped segments of the file
+     * @param fileLength length of the file in bytes
+     * @return positions of the start of each line plus the end of the last line
+     */
+    private static long[] buildLineStarts(MappedByteBuffer[] segments,
+                                          long               fileLength)
+    {
+        long[] lineStarts = new long[1024];
+        int    count      = 0;
+        int    textLines  = 0;         // number of lines up to and including the last line that has some text
+        byte   previous   = 0;
+        byte[] buffer     = new byte[scanBufferSize];
+
+        if (fileLength > 0)
+        {
+            lineStarts[count++] = 0;
+        }
+
+        long position = 0;
+
+        for (MappedByteBuffer mappedSegment : segments)
+        {
+            ByteBuffer segment = mappedSegment.duplicate();
+
+            while (segment.hasRemaining())
+            {
+                int length = Math.min(buffer.length, segment.remaining());
+
+                segment.get(buffer, 0, length);
+
+                for (int i = 0; i < length; i++, position++)
+                {
+                    byte current = buffer[i];
+
+                    if ((previous == '\r') && (current != '\n'))
+                    {
+                        lineStarts = add(lineStarts, count++, position);
+                    }
+
+                    if (current == '\n')
+                    {
+                        lineStarts = add(lineStarts, count++, position + 1);
+                    }
+                    else if ((current & 0xFF) > ' ')
+                    {
+                        textLines = count;
+                    }
+
+                    previous = current;
+                }
+            }
+        }
+
+        if (previous == '\r')
+        {
+            lineStarts = add(lineStarts, count++, position);
+        }
+
+        if (textLines == 0)
+        {
+            return new long[] { 0 };
+        }
+
+        /*
+         * Drop the blank lines at the end.  The end of the last line is the start of the next line, or the end
+         * of the file if there is no line terminator.
+         */
+        long[] result = Arrays.copyOf(lineStarts, textLines + 1);
+
+        result[textLines] = (textLines < count) ? lineStarts[textLines] : fileLength;
+
+        return result;
+    }
+
+
+    /**
+     * Add a value to the array, growing it if needed.
+     *
+     * @param array array to add to
+     * @param index index of the new value
+     * @param value value to add
+     * @return array holding the value
+     */
+    private static long[] add(long[] array,
+                              int    index,
+                              long   value)
+    {
+        if (index == array.length)
+        {
+            array = Arrays.copyOf(array, array.length * 2);
+        }
+
+        array[index] = value;
+
+        return array;
+    }
+
+
+    /**
+     * Read a saved index if it matches the current state of the CSV file.
+     *
+     * @param indexFile saved index
+     * @param fileLength length of the CSV file
+     * @param lastModified last update time of the CSV file
+     * @return positions of the start of each line plus the end of the last line, or null if the index is missing or out of date
+     */
+    private static long[] readIndexFile(File indexFile,
+                                        long fileLength,
+                                        long lastModified)
+    {
+        if (! indexFile.isFile())
+        {
+            return null;
+        }
+
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile))))
+        {
+            if ((input.readLong() != indexFileMarker) || (input.readLong() != fileLength) || (input.readLong() != lastModified))
+            {
+                log.debug("Line index {} is out of date", indexFile.getPath());
+                return null;
+            }
+
+            long[] lineStarts = new long[input.readInt()];
+
+            for (int i = 0; i < lineStarts.length; i++)
+            {
+                lineStarts[i] = input.readLong();
+            }
+
+            return lineStarts;
+        }
+        catch (IOException error)
+        {
+            log.debug("Ignoring unreadable line index {}: {}", indexFile.getPath(), error.getMessage());
+            return null;
+        }
+    }
+
+
+    /**
+     * Save the index next to the CSV file.  The index is only an optimization so a failure is logged and ignored.
+     *
+     * @param indexFile file to write
+     * @param fileLength length of the CSV file
+     * @param lastModified last update time of the CSV file
+     * @param lineStarts positions of the start of each line plus the end of the last line
+     */
+    private static void writeIndexFile(File   indexFile,
+                                       long   fileLength,
+                                       long   lastModified,
+                                       long[] lineStarts)
+    {
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(indexFile))))
+        {
+            output.writeLong(indexFileMarker);
+            output.writeLong(fileLength);
+            output.writeLong(lastModified);
+            output.writeInt(lineStarts.length);
+
+            for (long lineStart : lineStarts)
+            {
+                output.writeLong(lineStart);
+            }
+        }
+        catch (IOException error)
+        {
+            log.debug("Unable to save line index {}: {}", indexFile.getPath(), error.getMessage());
+        }
+    }
+
+
+    /**
+     * Return whether the index still describes the file.
+     *
+     * @param file CSV file
+     * @return boolean flag
+     */
+    boolean isCurrent(File file)
+    {
+        return (file.length() == fileLength) && (file.lastModified() == lastModified);
+    }
+
+
+    /**
+     * Return the number of lines in the file.
+     *
+     * @return count
+     */
+    long getLineCount()
+    {
+        return lineCount;
+    }
+
+
+    /**
+     * Return the requested line without its line terminator.
+     *
+     * @param lineNumber line number - the first line is line 0
+     * @return line
+     */
+    String getLine(long lineNumber)
+    {
+        int  lineIndex = Math.toIntExact(lineNumber);
+        long start     = lineStarts[lineIndex];
+        long end       = lineStarts[lineIndex + 1];
+
+        if ((end > start) && (getByte(end - 1) == '\n'))
+        {
+            end--;
+        }
+
+        if ((end > start) && (getByte(end - 1) == '\r'))
+        {
+            end--;
+        }
+
+        byte[] line = new byte[(int) (end - start)];
+        int    copied = 0;
+
+        while (copied < line.length)
+        {
+            long       position = start + copied;
+            ByteBuffer segment  = segments[(int) (position >>> segmentShift)].duplicate();
+            int        offset   = (int) (position & (segmentSize - 1));
+            int        length   = Math.min(line.length - copied, segment.limit() - offset);
+
+            segment.position(offset);
+            segment.get(line, copied, length);
+            copied += length;
+        }
+
+        return new String(line, charset);
+    }
+
+
+    /**
+     * Return the byte at a position in the file.
+     *
+     * @param position position in the file
+     * @return byte value
+     */
+    private byte getByte(long position)
+    {
+        return segments[(int) (position >>> segmentShift)].get((int) (position & (segmentSize - 1)));
+    }
+}
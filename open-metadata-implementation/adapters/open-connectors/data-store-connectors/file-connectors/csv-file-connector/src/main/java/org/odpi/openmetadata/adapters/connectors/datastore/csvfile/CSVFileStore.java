@@ -8,7 +8,9 @@ import org.odpi.openmetadata.adapters.connectors.datastore.basicfile.ffdc.except
 import org.odpi.openmetadata.adapters.connectors.datastore.csvfile.ffdc.exception.FileReadException;
 
 import java.util.Date;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Spliterator;
 
 /**
  * CSVFileStore defines the specific connector api for working with
@@ -42,8 +44,8 @@ public interface CSVFileStore extends BasicFileStore
 
 
     /**
-     * Return the number of records in the file.  This is achieved by scanning the file and counting the records -
-     * not recommended for very large files.
+     * Return the number of records in the file.  The file is scanned to count the records the first time
+     * this is called and after the file changes.
      *
      * @return count
      * @throws FileException there is a problem accessing the file
@@ -74,4 +76,25 @@ public interface CSVFileStore extends BasicFileStore
      * @throws FileReadException unable to find, open or read the file, or the file does not include the requested record.
      */
     List<String>      readRecord(int  rowNumber) throws FileException, FileReadException;
+
+
+    /**
+     * Return an iterator over the data records in the file, in the order they appear in the file.
+     *
+     * @return iterator of records - each record is a list of column values, or null for an empty line
+     * @throws FileException there is a problem accessing the file
+     * @throws FileReadException unable to find, open or read the file
+     */
+    Iterator<List<String>> getRecordIterator() throws FileException, FileReadException;
+
+
+    /**
+     * Return a spliterator over the data records in the file.  It can be used to process the records with a
+     * sequential or parallel stream.
+     *
+     * @return spliterator of records - each record is a list of column values, or null for an empty line
+     * @throws FileException there is a problem accessing the file
+     * @throws FileReadException unable to find, open or read the file
+     */
+    Spliterator<List<String>> getRecordSpliterator() throws FileException, FileReadException;
 }
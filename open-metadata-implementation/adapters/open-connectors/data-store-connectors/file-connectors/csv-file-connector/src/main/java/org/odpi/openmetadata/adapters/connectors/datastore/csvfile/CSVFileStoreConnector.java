@@ -14,6 +14,7 @@ import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.Charset;
 import java.util.*;
 
 
@@ -28,6 +29,12 @@ public class CSVFileStoreConnector extends BasicFileStoreConnector implements CS
     private List<String>   columnNames       = null;
     private char           delimiterChar     = ',';
     private char           quoteChar         = '"';
+    private boolean        persistLineIndex  = false;
+
+    /*
+     * The line index is built the first time a record is requested and rebuilt when the file changes.
+     */
+    private CSVFileLineIndex lineIndex       = null;
 
     /*
      * Variables used for logging and debug.
@@ -54,6 +61,7 @@ public class CSVFileStoreConnector extends BasicFileStoreConnector implements CS
             Object  columnNamesProperty   = configurationProperties.get(CSVFileStoreProvider.columnNamesProperty);
             Object  delimiterCharProperty = configurationProperties.get(CSVFileStoreProvider.delimiterCharacterProperty);
             Object  quoteCharProperty     = configurationProperties.get(CSVFileStoreProvider.quoteCharacterProperty);
+            Object  persistIndexProperty  = configurationProperties.get(CSVFileStoreProvider.persistLineIndexProperty);
 
             if (columnNamesProperty != null)
             {
@@ -79,6 +87,11 @@ public class CSVFileStoreConnector extends BasicFileStoreConnector implements CS
             {
                 quoteChar = (char)quoteCharProperty;
             }
+
+            if (persistIndexProperty != null)
+            {
+                persistLineIndex = Boolean.parseBoolean(persistIndexProperty.toString());
+            }
         }
 
         if (endpoint != null)
@@ -127,8 +140,8 @@ public class CSVFileStoreConnector extends BasicFileStoreConnector implements CS
 
 
     /**
-     * Return the number of records in the file.  This is achieved by scanning the file and counting the records -
-     * not recommended for very large files.
+     * Return the number of records in the file.  The records are counted when the line index for the file is built,
+     * so only the first call after the file changes reads the file.
      *
      * @return count
      * @throws FileException problem accessing the file
@@ -138,31 +151,11 @@ public class CSVFileStoreConnector extends BasicFileStoreConnector implements CS
     {
         final String  methodName = "getRecordCount";
 
-        long    rowCount = 0;
-
-        File fileStore = getFile(methodName);
-
-        try (Scanner scanner  = new Scanner(fileStore))
-        {
-            while (scanner.hasNext())
-            {
-                scanner.nextLine();
-                rowCount ++;
-            }
+        long rowCount = getLineIndex(methodName).getLineCount();
 
-            if ((rowCount > 0) && (columnNames == null))
-            {
-                rowCount = rowCount - 1;
-            }
-        }
-        catch (IOException  error)
+        if ((rowCount > 0) && (columnNames == null))
         {
-            throw new FileReadException(CSVFileConnectorErrorCode.UNEXPECTED_IO_EXCEPTION.getMessageDefinition(fileStoreName,
-                                                                                                               error.getMessage()),
-                                        this.getClass().getName(),
-                                        methodName,
-                                        error,
-                                        fileStoreName);
+            rowCount = rowCount - 1;
         }
 
         return rowCount;
@@ -220,6 +213,39 @@ public class CSVFileStoreConnector extends BasicFileStoreConnector implements CS
     }
 
 
+    /**
+     * Return an iterator over the data records in the file.  The records are read in order without reading the file
+     * from the start for each record.  The iterator is not affected by later changes to the connector's line index.
+     *
+     * @return iterator of records - each record is a list of column values, or null for an empty line
+     * @throws FileException problem accessing the file
+     * @throws FileReadException unable to find, open or read the file
+     */
+    public Iterator<List<String>> getRecordIterator() throws FileException, FileReadException
+    {
+        return Spliterators.iterator(getRecordSpliterator());
+    }
+
+
+    /**
+     * Return a spliterator over the data records in the file.  It splits without reading the file, so
+     * StreamSupport.stream(spliterator, true) processes the records in parallel.
+     *
+     * @return spliterator of records - each record is a list of column values, or null for an empty line
+     * @throws FileException problem accessing the file
+     * @throws FileReadException unable to find, open or read the file
+     */
+    public Spliterator<List<String>> getRecordSpliterator() throws FileException, FileReadException
+    {
+        final String  methodName = "getRecordSpliterator";
+
+        CSVFileLineIndex index     = getLineIndex(methodName);
+        long             firstLine = (columnNames == null) ? 1 : 0;
+
+        return new CSVRecordSpliterator(index, Math.min(firstLine, index.getLineCount()), index.getLineCount(), delimiterChar, quoteChar);
+    }
+
+
     /**
      * Return the requested row in the file.  The first record is record 0.
      *
@@ -232,135 +258,52 @@ public class CSVFileStoreConnector extends BasicFileStoreConnector implements CS
     private List<String>      readRow(int     recordLocation,
                                       String  methodName) throws FileException, FileReadException
     {
+        CSVFileLineIndex index = getLineIndex(methodName);
 
-        File fileStore = super.getFile(methodName);
-
-        try (Scanner scanner = new Scanner(fileStore))
+        if ((recordLocation < 0) || (recordLocation >= index.getLineCount()))
         {
-
-            int rowCounter = 0;
-            while (scanner.hasNext())
-            {
-                if (rowCounter == recordLocation)
-                {
-                    return parseRecord(scanner.nextLine());
-                }
-                else
-                {
-                    scanner.nextLine();
-                }
-                rowCounter ++;
-            }
-
             throw new FileReadException(CSVFileConnectorErrorCode.FILE_TOO_SHORT.getMessageDefinition(fileStoreName,
                                                                                                       Integer.toString(recordLocation)),
                                         this.getClass().getName(),
                                         methodName,
                                         fileStoreName);
-
-        }
-        catch (IOException  error)
-        {
-            throw new FileReadException(CSVFileConnectorErrorCode.UNEXPECTED_IO_EXCEPTION.getMessageDefinition(fileStoreName,
-                                                                                                               error.getMessage()),
-                                        this.getClass().getName(),
-                                        methodName,
-                                        error,
-                                        fileStoreName);
         }
+
+        return new CSVRecordTokenizer(delimiterChar, quoteChar).parseRecord(index.getLine(recordLocation));
     }
 
 
     /**
-     * Step through the record, character by character, extracting each column and enduring that escaped double quotes
-     * and other tricks found in CSV files are handled.
+     * Return the line index for the file, building it if this is the first request or the file has been updated
+     * since the index was built.
      *
-     * @param fileRecord a single record from the CSV file store
-     * @return an array of column values extracted from the record
+     * @param methodName name of calling method
+     * @return line index
+     * @throws FileException problem accessing the file
+     * @throws FileReadException unable to map or scan the file
      */
-    private  List<String> parseRecord(String fileRecord)
+    private synchronized CSVFileLineIndex getLineIndex(String methodName) throws FileException, FileReadException
     {
-        if ((fileRecord == null) || (fileRecord.isEmpty()))
-        {
-            return null;
-        }
-
-        List<String> result = new ArrayList<>();
-        StringBuffer currentValue = new StringBuffer();
-
-        boolean inQuotes = false;
-        boolean startCollectingCharacters = false;
-        boolean doubleQuotesInColumn = false;
-
-        char[] characters = fileRecord.toCharArray();
+        File fileStore = super.getFile(methodName);
 
-        for (char character : characters)
+        if ((lineIndex == null) || (! lineIndex.isCurrent(fileStore)))
         {
-            if (inQuotes)
+            try
             {
-                startCollectingCharacters = true;
-                if (character == quoteChar)
-                {
-                    inQuotes = false;
-                    doubleQuotesInColumn = false;
-                }
-                else
-                {
-                    if (character == '\"')
-                    {
-                        if (!doubleQuotesInColumn)
-                        {
-                            currentValue.append(character);
-                            doubleQuotesInColumn = true;
-                        }
-                    }
-                    else
-                    {
-                        currentValue.append(character);
-                    }
-
-                }
+                lineIndex = CSVFileLineIndex.load(fileStore, Charset.defaultCharset(), persistLineIndex);
             }
-            else
+            catch (IOException  error)
             {
-                if (character == quoteChar)
-                {
-
-                    inQuotes = true;
-
-                    if (characters[0] != '"' && quoteChar == '\"')
-                    {
-                        currentValue.append('"');
-                    }
-
-                    if (startCollectingCharacters)
-                    {
-                        currentValue.append('"');
-                    }
-                }
-                else if (character == delimiterChar)
-                {
-                    result.add(currentValue.toString());
-
-                    currentValue = new StringBuffer();
-                    startCollectingCharacters = false;
-
-                }
-                else if (character == '\n')
-                {
-                    break;
-                }
-                else if (character != '\r')
-                {
-                    currentValue.append(character);
-                }
+                throw new FileReadException(CSVFileConnectorErrorCode.UNEXPECTED_IO_EXCEPTION.getMessageDefinition(fileStoreName,
+                                                                                                                   error.getMessage()),
+                                            this.getClass().getName(),
+                                            methodName,
+                                            error,
+                                            fileStoreName);
             }
-
         }
 
-        result.add(currentValue.toString());
-
-        return result;
+        return lineIndex;
     }
 
 
@@ -369,6 +312,11 @@ public class CSVFileStoreConnector extends BasicFileStoreConnector implements CS
      */
     public void disconnect()
     {
+        synchronized (this)
+        {
+            lineIndex = null;
+        }
+
         try
         {
             super.disconnect();
@@ -0,0 +1,119 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+package org.odpi.openmetadata.adapters.connectors.datastore.csvfile;
+
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+
+/**
+ * CSVRecordSpliterator returns the parsed records for a range of lines in a CSV file.  Because every line can be
+ * read directly through the line index, the range splits in half without reading the file, so the records can
+ * be processed by a parallel stream.  An empty line is returned as null, as it is by readRecord.
+ */
+class CSVRecordSpliterator implements Spliterator<List<String>>
+{
+    private static final long minimumSplitSize = 1024;
+
+    private final CSVFileLineIndex   lineIndex;
+    private final char               delimiterChar;
+    private final char               quoteChar;
+    private final CSVRecordTokenizer tokenizer;
+    private       long               nextLine;
+    private final long               endLine;
+
+
+    /**
+     * Constructor supplies the lines to return.
+     *
+     * @param lineIndex index of the file
+     * @param startLine first line to return
+     * @param endLine line after the last line to return
+     * @param delimiterChar character between the columns
+     * @param quoteChar character that quotes a column value containing the delimiter
+     */
+    CSVRecordSpliterator(CSVFileLineIndex lineIndex,
+                         long             startLine,
+                         long             endLine,
+                         char             delimiterChar,
+                         char             quoteChar)
+    {
+        this.lineIndex     = lineIndex;
+        this.nextLine      = startLine;
+        this.endLine       = endLine;
+        this.delimiterChar = delimiterChar;
+        this.quoteChar     = quoteChar;
+        this.tokenizer     = new CSVRecordTokenizer(delimiterChar, quoteChar);
+    }
+
+
+    /**
+     * Pass the next record to the action.
+     *
+     * @param action consumer of the record
+     * @return false if there are no more records
+     */
+    @Override
+    public boolean tryAdvance(Consumer<? super List<String>> action)
+    {
+        if (nextLine >= endLine)
+        {
+            return false;
+        }
+
+        action.accept(tokenizer.parseRecord(lineIndex.getLine(nextLine++)));
+
+        return true;
+    }
+
+
+    /**
+     * Pass the first half of the remaining records to a new spliterator.
+     *
+     * @return new spliterator or null if the range is too small to split
+     */
+    @Override
+    public Spliterator<List<String>> trySplit()
+    {
+        long remaining = endLine - nextLine;
+
+        if (remaining < minimumSplitSize)
+        {
+            return null;
+        }
+
+        long splitLine = nextLine + (remaining / 2);
+
+        CSVRecordSpliterator prefix = new CSVRecordSpliterator(lineIndex, nextLine, splitLine, delimiterChar, quoteChar);
+
+        nextLine = splitLine;
+
+        return prefix;
+    }
+
+
+    /**
+     * Return the number of records left.
+     *
+     * @return count
+     */
+    @Override
+    public long estimateSize()
+    {
+        return endLine - nextLine;
+    }
+
+
+    /**
+     * Return the characteristics of the records.
+     *
+     * @return ORDERED, SIZED, SUBSIZED and IMMUTABLE
+     */
+    @Override
+    public int characteristics()
+    {
+        return ORDERED | SIZED | SUBSIZED | IMMUTABLE;
+    }
+}
@@ -0,0 +1,125 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+package org.odpi.openmetadata.adapters.connectors.datastore.csvfile;
+
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * CSVRecordTokenizer splits a record from a CSV file into its column values.  It reads the record in place and
+ * reuses one buffer for building the values, so the only objects created are the column value strings and the
+ * list that holds them.  A tokenizer is not thread-safe - each thread or scan uses its own.
+ */
+class CSVRecordTokenizer
+{
+    private final char          delimiterChar;
+    private final char          quoteChar;
+    private final StringBuilder currentValue = new StringBuilder();
+
+
+    /**
+     * Constructor supplies the special characters.
+     *
+     * @param delimiterChar character between the columns
+     * @param quoteChar character that quotes a column value containing the delimiter
+     */
+    CSVRecordTokenizer(char delimiterChar,
+                       char quoteChar)
+    {
+        this.delimiterChar = delimiterChar;
+        this.quoteChar     = quoteChar;
+    }
+
+
+    /**
+     * Step through the record, character by character, extracting each column and ensuring that escaped double quotes
+     * and other tricks found in CSV files are handled.
+     *
+     * @param fileRecord a single record from the CSV file store
+     * @return a list of column values extracted from the record - null if the record is empty
+     */
+    List<String> parseRecord(CharSequence fileRecord)
+    {
+        if ((fileRecord == null) || (fileRecord.length() == 0))
+        {
+            return null;
+        }
+
+        List<String> result = new ArrayList<>();
+
+        boolean inQuotes = false;
+        boolean startCollectingCharacters = false;
+        boolean doubleQuotesInColumn = false;
+        boolean firstCharacterIsQuote = (fileRecord.charAt(0) == '"');
+
+        currentValue.setLength(0);
+
+        for (int i = 0; i < fileRecord.length(); i++)
+        {
+            char character = fileRecord.charAt(i);
+
+            if (inQuotes)
+            {
+                startCollectingCharacters = true;
+                if (character == quoteChar)
+                {
+                    inQuotes = false;
+                    doubleQuotesInColumn = false;
+                }
+                else
+                {
+                    if (character == '\"')
+                    {
+                        if (!doubleQuotesInColumn)
+                        {
+                            currentValue.append(character);
+                            doubleQuotesInColumn = true;
+                        }
+                    }
+                    else
+                    {
+                        currentValue.append(character);
+                    }
+                }
+            }
+            else
+            {
+                if (character == quoteChar)
+                {
+                    inQuotes = true;
+
+                    if (!firstCharacterIsQuote && quoteChar == '\"')
+                    {
+                        currentValue.append('"');
+                    }
+
+                    if (startCollectingCharacters)
+                    {
+                        currentValue.append('"');
+                    }
+                }
+                else if (character == delimiterChar)
+                {
+                    result.add(currentValue.toString());
+
+                    currentValue.setLength(0);
+                    startCollectingCharacters = false;
+                }
+                else if (character == '\n')
+                {
+                    break;
+                }
+                else if (character != '\r')
+                {
+                    currentValue.append(character);
+                }
+            }
+        }
+
+        result.add(currentValue.toString());
+
+        return result;
+    }
+}
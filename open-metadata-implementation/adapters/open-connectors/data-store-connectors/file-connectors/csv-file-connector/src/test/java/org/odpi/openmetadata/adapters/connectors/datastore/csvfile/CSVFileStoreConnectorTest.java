@@ -10,8 +10,13 @@ import org.odpi.openmetadata.frameworks.connectors.properties.beans.ConnectorTyp
 import org.odpi.openmetadata.frameworks.connectors.properties.beans.Endpoint;
 import org.testng.annotations.Test;
 
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.*;
+import java.util.stream.StreamSupport;
 
+import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertTrue;
 
@@ -206,6 +211,74 @@ public class CSVFileStoreConnectorTest
         }
     }
 
+    @Test public void testRecordIterator() throws Exception
+    {
+        CSVFileStoreConnector connector = new CSVFileStoreConnector();
+
+        connector.initialize(UUID.randomUUID().toString(), getConnectionProperties(resourcesDirectory + complexColumnsWithColumnNamesFile));
+        connector.start();
+
+        List<List<String>>     records  = new ArrayList<>();
+        Iterator<List<String>> iterator = connector.getRecordIterator();
+
+        while (iterator.hasNext())
+        {
+            records.add(iterator.next());
+        }
+
+        assertEquals(records.size(), connector.getRecordCount());
+
+        for (int i=0; i<records.size(); i++)
+        {
+            assertEquals(records.get(i), connector.readRecord(i));
+        }
+
+        assertEquals(StreamSupport.stream(connector.getRecordSpliterator(), true).count(), connector.getRecordCount());
+
+        connector.disconnect();
+    }
+
+
+    @Test public void testPersistedLineIndex() throws Exception
+    {
+        File csvFile   = File.createTempFile("CSVFileStoreConnectorTest", ".csv");
+        File indexFile = new File(csvFile.getPath() + CSVFileLineIndex.indexFileSuffix);
+
+        try
+        {
+            Files.write(csvFile.toPath(), "Id,Name\n1,One\r\n2,Two\n\n".getBytes(StandardCharsets.UTF_8));
+
+            Connection          connectionBean          = getConnection(csvFile.getPath());
+            Map<String, Object> configurationProperties = new HashMap<>();
+
+            configurationProperties.put(CSVFileStoreProvider.persistLineIndexProperty, true);
+            connectionBean.setConfigurationProperties(configurationProperties);
+
+            CSVFileStoreConnector connector = new CSVFileStoreConnector();
+
+            connector.initialize(UUID.randomUUID().toString(), new ConnectionProperties(connectionBean));
+            connector.start();
+
+            assertEquals(connector.getRecordCount(), 2);
+            assertEquals(connector.readRecord(1), Arrays.asList("2", "Two"));
+            assertTrue(indexFile.exists());
+
+            Files.write(csvFile.toPath(), "Id,Name\n1,One\n2,Two\n3,Three".getBytes(StandardCharsets.UTF_8));
+            assertTrue(csvFile.setLastModified(csvFile.lastModified() + 2000));
+
+            assertEquals(connector.getRecordCount(), 3);
+            assertEquals(connector.readRecord(2), Arrays.asList("3", "Three"));
+
+            connector.disconnect();
+        }
+        finally
+        {
+            Files.deleteIfExists(indexFile.toPath());
+            Files.deleteIfExists(csvFile.toPath());
+        }
+    }
+
+
     @Test public void testNullFileName()
     {
         CSVFileStoreConnector connector = new CSVFileStoreConnector();
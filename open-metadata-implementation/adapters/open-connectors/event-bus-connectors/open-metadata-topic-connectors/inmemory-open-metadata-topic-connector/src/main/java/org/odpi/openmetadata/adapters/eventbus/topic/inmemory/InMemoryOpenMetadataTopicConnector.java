@@ -2,21 +2,27 @@
 /* Copyright Contributors to the ODPi Egeria project. */
 package org.odpi.openmetadata.adapters.eventbus.topic.inmemory;
 
+import org.odpi.openmetadata.frameworks.auditlog.messagesets.ExceptionMessageDefinition;
 import org.odpi.openmetadata.frameworks.connectors.ffdc.ConnectorCheckedException;
 import org.odpi.openmetadata.repositoryservices.connectors.openmetadatatopic.OpenMetadataTopicConnector;
-
-import java.util.ArrayList;
-import java.util.List;
+import org.odpi.openmetadata.repositoryservices.ffdc.OMRSAuditCode;
+import org.odpi.openmetadata.repositoryservices.ffdc.OMRSErrorCode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 
 /**
  * InMemoryOpenMetadataTopicConnector provides a concrete implementation of the OpenMetadataTopicConnector that
- * uses an in-memory list as the event/messaging infrastructure.  This connector is used internally
- * in the OMRS to pass events received on the OMRS Topic to the OMAS Topic Listeners.
+ * uses an in-memory queue as the event/messaging infrastructure.  This connector is used internally
+ * in the OMRS to pass events received on the OMRS Topic to the OMAS Topic Listeners.  Events are pushed
+ * straight to the listener thread so they are distributed as soon as they are sent rather than on the
+ * next poll of the topic.
  */
 public class InMemoryOpenMetadataTopicConnector extends OpenMetadataTopicConnector
 {
-    private volatile List<String> inMemoryOMRSTopic = new ArrayList<>();
+    private static final Logger log = LoggerFactory.getLogger(InMemoryOpenMetadataTopicConnector.class);
+
+    private volatile boolean disconnected = false;
 
     /**
      * Constructor
@@ -26,54 +32,89 @@ public class InMemoryOpenMetadataTopicConnector extends OpenMetadataTopicConnect
         super();
     }
 
-    /**
-     * Supports putting events to the in memory OMRS Topic
-     *
-     * @param newEvent  event to publish
-     */
-    private synchronized void putEvent(String  newEvent)
-    {
-        inMemoryOMRSTopic.add(newEvent);
-    }
-
 
     /**
-     * Returns all of the events found on the in memory OMRS Topic.
-     *
-     * @return list of received events.
-     */
-    private synchronized List<String> getEvents()
-    {
-        List<String>   receivedEvents = inMemoryOMRSTopic;
-        inMemoryOMRSTopic = new ArrayList<>();
-
-        return receivedEvents;
-    }
-
-
-    /**
-     * Sends the supplied event to the topic.
+     * Sends the supplied event to the topic.  If the listener has fallen behind and the queue of events is full,
+     * the caller waits up to the event queue timeout for space.  The event is queued even if there is still no
+     * space, so events are only lost if the connector is disconnected or the caller is interrupted.  The event is
+     * identified in error messages by its message id since its content may be sensitive.
      *
      * @param event  OMRSEvent object containing the event properties.
+     * @throws ConnectorCheckedException the connector is disconnected, or the caller was interrupted while waiting
      */
     @Override
-    public void sendEvent(String event)
+    public void sendEvent(String event) throws ConnectorCheckedException
     {
-        this.putEvent(event);
-
+        final String methodName = "sendEvent";
+
+        if (event == null)
+        {
+            return;
+        }
+
+        String messageId = String.valueOf(event.hashCode());
+
+        if (disconnected)
+        {
+            throw getEventNotSentException(OMRSErrorCode.OPEN_METADATA_TOPIC_DISCONNECTED.getMessageDefinition(super.getTopicName(), messageId),
+                                           methodName,
+                                           messageId,
+                                           null);
+        }
+
+        try
+        {
+            super.pushEvent(event);
+        }
+        catch (InterruptedException  interrupted)
+        {
+            Thread.currentThread().interrupt();
+
+            log.error("Interrupted while sending event {}", messageId);
+
+            throw getEventNotSentException(OMRSErrorCode.OPEN_METADATA_TOPIC_SEND_INTERRUPTED.getMessageDefinition(super.getTopicName(), messageId),
+                                           methodName,
+                                           messageId,
+                                           interrupted);
+        }
     }
 
 
     /**
-     * Look to see if there is one of more new events to process.
+     * Record in the audit log that an event was not sent and build the exception for the caller.
      *
-     * @return a list of received events or null
+     * @param messageDefinition description of the reason the event was not sent
+     * @param methodName calling method
+     * @param messageId identifier of the event
+     * @param caughtError exception that stopped the event being sent - may be null
+     * @return exception to throw
      */
-    @SuppressWarnings(value = "deprecation")
-    @Override
-    protected List<String> checkForEvents()
+    private ConnectorCheckedException getEventNotSentException(ExceptionMessageDefinition messageDefinition,
+                                                               String                     methodName,
+                                                               String                     messageId,
+                                                               Throwable                  caughtError)
     {
-        return this.getEvents();
+        ConnectorCheckedException error;
+
+        if (caughtError == null)
+        {
+            error = new ConnectorCheckedException(messageDefinition, this.getClass().getName(), methodName);
+        }
+        else
+        {
+            error = new ConnectorCheckedException(messageDefinition, this.getClass().getName(), methodName, caughtError);
+        }
+
+        if (auditLog != null)
+        {
+            auditLog.logException(methodName,
+                                  OMRSAuditCode.OPEN_METADATA_TOPIC_EVENT_NOT_SENT.getMessageDefinition(super.getTopicName(),
+                                                                                                       messageId,
+                                                                                                       error.getReportedErrorMessage()),
+                                  error);
+        }
+
+        return error;
     }
 
 
@@ -90,13 +131,16 @@ public class InMemoryOpenMetadataTopicConnector extends OpenMetadataTopicConnect
 
 
     /**
-     * Free up any resources held since the connector is no longer needed.
+     * Free up any resources held since the connector is no longer needed.  Events sent after this call
+     * are rejected since the listener thread stops.
      *
      * @throws ConnectorCheckedException there is a problem within the connector.
      */
     @Override
     public  void disconnect() throws ConnectorCheckedException
     {
+        disconnected = true;
+
         super.disconnect();
     }
 }
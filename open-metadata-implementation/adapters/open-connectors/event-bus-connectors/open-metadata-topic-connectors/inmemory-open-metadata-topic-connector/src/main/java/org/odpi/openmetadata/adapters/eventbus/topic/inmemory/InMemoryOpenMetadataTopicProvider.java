@@ -38,6 +38,9 @@ public class InMemoryOpenMetadataTopicProvider extends OpenMetadataTopicProvider
 
         List<String> recognizedConfigurationProperties = new ArrayList<>();
         recognizedConfigurationProperties.add(sleepTimeProperty);
+        recognizedConfigurationProperties.add(eventQueueCapacityProperty);
+        recognizedConfigurationProperties.add(eventQueueTimeoutProperty);
+        recognizedConfigurationProperties.add(eventBatchSizeProperty);
 
         connectorType.setRecognizedConfigurationProperties(recognizedConfigurationProperties);
 
@@ -0,0 +1,230 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.eventbus.topic.inmemory;
+
+import org.odpi.openmetadata.frameworks.auditlog.AuditLog;
+import org.odpi.openmetadata.frameworks.connectors.ffdc.ConnectorCheckedException;
+import org.odpi.openmetadata.frameworks.connectors.properties.ConnectionProperties;
+import org.odpi.openmetadata.frameworks.connectors.properties.beans.Connection;
+import org.odpi.openmetadata.frameworks.connectors.properties.beans.Endpoint;
+import org.odpi.openmetadata.repositoryservices.connectors.openmetadatatopic.OpenMetadataTopicListener;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.mockito.Mockito.mock;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+/**
+ * Verify that the in-memory topic connector delivers events in the order they were sent, and that a listener
+ * that falls behind slows down the senders rather than causing events to be lost.
+ */
+public class TestInMemoryOpenMetadataTopicConnector
+{
+    /**
+     * Listener that records the events it receives after an optional delay.
+     */
+    private static class RecordingTopicListener implements OpenMetadataTopicListener
+    {
+        private final List<String> receivedEvents = new CopyOnWriteArrayList<>();
+        private final long         delay;
+
+        /**
+         * Constructor
+         *
+         * @param delay milliseconds to spend on each event
+         */
+        RecordingTopicListener(long delay)
+        {
+            this.delay = delay;
+        }
+
+
+        @Override
+        public void processEvent(String event)
+        {
+            receivedEvents.add(event);
+
+            if (delay > 0)
+            {
+                try
+                {
+                    Thread.sleep(delay);
+                }
+                catch (InterruptedException interrupted)
+                {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+
+        /**
+         * Wait until the listener has received the requested number of events.
+         *
+         * @param count number of events
+         * @return received events
+         * @throws InterruptedException interrupted while waiting
+         */
+        List<String> waitForEvents(int count) throws InterruptedException
+        {
+            long deadline = System.currentTimeMillis() + 20000;
+
+            while ((receivedEvents.size() < count) && (System.currentTimeMillis() < deadline))
+            {
+                Thread.sleep(10);
+            }
+
+            return receivedEvents;
+        }
+    }
+
+
+    /**
+     * Start an in-memory topic connector.
+     *
+     * @param eventQueueCapacity number of events that can wait for the listener
+     * @param eventQueueTimeout milliseconds that a sender waits for space
+     * @param topicListener listener to register
+     * @return started connector
+     * @throws ConnectorCheckedException unable to start the connector
+     */
+    private InMemoryOpenMetadataTopicConnector getConnector(int                       eventQueueCapacity,
+                                                            long                      eventQueueTimeout,
+                                                            OpenMetadataTopicListener topicListener) throws ConnectorCheckedException
+    {
+        Map<String, Object> configurationProperties = new HashMap<>();
+        Endpoint            endpoint                = new Endpoint();
+        Connection          connection              = new Connection();
+
+        configurationProperties.put("eventQueueCapacity", eventQueueCapacity);
+        configurationProperties.put("eventQueueTimeout", eventQueueTimeout);
+        endpoint.setAddress("testTopic");
+        connection.setEndpoint(endpoint);
+        connection.setConfigurationProperties(configurationProperties);
+
+        InMemoryOpenMetadataTopicConnector connector = new InMemoryOpenMetadataTopicConnector();
+
+        connector.initialize(UUID.randomUUID().toString(), new ConnectionProperties(connection));
+        connector.setAuditLog(mock(AuditLog.class));
+        connector.registerListener(topicListener);
+        connector.start();
+
+        return connector;
+    }
+
+
+    /**
+     * Return the events sent by the tests.
+     *
+     * @param count number of events
+     * @return events in the order they are sent
+     */
+    private List<String> getEvents(int count)
+    {
+        List<String> events = new ArrayList<>();
+
+        for (int i = 0; i < count; i++)
+        {
+            events.add("event" + i);
+        }
+
+        return events;
+    }
+
+
+    @Test(timeOut = 60000)
+    public void testEventsAreDeliveredInOrder() throws Exception
+    {
+        RecordingTopicListener             listener  = new RecordingTopicListener(0);
+        InMemoryOpenMetadataTopicConnector connector = getConnector(10000, 1000, listener);
+        List<String>                       events    = getEvents(5000);
+
+        try
+        {
+            for (String event : events)
+            {
+                connector.sendEvent(event);
+            }
+
+            assertEquals(listener.waitForEvents(events.size()), events);
+        }
+        finally
+        {
+            connector.disconnect();
+        }
+    }
+
+
+    @Test(timeOut = 60000)
+    public void testSlowListenerDoesNotLoseEvents() throws Exception
+    {
+        RecordingTopicListener             listener  = new RecordingTopicListener(5);
+        InMemoryOpenMetadataTopicConnector connector = getConnector(2, 20, listener);
+        List<String>                       events    = getEvents(50);
+
+        try
+        {
+            /*
+             * The queue overflows, so some events are queued beyond its capacity rather than being rejected.
+             */
+            for (String event : events)
+            {
+                connector.sendEvent(event);
+            }
+
+            assertEquals(listener.waitForEvents(events.size()), events);
+        }
+        finally
+        {
+            connector.disconnect();
+        }
+    }
+
+
+    @Test(timeOut = 60000)
+    public void testSenderWaitsForSlowListener() throws Exception
+    {
+        RecordingTopicListener             listener  = new RecordingTopicListener(20);
+        InMemoryOpenMetadataTopicConnector connector = getConnector(1, 20000, listener);
+        List<String>                       events    = getEvents(10);
+
+        try
+        {
+            long start = System.currentTimeMillis();
+
+            for (String event : events)
+            {
+                connector.sendEvent(event);
+            }
+
+            /*
+             * The sender can only be one event ahead of the listener, so it has waited for most of the events.
+             */
+            assertTrue(System.currentTimeMillis() - start >= 100);
+            assertEquals(listener.waitForEvents(events.size()), events);
+        }
+        finally
+        {
+            connector.disconnect();
+        }
+    }
+
+
+    @Test(timeOut = 60000)
+    public void testEventsAreRejectedAfterDisconnect() throws Exception
+    {
+        InMemoryOpenMetadataTopicConnector connector = getConnector(10, 1000, new RecordingTopicListener(0));
+
+        connector.disconnect();
+
+        expectThrows(ConnectorCheckedException.class, () -> connector.sendEvent("event"));
+    }
+}
@@ -3,8 +3,10 @@
 package org.odpi.openmetadata.adapters.eventbus.topic.kafka;
 
 import java.time.Duration;
+import java.util.ArrayDeque;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Properties;
@@ -21,6 +23,8 @@ import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.consumer.ConsumerRecords;
 import org.apache.kafka.clients.consumer.KafkaConsumer;
 import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.Metric;
+import org.apache.kafka.common.MetricName;
 import org.apache.kafka.common.TopicPartition;
 import org.apache.kafka.common.errors.WakeupException;
 import org.odpi.openmetadata.frameworks.auditlog.AuditLog;
@@ -66,6 +70,18 @@ public class KafkaOpenMetadataEventConsumer implements Runnable
     private final Map<TopicPartition, BlockingDeque<KafkaIncomingEvent>> unprocessedEventQueues = new ConcurrentHashMap<>();
 
     private final AtomicBoolean running = new AtomicBoolean(true);
+
+    private static final String consumerLagMetricName = "records-lag-max";
+
+    private volatile long consumerLag = -1;
+
+    /*
+     * Events that the connector's workers were too busy to accept.  They are offered again, in order,
+     * before any newly fetched events.  The partitions are paused while there are events waiting here.
+     * Only used by the consumer thread.
+     */
+    private final Deque<PendingEvent> pendingEvents = new ArrayDeque<>();
+    private boolean partitionsPaused = false;
     
     private final boolean isAutoCommitEnabled;
 
@@ -142,6 +158,10 @@ public class KafkaOpenMetadataEventConsumer implements Runnable
                 //This needs to be done in the same thread since the Kafka consumer does
                 //not allow access by multiple threads
                 checkForFullyProcessedMessagesIfNeeded();
+
+                //Offer any held back events to the workers again and pause or resume
+                //fetching depending on whether they are keeping up
+                applyBackPressure();
                 
             	//if we are close to the timeout, force a poll to avoid having the consumer
             	//be marked as dead because we have not polled often enough
@@ -165,6 +185,7 @@ public class KafkaOpenMetadataEventConsumer implements Runnable
 
                 final Duration pollDuration = Duration.ofMillis(pollTimeout);
                 final ConsumerRecords<String, String> records = consumer.poll(pollDuration);
+                updateConsumerLag();
                 
                 log.debug("Found records: " + records.count());
                 for (ConsumerRecord<String, String> record : records)
@@ -177,7 +198,13 @@ public class KafkaOpenMetadataEventConsumer implements Runnable
                         try
                         {
                             addUnprocessedEvent(record.partition(), record.topic(), event);
-                            connector.distributeToListeners(event);
+
+                            //Keep the events in order by holding back every event after
+                            //one that the workers could not accept
+                            if (! pendingEvents.isEmpty() || ! connector.distributeToListeners(event))
+                            {
+                                pendingEvents.add(new PendingEvent(new TopicPartition(record.topic(), record.partition()), event));
+                            }
                         }
                         catch (Exception error)
                         {
@@ -292,6 +319,42 @@ public class KafkaOpenMetadataEventConsumer implements Runnable
         }
     }
 
+    /**
+     * Offer the events that the connector's workers were too busy to accept to them again.  If some are
+     * still waiting, the assigned partitions are paused so that the consumer keeps polling (and so stays in
+     * the consumer group) without fetching more events.  The partitions are resumed once all of the
+     * held back events have been accepted and the workers have room for more.
+     */
+    private void applyBackPressure()
+    {
+        while (! pendingEvents.isEmpty())
+        {
+            if (! connector.distributeToListeners(pendingEvents.peek().event))
+            {
+                break;
+            }
+
+            pendingEvents.remove();
+        }
+
+        if (! pendingEvents.isEmpty())
+        {
+            if (! partitionsPaused)
+            {
+                log.debug("Pausing partitions since {} events are waiting for the processing threads", pendingEvents.size());
+                consumer.pause(consumer.assignment());
+                partitionsPaused = true;
+            }
+        }
+        else if (partitionsPaused && connector.hasProcessingCapacity())
+        {
+            log.debug("Resuming partitions since the processing threads have caught up");
+            consumer.resume(consumer.paused());
+            partitionsPaused = false;
+        }
+    }
+
+
     private void addUnprocessedEvent(int partition, String topic, KafkaIncomingEvent event) {
         if (isAutoCommitEnabled) {
             return;
@@ -430,7 +493,7 @@ public class KafkaOpenMetadataEventConsumer implements Runnable
      * Gets the total number of messages in the incoming
      * event queues that have not been fully processed.
      * 
-     * @return
+     * @return count of messages
      */
     private int getNumberOfUnprocessedMessages() {
         if (isAutoCommitEnabled) {
@@ -439,13 +502,42 @@ public class KafkaOpenMetadataEventConsumer implements Runnable
 
         int result = 0;
         for(Queue<KafkaIncomingEvent> queue : unprocessedEventQueues.values()) {
-            if (! queue.isEmpty()) {
-                result++;
-            }
+            result += queue.size();
         }
         return result;
     }
 
+
+    /**
+     * Save the largest lag reported by the consumer's fetch metrics.  The Kafka consumer can only be
+     * called from the consumer thread, so the value is cached for other threads to read.
+     */
+    private void updateConsumerLag() {
+        double maxLag = -1;
+
+        for (Map.Entry<MetricName, ? extends Metric> entry : consumer.metrics().entrySet()) {
+            if (consumerLagMetricName.equals(entry.getKey().name())) {
+                Object value = entry.getValue().metricValue();
+
+                if ((value instanceof Double) && (! ((Double) value).isNaN()) && (! ((Double) value).isInfinite())) {
+                    maxLag = Math.max(maxLag, (Double) value);
+                }
+            }
+        }
+
+        consumerLag = (long) maxLag;
+    }
+
+
+    /**
+     * Return the largest lag across the partitions of the topic at the last poll.
+     *
+     * @return count of events, or -1 if not known
+     */
+    long getConsumerLag() {
+        return consumerLag;
+    }
+
     private void awaitNextPollingTime() {
 		try
 		{
@@ -520,11 +612,41 @@ public class KafkaOpenMetadataEventConsumer implements Runnable
 
         public void onPartitionsAssigned(Collection<TopicPartition> partitions)
         {
+            /*
+             * Newly assigned partitions start unpaused.
+             */
+            if (partitionsPaused)
+            {
+                consumer.pause(partitions);
+            }
         }
 
         public void onPartitionsRevoked(Collection<TopicPartition> partitions)
         {
             final String methodName = "onPartitionsRevoked.commitSync";
+
+            /*
+             * Events from different partitions complete out of order.  Record how far each revoked partition
+             * has been fully processed so that the commit below includes it.
+             */
+            if (! isAutoCommitEnabled)
+            {
+                for (TopicPartition partition : partitions)
+                {
+                    Queue<KafkaIncomingEvent> queue = unprocessedEventQueues.get(partition);
+
+                    if (queue != null)
+                    {
+                        KafkaIncomingEvent mostRecentProcessedEvent = removeFullyProcessedEventsFromBeginningOfQueue(queue);
+
+                        if (mostRecentProcessedEvent != null)
+                        {
+                            currentOffsets.put(partition, new OffsetAndMetadata(mostRecentProcessedEvent.getOffset() + 1));
+                        }
+                    }
+                }
+            }
+
             if( !currentOffsets.isEmpty() )
             {
                 log.info("Lost partitions in rebalance. Committing current offsets:" + currentOffsets);
@@ -559,6 +681,34 @@ public class KafkaOpenMetadataEventConsumer implements Runnable
 
                 }
             }
+
+            /*
+             * The revoked partitions are now owned by another consumer which will process any events
+             * that had not completed here.
+             */
+            for (TopicPartition partition : partitions)
+            {
+                unprocessedEventQueues.remove(partition);
+                currentOffsets.remove(partition);
+            }
+
+            pendingEvents.removeIf(pendingEvent -> partitions.contains(pendingEvent.partition));
+        }
+    }
+
+
+    /**
+     * An event that is waiting to be accepted by the connector's workers.
+     */
+    private static class PendingEvent
+    {
+        private final TopicPartition     partition;
+        private final KafkaIncomingEvent event;
+
+        PendingEvent(TopicPartition partition, KafkaIncomingEvent event)
+        {
+            this.partition = partition;
+            this.event = event;
         }
     }
 }
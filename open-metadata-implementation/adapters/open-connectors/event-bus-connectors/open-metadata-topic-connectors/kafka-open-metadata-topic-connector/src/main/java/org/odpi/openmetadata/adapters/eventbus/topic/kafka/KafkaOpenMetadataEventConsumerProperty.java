@@ -54,7 +54,21 @@ public enum KafkaOpenMetadataEventConsumerProperty
      * used if auto commit is disabled in the Kafka consumer. 
      * 
      */
-    COMMIT_CHECK_INTERVAL_MS("commit_check_interval_ms", "5000");
+    COMMIT_CHECK_INTERVAL_MS("commit_check_interval_ms", "5000"),
+
+    /**
+     * Controls the number of threads that process events from the topic at the same time.  The events
+     * about an instance are always processed in order by the same thread.  With the default value of 1,
+     * events are passed to the listeners by the connector's listener thread.
+     */
+    PROCESSING_THREADS("processing_threads", "1"),
+
+    /**
+     * Controls the maximum number of events waiting for each processing thread.  When a thread's queue is
+     * full, the consumer pauses its partitions until the threads have caught up.  This is only used if
+     * processing_threads is greater than 1.
+     */
+    PROCESSING_QUEUE_SIZE("processing_queue_size", "1000");
 
 	private final String propertyName;
 	private final String defaultValue;
@@ -12,9 +12,12 @@ import org.odpi.openmetadata.frameworks.connectors.ffdc.ConnectorCheckedExceptio
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.*;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * KafkaOpenMetadataEventProducer manages the sending of events on Apache Kafka.  This is done through called to
@@ -23,10 +26,26 @@ import java.util.concurrent.TimeUnit;
  * Kafka is not always running.  When this occurs, the call to publish events hangs and this is disruptive to the
  * rest of the server.  So the role of this class is to manage the sending of events in a separate thread
  * and manage the logging of errors to alert the operations team that Kafka needs restarting.
+ *
+ * Callers add events to a buffer and return immediately.  The producer thread takes the waiting events in
+ * batches and sends them to Kafka asynchronously, with up to a maximum number of events in flight.  Each event
+ * has a future that completes when Kafka acknowledges it.  Events that fail with a retryable error are sent again
+ * ahead of newer events.  When a spill directory is configured, events that arrive once the in-memory buffer
+ * is full are saved in a local file and sent, in order, once the earlier events have gone.
  */
 public class KafkaOpenMetadataEventProducer implements Runnable
 {
-    private final List<String> sendBuffer = Collections.synchronizedList(new ArrayList<>());
+    /*
+     * Egeria properties that are passed in the producer properties.
+     */
+    static final String sendBufferCapacityProperty     = "send.buffer.capacity";
+    static final String sendBatchEventsProperty        = "send.batch.events";
+    static final String sendMaxInFlightEventsProperty  = "send.max.in.flight.events";
+    static final String sendSpillDirectoryProperty     = "send.spill.directory";
+
+    private static final int defaultSendBufferCapacity    = 10000;
+    private static final int defaultSendBatchEvents       = 500;
+    private static final int defaultSendMaxInFlightEvents = 1000;
 
     private static final Logger log = LoggerFactory.getLogger(KafkaOpenMetadataEventProducer.class);
 
@@ -46,7 +65,42 @@ public class KafkaOpenMetadataEventProducer implements Runnable
 
     private KafkaOpenMetadataTopicConnector connector;
 
-    private long    messageSendCount = 0;
+    private final AtomicLong messageSendCount = new AtomicLong(0);
+
+    /*
+     * The buffers are guarded by the sendBuffer lock.  Events waiting for a retry are sent before the
+     * events in the send buffer, which are sent before the events in the spill queue.
+     */
+    private final Deque<PendingEvent>             sendBuffer          = new ArrayDeque<>();
+    private final Deque<PendingEvent>             retryBuffer         = new ArrayDeque<>();
+    private final Deque<CompletableFuture<Void>>  spilledEventFutures = new ArrayDeque<>();
+    private       KafkaOpenMetadataEventSpillQueue spillQueue         = null;
+    private       int                             recoveredSpilledEvents = 0;
+    private       boolean                         spillReported       = false;
+
+    private final int       sendBufferCapacity;
+    private final int       sendBatchEvents;
+    private final Semaphore inFlightEvents;
+    private final int       maxInFlightEvents;
+
+    private volatile boolean sendErrorReported = false;
+    private volatile boolean brokerUnavailable = false;
+
+
+    /**
+     * An event waiting to be sent along with the future to complete when it is sent.
+     */
+    private static class PendingEvent
+    {
+        private final String                  event;
+        private final CompletableFuture<Void> future;
+
+        PendingEvent(String event, CompletableFuture<Void> future)
+        {
+            this.event  = event;
+            this.future = future;
+        }
+    }
 
 
     /**
@@ -65,6 +119,29 @@ public class KafkaOpenMetadataEventProducer implements Runnable
                                    KafkaOpenMetadataTopicConnector connector,
                                    AuditLog                        auditLog)
     {
+        this(topicName, localServerId, producerProperties, connector, auditLog, null);
+    }
+
+
+    /**
+     * Constructor for the event producer that sends events through the supplied Kafka producer rather than
+     * creating one from the producer properties.  This allows the producer to be tested without a Kafka broker.
+     *
+     * @param topicName name of the topic to listen on.
+     * @param localServerId identifier to enable receiver to identify that an event came from this server.
+     * @param producerProperties properties for the consumer.
+     * @param connector connector holding the inbound listeners.
+     * @param auditLog  audit log for this component.
+     * @param producer Kafka producer - null to create one when the thread starts
+     */
+    KafkaOpenMetadataEventProducer(String                          topicName,
+                                   String                          localServerId,
+                                   Properties                      producerProperties,
+                                   KafkaOpenMetadataTopicConnector connector,
+                                   AuditLog                        auditLog,
+                                   Producer<String, String>        producer)
+    {
+        this.producer = producer;
         this.auditLog = auditLog;
         this.topicName = topicName;
         this.localServerId = localServerId;
@@ -72,29 +149,84 @@ public class KafkaOpenMetadataEventProducer implements Runnable
         this.producerProperties = producerProperties;
         this.listenerThreadName = defaultThreadName + topicName;
 
+        this.sendBufferCapacity = getIntProperty(producerProperties, sendBufferCapacityProperty, defaultSendBufferCapacity);
+        this.sendBatchEvents    = getIntProperty(producerProperties, sendBatchEventsProperty, defaultSendBatchEvents);
+        this.maxInFlightEvents  = getIntProperty(producerProperties, sendMaxInFlightEventsProperty, defaultSendMaxInFlightEvents);
+        this.inFlightEvents     = new Semaphore(maxInFlightEvents);
+
         final String           actionDescription = "new producer";
 
         auditLog.logMessage(actionDescription,
                             KafkaOpenMetadataTopicConnectorAuditCode.SERVICE_PRODUCER_PROPERTIES.getMessageDefinition(
                                     Integer.toString(producerProperties.size()), topicName),
                            producerProperties.toString());
+
+        String spillDirectory = producerProperties.getProperty(sendSpillDirectoryProperty);
+
+        if (spillDirectory != null)
+        {
+            File spillFile = new File(spillDirectory, topicName + ".spill");
+
+            try
+            {
+                spillQueue = new KafkaOpenMetadataEventSpillQueue(spillFile);
+                recoveredSpilledEvents = spillQueue.size();
+            }
+            catch (IOException error)
+            {
+                auditLog.logException(actionDescription,
+                                      KafkaOpenMetadataTopicConnectorAuditCode.SPILL_FILE_ERROR.getMessageDefinition(topicName,
+                                                                                                                     spillFile.getPath(),
+                                                                                                                     error.getClass().getName(),
+                                                                                                                     error.getMessage()),
+                                      error);
+            }
+        }
     }
 
 
+    /**
+     * Read an integer property, using the default value if it is missing or invalid.
+     *
+     * @param properties producer properties
+     * @param name name of the property
+     * @param defaultValue value to use if the property is not set
+     * @return property value
+     */
+    private static int getIntProperty(Properties properties, String name, int defaultValue)
+    {
+        String value = properties.getProperty(name);
+
+        if (value != null)
+        {
+            try
+            {
+                int intValue = Integer.parseInt(value.trim());
+
+                if (intValue > 0)
+                {
+                    return intValue;
+                }
+            }
+            catch (NumberFormatException error)
+            {
+                log.error("Invalid value " + value + " for property " + name);
+            }
+        }
+
+        return defaultValue;
+    }
+
 
     /**
-     * Sends the supplied event to the topic.  It retries if Kafka is not responding.
+     * Create the Kafka producer if it is not already running.
      *
-     * @param event object containing the event properties.
-     * @throws ConnectorCheckedException the connector is not able to communicate with the event bus
+     * @throws ConnectorCheckedException the Kafka producer can not be created
      */
-    private void publishEvent(String event) throws ConnectorCheckedException
+    private void ensureProducer() throws ConnectorCheckedException
     {
         final String methodName = "publishEvent";
 
-        boolean                  eventSent = false;
-        long                     eventRetryCount = 0;
-
         if (producer == null)
         {
             try
@@ -114,80 +246,107 @@ public class KafkaOpenMetadataEventProducer implements Runnable
                                                     error);
             }
         }
-        while (!eventSent)
+    }
+
+
+    /**
+     * Hand a batch of events to the Kafka producer.  The Kafka producer groups the records into requests
+     * according to its batch.size and linger.ms properties.  Each send waits for a place among the in-flight
+     * events, so a slow broker holds up this thread rather than the callers.
+     *
+     * @param batch events to send
+     * @throws InterruptedException the thread was interrupted waiting for an in-flight place
+     */
+    private void publishEvents(List<PendingEvent> batch) throws InterruptedException
+    {
+        for (PendingEvent pendingEvent : batch)
         {
+            inFlightEvents.acquire();
+
             try
             {
-                log.debug("Sending message {0}" + event);
-                ProducerRecord<String, String> record = new ProducerRecord<>(topicName, localServerId, event);
-                producer.send(record).get();
-                eventSent = true;
-                messageSendCount++;
+                log.debug("Sending message {0}" + pendingEvent.event);
+                ProducerRecord<String, String> record = new ProducerRecord<>(topicName, localServerId, pendingEvent.event);
+                producer.send(record, (metadata, error) -> sendComplete(pendingEvent, error));
             }
-            catch (ExecutionException error)
+            catch (WakeupException error)
             {
-                /*
-                 * This may be a simple timeout or something else more
-                 */
-                log.debug("Kafka had trouble sending event: " + event + "exception message is " + error.getMessage());
+                log.error("Wake up for shut down " + error.toString());
+                sendComplete(pendingEvent, error);
+            }
+            catch (Exception error)
+            {
+                sendComplete(pendingEvent, error);
+            }
+        }
+    }
 
-                if (!isExceptionRetryable(error))
-                {
-                    /* kafka thinks this isn't a retryable problem */
-                    /* so let the caller try */
 
-                    producer.close();
-                    producer = null;
+    /**
+     * Called when Kafka has accepted or rejected an event.  This is called on the Kafka producer's own thread
+     * so it must not block.
+     *
+     * @param pendingEvent event that was sent
+     * @param error exception from Kafka or null if the event was sent
+     */
+    private void sendComplete(PendingEvent pendingEvent, Exception error)
+    {
+        final String methodName = "publishEvent";
 
-                    throw new ConnectorCheckedException(KafkaOpenMetadataTopicConnectorErrorCode.ERROR_SENDING_EVENT.getMessageDefinition(error.getClass().getName(),
-                                                                                                                                          topicName,
-                                                                                                                                          error.getMessage()),
-                                                                                                                                          this.getClass().getName(),
-                                                                                                                                          methodName,
-                                                                                                                                          error);
-                }
-                if (eventRetryCount == 10)
+        inFlightEvents.release();
+
+        if (error == null)
+        {
+            messageSendCount.incrementAndGet();
+            sendErrorReported = false;
+
+            if (pendingEvent.future != null)
+            {
+                pendingEvent.future.complete(null);
+            }
+        }
+        else
+        {
+            log.debug("Kafka had trouble sending event: " + pendingEvent.event + "exception message is " + error.getMessage());
+
+            if (isExceptionRetryable(error))
+            {
+                /*
+                 * Send the event again once the broker has had time to recover.
+                 */
+                synchronized (sendBuffer)
                 {
-                    /* we've retried now let the caller retry */
-                    producer.close();
-                    producer = null;
-                    log.error("Retryable Exception closed producer ");
-                    break;
+                    retryBuffer.add(pendingEvent);
                 }
-                else
-                {
-                    if (eventRetryCount == 0)
-                    {
-                        auditLog.logMessage(methodName,
-                                            KafkaOpenMetadataTopicConnectorAuditCode.EVENT_SEND_IN_ERROR_LOOP.getMessageDefinition(topicName,
-                                                                                                                                   Long.toString(messageSendCount),
-                                                                                                                                   Long.toString(this.getSendBufferSize()),
-                                                                                                                                   error.getMessage()));
-                    }
 
-                    eventRetryCount++;
+                brokerUnavailable = true;
+
+                if (! sendErrorReported)
+                {
+                    sendErrorReported = true;
+                    auditLog.logMessage(methodName,
+                                        KafkaOpenMetadataTopicConnectorAuditCode.EVENT_SEND_IN_ERROR_LOOP.getMessageDefinition(topicName,
+                                                                                                                               Long.toString(messageSendCount.get()),
+                                                                                                                               Long.toString(this.getSendBufferSize()),
+                                                                                                                               error.getMessage()));
                 }
             }
-            catch (WakeupException error)
-            {
-                log.error("Wake up for shut down " + error.toString());
-            }
-            catch (Throwable error)
+            else
             {
-                producer.close();
-                producer = null;
-                log.debug("Send Events Throwable catch block closed producer");
                 log.error("Exception in sendEvent " + error.toString());
 
-                throw new ConnectorCheckedException(KafkaOpenMetadataTopicConnectorErrorCode.ERROR_SENDING_EVENT.getMessageDefinition(error.getClass().getName(),
-                                                                                                                                      topicName,
-                                                                                                                                      error.getMessage()),
-                                                    this.getClass().getName(),
-                                                    methodName,
-                                                    error);
+                if (pendingEvent.future != null)
+                {
+                    pendingEvent.future.completeExceptionally(
+                            new ConnectorCheckedException(KafkaOpenMetadataTopicConnectorErrorCode.ERROR_SENDING_EVENT.getMessageDefinition(error.getClass().getName(),
+                                                                                                                                            topicName,
+                                                                                                                                            error.getMessage()),
+                                                          this.getClass().getName(),
+                                                          methodName,
+                                                          error));
+                }
             }
         }
-
     }
 
 
@@ -201,7 +360,7 @@ public class KafkaOpenMetadataEventProducer implements Runnable
 
         auditLog.logMessage(actionDescription,
                             KafkaOpenMetadataTopicConnectorAuditCode.KAFKA_PRODUCER_START.getMessageDefinition(topicName,
-                                                                                                               String.valueOf(sendBuffer.size())),
+                                                                                                               String.valueOf(getSendBufferSize())),
                             this.producerProperties.toString());
 
 
@@ -209,25 +368,23 @@ public class KafkaOpenMetadataEventProducer implements Runnable
         {
             try
             {
-                String bufferedEvent = this.getEvent();
+                ensureProducer();
 
-                /*
-                 * If there are no events waiting then sleep
-                 */
-                if (bufferedEvent == null)
+                List<PendingEvent> batch = this.getEvents();
+
+                if (! batch.isEmpty())
                 {
-                    TimeUnit.MILLISECONDS.sleep(sleepTime);
+                    publishEvents(batch);
                 }
-                else
+
+                /*
+                 * A retryable error means the broker is not available.  Wait before sending the events again.
+                 * Meanwhile, new events build up in the send buffer and then the spill queue.
+                 */
+                if (brokerUnavailable)
                 {
-                    /*
-                     * Send all waiting events
-                     */
-                    while (bufferedEvent != null)
-                    {
-                        publishEvent(bufferedEvent);
-                        bufferedEvent = this.getEvent();
-                    }
+                    brokerUnavailable = false;
+                    this.recoverAfterError();
                 }
             }
             catch (InterruptedException   error)
@@ -238,67 +395,245 @@ public class KafkaOpenMetadataEventProducer implements Runnable
             {
                 log.error("Bad exception from sending events " + error.getMessage());
 
-                if( isExceptionRetryable(error) ) {
-                    this.recoverAfterError();
+                if (producer != null)
+                {
+                    producer.close();
+                    producer = null;
                 }
-                else {
 
-                    /* This is an unrecoverable error so clean up and shutdown*/
-                    break;
-                }
+                this.recoverAfterError();
             }
         }
 
-        /* producer may have already closed by exception handler in publishEvent */
+        /* producer may have already closed by exception handler */
         if(producer != null) {
-            log.debug("");
+            log.debug("Flushing events before closing producer");
+
+            try
+            {
+                producer.flush();
+            }
+            catch (Throwable error)
+            {
+                log.error("Unable to flush events " + error.getMessage());
+            }
+
             producer.close();
             producer = null;
         }
 
+        int unsentEvents = getSendBufferSize();
+
+        this.saveUnsentEvents();
+
         auditLog.logMessage(actionDescription,
                             KafkaOpenMetadataTopicConnectorAuditCode.KAFKA_PRODUCER_SHUTDOWN.getMessageDefinition(topicName,
-                                                                                                                  Integer.toString(getSendBufferSize()),
-                                                                                                                  Long.toString(messageSendCount)),
+                                                                                                                  Integer.toString(unsentEvents),
+                                                                                                                  Long.toString(messageSendCount.get())),
                            this.producerProperties.toString());
     }
 
 
     /**
-     * Supports putting events to the in memory OMRS Topic
+     * Called when the producer shuts down.  Events that have not been sent are saved to the spill file if
+     * there is one.  Their futures complete exceptionally since they have not been sent.
+     */
+    private void saveUnsentEvents()
+    {
+        final String methodName = "saveUnsentEvents";
+
+        List<PendingEvent> unsentEvents = new ArrayList<>();
+
+        synchronized (sendBuffer)
+        {
+            unsentEvents.addAll(retryBuffer);
+            unsentEvents.addAll(sendBuffer);
+            retryBuffer.clear();
+            sendBuffer.clear();
+
+            if (spillQueue != null)
+            {
+                List<String> eventsToSave = new ArrayList<>();
+
+                for (PendingEvent pendingEvent : unsentEvents)
+                {
+                    eventsToSave.add(pendingEvent.event);
+                }
+
+                try
+                {
+                    spillQueue.close(eventsToSave);
+                }
+                catch (IOException error)
+                {
+                    auditLog.logException(methodName,
+                                          KafkaOpenMetadataTopicConnectorAuditCode.SPILL_FILE_ERROR.getMessageDefinition(topicName,
+                                                                                                                         spillQueue.getSpillFile().getPath(),
+                                                                                                                         error.getClass().getName(),
+                                                                                                                         error.getMessage()),
+                                          error);
+                }
+
+                spillQueue = null;
+            }
+
+            for (CompletableFuture<Void> future : spilledEventFutures)
+            {
+                unsentEvents.add(new PendingEvent(null, future));
+            }
+
+            spilledEventFutures.clear();
+        }
+
+        for (PendingEvent pendingEvent : unsentEvents)
+        {
+            if (pendingEvent.future != null)
+            {
+                pendingEvent.future.completeExceptionally(
+                        new ConnectorCheckedException(KafkaOpenMetadataTopicConnectorErrorCode.EVENT_NOT_SENT.getMessageDefinition(topicName),
+                                                      this.getClass().getName(),
+                                                      methodName));
+            }
+        }
+    }
+
+
+    /**
+     * Supports putting events to the in memory OMRS Topic.  Once the send buffer is full, or if there are
+     * already events in the spill queue, new events are added to the spill queue so they stay in order.
      *
      * @param newEvent  event to publish
+     * @param future future to complete when the event is sent
      */
-    private void putEvent(String  newEvent)
+    private void putEvent(String                    newEvent,
+                          CompletableFuture<Void>   future)
     {
-        sendBuffer.add(newEvent);
+        final String methodName = "putEvent";
+
+        synchronized (sendBuffer)
+        {
+            if (! running)
+            {
+                future.completeExceptionally(
+                        new ConnectorCheckedException(KafkaOpenMetadataTopicConnectorErrorCode.EVENT_NOT_SENT.getMessageDefinition(topicName),
+                                                      this.getClass().getName(),
+                                                      methodName));
+                return;
+            }
+
+            if ((spillQueue != null) && ((! spillQueue.isEmpty()) || (sendBuffer.size() >= sendBufferCapacity)))
+            {
+                try
+                {
+                    if (! spillReported)
+                    {
+                        spillReported = true;
+                        auditLog.logMessage(methodName,
+                                            KafkaOpenMetadataTopicConnectorAuditCode.EVENTS_SPILLED_TO_DISK.getMessageDefinition(topicName,
+                                                                                                                                 Integer.toString(getSendBufferSize()),
+                                                                                                                                 spillQueue.getSpillFile().getPath()));
+                    }
+
+                    spillQueue.append(newEvent);
+                    spilledEventFutures.add(future);
+                    sendBuffer.notifyAll();
+                    return;
+                }
+                catch (IOException error)
+                {
+                    auditLog.logException(methodName,
+                                          KafkaOpenMetadataTopicConnectorAuditCode.SPILL_FILE_ERROR.getMessageDefinition(topicName,
+                                                                                                                         spillQueue.getSpillFile().getPath(),
+                                                                                                                         error.getClass().getName(),
+                                                                                                                         error.getMessage()),
+                                          error);
+                }
+            }
+
+            sendBuffer.add(new PendingEvent(newEvent, future));
+            sendBuffer.notifyAll();
+        }
     }
 
 
     /**
-     * Returns the size of the send buffer
+     * Returns the number of events waiting to be sent.
      *
      * @return int
      */
     private int getSendBufferSize()
     {
-        return sendBuffer.size();
+        synchronized (sendBuffer)
+        {
+            int size = sendBuffer.size() + retryBuffer.size();
+
+            if (spillQueue != null)
+            {
+                size = size + spillQueue.size();
+            }
+
+            return size;
+        }
     }
 
 
     /**
-     * Returns all of the events found on the in memory OMRS Topic.
+     * Returns the next batch of events to send, waiting for a short time if there are none.
      *
-     * @return list of received events.
+     * @return list of events - empty if there are none
+     * @throws InterruptedException the thread was interrupted while waiting
+     * @throws IOException the spill queue can not be read
      */
-    private String getEvent()
+    private List<PendingEvent> getEvents() throws InterruptedException, IOException
     {
-        if (sendBuffer.isEmpty())
+        List<PendingEvent> batch = new ArrayList<>();
+
+        synchronized (sendBuffer)
         {
-            return null;
+            if (getSendBufferSize() == 0)
+            {
+                sendBuffer.wait(sleepTime);
+            }
+
+            while ((! retryBuffer.isEmpty()) && (batch.size() < sendBatchEvents))
+            {
+                batch.add(retryBuffer.poll());
+            }
+
+            while ((! sendBuffer.isEmpty()) && (batch.size() < sendBatchEvents))
+            {
+                batch.add(sendBuffer.poll());
+            }
+
+            if ((spillQueue != null) && (sendBuffer.isEmpty()) && (batch.size() < sendBatchEvents))
+            {
+                for (String spilledEvent : spillQueue.read(sendBatchEvents - batch.size()))
+                {
+                    CompletableFuture<Void> future = null;
+
+                    /*
+                     * Events recovered from an earlier run have no future.
+                     */
+                    if (recoveredSpilledEvents > 0)
+                    {
+                        recoveredSpilledEvents--;
+                    }
+                    else
+                    {
+                        future = spilledEventFutures.poll();
+                    }
+
+                    batch.add(new PendingEvent(spilledEvent, future));
+                }
+
+                if (spillQueue.isEmpty())
+                {
+                    spillReported = false;
+                }
+            }
         }
 
-        return sendBuffer.remove(0);
+        return batch;
     }
 
 
@@ -309,7 +644,23 @@ public class KafkaOpenMetadataEventProducer implements Runnable
      */
     public void sendEvent(String event)
     {
-        this.putEvent(event);
+        this.putEvent(event, new CompletableFuture<>());
+    }
+
+
+    /**
+     * Sends the supplied event to the topic without waiting for Kafka.
+     *
+     * @param event  OMRSEvent object containing the event properties.
+     * @return future that completes when Kafka has accepted the event
+     */
+    public CompletableFuture<Void> sendEventAsync(String event)
+    {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+
+        this.putEvent(event, future);
+
+        return future;
     }
 
 
@@ -354,13 +705,20 @@ public class KafkaOpenMetadataEventProducer implements Runnable
     /**
      * Flip the switch to stop the thread.
      */
-    private synchronized void stopRunning()
+    private void stopRunning()
     {
-        running = false;
+        synchronized (sendBuffer)
+        {
+            running = false;
+            sendBuffer.notifyAll();
+        }
     }
 
     private boolean isExceptionRetryable( Throwable throwable)
     {
+        if (throwable instanceof RetriableException) {
+            return true;
+        }
 
         Throwable nested = null;
         while ((nested = throwable.getCause()) != null) {
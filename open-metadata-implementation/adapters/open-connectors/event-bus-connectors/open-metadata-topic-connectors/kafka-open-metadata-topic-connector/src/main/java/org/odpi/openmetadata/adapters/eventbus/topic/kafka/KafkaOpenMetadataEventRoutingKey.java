@@ -0,0 +1,178 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.eventbus.topic.kafka;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.odpi.openmetadata.repositoryservices.serialization.OMRSCompressedEventCodec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+
+
+/**
+ * KafkaOpenMetadataEventRoutingKey locates the instance GUID in an OMRS instance event so that the worker pool
+ * can pass all of the events about an instance to the same worker.  The event is read with a streaming
+ * parser that stops as soon as the instance section has been read, rather than building the whole event.
+ * Both the V1 JSON and the compressed encodings are supported.
+ */
+class KafkaOpenMetadataEventRoutingKey
+{
+    private static final Logger log = LoggerFactory.getLogger(KafkaOpenMetadataEventRoutingKey.class);
+
+    private static final JsonFactory jsonFactory = new JsonFactory();
+
+    private static final String instanceSectionPropertyName = "instanceEventSection";
+    private static final String instanceGUIDPropertyName    = "instanceGUID";
+    private static final String entityPropertyName          = "entity";
+    private static final String relationshipPropertyName    = "relationship";
+    private static final String guidPropertyName            = "guid";
+
+
+    /**
+     * Private constructor since all methods are static.
+     */
+    private KafkaOpenMetadataEventRoutingKey()
+    {
+    }
+
+
+    /**
+     * Return the GUID of the instance that an event is about.  Null is returned for events that are not
+     * about a single instance, such as TypeDef, registry and instance batch events, and for payloads that can
+     * not be parsed.
+     *
+     * @param event event payload from the topic
+     * @return instance GUID or null
+     */
+    static String getInstanceGUID(String event)
+    {
+        if (event == null)
+        {
+            return null;
+        }
+
+        try (JsonParser parser = createParser(event))
+        {
+            if (parser.nextToken() != JsonToken.START_OBJECT)
+            {
+                return null;
+            }
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME)
+            {
+                String propertyName = parser.getCurrentName();
+
+                parser.nextToken();
+
+                if (instanceSectionPropertyName.equals(propertyName) && parser.currentToken() == JsonToken.START_OBJECT)
+                {
+                    return getInstanceGUIDFromSection(parser);
+                }
+
+                parser.skipChildren();
+            }
+        }
+        catch (IOException error)
+        {
+            log.debug("Unable to read instance GUID from event", error);
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Create a parser for the JSON of the event.
+     *
+     * @param event event payload
+     * @return parser
+     * @throws IOException the event can not be decompressed
+     */
+    private static JsonParser createParser(String event) throws IOException
+    {
+        if (OMRSCompressedEventCodec.isCompressed(event))
+        {
+            return jsonFactory.createParser(OMRSCompressedEventCodec.getJSONStream(event));
+        }
+
+        return jsonFactory.createParser(event);
+    }
+
+
+    /**
+     * Read the instance event section.  The parser is positioned at the start of the section.
+     * The GUID of the entity or relationship in the event is preferred.  The instanceGUID property is
+     * used for the events that only identify the instance, such as purge events.
+     *
+     * @param parser parser
+     * @return instance GUID or null
+     * @throws IOException the event is not valid JSON
+     */
+    private static String getInstanceGUIDFromSection(JsonParser parser) throws IOException
+    {
+        String instanceGUID = null;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME)
+        {
+            String propertyName = parser.getCurrentName();
+
+            parser.nextToken();
+
+            if ((entityPropertyName.equals(propertyName) || relationshipPropertyName.equals(propertyName)) &&
+                        parser.currentToken() == JsonToken.START_OBJECT)
+            {
+                String guid = getGUIDFromInstance(parser);
+
+                if (guid != null)
+                {
+                    return guid;
+                }
+            }
+            else if (instanceGUIDPropertyName.equals(propertyName) && parser.currentToken() == JsonToken.VALUE_STRING)
+            {
+                instanceGUID = parser.getText();
+            }
+            else
+            {
+                parser.skipChildren();
+            }
+        }
+
+        return instanceGUID;
+    }
+
+
+    /**
+     * Read the guid property of an entity or relationship.  The parser is positioned at the start of the
+     * instance and is left at its end.
+     *
+     * @param parser parser
+     * @return guid or null
+     * @throws IOException the event is not valid JSON
+     */
+    private static String getGUIDFromInstance(JsonParser parser) throws IOException
+    {
+        String guid = null;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME)
+        {
+            String propertyName = parser.getCurrentName();
+
+            parser.nextToken();
+
+            if (guidPropertyName.equals(propertyName) && parser.currentToken() == JsonToken.VALUE_STRING)
+            {
+                guid = parser.getText();
+            }
+            else
+            {
+                parser.skipChildren();
+            }
+        }
+
+        return guid;
+    }
+}
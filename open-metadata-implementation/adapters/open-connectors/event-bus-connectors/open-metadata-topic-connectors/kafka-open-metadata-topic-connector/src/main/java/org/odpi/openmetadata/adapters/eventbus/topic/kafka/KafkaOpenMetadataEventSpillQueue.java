@@ -0,0 +1,312 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.eventbus.topic.kafka;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * KafkaOpenMetadataEventSpillQueue is a first-in-first-out queue of events held in a local file.  It is used by
+ * the KafkaOpenMetadataEventProducer to hold events once its in-memory buffer is full, typically because Kafka
+ * is not available.
+ * <p>
+ * The file starts with a header holding the position of the next event to read, stored twice (the second copy
+ * inverted) so that a damaged header can be detected.  Each event follows as its length and its UTF-8 bytes.
+ * Every change to the file is forced to disk before the method returns, so the events and the read position
+ * survive the server stopping at any point.  Events left in the file when the server stops are sent when it
+ * restarts.  An event that was only partly written is discarded when the file is opened.  If the header is
+ * damaged, all of the events in the file are sent again rather than risk losing any.
+ * <p>
+ * When the queue is closed, the unread events are copied into a new file, which replaces the old file in a
+ * single rename once it is safely on disk.
+ */
+public class KafkaOpenMetadataEventSpillQueue
+{
+    static final int HEADER_LENGTH = 2 * Long.BYTES;
+
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    private final File             spillFile;
+    private final RandomAccessFile file;
+
+    private long readPosition = HEADER_LENGTH;
+    private int  size         = 0;
+
+
+    /**
+     * Open the spill file, creating it if it does not exist, and count the events it holds.
+     *
+     * @param spillFile location of the file
+     * @throws IOException the file can not be opened
+     */
+    KafkaOpenMetadataEventSpillQueue(File spillFile) throws IOException
+    {
+        File parentDirectory = spillFile.getAbsoluteFile().getParentFile();
+
+        if ((parentDirectory != null) && (! parentDirectory.isDirectory()) && (! parentDirectory.mkdirs()))
+        {
+            throw new IOException("Unable to create directory " + parentDirectory.getPath());
+        }
+
+        this.spillFile = spillFile;
+        this.file      = new RandomAccessFile(spillFile, "rw");
+
+        long length        = file.length();
+        long savedPosition = HEADER_LENGTH;
+
+        if (length >= HEADER_LENGTH)
+        {
+            file.seek(0);
+
+            long position        = file.readLong();
+            long inversePosition = file.readLong();
+
+            if ((position == ~inversePosition) && (position >= HEADER_LENGTH) && (position <= length))
+            {
+                savedPosition = position;
+            }
+        }
+        else
+        {
+            length = HEADER_LENGTH;
+            file.setLength(length);
+        }
+
+        /*
+         * Walk the complete events.  The saved read position is only trusted if it falls on the
+         * start of an event.
+         */
+        long    position         = HEADER_LENGTH;
+        int     eventsBeforeRead = 0;
+        boolean onEventBoundary  = (savedPosition == HEADER_LENGTH);
+
+        while (position + Integer.BYTES <= length)
+        {
+            file.seek(position);
+
+            int eventLength = file.readInt();
+
+            if ((eventLength < 0) || (position + Integer.BYTES + eventLength > length))
+            {
+                break;
+            }
+
+            position = position + Integer.BYTES + eventLength;
+            size++;
+
+            if (position <= savedPosition)
+            {
+                eventsBeforeRead++;
+            }
+
+            if (position == savedPosition)
+            {
+                onEventBoundary = true;
+            }
+        }
+
+        if (position < length)
+        {
+            file.setLength(position);
+        }
+
+        if (onEventBoundary)
+        {
+            readPosition = savedPosition;
+            size = size - eventsBeforeRead;
+        }
+
+        this.writeHeader();
+    }
+
+
+    /**
+     * Add an event to the end of the queue.
+     *
+     * @param event event to save
+     * @throws IOException the event can not be written
+     */
+    synchronized void append(String event) throws IOException
+    {
+        writeEvent(file, event);
+        file.getChannel().force(false);
+
+        size++;
+    }
+
+
+    /**
+     * Remove events from the front of the queue.  The new read position is saved before the events are returned.
+     * The file is emptied once all of its events have been read.
+     *
+     * @param maxEvents maximum number of events to return
+     * @return list of events - empty if the queue is empty
+     * @throws IOException the events can not be read
+     */
+    synchronized List<String> read(int maxEvents) throws IOException
+    {
+        List<String> events = new ArrayList<>();
+
+        while ((size > 0) && (events.size() < maxEvents))
+        {
+            file.seek(readPosition);
+
+            byte[] eventBytes = new byte[file.readInt()];
+
+            file.readFully(eventBytes);
+            events.add(new String(eventBytes, StandardCharsets.UTF_8));
+
+            readPosition = file.getFilePointer();
+            size--;
+        }
+
+        if (! events.isEmpty())
+        {
+            if (size == 0)
+            {
+                /*
+                 * The file is truncated first so that the old read position is beyond the end of the file
+                 * if the server stops before the header is rewritten.
+                 */
+                file.setLength(HEADER_LENGTH);
+                file.getChannel().force(false);
+                readPosition = HEADER_LENGTH;
+            }
+
+            this.writeHeader();
+        }
+
+        return events;
+    }
+
+
+    /**
+     * Return the number of events in the queue.
+     *
+     * @return count of events
+     */
+    synchronized int size()
+    {
+        return size;
+    }
+
+
+    /**
+     * Return whether there are any events in the queue.
+     *
+     * @return boolean flag
+     */
+    synchronized boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+
+    /**
+     * Return the location of the file.
+     *
+     * @return file
+     */
+    File getSpillFile()
+    {
+        return spillFile;
+    }
+
+
+    /**
+     * Close the file.  The supplied events, which were waiting in memory and so are older than the events in
+     * the file, are written to the front of a new file followed by the unread events.  The new file is forced
+     * to disk and then renamed over the old file, so the old file is intact if the server stops part way through.
+     * The events are sent first when the file is next opened.
+     *
+     * @param unsentEvents events from memory that have not been sent
+     * @throws IOException the file can not be updated
+     */
+    synchronized void close(List<String> unsentEvents) throws IOException
+    {
+        if ((readPosition == HEADER_LENGTH) && ((unsentEvents == null) || (unsentEvents.isEmpty())))
+        {
+            file.close();
+            return;
+        }
+
+        File compactedFile = new File(spillFile.getPath() + ".tmp");
+
+        try
+        {
+            try (RandomAccessFile newFile = new RandomAccessFile(compactedFile, "rw"))
+            {
+                newFile.setLength(0);
+                newFile.writeLong(HEADER_LENGTH);
+                newFile.writeLong(~HEADER_LENGTH);
+
+                if (unsentEvents != null)
+                {
+                    for (String event : unsentEvents)
+                    {
+                        writeEvent(newFile, event);
+                    }
+                }
+
+                byte[] buffer = new byte[COPY_BUFFER_SIZE];
+                int    bytesRead;
+
+                file.seek(readPosition);
+                while ((bytesRead = file.read(buffer)) > 0)
+                {
+                    newFile.write(buffer, 0, bytesRead);
+                }
+
+                newFile.getChannel().force(true);
+            }
+        }
+        finally
+        {
+            file.close();
+        }
+
+        Files.move(compactedFile.toPath(),
+                   spillFile.toPath(),
+                   StandardCopyOption.ATOMIC_MOVE,
+                   StandardCopyOption.REPLACE_EXISTING);
+    }
+
+
+    /**
+     * Save the read position in the header of the file and force it to disk.
+     *
+     * @throws IOException the header can not be written
+     */
+    private void writeHeader() throws IOException
+    {
+        file.seek(0);
+        file.writeLong(readPosition);
+        file.writeLong(~readPosition);
+        file.getChannel().force(false);
+    }
+
+
+    /**
+     * Write an event to the end of a file.
+     *
+     * @param targetFile file to write to
+     * @param event event to save
+     * @throws IOException the event can not be written
+     */
+    private static void writeEvent(RandomAccessFile targetFile,
+                                   String           event) throws IOException
+    {
+        byte[] eventBytes = event.getBytes(StandardCharsets.UTF_8);
+
+        targetFile.seek(targetFile.length());
+        targetFile.writeInt(eventBytes.length);
+        targetFile.write(eventBytes);
+    }
+}
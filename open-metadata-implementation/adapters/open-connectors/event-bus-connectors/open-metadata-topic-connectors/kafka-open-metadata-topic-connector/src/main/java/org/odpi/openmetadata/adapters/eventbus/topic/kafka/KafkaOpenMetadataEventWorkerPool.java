@@ -0,0 +1,310 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.eventbus.topic.kafka;
+
+import org.odpi.openmetadata.repositoryservices.connectors.openmetadatatopic.IncomingEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+
+/**
+ * KafkaOpenMetadataEventWorkerPool processes the events received from the topic concurrently.  Each worker is a
+ * single thread with a bounded queue.  An instance event is passed to the worker chosen from the hash of its
+ * instance GUID, so all of the events about an instance are processed in the order they were received while
+ * events about different instances are processed at the same time.
+ * <p>
+ * Events that are not about a single instance (TypeDef, registry and batch events) act as a barrier.
+ * They are queued on every worker and processed once all of the events received before them have
+ * been processed.  No later event is processed until they are complete.  This means, for example, an
+ * instance event never overtakes the TypeDef event that it depends on.
+ * <p>
+ * Events are submitted only by the consumer thread.  When a worker's queue is full, {@link #submit} returns
+ * false and the consumer holds the event back and pauses its partitions until the workers catch up.
+ */
+public class KafkaOpenMetadataEventWorkerPool
+{
+    private static final Logger log = LoggerFactory.getLogger(KafkaOpenMetadataEventWorkerPool.class);
+
+    private final ThreadPoolExecutor[]      workers;
+    private final int                       workerQueueSize;
+    private final Consumer<IncomingEvent>   eventProcessor;
+    private final AtomicInteger             queueDepth = new AtomicInteger(0);
+
+
+    /**
+     * Constructor creates the worker threads.
+     *
+     * @param topicName name of the topic for the thread names
+     * @param numberOfWorkers number of events that can be processed at the same time
+     * @param workerQueueSize maximum number of events waiting for each worker
+     * @param eventProcessor action that distributes an event to the listeners
+     */
+    KafkaOpenMetadataEventWorkerPool(String                    topicName,
+                                     int                       numberOfWorkers,
+                                     int                       workerQueueSize,
+                                     Consumer<IncomingEvent>   eventProcessor)
+    {
+        this.eventProcessor  = eventProcessor;
+        this.workerQueueSize = Math.max(workerQueueSize, 1);
+        this.workers         = new ThreadPoolExecutor[Math.max(numberOfWorkers, 1)];
+
+        for (int i = 0; i < workers.length; i++)
+        {
+            final String threadName = "Kafka-Worker-" + i + "-" + topicName;
+
+            workers[i] = new ThreadPoolExecutor(1,
+                                                1,
+                                                0L,
+                                                TimeUnit.MILLISECONDS,
+                                                new ArrayBlockingQueue<>(this.workerQueueSize),
+                                                runnable ->
+                                                {
+                                                    Thread thread = new Thread(runnable, threadName);
+
+                                                    thread.setDaemon(true);
+                                                    return thread;
+                                                },
+                                                new ThreadPoolExecutor.AbortPolicy());
+        }
+    }
+
+
+    /**
+     * Queue an event for processing.  An instance event goes to the worker for its instance GUID.  Any other
+     * event is queued on all workers as a barrier.  Nothing is queued if there is not room for the event.
+     *
+     * @param event incoming event
+     * @return true if the event was queued; false if the workers are too busy to accept it
+     */
+    boolean submit(IncomingEvent   event)
+    {
+        String instanceGUID = KafkaOpenMetadataEventRoutingKey.getInstanceGUID(event.getJson());
+
+        if (instanceGUID != null)
+        {
+            return submit(workers[Math.floorMod(instanceGUID.hashCode(), workers.length)], () -> processEvent(event));
+        }
+
+        /*
+         * Only the consumer thread submits events so the remaining capacity of a queue can only grow
+         * between this check and the submits below.
+         */
+        for (ThreadPoolExecutor worker : workers)
+        {
+            if (worker.getQueue().remainingCapacity() == 0)
+            {
+                return false;
+            }
+        }
+
+        BarrierEvent barrierEvent = new BarrierEvent(event);
+
+        for (ThreadPoolExecutor worker : workers)
+        {
+            if (! submit(worker, barrierEvent))
+            {
+                /*
+                 * Only possible if the pool has been shut down.
+                 */
+                barrierEvent.abandon();
+                return true;
+            }
+        }
+
+        return true;
+    }
+
+
+    /**
+     * Pass a task to a worker if its queue has room.
+     *
+     * @param worker chosen worker
+     * @param task task to run
+     * @return whether the task was accepted
+     */
+    private boolean submit(ThreadPoolExecutor worker,
+                           Runnable           task)
+    {
+        queueDepth.incrementAndGet();
+
+        try
+        {
+            worker.execute(task);
+            return true;
+        }
+        catch (RejectedExecutionException full)
+        {
+            queueDepth.decrementAndGet();
+            return false;
+        }
+    }
+
+
+    /**
+     * Process a single event on the worker thread.
+     *
+     * @param event incoming event
+     */
+    private void processEvent(IncomingEvent event)
+    {
+        try
+        {
+            eventProcessor.accept(event);
+        }
+        catch (Throwable error)
+        {
+            log.error("Unexpected error processing event with offset " + event.getMessageId(), error);
+        }
+        finally
+        {
+            queueDepth.decrementAndGet();
+        }
+    }
+
+
+    /**
+     * Return whether every worker has at least half of its queue free.  The consumer uses this to decide
+     * when to resume fetching events after it has paused its partitions.
+     *
+     * @return boolean flag
+     */
+    boolean hasCapacity()
+    {
+        for (ThreadPoolExecutor worker : workers)
+        {
+            if (worker.getQueue().remainingCapacity() < (workerQueueSize + 1) / 2)
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+
+    /**
+     * Return the number of events that are waiting for, or going through, processing by the workers.
+     * A barrier event is counted once for each worker.
+     *
+     * @return count of events
+     */
+    int getQueueDepth()
+    {
+        return queueDepth.get();
+    }
+
+
+    /**
+     * Return the number of worker threads.
+     *
+     * @return count of workers
+     */
+    int getNumberOfWorkers()
+    {
+        return workers.length;
+    }
+
+
+    /**
+     * Stop accepting events and wait for a short time for the workers to finish the events they have.
+     */
+    void shutdown()
+    {
+        for (ThreadPoolExecutor worker : workers)
+        {
+            worker.shutdown();
+        }
+
+        try
+        {
+            for (ThreadPoolExecutor worker : workers)
+            {
+                if (! worker.awaitTermination(10, TimeUnit.SECONDS))
+                {
+                    worker.shutdownNow();
+                }
+            }
+        }
+        catch (InterruptedException interrupted)
+        {
+            log.debug("Interrupted while waiting for workers to finish", interrupted);
+            Thread.currentThread().interrupt();
+        }
+    }
+
+
+    /**
+     * BarrierEvent is queued on every worker.  The last worker to reach it processes the event while the
+     * others wait, so the event sees the effect of every event queued before it and no later event
+     * starts until it is complete.
+     */
+    private class BarrierEvent implements Runnable
+    {
+        private final IncomingEvent  event;
+        private final AtomicInteger  workersToArrive = new AtomicInteger(workers.length);
+        private final CountDownLatch complete        = new CountDownLatch(1);
+
+
+        /**
+         * Constructor.
+         *
+         * @param event event to process
+         */
+        BarrierEvent(IncomingEvent event)
+        {
+            this.event = event;
+        }
+
+
+        /**
+         * Called on each worker thread.
+         */
+        @Override
+        public void run()
+        {
+            if (workersToArrive.decrementAndGet() == 0)
+            {
+                try
+                {
+                    processEvent(event);
+                }
+                finally
+                {
+                    complete.countDown();
+                }
+            }
+            else
+            {
+                try
+                {
+                    complete.await();
+                }
+                catch (InterruptedException interrupted)
+                {
+                    Thread.currentThread().interrupt();
+                }
+                finally
+                {
+                    queueDepth.decrementAndGet();
+                }
+            }
+        }
+
+
+        /**
+         * Release the workers that are waiting for a barrier that can not be completed.
+         */
+        void abandon()
+        {
+            complete.countDown();
+        }
+    }
+}
@@ -16,6 +16,7 @@ import org.slf4j.LoggerFactory;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
@@ -36,8 +37,9 @@ public class KafkaOpenMetadataTopicConnector extends OpenMetadataTopicConnector
     private final Properties consumerProperties = new Properties();
 
 
-    private KafkaOpenMetadataEventConsumer consumer = null;
-    private KafkaOpenMetadataEventProducer producer = null;
+    private KafkaOpenMetadataEventConsumer   consumer   = null;
+    private KafkaOpenMetadataEventProducer   producer   = null;
+    private KafkaOpenMetadataEventWorkerPool workerPool = null;
 
     private String       topicName          = null;
     private String       serverId           = null;
@@ -46,6 +48,7 @@ public class KafkaOpenMetadataTopicConnector extends OpenMetadataTopicConnector
     private final List<IncomingEvent> incomingEventsList = Collections.synchronizedList(new ArrayList<>());
 
     private KafkaProducerExecutor executor = null;
+    private volatile boolean      closing  = false;
 
     final String                   threadHeader = "Kafka-";
     Thread                         consumerThread;
@@ -62,6 +65,12 @@ public class KafkaOpenMetadataTopicConnector extends OpenMetadataTopicConnector
         public void afterExecute(Runnable r, Throwable t) {
             super.afterExecute(r, t);
 
+            /* the producer thread ends normally when the connector disconnects */
+            if (closing)
+            {
+                return;
+            }
+
             /* we don't care why the thread ended , we just restart it */
             /* The thread will log on exit and on restart already, so no need to let anyone know */
             producer = new KafkaOpenMetadataEventProducer(topicName, serverId, producerProperties, KafkaOpenMetadataTopicConnector.this, auditLog);
@@ -91,6 +100,9 @@ public class KafkaOpenMetadataTopicConnector extends OpenMetadataTopicConnector
         producerProperties.put("value.serializer", "org.apache.kafka.common.serialization.StringSerializer");
         producerProperties.put("bring.up.retries", "10");
         producerProperties.put("bring.up.minSleepTime", "5000");
+        producerProperties.put(KafkaOpenMetadataEventProducer.sendBufferCapacityProperty, "10000");
+        producerProperties.put(KafkaOpenMetadataEventProducer.sendBatchEventsProperty, "500");
+        producerProperties.put(KafkaOpenMetadataEventProducer.sendMaxInFlightEventsProperty, "1000");
 
 
         consumerProperties.put("bootstrap.servers", "localhost:9092");
@@ -258,6 +270,16 @@ public class KafkaOpenMetadataTopicConnector extends OpenMetadataTopicConnector
         }
 
         KafkaOpenMetadataEventConsumerConfiguration consumerConfig = new KafkaOpenMetadataEventConsumerConfiguration(consumerEgeriaProperties, auditLog);
+
+        int processingThreads = consumerConfig.getIntProperty(KafkaOpenMetadataEventConsumerProperty.PROCESSING_THREADS);
+        if (processingThreads > 1)
+        {
+            workerPool = new KafkaOpenMetadataEventWorkerPool(topicName,
+                                                              processingThreads,
+                                                              consumerConfig.getIntProperty(KafkaOpenMetadataEventConsumerProperty.PROCESSING_QUEUE_SIZE),
+                                                              this::distributeEvent);
+        }
+
         consumer = new KafkaOpenMetadataEventConsumer(topicName, serverId, consumerConfig, consumerProperties, this, auditLog);
         consumerThread = new Thread(consumer, threadHeader + "Consumer-" + topicName);
         consumerThread.start();
@@ -287,6 +309,32 @@ public class KafkaOpenMetadataTopicConnector extends OpenMetadataTopicConnector
     }
 
 
+    /**
+     * Sends the supplied event to the topic without waiting for Kafka.  The event is added to the producer's
+     * buffer and the returned future completes once Kafka has acknowledged it.
+     *
+     * @param event object containing the event properties.
+     * @return future that completes when the event is sent
+     */
+    @Override
+    public CompletableFuture<Void> sendEventAsync(String event)
+    {
+        final String methodName = "sendEventAsync";
+
+        if (producer != null)
+        {
+            return producer.sendEventAsync(event);
+        }
+
+        CompletableFuture<Void> future = new CompletableFuture<>();
+
+        future.completeExceptionally(new ConnectorCheckedException(KafkaOpenMetadataTopicConnectorErrorCode.EVENT_NOT_SENT.getMessageDefinition(topicName),
+                                                                   this.getClass().getName(),
+                                                                   methodName));
+        return future;
+    }
+
+
     /**
      * Look to see if there is one of more new events to process.
      *
@@ -313,14 +361,35 @@ public class KafkaOpenMetadataTopicConnector extends OpenMetadataTopicConnector
     }
 
     /**
-     * Distribute events to other listeners.
+     * Distribute events to other listeners.  If there is a worker pool, the event is processed by the worker
+     * for its instance, otherwise it is picked up by the listener thread.
      *
      * @param event object containing the event properties.
+     * @return true if the event was accepted; false if the workers are too busy and the event must be offered again later.
      */
-    void distributeToListeners(IncomingEvent event)
+    boolean distributeToListeners(IncomingEvent event)
     {
         log.debug("distribute event to listeners" + event);
+
+        if (workerPool != null)
+        {
+            return workerPool.submit(event);
+        }
+
         incomingEventsList.add(event);
+        return true;
+    }
+
+
+    /**
+     * Return whether the connector can accept more events.  The consumer uses this to decide when to resume
+     * fetching events after the workers were too busy to accept one.
+     *
+     * @return boolean flag
+     */
+    boolean hasProcessingCapacity()
+    {
+        return (workerPool == null) || (workerPool.hasCapacity());
     }
 
 
@@ -335,8 +404,11 @@ public class KafkaOpenMetadataTopicConnector extends OpenMetadataTopicConnector
         final String           actionDescription = "disconnect";
 
 
+        closing = true;
+
         consumer.safeCloseConsumer();
         producer.safeCloseProducer();
+        executor.shutdown();
 
         /*
         * Ensure Kafka client threads have stopped
@@ -362,15 +434,26 @@ public class KafkaOpenMetadataTopicConnector extends OpenMetadataTopicConnector
             }
         }
 
+        if (workerPool != null)
+        {
+            workerPool.shutdown();
+        }
+
         try {
-            producerThread.join();
+            /*
+             * The producer flushes its events and saves any unsent events to its spill file before it stops.
+             */
+            if (! executor.awaitTermination(30, TimeUnit.SECONDS))
+            {
+                log.debug("Producer for topic " + topicName + " did not stop in time");
+            }
         } catch (InterruptedException e) {
             //expected and don't care
         }
         catch ( Exception error ){
             if (auditLog != null)
             {
-                final String command = "producerThread.join";
+                final String command = "executor.awaitTermination";
 
                 auditLog.logException(actionDescription,
                         KafkaOpenMetadataTopicConnectorAuditCode.UNEXPECTED_SHUTDOWN_EXCEPTION.getMessageDefinition(error.getClass().getName(),
@@ -393,9 +476,41 @@ public class KafkaOpenMetadataTopicConnector extends OpenMetadataTopicConnector
      * @return int
      */
     int getNumberOfUnprocessedEvents() {
+        if (workerPool != null) {
+            return incomingEventsList.size() + workerPool.getQueueDepth();
+        }
     	return incomingEventsList.size();
     }
 
+
+    /**
+     * Return the number of events that have been received from Kafka but not yet passed to the listeners.
+     * This is a measure of how far the listeners are behind the consumer.
+     *
+     * @return count of events
+     */
+    public int getEventQueueDepth()
+    {
+        return getNumberOfUnprocessedEvents();
+    }
+
+
+    /**
+     * Return the largest number of events waiting on the partitions of the topic, as last reported by the
+     * Kafka consumer.  This is a measure of how far the consumer is behind the topic.
+     *
+     * @return count of events, or -1 if the consumer has not fetched any events yet
+     */
+    public long getConsumerLag()
+    {
+        if (consumer != null)
+        {
+            return consumer.getConsumerLag();
+        }
+
+        return -1;
+    }
+
     private class KafkaStatusChecker {
 
         //instantiate empty objects to avoid if null checks
@@ -141,6 +141,19 @@ public enum KafkaOpenMetadataTopicConnectorAuditCode implements AuditLogMessageS
             "Check the  Kafka error logs for related messages that could " +
                     "indicate the cause of this error.  Work to clear the underlying error.  " +
                     "Once fixed, it may be necessary to restart the server to cause a reconnect to Kafka."),
+
+    EVENTS_SPILLED_TO_DISK("OCF-KAFKA-TOPIC-CONNECTOR-0020",
+            OMRSAuditLogRecordSeverity.ERROR,
+            "The Apache Kafka producer for topic {0} has {1} events waiting to be sent and is saving new events in spill file {2}",
+            "Events are arriving faster than they can be sent to Kafka, typically because Kafka is not available.  They are saved " +
+                    "in the spill file and sent in order once the earlier events have been sent.",
+            "Review the operational status of Apache Kafka.  No action is needed if the events are sent once Kafka is available."),
+
+    SPILL_FILE_ERROR("OCF-KAFKA-TOPIC-CONNECTOR-0021",
+            OMRSAuditLogRecordSeverity.EXCEPTION,
+            "The Apache Kafka producer for topic {0} was unable to use spill file {1}.  The {2} exception was returned with message {3}",
+            "Events that can not be sent immediately are held in memory rather than saved in the spill file.",
+            "Check that the spill directory exists and that the server is able to write to it."),
     ;
 
     private final AuditLogMessageDefinition messageDefinition;
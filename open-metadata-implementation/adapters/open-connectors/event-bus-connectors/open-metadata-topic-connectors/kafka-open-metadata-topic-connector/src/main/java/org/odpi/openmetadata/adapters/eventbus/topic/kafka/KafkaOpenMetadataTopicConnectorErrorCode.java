@@ -40,7 +40,12 @@ public enum KafkaOpenMetadataTopicConnectorErrorCode implements ExceptionMessage
     ERROR_CONNECTING_KAFKA_PRODUCER(400, "OCF-KAFKA-TOPIC-CONNECTOR-400-003 ",
             "Egeria encountered an exception while attempting to connect a message producer to a Kafka.  The message in the exception was: {0}",
             "Egeria is unable to produce events",
-            "Ensure that the Kafka service is available and that the connection properties are valid.")
+            "Ensure that the Kafka service is available and that the connection properties are valid."),
+
+    EVENT_NOT_SENT(400, "OCF-KAFKA-TOPIC-CONNECTOR-400-004 ",
+            "The Apache Kafka producer for topic {0} is not running so the event was not sent",
+            "The event was not sent.  If a spill directory is configured, the event is saved and is sent when the producer next starts.",
+            "Check the audit log for messages that explain why the producer is not running.")
         ;
         private final ExceptionMessageDefinition messageDefinition;
 
@@ -0,0 +1,304 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.eventbus.topic.kafka;
+
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.errors.RecordTooLargeException;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.odpi.openmetadata.frameworks.auditlog.AuditLog;
+import org.odpi.openmetadata.frameworks.connectors.ffdc.ConnectorCheckedException;
+import org.testng.annotations.Test;
+
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.mockito.Mockito.mock;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+/**
+ * Verify that the event producer sends buffered and spilled events to Kafka in order, limits the events in flight,
+ * sends events again after a retryable error and fails the future of an event that can not be sent.
+ */
+public class KafkaOpenMetadataEventProducerTest
+{
+    private static final String topicName = "testTopic";
+
+
+    /**
+     * Build a producer that sends events to a mock Kafka producer.
+     *
+     * @param kafkaProducer mock Kafka producer that does not complete sends until told to
+     * @param properties Egeria producer properties
+     * @return event producer
+     */
+    private KafkaOpenMetadataEventProducer getProducer(MockProducer<String, String> kafkaProducer,
+                                                       Properties                   properties)
+    {
+        return new KafkaOpenMetadataEventProducer(topicName, "testServer", properties, null, mock(AuditLog.class), kafkaProducer);
+    }
+
+
+    /**
+     * Build a mock Kafka producer that holds each send until it is completed or failed by the test.
+     *
+     * @return mock Kafka producer
+     */
+    private MockProducer<String, String> getKafkaProducer()
+    {
+        return new MockProducer<>(false, new StringSerializer(), new StringSerializer());
+    }
+
+
+    /**
+     * Start the producer thread.
+     *
+     * @param producer event producer
+     * @return producer thread
+     */
+    private Thread start(KafkaOpenMetadataEventProducer producer)
+    {
+        Thread producerThread = new Thread(producer, "TestKafkaProducer");
+
+        producerThread.start();
+
+        return producerThread;
+    }
+
+
+    /**
+     * Stop the producer thread.
+     *
+     * @param producer event producer
+     * @param producerThread producer thread
+     * @throws InterruptedException interrupted while waiting for the thread to stop
+     */
+    private void stop(KafkaOpenMetadataEventProducer producer,
+                      Thread                         producerThread) throws InterruptedException
+    {
+        producer.safeCloseProducer();
+        producerThread.join(30000);
+    }
+
+
+    /**
+     * Wait until a condition is true.
+     *
+     * @param condition condition to test
+     * @throws InterruptedException interrupted while waiting
+     */
+    private void waitFor(BooleanSupplier condition) throws InterruptedException
+    {
+        long deadline = System.currentTimeMillis() + 30000;
+
+        while ((! condition.getAsBoolean()) && (System.currentTimeMillis() < deadline))
+        {
+            Thread.sleep(10);
+        }
+
+        assertTrue(condition.getAsBoolean());
+    }
+
+
+    /**
+     * Return the events that have been handed to the mock Kafka producer.
+     *
+     * @param kafkaProducer mock Kafka producer
+     * @return event values in the order they were sent
+     */
+    private List<String> getSentEvents(MockProducer<String, String> kafkaProducer)
+    {
+        List<String> events = new ArrayList<>();
+
+        for (ProducerRecord<String, String> record : kafkaProducer.history())
+        {
+            events.add(record.value());
+        }
+
+        return events;
+    }
+
+
+    /**
+     * Return the names of a list of events.
+     *
+     * @param first number of the first event
+     * @param last number of the last event
+     * @return event names
+     */
+    private List<String> getEventNames(int first, int last)
+    {
+        List<String> events = new ArrayList<>();
+
+        for (int i = first; i <= last; i++)
+        {
+            events.add("event" + i);
+        }
+
+        return events;
+    }
+
+
+    @Test(timeOut = 60000)
+    public void testEventsAreSentInOrderWithLimitedEventsInFlight() throws Exception
+    {
+        Properties properties = new Properties();
+
+        properties.setProperty(KafkaOpenMetadataEventProducer.sendBatchEventsProperty, "2");
+        properties.setProperty(KafkaOpenMetadataEventProducer.sendMaxInFlightEventsProperty, "3");
+
+        MockProducer<String, String>   kafkaProducer = getKafkaProducer();
+        KafkaOpenMetadataEventProducer producer      = getProducer(kafkaProducer, properties);
+        List<CompletableFuture<Void>>  futures       = new ArrayList<>();
+
+        for (String event : getEventNames(1, 7))
+        {
+            futures.add(producer.sendEventAsync(event));
+        }
+
+        Thread producerThread = start(producer);
+
+        /*
+         * Only three events are handed to Kafka until Kafka acknowledges one of them.
+         */
+        waitFor(() -> kafkaProducer.history().size() == 3);
+        Thread.sleep(200);
+        assertEquals(kafkaProducer.history().size(), 3);
+        assertFalse(futures.get(0).isDone());
+
+        for (int i = 0; i < 7; i++)
+        {
+            final int sent = i + 1;
+
+            waitFor(() -> kafkaProducer.history().size() >= sent);
+            assertTrue(kafkaProducer.completeNext());
+            futures.get(i).get(10, TimeUnit.SECONDS);
+        }
+
+        assertEquals(getSentEvents(kafkaProducer), getEventNames(1, 7));
+
+        stop(producer, producerThread);
+    }
+
+
+    @Test(timeOut = 60000)
+    public void testSpilledEventsAreSentAfterBufferedEvents() throws Exception
+    {
+        Properties properties = new Properties();
+
+        properties.setProperty(KafkaOpenMetadataEventProducer.sendBufferCapacityProperty, "2");
+        properties.setProperty(KafkaOpenMetadataEventProducer.sendBatchEventsProperty, "2");
+        properties.setProperty(KafkaOpenMetadataEventProducer.sendSpillDirectoryProperty,
+                               Files.createTempDirectory("kafka-producer").toString());
+
+        MockProducer<String, String>   kafkaProducer = new MockProducer<>(true, new StringSerializer(), new StringSerializer());
+        KafkaOpenMetadataEventProducer producer      = getProducer(kafkaProducer, properties);
+        List<CompletableFuture<Void>>  futures       = new ArrayList<>();
+
+        /*
+         * The first two events fill the send buffer so the rest go to the spill file.
+         */
+        for (String event : getEventNames(1, 6))
+        {
+            futures.add(producer.sendEventAsync(event));
+        }
+
+        Thread producerThread = start(producer);
+
+        for (CompletableFuture<Void> future : futures)
+        {
+            future.get(10, TimeUnit.SECONDS);
+        }
+
+        assertEquals(getSentEvents(kafkaProducer), getEventNames(1, 6));
+
+        stop(producer, producerThread);
+    }
+
+
+    @Test(timeOut = 60000)
+    public void testNonRetryableErrorFailsFuture() throws Exception
+    {
+        MockProducer<String, String>   kafkaProducer  = getKafkaProducer();
+        KafkaOpenMetadataEventProducer producer       = getProducer(kafkaProducer, new Properties());
+        Thread                         producerThread = start(producer);
+
+        CompletableFuture<Void> rejectedEvent = producer.sendEventAsync("event1");
+        CompletableFuture<Void> nextEvent     = producer.sendEventAsync("event2");
+
+        waitFor(() -> kafkaProducer.history().size() == 2);
+        assertTrue(kafkaProducer.errorNext(new RecordTooLargeException("event is too large")));
+        assertTrue(kafkaProducer.completeNext());
+
+        ExecutionException error = expectThrows(ExecutionException.class, () -> rejectedEvent.get(10, TimeUnit.SECONDS));
+
+        assertTrue(error.getCause() instanceof ConnectorCheckedException);
+
+        /*
+         * The failure does not stop the following events being sent.
+         */
+        nextEvent.get(10, TimeUnit.SECONDS);
+        assertEquals(getSentEvents(kafkaProducer), getEventNames(1, 2));
+
+        stop(producer, producerThread);
+    }
+
+
+    @Test(timeOut = 60000)
+    public void testRetryableErrorSendsEventAgain() throws Exception
+    {
+        MockProducer<String, String>   kafkaProducer  = getKafkaProducer();
+        KafkaOpenMetadataEventProducer producer       = getProducer(kafkaProducer, new Properties());
+        Thread                         producerThread = start(producer);
+
+        CompletableFuture<Void> future = producer.sendEventAsync("event1");
+
+        waitFor(() -> kafkaProducer.history().size() == 1);
+        assertTrue(kafkaProducer.errorNext(new TimeoutException("broker not available")));
+
+        /*
+         * The event is sent again once the producer has waited for the broker to recover.
+         */
+        waitFor(() -> kafkaProducer.history().size() == 2);
+        assertFalse(future.isDone());
+        assertTrue(kafkaProducer.completeNext());
+
+        future.get(10, TimeUnit.SECONDS);
+        assertEquals(getSentEvents(kafkaProducer), Arrays.asList("event1", "event1"));
+
+        stop(producer, producerThread);
+    }
+
+
+    @Test(timeOut = 60000)
+    public void testUnsentEventsFailWhenProducerStops() throws Exception
+    {
+        MockProducer<String, String>   kafkaProducer = getKafkaProducer();
+        KafkaOpenMetadataEventProducer producer      = getProducer(kafkaProducer, new Properties());
+
+        CompletableFuture<Void> bufferedEvent = producer.sendEventAsync("event1");
+
+        /*
+         * The producer is stopped before its thread sends the buffered event.
+         */
+        producer.safeCloseProducer();
+        producer.run();
+
+        ExecutionException error = expectThrows(ExecutionException.class, () -> bufferedEvent.get(10, TimeUnit.SECONDS));
+
+        assertTrue(error.getCause() instanceof ConnectorCheckedException);
+        assertTrue(producer.sendEventAsync("event2").isCompletedExceptionally());
+        assertTrue(kafkaProducer.history().isEmpty());
+    }
+}
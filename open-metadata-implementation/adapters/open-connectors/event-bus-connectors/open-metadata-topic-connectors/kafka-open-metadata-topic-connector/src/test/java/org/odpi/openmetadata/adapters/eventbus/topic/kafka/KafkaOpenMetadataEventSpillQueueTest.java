@@ -0,0 +1,183 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.eventbus.topic.kafka;
+
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Verify that the spill queue returns events in order, keeps unsent events when it is closed and recovers
+ * its read position after the server stops without closing it.
+ */
+public class KafkaOpenMetadataEventSpillQueueTest
+{
+    @Test
+    void testEventsReadInOrder() throws Exception
+    {
+        File spillFile = Files.createTempDirectory("spill").resolve("topic.spill").toFile();
+
+        KafkaOpenMetadataEventSpillQueue queue = new KafkaOpenMetadataEventSpillQueue(spillFile);
+
+        queue.append("event-1");
+        queue.append("event-2");
+        queue.append("event-3");
+
+        assertEquals(queue.size(), 3);
+        assertEquals(queue.read(2), Arrays.asList("event-1", "event-2"));
+
+        queue.append("event-4");
+
+        assertEquals(queue.read(10), Arrays.asList("event-3", "event-4"));
+        assertTrue(queue.isEmpty());
+        assertEquals(spillFile.length(), (long) KafkaOpenMetadataEventSpillQueue.HEADER_LENGTH);
+
+        queue.close(null);
+    }
+
+
+    @Test
+    void testUnsentEventsRecoveredOnReopen() throws Exception
+    {
+        File spillFile = Files.createTempDirectory("spill").resolve("topic.spill").toFile();
+
+        KafkaOpenMetadataEventSpillQueue queue = new KafkaOpenMetadataEventSpillQueue(spillFile);
+
+        queue.append("spilled-1");
+        queue.append("spilled-2");
+        queue.append("spilled-3");
+        assertEquals(queue.read(1), Collections.singletonList("spilled-1"));
+
+        queue.close(Arrays.asList("memory-1", "memory-2"));
+
+        KafkaOpenMetadataEventSpillQueue reopenedQueue = new KafkaOpenMetadataEventSpillQueue(spillFile);
+
+        assertEquals(reopenedQueue.size(), 4);
+        assertEquals(reopenedQueue.read(10), Arrays.asList("memory-1", "memory-2", "spilled-2", "spilled-3"));
+        assertFalse(new File(spillFile.getPath() + ".tmp").exists());
+
+        reopenedQueue.close(null);
+    }
+
+
+    @Test
+    void testPartialEventDiscardedOnReopen() throws Exception
+    {
+        File spillFile = Files.createTempDirectory("spill").resolve("topic.spill").toFile();
+
+        KafkaOpenMetadataEventSpillQueue queue = new KafkaOpenMetadataEventSpillQueue(spillFile);
+
+        queue.append("complete");
+        queue.close(null);
+
+        try (RandomAccessFile file = new RandomAccessFile(spillFile, "rw"))
+        {
+            file.seek(file.length());
+            file.writeInt(100);
+            file.write(new byte[] { 'x', 'y' });
+        }
+
+        KafkaOpenMetadataEventSpillQueue reopenedQueue = new KafkaOpenMetadataEventSpillQueue(spillFile);
+
+        assertEquals(reopenedQueue.size(), 1);
+        assertEquals(reopenedQueue.read(10), Collections.singletonList("complete"));
+
+        reopenedQueue.close(null);
+    }
+
+
+    @Test
+    void testReadPositionRecoveredWithoutClose() throws Exception
+    {
+        File spillFile = Files.createTempDirectory("spill").resolve("topic.spill").toFile();
+
+        writeSpillFile(spillFile, KafkaOpenMetadataEventSpillQueue.HEADER_LENGTH, false, "spilled-1", "spilled-2", "spilled-3");
+
+        /*
+         * The first queue is not closed before the file is opened again, as if the server stopped after
+         * reading the first event.
+         */
+        KafkaOpenMetadataEventSpillQueue queue = new KafkaOpenMetadataEventSpillQueue(spillFile);
+
+        assertEquals(queue.read(1), Collections.singletonList("spilled-1"));
+
+        KafkaOpenMetadataEventSpillQueue reopenedQueue = new KafkaOpenMetadataEventSpillQueue(spillFile);
+
+        assertEquals(reopenedQueue.size(), 2);
+        assertEquals(reopenedQueue.read(10), Arrays.asList("spilled-2", "spilled-3"));
+
+        reopenedQueue.close(null);
+        queue.close(null);
+    }
+
+
+    @Test
+    void testDamagedHeaderResendsAllEvents() throws Exception
+    {
+        File spillFile = Files.createTempDirectory("spill").resolve("topic.spill").toFile();
+
+        writeSpillFile(spillFile, KafkaOpenMetadataEventSpillQueue.HEADER_LENGTH + 13, true, "spilled-1", "spilled-2");
+
+        KafkaOpenMetadataEventSpillQueue queue = new KafkaOpenMetadataEventSpillQueue(spillFile);
+
+        assertEquals(queue.size(), 2);
+        assertEquals(queue.read(10), Arrays.asList("spilled-1", "spilled-2"));
+
+        queue.close(null);
+    }
+
+
+    @Test
+    void testReadPositionInsideEventResendsAllEvents() throws Exception
+    {
+        File spillFile = Files.createTempDirectory("spill").resolve("topic.spill").toFile();
+
+        writeSpillFile(spillFile, KafkaOpenMetadataEventSpillQueue.HEADER_LENGTH + 2, false, "spilled-1", "spilled-2");
+
+        KafkaOpenMetadataEventSpillQueue queue = new KafkaOpenMetadataEventSpillQueue(spillFile);
+
+        assertEquals(queue.size(), 2);
+        assertEquals(queue.read(10), Arrays.asList("spilled-1", "spilled-2"));
+
+        queue.close(null);
+    }
+
+
+    /**
+     * Write a spill file directly.
+     *
+     * @param spillFile file to write
+     * @param readPosition read position to save in the header
+     * @param damagedHeader whether the second copy of the read position should not match the first
+     * @param events events to store
+     * @throws Exception the file can not be written
+     */
+    private void writeSpillFile(File      spillFile,
+                                long      readPosition,
+                                boolean   damagedHeader,
+                                String... events) throws Exception
+    {
+        try (RandomAccessFile file = new RandomAccessFile(spillFile, "rw"))
+        {
+            file.writeLong(readPosition);
+            file.writeLong(damagedHeader ? readPosition : ~readPosition);
+
+            for (String event : events)
+            {
+                byte[] eventBytes = event.getBytes(StandardCharsets.UTF_8);
+
+                file.writeInt(eventBytes.length);
+                file.write(eventBytes);
+            }
+        }
+    }
+}
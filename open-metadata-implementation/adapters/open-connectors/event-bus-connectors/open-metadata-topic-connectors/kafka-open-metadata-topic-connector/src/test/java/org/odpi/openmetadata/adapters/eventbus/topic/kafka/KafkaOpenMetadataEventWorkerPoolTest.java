@@ -0,0 +1,284 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.eventbus.topic.kafka;
+
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Verify that the worker pool keeps the events about an instance in order while processing different
+ * instances concurrently, that non-instance events act as a barrier and that the queues are bounded.
+ */
+public class KafkaOpenMetadataEventWorkerPoolTest
+{
+    /**
+     * Build the JSON of an instance event about an entity.
+     *
+     * @param guid entity GUID
+     * @param sequence sequence number held in the entity version
+     * @return event JSON
+     */
+    private static String entityEvent(String guid, long sequence)
+    {
+        return "{\"protocolVersionId\":\"OMRS V1.0\",\"eventCategory\":\"INSTANCE\",\"instanceEventSection\":" +
+                       "{\"eventType\":\"UPDATED_ENTITY_EVENT\",\"entity\":{\"class\":\"EntityDetail\"," +
+                       "\"type\":{\"typeDefGUID\":\"type-guid\",\"typeDefName\":\"Asset\"},\"version\":" + sequence +
+                       ",\"guid\":\"" + guid + "\"}}}";
+    }
+
+
+    /**
+     * Build the JSON of a TypeDef event.
+     *
+     * @return event JSON
+     */
+    private static String typeDefEvent()
+    {
+        return "{\"protocolVersionId\":\"OMRS V1.0\",\"eventCategory\":\"TYPEDEF\",\"typeDefEventSection\":" +
+                       "{\"eventType\":\"NEW_TYPEDEF_EVENT\",\"typeDef\":{\"guid\":\"type-guid\"}}}";
+    }
+
+
+    @Test
+    void testRoutingKey()
+    {
+        assertEquals(KafkaOpenMetadataEventRoutingKey.getInstanceGUID(entityEvent("entity-1", 3)), "entity-1");
+        assertEquals(KafkaOpenMetadataEventRoutingKey.getInstanceGUID("{\"instanceEventSection\":{\"instanceGUID\":\"purged-1\"," +
+                                                                              "\"eventType\":\"PURGED_ENTITY_EVENT\"}}"), "purged-1");
+        assertEquals(KafkaOpenMetadataEventRoutingKey.getInstanceGUID("{\"instanceEventSection\":{\"instanceGUID\":\"old-1\"," +
+                                                                              "\"relationship\":{\"guid\":\"new-1\"}}}"), "new-1");
+        assertNull(KafkaOpenMetadataEventRoutingKey.getInstanceGUID(typeDefEvent()));
+        assertNull(KafkaOpenMetadataEventRoutingKey.getInstanceGUID("not json"));
+        assertNull(KafkaOpenMetadataEventRoutingKey.getInstanceGUID(null));
+    }
+
+
+    @Test
+    void testEventsProcessedInOrderForEachInstance() throws Exception
+    {
+        final int instances         = 8;
+        final int eventsPerInstance = 500;
+
+        Map<String, List<Long>> processedVersions = new ConcurrentHashMap<>();
+        CountDownLatch          allProcessed      = new CountDownLatch(instances * eventsPerInstance);
+
+        KafkaOpenMetadataEventWorkerPool pool = new KafkaOpenMetadataEventWorkerPool("test", 3, instances * eventsPerInstance, event ->
+        {
+            KafkaIncomingEvent kafkaEvent = (KafkaIncomingEvent) event;
+            String             guid       = KafkaOpenMetadataEventRoutingKey.getInstanceGUID(kafkaEvent.getJson());
+
+            processedVersions.computeIfAbsent(guid, key -> Collections.synchronizedList(new ArrayList<>())).add(kafkaEvent.getOffset());
+            allProcessed.countDown();
+        });
+
+        /*
+         * The version of each event is used as its offset so the processing order can be checked.
+         */
+        for (long version = 0; version < eventsPerInstance; version++)
+        {
+            for (int instance = 0; instance < instances; instance++)
+            {
+                assertTrue(pool.submit(new KafkaIncomingEvent(entityEvent("guid-" + instance, version), version)));
+            }
+        }
+
+        assertTrue(allProcessed.await(30, TimeUnit.SECONDS));
+        pool.shutdown();
+
+        assertEquals(pool.getQueueDepth(), 0);
+
+        for (int instance = 0; instance < instances; instance++)
+        {
+            List<Long> versions = processedVersions.get("guid-" + instance);
+
+            assertEquals(versions.size(), eventsPerInstance);
+
+            for (int i = 0; i < eventsPerInstance; i++)
+            {
+                assertEquals(versions.get(i).longValue(), i);
+            }
+        }
+    }
+
+
+    @Test
+    void testInstancesProcessedConcurrently() throws Exception
+    {
+        CountDownLatch secondInstanceProcessed = new CountDownLatch(1);
+        CountDownLatch firstInstanceProcessed  = new CountDownLatch(1);
+
+        /*
+         * Find two GUIDs that are routed to different workers.
+         */
+        String firstGUID  = "guid-0";
+        String secondGUID = null;
+        for (int i = 1; secondGUID == null; i++)
+        {
+            if (Math.floorMod(("guid-" + i).hashCode(), 2) != Math.floorMod(firstGUID.hashCode(), 2))
+            {
+                secondGUID = "guid-" + i;
+            }
+        }
+
+        KafkaOpenMetadataEventWorkerPool pool = new KafkaOpenMetadataEventWorkerPool("test", 2, 10, event ->
+        {
+            try
+            {
+                if (event.getJson().contains(firstGUID))
+                {
+                    /*
+                     * A slow listener for the first instance must not hold up the second.
+                     */
+                    if (secondInstanceProcessed.await(30, TimeUnit.SECONDS))
+                    {
+                        firstInstanceProcessed.countDown();
+                    }
+                }
+                else
+                {
+                    secondInstanceProcessed.countDown();
+                }
+            }
+            catch (InterruptedException interrupted)
+            {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        assertTrue(pool.submit(new KafkaIncomingEvent(entityEvent(firstGUID, 0), 0)));
+        assertTrue(pool.submit(new KafkaIncomingEvent(entityEvent(secondGUID, 0), 1)));
+
+        assertTrue(firstInstanceProcessed.await(30, TimeUnit.SECONDS));
+        pool.shutdown();
+    }
+
+
+    @Test
+    void testNonInstanceEventIsBarrier() throws Exception
+    {
+        final int instances = 16;
+
+        List<String>   processingOrder = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch allProcessed    = new CountDownLatch(2 * instances + 1);
+
+        KafkaOpenMetadataEventWorkerPool pool = new KafkaOpenMetadataEventWorkerPool("test", 4, 100, event ->
+        {
+            String guid = KafkaOpenMetadataEventRoutingKey.getInstanceGUID(event.getJson());
+
+            if (guid == null)
+            {
+                processingOrder.add("typedef");
+            }
+            else
+            {
+                try
+                {
+                    Thread.sleep(5);
+                }
+                catch (InterruptedException interrupted)
+                {
+                    Thread.currentThread().interrupt();
+                }
+
+                processingOrder.add(guid);
+            }
+
+            allProcessed.countDown();
+        });
+
+        long offset = 0;
+        for (int instance = 0; instance < instances; instance++)
+        {
+            assertTrue(pool.submit(new KafkaIncomingEvent(entityEvent("before-" + instance, 0), offset++)));
+        }
+        assertTrue(pool.submit(new KafkaIncomingEvent(typeDefEvent(), offset++)));
+        for (int instance = 0; instance < instances; instance++)
+        {
+            assertTrue(pool.submit(new KafkaIncomingEvent(entityEvent("after-" + instance, 0), offset++)));
+        }
+
+        assertTrue(allProcessed.await(30, TimeUnit.SECONDS));
+        pool.shutdown();
+
+        int barrierPosition = processingOrder.indexOf("typedef");
+
+        assertEquals(barrierPosition, instances);
+        for (int i = 0; i < processingOrder.size(); i++)
+        {
+            if (i < barrierPosition)
+            {
+                assertTrue(processingOrder.get(i).startsWith("before-"));
+            }
+            else if (i > barrierPosition)
+            {
+                assertTrue(processingOrder.get(i).startsWith("after-"));
+            }
+        }
+
+        assertEquals(pool.getQueueDepth(), 0);
+    }
+
+
+    @Test
+    void testQueueIsBounded() throws Exception
+    {
+        CountDownLatch started   = new CountDownLatch(1);
+        CountDownLatch release   = new CountDownLatch(1);
+        AtomicInteger  processed = new AtomicInteger(0);
+
+        KafkaOpenMetadataEventWorkerPool pool = new KafkaOpenMetadataEventWorkerPool("test", 1, 2, event ->
+        {
+            started.countDown();
+
+            try
+            {
+                release.await(30, TimeUnit.SECONDS);
+            }
+            catch (InterruptedException interrupted)
+            {
+                Thread.currentThread().interrupt();
+            }
+
+            processed.incrementAndGet();
+        });
+
+        /*
+         * The first event is taken by the worker thread, the next two fill its queue.
+         */
+        assertTrue(pool.submit(new KafkaIncomingEvent(entityEvent("guid-1", 0), 0)));
+        assertTrue(started.await(30, TimeUnit.SECONDS));
+        assertTrue(pool.submit(new KafkaIncomingEvent(entityEvent("guid-1", 1), 1)));
+        assertTrue(pool.submit(new KafkaIncomingEvent(entityEvent("guid-1", 2), 2)));
+
+        assertFalse(pool.submit(new KafkaIncomingEvent(entityEvent("guid-1", 3), 3)));
+        assertFalse(pool.submit(new KafkaIncomingEvent(typeDefEvent(), 3)));
+        assertFalse(pool.hasCapacity());
+        assertEquals(pool.getQueueDepth(), 3);
+
+        release.countDown();
+
+        long deadline = System.currentTimeMillis() + 30000;
+        while (processed.get() < 3)
+        {
+            assertTrue(System.currentTimeMillis() < deadline);
+            Thread.sleep(10);
+        }
+
+        assertTrue(pool.hasCapacity());
+        assertTrue(pool.submit(new KafkaIncomingEvent(entityEvent("guid-1", 3), 3)));
+        pool.shutdown();
+    }
+}
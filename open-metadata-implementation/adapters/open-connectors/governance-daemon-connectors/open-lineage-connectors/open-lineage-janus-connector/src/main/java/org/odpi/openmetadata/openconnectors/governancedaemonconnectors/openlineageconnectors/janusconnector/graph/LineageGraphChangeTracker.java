@@ -0,0 +1,132 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.openconnectors.governancedaemonconnectors.openlineageconnectors.janusconnector.graph;
+
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.odpi.openmetadata.openconnectors.governancedaemonconnectors.openlineageconnectors.janusconnector.utils.Constants.ASSET_SCHEMA_TYPE;
+import static org.odpi.openmetadata.openconnectors.governancedaemonconnectors.openlineageconnectors.janusconnector.utils.Constants.ATTRIBUTE_FOR_SCHEMA;
+import static org.odpi.openmetadata.openconnectors.governancedaemonconnectors.openlineageconnectors.janusconnector.utils.Constants.LINEAGE_MAPPING;
+import static org.odpi.openmetadata.openconnectors.governancedaemonconnectors.openlineageconnectors.janusconnector.utils.Constants.NESTED_SCHEMA_ATTRIBUTE;
+import static org.odpi.openmetadata.openconnectors.governancedaemonconnectors.openlineageconnectors.janusconnector.utils.Constants.PORT_DELEGATION;
+import static org.odpi.openmetadata.openconnectors.governancedaemonconnectors.openlineageconnectors.janusconnector.utils.Constants.PORT_SCHEMA;
+import static org.odpi.openmetadata.openconnectors.governancedaemonconnectors.openlineageconnectors.janusconnector.utils.Constants.PROCESS;
+import static org.odpi.openmetadata.openconnectors.governancedaemonconnectors.openlineageconnectors.janusconnector.utils.Constants.PROCESS_PORT;
+import static org.odpi.openmetadata.openconnectors.governancedaemonconnectors.openlineageconnectors.janusconnector.utils.GraphConstants.PROPERTY_KEY_ENTITY_GUID;
+import static org.odpi.openmetadata.openconnectors.governancedaemonconnectors.openlineageconnectors.janusconnector.utils.GraphConstants.PROPERTY_KEY_LABEL;
+
+/**
+ * Records the guids of the vertices that were created, updated or disconnected since the last run of the
+ * lineage graph job, so that the job only recomputes the column lineage of the processes affected by these changes.
+ * The changes made before the connector started are not known, so the first run recomputes every process.
+ * The tracker is written by the threads storing lineage events and read by the lineage graph job, which uses it
+ * to find the processes affected by the changes.
+ */
+public class LineageGraphChangeTracker {
+
+    private static final int LINEAGE_MAPPING_SEARCH_DEPTH = 10;
+
+    private final Set<String> changedGuids = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean fullRecomputeRequested = new AtomicBoolean(true);
+
+    /**
+     * Records that a vertex has changed.
+     *
+     * @param guid - the unique identifier of the vertex, ignored if null
+     */
+    public void markChanged(String guid) {
+        if (guid != null) {
+            changedGuids.add(guid);
+        }
+    }
+
+    /**
+     * Records that a group of vertices have changed.
+     *
+     * @param guids - the unique identifiers of the vertices
+     */
+    public void markChanged(Collection<String> guids) {
+        if (guids != null) {
+            guids.forEach(this::markChanged);
+        }
+    }
+
+    /**
+     * Requests that the next run of the job recomputes every process in the graph.
+     */
+    public void requestFullRecompute() {
+        fullRecomputeRequested.set(true);
+    }
+
+    /**
+     * Returns whether the job must recompute every process, and clears the request.
+     *
+     * @return true if every process must be recomputed
+     */
+    public boolean takeFullRecomputeRequest() {
+        return fullRecomputeRequested.getAndSet(false);
+    }
+
+    /**
+     * Removes and returns the guids of the vertices that changed since the last call.  A guid that is marked while
+     * the changes are being taken is either returned now or kept for the next call.
+     *
+     * @return the guids of the changed vertices
+     */
+    public Set<String> takeChanges() {
+        Set<String> changes = new HashSet<>();
+        Iterator<String> iterator = changedGuids.iterator();
+        while (iterator.hasNext()) {
+            changes.add(iterator.next());
+            iterator.remove();
+        }
+        return changes;
+    }
+
+    /**
+     * Returns the guids of the processes whose column lineage may be affected by changes to the given vertices.
+     * A process is affected when the changed vertex is the process, one of its ports, the schema of a port,
+     * or a schema element linked through lineage mappings to the schema of one of its ports. A change to a table
+     * or data file affects the processes of its columns.
+     *
+     * @param g - the traversal source of the lineage graph
+     * @param changedGuids - the guids of the changed vertices
+     * @param chunkSize - the maximum number of guids looked up by one traversal
+     *
+     * @return the guids of the affected processes
+     */
+    @SuppressWarnings("unchecked")
+    public List<String> findAffectedProcesses(GraphTraversalSource g, Set<String> changedGuids, int chunkSize) {
+        Set<String> processGuids = new LinkedHashSet<>();
+        List<String> guids = new ArrayList<>(changedGuids);
+        for (int chunkStart = 0; chunkStart < guids.size(); chunkStart += chunkSize) {
+            List<String> chunk = guids.subList(chunkStart, Math.min(chunkStart + chunkSize, guids.size()));
+            g.V().has(PROPERTY_KEY_ENTITY_GUID, P.within(chunk))
+                    .union(__.identity(),
+                            __.out(NESTED_SCHEMA_ATTRIBUTE),
+                            __.out(ASSET_SCHEMA_TYPE).out(ATTRIBUTE_FOR_SCHEMA))
+                    .emit().repeat(__.both(LINEAGE_MAPPING).dedup()).times(LINEAGE_MAPPING_SEARCH_DEPTH)
+                    .union(__.identity(),
+                            __.in(PROCESS_PORT),
+                            __.in(PORT_DELEGATION).in(PROCESS_PORT),
+                            __.in(PORT_SCHEMA).in(PORT_DELEGATION).in(PROCESS_PORT),
+                            __.in(ATTRIBUTE_FOR_SCHEMA).in(PORT_SCHEMA).in(PORT_DELEGATION).in(PROCESS_PORT))
+                    .has(PROPERTY_KEY_LABEL, PROCESS)
+                    .values(PROPERTY_KEY_ENTITY_GUID).dedup()
+                    .forEachRemaining(guid -> processGuids.add(guid.toString()));
+        }
+        return new ArrayList<>(processGuids);
+    }
+}
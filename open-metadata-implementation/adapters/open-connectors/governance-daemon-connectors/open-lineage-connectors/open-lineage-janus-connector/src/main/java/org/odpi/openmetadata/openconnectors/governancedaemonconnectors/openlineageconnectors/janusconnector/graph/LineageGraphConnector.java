@@ -31,6 +31,10 @@ import org.slf4j.LoggerFactory;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -54,6 +58,8 @@ import static org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__.unfold
 import static org.odpi.openmetadata.openconnectors.governancedaemonconnectors.openlineageconnectors.janusconnector.graph.LineageGraphTransactionManager.commit;
 import static org.odpi.openmetadata.openconnectors.governancedaemonconnectors.openlineageconnectors.janusconnector.model.JanusConnectorErrorCode.GRAPH_DISCONNECT_ERROR;
 import static org.odpi.openmetadata.openconnectors.governancedaemonconnectors.openlineageconnectors.janusconnector.model.JanusConnectorErrorCode.GRAPH_TRAVERSAL_EMPTY;
+import static org.odpi.openmetadata.openconnectors.governancedaemonconnectors.openlineageconnectors.janusconnector.model.JanusConnectorErrorCode.LINEAGE_GRAPH_JOB_BATCH_ERROR;
+import static org.odpi.openmetadata.openconnectors.governancedaemonconnectors.openlineageconnectors.janusconnector.model.JanusConnectorErrorCode.LINEAGE_GRAPH_JOB_COMPLETED;
 import static org.odpi.openmetadata.openconnectors.governancedaemonconnectors.openlineageconnectors.janusconnector.model.JanusConnectorErrorCode.PROCESS_MAPPING_ERROR;
 import static org.odpi.openmetadata.openconnectors.governancedaemonconnectors.openlineageconnectors.janusconnector.utils.Constants.ASSET_SCHEMA_TYPE;
 import static org.odpi.openmetadata.openconnectors.governancedaemonconnectors.openlineageconnectors.janusconnector.utils.Constants.ATTRIBUTE_FOR_SCHEMA;
@@ -96,10 +102,18 @@ import static org.odpi.openmetadata.openconnectors.governancedaemonconnectors.op
 public class LineageGraphConnector extends LineageGraphConnectorBase {
 
     private static final Logger log = LoggerFactory.getLogger(LineageGraphConnector.class);
+    private static final int DEFAULT_JOB_BATCH_SIZE = 100;
+    private static final int DEFAULT_LINEAGE_CACHE_SIZE = 200;
+    private static final int DEFAULT_LINEAGE_CACHE_REFRESH_SIZE = 0;
+
+    private final LineageGraphChangeTracker changeTracker = new LineageGraphChangeTracker();
+    private final Set<String> lineageJobChanges = new HashSet<>();
+    private LineageResponseCache lineageCache = new LineageResponseCache(0, 0);
     private LineageGraphConnectorHelper helper;
     private GraphTraversalSource g;
     private GraphFactory graphFactory;
     private AuditLog auditLog;
+    private int jobBatchSize = DEFAULT_JOB_BATCH_SIZE;
 
     /**
      * Instantiates the graph based on the configuration passed.
@@ -123,6 +137,10 @@ public class LineageGraphConnector extends LineageGraphConnectorBase {
             }
 
             this.helper = new LineageGraphConnectorHelper(g, graphFactory.isSupportingTransactions());
+            this.jobBatchSize = getConfigurationProperty(LineageGraphConnectorProvider.LINEAGE_GRAPH_JOB_BATCH_SIZE, DEFAULT_JOB_BATCH_SIZE, 1);
+            this.lineageCache = new LineageResponseCache(
+                    getConfigurationProperty(LineageGraphConnectorProvider.LINEAGE_CACHE_SIZE, DEFAULT_LINEAGE_CACHE_SIZE, 0),
+                    getConfigurationProperty(LineageGraphConnectorProvider.LINEAGE_CACHE_REFRESH_SIZE, DEFAULT_LINEAGE_CACHE_REFRESH_SIZE, 0));
 
         } catch (JanusConnectorException error) {
             log.error("The Lineage graph could not be initialized due to an error", error);
@@ -148,31 +166,153 @@ public class LineageGraphConnector extends LineageGraphConnectorBase {
 
     }
 
+    /**
+     * Recomputes the column lineage of the processes affected by the changes made to the graph since the last run.
+     * The first run after start up recomputes every process. The processes are recomputed in batches of
+     * {@value #DEFAULT_JOB_BATCH_SIZE} (configurable with {@link LineageGraphConnectorProvider#LINEAGE_GRAPH_JOB_BATCH_SIZE}),
+     * each one committed as a single transaction. The changes behind a batch that fails are kept for the next run.
+     * Afterwards, the most recently used lineage queries whose cached responses were invalidated are run again.
+     */
     @Override
     public void performLineageGraphJob() {
+        recomputeChangedProcesses();
+        refreshLineageCache();
+    }
+
+    private void recomputeChangedProcesses() {
+        final String methodName = "performLineageGraphJob";
+        long startTime = System.currentTimeMillis();
+
+        boolean fullRecompute = changeTracker.takeFullRecomputeRequest();
+        Set<String> changedGuids = changeTracker.takeChanges();
+        List<String> processGuids;
         try {
             //TODO investigate possibility of adding the PROPERTY_KEY_PROCESS_LINEAGE_COMPLETED_FLAG again
-            List<Vertex> vertices = g.V().has(PROPERTY_KEY_LABEL, PROCESS).toList();
+            processGuids = fullRecompute ? findAllProcesses() : changeTracker.findAffectedProcesses(g, changedGuids, jobBatchSize);
+            commitJobTransaction();
+        } catch (Exception e) {
+            log.error("Something went wrong when trying to find the processes to map. The error is: ", e);
+            auditLog.logException("Something went wrong when trying to map a process.", PROCESS_MAPPING_ERROR.getMessageDefinition(), e);
+            rollbackJobTransaction();
+            if (fullRecompute) {
+                changeTracker.requestFullRecompute();
+            }
+            changeTracker.markChanged(changedGuids);
+            return;
+        }
 
-            List<String> guidList = vertices.stream()
-                    .map(v -> g.V(v.id()).elementMap(PROPERTY_KEY_ENTITY_GUID).toList().get(0).get(PROPERTY_KEY_ENTITY_GUID).toString())
-                    .collect(Collectors.toList());
+        if (processGuids.isEmpty()) {
+            return;
+        }
 
-            guidList.forEach(
-                    guid -> findInputColumns(g, guid)
-            );
-            if (graphFactory.isSupportingTransactions()) {
-                g.tx().commit();
+        int batchCount = 0;
+        int failedBatchCount = 0;
+        int processCount = 0;
+        for (int batchStart = 0; batchStart < processGuids.size(); batchStart += jobBatchSize) {
+            List<String> batch = processGuids.subList(batchStart, Math.min(batchStart + jobBatchSize, processGuids.size()));
+            batchCount++;
+            try {
+                batch.forEach(guid -> findInputColumns(g, guid));
+                commitJobTransaction();
+                processCount += batch.size();
+            } catch (Exception e) {
+                log.error("Something went wrong when trying to map a batch of processes. The error is: ", e);
+                auditLog.logException(methodName, LINEAGE_GRAPH_JOB_BATCH_ERROR.getMessageDefinition(String.valueOf(batch.size())), e);
+                rollbackJobTransaction();
+                changeTracker.markChanged(batch);
+                failedBatchCount++;
+            } finally {
+                lineageCache.invalidate(lineageJobChanges);
+                lineageJobChanges.clear();
             }
-        } catch (Exception e) {
-            log.error("Something went wrong when trying to map a process. The error is: ", e);
-            auditLog.logException("Something went wrong when trying to map a process.", PROCESS_MAPPING_ERROR.getMessageDefinition(), e);
-            if (graphFactory.isSupportingTransactions()) {
-                g.tx().rollback();
+        }
+
+        long duration = System.currentTimeMillis() - startTime;
+        long throughput = processCount * 1000L / Math.max(duration, 1L);
+        auditLog.logMessage(methodName, LINEAGE_GRAPH_JOB_COMPLETED.getMessageDefinition(String.valueOf(processCount),
+                String.valueOf(batchCount), String.valueOf(duration), String.valueOf(throughput),
+                String.valueOf(changedGuids.size()), String.valueOf(failedBatchCount)));
+    }
+
+    /**
+     * Returns the guids of all the processes in the graph.
+     *
+     * @return the guids of the processes
+     */
+    private List<String> findAllProcesses() {
+        return g.V().has(PROPERTY_KEY_LABEL, PROCESS).values(PROPERTY_KEY_ENTITY_GUID).dedup()
+                .toList().stream().map(Object::toString).collect(Collectors.toList());
+    }
+
+    private void commitJobTransaction() {
+        if (graphFactory.isSupportingTransactions()) {
+            g.tx().commit();
+        }
+    }
+
+    private void rollbackJobTransaction() {
+        if (graphFactory.isSupportingTransactions()) {
+            g.tx().rollback();
+        }
+    }
+
+    /**
+     * Runs again the most recently used lineage queries whose cached responses were invalidated, so that they are
+     * answered from the cache the next time they are requested.
+     */
+    private void refreshLineageCache() {
+        for (LineageResponseCache.Query query : lineageCache.takeQueriesToRefresh()) {
+            try {
+                lineage(query.getScope(), query.getGuid(), query.getDisplayNameMustContain(), query.isIncludeProcesses());
+            } catch (Exception e) {
+                log.debug("Unable to refresh the cached lineage of guid {}", query.getGuid(), e);
             }
         }
     }
 
+    /**
+     * Returns the value of a numeric configuration property.
+     *
+     * @param propertyName - the name of the configuration property
+     * @param defaultValue - the value to use if the property is missing or invalid
+     * @param minimumValue - the smallest valid value
+     *
+     * @return the configured value, or the default if it is missing, not a number or below the minimum
+     */
+    private int getConfigurationProperty(String propertyName, int defaultValue, int minimumValue) {
+        Map<String, Object> configurationProperties = connectionProperties.getConfigurationProperties();
+        if (configurationProperties == null || configurationProperties.get(propertyName) == null) {
+            return defaultValue;
+        }
+        try {
+            int value = Integer.parseInt(configurationProperties.get(propertyName).toString());
+            return value >= minimumValue ? value : defaultValue;
+        } catch (NumberFormatException e) {
+            log.warn("The value of {} is not a number, using the default of {}", propertyName, defaultValue);
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Records that a vertex was changed by a lineage event, for the lineage graph job and the lineage cache.
+     *
+     * @param guid - the unique identifier of the vertex
+     */
+    private void recordChange(String guid) {
+        changeTracker.markChanged(guid);
+        lineageCache.invalidate(Collections.singleton(guid));
+    }
+
+    /**
+     * Records that a group of vertices were changed by a lineage event, for the lineage graph job and the lineage cache.
+     *
+     * @param guids - the unique identifiers of the vertices
+     */
+    private void recordChanges(Collection<String> guids) {
+        changeTracker.markChanged(guids);
+        lineageCache.invalidate(guids);
+    }
+
     @Override
     public void saveAssetLineageUpdateTime(Long lastUpdateTime) {
         g.getGraph().variables().set(VARIABLE_NAME_ASSET_LINEAGE_LAST_UPDATE_TIME, lastUpdateTime);
@@ -200,10 +340,6 @@ public class LineageGraphConnector extends LineageGraphConnectorBase {
                 .or(__.in(ATTRIBUTE_FOR_SCHEMA).in(ASSET_SCHEMA_TYPE).has(PROPERTY_KEY_LABEL, P.within(DATA_FILE_AND_SUBTYPES)),
                         __.in(NESTED_SCHEMA_ATTRIBUTE).has(PROPERTY_KEY_LABEL, RELATIONAL_TABLE)).toList();
 
-        if (graphFactory.isSupportingTransactions()) {
-            g.tx().commit();
-        }
-
         Vertex process = g.V().has(PROPERTY_KEY_ENTITY_GUID, guid).next();
         inputPathsForColumns.forEach(columnIn -> findOutputColumns(g, columnIn, process));
     }
@@ -221,10 +357,6 @@ public class LineageGraphConnector extends LineageGraphConnectorBase {
                 .out(LINEAGE_MAPPING)
                 .toList();
 
-        if (graphFactory.isSupportingTransactions()) {
-            g.tx().commit();
-        }
-
         Vertex vertexToStart;
         if (schemaElementVertices != null) {
             List<Vertex> columnOutList = new ArrayList<>();
@@ -258,10 +390,6 @@ public class LineageGraphConnector extends LineageGraphConnectorBase {
                 .has(PROPERTY_KEY_ENTITY_GUID,
                         g.V(process.id()).elementMap(PROPERTY_KEY_ENTITY_GUID).toList().get(0).get(PROPERTY_KEY_ENTITY_GUID)).toList();
 
-        if (graphFactory.isSupportingTransactions()) {
-            g.tx().commit();
-        }
-
         if (!initialProcess.isEmpty()) {
             return schemaElementVertex;
         }
@@ -292,6 +420,9 @@ public class LineageGraphConnector extends LineageGraphConnectorBase {
         final String processGuid = getGuid(process);
         final String columnInGuid = getGuid(columnIn);
         final String columnOutGuid = getGuid(columnOut);
+        lineageJobChanges.add(columnInGuid);
+        lineageJobChanges.add(columnOutGuid);
+        lineageJobChanges.add(processGuid);
         final String processName =
                 g.V(process.id()).elementMap(PROPERTY_KEY_INSTANCEPROP_DISPLAY_NAME).toList().get(0).get(PROPERTY_KEY_INSTANCEPROP_DISPLAY_NAME).toString();
 
@@ -312,10 +443,6 @@ public class LineageGraphConnector extends LineageGraphConnectorBase {
             g.V(subProcess.id()).addE(EDGE_LABEL_COLUMN_DATA_FLOW).to(g.V(columnOut.id())).next();
             g.V(subProcess.id()).addE(EDGE_LABEL_INCLUDED_IN).to(g.V(process.id())).next();
 
-            if (graphFactory.isSupportingTransactions()) {
-                g.tx().commit();
-            }
-
             addAssetToProcessEdges(columnIn, columnOut, process);
 
             log.info("OLS has added the corresponding subProcess node and edges for input column {}, output column {} and process {} ",
@@ -336,6 +463,7 @@ public class LineageGraphConnector extends LineageGraphConnectorBase {
             Iterator<Vertex> tableVertex = g.V(assetIn.get().id()).outE(EDGE_LABEL_TABLE_DATA_FLOW).inV().hasId(process.id());
             if (!tableVertex.hasNext()) {
                 g.V(assetIn.get().id()).addE(EDGE_LABEL_TABLE_DATA_FLOW).to(g.V(process.id())).next();
+                lineageJobChanges.add(getGuid(assetIn.get()));
             }
         }
 
@@ -344,12 +472,9 @@ public class LineageGraphConnector extends LineageGraphConnectorBase {
             Iterator<Vertex> tableVertex = g.V(assetOut.get().id()).inE(EDGE_LABEL_TABLE_DATA_FLOW).outV().hasId(process.id());
             if (!tableVertex.hasNext()) {
                 g.V(process.id()).addE(EDGE_LABEL_TABLE_DATA_FLOW).to(g.V(assetOut.get().id())).next();
+                lineageJobChanges.add(getGuid(assetOut.get()));
             }
         }
-
-        if (graphFactory.isSupportingTransactions()) {
-            g.tx().commit();
-        }
     }
 
     /**
@@ -439,6 +564,8 @@ public class LineageGraphConnector extends LineageGraphConnectorBase {
         if (obsoleteNeighbours.isEmpty()) {
             return;
         }
+        recordChange(entityGUID);
+        recordChanges(obsoleteNeighbours);
         Iterator<Edge> existingEdges = g.V().has(PROPERTY_KEY_ENTITY_GUID, entityGUID).bothE();
         while (existingEdges.hasNext()) {
             Edge edge = existingEdges.next();
@@ -485,6 +612,9 @@ public class LineageGraphConnector extends LineageGraphConnectorBase {
         commit(graphFactory, g, addOrUpdatePropertiesVertexConsumer, to, toEntity,
                 "Unable to add properties on vertex from entity with type " + toEntity.getTypeDefName() +
                         "and guid " + toEntity.getGuid());
+
+        recordChange(fromEntity.getGuid());
+        recordChange(toEntity.getGuid());
     }
 
     /**
@@ -542,6 +672,7 @@ public class LineageGraphConnector extends LineageGraphConnectorBase {
             if (graphFactory.isSupportingTransactions()) {
                 g.tx().commit();
             }
+            recordChange(lineageEntity.getGuid());
         } catch (Exception e) {
             log.error("An exception happened during update of the properties with exception: ", e);
             if (graphFactory.isSupportingTransactions()) {
@@ -592,6 +723,8 @@ public class LineageGraphConnector extends LineageGraphConnectorBase {
             if (graphFactory.isSupportingTransactions()) {
                 g.tx().commit();
             }
+            recordChange(lineageRelationship.getSourceEntity().getGuid());
+            recordChange(lineageRelationship.getTargetEntity().getGuid());
         } catch (Exception e) {
             log.debug("An exception happened during update of the properties with error:", e);
             if (graphFactory.isSupportingTransactions()) {
@@ -626,6 +759,7 @@ public class LineageGraphConnector extends LineageGraphConnectorBase {
                 if (graphFactory.isSupportingTransactions()) {
                     g.tx().commit();
                 }
+                lineageCache.invalidate(Arrays.asList(graphContext.getFromVertex().getGuid(), classificationGuid));
                 break;
             }
         }
@@ -657,6 +791,7 @@ public class LineageGraphConnector extends LineageGraphConnectorBase {
                         if (graphFactory.isSupportingTransactions()) {
                             g.tx().commit();
                         }
+                        lineageCache.invalidate(Arrays.asList(context.getFromVertex().getGuid(), storedClassificationGuid));
                         break;
                     } catch (Exception e) {
                         log.debug("An exception happened during delete of classifications with error:", e);
@@ -683,10 +818,13 @@ public class LineageGraphConnector extends LineageGraphConnectorBase {
             return;
         }
 
+        List<Object> neighbourGuids = g.V().has(PROPERTY_KEY_ENTITY_GUID, guid).both().values(PROPERTY_KEY_ENTITY_GUID).toList();
         g.V().has(PROPERTY_KEY_ENTITY_GUID, guid).drop();
         if (graphFactory.isSupportingTransactions()) {
             g.tx().commit();
         }
+        recordChange(guid);
+        neighbourGuids.forEach(neighbourGuid -> recordChange(neighbourGuid.toString()));
         log.debug("Vertex with guid {} deleted", guid);
     }
 
@@ -701,10 +839,13 @@ public class LineageGraphConnector extends LineageGraphConnectorBase {
             return;
         }
 
-        g.E(edge.next().id()).drop();
+        Object edgeId = edge.next().id();
+        List<Object> endGuids = g.E(edgeId).bothV().values(PROPERTY_KEY_ENTITY_GUID).toList();
+        g.E(edgeId).drop();
         if (graphFactory.isSupportingTransactions()) {
             g.tx().commit();
         }
+        endGuids.forEach(endGuid -> recordChange(endGuid.toString()));
         log.debug("Edge with guid {} deleted", guid);
     }
 
@@ -774,18 +915,12 @@ public class LineageGraphConnector extends LineageGraphConnectorBase {
                 }
 
             }
-            if (graphFactory.isSupportingTransactions()) {
-                g.tx().commit();
-            }
             return endVertices;
         } catch (Exception e) {
             if (log.isDebugEnabled()) {
                 log.debug("Vertex does not exist with guid {} and display name {}", startingVertex.id(),
                         startingVertex.property(PROPERTY_KEY_DISPLAY_NAME).value());
             }
-            if (graphFactory.isSupportingTransactions()) {
-                g.tx().rollback();
-            }
             return null;
         }
     }
@@ -810,35 +945,47 @@ public class LineageGraphConnector extends LineageGraphConnectorBase {
      * {@inheritDoc}
      */
     public LineageResponse lineage(Scope scope, String guid, String displayNameMustContain, boolean includeProcesses) {
+        LineageResponseCache.Query query = new LineageResponseCache.Query(scope, guid, displayNameMustContain, includeProcesses);
+        LineageResponse cachedResponse = lineageCache.get(query);
+        if (cachedResponse != null) {
+            return cachedResponse;
+        }
+        long cacheGeneration = lineageCache.getGeneration();
+
         GraphTraversal<Vertex, Vertex> vertexGraphTraversal = g.V().has(PROPERTY_KEY_ENTITY_GUID, guid);
         if (!vertexGraphTraversal.hasNext()) {
             return new LineageResponse();
         }
 
-        Optional<LineageVerticesAndEdges> lineageVerticesAndEdges = Optional.empty();
+        Set<String> readGuids = new HashSet<>();
+        readGuids.add(guid);
+        Optional<LineageVerticesAndEdges> lineageVerticesAndEdges =
+                helper.collectReadVertices(readGuids, () -> queryLineage(scope, guid, includeProcesses));
+
+        if (lineageVerticesAndEdges.isPresent() && !displayNameMustContain.isEmpty()) {
+            helper.filterDisplayName(lineageVerticesAndEdges.get(), displayNameMustContain);
+        }
+
+        LineageResponse lineageResponse = new LineageResponse(lineageVerticesAndEdges.orElse(null));
+        lineageCache.put(query, readGuids, lineageResponse, cacheGeneration);
+        return lineageResponse;
+    }
 
+    private Optional<LineageVerticesAndEdges> queryLineage(Scope scope, String guid, boolean includeProcesses) {
         switch (scope) {
             case SOURCE_AND_DESTINATION:
-                lineageVerticesAndEdges = helper.sourceAndDestination(guid, includeProcesses);
-                break;
+                return helper.sourceAndDestination(guid, includeProcesses);
             case END_TO_END:
-                lineageVerticesAndEdges = helper.endToEnd(guid, includeProcesses);
-                break;
+                return helper.endToEnd(guid, includeProcesses);
             case ULTIMATE_SOURCE:
-                lineageVerticesAndEdges = helper.ultimateSource(guid, includeProcesses);
-                break;
+                return helper.ultimateSource(guid, includeProcesses);
             case ULTIMATE_DESTINATION:
-                lineageVerticesAndEdges = helper.ultimateDestination(guid, includeProcesses);
-                break;
+                return helper.ultimateDestination(guid, includeProcesses);
             case VERTICAL:
-                lineageVerticesAndEdges = helper.verticalLineage(guid);
-                break;
-        }
-        if (lineageVerticesAndEdges.isPresent() && !displayNameMustContain.isEmpty()) {
-            helper.filterDisplayName(lineageVerticesAndEdges.get(), displayNameMustContain);
+                return helper.verticalLineage(guid);
+            default:
+                return Optional.empty();
         }
-
-        return new LineageResponse(lineageVerticesAndEdges.orElse(null));
     }
 
     /**
@@ -30,6 +30,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -121,12 +122,44 @@ public class LineageGraphConnectorHelper {
             EDGE_LABEL_CLASSIFICATION, EDGE_LABEL_TERM_CATEGORIZATION};
     private final String[] relationalColumnAndClassificationEdges = {NESTED_SCHEMA_ATTRIBUTE, EDGE_LABEL_CLASSIFICATION, EDGE_LABEL_SEMANTIC_ASSIGNMENT};
     private final String[] tabularColumnAndClassificationEdges = {ATTRIBUTE_FOR_SCHEMA, EDGE_LABEL_CLASSIFICATION, EDGE_LABEL_SEMANTIC_ASSIGNMENT};
+    private final ThreadLocal<Set<String>> readVertexGuids = new ThreadLocal<>();
 
     public LineageGraphConnectorHelper(GraphTraversalSource graphTraversalSource, boolean supportingTransactions) {
         this.g = graphTraversalSource;
         this.supportingTransactions = supportingTransactions;
     }
 
+    /**
+     * Runs a lineage query and collects the guids of the vertices read while computing its response. This includes the
+     * vertices of the traversed subgraphs, even if they are condensed out of the response, and the vertices the
+     * additional properties of the returned vertices are taken from.
+     *
+     * @param guids set that receives the guids of the vertices read
+     * @param query lineage query to run on the calling thread
+     *
+     * @return the result of the query
+     */
+    public <T> T collectReadVertices(Set<String> guids, Supplier<T> query) {
+        readVertexGuids.set(guids);
+        try {
+            return query.get();
+        } finally {
+            readVertexGuids.remove();
+        }
+    }
+
+    private void recordReadVertex(Vertex vertex) {
+        Set<String> guids = readVertexGuids.get();
+        if (guids == null) {
+            return;
+        }
+        if (vertex.property(PROPERTY_KEY_ENTITY_GUID).isPresent()) {
+            guids.add(vertex.property(PROPERTY_KEY_ENTITY_GUID).value().toString());
+        } else if (vertex.property(PROPERTY_KEY_PROCESS_GUID).isPresent()) {
+            guids.add(vertex.property(PROPERTY_KEY_PROCESS_GUID).value().toString());
+        }
+    }
+
     /**
      * Returns the ultimate source graph of queried entity, which can be a column or a table. In case of tables,
      * relationships of type LineageMapping will be traversed backwards, all the way to the source. If no vertices are
@@ -586,6 +619,7 @@ public class LineageGraphConnectorHelper {
      * @return The vertex in the Open Lineage format.
      */
     private LineageVertex abstractVertex(Vertex originalVertex) {
+        recordReadVertex(originalVertex);
         String nodeType = originalVertex.label();
         String nodeID = getNodeID(originalVertex);
         LineageVertex lineageVertex = new LineageVertex(nodeID, nodeType);
@@ -920,6 +954,7 @@ public class LineageGraphConnectorHelper {
     }
 
     private String getFoldersPath(List<Vertex> folderVertices) {
+        folderVertices.forEach(this::recordReadVertex);
         Collections.reverse(folderVertices);
         return folderVertices.stream().map(folderVertex -> folderVertex.property(PROPERTY_KEY_INSTANCEPROP_DISPLAY_NAME).value().toString())
                 .collect(Collectors.joining("/"));
@@ -963,6 +998,7 @@ public class LineageGraphConnectorHelper {
     }
 
     private String getDisplayNameForVertex(Vertex vertex) {
+        recordReadVertex(vertex);
         if (vertex.property(PROPERTY_KEY_INSTANCEPROP_DISPLAY_NAME).isPresent()) {
             return vertex.property(PROPERTY_KEY_INSTANCEPROP_DISPLAY_NAME).value().toString();
         } else if (vertex.property(PROPERTY_NAME_INSTANCEPROP_QUALIFIED_NAME).isPresent()) {
@@ -1028,7 +1064,9 @@ public class LineageGraphConnectorHelper {
         Iterator<Vertex> transformationProject = g.V(vertexId).emit().repeat(bothE().otherV().simplePath()).times(1).or(hasLabel(COLLECTION));
         commitTransaction();
         if (transformationProject.hasNext()) {
-            properties.put(TRANSFORMATION_PROJECT_KEY, transformationProject.next().property(PROPERTY_KEY_INSTANCEPROP_DISPLAY_NAME).value().toString());
+            Vertex transformationProjectVertex = transformationProject.next();
+            recordReadVertex(transformationProjectVertex);
+            properties.put(TRANSFORMATION_PROJECT_KEY, transformationProjectVertex.property(PROPERTY_KEY_INSTANCEPROP_DISPLAY_NAME).value().toString());
         }
         return properties;
     }
@@ -1038,7 +1076,9 @@ public class LineageGraphConnectorHelper {
         Iterator<Vertex> tableAsset = g.V(vertexId).emit().repeat(bothE().otherV().simplePath()).times(1).or(hasLabel(GLOSSARY));
         commitTransaction();
         if (tableAsset.hasNext()) {
-            properties.put(GLOSSARY_KEY, tableAsset.next().property(PROPERTY_KEY_INSTANCEPROP_DISPLAY_NAME).value().toString());
+            Vertex glossaryVertex = tableAsset.next();
+            recordReadVertex(glossaryVertex);
+            properties.put(GLOSSARY_KEY, glossaryVertex.property(PROPERTY_KEY_INSTANCEPROP_DISPLAY_NAME).value().toString());
         }
         return properties;
     }
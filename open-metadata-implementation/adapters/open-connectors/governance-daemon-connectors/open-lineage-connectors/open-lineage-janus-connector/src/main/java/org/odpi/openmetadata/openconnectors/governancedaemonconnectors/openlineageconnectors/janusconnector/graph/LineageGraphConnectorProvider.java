@@ -11,6 +11,10 @@ public class LineageGraphConnectorProvider extends LineageGraphProviderBase {
     static final String CONNECTOR_TYPE_NAME = "Janus Graph Connector";
     static final String CONNECTOR_TYPE_DESCRIPTION = "Connector supports storing and retrieving entities for lineage from Janus Graph.";
 
+    public static final String LINEAGE_GRAPH_JOB_BATCH_SIZE = "lineageGraphJob.batchSize";
+    public static final String LINEAGE_CACHE_SIZE = "lineageCache.size";
+    public static final String LINEAGE_CACHE_REFRESH_SIZE = "lineageCache.refreshSize";
+
     /**
      * Constructor used to initialize the ConnectorProviderBase with the Java class name of the specific
      * registry store implementation.
@@ -0,0 +1,260 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.openconnectors.governancedaemonconnectors.openlineageconnectors.janusconnector.graph;
+
+import org.odpi.openmetadata.governanceservers.openlineage.model.Scope;
+import org.odpi.openmetadata.governanceservers.openlineage.responses.LineageResponse;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Keeps the responses of recent lineage queries, so that the subgraph traversals are not repeated when the same
+ * asset is queried again. Each response is stored with the guids of the vertices it was computed from, and is removed
+ * as soon as one of these vertices is changed. The least recently used response is removed when the cache is full.
+ * <p>
+ * A response computed while one of its vertices was being changed may already be out of date, so it is only stored if
+ * none of its vertices were invalidated after the query started. The invalidations are remembered for the most
+ * recently changed vertices only; a query that started before the oldest of these is not stored.
+ * <p>
+ * The cache also remembers the most recently used queries whose responses were invalidated, so that they can be
+ * computed again once the graph has been updated.
+ */
+public class LineageResponseCache {
+
+    private static final int MAX_RECENT_INVALIDATIONS = 4096;
+
+    private final int maxResponses;
+    private final int maxQueriesToRefresh;
+
+    private final Map<Query, CachedResponse> responses;
+    private final Map<String, Set<Query>> queriesByGuid = new HashMap<>();
+    private final Map<String, Long> recentInvalidations;
+    private final Map<Query, Boolean> queriesToRefresh;
+    private long generation = 0;
+    private long oldestRememberedGeneration = 0;
+
+    /**
+     * Constructor sets the size limits of the cache.
+     *
+     * @param maxResponses        - the maximum number of responses to keep, zero means responses are not cached
+     * @param maxQueriesToRefresh - the maximum number of invalidated queries to remember for refreshing, zero means none
+     */
+    public LineageResponseCache(int maxResponses, int maxQueriesToRefresh) {
+        this.maxResponses = maxResponses;
+        this.maxQueriesToRefresh = maxQueriesToRefresh;
+        this.responses = new LinkedHashMap<Query, CachedResponse>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Query, CachedResponse> eldest) {
+                if (size() > LineageResponseCache.this.maxResponses) {
+                    removeFromGuidIndex(eldest.getKey(), eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+        this.recentInvalidations = new LinkedHashMap<String, Long>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                if (size() > MAX_RECENT_INVALIDATIONS) {
+                    oldestRememberedGeneration = eldest.getValue();
+                    return true;
+                }
+                return false;
+            }
+        };
+        this.queriesToRefresh = new LinkedHashMap<Query, Boolean>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Query, Boolean> eldest) {
+                return size() > LineageResponseCache.this.maxQueriesToRefresh;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached response for a query.
+     *
+     * @param query - the lineage query
+     *
+     * @return the response, or null if it is not cached
+     */
+    public synchronized LineageResponse get(Query query) {
+        CachedResponse cachedResponse = responses.get(query);
+        return cachedResponse == null ? null : cachedResponse.response;
+    }
+
+    /**
+     * Returns the current generation of the cache. It must be read before the query is run and passed to
+     * {@link #put(Query, Set, LineageResponse, long)}.
+     *
+     * @return the generation
+     */
+    public synchronized long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Stores the response to a query, unless one of the vertices it was computed from has changed since the query started.
+     *
+     * @param query           - the lineage query
+     * @param guids           - the guids of the vertices the response was computed from
+     * @param response        - the response to the query
+     * @param queryGeneration - the generation of the cache when the query started
+     */
+    public synchronized void put(Query query, Set<String> guids, LineageResponse response, long queryGeneration) {
+        if (maxResponses <= 0 || isInvalidatedSince(guids, queryGeneration)) {
+            return;
+        }
+
+        CachedResponse previous = responses.remove(query);
+        if (previous != null) {
+            removeFromGuidIndex(query, previous);
+        }
+
+        responses.put(query, new CachedResponse(response, guids));
+        guids.forEach(guid -> queriesByGuid.computeIfAbsent(guid, key -> new HashSet<>()).add(query));
+        queriesToRefresh.remove(query);
+    }
+
+    /**
+     * Removes the responses computed from any of the given vertices.
+     *
+     * @param guids - the guids of the changed vertices
+     */
+    public synchronized void invalidate(Collection<String> guids) {
+        if (guids == null || guids.isEmpty()) {
+            return;
+        }
+
+        generation++;
+        for (String guid : guids) {
+            recentInvalidations.remove(guid);
+            recentInvalidations.put(guid, generation);
+
+            Set<Query> queries = queriesByGuid.remove(guid);
+            if (queries == null) {
+                continue;
+            }
+            for (Query query : queries) {
+                CachedResponse cachedResponse = responses.remove(query);
+                if (cachedResponse != null) {
+                    removeFromGuidIndex(query, cachedResponse);
+                    if (maxQueriesToRefresh > 0) {
+                        queriesToRefresh.put(query, Boolean.TRUE);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes and returns the most recently used queries whose responses were invalidated, most recent first.
+     *
+     * @return the queries to run again
+     */
+    public synchronized List<Query> takeQueriesToRefresh() {
+        List<Query> queries = new ArrayList<>(queriesToRefresh.keySet());
+        queriesToRefresh.clear();
+        Collections.reverse(queries);
+        return queries;
+    }
+
+    private boolean isInvalidatedSince(Set<String> guids, long queryGeneration) {
+        if (queryGeneration == generation) {
+            return false;
+        }
+        if (queryGeneration < oldestRememberedGeneration) {
+            return true;
+        }
+        for (String guid : guids) {
+            Long invalidatedGeneration = recentInvalidations.get(guid);
+            if (invalidatedGeneration != null && invalidatedGeneration > queryGeneration) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void removeFromGuidIndex(Query query, CachedResponse cachedResponse) {
+        for (String guid : cachedResponse.guids) {
+            Set<Query> queries = queriesByGuid.get(guid);
+            if (queries != null) {
+                queries.remove(query);
+                if (queries.isEmpty()) {
+                    queriesByGuid.remove(guid);
+                }
+            }
+        }
+    }
+
+    /**
+     * The parameters of a lineage query.
+     */
+    public static class Query {
+
+        private final Scope scope;
+        private final String guid;
+        private final String displayNameMustContain;
+        private final boolean includeProcesses;
+
+        public Query(Scope scope, String guid, String displayNameMustContain, boolean includeProcesses) {
+            this.scope = scope;
+            this.guid = guid;
+            this.displayNameMustContain = displayNameMustContain;
+            this.includeProcesses = includeProcesses;
+        }
+
+        public Scope getScope() {
+            return scope;
+        }
+
+        public String getGuid() {
+            return guid;
+        }
+
+        public String getDisplayNameMustContain() {
+            return displayNameMustContain;
+        }
+
+        public boolean isIncludeProcesses() {
+            return includeProcesses;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Query query = (Query) o;
+            return includeProcesses == query.includeProcesses && scope == query.scope && Objects.equals(guid, query.guid) &&
+                    Objects.equals(displayNameMustContain, query.displayNameMustContain);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(scope, guid, displayNameMustContain, includeProcesses);
+        }
+    }
+
+    private static class CachedResponse {
+
+        private final LineageResponse response;
+        private final Set<String> guids;
+
+        private CachedResponse(LineageResponse response, Set<String> guids) {
+            this.response = response;
+            this.guids = guids;
+        }
+    }
+}
@@ -54,7 +54,18 @@ public enum JanusConnectorErrorCode implements AuditLogMessageSet {
             OMRSAuditLogRecordSeverity.INFO,
             "There is already an index with this name in the open metadata repository",
             "The system is unable to create an index with the name because it already exists.",
-            "Correct the index name.");
+            "Correct the index name."),
+    LINEAGE_GRAPH_JOB_COMPLETED( "OPEN-LINEAGE-SERVICES-021",
+            OMRSAuditLogRecordSeverity.INFO,
+            "The lineage graph job recomputed {0} processes in {1} batches and {2} milliseconds ({3} processes per second) " +
+                    "after changes to {4} vertices; {5} batches failed",
+            "The system has recomputed the column lineage of the processes that changed since the last run of the job.",
+            "No action is required unless batches failed. The processes of a failed batch are retried on the next run."),
+    LINEAGE_GRAPH_JOB_BATCH_ERROR( "OPEN-LINEAGE-SERVICES-022",
+            OMRSAuditLogRecordSeverity.EXCEPTION,
+            "The lineage graph job was unable to recompute a batch of {0} processes",
+            "The system has rolled back the changes made for the batch and will retry its processes on the next run.",
+            "Check the data of the processes in the batch and the state of the graph database.");
 
 
     private static final Logger log = LoggerFactory.getLogger(JanusConnectorErrorCode.class);
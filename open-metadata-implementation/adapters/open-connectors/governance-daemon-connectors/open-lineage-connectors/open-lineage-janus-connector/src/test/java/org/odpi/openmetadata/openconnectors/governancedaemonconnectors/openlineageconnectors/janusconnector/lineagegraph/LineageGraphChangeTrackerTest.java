@@ -0,0 +1,138 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.openconnectors.governancedaemonconnectors.openlineageconnectors.janusconnector.lineagegraph;
+
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.janusgraph.core.JanusGraphFactory;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.odpi.openmetadata.openconnectors.governancedaemonconnectors.openlineageconnectors.janusconnector.graph.LineageGraphChangeTracker;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.odpi.openmetadata.openconnectors.governancedaemonconnectors.openlineageconnectors.janusconnector.utils.Constants.ASSET_SCHEMA_TYPE;
+import static org.odpi.openmetadata.openconnectors.governancedaemonconnectors.openlineageconnectors.janusconnector.utils.Constants.ATTRIBUTE_FOR_SCHEMA;
+import static org.odpi.openmetadata.openconnectors.governancedaemonconnectors.openlineageconnectors.janusconnector.utils.Constants.LINEAGE_MAPPING;
+import static org.odpi.openmetadata.openconnectors.governancedaemonconnectors.openlineageconnectors.janusconnector.utils.Constants.PORT_DELEGATION;
+import static org.odpi.openmetadata.openconnectors.governancedaemonconnectors.openlineageconnectors.janusconnector.utils.Constants.PORT_SCHEMA;
+import static org.odpi.openmetadata.openconnectors.governancedaemonconnectors.openlineageconnectors.janusconnector.utils.Constants.PROCESS;
+import static org.odpi.openmetadata.openconnectors.governancedaemonconnectors.openlineageconnectors.janusconnector.utils.Constants.PROCESS_PORT;
+import static org.odpi.openmetadata.openconnectors.governancedaemonconnectors.openlineageconnectors.janusconnector.utils.Constants.RELATIONAL_TABLE;
+import static org.odpi.openmetadata.openconnectors.governancedaemonconnectors.openlineageconnectors.janusconnector.utils.Constants.TABULAR_COLUMN;
+import static org.odpi.openmetadata.openconnectors.governancedaemonconnectors.openlineageconnectors.janusconnector.utils.Constants.TABULAR_SCHEMA_TYPE;
+import static org.odpi.openmetadata.openconnectors.governancedaemonconnectors.openlineageconnectors.janusconnector.utils.GraphConstants.PROPERTY_KEY_ENTITY_GUID;
+import static org.odpi.openmetadata.openconnectors.governancedaemonconnectors.openlineageconnectors.janusconnector.utils.GraphConstants.PROPERTY_KEY_LABEL;
+
+public class LineageGraphChangeTrackerTest {
+
+    static GraphTraversalSource g;
+
+    @BeforeAll
+    public static void beforeClass() {
+        Graph graph = JanusGraphFactory.build().set("storage.backend", "inmemory").open();
+        g = graph.traversal();
+
+        addProcess("p1", "port1", "schema1", "c1");
+        addProcess("p2", "port2", "schema2", "c2");
+
+        Vertex table = addVertex(RELATIONAL_TABLE, "t1");
+        Vertex tableSchema = addVertex(TABULAR_SCHEMA_TYPE, "ts1");
+        Vertex tableColumn = addVertex(TABULAR_COLUMN, "tc1");
+        g.addE(ASSET_SCHEMA_TYPE).from(table).to(tableSchema).next();
+        g.addE(ATTRIBUTE_FOR_SCHEMA).from(tableSchema).to(tableColumn).next();
+        g.addE(LINEAGE_MAPPING).from(tableColumn).to(g.V().has(PROPERTY_KEY_ENTITY_GUID, "c1").next()).next();
+
+        addVertex(TABULAR_COLUMN, "unrelated");
+    }
+
+    @Test
+    public void changesAreCoalesced() {
+        LineageGraphChangeTracker tracker = new LineageGraphChangeTracker();
+
+        tracker.markChanged("c1");
+        tracker.markChanged("c1");
+        tracker.markChanged(Arrays.asList("c1", "c2"));
+        tracker.markChanged((String) null);
+
+        assertEquals(guids("c1", "c2"), tracker.takeChanges());
+        assertEquals(Collections.emptySet(), tracker.takeChanges());
+
+        tracker.markChanged("c2");
+        assertEquals(guids("c2"), tracker.takeChanges());
+    }
+
+    @Test
+    public void fullRecomputeIsRequestedOnceOnStartAndOnRequest() {
+        LineageGraphChangeTracker tracker = new LineageGraphChangeTracker();
+
+        assertTrue(tracker.takeFullRecomputeRequest());
+        assertFalse(tracker.takeFullRecomputeRequest());
+
+        tracker.requestFullRecompute();
+        tracker.requestFullRecompute();
+        assertTrue(tracker.takeFullRecomputeRequest());
+        assertFalse(tracker.takeFullRecomputeRequest());
+    }
+
+    @Test
+    public void processIsAffectedByChangesToItsPortsSchemaAndColumns() {
+        LineageGraphChangeTracker tracker = new LineageGraphChangeTracker();
+
+        assertEquals(Collections.singletonList("p1"), tracker.findAffectedProcesses(g, guids("p1"), 10));
+        assertEquals(Collections.singletonList("p1"), tracker.findAffectedProcesses(g, guids("port1"), 10));
+        assertEquals(Collections.singletonList("p1"), tracker.findAffectedProcesses(g, guids("port1-delegate"), 10));
+        assertEquals(Collections.singletonList("p1"), tracker.findAffectedProcesses(g, guids("schema1"), 10));
+        assertEquals(Collections.singletonList("p2"), tracker.findAffectedProcesses(g, guids("c2"), 10));
+    }
+
+    @Test
+    public void processIsAffectedByChangesToMappedTablesAndColumns() {
+        LineageGraphChangeTracker tracker = new LineageGraphChangeTracker();
+
+        assertEquals(Collections.singletonList("p1"), tracker.findAffectedProcesses(g, guids("tc1"), 10));
+        assertEquals(Collections.singletonList("p1"), tracker.findAffectedProcesses(g, guids("t1"), 10));
+    }
+
+    @Test
+    public void affectedProcessesAreFoundOnceAcrossChunks() {
+        LineageGraphChangeTracker tracker = new LineageGraphChangeTracker();
+
+        Set<String> affected = new HashSet<>(tracker.findAffectedProcesses(g, guids("c1", "tc1", "c2", "p2", "unrelated"), 1));
+
+        assertEquals(guids("p1", "p2"), affected);
+        assertEquals(2, tracker.findAffectedProcesses(g, guids("c1", "tc1", "c2", "p2"), 2).size());
+        assertTrue(tracker.findAffectedProcesses(g, guids("unrelated", "unknown"), 10).isEmpty());
+    }
+
+    /**
+     * Adds a process with a port that delegates to a port whose schema holds one column.
+     */
+    private static void addProcess(String processGuid, String portGuid, String schemaGuid, String columnGuid) {
+        Vertex process = addVertex(PROCESS, processGuid);
+        Vertex processPort = addVertex("PortAlias", portGuid + "-delegate");
+        Vertex port = addVertex("PortImplementation", portGuid);
+        Vertex schema = addVertex(TABULAR_SCHEMA_TYPE, schemaGuid);
+        Vertex column = addVertex(TABULAR_COLUMN, columnGuid);
+
+        g.addE(PROCESS_PORT).from(process).to(processPort).next();
+        g.addE(PORT_DELEGATION).from(processPort).to(port).next();
+        g.addE(PORT_SCHEMA).from(port).to(schema).next();
+        g.addE(ATTRIBUTE_FOR_SCHEMA).from(schema).to(column).next();
+    }
+
+    private static Vertex addVertex(String label, String guid) {
+        return g.addV(label).property(PROPERTY_KEY_LABEL, label).property(PROPERTY_KEY_ENTITY_GUID, guid).next();
+    }
+
+    private Set<String> guids(String... guids) {
+        return new HashSet<>(Arrays.asList(guids));
+    }
+}
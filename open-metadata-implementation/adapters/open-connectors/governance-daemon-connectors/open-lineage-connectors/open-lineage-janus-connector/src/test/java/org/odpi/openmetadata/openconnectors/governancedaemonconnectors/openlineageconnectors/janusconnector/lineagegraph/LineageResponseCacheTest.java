@@ -0,0 +1,79 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.openconnectors.governancedaemonconnectors.openlineageconnectors.janusconnector.lineagegraph;
+
+import org.junit.jupiter.api.Test;
+import org.odpi.openmetadata.governanceservers.openlineage.model.Scope;
+import org.odpi.openmetadata.governanceservers.openlineage.responses.LineageResponse;
+import org.odpi.openmetadata.openconnectors.governancedaemonconnectors.openlineageconnectors.janusconnector.graph.LineageResponseCache;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class LineageResponseCacheTest {
+
+    @Test
+    public void responseIsRemovedWhenAVertexItWasComputedFromChanges() {
+        LineageResponseCache cache = new LineageResponseCache(10, 10);
+        LineageResponseCache.Query query = new LineageResponseCache.Query(Scope.END_TO_END, "c1", "", true);
+        LineageResponse response = new LineageResponse();
+
+        cache.put(query, guids("c1", "p1", "c2"), response, cache.getGeneration());
+        assertSame(response, cache.get(new LineageResponseCache.Query(Scope.END_TO_END, "c1", "", true)));
+        assertNull(cache.get(new LineageResponseCache.Query(Scope.END_TO_END, "c1", "", false)));
+
+        cache.invalidate(Collections.singleton("t9"));
+        assertSame(response, cache.get(query));
+
+        cache.invalidate(Collections.singleton("c2"));
+        assertNull(cache.get(query));
+        assertEquals(Collections.singletonList(query), cache.takeQueriesToRefresh());
+        assertEquals(Collections.emptyList(), cache.takeQueriesToRefresh());
+    }
+
+    @Test
+    public void responseIsNotStoredIfAVertexChangedDuringTheQuery() {
+        LineageResponseCache cache = new LineageResponseCache(10, 0);
+        LineageResponseCache.Query query = new LineageResponseCache.Query(Scope.ULTIMATE_SOURCE, "c1", "", true);
+
+        long generation = cache.getGeneration();
+        cache.invalidate(Collections.singleton("c2"));
+        cache.put(query, guids("c1", "c2"), new LineageResponse(), generation);
+        assertNull(cache.get(query));
+
+        generation = cache.getGeneration();
+        cache.invalidate(Collections.singleton("t9"));
+        cache.put(query, guids("c1", "c2"), new LineageResponse(), generation);
+        assertNotNull(cache.get(query));
+    }
+
+    @Test
+    public void leastRecentlyUsedResponseIsEvicted() {
+        LineageResponseCache cache = new LineageResponseCache(2, 2);
+        List<LineageResponseCache.Query> queries = Arrays.asList(
+                new LineageResponseCache.Query(Scope.VERTICAL, "g1", "", true),
+                new LineageResponseCache.Query(Scope.VERTICAL, "g2", "", true),
+                new LineageResponseCache.Query(Scope.VERTICAL, "g3", "", true));
+
+        cache.put(queries.get(0), guids("g1"), new LineageResponse(), cache.getGeneration());
+        cache.put(queries.get(1), guids("g2"), new LineageResponse(), cache.getGeneration());
+        cache.get(queries.get(0));
+        cache.put(queries.get(2), guids("g3"), new LineageResponse(), cache.getGeneration());
+
+        assertNull(cache.get(queries.get(1)));
+        cache.invalidate(Arrays.asList("g1", "g2", "g3"));
+        assertEquals(Arrays.asList(queries.get(2), queries.get(0)), cache.takeQueriesToRefresh());
+    }
+
+    private Set<String> guids(String... guids) {
+        return new HashSet<>(Arrays.asList(guids));
+    }
+}
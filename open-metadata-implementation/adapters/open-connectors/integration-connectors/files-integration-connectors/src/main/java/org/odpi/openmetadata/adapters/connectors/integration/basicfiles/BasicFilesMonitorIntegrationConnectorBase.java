@@ -3,10 +3,7 @@
 
 package org.odpi.openmetadata.adapters.connectors.integration.basicfiles;
 
-import org.apache.commons.io.monitor.FileAlterationListener;
 import org.apache.commons.io.monitor.FileAlterationListenerAdaptor;
-import org.apache.commons.io.monitor.FileAlterationMonitor;
-import org.apache.commons.io.monitor.FileAlterationObserver;
 import org.odpi.openmetadata.accessservices.datamanager.metadataelements.FileFolderElement;
 import org.odpi.openmetadata.adapters.connectors.integration.basicfiles.ffdc.BasicFilesIntegrationConnectorsAuditCode;
 import org.odpi.openmetadata.adapters.connectors.integration.basicfiles.ffdc.BasicFilesIntegrationConnectorsErrorCode;
@@ -19,8 +16,13 @@ import org.odpi.openmetadata.frameworks.connectors.properties.EndpointProperties
 import org.odpi.openmetadata.integrationservices.files.connector.FilesIntegratorConnector;
 
 import java.io.File;
-import java.util.HashMap;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 
 /**
@@ -36,10 +38,21 @@ public abstract class BasicFilesMonitorIntegrationConnectorBase extends FilesInt
     private FileFolderElement dataFolderElement = null;
     private File              dataFolderFile    = null;
 
+    private String  monitorMode           = BasicFilesMonitorIntegrationProviderBase.WATCH_MONITOR_MODE;
+    private long    pollInterval          = DEFAULT_POLL_INTERVAL;
+    private long    eventCoalesceInterval = DEFAULT_EVENT_COALESCE_INTERVAL;
+    private int     scanThreads           = Runtime.getRuntime().availableProcessors();
+    private String  snapshotFileName      = null;
 
-    private Map<String, FileAlterationMonitor> monitors = new HashMap<>();
+    private FileAlterationListenerAdaptor fileListener      = null;
+    private DirectorySnapshot             directorySnapshot = null;
+    private DirectoryWatcher              directoryWatcher  = null;
+    private ScheduledExecutorService      directoryPoller   = null;
 
-    private static int POLL_INTERVAL = 500; // milliseconds
+    private static final long   DEFAULT_POLL_INTERVAL           = 60000; // milliseconds
+    private static final long   DEFAULT_EVENT_COALESCE_INTERVAL = 500;   // milliseconds
+    private static final long   SNAPSHOT_SAVE_INTERVAL          = 60000; // milliseconds
+    private static final String DEFAULT_SNAPSHOT_DIRECTORY      = "data/files-monitor";
 
 
     /**
@@ -69,7 +82,36 @@ public abstract class BasicFilesMonitorIntegrationConnectorBase extends FilesInt
                 allowCatalogDelete = true;
             }
 
-            templateQualifiedName = configurationProperties.get(BasicFilesMonitorIntegrationProviderBase.TEMPLATE_QUALIFIED_NAME_CONFIGURATION_PROPERTY).toString();
+            Object templateQualifiedNameValue = configurationProperties.get(BasicFilesMonitorIntegrationProviderBase.TEMPLATE_QUALIFIED_NAME_CONFIGURATION_PROPERTY);
+
+            if (templateQualifiedNameValue != null)
+            {
+                templateQualifiedName = templateQualifiedNameValue.toString();
+            }
+
+            Object monitorModeValue = configurationProperties.get(BasicFilesMonitorIntegrationProviderBase.MONITOR_MODE_CONFIGURATION_PROPERTY);
+
+            if (monitorModeValue != null)
+            {
+                monitorMode = monitorModeValue.toString().trim().toLowerCase();
+            }
+
+            Object snapshotFileNameValue = configurationProperties.get(BasicFilesMonitorIntegrationProviderBase.SNAPSHOT_FILE_NAME_CONFIGURATION_PROPERTY);
+
+            if (snapshotFileNameValue != null)
+            {
+                snapshotFileName = snapshotFileNameValue.toString();
+            }
+
+            pollInterval = Math.max(1, this.getNumericProperty(configurationProperties,
+                                                               BasicFilesMonitorIntegrationProviderBase.POLL_INTERVAL_CONFIGURATION_PROPERTY,
+                                                               DEFAULT_POLL_INTERVAL));
+            eventCoalesceInterval = Math.max(1, this.getNumericProperty(configurationProperties,
+                                                                        BasicFilesMonitorIntegrationProviderBase.EVENT_COALESCE_INTERVAL_CONFIGURATION_PROPERTY,
+                                                                        DEFAULT_EVENT_COALESCE_INTERVAL));
+            scanThreads = (int) Math.max(1, this.getNumericProperty(configurationProperties,
+                                                                    BasicFilesMonitorIntegrationProviderBase.SCAN_THREADS_CONFIGURATION_PROPERTY,
+                                                                    scanThreads));
         }
     }
 
@@ -99,10 +141,20 @@ public abstract class BasicFilesMonitorIntegrationConnectorBase extends FilesInt
                                                                                                                       templateQualifiedName));
         }
 
+        /*
+         * Restore the state of the files from the last run so that only the changes are processed.
+         */
+        File rootDirectory = this.getRootDirectoryFile();
+
+        fileListener = this.getListener();
+        directorySnapshot = new DirectorySnapshot(rootDirectory.toPath(), this.getSnapshotFile(rootDirectory), scanThreads);
+
+        this.loadDirectorySnapshot(methodName);
+
         /*
          * Start listening
          */
-        this.initiateDirectoryMonitoring(this.getRootDirectoryFile(), methodName);
+        this.startDirectoryMonitoring(methodName);
     }
 
 
@@ -296,34 +348,44 @@ public abstract class BasicFilesMonitorIntegrationConnectorBase extends FilesInt
 
 
     /**
-     * Register a listener for a particular directory (folder).  This results in events whenever there are changes to the files and
-     * folders immediately in this directory.
+     * Start monitoring the directory tree.  The file system's watch service is used unless polling is requested or
+     * the watch service is not available.
      *
-     * @param directory directory to monitor
      * @param methodName calling method
+     * @throws ConfigException problem accessing the directory
      */
-    synchronized void initiateDirectoryMonitoring(File   directory,
-                                                  String methodName)
+    synchronized void startDirectoryMonitoring(String methodName) throws ConfigException
     {
-        FileAlterationObserver observer = new FileAlterationObserver(fileDirectoryName);
-        FileAlterationMonitor  monitor  = new FileAlterationMonitor(POLL_INTERVAL);
-        FileAlterationListener listener = this.getListener();
-
-        observer.addListener(listener);
-        monitor.addObserver(observer);
-
-        monitors.put(directory.getName(), monitor);
+        File rootDirectory = this.getRootDirectoryFile();
 
         if (auditLog != null)
         {
             auditLog.logMessage(methodName,
                                 BasicFilesIntegrationConnectorsAuditCode.DIRECTORY_MONITORING_STARTING.getMessageDefinition(connectorName,
-                                                                                                                            directory.getAbsolutePath()));
+                                                                                                                            rootDirectory.getAbsolutePath()));
+        }
+
+        if (BasicFilesMonitorIntegrationProviderBase.POLL_MONITOR_MODE.equals(monitorMode))
+        {
+            this.startDirectoryPolling(methodName);
+            return;
         }
 
         try
         {
-            monitor.start();
+            DirectoryWatcher watcher = new DirectoryWatcher(this,
+                                                            rootDirectory.toPath(),
+                                                            directorySnapshot,
+                                                            fileListener,
+                                                            eventCoalesceInterval,
+                                                            SNAPSHOT_SAVE_INTERVAL);
+
+            watcher.start(connectorName + " Directory Watcher");
+            directoryWatcher = watcher;
+        }
+        catch (IOException | UnsupportedOperationException error)
+        {
+            this.watchFailed(rootDirectory.toPath(), error);
         }
         catch (Exception error)
         {
@@ -332,7 +394,7 @@ public abstract class BasicFilesMonitorIntegrationConnectorBase extends FilesInt
                 auditLog.logException(methodName,
                                       BasicFilesIntegrationConnectorsAuditCode.UNEXPECTED_EXC_MONITOR_START.getMessageDefinition(error.getClass().getName(),
                                                                                                                                  connectorName,
-                                                                                                                                 directory.getAbsolutePath(),
+                                                                                                                                 rootDirectory.getAbsolutePath(),
                                                                                                                                  error.getMessage()),
                                       error);
             }
@@ -340,6 +402,307 @@ public abstract class BasicFilesMonitorIntegrationConnectorBase extends FilesInt
     }
 
 
+    /**
+     * Start a background thread that scans the directory tree at the poll interval.
+     *
+     * @param methodName calling method
+     */
+    private synchronized void startDirectoryPolling(String methodName)
+    {
+        if (directoryPoller != null)
+        {
+            return;
+        }
+
+        if (auditLog != null)
+        {
+            auditLog.logMessage(methodName,
+                                BasicFilesIntegrationConnectorsAuditCode.DIRECTORY_POLLING_STARTING.getMessageDefinition(connectorName,
+                                                                                                                         fileDirectoryName,
+                                                                                                                         Long.toString(pollInterval)));
+        }
+
+        final String threadName = connectorName + " Directory Poller";
+
+        directoryPoller = Executors.newSingleThreadScheduledExecutor(runnable ->
+        {
+            Thread pollerThread = new Thread(runnable, threadName);
+            pollerThread.setDaemon(true);
+            return pollerThread;
+        });
+
+        directoryPoller.scheduleWithFixedDelay(() -> this.scanDirectory(true, "pollDirectory"),
+                                               pollInterval,
+                                               pollInterval,
+                                               TimeUnit.MILLISECONDS);
+    }
+
+
+    /**
+     * Called when the directory can not be watched.  The connector polls the directory instead.
+     *
+     * @param directory directory being watched
+     * @param error exception from the watch service
+     */
+    void watchFailed(Path      directory,
+                     Exception error)
+    {
+        final String methodName = "watchDirectory";
+
+        if (auditLog != null)
+        {
+            auditLog.logException(methodName,
+                                  BasicFilesIntegrationConnectorsAuditCode.WATCH_SERVICE_UNAVAILABLE.getMessageDefinition(connectorName,
+                                                                                                                          directory.toString(),
+                                                                                                                          error.getClass().getName(),
+                                                                                                                          error.getMessage()),
+                                  error);
+        }
+
+        if (this.isActive())
+        {
+            this.startDirectoryPolling(methodName);
+        }
+    }
+
+
+    /**
+     * Called when the watch service has discarded events.  The watcher rescans the directory after this call.
+     *
+     * @param directory directory being watched
+     */
+    void logWatchOverflow(Path directory)
+    {
+        final String methodName = "watchDirectory";
+
+        if (auditLog != null)
+        {
+            auditLog.logMessage(methodName,
+                                BasicFilesIntegrationConnectorsAuditCode.WATCH_EVENTS_LOST.getMessageDefinition(connectorName,
+                                                                                                                directory.toString()));
+        }
+    }
+
+
+    /**
+     * Called when an unexpected exception occurs in the watcher thread.  The watcher continues.
+     *
+     * @param directory directory being watched
+     * @param error exception
+     */
+    void logWatchException(Path      directory,
+                           Exception error)
+    {
+        final String methodName = "watchDirectory";
+
+        if (auditLog != null)
+        {
+            auditLog.logException(methodName,
+                                  BasicFilesIntegrationConnectorsAuditCode.UNEXPECTED_EXC_WATCHING.getMessageDefinition(error.getClass().getName(),
+                                                                                                                        connectorName,
+                                                                                                                        directory.toString(),
+                                                                                                                        error.getMessage()),
+                                  error);
+        }
+    }
+
+
+    /**
+     * Compare the files in the directory tree with the snapshot from the previous scan and pass the differences
+     * to the file listener.  The snapshot is saved afterwards.
+     *
+     * @param reportChanges should the differences be passed to the file listener - false just records the current state
+     * @param methodName calling method
+     */
+    void scanDirectory(boolean reportChanges,
+                       String  methodName)
+    {
+        if ((directorySnapshot == null) || (! this.isActive()))
+        {
+            return;
+        }
+
+        try
+        {
+            DirectorySnapshot.ScanResult scanResult = directorySnapshot.scan(this.getRootDirectoryFile().toPath(),
+                                                                             reportChanges ? fileListener : null);
+
+            if (auditLog != null)
+            {
+                auditLog.logMessage(methodName,
+                                    BasicFilesIntegrationConnectorsAuditCode.DIRECTORY_SCANNED.getMessageDefinition(connectorName,
+                                                                                                                    Integer.toString(scanResult.files),
+                                                                                                                    fileDirectoryName,
+                                                                                                                    Long.toString(scanResult.scanTime),
+                                                                                                                    Integer.toString(scanResult.created),
+                                                                                                                    Integer.toString(scanResult.changed),
+                                                                                                                    Integer.toString(scanResult.deleted)));
+            }
+        }
+        catch (Exception error)
+        {
+            this.logWatchException(Paths.get(fileDirectoryName), error);
+        }
+
+        this.saveDirectorySnapshot();
+    }
+
+
+    /**
+     * Remove a file from the snapshot so that it is processed again by the next scan.  This is called when the
+     * file could not be catalogued.
+     *
+     * @param file file that was not processed
+     */
+    void forgetFile(File file)
+    {
+        if (directorySnapshot != null)
+        {
+            directorySnapshot.forget(file);
+        }
+    }
+
+
+    /**
+     * Restore the snapshot saved when the connector last ran.
+     *
+     * @param methodName calling method
+     */
+    private void loadDirectorySnapshot(String methodName)
+    {
+        try
+        {
+            int fileCount = directorySnapshot.load();
+
+            if ((fileCount > 0) && (auditLog != null))
+            {
+                auditLog.logMessage(methodName,
+                                    BasicFilesIntegrationConnectorsAuditCode.SNAPSHOT_LOADED.getMessageDefinition(connectorName,
+                                                                                                                  Integer.toString(fileCount),
+                                                                                                                  fileDirectoryName,
+                                                                                                                  directorySnapshot.getSnapshotFile().toString()));
+            }
+        }
+        catch (Exception error)
+        {
+            this.logSnapshotException(error, methodName);
+        }
+    }
+
+
+    /**
+     * Save the snapshot if it has changed.
+     */
+    void saveDirectorySnapshot()
+    {
+        final String methodName = "saveDirectorySnapshot";
+
+        if (directorySnapshot != null)
+        {
+            try
+            {
+                directorySnapshot.save();
+            }
+            catch (Exception error)
+            {
+                this.logSnapshotException(error, methodName);
+            }
+        }
+    }
+
+
+    /**
+     * Log a failure to read or write the snapshot file.
+     *
+     * @param error exception
+     * @param methodName calling method
+     */
+    private void logSnapshotException(Exception error,
+                                      String    methodName)
+    {
+        if (auditLog != null)
+        {
+            auditLog.logException(methodName,
+                                  BasicFilesIntegrationConnectorsAuditCode.UNEXPECTED_EXC_SNAPSHOT.getMessageDefinition(error.getClass().getName(),
+                                                                                                                        connectorName,
+                                                                                                                        String.valueOf(directorySnapshot.getSnapshotFile()),
+                                                                                                                        methodName,
+                                                                                                                        error.getMessage()),
+                                  error);
+        }
+    }
+
+
+    /**
+     * Return the file that the snapshot should be saved in.  By default it is in the data/files-monitor directory
+     * of the integration daemon, named after the connector class and the monitored directory.  A configured
+     * snapshot file name has the hash of the monitored directory added before its extension so that connectors
+     * sharing the same configuration for different directories do not overwrite each other's snapshots.
+     *
+     * @param rootDirectory monitored directory
+     * @return path
+     */
+    Path getSnapshotFile(File rootDirectory)
+    {
+        String directoryHash = Integer.toHexString(rootDirectory.getAbsolutePath().hashCode());
+
+        if (snapshotFileName != null)
+        {
+            Path   configuredFile = Paths.get(snapshotFileName);
+            String fileName       = configuredFile.getFileName().toString();
+            int    extensionStart = fileName.lastIndexOf('.');
+
+            if (extensionStart > 0)
+            {
+                fileName = fileName.substring(0, extensionStart) + "-" + directoryHash + fileName.substring(extensionStart);
+            }
+            else
+            {
+                fileName = fileName + "-" + directoryHash;
+            }
+
+            return configuredFile.resolveSibling(fileName);
+        }
+
+        return Paths.get(DEFAULT_SNAPSHOT_DIRECTORY,
+                         this.getClass().getSimpleName() + "-" + directoryHash + ".snapshot");
+    }
+
+
+    /**
+     * Extract a numeric configuration property.
+     *
+     * @param configurationProperties configuration properties from the connection
+     * @param propertyName name of the property
+     * @param defaultValue value to use if the property is not set or not a number
+     * @return value
+     */
+    private long getNumericProperty(Map<String, Object> configurationProperties,
+                                    String              propertyName,
+                                    long                defaultValue)
+    {
+        Object propertyValue = configurationProperties.get(propertyName);
+
+        if (propertyValue instanceof Number)
+        {
+            return ((Number) propertyValue).longValue();
+        }
+        else if (propertyValue != null)
+        {
+            try
+            {
+                return Long.parseLong(propertyValue.toString().trim());
+            }
+            catch (NumberFormatException error)
+            {
+                return defaultValue;
+            }
+        }
+
+        return defaultValue;
+    }
+
+
     /**
      * Set up the file listener class - this is implemented by the subclasses
      *
@@ -348,25 +711,35 @@ public abstract class BasicFilesMonitorIntegrationConnectorBase extends FilesInt
     abstract FileAlterationListenerAdaptor getListener();
 
 
-    synchronized void stopDirectoryMonitoring(String fileName,
-                                              String methodName)
+    /**
+     * Stop the watching or polling of the directory.
+     *
+     * @param methodName calling method
+     */
+    synchronized void stopDirectoryMonitoring(String methodName)
     {
-        FileAlterationMonitor monitor = monitors.get(fileName);
-
-        if (monitor != null)
+        if ((directoryWatcher != null) || (directoryPoller != null))
         {
-            monitors.remove(fileName, monitor);
-
             if (auditLog != null)
             {
                 auditLog.logMessage(methodName,
                                     BasicFilesIntegrationConnectorsAuditCode.DIRECTORY_MONITORING_STOPPING.getMessageDefinition(connectorName,
-                                                                                                                                fileName));
+                                                                                                                                fileDirectoryName));
             }
 
             try
             {
-                monitor.stop(POLL_INTERVAL * 2);
+                if (directoryWatcher != null)
+                {
+                    directoryWatcher.stop();
+                    directoryWatcher = null;
+                }
+
+                if (directoryPoller != null)
+                {
+                    directoryPoller.shutdownNow();
+                    directoryPoller = null;
+                }
             }
             catch (Exception error)
             {
@@ -375,7 +748,7 @@ public abstract class BasicFilesMonitorIntegrationConnectorBase extends FilesInt
                     auditLog.logException(methodName,
                                           BasicFilesIntegrationConnectorsAuditCode.UNEXPECTED_EXC_MONITOR_STOP.getMessageDefinition(error.getClass().getName(),
                                                                                                                                     connectorName,
-                                                                                                                                    fileName,
+                                                                                                                                    fileDirectoryName,
                                                                                                                                     error.getMessage()),
                                           error);
                 }
@@ -394,9 +767,12 @@ public abstract class BasicFilesMonitorIntegrationConnectorBase extends FilesInt
     {
         final String methodName = "disconnect";
 
-        for (String fileName : monitors.keySet())
+        this.stopDirectoryMonitoring(methodName);
+
+        if (directorySnapshot != null)
         {
-            this.stopDirectoryMonitoring(fileName, methodName);
+            this.saveDirectorySnapshot();
+            directorySnapshot.close();
         }
 
         if (auditLog != null)
@@ -17,6 +17,14 @@ class BasicFilesMonitorIntegrationProviderBase extends ConnectorProviderBase
 {
     static final String TEMPLATE_QUALIFIED_NAME_CONFIGURATION_PROPERTY = "templateQualifiedName";
     static final String ALLOW_CATALOG_DELETE_CONFIGURATION_PROPERTY    = "allowCatalogDelete";
+    static final String MONITOR_MODE_CONFIGURATION_PROPERTY            = "monitorMode";
+    static final String POLL_INTERVAL_CONFIGURATION_PROPERTY           = "pollInterval";
+    static final String EVENT_COALESCE_INTERVAL_CONFIGURATION_PROPERTY = "eventCoalesceInterval";
+    static final String SCAN_THREADS_CONFIGURATION_PROPERTY            = "scanThreads";
+    static final String SNAPSHOT_FILE_NAME_CONFIGURATION_PROPERTY      = "snapshotFileName";
+
+    static final String WATCH_MONITOR_MODE = "watch";
+    static final String POLL_MONITOR_MODE  = "poll";
 
     /**
      * Constructor used to initialize the ConnectorProviderBase with the Java class name of the specific
@@ -48,6 +56,11 @@ class BasicFilesMonitorIntegrationProviderBase extends ConnectorProviderBase
         List<String> recognizedConfigurationProperties = new ArrayList<>();
         recognizedConfigurationProperties.add(TEMPLATE_QUALIFIED_NAME_CONFIGURATION_PROPERTY);
         recognizedConfigurationProperties.add(ALLOW_CATALOG_DELETE_CONFIGURATION_PROPERTY);
+        recognizedConfigurationProperties.add(MONITOR_MODE_CONFIGURATION_PROPERTY);
+        recognizedConfigurationProperties.add(POLL_INTERVAL_CONFIGURATION_PROPERTY);
+        recognizedConfigurationProperties.add(EVENT_COALESCE_INTERVAL_CONFIGURATION_PROPERTY);
+        recognizedConfigurationProperties.add(SCAN_THREADS_CONFIGURATION_PROPERTY);
+        recognizedConfigurationProperties.add(SNAPSHOT_FILE_NAME_CONFIGURATION_PROPERTY);
 
         connectorType.setRecognizedConfigurationProperties(recognizedConfigurationProperties);
 
@@ -82,19 +82,13 @@ public class DataFilesMonitorIntegrationConnector extends BasicFilesMonitorInteg
         @Override
         public void onDirectoryCreate(File directory)
         {
-            final String methodName = "onDirectoryCreate";
-
             log.debug("Folder created: " + directory.getName());
-            initiateDirectoryMonitoring(directory, methodName);
         }
 
         @Override
         public void onDirectoryDelete(File directory)
         {
-            final String methodName = "onDirectoryDelete";
-
             log.debug("Folder deleted: " + directory.getName());
-            stopDirectoryMonitoring(directory.getName(), methodName);
         }
     }
 
@@ -104,9 +98,9 @@ public class DataFilesMonitorIntegrationConnector extends BasicFilesMonitorInteg
      * Refresh is called when the integration connector first starts and then at intervals defined in the connector's configuration
      * as well as any external REST API calls to explicitly refresh the connector.
      *
-     * This method performs two sweeps.  It first retrieves the files in the directory and validates that are in the
-     * catalog - adding or updating them if necessary.  The second sweep is to ensure that all of the assets catalogued
-     * in this directory actually exist on the file system.
+     * This method performs two sweeps.  It first scans the directory tree for files that are new, changed or deleted since
+     * the previous scan (or the last run of the connector) and updates the catalog for them.  The second sweep is to ensure
+     * that all of the assets catalogued in this directory actually exist on the file system.
      *
      * @throws ConnectorCheckedException there is a problem with the connector.  It is not able to refresh the metadata.
      */
@@ -120,20 +114,9 @@ public class DataFilesMonitorIntegrationConnector extends BasicFilesMonitorInteg
         if (directory != null)
         {
             /*
-             * Sweep one - cataloguing all files
+             * Sweep one - cataloguing the files that have changed since the last scan
              */
-            File[] filesArray = directory.listFiles();
-
-            if (filesArray != null)
-            {
-                for (File file : filesArray)
-                {
-                    if (file != null)
-                    {
-                        this.catalogFile(file, methodName);
-                    }
-                }
-            }
+            super.scanDirectory(true, methodName);
 
             /*
              * Sweep two - ensuring all catalogued files still exist.  Notice that if the folder does not exist, it is
@@ -283,7 +266,14 @@ public class DataFilesMonitorIntegrationConnector extends BasicFilesMonitorInteg
                             }
                         }
 
-                        if (templateGUID != null)
+                        if (templateGUID == null)
+                        {
+                            /*
+                             * Try again on the next refresh.
+                             */
+                            super.forgetFile(file);
+                        }
+                        else
                         {
                             TemplateProperties properties = new TemplateProperties();
 
@@ -309,6 +299,8 @@ public class DataFilesMonitorIntegrationConnector extends BasicFilesMonitorInteg
             }
             catch (Exception error)
             {
+                super.forgetFile(file);
+
                 if (auditLog != null)
                 {
                     auditLog.logException(methodName,
@@ -517,6 +509,8 @@ public class DataFilesMonitorIntegrationConnector extends BasicFilesMonitorInteg
             }
             catch (Exception error)
             {
+                super.forgetFile(file);
+
                 if (auditLog != null)
                 {
                     auditLog.logException(methodName,
@@ -52,6 +52,12 @@ public class DataFolderMonitorIntegrationConnector extends BasicFilesMonitorInte
 
         dataFolderFile = super.getRootDirectoryFile();
 
+        /*
+         * Record the current state of the files so that the watcher can recognize deleted files.  The changes are not
+         * reported because the DataFolder is updated from the directory's last modified time below.
+         */
+        super.scanDirectory(false, methodName);
+
         this.updateDataFolder(dataFolderFile, new Date(dataFolderFile.lastModified()), methodName);
     }
 
@@ -189,19 +195,13 @@ public class DataFolderMonitorIntegrationConnector extends BasicFilesMonitorInte
         @Override
         public void onDirectoryCreate(File directory)
         {
-            final String methodName = "onDirectoryCreate";
-
             log.debug("Folder created: " + directory.getName());
-            initiateDirectoryMonitoring(directory, methodName);
         }
 
         @Override
         public void onDirectoryDelete(File directory)
         {
-            final String methodName = "onDirectoryDelete";
-
             log.debug("Folder deleted: " + directory.getName());
-            stopDirectoryMonitoring(directory.getName(), methodName);
         }
     }
 }
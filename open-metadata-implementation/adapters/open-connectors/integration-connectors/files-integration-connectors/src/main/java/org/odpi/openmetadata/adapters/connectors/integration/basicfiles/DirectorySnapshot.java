@@ -0,0 +1,586 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+package org.odpi.openmetadata.adapters.connectors.integration.basicfiles;
+
+import org.apache.commons.io.monitor.FileAlterationListener;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.locks.ReentrantLock;
+
+
+/**
+ * DirectorySnapshot remembers the last modified time and size of each file underneath a monitored directory.
+ * A scan walks the directory tree in parallel and compares what it finds with the snapshot.  Only the differences
+ * are passed to the connector's listener, so a restart or a periodic refresh does not re-catalogue files that
+ * have not changed.  The snapshot can be saved to a file so that it survives a restart of the integration daemon.
+ * <p>
+ * Scans are serialized so that the watcher thread, the polling thread and the refresh thread do not report
+ * the same change twice.
+ * </p>
+ */
+class DirectorySnapshot
+{
+    private static final String SNAPSHOT_HEADER = "# Basic files monitor snapshot v1";
+
+    private final Path                                       rootDirectory;
+    private final Path                                       snapshotFile;
+    private final ForkJoinPool                               scanPool;
+    private final ConcurrentSkipListMap<String, FileState>   files = new ConcurrentSkipListMap<>();
+    private final ReentrantLock                              scanLock = new ReentrantLock();
+
+    private volatile boolean dirty = false;
+
+
+    /**
+     * Constructor supplies the directory to monitor and where to save the snapshot.
+     *
+     * @param rootDirectory directory to monitor
+     * @param snapshotFile file to save the snapshot in - or null to keep it in memory only
+     * @param scanThreads number of threads used to walk the directory tree
+     */
+    DirectorySnapshot(Path rootDirectory,
+                      Path snapshotFile,
+                      int  scanThreads)
+    {
+        this.rootDirectory = rootDirectory.toAbsolutePath().normalize();
+        this.snapshotFile  = snapshotFile == null ? null : snapshotFile.toAbsolutePath().normalize();
+        this.scanPool      = new ForkJoinPool(scanThreads);
+    }
+
+
+    /**
+     * Return the file that the snapshot is saved in.
+     *
+     * @return path or null
+     */
+    Path getSnapshotFile()
+    {
+        return snapshotFile;
+    }
+
+
+    /**
+     * Return the number of files in the snapshot.
+     *
+     * @return count
+     */
+    int size()
+    {
+        return files.size();
+    }
+
+
+    /**
+     * Restore the snapshot saved by a previous run of the connector.  Entries for files outside of the
+     * monitored directory are ignored.
+     *
+     * @return number of files restored
+     * @throws IOException unable to read the snapshot file
+     */
+    int load() throws IOException
+    {
+        if ((snapshotFile == null) || (! Files.exists(snapshotFile)))
+        {
+            return 0;
+        }
+
+        try (BufferedReader reader = Files.newBufferedReader(snapshotFile, StandardCharsets.UTF_8))
+        {
+            String line = reader.readLine();
+
+            if (! SNAPSHOT_HEADER.equals(line))
+            {
+                return 0;
+            }
+
+            while ((line = reader.readLine()) != null)
+            {
+                String[] fields = line.split(",", 3);
+
+                if (fields.length == 3)
+                {
+                    try
+                    {
+                        if (this.isInSubtree(fields[2], rootDirectory.toString()))
+                        {
+                            files.put(fields[2], new FileState(Long.parseLong(fields[0]), Long.parseLong(fields[1])));
+                        }
+                    }
+                    catch (NumberFormatException badLine)
+                    {
+                        /*
+                         * Skip a damaged line - the file will be reported as new on the next scan.
+                         */
+                    }
+                }
+            }
+        }
+
+        return files.size();
+    }
+
+
+    /**
+     * Save the snapshot if it has changed since it was last saved.  The snapshot is written to a temporary file
+     * that then replaces the previous snapshot so a failure part way through does not lose the old one.
+     *
+     * @throws IOException unable to write the snapshot file
+     */
+    void save() throws IOException
+    {
+        if ((snapshotFile == null) || (! dirty))
+        {
+            return;
+        }
+
+        dirty = false;
+
+        try
+        {
+            Path snapshotDirectory = snapshotFile.getParent();
+
+            if (snapshotDirectory != null)
+            {
+                Files.createDirectories(snapshotDirectory);
+            }
+
+            Path temporaryFile = this.getTemporaryFile();
+
+            try (BufferedWriter writer = Files.newBufferedWriter(temporaryFile, StandardCharsets.UTF_8))
+            {
+                writer.write(SNAPSHOT_HEADER);
+                writer.newLine();
+
+                for (Map.Entry<String, FileState> entry : files.entrySet())
+                {
+                    writer.write(Long.toString(entry.getValue().lastModified));
+                    writer.write(',');
+                    writer.write(Long.toString(entry.getValue().size));
+                    writer.write(',');
+                    writer.write(entry.getKey());
+                    writer.newLine();
+                }
+            }
+
+            try
+            {
+                Files.move(temporaryFile, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            catch (AtomicMoveNotSupportedException notAtomic)
+            {
+                Files.move(temporaryFile, snapshotFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        catch (IOException error)
+        {
+            dirty = true;
+            throw error;
+        }
+    }
+
+
+    /**
+     * Remove a file from the snapshot so that it is reported as new on the next scan.  This is used when the
+     * connector was not able to catalog the file.
+     *
+     * @param file file to forget
+     */
+    void forget(File file)
+    {
+        if (files.remove(file.toPath().toAbsolutePath().normalize().toString()) != null)
+        {
+            dirty = true;
+        }
+    }
+
+
+    /**
+     * Compare the files underneath the requested path with the snapshot and report the differences.  The path
+     * may be the monitored directory, a subdirectory or a single file.  If the path no longer exists, all of the
+     * files that the snapshot holds for it are reported as deleted.
+     *
+     * @param path file or directory to scan
+     * @param listener listener to receive the differences - or null to just record the current state
+     * @return counts of the files found and the differences
+     */
+    ScanResult scan(Path                   path,
+                    FileAlterationListener listener)
+    {
+        long       startTime  = System.currentTimeMillis();
+        ScanResult scanResult = new ScanResult();
+        Path       scanPath   = path.toAbsolutePath().normalize();
+        String     scanKey    = scanPath.toString();
+
+        scanLock.lock();
+
+        try
+        {
+            Map<String, FileState> foundFiles          = new ConcurrentHashMap<>();
+            Set<String>            unreadableDirectories = ConcurrentHashMap.newKeySet();
+
+            try
+            {
+                BasicFileAttributes attributes = Files.readAttributes(scanPath, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+
+                if (attributes.isDirectory())
+                {
+                    scanPool.invoke(new DirectoryWalk(scanPath, foundFiles, unreadableDirectories));
+                }
+                else if (attributes.isRegularFile() && (! isSnapshotFile(scanPath)))
+                {
+                    foundFiles.put(scanKey, new FileState(attributes));
+                }
+            }
+            catch (NoSuchFileException deleted)
+            {
+                /*
+                 * Everything the snapshot holds for this path has gone.
+                 */
+            }
+            catch (IOException error)
+            {
+                /*
+                 * The path exists but can not be read at the moment.  Leave the snapshot as it is rather than
+                 * reporting the files as deleted.
+                 */
+                unreadableDirectories.add(scanKey);
+            }
+
+            scanResult.files = foundFiles.size();
+
+            List<String> knownFiles = new ArrayList<>();
+
+            if (files.containsKey(scanKey))
+            {
+                knownFiles.add(scanKey);
+            }
+
+            knownFiles.addAll(this.getSubtree(scanKey).keySet());
+
+            for (String knownFile : knownFiles)
+            {
+                if ((! foundFiles.containsKey(knownFile)) && (! this.isUnreadable(knownFile, unreadableDirectories)))
+                {
+                    files.remove(knownFile);
+                    scanResult.deleted++;
+
+                    if (listener != null)
+                    {
+                        listener.onFileDelete(new File(knownFile));
+                    }
+                }
+            }
+
+            for (Map.Entry<String, FileState> foundFile : foundFiles.entrySet())
+            {
+                FileState previousState = files.put(foundFile.getKey(), foundFile.getValue());
+
+                if (previousState == null)
+                {
+                    scanResult.created++;
+
+                    if (listener != null)
+                    {
+                        listener.onFileCreate(new File(foundFile.getKey()));
+                    }
+                }
+                else if (! previousState.equals(foundFile.getValue()))
+                {
+                    scanResult.changed++;
+
+                    if (listener != null)
+                    {
+                        listener.onFileChange(new File(foundFile.getKey()));
+                    }
+                }
+            }
+
+            if (scanResult.created + scanResult.changed + scanResult.deleted > 0)
+            {
+                dirty = true;
+            }
+        }
+        finally
+        {
+            scanLock.unlock();
+        }
+
+        scanResult.scanTime = System.currentTimeMillis() - startTime;
+
+        return scanResult;
+    }
+
+
+    /**
+     * Release the scanning threads.
+     */
+    void close()
+    {
+        scanPool.shutdownNow();
+    }
+
+
+    /**
+     * Return the file that a new snapshot is written to before it replaces the previous one.
+     *
+     * @return path
+     */
+    private Path getTemporaryFile()
+    {
+        return snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+    }
+
+
+    /**
+     * Test whether a file is the snapshot itself, since it may have been configured inside the monitored directory.
+     *
+     * @param file file found by the scan
+     * @return boolean
+     */
+    private boolean isSnapshotFile(Path file)
+    {
+        return (snapshotFile != null) && (file.equals(snapshotFile) || file.equals(this.getTemporaryFile()));
+    }
+
+
+    /**
+     * Return the entries in the snapshot for the files underneath a directory.
+     *
+     * @param directoryName absolute name of the directory
+     * @return view of the snapshot
+     */
+    private ConcurrentNavigableMap<String, FileState> getSubtree(String directoryName)
+    {
+        String prefix = directoryName.endsWith(File.separator) ? directoryName : directoryName + File.separator;
+
+        return files.subMap(prefix, true, prefix + Character.MAX_VALUE, true);
+    }
+
+
+    /**
+     * Test whether a file name is the directory name or underneath it.
+     *
+     * @param fileName absolute file name
+     * @param directoryName absolute directory name
+     * @return boolean
+     */
+    private boolean isInSubtree(String fileName,
+                                String directoryName)
+    {
+        String prefix = directoryName.endsWith(File.separator) ? directoryName : directoryName + File.separator;
+
+        return fileName.equals(directoryName) || fileName.startsWith(prefix);
+    }
+
+
+    /**
+     * Test whether a file is underneath one of the directories that could not be read during the scan.
+     *
+     * @param fileName absolute file name
+     * @param unreadableDirectories directories that could not be read
+     * @return boolean
+     */
+    private boolean isUnreadable(String      fileName,
+                                 Set<String> unreadableDirectories)
+    {
+        for (String unreadableDirectory : unreadableDirectories)
+        {
+            if (this.isInSubtree(fileName, unreadableDirectory))
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+
+    /**
+     * DirectoryWalk lists one directory and forks a new task for each of its subdirectories.  Symbolic links are
+     * not followed so the walk can not loop.
+     */
+    private class DirectoryWalk extends RecursiveAction
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final Path                   directory;
+        private final Map<String, FileState> foundFiles;
+        private final Set<String>            unreadableDirectories;
+
+
+        /**
+         * Constructor supplies the directory to list and where to put the results.
+         *
+         * @param directory directory to list
+         * @param foundFiles map to add the files to
+         * @param unreadableDirectories set to add the directories that can not be listed to
+         */
+        DirectoryWalk(Path                   directory,
+                      Map<String, FileState> foundFiles,
+                      Set<String>            unreadableDirectories)
+        {
+            this.directory = directory;
+            this.foundFiles = foundFiles;
+            this.unreadableDirectories = unreadableDirectories;
+        }
+
+
+        /**
+         * List the directory.
+         */
+        @Override
+        protected void compute()
+        {
+            List<DirectoryWalk> subdirectoryWalks = new ArrayList<>();
+
+            try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory))
+            {
+                for (Path entry : entries)
+                {
+                    try
+                    {
+                        BasicFileAttributes attributes = Files.readAttributes(entry, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+
+                        if (attributes.isDirectory())
+                        {
+                            subdirectoryWalks.add(new DirectoryWalk(entry, foundFiles, unreadableDirectories));
+                        }
+                        else if (attributes.isRegularFile() && (! isSnapshotFile(entry)))
+                        {
+                            foundFiles.put(entry.toString(), new FileState(attributes));
+                        }
+                    }
+                    catch (NoSuchFileException deleted)
+                    {
+                        /*
+                         * Deleted while the directory was being listed.
+                         */
+                    }
+                    catch (IOException error)
+                    {
+                        unreadableDirectories.add(entry.toString());
+                    }
+                }
+            }
+            catch (NoSuchFileException | DirectoryIteratorException deleted)
+            {
+                /*
+                 * Deleted after its parent was listed.
+                 */
+            }
+            catch (IOException error)
+            {
+                unreadableDirectories.add(directory.toString());
+            }
+
+            invokeAll(subdirectoryWalks);
+        }
+    }
+
+
+    /**
+     * FileState is the last modified time and size of a file.
+     */
+    private static class FileState
+    {
+        private final long lastModified;
+        private final long size;
+
+
+        /**
+         * Constructor supplies the values directly.
+         *
+         * @param lastModified last modified time in milliseconds
+         * @param size size in bytes
+         */
+        FileState(long lastModified,
+                  long size)
+        {
+            this.lastModified = lastModified;
+            this.size = size;
+        }
+
+
+        /**
+         * Constructor extracts the values from the file's attributes.
+         *
+         * @param attributes attributes returned by the file system
+         */
+        FileState(BasicFileAttributes attributes)
+        {
+            this(attributes.lastModifiedTime().toMillis(), attributes.size());
+        }
+
+
+        /**
+         * Compare the values.
+         *
+         * @param objectToCompare object
+         * @return boolean
+         */
+        @Override
+        public boolean equals(Object objectToCompare)
+        {
+            if (this == objectToCompare)
+            {
+                return true;
+            }
+            if (objectToCompare == null || getClass() != objectToCompare.getClass())
+            {
+                return false;
+            }
+            FileState that = (FileState) objectToCompare;
+            return lastModified == that.lastModified &&
+                           size == that.size;
+        }
+
+
+        /**
+         * Hash code for the values.
+         *
+         * @return int
+         */
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(lastModified, size);
+        }
+    }
+
+
+    /**
+     * ScanResult returns the counts from a scan.
+     */
+    static class ScanResult
+    {
+        int  files    = 0;
+        int  created  = 0;
+        int  changed  = 0;
+        int  deleted  = 0;
+        long scanTime = 0;
+    }
+}
@@ -0,0 +1,317 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+package org.odpi.openmetadata.adapters.connectors.integration.basicfiles;
+
+import org.apache.commons.io.monitor.FileAlterationListener;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * DirectoryWatcher receives change events for a directory tree from the file system's WatchService.
+ * The watch service only reports changes to the entries of a registered directory, so every subdirectory is
+ * registered as it is found.  Events arrive in bursts when files are copied into the directory, so the watcher
+ * collects the names of the files that changed until the events stop for the coalesce interval.  It then asks the
+ * DirectorySnapshot to compare each of these files with its last known state.  This turns the many create and modify
+ * events for a file into a single call to the connector's listener, and ignores events that do not change the
+ * file's last modified time or size.
+ * <p>
+ * If the watch service loses events because they arrive too quickly, the watcher rescans the whole directory.
+ * </p>
+ */
+class DirectoryWatcher implements Runnable
+{
+    private final BasicFilesMonitorIntegrationConnectorBase connector;
+    private final Path                                      rootDirectory;
+    private final DirectorySnapshot                         directorySnapshot;
+    private final FileAlterationListener                    listener;
+    private final long                                      coalesceInterval;
+    private final long                                      snapshotSaveInterval;
+
+    private final Map<WatchKey, Path> watchedDirectories = new HashMap<>();
+    private final Map<Path, WatchKey> directoryWatchKeys = new HashMap<>();
+
+    private WatchService     watchService  = null;
+    private Thread           watcherThread = null;
+    private volatile boolean keepRunning   = true;
+
+
+    /**
+     * Constructor supplies the directory to watch and where to send the changes.
+     *
+     * @param connector connector that owns the watcher - used for logging
+     * @param rootDirectory directory to watch
+     * @param directorySnapshot last known state of the files in the directory
+     * @param listener listener to receive the changes
+     * @param coalesceInterval milliseconds without events before the collected changes are processed
+     * @param snapshotSaveInterval milliseconds between saves of the snapshot
+     */
+    DirectoryWatcher(BasicFilesMonitorIntegrationConnectorBase connector,
+                     Path                                      rootDirectory,
+                     DirectorySnapshot                         directorySnapshot,
+                     FileAlterationListener                    listener,
+                     long                                      coalesceInterval,
+                     long                                      snapshotSaveInterval)
+    {
+        this.connector = connector;
+        this.rootDirectory = rootDirectory.toAbsolutePath().normalize();
+        this.directorySnapshot = directorySnapshot;
+        this.listener = listener;
+        this.coalesceInterval = coalesceInterval;
+        this.snapshotSaveInterval = snapshotSaveInterval;
+    }
+
+
+    /**
+     * Register the directory tree with the watch service and start the watcher thread.
+     *
+     * @param threadName name for the watcher thread
+     * @throws IOException the file system does not support watching or has run out of watches
+     */
+    void start(String threadName) throws IOException
+    {
+        watchService = rootDirectory.getFileSystem().newWatchService();
+
+        try
+        {
+            this.registerDirectoryTree(rootDirectory, false);
+        }
+        catch (IOException error)
+        {
+            watchService.close();
+            throw error;
+        }
+
+        watcherThread = new Thread(this, threadName);
+        watcherThread.setDaemon(true);
+        watcherThread.start();
+    }
+
+
+    /**
+     * Stop the watcher thread.
+     */
+    void stop()
+    {
+        keepRunning = false;
+
+        if (watchService != null)
+        {
+            try
+            {
+                watchService.close();
+            }
+            catch (IOException error)
+            {
+                /*
+                 * Nothing more can be done.
+                 */
+            }
+        }
+    }
+
+
+    /**
+     * Wait for events and process them in batches.
+     */
+    @Override
+    public void run()
+    {
+        long lastSaveTime = System.currentTimeMillis();
+
+        while (keepRunning)
+        {
+            try
+            {
+                Set<Path> changedPaths = new LinkedHashSet<>();
+                WatchKey  watchKey     = watchService.take();
+                long      batchStart   = System.currentTimeMillis();
+                boolean   overflow     = false;
+
+                /*
+                 * Keep collecting while the events keep coming, up to a limit so that a directory that never stops
+                 * changing is still processed.
+                 */
+                while (watchKey != null)
+                {
+                    overflow = this.collectEvents(watchKey, changedPaths) || overflow;
+
+                    if (System.currentTimeMillis() - batchStart > coalesceInterval * 10)
+                    {
+                        break;
+                    }
+
+                    watchKey = watchService.poll(coalesceInterval, TimeUnit.MILLISECONDS);
+                }
+
+                if (overflow)
+                {
+                    connector.logWatchOverflow(rootDirectory);
+                    this.registerDirectoryTree(rootDirectory, true);
+                    directorySnapshot.scan(rootDirectory, listener);
+                }
+                else
+                {
+                    for (Path changedPath : changedPaths)
+                    {
+                        this.processChange(changedPath);
+                    }
+                }
+
+                if (System.currentTimeMillis() - lastSaveTime > snapshotSaveInterval)
+                {
+                    connector.saveDirectorySnapshot();
+                    lastSaveTime = System.currentTimeMillis();
+                }
+            }
+            catch (ClosedWatchServiceException | InterruptedException stopped)
+            {
+                keepRunning = false;
+            }
+            catch (IOException error)
+            {
+                /*
+                 * Typically the file system has run out of watches for the new directories.
+                 */
+                keepRunning = false;
+                connector.watchFailed(rootDirectory, error);
+            }
+            catch (Exception error)
+            {
+                connector.logWatchException(rootDirectory, error);
+            }
+        }
+    }
+
+
+    /**
+     * Extract the names of the changed files from the events of a watched directory.
+     *
+     * @param watchKey key for the watched directory
+     * @param changedPaths set to add the changed files to
+     * @return true if events were lost
+     */
+    private boolean collectEvents(WatchKey  watchKey,
+                                  Set<Path> changedPaths)
+    {
+        boolean overflow  = false;
+        Path    directory = watchedDirectories.get(watchKey);
+
+        for (WatchEvent<?> event : watchKey.pollEvents())
+        {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW)
+            {
+                overflow = true;
+            }
+            else if (directory != null)
+            {
+                changedPaths.add(directory.resolve((Path)event.context()));
+            }
+        }
+
+        if (! watchKey.reset())
+        {
+            /*
+             * The directory has been deleted.
+             */
+            watchedDirectories.remove(watchKey);
+
+            if (directory != null)
+            {
+                directoryWatchKeys.remove(directory);
+                changedPaths.add(directory);
+                listener.onDirectoryDelete(directory.toFile());
+            }
+        }
+
+        return overflow;
+    }
+
+
+    /**
+     * Compare a changed file or directory with the snapshot.  A new directory is registered before it is scanned
+     * so that files added to it while it is being scanned are not missed.  An existing directory is not scanned
+     * because the changes to its files are reported individually.
+     *
+     * @param changedPath file or directory that changed
+     * @throws IOException unable to register a new directory
+     */
+    private void processChange(Path changedPath) throws IOException
+    {
+        if (Files.isDirectory(changedPath, LinkOption.NOFOLLOW_LINKS))
+        {
+            WatchKey watchKey = directoryWatchKeys.get(changedPath);
+
+            if ((watchKey != null) && (watchKey.isValid()))
+            {
+                return;
+            }
+
+            this.registerDirectoryTree(changedPath, true);
+        }
+
+        directorySnapshot.scan(changedPath, listener);
+    }
+
+
+    /**
+     * Register a directory and all of its subdirectories with the watch service.  Registering a directory that is
+     * already registered returns its existing key.
+     *
+     * @param startDirectory top of the directory tree
+     * @param reportNewDirectories should the listener be told about directories that were not registered before
+     * @throws IOException unable to register a directory
+     */
+    private void registerDirectoryTree(Path    startDirectory,
+                                       boolean reportNewDirectories) throws IOException
+    {
+        Files.walkFileTree(startDirectory, new SimpleFileVisitor<Path>()
+        {
+            @Override
+            public FileVisitResult preVisitDirectory(Path directory, BasicFileAttributes attributes) throws IOException
+            {
+                WatchKey watchKey = directory.register(watchService,
+                                                       StandardWatchEventKinds.ENTRY_CREATE,
+                                                       StandardWatchEventKinds.ENTRY_DELETE,
+                                                       StandardWatchEventKinds.ENTRY_MODIFY);
+
+                WatchKey previousKey = directoryWatchKeys.put(directory, watchKey);
+                watchedDirectories.put(watchKey, directory);
+
+                if ((reportNewDirectories) && (previousKey != watchKey))
+                {
+                    listener.onDirectoryCreate(directory.toFile());
+                }
+
+                return FileVisitResult.CONTINUE;
+            }
+
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException error)
+            {
+                /*
+                 * Deleted or unreadable - it will be picked up by a later event or scan.
+                 */
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+}
@@ -62,15 +62,16 @@ public enum BasicFilesIntegrationConnectorsAuditCode implements AuditLogMessageS
     DIRECTORY_MONITORING_STARTING("BASIC-FILES-INTEGRATION-CONNECTORS-0005",
                               OMRSAuditLogRecordSeverity.INFO,
                               "The {0} integration connector is initiating the monitoring of file directory {1}",
-                              "The connector is calling the monitoring library from Apache Commons. " +
+                              "The connector is registering the directory and its subdirectories with the file system's watch service, " +
+                                      "or is starting to poll the directory if watching is not possible.  " +
                                       "This will start a background thread to monitor the file directory.  Any changes to the files in the " +
                                       "directory will be reported to this integration connector.",
                               "No action is required unless there are errors that follow indicating that the monitoring of the directory failed to start."),
 
     UNEXPECTED_EXC_MONITOR_START("BASIC-FILES-INTEGRATION-CONNECTORS-0006",
                                      OMRSAuditLogRecordSeverity.EXCEPTION,
-                                     "An unexpected {0} exception was returned to the {1} integration connector by the Apache Commons " +
-                                             "FileAlterationMonitor for directory {2} while it was starting the monitoring service.  The error message was {3}",
+                                     "An unexpected {0} exception was returned to the {1} integration connector " +
+                                             "for directory {2} while it was starting the monitoring service.  The error message was {3}",
                                      "The exception is logged and the integration connector continues to synchronize metadata " +
                                              "through the refresh process.",
                                      "Use the message in the unexpected exception to determine the root cause of the error. Once this is " +
@@ -80,15 +81,15 @@ public enum BasicFilesIntegrationConnectorsAuditCode implements AuditLogMessageS
     DIRECTORY_MONITORING_STOPPING("BASIC-FILES-INTEGRATION-CONNECTORS-0007",
                                   OMRSAuditLogRecordSeverity.INFO,
                                   "The {0} integration connector is stopping the monitoring of file directory {1}",
-                                  "The connector is calling the monitoring library from Apache Commons to stop the monitoring of the directory.  " +
+                                  "The connector is stopping the watching or polling of the directory.  " +
                                           "This will stop the background thread monitoring the file directory.  Any changes to the files in the " +
                                           "directory will be ignored by the connector.",
                                   "No action is required unless there are errors that follow indicating that the monitoring failed to stop."),
 
     UNEXPECTED_EXC_MONITOR_STOP("BASIC-FILES-INTEGRATION-CONNECTORS-0008",
                                  OMRSAuditLogRecordSeverity.EXCEPTION,
-                                 "An unexpected {0} exception was returned to the {1} integration connector by the Apache Commons " +
-                                         "FileAlterationMonitor for directory {2} while it stopping the monitoring service.  The error message was {3}",
+                                 "An unexpected {0} exception was returned to the {1} integration connector " +
+                                         "for directory {2} while it stopping the monitoring service.  The error message was {3}",
                                  "The exception is logged and the integration connector continues to shutdown.",
                                  "Use the message in the unexpected exception to determine the root cause of the error. Once this is " +
                                          "resolved, follow the instructions in the messages produced by the integration daemon to restart the connector."),
@@ -179,6 +180,55 @@ public enum BasicFilesIntegrationConnectorsAuditCode implements AuditLogMessageS
                               "Its presence is still needed in the metadata repository for lineage reporting.",
                       "No action is required.  This message is to record the reason why the DataFile was archived."),
 
+    WATCH_SERVICE_UNAVAILABLE("BASIC-FILES-INTEGRATION-CONNECTORS-0021",
+                      OMRSAuditLogRecordSeverity.EXCEPTION,
+                      "The {0} integration connector is unable to watch file directory {1} for changes because of a {2} exception with message {3}",
+                      "The connector polls the directory instead.  This happens when the file system does not support change notifications " +
+                              "or the operating system has run out of watches for the directory tree.",
+                      "Polling uses more resources and is slower to detect changes.  If the directory is on a local file system, " +
+                              "increase the operating system limit on watched directories (for example fs.inotify.max_user_watches on Linux) " +
+                              "and restart the connector.  Alternatively set monitorMode to poll and choose a pollInterval that suits the directory."),
+
+    DIRECTORY_POLLING_STARTING("BASIC-FILES-INTEGRATION-CONNECTORS-0022",
+                      OMRSAuditLogRecordSeverity.INFO,
+                      "The {0} integration connector is polling file directory {1} for changes every {2} milliseconds",
+                      "The connector scans the directory on a background thread and compares the files it finds with the files found by the " +
+                              "previous scan.  Only the new, changed and deleted files are reported to the connector.",
+                      "No action is required.  This message is to confirm how the directory is monitored."),
+
+    WATCH_EVENTS_LOST("BASIC-FILES-INTEGRATION-CONNECTORS-0023",
+                      OMRSAuditLogRecordSeverity.INFO,
+                      "The {0} integration connector received more change events than the file system could queue for directory {1} and is rescanning it",
+                      "Some change events were discarded by the file system.  The connector scans the whole directory to find the changes it missed.",
+                      "No action is required unless this message occurs frequently, in which case set monitorMode to poll for this directory."),
+
+    DIRECTORY_SCANNED("BASIC-FILES-INTEGRATION-CONNECTORS-0024",
+                      OMRSAuditLogRecordSeverity.INFO,
+                      "The {0} integration connector scanned {1} files in directory {2} in {3} milliseconds and found {4} new, {5} changed and {6} deleted files",
+                      "The connector compared the files in the directory with the snapshot from its previous scan and processed the differences.",
+                      "No action is required.  This message records the cost of the scan."),
+
+    SNAPSHOT_LOADED("BASIC-FILES-INTEGRATION-CONNECTORS-0025",
+                      OMRSAuditLogRecordSeverity.INFO,
+                      "The {0} integration connector has restored the last known state of {1} files in directory {2} from snapshot file {3}",
+                      "The files that have not changed since the connector last ran are not catalogued again.",
+                      "No action is required.  Delete the snapshot file while the connector is stopped to force it to process every file in the directory."),
+
+    UNEXPECTED_EXC_SNAPSHOT("BASIC-FILES-INTEGRATION-CONNECTORS-0026",
+                      OMRSAuditLogRecordSeverity.EXCEPTION,
+                      "An unexpected {0} exception occurred when the {1} integration connector was using snapshot file {2} in the {3} method.  The error message was {4}",
+                      "The connector continues to monitor the directory.  If the snapshot could not be restored, every file in the directory is " +
+                              "treated as new.  If it could not be saved, the changes since the last save are processed again after a restart.",
+                      "Use the message in the unexpected exception to determine why the snapshot file can not be read or written, " +
+                              "or set the snapshotFileName configuration property to a location that the integration daemon can write to."),
+
+    UNEXPECTED_EXC_WATCHING("BASIC-FILES-INTEGRATION-CONNECTORS-0027",
+                      OMRSAuditLogRecordSeverity.EXCEPTION,
+                      "An unexpected {0} exception occurred when the {1} integration connector was processing the change events for directory {2}.  The error message was {3}",
+                      "The connector continues to watch the directory.  The changes that were being processed are picked up by the next refresh.",
+                      "Use the message in the unexpected exception to determine the root cause of the error.  If the error persists, " +
+                              "set monitorMode to poll for this directory while the cause is fixed."),
+
 
     ;
 
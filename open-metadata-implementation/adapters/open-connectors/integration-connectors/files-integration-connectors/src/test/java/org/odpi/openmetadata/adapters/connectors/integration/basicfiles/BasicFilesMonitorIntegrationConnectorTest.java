@@ -0,0 +1,240 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.connectors.integration.basicfiles;
+
+import org.apache.commons.io.FileUtils;
+import org.odpi.openmetadata.frameworks.connectors.properties.ConnectionProperties;
+import org.odpi.openmetadata.frameworks.connectors.properties.beans.Connection;
+import org.odpi.openmetadata.frameworks.connectors.properties.beans.Endpoint;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertTrue;
+
+
+/**
+ * Verify that the files monitor connectors poll the directory when asked to or when the directory can not be
+ * watched, and that each monitored directory has its own snapshot file.
+ */
+public class BasicFilesMonitorIntegrationConnectorTest
+{
+    private Path workDirectory;
+    private Path rootDirectory;
+
+
+    /**
+     * Create an empty directory to monitor for each test.
+     *
+     * @throws IOException unable to create the directories
+     */
+    @BeforeMethod
+    public void setUp() throws IOException
+    {
+        workDirectory = Files.createTempDirectory("files-monitor-test");
+        rootDirectory = Files.createDirectories(workDirectory.resolve("monitored"));
+    }
+
+
+    /**
+     * Remove the directories.
+     *
+     * @throws IOException unable to delete the directories
+     */
+    @AfterMethod
+    public void tearDown() throws IOException
+    {
+        FileUtils.deleteDirectory(workDirectory.toFile());
+    }
+
+
+    /**
+     * In poll mode the connector finds new files by scanning the directory at the poll interval.
+     *
+     * @throws Exception unable to start the connector or interrupted while waiting
+     */
+    @Test(timeOut = 60000)
+    public void testPollMode() throws Exception
+    {
+        Map<String, Object> configurationProperties = this.getConfigurationProperties();
+
+        configurationProperties.put(BasicFilesMonitorIntegrationProviderBase.MONITOR_MODE_CONFIGURATION_PROPERTY,
+                                    BasicFilesMonitorIntegrationProviderBase.POLL_MONITOR_MODE);
+
+        RecordingFilesMonitorConnector connector = this.getConnector(rootDirectory, configurationProperties);
+
+        connector.start();
+
+        try
+        {
+            Path file = this.writeFile(rootDirectory.resolve("polled.csv"));
+
+            this.waitFor(() -> connector.listener.created.contains(file.toString()));
+            assertEquals(connector.watchFailCount.get(), 0);
+        }
+        finally
+        {
+            connector.disconnect();
+        }
+    }
+
+
+    /**
+     * When the watch service fails, for example because the operating system has run out of watches, the
+     * connector switches to polling.
+     *
+     * @throws Exception unable to start the connector or interrupted while waiting
+     */
+    @Test(timeOut = 60000)
+    public void testWatchFailureFallsBackToPolling() throws Exception
+    {
+        RecordingFilesMonitorConnector connector = this.getConnector(rootDirectory, this.getConfigurationProperties());
+
+        connector.start();
+
+        try
+        {
+            /*
+             * The watcher thread stops when the watch service fails and then reports the failure.
+             */
+            connector.stopDirectoryMonitoring("testWatchFailureFallsBackToPolling");
+            connector.watchFailed(rootDirectory, new IOException("User limit of inotify watches reached"));
+
+            Path file = this.writeFile(rootDirectory.resolve("polled.csv"));
+
+            this.waitFor(() -> connector.listener.created.contains(file.toString()));
+        }
+        finally
+        {
+            connector.disconnect();
+        }
+    }
+
+
+    /**
+     * A configured snapshot file name is given the hash of the monitored directory so that connectors that share
+     * the configuration for different directories do not use the same snapshot.
+     *
+     * @throws Exception unable to create the directories
+     */
+    @Test
+    public void testSnapshotFileIncludesDirectoryHash() throws Exception
+    {
+        Path                otherDirectory          = Files.createDirectories(workDirectory.resolve("other"));
+        Map<String, Object> configurationProperties = this.getConfigurationProperties();
+        Path                configuredFile          = workDirectory.resolve("snapshots").resolve("monitor.snapshot");
+
+        configurationProperties.put(BasicFilesMonitorIntegrationProviderBase.SNAPSHOT_FILE_NAME_CONFIGURATION_PROPERTY,
+                                    configuredFile.toString());
+
+        Path snapshotFile      = this.getConnector(rootDirectory, configurationProperties).getSnapshotFile(rootDirectory.toFile());
+        Path otherSnapshotFile = this.getConnector(otherDirectory, configurationProperties).getSnapshotFile(otherDirectory.toFile());
+
+        assertEquals(snapshotFile.getParent(), configuredFile.getParent());
+        assertEquals(snapshotFile.getFileName().toString(),
+                     "monitor-" + Integer.toHexString(rootDirectory.toFile().getAbsolutePath().hashCode()) + ".snapshot");
+        assertNotEquals(snapshotFile, otherSnapshotFile);
+
+        /*
+         * A name without an extension has the hash added at the end.
+         */
+        configurationProperties.put(BasicFilesMonitorIntegrationProviderBase.SNAPSHOT_FILE_NAME_CONFIGURATION_PROPERTY,
+                                    workDirectory.resolve("monitor").toString());
+
+        assertEquals(this.getConnector(rootDirectory, configurationProperties).getSnapshotFile(rootDirectory.toFile()).getFileName().toString(),
+                     "monitor-" + Integer.toHexString(rootDirectory.toFile().getAbsolutePath().hashCode()));
+
+        /*
+         * The default name is also different for each directory.
+         */
+        configurationProperties.remove(BasicFilesMonitorIntegrationProviderBase.SNAPSHOT_FILE_NAME_CONFIGURATION_PROPERTY);
+
+        assertNotEquals(this.getConnector(rootDirectory, configurationProperties).getSnapshotFile(rootDirectory.toFile()),
+                        this.getConnector(otherDirectory, configurationProperties).getSnapshotFile(otherDirectory.toFile()));
+    }
+
+
+    /**
+     * Return configuration properties that keep the snapshot in the work directory and poll frequently.
+     *
+     * @return configuration properties
+     */
+    private Map<String, Object> getConfigurationProperties()
+    {
+        Map<String, Object> configurationProperties = new HashMap<>();
+
+        configurationProperties.put(BasicFilesMonitorIntegrationProviderBase.SNAPSHOT_FILE_NAME_CONFIGURATION_PROPERTY,
+                                    workDirectory.resolve("monitor.snapshot").toString());
+        configurationProperties.put(BasicFilesMonitorIntegrationProviderBase.POLL_INTERVAL_CONFIGURATION_PROPERTY, 100);
+
+        return configurationProperties;
+    }
+
+
+    /**
+     * Create a connector for a directory.
+     *
+     * @param directory directory to monitor
+     * @param configurationProperties configuration properties for the connection
+     * @return initialized connector
+     */
+    private RecordingFilesMonitorConnector getConnector(Path                directory,
+                                                        Map<String, Object> configurationProperties)
+    {
+        Endpoint endpoint = new Endpoint();
+        endpoint.setAddress(directory.toString());
+
+        Connection connection = new Connection();
+        connection.setEndpoint(endpoint);
+        connection.setConfigurationProperties(configurationProperties);
+
+        RecordingFilesMonitorConnector connector = new RecordingFilesMonitorConnector();
+
+        connector.initialize(UUID.randomUUID().toString(), new ConnectionProperties(connection));
+
+        return connector;
+    }
+
+
+    /**
+     * Write a file.
+     *
+     * @param file path of the file
+     * @return path of the file
+     * @throws IOException unable to write the file
+     */
+    private Path writeFile(Path file) throws IOException
+    {
+        return Files.write(file, file.getFileName().toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+
+    /**
+     * Wait until a condition is true.
+     *
+     * @param condition condition to test
+     * @throws InterruptedException interrupted while waiting
+     */
+    private void waitFor(BooleanSupplier condition) throws InterruptedException
+    {
+        long deadline = System.currentTimeMillis() + 30000;
+
+        while ((! condition.getAsBoolean()) && (System.currentTimeMillis() < deadline))
+        {
+            Thread.sleep(10);
+        }
+
+        assertTrue(condition.getAsBoolean());
+    }
+}
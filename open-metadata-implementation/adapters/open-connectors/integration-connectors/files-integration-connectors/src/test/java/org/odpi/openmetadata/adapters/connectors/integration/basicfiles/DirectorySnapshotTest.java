@@ -0,0 +1,210 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.connectors.integration.basicfiles;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.monitor.FileAlterationListenerAdaptor;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+
+/**
+ * Verify that DirectorySnapshot reports only the differences since the previous scan, including across a restart.
+ */
+public class DirectorySnapshotTest
+{
+    private Path rootDirectory;
+    private Path snapshotFile;
+
+
+    /**
+     * Create an empty directory tree for each test.
+     *
+     * @throws IOException unable to create the directories
+     */
+    @BeforeMethod
+    public void setUp() throws IOException
+    {
+        rootDirectory = Files.createTempDirectory("directory-snapshot-test");
+        snapshotFile = rootDirectory.resolve("monitor.snapshot");
+    }
+
+
+    /**
+     * Remove the directory tree.
+     *
+     * @throws IOException unable to delete the directories
+     */
+    @AfterMethod
+    public void tearDown() throws IOException
+    {
+        FileUtils.deleteDirectory(rootDirectory.toFile());
+    }
+
+
+    /**
+     * Scans report new, changed and deleted files in subdirectories and nothing when the files are unchanged.
+     *
+     * @throws IOException unable to create the files
+     */
+    @Test
+    public void testIncrementalScan() throws IOException
+    {
+        Path subdirectory = Files.createDirectories(rootDirectory.resolve("a").resolve("b"));
+        Path file1        = this.writeFile(rootDirectory.resolve("one.csv"), "1");
+        Path file2        = this.writeFile(subdirectory.resolve("two.csv"), "2");
+
+        DirectorySnapshot snapshot = new DirectorySnapshot(rootDirectory, snapshotFile, 2);
+        RecordingListener listener = new RecordingListener();
+
+        try
+        {
+            DirectorySnapshot.ScanResult scanResult = snapshot.scan(rootDirectory, listener);
+
+            assertEquals(scanResult.files, 2);
+            assertEquals(scanResult.created, 2);
+            assertTrue(listener.created.contains(file1.toString()));
+            assertTrue(listener.created.contains(file2.toString()));
+
+            listener.clear();
+            scanResult = snapshot.scan(rootDirectory, listener);
+
+            assertEquals(scanResult.created + scanResult.changed + scanResult.deleted, 0);
+            assertTrue(listener.isEmpty());
+
+            this.writeFile(file1, "changed");
+            Files.delete(file2);
+
+            scanResult = snapshot.scan(rootDirectory, listener);
+
+            assertEquals(scanResult.changed, 1);
+            assertEquals(scanResult.deleted, 1);
+            assertEquals(listener.changed.get(0), file1.toString());
+            assertEquals(listener.deleted.get(0), file2.toString());
+        }
+        finally
+        {
+            snapshot.close();
+        }
+    }
+
+
+    /**
+     * A saved snapshot means that a new instance only reports the changes made while it was not running.
+     *
+     * @throws IOException unable to create the files
+     */
+    @Test
+    public void testSnapshotSurvivesRestart() throws IOException
+    {
+        Path file1 = this.writeFile(rootDirectory.resolve("one.csv"), "1");
+
+        DirectorySnapshot snapshot = new DirectorySnapshot(rootDirectory, snapshotFile, 1);
+
+        try
+        {
+            snapshot.scan(rootDirectory, null);
+            snapshot.save();
+        }
+        finally
+        {
+            snapshot.close();
+        }
+
+        Path file2 = this.writeFile(rootDirectory.resolve("two.csv"), "2");
+
+        DirectorySnapshot restartedSnapshot = new DirectorySnapshot(rootDirectory, snapshotFile, 1);
+        RecordingListener listener          = new RecordingListener();
+
+        try
+        {
+            assertEquals(restartedSnapshot.load(), 1);
+
+            restartedSnapshot.scan(rootDirectory, listener);
+
+            assertEquals(listener.created.size(), 1);
+            assertEquals(listener.created.get(0), file2.toString());
+            assertTrue(listener.changed.isEmpty());
+            assertTrue(listener.deleted.isEmpty());
+
+            listener.clear();
+            restartedSnapshot.forget(file1.toFile());
+            restartedSnapshot.scan(file1, listener);
+
+            assertEquals(listener.created.size(), 1);
+            assertEquals(listener.created.get(0), file1.toString());
+        }
+        finally
+        {
+            restartedSnapshot.close();
+        }
+    }
+
+
+    /**
+     * Write a file.
+     *
+     * @param file path of the file
+     * @param content content to write
+     * @return path of the file
+     * @throws IOException unable to write the file
+     */
+    private Path writeFile(Path   file,
+                           String content) throws IOException
+    {
+        return Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+
+    /**
+     * Records the names of the files reported by a scan.
+     */
+    private static class RecordingListener extends FileAlterationListenerAdaptor
+    {
+        private final List<String> created = new ArrayList<>();
+        private final List<String> changed = new ArrayList<>();
+        private final List<String> deleted = new ArrayList<>();
+
+        @Override
+        public void onFileCreate(File file)
+        {
+            created.add(file.getPath());
+        }
+
+        @Override
+        public void onFileChange(File file)
+        {
+            changed.add(file.getPath());
+        }
+
+        @Override
+        public void onFileDelete(File file)
+        {
+            deleted.add(file.getPath());
+        }
+
+        void clear()
+        {
+            created.clear();
+            changed.clear();
+            deleted.clear();
+        }
+
+        boolean isEmpty()
+        {
+            return created.isEmpty() && changed.isEmpty() && deleted.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,257 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.connectors.integration.basicfiles;
+
+import org.apache.commons.io.FileUtils;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+
+/**
+ * Verify that DirectoryWatcher turns a burst of events for a file into a single change and rescans the whole
+ * directory when the watch service loses events.
+ */
+public class DirectoryWatcherTest
+{
+    private static final long coalesceInterval = 300;
+
+    private Path                           rootDirectory;
+    private DirectorySnapshot              snapshot;
+    private RecordingFilesMonitorConnector connector;
+    private DirectoryWatcher               watcher;
+
+
+    /**
+     * Create an empty directory and a snapshot of it for each test.
+     *
+     * @throws IOException unable to create the directory
+     */
+    @BeforeMethod
+    public void setUp() throws IOException
+    {
+        rootDirectory = Files.createTempDirectory("directory-watcher-test");
+        snapshot      = new DirectorySnapshot(rootDirectory, rootDirectory.resolveSibling(rootDirectory.getFileName() + ".snapshot"), 2);
+        connector     = new RecordingFilesMonitorConnector();
+        watcher       = null;
+
+        snapshot.scan(rootDirectory, null);
+    }
+
+
+    /**
+     * Stop the watcher and remove the directory.
+     *
+     * @throws IOException unable to delete the directory
+     */
+    @AfterMethod
+    public void tearDown() throws IOException
+    {
+        if (watcher != null)
+        {
+            watcher.stop();
+        }
+
+        snapshot.close();
+        FileUtils.deleteDirectory(rootDirectory.toFile());
+    }
+
+
+    /**
+     * The create and modify events for a file written in several steps are reported as one new file.  A later
+     * change to the file is reported once as a change.
+     *
+     * @throws Exception unable to write the file or interrupted while waiting
+     */
+    @Test(timeOut = 60000)
+    public void testBurstOfEventsIsCoalesced() throws Exception
+    {
+        RecordingFileListener listener = new RecordingFileListener();
+
+        this.startWatcher(listener);
+
+        Path file = rootDirectory.resolve("burst.csv");
+
+        this.writeFile(file, "header\n");
+
+        for (int i = 0; i < 10; i++)
+        {
+            Files.write(file, ("row " + i + "\n").getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+            Thread.sleep(10);
+        }
+
+        this.waitFor(() -> ! listener.created.isEmpty());
+        Thread.sleep(coalesceInterval * 3);
+
+        assertEquals(listener.created, Collections.singletonList(file.toString()));
+        assertTrue(listener.changed.isEmpty());
+
+        /*
+         * A later burst of changes is one change.
+         */
+        for (int i = 0; i < 5; i++)
+        {
+            Files.write(file, ("more " + i + "\n").getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+            Thread.sleep(10);
+        }
+
+        this.waitFor(() -> ! listener.changed.isEmpty());
+        Thread.sleep(coalesceInterval * 3);
+
+        assertEquals(listener.changed, Collections.singletonList(file.toString()));
+        assertEquals(listener.created.size(), 1);
+        assertEquals(connector.overflowCount.get(), 0);
+    }
+
+
+    /**
+     * Files added to a new subdirectory are reported once the subdirectory is being watched.
+     *
+     * @throws Exception unable to write the files or interrupted while waiting
+     */
+    @Test(timeOut = 60000)
+    public void testNewSubdirectoryIsWatched() throws Exception
+    {
+        RecordingFileListener listener = new RecordingFileListener();
+
+        this.startWatcher(listener);
+
+        Path subdirectory = Files.createDirectories(rootDirectory.resolve("new"));
+        Path file1        = this.writeFile(subdirectory.resolve("one.csv"), "1");
+
+        this.waitFor(() -> listener.created.contains(file1.toString()));
+        Thread.sleep(coalesceInterval * 3);
+
+        /*
+         * The subdirectory is now registered so a file added later is still seen.
+         */
+        Path file2 = this.writeFile(subdirectory.resolve("two.csv"), "2");
+
+        this.waitFor(() -> listener.created.contains(file2.toString()));
+        assertEquals(listener.created.size(), 2);
+    }
+
+
+    /**
+     * When more events arrive than the watch service can hold, the watcher logs the overflow and rescans the
+     * whole directory so that none of the new files are missed.
+     *
+     * @throws Exception unable to write the files or interrupted while waiting
+     */
+    @Test(timeOut = 120000)
+    public void testOverflowTriggersFullRescan() throws Exception
+    {
+        CountDownLatch watcherBlocked = new CountDownLatch(1);
+        CountDownLatch releaseWatcher = new CountDownLatch(1);
+
+        /*
+         * The first file holds up the watcher thread so that the events for the other files build up until the
+         * watch service discards them.
+         */
+        RecordingFileListener listener = new RecordingFileListener()
+        {
+            @Override
+            public void onFileCreate(File file)
+            {
+                super.onFileCreate(file);
+
+                if (file.getName().equals("first.csv"))
+                {
+                    watcherBlocked.countDown();
+
+                    try
+                    {
+                        releaseWatcher.await(60, TimeUnit.SECONDS);
+                    }
+                    catch (InterruptedException stopped)
+                    {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }
+        };
+
+        this.startWatcher(listener);
+        this.writeFile(rootDirectory.resolve("first.csv"), "first");
+
+        assertTrue(watcherBlocked.await(30, TimeUnit.SECONDS));
+
+        List<String> files = new ArrayList<>();
+
+        for (int i = 0; i < 1000; i++)
+        {
+            files.add(this.writeFile(rootDirectory.resolve("file" + i + ".csv"), Integer.toString(i)).toString());
+        }
+
+        Thread.sleep(coalesceInterval);
+        releaseWatcher.countDown();
+
+        this.waitFor(() -> listener.created.containsAll(files));
+
+        assertEquals(connector.overflowCount.get(), 1);
+        assertEquals(listener.created.size(), files.size() + 1);
+    }
+
+
+    /**
+     * Start a watcher on the root directory.
+     *
+     * @param listener listener to receive the changes
+     * @throws IOException the watch service is not available
+     */
+    private void startWatcher(RecordingFileListener listener) throws IOException
+    {
+        watcher = new DirectoryWatcher(connector, rootDirectory, snapshot, listener, coalesceInterval, 60000);
+        watcher.start("DirectoryWatcherTest");
+    }
+
+
+    /**
+     * Write a file.
+     *
+     * @param file path of the file
+     * @param content content to write
+     * @return path of the file
+     * @throws IOException unable to write the file
+     */
+    private Path writeFile(Path   file,
+                           String content) throws IOException
+    {
+        return Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+
+    /**
+     * Wait until a condition is true.
+     *
+     * @param condition condition to test
+     * @throws InterruptedException interrupted while waiting
+     */
+    private void waitFor(BooleanSupplier condition) throws InterruptedException
+    {
+        long deadline = System.currentTimeMillis() + 30000;
+
+        while ((! condition.getAsBoolean()) && (System.currentTimeMillis() < deadline))
+        {
+            Thread.sleep(10);
+        }
+
+        assertTrue(condition.getAsBoolean());
+    }
+}
@@ -0,0 +1,57 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.connectors.integration.basicfiles;
+
+import org.apache.commons.io.monitor.FileAlterationListenerAdaptor;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+
+/**
+ * Records the names of the files reported to a listener.  The lists can be read while the watcher or poller
+ * threads are adding to them.
+ */
+class RecordingFileListener extends FileAlterationListenerAdaptor
+{
+    final List<String> created = new CopyOnWriteArrayList<>();
+    final List<String> changed = new CopyOnWriteArrayList<>();
+    final List<String> deleted = new CopyOnWriteArrayList<>();
+
+
+    /**
+     * A file has been created.
+     *
+     * @param file new file
+     */
+    @Override
+    public void onFileCreate(File file)
+    {
+        created.add(file.getPath());
+    }
+
+
+    /**
+     * A file has been changed.
+     *
+     * @param file changed file
+     */
+    @Override
+    public void onFileChange(File file)
+    {
+        changed.add(file.getPath());
+    }
+
+
+    /**
+     * A file has been deleted.
+     *
+     * @param file deleted file
+     */
+    @Override
+    public void onFileDelete(File file)
+    {
+        deleted.add(file.getPath());
+    }
+}
@@ -0,0 +1,69 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.connectors.integration.basicfiles;
+
+import org.apache.commons.io.monitor.FileAlterationListenerAdaptor;
+
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * Files monitor connector that passes the changes to a recording listener and counts the calls made to it by the
+ * directory watcher.
+ */
+class RecordingFilesMonitorConnector extends BasicFilesMonitorIntegrationConnectorBase
+{
+    final RecordingFileListener listener       = new RecordingFileListener();
+    final AtomicInteger         overflowCount  = new AtomicInteger();
+    final AtomicInteger         watchFailCount = new AtomicInteger();
+
+
+    /**
+     * Return the recording listener.
+     *
+     * @return listener
+     */
+    @Override
+    FileAlterationListenerAdaptor getListener()
+    {
+        return listener;
+    }
+
+
+    /**
+     * Nothing to refresh.
+     */
+    @Override
+    public void refresh()
+    {
+    }
+
+
+    /**
+     * Count the lost events before the watcher rescans the directory.
+     *
+     * @param directory directory being watched
+     */
+    @Override
+    void logWatchOverflow(Path directory)
+    {
+        overflowCount.incrementAndGet();
+        super.logWatchOverflow(directory);
+    }
+
+
+    /**
+     * Count the failures of the watch service before the connector switches to polling.
+     *
+     * @param directory directory being watched
+     * @param error exception from the watch service
+     */
+    @Override
+    void watchFailed(Path      directory,
+                     Exception error)
+    {
+        watchFailCount.incrementAndGet();
+        super.watchFailed(directory, error);
+    }
+}
@@ -0,0 +1,986 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.repositoryservices.auditlogstore.file;
+
+import org.odpi.openmetadata.frameworks.auditlog.AuditLogRecord;
+import org.odpi.openmetadata.repositoryservices.serialization.OMRSJSONSerializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.ref.SoftReference;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+
+/**
+ * AuditLogSegment is one file of the append-only audit log.  Each log record is stored as a line of JSON in
+ * the data file.  A sidecar index file holds an entry for each record with its position in the data file, its
+ * time stamp, severity and reporting component, and a hash of its GUID.  The index is held in memory too, along
+ * with the list of entries for each severity and component and a hash table of the GUIDs, so queries only read
+ * the records they return.  The in-memory index is guarded by the segment's own lock so the segments can be
+ * queried without holding up records being written to other segments.  The in-memory index of a sealed segment
+ * can be released to bound the memory used by a large audit log.  It is loaded again from the index file the
+ * next time the segment is queried.  The time range and entry count are kept so a released segment that is
+ * outside a query's time period is skipped without loading its index.
+ *
+ * Only the newest segment is written to.  Once it is sealed it does not change, except that its data file may be
+ * compressed with gzip.  The index always refers to the positions of the uncompressed records.
+ */
+class AuditLogSegment
+{
+    private static final Logger log = LoggerFactory.getLogger(AuditLogSegment.class);
+
+    static final String fileNamePrefix       = "auditlog-";
+    static final String dataFileSuffix       = ".jsonl";
+    static final String compressedFileSuffix = ".jsonl.gz";
+    static final String indexFileSuffix      = ".index";
+
+    private static final long indexFileMarker = 0x4F4D5253414C4931L;   // "OMRSALI1"
+    private static final int  initialEntries  = 1024;
+    private static final int  bufferSize      = 64 * 1024;
+
+    private final long segmentNumber;
+    private final File directory;
+    private       File dataFile;
+    private final File indexFile;
+    private final long creationTime;
+
+    /*
+     * The index.  Entry i describes the i'th record in the data file.  The arrays, the GUID table and the
+     * severity and component lists are null while the index is released.
+     */
+    private boolean  indexLoaded   = true;
+    private int      entryCount    = 0;
+    private long[]   timeStamps    = new long[initialEntries];
+    private long[]   offsets       = new long[initialEntries];
+    private int[]    lengths       = new int[initialEntries];
+    private int[]    guidHashes    = new int[initialEntries];
+    private int[]    guidTable     = new int[initialEntries * 2];
+    private long     minTimeStamp  = Long.MAX_VALUE;
+    private long     maxTimeStamp  = Long.MIN_VALUE;
+    private final Map<String, EntryList> severityEntries  = new HashMap<>();
+    private final Map<String, EntryList> componentEntries = new HashMap<>();
+
+    /*
+     * Writing - only set while the segment is active.
+     */
+    private FileChannel      dataChannel  = null;
+    private FileChannel      indexChannel = null;
+    private OutputStream     dataOutput   = null;
+    private DataOutputStream indexOutput  = null;
+    private long             dataSize     = 0;
+
+    /*
+     * Reading.
+     */
+    private FileChannel           readChannel      = null;
+    private SoftReference<byte[]> uncompressedData = new SoftReference<>(null);
+
+
+    /**
+     * Constructor is private - use create() or open().
+     *
+     * @param directory directory holding the audit log
+     * @param segmentNumber number of the segment - segments are numbered in the order they are created
+     * @param dataFile file holding the records
+     * @param creationTime time the segment was created
+     */
+    private AuditLogSegment(File directory,
+                            long segmentNumber,
+                            File dataFile,
+                            long creationTime)
+    {
+        this.directory     = directory;
+        this.segmentNumber = segmentNumber;
+        this.dataFile      = dataFile;
+        this.indexFile     = new File(directory, getFileName(segmentNumber, indexFileSuffix));
+        this.creationTime  = creationTime;
+    }
+
+
+    /**
+     * Create a new empty segment ready for writing.
+     *
+     * @param directory directory holding the audit log
+     * @param segmentNumber number of the segment
+     * @return active segment
+     * @throws IOException unable to create the files
+     */
+    static AuditLogSegment create(File directory,
+                                  long segmentNumber) throws IOException
+    {
+        AuditLogSegment segment = new AuditLogSegment(directory,
+                                                      segmentNumber,
+                                                      new File(directory, getFileName(segmentNumber, dataFileSuffix)),
+                                                      System.currentTimeMillis());
+
+        segment.dataChannel  = FileChannel.open(segment.dataFile.toPath(),
+                                                StandardOpenOption.CREATE_NEW,
+                                                StandardOpenOption.WRITE);
+        segment.indexChannel = FileChannel.open(segment.indexFile.toPath(),
+                                                StandardOpenOption.CREATE,
+                                                StandardOpenOption.TRUNCATE_EXISTING,
+                                                StandardOpenOption.WRITE);
+
+        segment.dataOutput   = new BufferedOutputStream(Channels.newOutputStream(segment.dataChannel), bufferSize);
+        segment.indexOutput  = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(segment.indexChannel),
+                                                                             bufferSize));
+        segment.indexOutput.writeLong(indexFileMarker);
+
+        return segment;
+    }
+
+
+    /**
+     * Open an existing segment for reading.  The index file is loaded.  If it is missing, or does not match the
+     * data file because the server stopped before they were both written, the index is rebuilt from the data file.
+     * A partly written record at the end of an uncompressed data file is removed.
+     *
+     * @param directory directory holding the audit log
+     * @param segmentNumber number of the segment
+     * @param dataFile file holding the records
+     * @return sealed segment
+     * @throws IOException unable to read the segment
+     */
+    static AuditLogSegment open(File directory,
+                                long segmentNumber,
+                                File dataFile) throws IOException
+    {
+        AuditLogSegment segment = new AuditLogSegment(directory, segmentNumber, dataFile, dataFile.lastModified());
+
+        if (! segment.loadIndex())
+        {
+            log.info("Rebuilding audit log index {}", segment.indexFile.getPath());
+            segment.rebuildIndex();
+        }
+
+        return segment;
+    }
+
+
+    /**
+     * Return the file name for a segment.
+     *
+     * @param segmentNumber number of the segment
+     * @param suffix type of file
+     * @return file name
+     */
+    static String getFileName(long   segmentNumber,
+                              String suffix)
+    {
+        return String.format("%s%012d%s", fileNamePrefix, segmentNumber, suffix);
+    }
+
+
+    /**
+     * Return the segment number from the name of a data file.
+     *
+     * @param fileName file name
+     * @return segment number or -1 if this is not a segment data file
+     */
+    static long getSegmentNumber(String fileName)
+    {
+        String number;
+
+        if (fileName.startsWith(fileNamePrefix) && fileName.endsWith(compressedFileSuffix))
+        {
+            number = fileName.substring(fileNamePrefix.length(), fileName.length() - compressedFileSuffix.length());
+        }
+        else if (fileName.startsWith(fileNamePrefix) && fileName.endsWith(dataFileSuffix))
+        {
+            number = fileName.substring(fileNamePrefix.length(), fileName.length() - dataFileSuffix.length());
+        }
+        else
+        {
+            return -1;
+        }
+
+        try
+        {
+            return Long.parseLong(number);
+        }
+        catch (NumberFormatException error)
+        {
+            return -1;
+        }
+    }
+
+
+    /**
+     * Add a record to the end of the segment.  It is buffered until the next flush.
+     *
+     * @param json JSON form of the record
+     * @param timeStamp time stamp of the record
+     * @param guid unique identifier of the record
+     * @param severity severity of the record
+     * @param component name of the component that wrote the record
+     * @throws IOException unable to write to the segment
+     */
+    synchronized void append(byte[] json,
+                             long   timeStamp,
+                             String guid,
+                             String severity,
+                             String component) throws IOException
+    {
+        dataOutput.write(json);
+        dataOutput.write('\n');
+
+        indexOutput.writeLong(timeStamp);
+        indexOutput.writeLong(dataSize);
+        indexOutput.writeInt(json.length);
+        indexOutput.writeInt(getGUIDHash(guid));
+        indexOutput.writeUTF(severity);
+        indexOutput.writeUTF(component);
+
+        addEntry(timeStamp, dataSize, json.length, getGUIDHash(guid), severity, component);
+
+        dataSize += json.length + 1;
+    }
+
+
+    /**
+     * Pass the buffered records to the operating system so they can be read.
+     *
+     * @throws IOException unable to write to the segment
+     */
+    synchronized void flush() throws IOException
+    {
+        if (dataOutput != null)
+        {
+            dataOutput.flush();
+            indexOutput.flush();
+        }
+    }
+
+
+    /**
+     * Flush the buffered records and force them to disk.  This does nothing once the segment is sealed since sealing
+     * forces the records to disk.
+     *
+     * @throws IOException unable to write to the segment
+     */
+    synchronized void sync() throws IOException
+    {
+        if (dataChannel != null)
+        {
+            flush();
+            dataChannel.force(false);
+            indexChannel.force(false);
+        }
+    }
+
+
+    /**
+     * Force the records to disk and close the files for writing.
+     *
+     * @throws IOException unable to write to the segment
+     */
+    synchronized void seal() throws IOException
+    {
+        if (dataChannel != null)
+        {
+            sync();
+
+            dataOutput.close();
+            indexOutput.close();
+
+            dataChannel  = null;
+            indexChannel = null;
+            dataOutput   = null;
+            indexOutput  = null;
+        }
+    }
+
+
+    /**
+     * Replace the data file of a sealed segment with a gzip compressed copy.
+     *
+     * @throws IOException unable to compress the file
+     */
+    void compress() throws IOException
+    {
+        File compressedFile;
+
+        synchronized (this)
+        {
+            if ((dataChannel != null) || (dataFile.getName().endsWith(compressedFileSuffix)))
+            {
+                return;
+            }
+
+            compressedFile = new File(directory, getFileName(segmentNumber, compressedFileSuffix));
+        }
+
+        /*
+         * The copy is written without holding the lock so the segment can still be queried.
+         */
+        File originalFile = dataFile;
+        File workFile     = new File(directory, compressedFile.getName() + ".tmp");
+
+        try (InputStream  input  = new FileInputStream(originalFile);
+             OutputStream output = new GZIPOutputStream(new FileOutputStream(workFile), bufferSize))
+        {
+            byte[] buffer = new byte[bufferSize];
+
+            for (int length = input.read(buffer); length >= 0; length = input.read(buffer))
+            {
+                output.write(buffer, 0, length);
+            }
+        }
+
+        Files.move(workFile.toPath(), compressedFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+
+        synchronized (this)
+        {
+            closeReadChannel();
+            dataFile = compressedFile;
+        }
+
+        Files.deleteIfExists(originalFile.toPath());
+    }
+
+
+    /**
+     * Release the files held open for reading and writing.
+     */
+    synchronized void close()
+    {
+        try
+        {
+            seal();
+        }
+        catch (IOException error)
+        {
+            log.error("Unable to close audit log segment {}", dataFile.getPath(), error);
+        }
+
+        closeReadChannel();
+        uncompressedData.clear();
+    }
+
+
+    /**
+     * Return the JSON of a record.  The segment must have been flushed since the record was appended.
+     *
+     * @param entry index entry for the record
+     * @return JSON bytes
+     * @throws IOException unable to read the record
+     */
+    synchronized byte[] readRecord(int entry) throws IOException
+    {
+        ensureIndexLoaded();
+
+        byte[] json = new byte[lengths[entry]];
+
+        if (dataFile.getName().endsWith(compressedFileSuffix))
+        {
+            System.arraycopy(getUncompressedData(), (int) offsets[entry], json, 0, json.length);
+        }
+        else
+        {
+            if (readChannel == null)
+            {
+                readChannel = FileChannel.open(dataFile.toPath(), StandardOpenOption.READ);
+            }
+
+            ByteBuffer buffer   = ByteBuffer.wrap(json);
+            long       position = offsets[entry];
+
+            while (buffer.hasRemaining())
+            {
+                int length = readChannel.read(buffer, position);
+
+                if (length < 0)
+                {
+                    throw new EOFException("Audit log record " + entry + " is missing from " + dataFile.getPath());
+                }
+
+                position += length;
+            }
+        }
+
+        return json;
+    }
+
+
+    /**
+     * Return the entries for records whose GUID has the same hash as the requested GUID.  The GUID hash table
+     * is used so a segment that does not hold the record is usually ruled out with a single probe.
+     *
+     * @param guid requested GUID
+     * @return entries with the newest first - empty if there are none
+     * @throws IOException unable to load the index
+     */
+    synchronized EntryList getGUIDEntries(String guid) throws IOException
+    {
+        ensureIndexLoaded();
+
+        EntryList candidates = new EntryList();
+        int       guidHash   = getGUIDHash(guid);
+        int       mask       = guidTable.length - 1;
+
+        for (int slot = guidHash & mask; guidTable[slot] != 0; slot = (slot + 1) & mask)
+        {
+            int entry = guidTable[slot] - 1;
+
+            if (guidHashes[entry] == guidHash)
+            {
+                candidates.add(entry);
+            }
+        }
+
+        candidates.reverse();
+
+        return candidates;
+    }
+
+
+    /**
+     * Return the entries for records in the time period that match the severity or component, in the order they
+     * were written.  Only the entries for the requested severity or component are checked.
+     *
+     * @param severity severity to match or null for any severity
+     * @param component component to match or null for any component
+     * @param startTime start of the time period
+     * @param endTime end of the time period
+     * @param maximumEntries maximum number of entries to return - 0 for no limit
+     * @return matching entries - empty if there are none
+     * @throws IOException unable to load the index
+     */
+    synchronized EntryList findEntries(String severity,
+                                       String component,
+                                       long   startTime,
+                                       long   endTime,
+                                       int    maximumEntries) throws IOException
+    {
+        EntryList matches = new EntryList();
+
+        if ((entryCount == 0) || (maxTimeStamp < startTime) || (minTimeStamp > endTime))
+        {
+            return matches;
+        }
+
+        ensureIndexLoaded();
+
+        EntryList entries = null;
+
+        if (severity != null)
+        {
+            entries = severityEntries.get(severity);
+        }
+        else if (component != null)
+        {
+            entries = componentEntries.get(component);
+        }
+
+        int candidateCount = (entries != null) ? entries.size() : ((severity == null) && (component == null)) ? entryCount : 0;
+
+        for (int i = 0; i < candidateCount; i++)
+        {
+            int entry = (entries != null) ? entries.get(i) : i;
+
+            if ((timeStamps[entry] >= startTime) && (timeStamps[entry] <= endTime))
+            {
+                matches.add(entry);
+
+                if ((maximumEntries > 0) && (matches.size() >= maximumEntries))
+                {
+                    break;
+                }
+            }
+        }
+
+        return matches;
+    }
+
+
+    long getSegmentNumber()
+    {
+        return segmentNumber;
+    }
+
+
+    long getCreationTime()
+    {
+        return creationTime;
+    }
+
+
+    /**
+     * Return the size of the uncompressed records.
+     *
+     * @return number of bytes
+     */
+    long getDataSize()
+    {
+        return dataSize;
+    }
+
+
+    synchronized int getEntryCount()
+    {
+        return entryCount;
+    }
+
+
+    /**
+     * Return whether the segment has been sealed, so no more records are added to it.
+     *
+     * @return true if sealed
+     */
+    synchronized boolean isSealed()
+    {
+        return dataChannel == null;
+    }
+
+
+    /**
+     * Return whether the in-memory index is loaded.
+     *
+     * @return true if loaded
+     */
+    synchronized boolean isIndexLoaded()
+    {
+        return indexLoaded;
+    }
+
+
+    /**
+     * Free the in-memory index of a sealed segment.  The time range and entry count are kept.  The index of the
+     * active segment is never released because it is still being added to.
+     */
+    synchronized void releaseIndex()
+    {
+        if ((dataChannel == null) && (indexLoaded))
+        {
+            timeStamps  = null;
+            offsets     = null;
+            lengths     = null;
+            guidHashes  = null;
+            guidTable   = null;
+            indexLoaded = false;
+            severityEntries.clear();
+            componentEntries.clear();
+        }
+    }
+
+
+    /**
+     * Load the index file of a segment whose in-memory index was released.  The index file is rebuilt if it has
+     * been removed or damaged since it was released.  Called with the segment's lock held.
+     *
+     * @throws IOException unable to read the segment
+     */
+    private void ensureIndexLoaded() throws IOException
+    {
+        if (! indexLoaded)
+        {
+            resetIndex();
+
+            if (! loadIndex())
+            {
+                log.info("Rebuilding audit log index {}", indexFile.getPath());
+                rebuildIndex();
+            }
+
+            indexLoaded = true;
+        }
+    }
+
+
+    /**
+     * Clear the in-memory index ready to load it.
+     */
+    private void resetIndex()
+    {
+        entryCount   = 0;
+        dataSize     = 0;
+        minTimeStamp = Long.MAX_VALUE;
+        maxTimeStamp = Long.MIN_VALUE;
+        timeStamps   = new long[initialEntries];
+        offsets      = new long[initialEntries];
+        lengths      = new int[initialEntries];
+        guidHashes   = new int[initialEntries];
+        guidTable    = new int[initialEntries * 2];
+        severityEntries.clear();
+        componentEntries.clear();
+    }
+
+
+    /**
+     * Add an entry to the in-memory index.
+     *
+     * @param timeStamp time stamp of the record
+     * @param offset position of the record in the uncompressed data
+     * @param length length of the record's JSON
+     * @param guidHash hash of the record's GUID
+     * @param severity severity of the record
+     * @param component name of the component that wrote the record
+     */
+    private void addEntry(long   timeStamp,
+                          long   offset,
+                          int    length,
+                          int    guidHash,
+                          String severity,
+                          String component)
+    {
+        if (entryCount == timeStamps.length)
+        {
+            int newSize = entryCount * 2;
+
+            timeStamps = Arrays.copyOf(timeStamps, newSize);
+            offsets    = Arrays.copyOf(offsets, newSize);
+            lengths    = Arrays.copyOf(lengths, newSize);
+            guidHashes = Arrays.copyOf(guidHashes, newSize);
+        }
+
+        timeStamps[entryCount] = timeStamp;
+        offsets[entryCount]    = offset;
+        lengths[entryCount]    = length;
+        guidHashes[entryCount] = guidHash;
+
+        if ((entryCount + 1) * 2 > guidTable.length)
+        {
+            int[] oldTable = guidTable;
+
+            guidTable = new int[oldTable.length * 2];
+
+            for (int oldEntry : oldTable)
+            {
+                if (oldEntry != 0)
+                {
+                    addGUIDEntry(oldEntry - 1);
+                }
+            }
+        }
+
+        addGUIDEntry(entryCount);
+
+        severityEntries.computeIfAbsent(severity, key -> new EntryList()).add(entryCount);
+        componentEntries.computeIfAbsent(component, key -> new EntryList()).add(entryCount);
+
+        minTimeStamp = Math.min(minTimeStamp, timeStamp);
+        maxTimeStamp = Math.max(maxTimeStamp, timeStamp);
+
+        entryCount++;
+    }
+
+
+    /**
+     * Add an entry to the GUID hash table.  The table is kept less than half full so probes are short.
+     *
+     * @param entry index entry with its GUID hash already set
+     */
+    private void addGUIDEntry(int entry)
+    {
+        int mask = guidTable.length - 1;
+        int slot = guidHashes[entry] & mask;
+
+        while (guidTable[slot] != 0)
+        {
+            slot = (slot + 1) & mask;
+        }
+
+        guidTable[slot] = entry + 1;
+    }
+
+
+    /**
+     * Load the index file.
+     *
+     * @return false if the index is missing or does not match the data file
+     */
+    private boolean loadIndex()
+    {
+        if (! indexFile.isFile())
+        {
+            return false;
+        }
+
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile), bufferSize)))
+        {
+            if (input.readLong() != indexFileMarker)
+            {
+                return false;
+            }
+
+            while (true)
+            {
+                long   timeStamp;
+                long   offset;
+                int    length;
+                int    guidHash;
+                String severity;
+                String component;
+
+                try
+                {
+                    timeStamp = input.readLong();
+                }
+                catch (EOFException endOfIndex)
+                {
+                    break;
+                }
+
+                offset    = input.readLong();
+                length    = input.readInt();
+                guidHash  = input.readInt();
+                severity  = input.readUTF();
+                component = input.readUTF();
+
+                if (offset != dataSize)
+                {
+                    return false;
+                }
+
+                addEntry(timeStamp, offset, length, guidHash, severity, component);
+                dataSize = offset + length + 1;
+            }
+        }
+        catch (IOException error)
+        {
+            log.debug("Audit log index {} is incomplete: {}", indexFile.getPath(), error.getMessage());
+            return false;
+        }
+
+        if (dataFile.getName().endsWith(compressedFileSuffix))
+        {
+            return true;
+        }
+
+        return dataFile.length() == dataSize;
+    }
+
+
+    /**
+     * Rebuild the index from the data file and write a new index file.
+     *
+     * @throws IOException unable to read the data file
+     */
+    private void rebuildIndex() throws IOException
+    {
+        resetIndex();
+
+        byte[] data = dataFile.getName().endsWith(compressedFileSuffix) ? getUncompressedData() : Files.readAllBytes(dataFile.toPath());
+
+        try (DataOutputStream indexOutput = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(indexFile), bufferSize)))
+        {
+            indexOutput.writeLong(indexFileMarker);
+
+            int lineStart = 0;
+
+            for (int i = 0; i < data.length; i++)
+            {
+                if (data[i] == '\n')
+                {
+                    byte[] json = Arrays.copyOfRange(data, lineStart, i);
+
+                    try
+                    {
+                        AuditLogRecord logRecord = OMRSJSONSerializer.readValue(json, AuditLogRecord.class);
+                        long           timeStamp = getTimeStamp(logRecord, dataFile.lastModified());
+                        String         severity  = getSeverity(logRecord);
+                        String         component = getComponentName(logRecord);
+
+                        indexOutput.writeLong(timeStamp);
+                        indexOutput.writeLong(lineStart);
+                        indexOutput.writeInt(json.length);
+                        indexOutput.writeInt(getGUIDHash(logRecord.getGUID()));
+                        indexOutput.writeUTF(severity);
+                        indexOutput.writeUTF(component);
+
+                        addEntry(timeStamp, lineStart, json.length, getGUIDHash(logRecord.getGUID()), severity, component);
+                    }
+                    catch (IOException error)
+                    {
+                        log.error("Skipping unreadable audit log record at byte {} of {}", lineStart, dataFile.getPath(), error);
+                    }
+
+                    lineStart = i + 1;
+                }
+            }
+
+            dataSize = lineStart;
+
+            if ((lineStart < data.length) && (dataFile.getName().endsWith(dataFileSuffix)))
+            {
+                log.info("Removing {} bytes of an incomplete audit log record from {}", data.length - lineStart, dataFile.getPath());
+
+                try (FileChannel channel = FileChannel.open(dataFile.toPath(), StandardOpenOption.WRITE))
+                {
+                    channel.truncate(lineStart);
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Return the uncompressed content of a compressed data file.  It is cached until memory is needed.
+     *
+     * @return uncompressed records
+     * @throws IOException unable to read the file
+     */
+    private byte[] getUncompressedData() throws IOException
+    {
+        byte[] data = uncompressedData.get();
+
+        if (data == null)
+        {
+            try (InputStream input = new GZIPInputStream(new FileInputStream(dataFile), bufferSize))
+            {
+                ByteArrayOutputStream output = new ByteArrayOutputStream();
+                byte[]                buffer = new byte[bufferSize];
+
+                for (int length = input.read(buffer); length >= 0; length = input.read(buffer))
+                {
+                    output.write(buffer, 0, length);
+                }
+
+                data = output.toByteArray();
+            }
+
+            uncompressedData = new SoftReference<>(data);
+        }
+
+        return data;
+    }
+
+
+    /**
+     * Close the channel used for reading the uncompressed data file.
+     */
+    private void closeReadChannel()
+    {
+        if (readChannel != null)
+        {
+            try
+            {
+                readChannel.close();
+            }
+            catch (IOException error)
+            {
+                log.debug("Ignoring error closing {}: {}", dataFile.getPath(), error.getMessage());
+            }
+
+            readChannel = null;
+        }
+    }
+
+
+    /**
+     * Return the time stamp to index a record under.
+     *
+     * @param logRecord record
+     * @param defaultTime time to use if the record does not have a time stamp
+     * @return time in milliseconds
+     */
+    static long getTimeStamp(AuditLogRecord logRecord,
+                             long           defaultTime)
+    {
+        return (logRecord.getTimeStamp() == null) ? defaultTime : logRecord.getTimeStamp().getTime();
+    }
+
+
+    /**
+     * Return the severity to index a record under.
+     *
+     * @param logRecord record
+     * @return severity name - empty if not known
+     */
+    static String getSeverity(AuditLogRecord logRecord)
+    {
+        return (logRecord.getSeverity() == null) ? "" : logRecord.getSeverity();
+    }
+
+
+    /**
+     * Return the component name to index a record under.
+     *
+     * @param logRecord record
+     * @return component name - empty if not known
+     */
+    static String getComponentName(AuditLogRecord logRecord)
+    {
+        if ((logRecord.getOriginatorComponent() == null) || (logRecord.getOriginatorComponent().getComponentName() == null))
+        {
+            return "";
+        }
+
+        return logRecord.getOriginatorComponent().getComponentName();
+    }
+
+
+    /**
+     * Return the hash of a GUID.
+     *
+     * @param guid unique identifier
+     * @return hash
+     */
+    private static int getGUIDHash(String guid)
+    {
+        return (guid == null) ? 0 : guid.hashCode();
+    }
+
+
+    /**
+     * EntryList is a growable list of index entry numbers in ascending order.
+     */
+    static class EntryList
+    {
+        private int[] entries = new int[16];
+        private int   size    = 0;
+
+        void add(int entry)
+        {
+            if (size == entries.length)
+            {
+                entries = Arrays.copyOf(entries, size * 2);
+            }
+
+            entries[size++] = entry;
+        }
+
+        int size()
+        {
+            return size;
+        }
+
+        int get(int index)
+        {
+            return entries[index];
+        }
+
+        void reverse()
+        {
+            for (int i = 0, j = size - 1; i < j; i++, j--)
+            {
+                int entry = entries[i];
+
+                entries[i] = entries[j];
+                entries[j] = entry;
+            }
+        }
+    }
+}
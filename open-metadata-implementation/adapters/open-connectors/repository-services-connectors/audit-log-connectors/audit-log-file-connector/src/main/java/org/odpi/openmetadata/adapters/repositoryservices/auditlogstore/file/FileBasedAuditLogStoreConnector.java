@@ -2,36 +2,94 @@
 /* Copyright Contributors to the ODPi Egeria project. */
 package org.odpi.openmetadata.adapters.repositoryservices.auditlogstore.file;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.commons.io.FileUtils;
+import org.odpi.openmetadata.frameworks.auditlog.AuditLogRecord;
 import org.odpi.openmetadata.frameworks.connectors.properties.EndpointProperties;
+import org.odpi.openmetadata.repositoryservices.ffdc.OMRSErrorCode;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.RepositoryErrorException;
 import org.odpi.openmetadata.frameworks.connectors.ffdc.ConnectorCheckedException;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.InvalidParameterException;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.PagingErrorException;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.auditlogstore.OMRSAuditLogRecord;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.auditlogstore.OMRSAuditLogStoreConnectorBase;
+import org.odpi.openmetadata.repositoryservices.serialization.OMRSJSONSerializer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * FileBasedAuditLogStoreConnector provides a connector implementation for a file based audit log.
- * The audit log is stored in a directory and each audit log record is stored as a file with a filename build
- * from the record's unique identifier (guid).
+ * The audit log is stored in a directory as a series of append-only segment files.  Each audit log record is
+ * written as a line of JSON to the newest segment, and a new segment is started when the current one reaches
+ * its maximum size or age.  Each segment has a sidecar index of the time stamp, severity and reporting
+ * component of its records, which is used to answer the audit log queries without reading the records that
+ * are not returned.  Only the indexes of the most recently used segments are kept in memory.
+ *
+ * Records are flushed to disk in groups: by default they are flushed in the background every syncInterval
+ * milliseconds.  When syncInterval is 0, storeLogRecord returns once its record is on disk, and records stored
+ * by concurrent threads share a single flush.
+ *
+ * Earlier releases stored each record in its own file called log-record-(guid).  These files are moved into
+ * a new segment, in time stamp order, when the connector starts.
  */
 public class FileBasedAuditLogStoreConnector extends OMRSAuditLogStoreConnectorBase
 {
     private static final String defaultDirectoryTemplate = "omag.server.auditlog";
+    private static final String legacyFileNamePrefix     = "log-record-";
 
     private static final Logger log = LoggerFactory.getLogger(FileBasedAuditLogStoreConnector.class);
 
     private String configStoreTemplateName  = null;
 
+    /*
+     * Configuration
+     */
+    private long    maxSegmentSize   = FileBasedAuditLogStoreProvider.defaultMaxSegmentSize;
+    private long    maxSegmentAge    = FileBasedAuditLogStoreProvider.defaultMaxSegmentAge;
+    private long    syncInterval     = FileBasedAuditLogStoreProvider.defaultSyncInterval;
+    private int     maxLoadedIndexes = FileBasedAuditLogStoreProvider.defaultMaxLoadedIndexes;
+    private boolean compressSegments = false;
+
+    /*
+     * The segments in the order they were written.  The last segment is the active segment that new records are
+     * appended to.  The segment list, the active segment and the append sequence are protected by writeLock.
+     */
+    private final Object                writeLock      = new Object();
+    private final List<AuditLogSegment> segments       = new ArrayList<>();
+    private       AuditLogSegment       activeSegment  = null;
+    private       long                  appendSequence = 0;
+
+    /*
+     * The number of the last appended record that is known to be on disk.  Protected by syncLock.
+     */
+    private final Object syncLock       = new Object();
+    private       long   syncedSequence = 0;
+
+    /*
+     * The sealed segments whose index is in memory, least recently used first.  Protected by indexLock.
+     */
+    private final Object                                  indexLock     = new Object();
+    private final LinkedHashMap<AuditLogSegment, Boolean> loadedIndexes = new LinkedHashMap<>(16, 0.75f, true);
+
+    private ScheduledExecutorService syncScheduler      = null;
+    private ExecutorService          compressorExecutor = null;
+
 
     /**
      * Default constructor used by the connector provider.
@@ -42,7 +100,7 @@ public class FileBasedAuditLogStoreConnector extends OMRSAuditLogStoreConnectorB
 
 
     /**
-     * Set up the name of the file store
+     * Set up the name of the file store and open the audit log segments.
      *
      * @throws ConnectorCheckedException something went wrong
      */
@@ -63,16 +121,241 @@ public class FileBasedAuditLogStoreConnector extends OMRSAuditLogStoreConnectorB
             configStoreTemplateName = defaultDirectoryTemplate;
         }
 
+        Map<String, Object> configurationProperties = connectionProperties.getConfigurationProperties();
+
+        if (configurationProperties != null)
+        {
+            maxSegmentSize = getLongProperty(configurationProperties, FileBasedAuditLogStoreProvider.maxSegmentSizeProperty, maxSegmentSize);
+            maxSegmentAge  = getLongProperty(configurationProperties, FileBasedAuditLogStoreProvider.maxSegmentAgeProperty, maxSegmentAge);
+            syncInterval   = getLongProperty(configurationProperties, FileBasedAuditLogStoreProvider.syncIntervalProperty, syncInterval);
+
+            maxLoadedIndexes = (int) getLongProperty(configurationProperties, FileBasedAuditLogStoreProvider.maxLoadedIndexesProperty, maxLoadedIndexes);
+
+            Object compressProperty = configurationProperties.get(FileBasedAuditLogStoreProvider.compressSegmentsProperty);
+
+            if (compressProperty != null)
+            {
+                compressSegments = Boolean.parseBoolean(compressProperty.toString());
+            }
+        }
+
         try
         {
             File         configStoreDirectory = new File(configStoreTemplateName);
 
             FileUtils.forceMkdir(configStoreDirectory);
+
+            openSegments(configStoreDirectory);
         }
         catch (IOException ioException)
         {
             log.error("Unusable Server Audit Log Store :(", ioException);
         }
+
+        if (syncInterval > 0)
+        {
+            syncScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "AuditLogSync:" + configStoreTemplateName);
+                thread.setDaemon(true);
+                return thread;
+            });
+            syncScheduler.scheduleWithFixedDelay(this::syncInBackground, syncInterval, syncInterval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+
+    /**
+     * Load the existing segments, move any records from earlier releases into new segments and start a new
+     * active segment.  The newest existing segment is not appended to because it may end with a partly written
+     * record.
+     *
+     * @param directory audit log directory
+     * @throws IOException unable to read or create the segments
+     */
+    private void openSegments(File directory) throws IOException
+    {
+        Map<Long, File> dataFiles = new TreeMap<>();
+        File[]          files     = directory.listFiles();
+
+        if (files != null)
+        {
+            for (File file : files)
+            {
+                long segmentNumber = AuditLogSegment.getSegmentNumber(file.getName());
+
+                /*
+                 * If both files exist, compression finished but the uncompressed file was not deleted,
+                 * so the compressed file is used.
+                 */
+                if ((segmentNumber >= 0) && (! dataFiles.containsKey(segmentNumber) || file.getName().endsWith(AuditLogSegment.compressedFileSuffix)))
+                {
+                    dataFiles.put(segmentNumber, file);
+                }
+            }
+        }
+
+        long nextSegmentNumber = 1;
+
+        synchronized (writeLock)
+        {
+            for (Map.Entry<Long, File> dataFile : dataFiles.entrySet())
+            {
+                AuditLogSegment segment = AuditLogSegment.open(directory, dataFile.getKey(), dataFile.getValue());
+
+                segments.add(segment);
+                indexUsed(segment);
+                nextSegmentNumber = dataFile.getKey() + 1;
+
+                if (compressSegments)
+                {
+                    compressInBackground(segment);
+                }
+            }
+
+            File[] legacyFiles = directory.listFiles((legacyDirectory, fileName) -> fileName.startsWith(legacyFileNamePrefix));
+
+            if ((legacyFiles != null) && (legacyFiles.length > 0))
+            {
+                nextSegmentNumber = migrateLegacyRecords(directory, legacyFiles, nextSegmentNumber);
+            }
+
+            activeSegment = AuditLogSegment.create(directory, nextSegmentNumber);
+            segments.add(activeSegment);
+        }
+    }
+
+
+    /**
+     * Move the records that earlier releases stored in separate files into new segments.  The records are
+     * added in time stamp order and each legacy file is removed once its record is on disk.  A record that is
+     * already in a segment, because the server stopped part way through an earlier migration, is not added again.
+     * Called with writeLock held.
+     *
+     * @param directory audit log directory
+     * @param legacyFiles files holding one record each
+     * @param segmentNumber number for the first new segment
+     * @return number for the next segment
+     * @throws IOException unable to write the new segments
+     */
+    private long migrateLegacyRecords(File   directory,
+                                      File[] legacyFiles,
+                                      long   segmentNumber) throws IOException
+    {
+        /*
+         * The files are read twice, once to sort them and once to copy them, so that the records do not all
+         * have to be held in memory.
+         */
+        List<File>      migratedFiles = new ArrayList<>();
+        Map<File, Long> timeStamps    = new HashMap<>();
+
+        for (File legacyFile : legacyFiles)
+        {
+            try
+            {
+                AuditLogRecord logRecord = OMRSJSONSerializer.readValue(legacyFile, AuditLogRecord.class);
+
+                timeStamps.put(legacyFile, AuditLogSegment.getTimeStamp(logRecord, legacyFile.lastModified()));
+                migratedFiles.add(legacyFile);
+            }
+            catch (IOException error)
+            {
+                log.error("Unable to read audit log record {}; it has been left in place", legacyFile.getPath(), error);
+            }
+        }
+
+        migratedFiles.sort(Comparator.comparing((File legacyFile) -> timeStamps.get(legacyFile)).thenComparing(File::getName));
+
+        AuditLogSegment segment     = null;
+        int             recordCount = 0;
+
+        for (File legacyFile : migratedFiles)
+        {
+            OMRSAuditLogRecord logRecord = new OMRSAuditLogRecord(OMRSJSONSerializer.readValue(legacyFile, AuditLogRecord.class));
+
+            if (! isStored(logRecord.getGUID()))
+            {
+                if ((segment != null) && (maxSegmentSize > 0) && (segment.getDataSize() >= maxSegmentSize))
+                {
+                    sealMigratedSegment(segment);
+                    segment = null;
+                }
+
+                if (segment == null)
+                {
+                    segment = AuditLogSegment.create(directory, segmentNumber++);
+                    segments.add(segment);
+                }
+
+                segment.append(OMRSJSONSerializer.writeValueAsBytes(logRecord),
+                               timeStamps.get(legacyFile),
+                               logRecord.getGUID(),
+                               AuditLogSegment.getSeverity(logRecord),
+                               AuditLogSegment.getComponentName(logRecord));
+                recordCount++;
+            }
+        }
+
+        if (segment != null)
+        {
+            sealMigratedSegment(segment);
+        }
+
+        for (File legacyFile : migratedFiles)
+        {
+            Files.deleteIfExists(legacyFile.toPath());
+        }
+
+        log.info("Moved {} audit log records from earlier releases into segments in {}", recordCount, directory.getPath());
+
+        return segmentNumber;
+    }
+
+
+    /**
+     * Seal a segment of migrated records.  Called with writeLock held.
+     *
+     * @param segment full segment
+     * @throws IOException unable to write the segment to disk
+     */
+    private void sealMigratedSegment(AuditLogSegment segment) throws IOException
+    {
+        segment.seal();
+        indexUsed(segment);
+
+        if (compressSegments)
+        {
+            compressInBackground(segment);
+        }
+    }
+
+
+    /**
+     * Return whether a record is already in one of the segments.  Called with writeLock held.
+     *
+     * @param guid unique identifier of the record
+     * @return true if it is stored
+     * @throws IOException unable to read the segments
+     */
+    private boolean isStored(String guid) throws IOException
+    {
+        for (AuditLogSegment segment : segments)
+        {
+            AuditLogSegment.EntryList candidates = segment.getGUIDEntries(guid);
+
+            for (int i = 0; i < candidates.size(); i++)
+            {
+                AuditLogRecord logRecord = OMRSJSONSerializer.readValue(segment.readRecord(candidates.get(i)), AuditLogRecord.class);
+
+                if ((guid != null) && (guid.equals(logRecord.getGUID())))
+                {
+                    return true;
+                }
+            }
+
+            indexUsed(segment);
+        }
+
+        return false;
     }
 
 
@@ -94,12 +377,31 @@ public class FileBasedAuditLogStoreConnector extends OMRSAuditLogStoreConnectorB
         {
             try
             {
-                File configStoreFile =
-                        new File(configStoreTemplateName + "/log-record-" + logRecord.getGUID());
-                ObjectMapper objectMapper    = new ObjectMapper();
+                byte[] json = OMRSJSONSerializer.writeValueAsBytes(logRecord);
+                long   sequence;
+
+                synchronized (writeLock)
+                {
+                    if (activeSegment == null)
+                    {
+                        throw new IOException("The audit log store " + configStoreTemplateName + " is not open");
+                    }
+
+                    rollSegmentIfNeeded();
+
+                    activeSegment.append(json,
+                                         AuditLogSegment.getTimeStamp(logRecord, System.currentTimeMillis()),
+                                         logRecord.getGUID(),
+                                         AuditLogSegment.getSeverity(logRecord),
+                                         AuditLogSegment.getComponentName(logRecord));
+
+                    sequence = ++appendSequence;
+                }
 
-                String configStoreFileContents = objectMapper.writeValueAsString(logRecord);
-                FileUtils.writeStringToFile(configStoreFile, configStoreFileContents, (String)null, false);
+                if (syncInterval == 0)
+                {
+                    syncTo(sequence);
+                }
             }
             catch (IOException ioException)
             {
@@ -111,11 +413,263 @@ public class FileBasedAuditLogStoreConnector extends OMRSAuditLogStoreConnectorB
     }
 
 
+    /**
+     * Store a batch of audit log records.  The records are appended under one lock and forced to disk together.
+     * Invalid records are logged and skipped.
+     *
+     * @param logRecords log records to store
+     */
+    @Override
+    public void storeLogRecords(List<OMRSAuditLogRecord> logRecords)
+    {
+        final String   methodName = "storeLogRecords";
+
+        if (logRecords == null)
+        {
+            return;
+        }
+
+        List<OMRSAuditLogRecord> supportedRecords = new ArrayList<>(logRecords.size());
+        List<byte[]>             jsonRecords      = new ArrayList<>(logRecords.size());
+
+        for (OMRSAuditLogRecord logRecord : logRecords)
+        {
+            try
+            {
+                super.validateLogRecord(logRecord, methodName);
+
+                if (isSupportedSeverity(logRecord))
+                {
+                    jsonRecords.add(OMRSJSONSerializer.writeValueAsBytes(logRecord));
+                    supportedRecords.add(logRecord);
+                }
+            }
+            catch (InvalidParameterException | IOException error)
+            {
+                log.error("Error: " + error + " writing audit log: " + logRecord + " to destination " + getDestinationName());
+            }
+        }
+
+        if (supportedRecords.isEmpty())
+        {
+            return;
+        }
+
+        try
+        {
+            long sequence;
+
+            synchronized (writeLock)
+            {
+                if (activeSegment == null)
+                {
+                    throw new IOException("The audit log store " + configStoreTemplateName + " is not open");
+                }
+
+                for (int i = 0; i < supportedRecords.size(); i++)
+                {
+                    OMRSAuditLogRecord logRecord = supportedRecords.get(i);
+
+                    rollSegmentIfNeeded();
+
+                    activeSegment.append(jsonRecords.get(i),
+                                         AuditLogSegment.getTimeStamp(logRecord, System.currentTimeMillis()),
+                                         logRecord.getGUID(),
+                                         AuditLogSegment.getSeverity(logRecord),
+                                         AuditLogSegment.getComponentName(logRecord));
+                }
+
+                appendSequence += supportedRecords.size();
+                sequence = appendSequence;
+            }
+
+            if (syncInterval == 0)
+            {
+                syncTo(sequence);
+            }
+        }
+        catch (IOException ioException)
+        {
+            log.error("Unusable Server Audit Log Store :(", ioException);
+        }
+    }
+
+
+    /**
+     * Start a new segment if the active segment is full or too old.  Called with writeLock held.
+     *
+     * @throws IOException unable to seal the active segment or create a new one
+     */
+    private void rollSegmentIfNeeded() throws IOException
+    {
+        boolean full = (maxSegmentSize > 0) && (activeSegment.getDataSize() >= maxSegmentSize);
+        boolean old  = (maxSegmentAge > 0) && (System.currentTimeMillis() - activeSegment.getCreationTime() >= maxSegmentAge * 1000);
+
+        if ((activeSegment.getEntryCount() > 0) && (full || old))
+        {
+            AuditLogSegment sealedSegment = activeSegment;
+
+            sealedSegment.seal();
+
+            activeSegment = AuditLogSegment.create(new File(configStoreTemplateName), sealedSegment.getSegmentNumber() + 1);
+            segments.add(activeSegment);
+            indexUsed(sealedSegment);
+
+            if (compressSegments)
+            {
+                compressInBackground(sealedSegment);
+            }
+        }
+    }
+
+
+    /**
+     * Wait until the requested record is on disk.  The first thread to arrive flushes all of the records appended
+     * so far, so the threads that are waiting behind it usually find their record is already on disk.
+     *
+     * @param sequence append sequence number of the record
+     * @throws IOException unable to write to the active segment
+     */
+    private void syncTo(long sequence) throws IOException
+    {
+        synchronized (syncLock)
+        {
+            if (syncedSequence >= sequence)
+            {
+                return;
+            }
+
+            AuditLogSegment segment;
+            long            lastSequence;
+
+            synchronized (writeLock)
+            {
+                segment      = activeSegment;
+                lastSequence = appendSequence;
+
+                segment.flush();
+            }
+
+            /*
+             * Appends continue while the segment is forced to disk.  A segment that has been sealed in the
+             * meantime was forced to disk when it was sealed.
+             */
+            segment.sync();
+            syncedSequence = lastSequence;
+        }
+    }
+
+
+    /**
+     * Flush the records appended since the last flush.  Called by the sync scheduler.
+     */
+    private void syncInBackground()
+    {
+        try
+        {
+            long sequence;
+
+            synchronized (writeLock)
+            {
+                sequence = appendSequence;
+            }
+
+            syncTo(sequence);
+        }
+        catch (Throwable error)
+        {
+            log.error("Unable to flush Server Audit Log Store", error);
+        }
+    }
+
+
+    /**
+     * Record that the index of a sealed segment has been loaded or used.  If more than maxLoadedIndexes sealed
+     * segments have their index in memory, the indexes of the least recently used segments are released.
+     * The active segment always keeps its index.
+     *
+     * @param segment segment that has been queried
+     */
+    private void indexUsed(AuditLogSegment segment)
+    {
+        if ((maxLoadedIndexes <= 0) || (! segment.isSealed()) || (! segment.isIndexLoaded()))
+        {
+            return;
+        }
+
+        List<AuditLogSegment> releasedSegments = new ArrayList<>();
+
+        synchronized (indexLock)
+        {
+            loadedIndexes.put(segment, Boolean.TRUE);
+
+            Iterator<AuditLogSegment> leastRecentlyUsed = loadedIndexes.keySet().iterator();
+
+            while (loadedIndexes.size() > maxLoadedIndexes)
+            {
+                releasedSegments.add(leastRecentlyUsed.next());
+                leastRecentlyUsed.remove();
+            }
+        }
+
+        /*
+         * The indexes are released outside indexLock since a query may be holding a segment's lock.
+         */
+        for (AuditLogSegment releasedSegment : releasedSegments)
+        {
+            releasedSegment.releaseIndex();
+        }
+    }
+
+
+    /**
+     * Return the number of sealed segments whose index is in memory.
+     *
+     * @return count
+     */
+    int getLoadedIndexCount()
+    {
+        synchronized (indexLock)
+        {
+            return loadedIndexes.size();
+        }
+    }
+
+
+    /**
+     * Compress a sealed segment on the compressor thread.
+     *
+     * @param segment sealed segment
+     */
+    private void compressInBackground(AuditLogSegment segment)
+    {
+        if (compressorExecutor == null)
+        {
+            compressorExecutor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "AuditLogCompressor:" + configStoreTemplateName);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        compressorExecutor.execute(() -> {
+            try
+            {
+                segment.compress();
+            }
+            catch (IOException error)
+            {
+                log.error("Unable to compress audit log segment {}", segment.getSegmentNumber(), error);
+            }
+        });
+    }
+
+
     /**
      * Retrieve a specific audit log record.
      *
      * @param logRecordId unique identifier for the log record
-     * @return requested audit log record
+     * @return requested audit log record or null if it is not in the audit log
      * @throws InvalidParameterException     indicates that the logRecordId parameter is invalid.
      * @throws RepositoryErrorException      indicates that the audit log store is not available or has an error.
      */
@@ -123,7 +677,31 @@ public class FileBasedAuditLogStoreConnector extends OMRSAuditLogStoreConnectorB
     public OMRSAuditLogRecord getAuditLogRecord(String logRecordId) throws InvalidParameterException,
                                                                            RepositoryErrorException
     {
-        final String methodName = "getAuditLogRecord";
+        final String methodName    = "getAuditLogRecord";
+        final String parameterName = "logRecordId";
+
+        validateQueryParameter(logRecordId, parameterName, methodName);
+
+        List<AuditLogSegment> snapshot = getSegmentSnapshot(methodName);
+
+        for (int s = snapshot.size() - 1; s >= 0; s--)
+        {
+            AuditLogSegment           segment    = snapshot.get(s);
+            AuditLogSegment.EntryList candidates = getGUIDEntries(segment, logRecordId, methodName);
+
+            for (int i = 0; i < candidates.size(); i++)
+            {
+                OMRSAuditLogRecord logRecord = readLogRecord(segment, candidates.get(i), methodName);
+
+                if (logRecordId.equals(logRecord.getGUID()))
+                {
+                    indexUsed(segment);
+                    return logRecord;
+                }
+            }
+
+            indexUsed(segment);
+        }
 
         return null;
     }
@@ -152,7 +730,7 @@ public class FileBasedAuditLogStoreConnector extends OMRSAuditLogStoreConnectorB
     {
         final String methodName = "getAuditLogRecordsByTimeStamp";
 
-        return null;
+        return findLogRecords(null, null, startDate, endDate, offset, maximumRecords, methodName);
     }
 
 
@@ -179,9 +757,12 @@ public class FileBasedAuditLogStoreConnector extends OMRSAuditLogStoreConnectorB
                                                                                             PagingErrorException,
                                                                                             RepositoryErrorException
     {
-        final String methodName = "getAuditLogRecordsBySeverity";
+        final String methodName    = "getAuditLogRecordsBySeverity";
+        final String parameterName = "severity";
 
-        return null;
+        validateQueryParameter(severity, parameterName, methodName);
+
+        return findLogRecords(severity, null, startDate, endDate, offset, maximumRecords, methodName);
     }
 
 
@@ -208,9 +789,295 @@ public class FileBasedAuditLogStoreConnector extends OMRSAuditLogStoreConnectorB
                                                                                                 PagingErrorException,
                                                                                                 RepositoryErrorException
     {
-        final String methodName = "getAuditLogRecordsByComponent";
+        final String methodName    = "getAuditLogRecordsByComponent";
+        final String parameterName = "component";
 
-        return null;
+        validateQueryParameter(component, parameterName, methodName);
+
+        return findLogRecords(null, component, startDate, endDate, offset, maximumRecords, methodName);
+    }
+
+
+    /**
+     * Return the log records in the time period that match the severity or component, in the order they were
+     * written.  Segments whose records are all outside the time period are skipped, and only the entries for the
+     * requested severity or component are checked.  Only the records that are returned are read from the files.
+     * The audit log is not locked while it is searched so the search does not hold up new records.
+     *
+     * @param severity severity to match or null for any severity
+     * @param component component to match or null for any component
+     * @param startDate start of time period - null for no start
+     * @param endDate end of time period - null for no end
+     * @param offset number of matching records to skip
+     * @param maximumRecords maximum number of records to return - 0 for no limit
+     * @param methodName calling method
+     * @return list of log records or null if none match
+     * @throws InvalidParameterException the start date is after the end date
+     * @throws PagingErrorException the offset or maximumRecords are negative
+     * @throws RepositoryErrorException unable to read the audit log
+     */
+    private List<OMRSAuditLogRecord> findLogRecords(String severity,
+                                                    String component,
+                                                    Date   startDate,
+                                                    Date   endDate,
+                                                    int    offset,
+                                                    int    maximumRecords,
+                                                    String methodName) throws InvalidParameterException,
+                                                                              PagingErrorException,
+                                                                              RepositoryErrorException
+    {
+        final String startDateParameterName = "startDate";
+
+        if ((offset < 0) || (maximumRecords < 0))
+        {
+            throw new PagingErrorException(OMRSErrorCode.INVALID_AUDIT_LOG_QUERY_PAGING.getMessageDefinition(methodName,
+                                                                                                             getDestinationName(),
+                                                                                                             Integer.toString(offset),
+                                                                                                             Integer.toString(maximumRecords)),
+                                           this.getClass().getName(),
+                                           methodName);
+        }
+
+        if ((startDate != null) && (endDate != null) && (startDate.after(endDate)))
+        {
+            throw new InvalidParameterException(OMRSErrorCode.INVALID_AUDIT_LOG_QUERY_PERIOD.getMessageDefinition(methodName,
+                                                                                                                  getDestinationName(),
+                                                                                                                  startDate.toString(),
+                                                                                                                  endDate.toString()),
+                                                this.getClass().getName(),
+                                                methodName,
+                                                startDateParameterName);
+        }
+
+        long startTime = (startDate == null) ? Long.MIN_VALUE : startDate.getTime();
+        long endTime   = (endDate == null) ? Long.MAX_VALUE : endDate.getTime();
+        int  skipped   = 0;
+
+        List<OMRSAuditLogRecord> results = new ArrayList<>();
+
+        /*
+         * writeLock is only held to take the snapshot.  Each segment's index is searched under the segment's own
+         * lock, so records can still be appended to the active segment between the searches.
+         */
+        for (AuditLogSegment segment : getSegmentSnapshot(methodName))
+        {
+            int maximumEntries = (maximumRecords > 0) ? (int) Math.min(Integer.MAX_VALUE, (long) (offset - skipped) + (maximumRecords - results.size())) : 0;
+
+            AuditLogSegment.EntryList matches = findEntries(segment, severity, component, startTime, endTime, maximumEntries, methodName);
+
+            for (int i = 0; i < matches.size(); i++)
+            {
+                if (skipped < offset)
+                {
+                    skipped++;
+                }
+                else
+                {
+                    results.add(readLogRecord(segment, matches.get(i), methodName));
+                }
+            }
+
+            indexUsed(segment);
+
+            if ((maximumRecords > 0) && (results.size() >= maximumRecords))
+            {
+                break;
+            }
+        }
+
+        if (results.isEmpty())
+        {
+            return null;
+        }
+
+        return results;
+    }
+
+
+    /**
+     * Flush the active segment so all of the appended records can be read, and return the current segments.
+     * This is the only part of a query that holds writeLock.
+     *
+     * @param methodName calling method
+     * @return copy of the segment list
+     * @throws RepositoryErrorException the audit log is not open or can not be flushed
+     */
+    private List<AuditLogSegment> getSegmentSnapshot(String methodName) throws RepositoryErrorException
+    {
+        synchronized (writeLock)
+        {
+            if (activeSegment == null)
+            {
+                throw new RepositoryErrorException(OMRSErrorCode.AUDIT_LOG_STORE_NOT_AVAILABLE.getMessageDefinition(getDestinationName(),
+                                                                                                                    "the audit log directory is not open"),
+                                                   this.getClass().getName(),
+                                                   methodName);
+            }
+
+            try
+            {
+                activeSegment.flush();
+            }
+            catch (IOException error)
+            {
+                throw new RepositoryErrorException(OMRSErrorCode.AUDIT_LOG_STORE_NOT_AVAILABLE.getMessageDefinition(getDestinationName(),
+                                                                                                                    error.getMessage()),
+                                                   this.getClass().getName(),
+                                                   methodName,
+                                                   error);
+            }
+
+            return new ArrayList<>(segments);
+        }
+    }
+
+
+    /**
+     * Return the entries of a segment for records whose GUID has the same hash as the requested GUID.
+     *
+     * @param segment segment to search
+     * @param guid requested GUID
+     * @param methodName calling method
+     * @return entries with the newest first
+     * @throws RepositoryErrorException unable to load the segment's index
+     */
+    private AuditLogSegment.EntryList getGUIDEntries(AuditLogSegment segment,
+                                                     String          guid,
+                                                     String          methodName) throws RepositoryErrorException
+    {
+        try
+        {
+            return segment.getGUIDEntries(guid);
+        }
+        catch (IOException error)
+        {
+            throw new RepositoryErrorException(OMRSErrorCode.AUDIT_LOG_STORE_NOT_AVAILABLE.getMessageDefinition(getDestinationName(),
+                                                                                                                error.getMessage()),
+                                               this.getClass().getName(),
+                                               methodName,
+                                               error);
+        }
+    }
+
+
+    /**
+     * Return the entries of a segment for records in the time period that match the severity or component.
+     *
+     * @param segment segment to search
+     * @param severity severity to match or null for any severity
+     * @param component component to match or null for any component
+     * @param startTime start of the time period
+     * @param endTime end of the time period
+     * @param maximumEntries maximum number of entries to return - 0 for no limit
+     * @param methodName calling method
+     * @return matching entries in the order they were written
+     * @throws RepositoryErrorException unable to load the segment's index
+     */
+    private AuditLogSegment.EntryList findEntries(AuditLogSegment segment,
+                                                  String          severity,
+                                                  String          component,
+                                                  long            startTime,
+                                                  long            endTime,
+                                                  int             maximumEntries,
+                                                  String          methodName) throws RepositoryErrorException
+    {
+        try
+        {
+            return segment.findEntries(severity, component, startTime, endTime, maximumEntries);
+        }
+        catch (IOException error)
+        {
+            throw new RepositoryErrorException(OMRSErrorCode.AUDIT_LOG_STORE_NOT_AVAILABLE.getMessageDefinition(getDestinationName(),
+                                                                                                                error.getMessage()),
+                                               this.getClass().getName(),
+                                               methodName,
+                                               error);
+        }
+    }
+
+
+    /**
+     * Read and parse a log record.
+     *
+     * @param segment segment holding the record
+     * @param entry index entry for the record
+     * @param methodName calling method
+     * @return log record
+     * @throws RepositoryErrorException unable to read the record
+     */
+    private OMRSAuditLogRecord readLogRecord(AuditLogSegment segment,
+                                             int             entry,
+                                             String          methodName) throws RepositoryErrorException
+    {
+        try
+        {
+            /*
+             * OMRSAuditLogRecord can not be built by Jackson so the record is read through its framework superclass.
+             */
+            return new OMRSAuditLogRecord(OMRSJSONSerializer.readValue(segment.readRecord(entry), AuditLogRecord.class));
+        }
+        catch (IOException error)
+        {
+            throw new RepositoryErrorException(OMRSErrorCode.AUDIT_LOG_STORE_NOT_AVAILABLE.getMessageDefinition(getDestinationName(),
+                                                                                                                error.getMessage()),
+                                               this.getClass().getName(),
+                                               methodName,
+                                               error);
+        }
+    }
+
+
+    /**
+     * Check that a query parameter has been supplied.
+     *
+     * @param value parameter value
+     * @param parameterName name of the parameter
+     * @param methodName calling method
+     * @throws InvalidParameterException the value is null
+     */
+    private void validateQueryParameter(String value,
+                                        String parameterName,
+                                        String methodName) throws InvalidParameterException
+    {
+        if (value == null)
+        {
+            throw new InvalidParameterException(OMRSErrorCode.NULL_AUDIT_LOG_QUERY_PARAMETER.getMessageDefinition(parameterName,
+                                                                                                                  methodName,
+                                                                                                                  getDestinationName()),
+                                                this.getClass().getName(),
+                                                methodName,
+                                                parameterName);
+        }
+    }
+
+
+    /**
+     * Return a numeric configuration property.
+     *
+     * @param configurationProperties properties from the connection
+     * @param propertyName name of the property
+     * @param defaultValue value to use if the property is not set or is not a number
+     * @return property value
+     */
+    private long getLongProperty(Map<String, Object> configurationProperties,
+                                 String              propertyName,
+                                 long                defaultValue)
+    {
+        Object property = configurationProperties.get(propertyName);
+
+        if (property != null)
+        {
+            try
+            {
+                return Long.parseLong(property.toString());
+            }
+            catch (NumberFormatException error)
+            {
+                log.error("Ignoring invalid value {} for audit log store property {}", property, propertyName);
+            }
+        }
+
+        return defaultValue;
     }
 
 
@@ -222,6 +1089,41 @@ public class FileBasedAuditLogStoreConnector extends OMRSAuditLogStoreConnectorB
     @Override
     public  void disconnect() throws ConnectorCheckedException
     {
+        if (syncScheduler != null)
+        {
+            syncScheduler.shutdown();
+        }
+
+        if (compressorExecutor != null)
+        {
+            compressorExecutor.shutdown();
+
+            try
+            {
+                compressorExecutor.awaitTermination(1, TimeUnit.MINUTES);
+            }
+            catch (InterruptedException error)
+            {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        synchronized (writeLock)
+        {
+            for (AuditLogSegment segment : segments)
+            {
+                segment.close();
+            }
+
+            segments.clear();
+            activeSegment = null;
+        }
+
+        synchronized (indexLock)
+        {
+            loadedIndexes.clear();
+        }
+
         super.disconnect();
     }
 }
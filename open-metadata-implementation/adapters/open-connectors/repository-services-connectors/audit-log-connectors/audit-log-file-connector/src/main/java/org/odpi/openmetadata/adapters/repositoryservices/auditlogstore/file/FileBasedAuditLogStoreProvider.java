@@ -5,6 +5,8 @@ package org.odpi.openmetadata.adapters.repositoryservices.auditlogstore.file;
 import org.odpi.openmetadata.frameworks.connectors.properties.beans.ConnectorType;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.auditlogstore.OMRSAuditLogStoreProviderBase;
 
+import java.util.List;
+
 /**
  * FileBasedAuditLogStoreProvider is the OCF connector provider for the file based audit log store.
  */
@@ -14,6 +16,38 @@ public class FileBasedAuditLogStoreProvider extends OMRSAuditLogStoreProviderBas
     private static final String  connectorTypeName = "File Based Audit Log Store Connector";
     private static final String  connectorTypeDescription = "Connector supports storing of audit log messages in a file.";
 
+    /**
+     * Size in bytes at which a new segment file is started.  Zero means no limit.
+     */
+    public static final String maxSegmentSizeProperty   = "maxSegmentSize";
+    public static final long   defaultMaxSegmentSize    = 64L * 1024 * 1024;
+
+    /**
+     * Age in seconds at which a new segment file is started.  Zero means no limit.
+     */
+    public static final String maxSegmentAgeProperty    = "maxSegmentAge";
+    public static final long   defaultMaxSegmentAge     = 24 * 60 * 60;
+
+    /**
+     * Milliseconds between flushes of the log records to disk.  Zero means each record is on disk before
+     * storeLogRecord returns.  A negative value leaves the flushing to the operating system.
+     */
+    public static final String syncIntervalProperty     = "syncInterval";
+    public static final long   defaultSyncInterval      = 1000;
+
+    /**
+     * Number of sealed segments whose index is kept in memory.  The indexes of the segments that have not
+     * been queried recently are loaded from their index files when they are next needed.  Zero means no limit.
+     */
+    public static final String maxLoadedIndexesProperty = "maxLoadedIndexes";
+    public static final int    defaultMaxLoadedIndexes  = 16;
+
+    /**
+     * Set to true to compress the segment files with gzip once they are full.
+     */
+    public static final String compressSegmentsProperty = "compressSegments";
+
+
     /**
      * Constructor used to initialize the ConnectorProviderBase with the Java class name of the specific
      * audit log store implementation.
@@ -32,6 +66,14 @@ public class FileBasedAuditLogStoreProvider extends OMRSAuditLogStoreProviderBas
         connectorType.setDescription(connectorTypeDescription);
         connectorType.setConnectorProviderClassName(this.getClass().getName());
 
+        List<String> recognizedConfigurationProperties = super.getRecognizedConfigurationProperties();
+        recognizedConfigurationProperties.add(maxSegmentSizeProperty);
+        recognizedConfigurationProperties.add(maxSegmentAgeProperty);
+        recognizedConfigurationProperties.add(syncIntervalProperty);
+        recognizedConfigurationProperties.add(maxLoadedIndexesProperty);
+        recognizedConfigurationProperties.add(compressSegmentsProperty);
+        connectorType.setRecognizedConfigurationProperties(recognizedConfigurationProperties);
+
         super.connectorTypeBean = connectorType;
     }
 }
@@ -0,0 +1,227 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.repositoryservices.auditlogstore.file;
+
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Verify that an audit log segment can be found again from its index after it is reopened, rebuilt or released,
+ * and that its records can be read once it is compressed.
+ */
+public class TestAuditLogSegment
+{
+    /**
+     * Return the JSON stored for test record i.  The odd records are errors from component A and the
+     * even records are information records from component B.  Record i is logged at time i * 100.
+     *
+     * @param i number of the record
+     * @return JSON bytes
+     */
+    private byte[] getJSON(int i)
+    {
+        return ("{\"guid\":\"guid" + i + "\",\"timeStamp\":" + (i * 100) + ",\"severity\":\"" + getSeverity(i) + "\"," +
+                "\"originatorComponent\":{\"componentName\":\"" + getComponent(i) + "\"}}").getBytes(StandardCharsets.UTF_8);
+    }
+
+
+    /**
+     * Return the severity of test record i.
+     *
+     * @param i number of the record
+     * @return severity
+     */
+    private String getSeverity(int i)
+    {
+        return (i % 2 == 1) ? "Error" : "Information";
+    }
+
+
+    /**
+     * Return the component of test record i.
+     *
+     * @param i number of the record
+     * @return component name
+     */
+    private String getComponent(int i)
+    {
+        return (i % 2 == 1) ? "A" : "B";
+    }
+
+
+    /**
+     * Create a sealed segment holding records 1 to 4.
+     *
+     * @param directory audit log directory
+     * @return sealed segment
+     * @throws IOException unable to write the segment
+     */
+    private AuditLogSegment getSealedSegment(File directory) throws IOException
+    {
+        AuditLogSegment segment = AuditLogSegment.create(directory, 1);
+
+        for (int i = 1; i <= 4; i++)
+        {
+            segment.append(getJSON(i), i * 100, "guid" + i, getSeverity(i), getComponent(i));
+        }
+
+        segment.seal();
+
+        return segment;
+    }
+
+
+    /**
+     * Check the index of the segment created by getSealedSegment.
+     *
+     * @param segment segment to check
+     * @throws IOException unable to read the segment
+     */
+    private void checkIndex(AuditLogSegment segment) throws IOException
+    {
+        assertEquals(segment.getEntryCount(), 4);
+
+        AuditLogSegment.EntryList errors = segment.findEntries("Error", null, Long.MIN_VALUE, Long.MAX_VALUE, 0);
+
+        assertEquals(errors.size(), 2);
+        assertEquals(errors.get(0), 0);
+        assertEquals(errors.get(1), 2);
+
+        AuditLogSegment.EntryList component = segment.findEntries(null, "B", 150, 350, 0);
+
+        assertEquals(component.size(), 1);
+        assertEquals(component.get(0), 1);
+
+        assertEquals(segment.findEntries(null, null, 200, 400, 2).size(), 2);
+        assertEquals(segment.findEntries("Unknown", null, Long.MIN_VALUE, Long.MAX_VALUE, 0).size(), 0);
+
+        AuditLogSegment.EntryList guid = segment.getGUIDEntries("guid3");
+
+        assertTrue(guid.size() >= 1);
+        assertEquals(segment.readRecord(guid.get(0)), getJSON(3));
+        assertEquals(segment.getGUIDEntries("guid5").size(), 0);
+    }
+
+
+    @Test
+    public void testIndexIsLoadedWhenReopened() throws IOException
+    {
+        File directory = Files.createTempDirectory("audit-log-segment").toFile();
+
+        getSealedSegment(directory).close();
+
+        AuditLogSegment segment = AuditLogSegment.open(directory, 1, new File(directory, AuditLogSegment.getFileName(1, AuditLogSegment.dataFileSuffix)));
+
+        checkIndex(segment);
+        segment.close();
+    }
+
+
+    @Test
+    public void testMissingIndexIsRebuilt() throws IOException
+    {
+        File directory = Files.createTempDirectory("audit-log-segment").toFile();
+        File indexFile = new File(directory, AuditLogSegment.getFileName(1, AuditLogSegment.indexFileSuffix));
+
+        getSealedSegment(directory).close();
+        assertTrue(indexFile.delete());
+
+        AuditLogSegment segment = AuditLogSegment.open(directory, 1, new File(directory, AuditLogSegment.getFileName(1, AuditLogSegment.dataFileSuffix)));
+
+        assertTrue(indexFile.isFile());
+        checkIndex(segment);
+        segment.close();
+    }
+
+
+    @Test
+    public void testPartlyWrittenRecordIsRemoved() throws IOException
+    {
+        File directory = Files.createTempDirectory("audit-log-segment").toFile();
+        File dataFile  = new File(directory, AuditLogSegment.getFileName(1, AuditLogSegment.dataFileSuffix));
+
+        getSealedSegment(directory).close();
+
+        long completeLength = dataFile.length();
+
+        try (OutputStream output = new FileOutputStream(dataFile, true))
+        {
+            output.write("{\"guid\":\"gu".getBytes(StandardCharsets.UTF_8));
+        }
+
+        AuditLogSegment segment = AuditLogSegment.open(directory, 1, dataFile);
+
+        assertEquals(dataFile.length(), completeLength);
+        checkIndex(segment);
+        segment.close();
+    }
+
+
+    @Test
+    public void testReleasedIndexIsReloaded() throws IOException
+    {
+        File            directory = Files.createTempDirectory("audit-log-segment").toFile();
+        AuditLogSegment segment   = getSealedSegment(directory);
+
+        segment.releaseIndex();
+        assertFalse(segment.isIndexLoaded());
+
+        /*
+         * A query outside the segment's time range does not need the index.
+         */
+        assertEquals(segment.findEntries(null, null, 500, 600, 0).size(), 0);
+        assertFalse(segment.isIndexLoaded());
+
+        checkIndex(segment);
+        assertTrue(segment.isIndexLoaded());
+        segment.close();
+    }
+
+
+    @Test
+    public void testActiveIndexIsNotReleased() throws IOException
+    {
+        File            directory = Files.createTempDirectory("audit-log-segment").toFile();
+        AuditLogSegment segment   = AuditLogSegment.create(directory, 1);
+
+        segment.append(getJSON(1), 100, "guid1", getSeverity(1), getComponent(1));
+        segment.releaseIndex();
+
+        assertFalse(segment.isSealed());
+        assertTrue(segment.isIndexLoaded());
+        segment.close();
+    }
+
+
+    @Test
+    public void testCompressedSegmentCanBeRead() throws IOException
+    {
+        File            directory = Files.createTempDirectory("audit-log-segment").toFile();
+        AuditLogSegment segment   = getSealedSegment(directory);
+
+        segment.compress();
+
+        assertFalse(new File(directory, AuditLogSegment.getFileName(1, AuditLogSegment.dataFileSuffix)).exists());
+        checkIndex(segment);
+        segment.close();
+
+        File compressedFile = new File(directory, AuditLogSegment.getFileName(1, AuditLogSegment.compressedFileSuffix));
+
+        assertEquals(AuditLogSegment.getSegmentNumber(compressedFile.getName()), 1L);
+
+        AuditLogSegment reopenedSegment = AuditLogSegment.open(directory, 1, compressedFile);
+
+        checkIndex(reopenedSegment);
+        reopenedSegment.close();
+    }
+}
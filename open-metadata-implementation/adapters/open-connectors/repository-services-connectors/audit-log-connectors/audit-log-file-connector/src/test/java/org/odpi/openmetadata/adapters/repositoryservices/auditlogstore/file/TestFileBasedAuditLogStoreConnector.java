@@ -0,0 +1,299 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.repositoryservices.auditlogstore.file;
+
+import org.odpi.openmetadata.frameworks.auditlog.AuditLogReportingComponent;
+import org.odpi.openmetadata.frameworks.connectors.properties.ConnectionProperties;
+import org.odpi.openmetadata.frameworks.connectors.properties.beans.Connection;
+import org.odpi.openmetadata.frameworks.connectors.properties.beans.Endpoint;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.auditlogstore.OMRSAuditLogRecord;
+import org.odpi.openmetadata.repositoryservices.serialization.OMRSJSONSerializer;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Verify that the file based audit log store rolls over to new segments, answers queries across the segments,
+ * bounds the number of indexes held in memory and moves the records stored by earlier releases into segments.
+ */
+public class TestFileBasedAuditLogStoreConnector
+{
+    /**
+     * Build a log record.  Record i is logged at time i * 1000.  The odd records are errors from component A
+     * and the even records are information records from component B.
+     *
+     * @param i number of the record
+     * @return log record
+     */
+    private OMRSAuditLogRecord getLogRecord(int i)
+    {
+        OMRSAuditLogRecord         logRecord = new OMRSAuditLogRecord();
+        AuditLogReportingComponent component = new AuditLogReportingComponent();
+
+        component.setComponentName((i % 2 == 1) ? "A" : "B");
+
+        logRecord.setGUID("guid" + i);
+        logRecord.setTimeStamp(new Date(i * 1000L));
+        logRecord.setSeverity((i % 2 == 1) ? "Error" : "Information");
+        logRecord.setOriginatorProperties(new HashMap<>());
+        logRecord.setOriginatorComponent(component);
+        logRecord.setMessageText("Message " + i);
+
+        return logRecord;
+    }
+
+
+    /**
+     * Start a connector for an audit log directory.
+     *
+     * @param directory audit log directory
+     * @param configurationProperties properties for the connection
+     * @return started connector
+     * @throws Exception unable to start the connector
+     */
+    private FileBasedAuditLogStoreConnector getConnector(File                directory,
+                                                         Map<String, Object> configurationProperties) throws Exception
+    {
+        Endpoint   endpoint   = new Endpoint();
+        Connection connection = new Connection();
+
+        endpoint.setAddress(directory.getPath());
+        connection.setEndpoint(endpoint);
+        connection.setConfigurationProperties(configurationProperties);
+
+        FileBasedAuditLogStoreConnector connector = new FileBasedAuditLogStoreConnector();
+
+        connector.initialize(UUID.randomUUID().toString(), new ConnectionProperties(connection));
+        connector.start();
+
+        return connector;
+    }
+
+
+    /**
+     * Return configuration properties that start a new segment for each record.
+     *
+     * @return configuration properties
+     */
+    private Map<String, Object> getOneRecordSegmentProperties()
+    {
+        Map<String, Object> configurationProperties = new HashMap<>();
+
+        configurationProperties.put(FileBasedAuditLogStoreProvider.maxSegmentSizeProperty, 1);
+
+        return configurationProperties;
+    }
+
+
+    /**
+     * Return the GUIDs of the log records.
+     *
+     * @param logRecords log records - may be null
+     * @return GUIDs in the same order
+     */
+    private List<String> getGUIDs(List<OMRSAuditLogRecord> logRecords)
+    {
+        List<String> guids = new ArrayList<>();
+
+        if (logRecords != null)
+        {
+            for (OMRSAuditLogRecord logRecord : logRecords)
+            {
+                guids.add(logRecord.getGUID());
+            }
+        }
+
+        return guids;
+    }
+
+
+    /**
+     * Return the number of segment data files in the directory.
+     *
+     * @param directory audit log directory
+     * @return count
+     */
+    private int getSegmentCount(File directory)
+    {
+        String[] fileNames = directory.list((dir, fileName) -> AuditLogSegment.getSegmentNumber(fileName) >= 0);
+
+        return (fileNames == null) ? 0 : fileNames.length;
+    }
+
+
+    @Test
+    public void testSegmentsRollOver() throws Exception
+    {
+        File                            directory = Files.createTempDirectory("audit-log-store").toFile();
+        FileBasedAuditLogStoreConnector connector = getConnector(directory, getOneRecordSegmentProperties());
+
+        for (int i = 1; i <= 6; i++)
+        {
+            connector.storeLogRecord(getLogRecord(i));
+        }
+
+        assertEquals(getSegmentCount(directory), 6);
+        assertEquals(getGUIDs(connector.getAuditLogRecordsByTimeStamp(null, null, 0, 0)).size(), 6);
+
+        connector.disconnect();
+
+        /*
+         * The records are found again after a restart and new records go into a new segment.
+         */
+        connector = getConnector(directory, getOneRecordSegmentProperties());
+        connector.storeLogRecord(getLogRecord(7));
+
+        assertEquals(getSegmentCount(directory), 7);
+        assertEquals(connector.getAuditLogRecord("guid3").getMessageText(), "Message 3");
+        assertEquals(getGUIDs(connector.getAuditLogRecordsByTimeStamp(new Date(6000), null, 0, 0)), Arrays.asList("guid6", "guid7"));
+
+        connector.disconnect();
+    }
+
+
+    @Test
+    public void testSearchesSpanSegments() throws Exception
+    {
+        File                            directory = Files.createTempDirectory("audit-log-store").toFile();
+        FileBasedAuditLogStoreConnector connector = getConnector(directory, getOneRecordSegmentProperties());
+        List<OMRSAuditLogRecord>        batch     = new ArrayList<>();
+
+        for (int i = 1; i <= 4; i++)
+        {
+            connector.storeLogRecord(getLogRecord(i));
+        }
+
+        for (int i = 5; i <= 10; i++)
+        {
+            batch.add(getLogRecord(i));
+        }
+
+        connector.storeLogRecords(batch);
+
+        assertEquals(getGUIDs(connector.getAuditLogRecordsByTimeStamp(new Date(3000), new Date(6000), 0, 0)),
+                     Arrays.asList("guid3", "guid4", "guid5", "guid6"));
+        assertEquals(getGUIDs(connector.getAuditLogRecordsByTimeStamp(new Date(3000), new Date(6000), 1, 2)),
+                     Arrays.asList("guid4", "guid5"));
+        assertEquals(getGUIDs(connector.getAuditLogRecordsBySeverity("Error", null, null, 0, 0)),
+                     Arrays.asList("guid1", "guid3", "guid5", "guid7", "guid9"));
+        assertEquals(getGUIDs(connector.getAuditLogRecordsBySeverity("Error", new Date(4000), null, 1, 1)),
+                     Arrays.asList("guid7"));
+        assertEquals(getGUIDs(connector.getAuditLogRecordsByComponent("B", new Date(1000), new Date(8000), 0, 0)),
+                     Arrays.asList("guid2", "guid4", "guid6", "guid8"));
+
+        assertNull(connector.getAuditLogRecordsBySeverity("Unknown", null, null, 0, 0));
+        assertNull(connector.getAuditLogRecordsByTimeStamp(new Date(20000), null, 0, 0));
+
+        assertEquals(connector.getAuditLogRecord("guid8").getMessageText(), "Message 8");
+        assertNull(connector.getAuditLogRecord("guid11"));
+
+        connector.disconnect();
+    }
+
+
+    @Test
+    public void testLoadedIndexesAreBounded() throws Exception
+    {
+        File                directory               = Files.createTempDirectory("audit-log-store").toFile();
+        Map<String, Object> configurationProperties = getOneRecordSegmentProperties();
+
+        configurationProperties.put(FileBasedAuditLogStoreProvider.maxLoadedIndexesProperty, 2);
+
+        FileBasedAuditLogStoreConnector connector = getConnector(directory, configurationProperties);
+
+        for (int i = 1; i <= 8; i++)
+        {
+            connector.storeLogRecord(getLogRecord(i));
+        }
+
+        assertEquals(connector.getLoadedIndexCount(), 2);
+
+        for (int i = 1; i <= 8; i++)
+        {
+            assertNotNull(connector.getAuditLogRecord("guid" + i));
+        }
+
+        assertEquals(getGUIDs(connector.getAuditLogRecordsBySeverity("Information", null, null, 0, 0)),
+                     Arrays.asList("guid2", "guid4", "guid6", "guid8"));
+        assertEquals(connector.getLoadedIndexCount(), 2);
+
+        connector.disconnect();
+
+        connector = getConnector(directory, configurationProperties);
+
+        assertEquals(connector.getLoadedIndexCount(), 2);
+        assertEquals(getGUIDs(connector.getAuditLogRecordsByTimeStamp(null, null, 0, 0)).size(), 8);
+
+        connector.disconnect();
+    }
+
+
+    @Test
+    public void testLegacyRecordsAreMoved() throws Exception
+    {
+        File directory = Files.createTempDirectory("audit-log-store").toFile();
+
+        /*
+         * Earlier releases stored each record in a file named after its GUID, so the files are not in time order.
+         */
+        for (int i : new int[] {3, 1, 4, 2})
+        {
+            OMRSAuditLogRecord logRecord = getLogRecord(i);
+
+            Files.write(new File(directory, "log-record-" + logRecord.getGUID()).toPath(),
+                        OMRSJSONSerializer.writeValueAsString(logRecord).getBytes(StandardCharsets.UTF_8));
+        }
+
+        FileBasedAuditLogStoreConnector connector = getConnector(directory, new HashMap<>());
+
+        connector.storeLogRecord(getLogRecord(5));
+
+        assertFalse(new File(directory, "log-record-guid1").exists());
+        assertEquals(getGUIDs(connector.getAuditLogRecordsByTimeStamp(null, null, 0, 0)),
+                     Arrays.asList("guid1", "guid2", "guid3", "guid4", "guid5"));
+        assertEquals(connector.getAuditLogRecord("guid2").getMessageText(), "Message 2");
+
+        connector.disconnect();
+    }
+
+
+    @Test
+    public void testLegacyRecordIsNotMovedTwice() throws Exception
+    {
+        File                            directory = Files.createTempDirectory("audit-log-store").toFile();
+        FileBasedAuditLogStoreConnector connector = getConnector(directory, new HashMap<>());
+
+        connector.storeLogRecord(getLogRecord(1));
+        connector.disconnect();
+
+        /*
+         * This is what is left if the server stops after moving a legacy record but before removing its file.
+         */
+        File legacyFile = new File(directory, "log-record-guid1");
+
+        Files.write(legacyFile.toPath(), OMRSJSONSerializer.writeValueAsString(getLogRecord(1)).getBytes(StandardCharsets.UTF_8));
+
+        connector = getConnector(directory, new HashMap<>());
+
+        assertFalse(legacyFile.exists());
+        assertEquals(getGUIDs(connector.getAuditLogRecordsByTimeStamp(null, null, 0, 0)), Arrays.asList("guid1"));
+        assertTrue(getSegmentCount(directory) >= 2);
+
+        connector.disconnect();
+    }
+}
@@ -2,7 +2,6 @@
 /* Copyright Contributors to the ODPi Egeria project. */
 package org.odpi.openmetadata.adapters.repositoryservices.cohortregistrystore.file;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.odpi.openmetadata.frameworks.connectors.properties.beans.Connection;
 import org.odpi.openmetadata.frameworks.connectors.properties.beans.Endpoint;
 import org.slf4j.Logger;
@@ -13,8 +12,7 @@ import org.odpi.openmetadata.repositoryservices.ffdc.OMRSAuditCode;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.cohortregistrystore.OMRSCohortRegistryStoreConnectorBase;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.cohortregistrystore.properties.MemberRegistration;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.cohortregistrystore.properties.CohortMembership;
-
-import org.apache.commons.io.FileUtils;
+import org.odpi.openmetadata.repositoryservices.serialization.OMRSJSONSerializer;
 
 import java.io.File;
 import java.io.IOException;
@@ -399,10 +397,7 @@ public class FileBasedRegistryStoreConnector extends OMRSCohortRegistryStoreConn
         {
             log.debug("Retrieving cohort registry store properties");
 
-            String registryStoreFileContents = FileUtils.readFileToString(registryStoreFile, "UTF-8");
-
-            ObjectMapper objectMapper = new ObjectMapper();
-            newRegistryStoreProperties = objectMapper.readValue(registryStoreFileContents, CohortMembership.class);
+            newRegistryStoreProperties = OMRSJSONSerializer.readValue(registryStoreFile, CohortMembership.class);
         }
         catch (IOException   ioException)
         {
@@ -602,11 +597,7 @@ public class FileBasedRegistryStoreConnector extends OMRSCohortRegistryStoreConn
             }
             else
             {
-                ObjectMapper objectMapper = new ObjectMapper();
-
-                String registryStoreFileContents = objectMapper.writeValueAsString(newRegistryStoreProperties);
-
-                FileUtils.writeStringToFile(registryStoreFile, registryStoreFileContents, (String)null,false);
+                OMRSJSONSerializer.writeValue(registryStoreFile, newRegistryStoreProperties);
             }
         }
         catch (IOException   ioException)
@@ -2,13 +2,12 @@
 /* Copyright Contributors to the ODPi Egeria project. */
 package org.odpi.openmetadata.adapters.repositoryservices.archiveconnector.file;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.odpi.openmetadata.frameworks.connectors.ffdc.ConnectorCheckedException;
 import org.odpi.openmetadata.frameworks.connectors.properties.ConnectionProperties;
 import org.odpi.openmetadata.frameworks.connectors.properties.EndpointProperties;
-import org.apache.commons.io.FileUtils;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.OpenMetadataArchiveStoreConnector;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.properties.OpenMetadataArchive;
+import org.odpi.openmetadata.repositoryservices.serialization.OMRSJSONSerializer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -81,11 +80,7 @@ public class FileBasedOpenMetadataArchiveStoreConnector extends OpenMetadataArch
         {
             log.debug("Retrieving server configuration properties");
 
-            String configStoreFileContents = FileUtils.readFileToString(archiveStoreFile, "UTF-8");
-
-            ObjectMapper objectMapper = new ObjectMapper();
-
-            newOpenMetadataArchive = objectMapper.readValue(configStoreFileContents, OpenMetadataArchive.class);
+            newOpenMetadataArchive = OMRSJSONSerializer.readValue(archiveStoreFile, OpenMetadataArchive.class);
         }
         catch (IOException ioException)
         {
@@ -122,11 +117,7 @@ public class FileBasedOpenMetadataArchiveStoreConnector extends OpenMetadataArch
             }
             else
             {
-                ObjectMapper objectMapper = new ObjectMapper();
-
-                String archiveStoreFileContents = objectMapper.writeValueAsString(archiveContents);
-
-                FileUtils.writeStringToFile(archiveStoreFile, archiveStoreFileContents, (String)null,false);
+                OMRSJSONSerializer.writeValue(archiveStoreFile, archiveContents);
             }
         }
         catch (IOException   ioException)
@@ -58,6 +58,33 @@ public enum GraphOMRSAuditCode implements AuditLogMessageSet
             "The OMRS Graph Repository has been opened.",
             "The local server has created and initialized the Local OMRS Graph Repository database.",
             "No action is required. The existing graph repository has been opened and validated successfully."),
+
+    GRAPH_INDEX_REINDEX_STARTED("OMRS-GRAPH-REPOSITORY-0004",
+            OMRSAuditLogRecordSeverity.INFO,
+            "The OMRS Graph Repository {0} has started to add the existing instances to new index {1}",
+            "The index was added for a property that already has values in the graph.  The existing vertices or edges are " +
+                                        "being indexed in the background.  Queries on the property scan the graph until the index is enabled.",
+            "No action is required.  Progress is reported in OMRS-GRAPH-REPOSITORY-0005 and the end of the job in " +
+                                        "OMRS-GRAPH-REPOSITORY-0006."),
+
+    GRAPH_INDEX_REINDEX_PROGRESS("OMRS-GRAPH-REPOSITORY-0005",
+            OMRSAuditLogRecordSeverity.INFO,
+            "The OMRS Graph Repository {0} has added {2} instances to new index {1}",
+            "The background job that indexes the existing instances is still running.",
+            "No action is required."),
+
+    GRAPH_INDEX_REINDEX_COMPLETE("OMRS-GRAPH-REPOSITORY-0006",
+            OMRSAuditLogRecordSeverity.INFO,
+            "The OMRS Graph Repository {0} has enabled new index {1} after adding {2} existing instances in {3} milliseconds",
+            "The background job that indexes the existing instances has completed.  Queries on the property now use the index.",
+            "No action is required."),
+
+    GRAPH_INDEX_REINDEX_FAILED("OMRS-GRAPH-REPOSITORY-0007",
+            OMRSAuditLogRecordSeverity.EXCEPTION,
+            "The OMRS Graph Repository {0} was unable to add the existing instances to new index {1}.  The {2} exception was returned with message {3}",
+            "The index is not enabled.  Queries on the property continue to scan the graph.",
+            "Use the exception to diagnose the problem with the graph database.  Once it is fixed, restart the server " +
+                                        "so the index is checked again, or reindex it with the JanusGraph management API."),
     ;
 
     AuditLogMessageDefinition messageDefinition;
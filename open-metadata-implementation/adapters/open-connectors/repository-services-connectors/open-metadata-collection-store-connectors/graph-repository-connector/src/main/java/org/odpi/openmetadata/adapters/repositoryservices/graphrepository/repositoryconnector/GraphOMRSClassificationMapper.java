@@ -23,6 +23,7 @@ import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollec
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryHelper;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.RepositoryErrorException;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.TypeErrorException;
+import org.odpi.openmetadata.repositoryservices.serialization.OMRSJSONSerializer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -103,7 +104,7 @@ public class GraphOMRSClassificationMapper {
         if (classificationProperties != null) {
 
             // First write properties as json - useful for handling collections and possibly for full text/string matching???
-            ObjectMapper objectMapper = new ObjectMapper();
+            ObjectMapper objectMapper = OMRSJSONSerializer.getObjectMapper();
             String jsonString;
             try {
                 jsonString = objectMapper.writeValueAsString(classificationProperties);
@@ -299,7 +300,7 @@ public class GraphOMRSClassificationMapper {
 
         List<String> maintainedByList = classification.getMaintainedBy();
         if (maintainedByList != null && !maintainedByList.isEmpty()) {
-            ObjectMapper objectMapper = new ObjectMapper();
+            ObjectMapper objectMapper = OMRSJSONSerializer.getObjectMapper();
             String jsonString;
             try {
                 jsonString = objectMapper.writeValueAsString(maintainedByList);
@@ -330,7 +331,7 @@ public class GraphOMRSClassificationMapper {
 
         Map<String, Serializable> mappingProperties = classification.getMappingProperties();
         if (mappingProperties != null && !mappingProperties.isEmpty()) {
-            ObjectMapper objectMapper = new ObjectMapper();
+            ObjectMapper objectMapper = OMRSJSONSerializer.getObjectMapper();
             String jsonString;
             try {
                 jsonString = objectMapper.writeValueAsString(mappingProperties);
@@ -369,7 +370,7 @@ public class GraphOMRSClassificationMapper {
         String stringProps = (String) getVertexProperty(vertex, "classificationProperties");
 
         if (stringProps != null) {
-            ObjectMapper objectMapper = new ObjectMapper();
+            ObjectMapper objectMapper = OMRSJSONSerializer.getObjectMapper();
             try {
                 InstanceProperties instanceProperties = objectMapper.readValue(stringProps, InstanceProperties.class);
                 log.debug("{} classification has deserialized properties {}", methodName, instanceProperties);
@@ -445,7 +446,7 @@ public class GraphOMRSClassificationMapper {
         // maintainedBy
         String maintainedByString = (String) getVertexProperty(vertex, PROPERTY_KEY_CLASSIFICATION_MAINTAINED_BY);
         if (maintainedByString != null) {
-            ObjectMapper objectMapper = new ObjectMapper();
+            ObjectMapper objectMapper = OMRSJSONSerializer.getObjectMapper();
             try {
                 List<String> maintainedByList = (List<String>) objectMapper.readValue(maintainedByString, List.class);
                 log.debug("{} vertex has deserialized maintainedBy list {}", methodName, maintainedByList);
@@ -466,7 +467,7 @@ public class GraphOMRSClassificationMapper {
         // mappingProperties
         String mappingPropertiesString = (String) getVertexProperty(vertex, PROPERTY_KEY_CLASSIFICATION_MAPPING_PROPERTIES);
         if (mappingPropertiesString != null) {
-            ObjectMapper objectMapper = new ObjectMapper();
+            ObjectMapper objectMapper = OMRSJSONSerializer.getObjectMapper();
             try {
                 TypeReference<Map<String, Serializable>> typeReference = new TypeReference<Map<String, Serializable>>() {};
                 Map<String, Serializable> mappingPropertiesMap = objectMapper.readValue(mappingPropertiesString, typeReference);
@@ -26,6 +26,7 @@ import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollec
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.EntityProxyOnlyException;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.RepositoryErrorException;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.TypeErrorException;
+import org.odpi.openmetadata.repositoryservices.serialization.OMRSJSONSerializer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -130,7 +131,7 @@ public class GraphOMRSEntityMapper {
         if (instanceProperties != null) {
 
             // First write properties as json - useful for handling collections and possibly for full text/string matching???
-            ObjectMapper objectMapper = new ObjectMapper();
+            ObjectMapper objectMapper = OMRSJSONSerializer.getObjectMapper();
             String jsonString;
             try {
                 jsonString = objectMapper.writeValueAsString(instanceProperties);
@@ -192,7 +193,7 @@ public class GraphOMRSEntityMapper {
         InstanceProperties uniqueProperties = entity.getUniqueProperties();
         if (uniqueProperties != null) {
             // First approach was to write properties as json - could be useful for text/string matching???
-            ObjectMapper objectMapper = new ObjectMapper();
+            ObjectMapper objectMapper = OMRSJSONSerializer.getObjectMapper();
             String jsonString;
             try {
                 jsonString = objectMapper.writeValueAsString(uniqueProperties);
@@ -379,7 +380,7 @@ public class GraphOMRSEntityMapper {
         // can be indexed even on Relationships. Queries can use textRegex to search/retrieve.
         if (entity.getMaintainedBy() != null) {
             List<String> maintainers = entity.getMaintainedBy();
-            ObjectMapper objectMapper = new ObjectMapper();
+            ObjectMapper objectMapper = OMRSJSONSerializer.getObjectMapper();
             String jsonString;
             try {
                 jsonString = objectMapper.writeValueAsString(maintainers);
@@ -413,7 +414,7 @@ public class GraphOMRSEntityMapper {
         // anticipated that it will be used for search, more for correlation.
         if (entity.getMappingProperties() != null) {
             Map<String, Serializable> mappingProperties = entity.getMappingProperties();
-            ObjectMapper objectMapper = new ObjectMapper();
+            ObjectMapper objectMapper = OMRSJSONSerializer.getObjectMapper();
             String jsonString;
             try {
                 jsonString = objectMapper.writeValueAsString(mappingProperties);
@@ -469,7 +470,7 @@ public class GraphOMRSEntityMapper {
         String stringProps = (String) getVertexProperty(vertex, "instanceProperties");
 
         if (stringProps != null) {
-            ObjectMapper objectMapper = new ObjectMapper();
+            ObjectMapper objectMapper = OMRSJSONSerializer.getObjectMapper();
             try {
                 InstanceProperties instanceProperties = objectMapper.readValue(stringProps, InstanceProperties.class);
                 log.debug("{} entity has deserialized properties {}", methodName, instanceProperties);
@@ -520,7 +521,7 @@ public class GraphOMRSEntityMapper {
         String stringProps = (String) getVertexProperty(vertex, "instanceProperties");
 
         if (stringProps != null) {
-            ObjectMapper objectMapper = new ObjectMapper();
+            ObjectMapper objectMapper = OMRSJSONSerializer.getObjectMapper();
             try {
                 InstanceProperties instanceProperties = objectMapper.readValue(stringProps, InstanceProperties.class);
                 log.debug("{} entity has deserialized properties {}", methodName, instanceProperties);
@@ -624,7 +625,7 @@ public class GraphOMRSEntityMapper {
 
         String maintainedByString = (String) getVertexProperty(vertex, PROPERTY_KEY_ENTITY_MAINTAINED_BY);
         if (maintainedByString != null) {
-            ObjectMapper objectMapper = new ObjectMapper();
+            ObjectMapper objectMapper = OMRSJSONSerializer.getObjectMapper();
             try {
                 List<String> maintainedByList = (List<String>) objectMapper.readValue(maintainedByString, List.class);
                 log.debug("{} entity has deserialized maintainedBy {}", methodName, maintainedByList);
@@ -644,7 +645,7 @@ public class GraphOMRSEntityMapper {
 
         String mappingPropertiesString = (String) getVertexProperty(vertex, PROPERTY_KEY_ENTITY_MAPPING_PROPERTIES);
         if (mappingPropertiesString != null) {
-            ObjectMapper objectMapper = new ObjectMapper();
+            ObjectMapper objectMapper = OMRSJSONSerializer.getObjectMapper();
             try {
                 TypeReference<Map<String, Serializable>> typeReference = new TypeReference<Map<String, Serializable>>() {};
                 Map<String, Serializable> mappingPropertiesMap = objectMapper.readValue(mappingPropertiesString, typeReference);
@@ -146,6 +146,16 @@ public enum GraphOMRSErrorCode implements ExceptionMessageSet
             "The search properties contains a values that do not match the type of property {0} - reported by the {1} method of class {2} to open metadata repository {3}",
             "The system is unable to perform the request because the provided values do not match the type of the property.",
             "Correct the caller's code and retry the request."),
+    UNIT_OF_WORK_ROLLED_BACK(
+            400, "OMRS-GRAPH-REPOSITORY-400-030",
+            "The unit of work was not committed because one of its operations rolled back the graph transaction - reported by the {0} method of class {1} to open metadata repository {2}",
+            "The system rolled back all of the changes made by the unit of work.",
+            "Check the earlier messages for the operation that failed, correct the request and retry it."),
+    TRANSACTION_NOT_COMMITTED(
+            500, "OMRS-GRAPH-REPOSITORY-500-001",
+            "The graph transaction for the {0} method of class {1} to open metadata repository {2} could not be committed after {3} attempt(s): {4}",
+            "The system rolled back the transaction.  If the failure was caused by contention with other requests, it retried the transaction until the retry limit was reached.",
+            "Retry the request.  If the problem persists, check the graph database and consider increasing the transactionRetryLimit configuration property of the repository connection."),
 
     ;
 
@@ -5,6 +5,7 @@ package org.odpi.openmetadata.adapters.repositoryservices.graphrepository.reposi
 import org.apache.commons.collections4.MapUtils;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
 import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Element;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.apache.tinkerpop.gremlin.structure.VertexProperty;
 import org.janusgraph.core.Cardinality;
@@ -24,9 +25,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 
 import static org.odpi.openmetadata.adapters.repositoryservices.graphrepository.repositoryconnector.GraphOMRSConstants.*;
@@ -41,6 +44,9 @@ public class GraphOMRSGraphFactory {
     private String       thisMetadataCollectionId;
     private AuditLog     thisAuditLog                 = null;
     private String       controlVertexIdPropertyName  = "ControlVertexIdentifier";
+    private int          reindexProgressInterval      = GraphOMRSRepositoryConnectorProvider.defaultReindexProgressInterval;
+
+    private GraphOMRSIndexManager indexManager        = null;
 
 
     /*
@@ -58,6 +64,28 @@ public class GraphOMRSGraphFactory {
         Date
     }
 
+
+    /**
+     * Set the number of seconds between the progress reports of a background reindex.  Must be called before open.
+     *
+     * @param reindexProgressInterval seconds between progress reports
+     */
+    void setReindexProgressInterval(int reindexProgressInterval)
+    {
+        this.reindexProgressInterval = reindexProgressInterval;
+    }
+
+
+    /**
+     * Return the manager for the indexes added while the repository is running.  It is created when the graph is opened.
+     *
+     * @return index manager
+     */
+    GraphOMRSIndexManager getIndexManager()
+    {
+        return indexManager;
+    }
+
     public JanusGraph open(String              metadataCollectionId,
                            String              repositoryName,
                            AuditLog            auditLog,
@@ -92,6 +120,7 @@ public class GraphOMRSGraphFactory {
         try {
 
             graph = build.open();
+            indexManager = new GraphOMRSIndexManager(graph, repositoryName, auditLog, reindexProgressInterval);
 
         } catch (Exception e) {
             log.error("{} could not open graph", methodName);
@@ -235,6 +264,7 @@ public class GraphOMRSGraphFactory {
         // Re-check whether method succeeded and complete open transaction
         if (success) {
             g.tx().commit();
+            indexManager.refreshIndexedPropertyKeys();
         }
         else {
 
@@ -298,7 +328,9 @@ public class GraphOMRSGraphFactory {
              * uses the same qualified property names for its inherited properties - and hence uses the index that already exists. For properties (and
              * their indexes) that are defined on the immediate type (rather than being inherited), there cannot be any instances of the immediate type
              * prior to the type being defined (so there should be no need to rescan the graph). Hence no reindexing is performed. On construction of each
-             * index the code does wait for it to reach ENABLED state.
+             * index the code does wait for it to reach ENABLED state. The exception is an index that is added for a type-defined property after
+             * instances with that property exist - for example because the indexed properties of the connection have changed. These indexes are
+             * filled by a background reindex job - see createIndexesForTypeProperty.
              */
 
 
@@ -808,6 +840,100 @@ public class GraphOMRSGraphFactory {
     }
 
 
+    /**
+     * Create the indexes for a property defined by a type.  The mixed index supports the regular expression searches
+     * and the composite index supports fast exact matches.  Both are built in one management transaction.  The
+     * composite index is never unique because reference copies and earlier versions of an instance share the value.
+     *
+     * If the property key already exists the graph may hold instances with the property, so the new indexes are
+     * filled by a background reindex job and the method returns straight away.  Otherwise the indexes are empty and
+     * the method waits for them to be enabled.
+     *
+     * @param elementClass Vertex or Edge
+     * @param propName qualified name of the property
+     * @param propKeyName name of the property key in the graph
+     * @param className java class of the property values
+     * @param mapping mapping for a mixed index - null means no mixed index
+     * @param composite whether to create a composite index
+     */
+    void createIndexesForTypeProperty(Class<? extends Element> elementClass,
+                                      String                   propName,
+                                      String                   propKeyName,
+                                      String                   className,
+                                      MixedIndexMapping        mapping,
+                                      boolean                  composite)
+    {
+        final String methodName = "createIndexesForTypeProperty";
+
+        String elementName        = (elementClass == Vertex.class) ? "vertex" : "edge";
+        String mixedIndexName     = elementName + "IndexProperty" + propKeyName;
+        String compositeIndexName = elementName + "IndexComposite" + propKeyName;
+
+        List<String> newIndexNames = new ArrayList<>();
+
+        JanusGraphManagement management = graph.openManagement();
+
+        try {
+
+            boolean createMixedIndex     = (mapping != null) && (management.getGraphIndex(mixedIndexName) == null);
+            boolean createCompositeIndex = composite && (management.getGraphIndex(compositeIndexName) == null);
+
+            if (!createMixedIndex && !createCompositeIndex) {
+                log.debug("{} indexes already exist for property {}", methodName, propKeyName);
+                management.rollback();
+                return;
+            }
+
+            PropertyKey propertyKey = management.getPropertyKey(propKeyName);
+            boolean oldKey = (propertyKey != null);
+            if (!oldKey) {
+                log.debug("{} make property key for property {}", methodName, propKeyName);
+                propertyKey = management.makePropertyKey(propKeyName).dataType(Class.forName(className)).make();
+            }
+
+            if (createMixedIndex) {
+                log.info("{} index create {} for {} property {}", methodName, mixedIndexName, elementName, propKeyName);
+                JanusGraphManagement.IndexBuilder indexBuilder = management.buildIndex(mixedIndexName, elementClass);
+                if (mapping == MixedIndexMapping.Text)
+                    indexBuilder.addKey(propertyKey);                                    // default - implicitly Text mapping
+                else if (mapping == MixedIndexMapping.String)
+                    indexBuilder.addKey(propertyKey, Mapping.STRING.asParameter());      // explicitly String mapping so values are not tokenized
+                else
+                    indexBuilder.addKey(propertyKey, Mapping.DEFAULT.asParameter());
+                indexBuilder.buildMixedIndex("search");
+                newIndexNames.add(mixedIndexName);
+            }
+
+            if (createCompositeIndex) {
+                log.info("{} index create {} for {} property {}", methodName, compositeIndexName, elementName, propKeyName);
+                management.buildIndex(compositeIndexName, elementClass).addKey(propertyKey).buildCompositeIndex();
+                newIndexNames.add(compositeIndexName);
+            }
+
+            management.commit();
+
+            for (String indexName : newIndexNames) {
+                if (oldKey) {
+                    indexManager.reindex(indexName);
+                }
+                else {
+                    log.debug("{} awaitGraphIndexStatus ENABLED for {}", methodName, indexName);
+                    ManagementSystem.awaitGraphIndexStatus(graph, indexName).status(SchemaStatus.ENABLED).timeout(10, ChronoUnit.SECONDS).call();
+                }
+            }
+
+            if (!oldKey) {
+                indexManager.refreshIndexedPropertyKeys();
+            }
+        }
+        catch (Exception e) {
+
+            log.error("{} !!! Caught exception from index construction for property name {}, property key {}, exception {}", methodName, propName, propKeyName, e);
+            management.rollback();
+        }
+    }
+
+
     private boolean createControlIndex() {
 
         final String methodName = "createControlIndex";
@@ -0,0 +1,387 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.repositoryservices.graphrepository.repositoryconnector;
+
+
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.step.HasContainerHolder;
+import org.apache.tinkerpop.gremlin.process.traversal.step.TraversalParent;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.janusgraph.core.JanusGraph;
+import org.janusgraph.core.PropertyKey;
+import org.janusgraph.core.schema.JanusGraphIndex;
+import org.janusgraph.core.schema.JanusGraphManagement;
+import org.janusgraph.core.schema.SchemaAction;
+import org.janusgraph.core.schema.SchemaStatus;
+import org.janusgraph.diskstorage.keycolumnvalue.scan.ScanMetrics;
+import org.janusgraph.graphdb.database.management.ManagementSystem;
+import org.janusgraph.graphdb.olap.job.IndexRepairJob;
+import org.odpi.openmetadata.frameworks.auditlog.AuditLog;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.MatchCriteria;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * GraphOMRSIndexManager looks after the graph indexes that are added while the repository is running.  When an
+ * index is added for a property key that already has values in the graph, the existing vertices or edges must be
+ * reindexed before the index can be used.  The reindex runs as a background job so the repository stays available,
+ * and its progress is reported to the audit log.
+ *
+ * The index manager also keeps the set of property keys that are covered by an enabled index.  The find methods
+ * use this to count the queries that can be answered from an index and those that must scan the graph.
+ */
+class GraphOMRSIndexManager
+{
+    private static final Logger log = LoggerFactory.getLogger(GraphOMRSIndexManager.class);
+
+    private static final String actionDescription = "Graph index management";
+
+    private final JanusGraph      graph;
+    private final String          repositoryName;
+    private final AuditLog        auditLog;
+    private final int             reindexProgressInterval;
+    private final ExecutorService reindexExecutor;
+
+    private volatile Set<String>         indexedPropertyKeys = Collections.emptySet();
+    private final    Map<String, String> reindexStatus       = Collections.synchronizedMap(new TreeMap<>());
+
+    private final AtomicLong indexedQueryCount   = new AtomicLong(0);
+    private final AtomicLong scannedQueryCount   = new AtomicLong(0);
+    private final AtomicLong reindexJobCount     = new AtomicLong(0);
+    private final AtomicLong failedReindexCount  = new AtomicLong(0);
+    private final AtomicLong reindexedCount      = new AtomicLong(0);
+
+
+    /**
+     * Constructor supplies the graph and the destination for progress reports.
+     *
+     * @param graph graph whose indexes are managed
+     * @param repositoryName name of this repository
+     * @param auditLog destination for progress reports
+     * @param reindexProgressInterval seconds between progress reports for a reindex job
+     */
+    GraphOMRSIndexManager(JanusGraph graph,
+                          String     repositoryName,
+                          AuditLog   auditLog,
+                          int        reindexProgressInterval)
+    {
+        this.graph                   = graph;
+        this.repositoryName          = repositoryName;
+        this.auditLog                = auditLog;
+        this.reindexProgressInterval = Math.max(reindexProgressInterval, 1);
+
+        /*
+         * One job at a time - a reindex reads every vertex or edge so running several together only adds contention.
+         */
+        this.reindexExecutor = Executors.newSingleThreadExecutor(runnable ->
+        {
+            Thread thread = new Thread(runnable, "GraphOMRSReindex-" + repositoryName);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+
+    /**
+     * Rebuild the set of property keys that are covered by an enabled index.  An index that is still being built
+     * is not included because JanusGraph does not use it for queries.
+     */
+    void refreshIndexedPropertyKeys()
+    {
+        final String methodName = "refreshIndexedPropertyKeys";
+
+        Set<String>          propertyKeys = new HashSet<>();
+        JanusGraphManagement management   = graph.openManagement();
+
+        try
+        {
+            addIndexedPropertyKeys(management.getGraphIndexes(Vertex.class), propertyKeys);
+            addIndexedPropertyKeys(management.getGraphIndexes(Edge.class), propertyKeys);
+        }
+        catch (Exception error)
+        {
+            log.error("{} could not read the graph indexes, exception {}", methodName, error.getMessage());
+        }
+        finally
+        {
+            management.rollback();
+        }
+
+        indexedPropertyKeys = Collections.unmodifiableSet(propertyKeys);
+
+        log.debug("{} {} property keys are indexed", methodName, propertyKeys.size());
+    }
+
+
+    /**
+     * Add the property keys of the enabled indexes to the set.
+     *
+     * @param indexes indexes to check
+     * @param propertyKeys set of indexed property keys
+     */
+    private void addIndexedPropertyKeys(Iterable<JanusGraphIndex> indexes,
+                                        Set<String>               propertyKeys)
+    {
+        for (JanusGraphIndex index : indexes)
+        {
+            for (PropertyKey propertyKey : index.getFieldKeys())
+            {
+                if (index.getIndexStatus(propertyKey) == SchemaStatus.ENABLED)
+                {
+                    propertyKeys.add(propertyKey.name());
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Return whether the property key is covered by an enabled index.
+     *
+     * @param propertyKeyName name of the property key in the graph
+     * @return boolean flag
+     */
+    boolean isIndexed(String propertyKeyName)
+    {
+        return indexedPropertyKeys.contains(propertyKeyName);
+    }
+
+
+    /**
+     * Start a background job that adds the existing vertices or edges to a new index.  The index is enabled when
+     * the job completes.
+     *
+     * @param indexName name of the new index
+     */
+    void reindex(String indexName)
+    {
+        reindexStatus.put(indexName, "WAITING");
+        reindexExecutor.submit(() -> runReindex(indexName));
+    }
+
+
+    /**
+     * Run the reindex job for an index, reporting its progress until it completes.
+     *
+     * @param indexName name of the new index
+     */
+    private void runReindex(String indexName)
+    {
+        final String methodName = "runReindex";
+
+        long startTime = System.currentTimeMillis();
+
+        reindexJobCount.incrementAndGet();
+
+        try
+        {
+            /*
+             * The index must be registered with every graph instance before it can be reindexed.
+             */
+            ManagementSystem.awaitGraphIndexStatus(graph, indexName).status(SchemaStatus.REGISTERED).call();
+
+            JanusGraphManagement           management = graph.openManagement();
+            JanusGraphManagement.IndexJobFuture future = management.updateIndex(management.getGraphIndex(indexName), SchemaAction.REINDEX);
+            management.commit();
+
+            reindexStatus.put(indexName, "REINDEXING");
+            auditLog.logMessage(actionDescription, GraphOMRSAuditCode.GRAPH_INDEX_REINDEX_STARTED.getMessageDefinition(repositoryName, indexName));
+
+            ScanMetrics metrics = null;
+
+            while (metrics == null)
+            {
+                try
+                {
+                    metrics = future.get(reindexProgressInterval, TimeUnit.SECONDS);
+                }
+                catch (TimeoutException notFinished)
+                {
+                    ScanMetrics progress = future.getIntermediateResult();
+                    long        added    = (progress == null) ? 0 : progress.getCustom(IndexRepairJob.ADDED_RECORDS_COUNT);
+
+                    auditLog.logMessage(actionDescription,
+                                        GraphOMRSAuditCode.GRAPH_INDEX_REINDEX_PROGRESS.getMessageDefinition(repositoryName,
+                                                                                                             indexName,
+                                                                                                             Long.toString(added)));
+                }
+            }
+
+            long added = metrics.getCustom(IndexRepairJob.ADDED_RECORDS_COUNT);
+
+            ManagementSystem.awaitGraphIndexStatus(graph, indexName).status(SchemaStatus.ENABLED).call();
+
+            reindexedCount.addAndGet(added);
+            reindexStatus.put(indexName, "ENABLED");
+            refreshIndexedPropertyKeys();
+
+            auditLog.logMessage(actionDescription,
+                                GraphOMRSAuditCode.GRAPH_INDEX_REINDEX_COMPLETE.getMessageDefinition(repositoryName,
+                                                                                                     indexName,
+                                                                                                     Long.toString(added),
+                                                                                                     Long.toString(System.currentTimeMillis() - startTime)));
+        }
+        catch (Exception error)
+        {
+            log.error("{} reindex of index {} failed, exception {}", methodName, indexName, error);
+
+            failedReindexCount.incrementAndGet();
+            reindexStatus.put(indexName, "FAILED");
+
+            if (error instanceof InterruptedException)
+            {
+                Thread.currentThread().interrupt();
+            }
+
+            auditLog.logException(actionDescription,
+                                  GraphOMRSAuditCode.GRAPH_INDEX_REINDEX_FAILED.getMessageDefinition(repositoryName,
+                                                                                                     indexName,
+                                                                                                     error.getClass().getName(),
+                                                                                                     error.getMessage()),
+                                  error);
+        }
+    }
+
+
+    /**
+     * Count a find request as indexed or scanned.  The property criteria are inspected for the property keys that
+     * they test.  When all of the criteria must match, one indexed key is enough for JanusGraph to use an index.
+     * When any criterion may match, every key must be indexed.  A query that excludes matches cannot use an index.
+     *
+     * @param propertyCriteria traversals that test the properties
+     * @param matchCriteria how the criteria are combined
+     */
+    void recordQuery(List<? extends Traversal<?, ?>> propertyCriteria,
+                     MatchCriteria                   matchCriteria)
+    {
+        if ((propertyCriteria == null) || (propertyCriteria.isEmpty()))
+        {
+            return;
+        }
+
+        boolean anyIndexed = false;
+        boolean allIndexed = true;
+
+        for (Traversal<?, ?> criterion : propertyCriteria)
+        {
+            Set<String> propertyKeys = new HashSet<>();
+
+            addPropertyKeys(criterion.asAdmin(), propertyKeys);
+
+            boolean criterionIndexed = ! propertyKeys.isEmpty();
+
+            for (String propertyKey : propertyKeys)
+            {
+                criterionIndexed = criterionIndexed && isIndexed(propertyKey);
+            }
+
+            anyIndexed = anyIndexed || criterionIndexed;
+            allIndexed = allIndexed && criterionIndexed;
+        }
+
+        boolean indexed;
+
+        if (matchCriteria == MatchCriteria.ANY)
+        {
+            indexed = allIndexed;
+        }
+        else if (matchCriteria == MatchCriteria.NONE)
+        {
+            indexed = false;
+        }
+        else
+        {
+            indexed = anyIndexed;
+        }
+
+        if (indexed)
+        {
+            indexedQueryCount.incrementAndGet();
+        }
+        else
+        {
+            scannedQueryCount.incrementAndGet();
+        }
+    }
+
+
+    /**
+     * Add the property keys tested by the traversal and any traversals nested inside it.
+     *
+     * @param traversal traversal to inspect
+     * @param propertyKeys set of property keys
+     */
+    private void addPropertyKeys(Traversal.Admin<?, ?> traversal,
+                                 Set<String>           propertyKeys)
+    {
+        for (Step<?, ?> step : traversal.getSteps())
+        {
+            if (step instanceof HasContainerHolder)
+            {
+                for (HasContainer hasContainer : ((HasContainerHolder) step).getHasContainers())
+                {
+                    propertyKeys.add(hasContainer.getKey());
+                }
+            }
+
+            if (step instanceof TraversalParent)
+            {
+                for (Traversal.Admin<?, ?> child : ((TraversalParent) step).getLocalChildren())
+                {
+                    addPropertyKeys(child, propertyKeys);
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Return the status of the reindex jobs that have run since the repository started.
+     *
+     * @return map of index name to WAITING, REINDEXING, ENABLED or FAILED
+     */
+    Map<String, String> getReindexStatus()
+    {
+        synchronized (reindexStatus)
+        {
+            return new TreeMap<>(reindexStatus);
+        }
+    }
+
+
+    /**
+     * Return the counts of indexed and scanned queries and of the reindex jobs.
+     *
+     * @return map of statistic name to value
+     */
+    Map<String, Long> getStatistics()
+    {
+        Map<String, Long> statistics = new LinkedHashMap<>();
+
+        statistics.put("indexedPropertyKeys", (long) indexedPropertyKeys.size());
+        statistics.put("indexedQueries", indexedQueryCount.get());
+        statistics.put("scannedQueries", scannedQueryCount.get());
+        statistics.put("reindexJobs", reindexJobCount.get());
+        statistics.put("failedReindexJobs", failedReindexCount.get());
+        statistics.put("reindexedElements", reindexedCount.get());
+
+        return statistics;
+    }
+}
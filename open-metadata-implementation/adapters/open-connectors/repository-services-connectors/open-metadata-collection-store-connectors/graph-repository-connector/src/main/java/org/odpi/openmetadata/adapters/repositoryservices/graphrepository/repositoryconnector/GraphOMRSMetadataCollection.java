@@ -21,6 +21,7 @@ import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollec
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.search.SearchClassifications;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.search.SearchProperties;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDef;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDefPatch;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDefAttribute;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDefCategory;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDefGallery;
@@ -41,6 +42,7 @@ import org.odpi.openmetadata.repositoryservices.ffdc.exception.InvalidParameterE
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.InvalidRelationshipException;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.InvalidTypeDefException;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.PagingErrorException;
+import org.odpi.openmetadata.repositoryservices.ffdc.exception.PatchErrorException;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.PropertyErrorException;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.RelationshipConflictException;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.RelationshipNotDeletedException;
@@ -48,6 +50,9 @@ import org.odpi.openmetadata.repositoryservices.ffdc.exception.RelationshipNotKn
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.RepositoryErrorException;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.StatusNotSupportedException;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.TypeDefConflictException;
+import org.odpi.openmetadata.repositoryservices.ffdc.exception.TypeDefInUseException;
+import org.odpi.openmetadata.repositoryservices.ffdc.exception.TypeDefKnownException;
+import org.odpi.openmetadata.repositoryservices.ffdc.exception.TypeDefNotKnownException;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.TypeErrorException;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.UserNotAuthorizedException;
 import org.slf4j.Logger;
@@ -71,6 +76,7 @@ public class GraphOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollecti
     private static final Logger log = LoggerFactory.getLogger(GraphOMRSMetadataCollection.class);
 
     private GraphOMRSMetadataStore graphStore = null;
+    private GraphOMRSQueryPlanCache queryPlanCache = null;
 
     /**
      * Constructor ensures the metadata collection is linked to its connector and knows its metadata collection Id.
@@ -106,6 +112,7 @@ public class GraphOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollecti
         try {
             this.graphStore = new GraphOMRSMetadataStore(metadataCollectionId, repositoryName, repositoryHelper, auditLog,
                     storageProperties);
+            this.queryPlanCache = new GraphOMRSQueryPlanCache(graphStore.getQueryPlanCacheSize());
         }
         catch(RepositoryErrorException e) {
             /*
@@ -118,6 +125,119 @@ public class GraphOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollecti
     }
 
 
+    /**
+     * Return the statistics for the query plan cache and the time spent in the queries that use each query strategy.
+     *
+     * @return map of statistic name to value - times are in milliseconds
+     */
+    public Map<String, Long> getQueryPlanStatistics()
+    {
+        return queryPlanCache.getStatistics();
+    }
+
+
+    /**
+     * Return the number of find requests that could use a graph index and the number that scanned the graph, along
+     * with the counts for the background jobs that index existing instances when an index is added.
+     *
+     * @return map of statistic name to value
+     */
+    public Map<String, Long> getIndexStatistics()
+    {
+        return graphStore.getIndexStatistics();
+    }
+
+
+    /**
+     * Return the status of the background jobs that have indexed existing instances since the repository started.
+     *
+     * @return map of index name to WAITING, REINDEXING, ENABLED or FAILED
+     */
+    public Map<String, String> getReindexStatus()
+    {
+        return graphStore.getReindexStatus();
+    }
+
+
+    /*
+     * The query plans are built from the active types, so any change to the TypeDefs clears the query plan cache.
+     */
+
+    @Override
+    public void addTypeDef(String  userId,
+                           TypeDef newTypeDef)
+            throws
+            InvalidParameterException,
+            RepositoryErrorException,
+            TypeDefKnownException,
+            TypeDefConflictException,
+            InvalidTypeDefException,
+            UserNotAuthorizedException
+    {
+        super.addTypeDef(userId, newTypeDef);
+
+        queryPlanCache.invalidate();
+    }
+
+
+    @Override
+    public TypeDef updateTypeDef(String       userId,
+                                 TypeDefPatch typeDefPatch)
+            throws
+            InvalidParameterException,
+            RepositoryErrorException,
+            TypeDefNotKnownException,
+            PatchErrorException
+    {
+        TypeDef updatedTypeDef = super.updateTypeDef(userId, typeDefPatch);
+
+        queryPlanCache.invalidate();
+
+        return updatedTypeDef;
+    }
+
+
+    @Override
+    public void deleteTypeDef(String    userId,
+                              String    obsoleteTypeDefGUID,
+                              String    obsoleteTypeDefName)
+            throws
+            InvalidParameterException,
+            RepositoryErrorException,
+            TypeDefNotKnownException,
+            TypeDefInUseException,
+            UserNotAuthorizedException
+    {
+        super.deleteTypeDef(userId, obsoleteTypeDefGUID, obsoleteTypeDefName);
+
+        queryPlanCache.invalidate();
+    }
+
+
+    @Override
+    public  TypeDef reIdentifyTypeDef(String     userId,
+                                      String     originalTypeDefGUID,
+                                      String     originalTypeDefName,
+                                      String     newTypeDefGUID,
+                                      String     newTypeDefName)
+            throws
+            InvalidParameterException,
+            RepositoryErrorException,
+            TypeDefNotKnownException,
+            UserNotAuthorizedException
+    {
+        TypeDef reIdentifiedTypeDef = super.reIdentifyTypeDef(userId,
+                                                               originalTypeDefGUID,
+                                                               originalTypeDefName,
+                                                               newTypeDefGUID,
+                                                               newTypeDefName);
+
+        queryPlanCache.invalidate();
+
+        return reIdentifiedTypeDef;
+    }
+
+
     // verifyTypeDef will always return result from superclass because all knowledge of types is delegated to the RCM.
     @Override
     public boolean verifyTypeDef(String  userId,
@@ -150,6 +270,8 @@ public class GraphOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollecti
                 break;
         }
 
+        queryPlanCache.invalidate();
+
         return result;
     }
 
@@ -211,6 +333,57 @@ public class GraphOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollecti
     }
 
 
+    // addEntities
+    @Override
+    public List<EntityDetail> addEntities(String             userId,
+                                          List<EntityDetail> newEntities)
+            throws
+            InvalidParameterException,
+            RepositoryErrorException,
+            TypeErrorException,
+            PropertyErrorException,
+            ClassificationErrorException,
+            StatusNotSupportedException,
+            UserNotAuthorizedException
+    {
+        final String methodName = "addEntities";
+
+        /*
+         * Validate parameters - each entity type is only retrieved and validated once
+         */
+        List<TypeDef> typeDefs = super.addEntitiesParameterValidation(userId, newEntities, methodName);
+
+        List<EntityDetail> entities = new ArrayList<>();
+
+        for (int i = 0; i < typeDefs.size(); i++)
+        {
+            EntityDetail template = newEntities.get(i);
+
+            EntityDetail newEntity = repositoryHelper.getNewEntity(repositoryName,
+                    metadataCollectionId,
+                    InstanceProvenanceType.LOCAL_COHORT,
+                    userId,
+                    typeDefs.get(i).getName(),
+                    template.getProperties(),
+                    template.getClassifications());
+
+            newEntity.setMetadataCollectionName(metadataCollectionName);
+
+            if (template.getStatus() != null)
+            {
+                newEntity.setStatus(template.getStatus());
+            }
+
+            entities.add(newEntity);
+        }
+
+        /*
+         * Validation complete - ok to create the new instances in a single transaction
+         */
+        return graphStore.createEntitiesInStore(entities);
+    }
+
+
     // addExternalEntity
     @Override
     public EntityDetail addExternalEntity(String                userId,
@@ -498,6 +671,105 @@ public class GraphOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollecti
     }
 
 
+    // addRelationships
+    @Override
+    public List<Relationship> addRelationships(String             userId,
+                                               List<Relationship> newRelationships)
+            throws
+            InvalidParameterException,
+            RepositoryErrorException,
+            TypeErrorException,
+            PropertyErrorException,
+            EntityNotKnownException,
+            StatusNotSupportedException,
+            UserNotAuthorizedException
+    {
+        final String  methodName = "addRelationships";
+
+        /*
+         * Validate parameters - each relationship type is only retrieved and validated once
+         */
+        List<TypeDef> typeDefs = super.addRelationshipsParameterValidation(userId, newRelationships, methodName);
+
+        List<Relationship>       relationships = new ArrayList<>();
+        Map<String, EntityProxy> entityProxies = new HashMap<>();
+
+        for (int i = 0; i < typeDefs.size(); i++)
+        {
+            Relationship template = newRelationships.get(i);
+            TypeDef      typeDef  = typeDefs.get(i);
+
+            Relationship relationship = repositoryHelper.getNewRelationship(repositoryName,
+                    metadataCollectionId,
+                    InstanceProvenanceType.LOCAL_COHORT,
+                    userId,
+                    typeDef.getName(),
+                    template.getProperties());
+
+            /*
+             * Retrieve the proxies for the ends - an entity that is the end of several new relationships
+             * is only read from the store once
+             */
+            EntityProxy entityOneProxy = getEntityProxyForNewRelationship(getEntityGUID(template.getEntityOneProxy()), entityProxies, methodName);
+            EntityProxy entityTwoProxy = getEntityProxyForNewRelationship(getEntityGUID(template.getEntityTwoProxy()), entityProxies, methodName);
+
+            repositoryValidator.validateRelationshipEnds(repositoryName, entityOneProxy, entityTwoProxy, typeDef, methodName);
+
+            relationship.setEntityOneProxy(entityOneProxy);
+            relationship.setEntityTwoProxy(entityTwoProxy);
+
+            /*
+             * If an initial status is supplied then override the default value.
+             */
+            if (template.getStatus() != null)
+            {
+                relationship.setStatus(template.getStatus());
+            }
+
+            relationships.add(relationship);
+        }
+
+        /*
+         * Validation complete - ok to create the new instances in a single transaction
+         */
+        graphStore.createRelationshipsInStore(relationships);
+
+        return relationships;
+    }
+
+
+    /**
+     * Return the proxy for one of the ends of a new relationship, reading it from the store the first time
+     * the entity is requested.
+     *
+     * @param entityGUID unique identifier of the entity
+     * @param entityProxies proxies already retrieved
+     * @param methodName calling method
+     * @return entity proxy
+     * @throws EntityNotKnownException the entity is not in the store or is deleted
+     * @throws RepositoryErrorException problem with the graph
+     */
+    private EntityProxy getEntityProxyForNewRelationship(String                   entityGUID,
+                                                         Map<String, EntityProxy> entityProxies,
+                                                         String                   methodName) throws EntityNotKnownException,
+                                                                                                     RepositoryErrorException
+    {
+        EntityProxy entityProxy = entityProxies.get(entityGUID);
+
+        if (entityProxy == null)
+        {
+            entityProxy = graphStore.getEntityProxyFromStore(entityGUID);
+
+            repositoryValidator.validateEntityFromStore(repositoryName, entityGUID, entityProxy, methodName);
+            repositoryValidator.validateEntityIsNotDeleted(repositoryName, entityProxy, methodName);
+
+            entityProxies.put(entityGUID, entityProxy);
+        }
+
+        return entityProxy;
+    }
+
+
     // addExternalRelationship
     @Override
     public Relationship addExternalRelationship(String               userId,
@@ -1241,13 +1513,13 @@ public class GraphOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollecti
         }
 
         // Generate a query plan
-        GraphOMRSQueryPlan queryPlan = new   GraphOMRSQueryPlan(repositoryName,
-                                                                metadataCollectionId,
-                                                                repositoryHelper,
-                                                                TypeDefCategory.ENTITY_DEF,
-                                                                matchProperties,
-                                                                entityTypeGUID,
-                                                                null);
+        GraphOMRSQueryPlan queryPlan = queryPlanCache.getQueryPlan(repositoryName,
+                                                                   metadataCollectionId,
+                                                                   repositoryHelper,
+                                                                   TypeDefCategory.ENTITY_DEF,
+                                                                   matchProperties,
+                                                                   entityTypeGUID,
+                                                                   null);
 
         /* Map from qualifiedPropertyName to TDA */
         Map<String, TypeDefAttribute> qualifiedPropertyNameToTypeDefinedAttribute = queryPlan.getQualifiedPropertyNameToTypeDefinedAttribute();
@@ -1270,6 +1542,8 @@ public class GraphOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollecti
 
         List<EntityDetail> foundEntities = null;
 
+        long queryStartTime = System.nanoTime();
+
         // If there were any dups there must be horizontal duplication (across the types within the valid type set).
         if (queryPlan.getQueryStrategy() == GraphOMRSQueryPlan.QueryStrategy.Iterate)
         {
@@ -1288,6 +1562,7 @@ public class GraphOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollecti
                                                                       matchProperties,
                                                                       matchCriteria);
         }
+        queryPlanCache.recordExecution(queryPlan.getQueryStrategy(), queryStartTime);
         // Process list of returned entities from sub-methods
         if (foundEntities != null)
         {
@@ -1535,13 +1810,13 @@ public class GraphOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollecti
          */
 
         // Generate a query plan
-        GraphOMRSQueryPlan queryPlan = new GraphOMRSQueryPlan(repositoryName,
-                                                              metadataCollectionId,
-                                                              repositoryHelper,
-                                                              TypeDefCategory.RELATIONSHIP_DEF,
-                                                              matchProperties,
-                                                              relationshipTypeGUID,
-                                                              null);
+        GraphOMRSQueryPlan queryPlan = queryPlanCache.getQueryPlan(repositoryName,
+                                                                   metadataCollectionId,
+                                                                   repositoryHelper,
+                                                                   TypeDefCategory.RELATIONSHIP_DEF,
+                                                                   matchProperties,
+                                                                   relationshipTypeGUID,
+                                                                   null);
 
         /* Map from qualifiedPropertyName to TDA */
         Map<String, TypeDefAttribute> qualifiedPropertyNameToTypeDefinedAttribute = queryPlan.getQualifiedPropertyNameToTypeDefinedAttribute();
@@ -1565,6 +1840,8 @@ public class GraphOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollecti
 
         List<Relationship> foundRelationships = null;
 
+        long queryStartTime = System.nanoTime();
+
         // If there were any dups there must be horizontal duplication (across the types within the valid type set).
         if (queryPlan.getQueryStrategy() == GraphOMRSQueryPlan.QueryStrategy.Iterate)
         {
@@ -1583,6 +1860,7 @@ public class GraphOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollecti
                                                                                 matchProperties,
                                                                                 matchCriteria);
         }
+        queryPlanCache.recordExecution(queryPlan.getQueryStrategy(), queryStartTime);
 
         List<Relationship> relationships = null;
 
@@ -1682,12 +1960,12 @@ public class GraphOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollecti
 
 
         // Generate a query plan
-        GraphOMRSQueryPlan queryPlan = new   GraphOMRSQueryPlan(repositoryName,
-                                                                metadataCollectionId,
-                                                                repositoryHelper,
-                                                                TypeDefCategory.ENTITY_DEF,
-                                                                entityTypeGUID,
-                                                                null);
+        GraphOMRSQueryPlan queryPlan = queryPlanCache.getQueryPlan(repositoryName,
+                                                                   metadataCollectionId,
+                                                                   repositoryHelper,
+                                                                   TypeDefCategory.ENTITY_DEF,
+                                                                   entityTypeGUID,
+                                                                   null);
 
         /* Map from qualifiedPropertyName to TDA */
         Map<String, TypeDefAttribute> qualifiedPropertyNameToTypeDefinedAttribute = queryPlan.getQualifiedPropertyNameToTypeDefinedAttribute();
@@ -1795,12 +2073,12 @@ public class GraphOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollecti
 
 
         // Generate a query plan
-        GraphOMRSQueryPlan queryPlan = new   GraphOMRSQueryPlan(repositoryName,
-                                                                metadataCollectionId,
-                                                                repositoryHelper,
-                                                                TypeDefCategory.RELATIONSHIP_DEF,
-                                                                relationshipTypeGUID,
-                                                                null);
+        GraphOMRSQueryPlan queryPlan = queryPlanCache.getQueryPlan(repositoryName,
+                                                                   metadataCollectionId,
+                                                                   repositoryHelper,
+                                                                   TypeDefCategory.RELATIONSHIP_DEF,
+                                                                   relationshipTypeGUID,
+                                                                   null);
 
         /* Map from qualifiedPropertyName to TDA */
         Map<String, TypeDefAttribute> qualifiedPropertyNameToTypeDefinedAttribute = queryPlan.getQualifiedPropertyNameToTypeDefinedAttribute();
@@ -1996,13 +2274,13 @@ public class GraphOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollecti
         }
 
         // Generate a query plan
-        GraphOMRSQueryPlan queryPlan = new GraphOMRSQueryPlan(repositoryName,
-                                                              metadataCollectionId,
-                                                              repositoryHelper,
-                                                              TypeDefCategory.ENTITY_DEF,
-                                                              matchProperties,
-                                                              entityTypeGUID,
-                                                              entitySubtypeGUIDs);
+        GraphOMRSQueryPlan queryPlan = queryPlanCache.getQueryPlan(repositoryName,
+                                                                   metadataCollectionId,
+                                                                   repositoryHelper,
+                                                                   TypeDefCategory.ENTITY_DEF,
+                                                                   matchProperties,
+                                                                   entityTypeGUID,
+                                                                   entitySubtypeGUIDs);
 
         /* Map from qualifiedPropertyName to TDA */
         Map<String, TypeDefAttribute> qualifiedPropertyNameToTypeDefinedAttribute = queryPlan.getQualifiedPropertyNameToTypeDefinedAttribute();
@@ -2025,6 +2303,8 @@ public class GraphOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollecti
 
         List<EntityDetail> foundEntities = null;
 
+        long queryStartTime = System.nanoTime();
+
         // If there were any dups there must be horizontal duplication (across the types within the valid type set).
         if (queryPlan.getQueryStrategy() == GraphOMRSQueryPlan.QueryStrategy.Iterate)
         {
@@ -2042,6 +2322,7 @@ public class GraphOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollecti
                                                             shortPropertyNameToQualifiedPropertyNames,
                                                             matchProperties);
         }
+        queryPlanCache.recordExecution(queryPlan.getQueryStrategy(), queryStartTime);
 
 
         if (foundEntities != null)
@@ -2158,13 +2439,13 @@ public class GraphOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollecti
          */
 
         // Generate a query plan
-        GraphOMRSQueryPlan queryPlan = new GraphOMRSQueryPlan(repositoryName,
-                                                              metadataCollectionId,
-                                                              repositoryHelper,
-                                                              TypeDefCategory.RELATIONSHIP_DEF,
-                                                              matchProperties,
-                                                              relationshipTypeGUID,
-                                                              relationshipSubtypeGUIDs);
+        GraphOMRSQueryPlan queryPlan = queryPlanCache.getQueryPlan(repositoryName,
+                                                                   metadataCollectionId,
+                                                                   repositoryHelper,
+                                                                   TypeDefCategory.RELATIONSHIP_DEF,
+                                                                   matchProperties,
+                                                                   relationshipTypeGUID,
+                                                                   relationshipSubtypeGUIDs);
 
         /* Map from qualifiedPropertyName to TDA */
         Map<String, TypeDefAttribute> qualifiedPropertyNameToTypeDefinedAttribute = queryPlan.getQualifiedPropertyNameToTypeDefinedAttribute();
@@ -2187,6 +2468,8 @@ public class GraphOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollecti
 
         List<Relationship> foundRelationships = null;
 
+        long queryStartTime = System.nanoTime();
+
         // If there were any dups there must be horizontal duplication (across the types within the valid type set).
         if (queryPlan.getQueryStrategy() == GraphOMRSQueryPlan.QueryStrategy.Iterate)
         {
@@ -2204,6 +2487,7 @@ public class GraphOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollecti
                                                                       shortPropertyNameToQualifiedPropertyNames,
                                                                       matchProperties);
         }
+        queryPlanCache.recordExecution(queryPlan.getQueryStrategy(), queryStartTime);
 
 
         List<Relationship> relationships = null;
@@ -2343,6 +2627,100 @@ public class GraphOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollecti
         return updatedEntity;
     }
 
+    // classifyEntities
+    @Override
+    public List<EntityDetail> classifyEntities(String             userId,
+                                               List<String>       entityGUIDs,
+                                               String             classificationName,
+                                               InstanceProperties classificationProperties)
+            throws
+            InvalidParameterException,
+            RepositoryErrorException,
+            EntityNotKnownException,
+            ClassificationErrorException,
+            PropertyErrorException,
+            UserNotAuthorizedException
+    {
+        final String  methodName                  = "classifyEntities";
+        final String  classificationParameterName = "classificationName";
+
+        /*
+         * Validate parameters - the classification is only validated once for all of the entities
+         */
+        this.validateRepositoryConnector(methodName);
+        parentConnector.validateRepositoryIsActive(methodName);
+
+        super.classifyEntitiesParameterValidation(userId, entityGUIDs, classificationName, classificationProperties, methodName);
+
+        List<EntityDetail> updatedEntities = new ArrayList<>();
+
+        if (entityGUIDs == null)
+        {
+            return updatedEntities;
+        }
+
+        for (String entityGUID : entityGUIDs)
+        {
+            /*
+             * Locate entity - only interested in a non-proxy entity
+             */
+            EntityDetail entity;
+            try
+            {
+                entity = graphStore.getEntityDetailFromStore(entityGUID);
+            }
+            catch (EntityProxyOnlyException | EntityNotKnownException e)
+            {
+                log.warn("{} entity wth GUID {} not found or only a proxy", methodName, entityGUID);
+
+                throw new EntityNotKnownException(OMRSErrorCode.ENTITY_NOT_KNOWN.getMessageDefinition(entityGUID, methodName, repositoryName),
+                        this.getClass().getName(),
+                        methodName,
+                        e);
+            }
+
+            repositoryValidator.validateEntityFromStore(repositoryName, entityGUID, entity, methodName);
+            repositoryValidator.validateEntityIsNotDeleted(repositoryName, entity, methodName);
+
+            repositoryValidator.validateInstanceType(repositoryName, entity);
+
+            InstanceType entityType = entity.getType();
+
+            repositoryValidator.validateClassification(repositoryName, classificationParameterName, classificationName, entityType.getTypeDefName(), methodName);
+
+            Classification newClassification;
+            try
+            {
+                newClassification = repositoryHelper.getNewClassification(repositoryName,
+                        null,
+                        InstanceProvenanceType.LOCAL_COHORT,
+                        userId,
+                        classificationName,
+                        entityType.getTypeDefName(),
+                        ClassificationOrigin.ASSIGNED,
+                        null,
+                        classificationProperties);
+            }
+            catch (Throwable   error)
+            {
+                throw new ClassificationErrorException(OMRSErrorCode.INVALID_CLASSIFICATION_FOR_ENTITY.getMessageDefinition(),
+                        this.getClass().getName(),
+                        methodName,
+                        error);
+            }
+
+            updatedEntities.add(repositoryHelper.addClassificationToEntity(repositoryName, entity, newClassification, methodName));
+        }
+
+        /*
+         * Validation complete - ok to update the entities in a single transaction
+         */
+        graphStore.updateEntitiesInStore(updatedEntities);
+
+        return updatedEntities;
+    }
+
+
 
     // classifyEntity
     @Override
@@ -3807,6 +4185,109 @@ public class GraphOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollecti
     }
 
 
+    /**
+     * Save reference copies of a list of entities, such as the entities from an open metadata archive.
+     * The entities are stored in batches that are each committed in a single graph transaction.
+     * The size of the batches is set with the batchCommitSize configuration property.
+     *
+     * @param userId unique identifier for requesting user
+     * @param entities entities to save
+     * @throws InvalidParameterException one of the entities is null or clashes with an existing entity
+     * @throws RepositoryErrorException there is a problem communicating with the metadata repository
+     * @throws TypeErrorException the requested type is not known, or not supported in the metadata repository
+     * @throws PropertyErrorException one or more of the requested properties are not defined, or have different
+     *                                characteristics in the TypeDef for this entity's type
+     * @throws HomeEntityException one of the entities belongs to the local repository so creating a reference
+     *                             copy would be invalid
+     * @throws EntityConflictException one of the new entities conflicts with an existing entity
+     * @throws InvalidEntityException one of the new entities has invalid contents
+     * @throws UserNotAuthorizedException the userId is not permitted to perform this operation
+     */
+    public void saveEntityReferenceCopies(String             userId,
+                                          List<EntityDetail> entities)
+            throws
+            InvalidParameterException,
+            RepositoryErrorException,
+            TypeErrorException,
+            PropertyErrorException,
+            HomeEntityException,
+            EntityConflictException,
+            InvalidEntityException,
+            UserNotAuthorizedException
+    {
+        final String  methodName            = "saveEntityReferenceCopies";
+        final String  instanceParameterName = "entity";
+
+        /*
+         * Validate parameters
+         */
+        if (entities != null)
+        {
+            for (EntityDetail entity : entities)
+            {
+                super.referenceInstanceParameterValidation(userId, entity, instanceParameterName, methodName);
+            }
+        }
+
+        /*
+         * Save entities
+         */
+        graphStore.saveEntityReferenceCopiesToStore(entities);
+    }
+
+
+    /**
+     * Save reference copies of a list of relationships, such as the relationships from an open metadata archive.
+     * The relationships are stored in batches that are each committed in a single graph transaction.
+     *
+     * @param userId unique identifier for requesting user
+     * @param relationships relationships to save
+     * @throws InvalidParameterException one of the relationships is null or clashes with an existing relationship
+     * @throws RepositoryErrorException there is a problem communicating with the metadata repository
+     * @throws TypeErrorException the requested type is not known, or not supported in the metadata repository
+     * @throws EntityNotKnownException one of the entities identified by the relationships is not found
+     * @throws PropertyErrorException one or more of the requested properties are not defined, or have different
+     *                                characteristics in the TypeDef for this relationship's type
+     * @throws HomeRelationshipException one of the relationships belongs to the local repository so creating a
+     *                                   reference copy would be invalid
+     * @throws RelationshipConflictException one of the new relationships conflicts with an existing relationship
+     * @throws InvalidRelationshipException one of the new relationships has invalid contents
+     * @throws UserNotAuthorizedException the userId is not permitted to perform this operation
+     */
+    public void saveRelationshipReferenceCopies(String             userId,
+                                                List<Relationship> relationships)
+            throws
+            InvalidParameterException,
+            RepositoryErrorException,
+            TypeErrorException,
+            EntityNotKnownException,
+            PropertyErrorException,
+            HomeRelationshipException,
+            RelationshipConflictException,
+            InvalidRelationshipException,
+            UserNotAuthorizedException
+    {
+        final String  methodName            = "saveRelationshipReferenceCopies";
+        final String  instanceParameterName = "relationship";
+
+        /*
+         * Validate parameters
+         */
+        if (relationships != null)
+        {
+            for (Relationship relationship : relationships)
+            {
+                super.referenceInstanceParameterValidation(userId, relationship, instanceParameterName, methodName);
+            }
+        }
+
+        /*
+         * Save relationships
+         */
+        graphStore.saveRelationshipReferenceCopiesToStore(relationships);
+    }
+
+
     @Override
     public void purgeRelationshipReferenceCopy(String   userId,
                                                String   relationshipGUID,
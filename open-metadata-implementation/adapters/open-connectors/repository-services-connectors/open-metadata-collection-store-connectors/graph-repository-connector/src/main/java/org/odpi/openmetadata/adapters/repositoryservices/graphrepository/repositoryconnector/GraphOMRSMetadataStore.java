@@ -4,6 +4,7 @@
 package org.odpi.openmetadata.adapters.repositoryservices.graphrepository.repositoryconnector;
 
 
+import org.apache.tinkerpop.gremlin.process.traversal.P;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.DefaultGraphTraversal;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
@@ -12,7 +13,11 @@ import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Element;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.janusgraph.core.JanusGraph;
+import org.janusgraph.core.JanusGraphException;
 import org.janusgraph.core.attribute.Text;
+import org.janusgraph.diskstorage.TemporaryBackendException;
+import org.janusgraph.diskstorage.locking.PermanentLockingException;
+import org.janusgraph.diskstorage.locking.TemporaryLockingException;
 import org.odpi.openmetadata.frameworks.auditlog.AuditLog;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.MatchCriteria;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.ArrayPropertyValue;
@@ -51,6 +56,7 @@ import org.slf4j.LoggerFactory;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
@@ -119,6 +125,21 @@ class GraphOMRSMetadataStore {
     private GraphOMRSEntityMapper entityMapper;
     private GraphOMRSClassificationMapper classificationMapper;
 
+    // Each thread works in its own JanusGraph transaction, so the store is not locked as a whole.  A transaction
+    // that fails to commit because another thread holds a lock on the same elements is rolled back and retried.
+
+    private int  transactionRetryLimit   = GraphOMRSRepositoryConnectorProvider.defaultTransactionRetryLimit;
+    private int  transactionRetryBackoff = GraphOMRSRepositoryConnectorProvider.defaultTransactionRetryBackoff;
+    private int  batchCommitSize         = GraphOMRSRepositoryConnectorProvider.defaultBatchCommitSize;
+    private int  queryPlanCacheSize      = GraphOMRSRepositoryConnectorProvider.defaultQueryPlanCacheSize;
+
+    // The attributes that have a search index - null means use the indexable and unique flags of the TypeDef attributes.
+    private Set<String>           indexedProperties = null;
+    private GraphOMRSIndexManager indexManager;
+
+    // Set while the current thread is running a unit of work that commits several store operations together.
+    private final ThreadLocal<UnitOfWork> currentUnitOfWork = new ThreadLocal<>();
+
 
     /**
      * Typical constructor
@@ -141,18 +162,44 @@ class GraphOMRSMetadataStore {
 
         final String methodName = "GraphOMRSMetadataStore";
 
+        int reindexProgressInterval = GraphOMRSRepositoryConnectorProvider.defaultReindexProgressInterval;
+
         this.metadataCollectionId = metadataCollectionId;
         this.repositoryName = repositoryName;
         this.repositoryHelper = repositoryHelper;
 
 
+        /*
+         * The repository's own settings are removed before the rest of the properties are passed to JanusGraph.
+         */
+        Map<String, Object> graphProperties = null;
+
+        if (storageProperties != null)
+        {
+            graphProperties = new HashMap<>(storageProperties);
+
+            transactionRetryLimit = getIntegerProperty(graphProperties.remove(GraphOMRSRepositoryConnectorProvider.transactionRetryLimitProperty),
+                                                       transactionRetryLimit);
+            transactionRetryBackoff = getIntegerProperty(graphProperties.remove(GraphOMRSRepositoryConnectorProvider.transactionRetryBackoffProperty),
+                                                         transactionRetryBackoff);
+            batchCommitSize = getIntegerProperty(graphProperties.remove(GraphOMRSRepositoryConnectorProvider.batchCommitSizeProperty),
+                                                 batchCommitSize);
+            queryPlanCacheSize = getIntegerProperty(graphProperties.remove(GraphOMRSRepositoryConnectorProvider.queryPlanCacheSizeProperty),
+                                                    queryPlanCacheSize);
+            indexedProperties = getStringSetProperty(graphProperties.remove(GraphOMRSRepositoryConnectorProvider.indexedPropertiesProperty));
+            reindexProgressInterval = getIntegerProperty(graphProperties.remove(GraphOMRSRepositoryConnectorProvider.reindexProgressIntervalProperty),
+                                                         reindexProgressInterval);
+        }
+
         try
         {
             graphFactory = new GraphOMRSGraphFactory();
+            graphFactory.setReindexProgressInterval(reindexProgressInterval);
             synchronized (GraphOMRSMetadataStore.class)
             {
-                instanceGraph = graphFactory.open(metadataCollectionId, repositoryName, auditLog, storageProperties);
+                instanceGraph = graphFactory.open(metadataCollectionId, repositoryName, auditLog, graphProperties);
             }
+            indexManager = graphFactory.getIndexManager();
         }
         catch (RepositoryErrorException e)
         {
@@ -167,13 +214,561 @@ class GraphOMRSMetadataStore {
     }
 
 
+    /**
+     * Return the maximum number of query plans that the metadata collection should cache.
+     *
+     * @return number of plans - zero means plans are not cached
+     */
+    int getQueryPlanCacheSize()
+    {
+        return queryPlanCacheSize;
+    }
+
+
+    /**
+     * Return the integer value of a configuration property.
+     *
+     * @param propertyValue value from the configuration properties - may be a number or a string
+     * @param defaultValue value to use if the property is not set or is not valid
+     * @return property value
+     */
+    private int getIntegerProperty(Object propertyValue,
+                                   int    defaultValue)
+    {
+        if (propertyValue instanceof Number)
+        {
+            return ((Number) propertyValue).intValue();
+        }
+        else if (propertyValue != null)
+        {
+            try
+            {
+                return Integer.parseInt(propertyValue.toString());
+            }
+            catch (NumberFormatException error)
+            {
+                log.error("Ignoring invalid graph repository property value {}", propertyValue);
+            }
+        }
+
+        return defaultValue;
+    }
+
+
+    /**
+     * Return the values of a configuration property that lists names.
+     *
+     * @param propertyValue value from the configuration properties - may be a list or a comma-separated string
+     * @return set of names - null if the property is not set
+     */
+    private Set<String> getStringSetProperty(Object propertyValue)
+    {
+        if (propertyValue == null)
+        {
+            return null;
+        }
+
+        Collection<?> values;
+
+        if (propertyValue instanceof Collection)
+        {
+            values = (Collection<?>) propertyValue;
+        }
+        else
+        {
+            values = Arrays.asList(propertyValue.toString().split(","));
+        }
+
+        Set<String> names = new HashSet<>();
+
+        for (Object value : values)
+        {
+            if ((value != null) && (! value.toString().trim().isEmpty()))
+            {
+                names.add(value.toString().trim());
+            }
+        }
+
+        return names;
+    }
+
+
+    /**
+     * Return the statistics for the use of the graph indexes by the find methods and for the background reindex jobs.
+     *
+     * @return map of statistic name to value
+     */
+    Map<String, Long> getIndexStatistics()
+    {
+        return indexManager.getStatistics();
+    }
+
+
+    /**
+     * Return the status of the background reindex jobs that have run since the repository started.
+     *
+     * @return map of index name to status
+     */
+    Map<String, String> getReindexStatus()
+    {
+        return indexManager.getReindexStatus();
+    }
+
+
+    /*
+     * Transaction management.
+     *
+     * JanusGraph binds a transaction to each thread, so concurrent requests work in separate transactions and only
+     * conflict when they lock the same elements (for example through the unique GUID indexes).  A conflict is
+     * reported when the transaction commits.  The store methods that change the graph are run through
+     * executeWithRetry, which rolls back and reruns the whole method when the commit fails for a reason that
+     * may not recur.
+     *
+     * A unit of work groups several store operations into one transaction.  While a unit of work is active on a
+     * thread, the store operations do not commit; the unit of work commits once at the end and is retried as a
+     * whole if that commit hits contention.
+     */
+
+
+    /**
+     * Operation that is run in the current thread's graph transaction.
+     *
+     * @param <T> result type
+     * @param <E> checked exception thrown by the operation in addition to RepositoryErrorException
+     */
+    @FunctionalInterface
+    interface GraphOMRSTransaction<T, E extends Exception>
+    {
+        T execute() throws E, RepositoryErrorException;
+    }
+
+
+    /**
+     * State of a unit of work that is running on the current thread.
+     */
+    private static class UnitOfWork
+    {
+        private boolean rolledBack = false;
+    }
+
+
+    /**
+     * Commit the current thread's transaction unless it is part of a unit of work, in which case the
+     * unit of work commits it when all of its operations are complete.
+     *
+     * @param g traversal source for the transaction
+     */
+    private void commitTransaction(GraphTraversalSource g)
+    {
+        if (currentUnitOfWork.get() == null)
+        {
+            g.tx().commit();
+        }
+    }
+
+
+    /**
+     * Roll back the current thread's transaction after an operation failed part way through changing the graph.
+     * If the transaction is part of a unit of work, the changes from the earlier operations in the unit of work
+     * are lost too so the unit of work is not allowed to commit.
+     *
+     * @param g traversal source for the transaction
+     */
+    private void rollbackTransaction(GraphTraversalSource g)
+    {
+        UnitOfWork unitOfWork = currentUnitOfWork.get();
+
+        if (unitOfWork != null)
+        {
+            unitOfWork.rolledBack = true;
+        }
+
+        g.tx().rollback();
+    }
+
+
+    /**
+     * End the current thread's transaction after an operation failed before it changed the graph, for example
+     * because an instance was not found or already exists.  The transaction is rolled back unless it is part
+     * of a unit of work.  In that case the transaction is left open since it holds the changes from the earlier
+     * operations in the unit of work, and the unit of work may still commit if its caller handles the failure.
+     *
+     * @param g traversal source for the transaction
+     */
+    private void abandonTransaction(GraphTraversalSource g)
+    {
+        if (currentUnitOfWork.get() == null)
+        {
+            g.tx().rollback();
+        }
+    }
+
+
+    /**
+     * Run an operation that changes the graph.  If its transaction fails with a temporary error, such as
+     * lock contention with another thread, the transaction is rolled back and the operation is run again
+     * after a short pause.
+     *
+     * @param methodName calling method
+     * @param transaction operation to run
+     * @param <T> result type
+     * @param <E> checked exception thrown by the operation
+     * @return result of the operation
+     * @throws E exception from the operation
+     * @throws RepositoryErrorException the transaction could not be committed
+     */
+    private <T, E extends Exception> T executeWithRetry(String                     methodName,
+                                                        GraphOMRSTransaction<T, E> transaction) throws E, RepositoryErrorException
+    {
+        if (currentUnitOfWork.get() != null)
+        {
+            /*
+             * The enclosing unit of work commits the transaction and retries if necessary.
+             */
+            return transaction.execute();
+        }
+
+        int attempt = 0;
+
+        while (true)
+        {
+            attempt++;
+
+            try
+            {
+                return transaction.execute();
+            }
+            catch (JanusGraphException error)
+            {
+                instanceGraph.tx().rollback();
+
+                if ((! isRetryable(error)) || (attempt > transactionRetryLimit))
+                {
+                    log.error("{} transaction failed after {} attempts: {}", methodName, attempt, error.getMessage());
+
+                    throw new RepositoryErrorException(GraphOMRSErrorCode.TRANSACTION_NOT_COMMITTED.getMessageDefinition(methodName,
+                                                                                                                       this.getClass().getName(),
+                                                                                                                       repositoryName,
+                                                                                                                       Integer.toString(attempt),
+                                                                                                                       error.getMessage()),
+                                                       this.getClass().getName(),
+                                                       methodName,
+                                                       error);
+                }
+
+                log.debug("{} retrying transaction after attempt {}: {}", methodName, attempt, error.getMessage());
+
+                try
+                {
+                    Thread.sleep(transactionRetryBackoff * attempt);
+                }
+                catch (InterruptedException interrupted)
+                {
+                    Thread.currentThread().interrupt();
+
+                    throw new RepositoryErrorException(GraphOMRSErrorCode.TRANSACTION_NOT_COMMITTED.getMessageDefinition(methodName,
+                                                                                                                       this.getClass().getName(),
+                                                                                                                       repositoryName,
+                                                                                                                       Integer.toString(attempt),
+                                                                                                                       error.getMessage()),
+                                                       this.getClass().getName(),
+                                                       methodName,
+                                                       error);
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Determine whether a failed transaction may succeed if it is run again.  This is the case when another
+     * transaction held a lock on the same elements or the storage backend reported a temporary failure.
+     *
+     * @param error exception from the graph
+     * @return boolean flag
+     */
+    private boolean isRetryable(Throwable error)
+    {
+        Throwable cause = error;
+
+        while (cause != null)
+        {
+            if ((cause instanceof TemporaryLockingException) ||
+                (cause instanceof PermanentLockingException) ||
+                (cause instanceof TemporaryBackendException))
+            {
+                return true;
+            }
+
+            cause = cause.getCause();
+        }
+
+        return false;
+    }
+
+
+    /**
+     * Run several store operations in a single graph transaction on the current thread.  The transaction is
+     * committed once, when the unit of work completes.  If the commit fails with a temporary error the whole
+     * unit of work is run again, so it must not have side effects outside of the graph.  If an exception escapes
+     * from the unit of work, or an operation failed after it had started to change the graph, all of the changes
+     * from the unit of work are rolled back.  An operation that fails before changing the graph, such as a
+     * retrieve of an unknown instance, does not stop the unit of work committing if the caller handles the exception.
+     *
+     * A unit of work that is started inside another unit of work becomes part of the outer one.
+     *
+     * @param methodName calling method
+     * @param unitOfWork operations to run
+     * @param <T> result type
+     * @param <E> checked exception thrown by the operations
+     * @return result of the unit of work
+     * @throws E exception from one of the operations
+     * @throws RepositoryErrorException the transaction could not be committed
+     */
+    <T, E extends Exception> T executeUnitOfWork(String                     methodName,
+                                                 GraphOMRSTransaction<T, E> unitOfWork) throws E, RepositoryErrorException
+    {
+        if (currentUnitOfWork.get() != null)
+        {
+            return unitOfWork.execute();
+        }
+
+        return executeWithRetry(methodName, () -> {
+            UnitOfWork state     = new UnitOfWork();
+            boolean    committed = false;
+
+            currentUnitOfWork.set(state);
+
+            try
+            {
+                T result = unitOfWork.execute();
+
+                if (state.rolledBack)
+                {
+                    throw new RepositoryErrorException(GraphOMRSErrorCode.UNIT_OF_WORK_ROLLED_BACK.getMessageDefinition(methodName,
+                                                                                                                       this.getClass().getName(),
+                                                                                                                       repositoryName),
+                                                       this.getClass().getName(),
+                                                       methodName);
+                }
+
+                instanceGraph.tx().commit();
+                committed = true;
+
+                return result;
+            }
+            finally
+            {
+                currentUnitOfWork.remove();
+
+                if (! committed)
+                {
+                    instanceGraph.tx().rollback();
+                }
+            }
+        });
+    }
+
+
+    /**
+     * Save reference copies of a list of entities.  The entities are saved in batches, each of which is
+     * committed in a single transaction.  This is much quicker than committing each entity separately when
+     * loading a large number of instances, such as the contents of an open metadata archive.  If an entity
+     * can not be saved, the batch that contains it is rolled back and the exception is returned; earlier batches
+     * stay committed.
+     *
+     * @param entities entities to save
+     * @throws InvalidParameterException one of the entities clashes with an existing entity
+     * @throws RepositoryErrorException problem with the graph
+     */
+    void saveEntityReferenceCopiesToStore(List<EntityDetail> entities)
+
+    throws InvalidParameterException,
+           RepositoryErrorException
+    {
+        final String methodName = "saveEntityReferenceCopiesToStore";
+
+        for (List<EntityDetail> batch : getBatches(entities))
+        {
+            executeUnitOfWork(methodName, () -> {
+                for (EntityDetail entity : batch)
+                {
+                    saveEntityReferenceCopyToStoreInTransaction(entity);
+                }
+
+                return null;
+            });
+        }
+    }
+
+
+    /**
+     * Save reference copies of a list of relationships.  The relationships are saved in batches in the same way
+     * as saveEntityReferenceCopiesToStore.
+     *
+     * @param relationships relationships to save
+     * @throws InvalidParameterException one of the relationships clashes with an existing relationship or entity
+     * @throws RepositoryErrorException problem with the graph
+     */
+    void saveRelationshipReferenceCopiesToStore(List<Relationship> relationships)
+
+    throws InvalidParameterException,
+           RepositoryErrorException
+    {
+        final String methodName = "saveRelationshipReferenceCopiesToStore";
+
+        for (List<Relationship> batch : getBatches(relationships))
+        {
+            executeUnitOfWork(methodName, () -> {
+                for (Relationship relationship : batch)
+                {
+                    saveRelationshipReferenceCopyToStoreInTransaction(relationship);
+                }
+
+                return null;
+            });
+        }
+    }
+
+
+    /**
+     * Create a list of new entities.  All of the entities are created in a single transaction.  The caller
+     * sends an event for each instance it creates, so if one entity can not be created none of them are kept;
+     * a partly committed list would leave instances in the repository that the cohort is never told about.
+     *
+     * @param entities entities to create
+     * @return entities as stored
+     * @throws InvalidParameterException one of the entities clashes with an existing entity
+     * @throws RepositoryErrorException problem with the graph
+     */
+    List<EntityDetail> createEntitiesInStore(List<EntityDetail> entities)
+
+    throws InvalidParameterException,
+           RepositoryErrorException
+    {
+        final String methodName = "createEntitiesInStore";
+
+        if (entities == null)
+        {
+            return new ArrayList<>();
+        }
+
+        return executeUnitOfWork(methodName, () -> {
+            List<EntityDetail> createdEntities = new ArrayList<>();
+
+            for (EntityDetail entity : entities)
+            {
+                createdEntities.add(createEntityInStoreInTransaction(entity));
+            }
+
+            return createdEntities;
+        });
+    }
+
+
+    /**
+     * Create a list of new relationships.  All of the relationships are created in a single transaction
+     * in the same way as createEntitiesInStore.
+     *
+     * @param relationships relationships to create
+     * @throws InvalidParameterException one of the relationships clashes with an existing relationship
+     * @throws RepositoryErrorException problem with the graph or one of the end entities is missing
+     */
+    void createRelationshipsInStore(List<Relationship> relationships)
+
+    throws InvalidParameterException,
+           RepositoryErrorException
+    {
+        final String methodName = "createRelationshipsInStore";
+
+        if (relationships == null)
+        {
+            return;
+        }
+
+        executeUnitOfWork(methodName, () -> {
+            for (Relationship relationship : relationships)
+            {
+                createRelationshipInStoreInTransaction(relationship);
+            }
+
+            return null;
+        });
+    }
+
+
+    /**
+     * Update a list of existing entities.  All of the entities are updated in a single transaction
+     * in the same way as createEntitiesInStore.
+     *
+     * @param entities entities to update
+     * @throws RepositoryErrorException problem with the graph or one of the entities is missing
+     */
+    void updateEntitiesInStore(List<EntityDetail> entities)
+
+    throws RepositoryErrorException
+    {
+        final String methodName = "updateEntitiesInStore";
+
+        if (entities == null)
+        {
+            return;
+        }
+
+        this.<Void, RepositoryErrorException>executeUnitOfWork(methodName, () -> {
+            for (EntityDetail entity : entities)
+            {
+                updateEntityInStoreInTransaction(entity);
+            }
+
+            return null;
+        });
+    }
+
+
+    /**
+     * Split a list of instances into batches of the configured size.
+     *
+     * @param instances list of instances
+     * @param <T> instance type
+     * @return list of batches
+     */
+    private <T> List<List<T>> getBatches(List<T> instances)
+    {
+        List<List<T>> batches = new ArrayList<>();
+
+        if (instances != null)
+        {
+            int batchSize = Math.max(batchCommitSize, 1);
+
+            for (int start = 0; start < instances.size(); start += batchSize)
+            {
+                batches.add(instances.subList(start, Math.min(start + batchSize, instances.size())));
+            }
+        }
+
+        return batches;
+    }
+
+
     // A note on existence checking:
     // The MDC will NOT have already checked that there is not already an entity or entity proxy wth the same GUID.
     // Although we KNOW that this is an attempt to create a new entity and that the GUID has just been generated,
     // so we COULD re-spin it, we should NOT do that here - it should be in the MDC layer and RepoHelper layer.
     // Therefore if we get a GUID clash here we throw an exception.
     //
-    synchronized EntityDetail createEntityInStore(EntityDetail entity)
+    EntityDetail createEntityInStore(EntityDetail entity)
+
+    throws RepositoryErrorException,
+           InvalidParameterException
+    {
+        final String methodName = "createEntityInStore";
+
+        return executeWithRetry(methodName, () -> createEntityInStoreInTransaction(entity));
+    }
+
+
+    private EntityDetail createEntityInStoreInTransaction(EntityDetail entity)
 
     throws RepositoryErrorException,
            InvalidParameterException
@@ -211,7 +806,7 @@ class GraphOMRSMetadataStore {
                 else
                 {
                     log.error("{} existing vertex apparently a proxy, but has local metadataCollectionId", methodName);
-                    g.tx().rollback();
+                    abandonTransaction(g);
 
                     final String parameterName = "metadataCollectionId";
 
@@ -226,7 +821,7 @@ class GraphOMRSMetadataStore {
             else
             {
                 log.error("{} existing vertex for GUID {} and it is not a proxy", methodName, entity.getGUID());
-                g.tx().rollback();
+                abandonTransaction(g);
 
                 String parameterName = "entity";
 
@@ -269,7 +864,7 @@ class GraphOMRSMetadataStore {
         catch (Exception e)
         {
             log.error("{} Caught exception from entity mapper {}", methodName, e.getMessage());
-            g.tx().rollback();
+            rollbackTransaction(g);
 
             throw new RepositoryErrorException(
                     GraphOMRSErrorCode.ENTITY_NOT_CREATED.getMessageDefinition(
@@ -281,7 +876,7 @@ class GraphOMRSMetadataStore {
         }
 
 
-        g.tx().commit();
+        commitTransaction(g);
 
         return entity;
     }
@@ -292,7 +887,21 @@ class GraphOMRSMetadataStore {
     // If the MDC found that an entity (of any description, entity, proxy or reference copy) is present - then it will not have asked you to create the proxy
     // So - if we do find that there is a GUID clash then throw exception.
     //
-    synchronized void createEntityProxyInStore(EntityProxy entityProxy)
+    void createEntityProxyInStore(EntityProxy entityProxy)
+
+    throws RepositoryErrorException,
+           InvalidParameterException
+    {
+        final String methodName = "createEntityProxyInStore";
+
+        executeWithRetry(methodName, () -> {
+            createEntityProxyInStoreInTransaction(entityProxy);
+            return null;
+        });
+    }
+
+
+    private void createEntityProxyInStoreInTransaction(EntityProxy entityProxy)
 
     throws RepositoryErrorException,
            InvalidParameterException
@@ -305,7 +914,7 @@ class GraphOMRSMetadataStore {
         {
             Vertex vertex = vertexIt.next();
             log.error("{} createEntityProxyInStore found existing vertex {}", methodName, vertex);
-            g.tx().rollback();
+            abandonTransaction(g);
 
             throw new InvalidParameterException(
                     GraphOMRSErrorCode.ENTITY_ALREADY_EXISTS.getMessageDefinition(
@@ -340,7 +949,7 @@ class GraphOMRSMetadataStore {
         catch (Exception e)
         {
             log.error("{} Caught exception from entity mapper {}", methodName, e.getMessage());
-            g.tx().rollback();
+            rollbackTransaction(g);
 
             throw new RepositoryErrorException(
                     GraphOMRSErrorCode.ENTITY_NOT_CREATED.getMessageDefinition(
@@ -351,7 +960,7 @@ class GraphOMRSMetadataStore {
                     methodName, e);
         }
 
-        g.tx().commit();
+        commitTransaction(g);
 
     }
 
@@ -392,7 +1001,21 @@ class GraphOMRSMetadataStore {
      *         else
      *             error
      */
-    synchronized void saveEntityReferenceCopyToStore(EntityDetail entity)
+    void saveEntityReferenceCopyToStore(EntityDetail entity)
+
+    throws InvalidParameterException,
+           RepositoryErrorException
+    {
+        final String methodName = "saveEntityReferenceCopyToStore";
+
+        executeWithRetry(methodName, () -> {
+            saveEntityReferenceCopyToStoreInTransaction(entity);
+            return null;
+        });
+    }
+
+
+    private void saveEntityReferenceCopyToStoreInTransaction(EntityDetail entity)
 
     throws InvalidParameterException,
            RepositoryErrorException
@@ -430,7 +1053,7 @@ class GraphOMRSMetadataStore {
                  */
 
                 log.error("{} found an existing vertex from a different source, with metadataCollectionId {}", methodName, vertexMetadataCollectionId);
-                g.tx().rollback();
+                abandonTransaction(g);
 
                 throw new InvalidParameterException(
                         GraphOMRSErrorCode.ENTITY_ALREADY_EXISTS.getMessageDefinition(
@@ -479,7 +1102,7 @@ class GraphOMRSMetadataStore {
         catch (Exception e)
         {
             log.error("{} Caught exception from entity mapper {}", methodName, e.getMessage());
-            g.tx().rollback();
+            rollbackTransaction(g);
 
             throw new RepositoryErrorException(
                     GraphOMRSErrorCode.ENTITY_NOT_CREATED.getMessageDefinition(
@@ -491,11 +1114,11 @@ class GraphOMRSMetadataStore {
         }
 
 
-        g.tx().commit();
+        commitTransaction(g);
     }
 
 
-    synchronized EntityDetail getEntityDetailFromStore(String guid)
+    EntityDetail getEntityDetailFromStore(String guid)
 
     throws EntityNotKnownException,
            EntityProxyOnlyException,
@@ -540,7 +1163,7 @@ class GraphOMRSMetadataStore {
                     {
                         // We know this is a proxy - throw the appropriate exception
                         log.warn("{} found entity but it is only a proxy, guid {}", methodName, guid);
-                        g.tx().rollback();
+                        abandonTransaction(g);
 
                         throw new EntityProxyOnlyException(
                                 GraphOMRSErrorCode.ENTITY_PROXY_ONLY.getMessageDefinition(
@@ -558,7 +1181,7 @@ class GraphOMRSMetadataStore {
             {
 
                 log.error("{} Caught exception {}", methodName, e.getMessage());
-                g.tx().rollback();
+                abandonTransaction(g);
 
                 throw new RepositoryErrorException(
                         GraphOMRSErrorCode.ENTITY_NOT_FOUND.getMessageDefinition(
@@ -575,7 +1198,7 @@ class GraphOMRSMetadataStore {
 
             // Entity was not found by GUID
             log.warn("{} entity with GUID {} not found", methodName, guid);
-            g.tx().rollback();
+            abandonTransaction(g);
 
             throw new EntityNotKnownException(
                     GraphOMRSErrorCode.ENTITY_NOT_FOUND.getMessageDefinition(
@@ -587,12 +1210,12 @@ class GraphOMRSMetadataStore {
         }
 
 
-        g.tx().commit();
+        commitTransaction(g);
 
         return entity;
     }
 
-    synchronized EntitySummary getEntitySummaryFromStore(String guid)
+    EntitySummary getEntitySummaryFromStore(String guid)
 
     throws EntityNotKnownException,
            RepositoryErrorException
@@ -627,7 +1250,7 @@ class GraphOMRSMetadataStore {
             {
 
                 log.error("{} Caught exception {}", methodName, e.getMessage());
-                g.tx().rollback();
+                abandonTransaction(g);
 
                 throw new RepositoryErrorException(
                         GraphOMRSErrorCode.ENTITY_NOT_FOUND.getMessageDefinition(
@@ -644,7 +1267,7 @@ class GraphOMRSMetadataStore {
 
             // Entity was not found by GUID
             log.warn("{} entity with GUID {} not found", methodName, guid);
-            g.tx().rollback();
+            abandonTransaction(g);
 
             throw new EntityNotKnownException(
                     GraphOMRSErrorCode.ENTITY_NOT_FOUND.getMessageDefinition(
@@ -656,13 +1279,13 @@ class GraphOMRSMetadataStore {
         }
 
 
-        g.tx().commit();
+        commitTransaction(g);
 
         return entity;
     }
 
 
-    synchronized EntityProxy getEntityProxyFromStore(String guid)
+    EntityProxy getEntityProxyFromStore(String guid)
 
     throws RepositoryErrorException
 
@@ -697,7 +1320,7 @@ class GraphOMRSMetadataStore {
             catch (Exception e)
             {
                 log.error("{} Caught exception from entity mapper {}", methodName, e.getMessage());
-                g.tx().rollback();
+                abandonTransaction(g);
 
                 throw new RepositoryErrorException(
                         GraphOMRSErrorCode.ENTITY_NOT_FOUND.getMessageDefinition(
@@ -709,7 +1332,7 @@ class GraphOMRSMetadataStore {
             }
         }
 
-        g.tx().commit();
+        commitTransaction(g);
 
         return entityProxy;
     }
@@ -721,7 +1344,21 @@ class GraphOMRSMetadataStore {
     // This method needs to locate the vertices so that the edge can be created in the graph.
     // If either of these fails then throw exception
     //
-    synchronized void createRelationshipInStore(Relationship relationship)
+    void createRelationshipInStore(Relationship relationship)
+
+    throws RepositoryErrorException,
+           InvalidParameterException
+    {
+        final String methodName = "createRelationshipInStore";
+
+        executeWithRetry(methodName, () -> {
+            createRelationshipInStoreInTransaction(relationship);
+            return null;
+        });
+    }
+
+
+    private void createRelationshipInStoreInTransaction(Relationship relationship)
 
     throws RepositoryErrorException,
            InvalidParameterException
@@ -738,7 +1375,7 @@ class GraphOMRSMetadataStore {
         {
             Edge edge = edgeIt.next();
             log.error("{} found existing edge {}", methodName, edge);
-            g.tx().rollback();
+            abandonTransaction(g);
 
             throw new InvalidParameterException(
                     GraphOMRSErrorCode.RELATIONSHIP_ALREADY_EXISTS.getMessageDefinition(
@@ -775,7 +1412,7 @@ class GraphOMRSMetadataStore {
         if (vertexOne == null || vertexTwo == null)
         {
             log.error("{} Could not find both ends for relationship {}", methodName, relationship.getGUID());
-            g.tx().rollback();
+            abandonTransaction(g);
 
             throw new RepositoryErrorException(
                     GraphOMRSErrorCode.RELATIONSHIP_NOT_CREATED.getMessageDefinition(
@@ -797,7 +1434,7 @@ class GraphOMRSMetadataStore {
         catch (Exception e)
         {
             log.error("{} Caught exception from relationship mapper {}", methodName, e.getMessage());
-            g.tx().rollback();
+            rollbackTransaction(g);
 
             throw new RepositoryErrorException(
                     GraphOMRSErrorCode.RELATIONSHIP_NOT_CREATED.getMessageDefinition(
@@ -809,7 +1446,7 @@ class GraphOMRSMetadataStore {
         }
 
         log.debug("{} Commit tx containing creation of edge", methodName);
-        g.tx().commit();
+        commitTransaction(g);
 
     }
 
@@ -862,7 +1499,21 @@ class GraphOMRSMetadataStore {
      *       - else metadataCollectionId is not local and values match
      *             update existing edge by mapping relationship
      */
-    synchronized void saveRelationshipReferenceCopyToStore(Relationship relationship)
+    void saveRelationshipReferenceCopyToStore(Relationship relationship)
+
+    throws InvalidParameterException,
+           RepositoryErrorException
+    {
+        final String methodName = "saveRelationshipReferenceCopyToStore";
+
+        executeWithRetry(methodName, () -> {
+            saveRelationshipReferenceCopyToStoreInTransaction(relationship);
+            return null;
+        });
+    }
+
+
+    private void saveRelationshipReferenceCopyToStoreInTransaction(Relationship relationship)
 
     throws InvalidParameterException,
            RepositoryErrorException
@@ -952,7 +1603,7 @@ class GraphOMRSMetadataStore {
 
             // Error!!
             log.error("{} Could not locate or create vertex for entity with guid {} used in relationship {}", methodName, vertexOne == null ? entityOne.getGUID() : entityTwo.getGUID(), relationship.getGUID());
-            g.tx().rollback();
+            rollbackTransaction(g);
 
             throw new RepositoryErrorException(
                     GraphOMRSErrorCode.RELATIONSHIP_NOT_CREATED.getMessageDefinition(
@@ -993,7 +1644,7 @@ class GraphOMRSMetadataStore {
                  */
 
                 log.error("{} found an existing edge from a different source, with metadataCollectionId {}", methodName, edgeMetadataCollectionId);
-                g.tx().rollback();
+                rollbackTransaction(g);
 
                 final String parameterName = "relationship";
 
@@ -1026,7 +1677,7 @@ class GraphOMRSMetadataStore {
         catch (Exception e)
         {
             log.error("{} Caught exception from relationship mapper {}", methodName, e.getMessage());
-            g.tx().rollback();
+            rollbackTransaction(g);
 
             throw new RepositoryErrorException(
                     GraphOMRSErrorCode.RELATIONSHIP_NOT_CREATED.getMessageDefinition(
@@ -1039,11 +1690,11 @@ class GraphOMRSMetadataStore {
         }
 
         log.debug("{} Commit tx containing creation or update of edge", methodName);
-        g.tx().commit();
+        commitTransaction(g);
     }
 
 
-    synchronized Relationship getRelationshipFromStore(String guid)
+    Relationship getRelationshipFromStore(String guid)
 
     throws RepositoryErrorException
 
@@ -1099,7 +1750,7 @@ class GraphOMRSMetadataStore {
             catch (Exception e)
             {
                 log.error("{} Caught exception from entity mapper {}", methodName, e.getMessage());
-                g.tx().rollback();
+                abandonTransaction(g);
 
                 throw new RepositoryErrorException(
                         GraphOMRSErrorCode.RELATIONSHIP_NOT_FOUND.getMessageDefinition(
@@ -1111,14 +1762,27 @@ class GraphOMRSMetadataStore {
             }
         }
 
-        g.tx().commit();
+        commitTransaction(g);
 
         return relationship;
 
     }
 
 
-    synchronized void updateEntityInStore(EntityDetail entity)
+    void updateEntityInStore(EntityDetail entity)
+
+    throws RepositoryErrorException
+    {
+        final String methodName = "updateEntityInStore";
+
+        executeWithRetry(methodName, () -> {
+            updateEntityInStoreInTransaction(entity);
+            return null;
+        });
+    }
+
+
+    private void updateEntityInStoreInTransaction(EntityDetail entity)
 
     throws RepositoryErrorException
 
@@ -1158,7 +1822,7 @@ class GraphOMRSMetadataStore {
             catch (Exception e)
             {
                 log.error("{} caught exception {}", methodName, e.getMessage());
-                g.tx().rollback();
+                rollbackTransaction(g);
 
                 throw new RepositoryErrorException(
                         GraphOMRSErrorCode.ENTITY_NOT_UPDATED.getMessageDefinition(
@@ -1171,7 +1835,7 @@ class GraphOMRSMetadataStore {
         }
 
         log.debug("{} commit entity update tx: ", methodName);
-        g.tx().commit();
+        commitTransaction(g);
 
     }
 
@@ -1272,7 +1936,20 @@ class GraphOMRSMetadataStore {
 
 
     // updateRelationshipInStore
-    synchronized void updateRelationshipInStore(Relationship relationship)
+    void updateRelationshipInStore(Relationship relationship)
+
+    throws RepositoryErrorException
+    {
+        final String methodName = "updateRelationshipInStore";
+
+        executeWithRetry(methodName, () -> {
+            updateRelationshipInStoreInTransaction(relationship);
+            return null;
+        });
+    }
+
+
+    private void updateRelationshipInStoreInTransaction(Relationship relationship)
 
     throws RepositoryErrorException
 
@@ -1300,7 +1977,7 @@ class GraphOMRSMetadataStore {
             {
 
                 log.error("{} Caught exception from relationship mapper {}", methodName, e.getMessage());
-                g.tx().rollback();
+                rollbackTransaction(g);
                 throw new RepositoryErrorException(
                         GraphOMRSErrorCode.RELATIONSHIP_NOT_UPDATED.getMessageDefinition(
                                 relationship.getGUID(), methodName,
@@ -1311,14 +1988,27 @@ class GraphOMRSMetadataStore {
             }
         }
 
-        g.tx().commit();
+        commitTransaction(g);
     }
 
     // removeEntityFromStore
     //
     // This method will remove the entity vertex and any classifier edges and classification vertices linked off it
 
-    synchronized void removeEntityFromStore(String entityGUID)
+    void removeEntityFromStore(String entityGUID)
+
+    throws RepositoryErrorException
+    {
+        final String methodName = "removeEntityFromStore";
+
+        executeWithRetry(methodName, () -> {
+            removeEntityFromStoreInTransaction(entityGUID);
+            return null;
+        });
+    }
+
+
+    private void removeEntityFromStoreInTransaction(String entityGUID)
     {
         final String methodName = "removeEntityFromStore";
 
@@ -1368,13 +2058,26 @@ class GraphOMRSMetadataStore {
                 log.debug("{} removed entity vertex with guid {}", methodName, entityGUID);
             }
         }
-        g.tx().commit();
+        commitTransaction(g);
 
     }
 
 
     // removeRelationshipFromStore
-    synchronized void removeRelationshipFromStore(String relationshipGUID)
+    void removeRelationshipFromStore(String relationshipGUID)
+
+    throws RepositoryErrorException
+    {
+        final String methodName = "removeRelationshipFromStore";
+
+        executeWithRetry(methodName, () -> {
+            removeRelationshipFromStoreInTransaction(relationshipGUID);
+            return null;
+        });
+    }
+
+
+    private void removeRelationshipFromStoreInTransaction(String relationshipGUID)
     {
         final String methodName = "removeRelationshipFromStore";
 
@@ -1389,12 +2092,12 @@ class GraphOMRSMetadataStore {
             edge.remove();
             log.debug("{} removed relationship edge with guid {}", methodName, relationshipGUID);
         }
-        g.tx().commit();
+        commitTransaction(g);
 
     }
 
     // getRelationshipsForEntity
-    synchronized List<Relationship> getRelationshipsForEntity(String entityGUID)
+    List<Relationship> getRelationshipsForEntity(String entityGUID)
 
     throws RepositoryErrorException
 
@@ -1454,7 +2157,7 @@ class GraphOMRSMetadataStore {
                 catch (Exception e)
                 {
                     log.error("{} Caught exception from entity mapper {}", methodName, e.getMessage());
-                    g.tx().rollback();
+                    abandonTransaction(g);
 
                     throw new RepositoryErrorException(
                             GraphOMRSErrorCode.RELATIONSHIP_NOT_FOUND.getMessageDefinition(
@@ -1469,7 +2172,7 @@ class GraphOMRSMetadataStore {
             }
         }
 
-        g.tx().commit();
+        commitTransaction(g);
 
         return relationships;
     }
@@ -1730,7 +2433,7 @@ class GraphOMRSMetadataStore {
                      */
                     if (matchCriteria == MatchCriteria.ALL)
                     {
-                        g.tx().rollback();
+                        abandonTransaction(g);
                         return null;
                     }
                     /*
@@ -1783,7 +2486,7 @@ class GraphOMRSMetadataStore {
                                     else
                                     {
                                         // Must be a full match...
-                                        t = t.has(propNameToSearch, Text.textRegex(searchString));
+                                        t = t.has(propNameToSearch, getFullMatchPredicate(searchString));
                                     }
                                 }
                                 break;
@@ -1830,12 +2533,14 @@ class GraphOMRSMetadataStore {
             if (matchCriteria != null)
             {
 
+                indexManager.recordQuery(propCriteria, matchCriteria);
+
                 switch (matchCriteria)
                 {
                     case ALL:
                         if (propCriteria.isEmpty())
                         {
-                            g.tx().rollback();
+                            abandonTransaction(g);
                             return null;
                         }
                         else
@@ -1847,7 +2552,7 @@ class GraphOMRSMetadataStore {
                     case ANY:
                         if (propCriteria.isEmpty())
                         {
-                            g.tx().rollback();
+                            abandonTransaction(g);
                             return null;
                         }
                         else
@@ -1863,7 +2568,7 @@ class GraphOMRSMetadataStore {
                         log.debug("{} traversal looks like this --> {} ", methodName, gt);
                         break;
                     default:
-                        g.tx().rollback();
+                        abandonTransaction(g);
                         final String parameterName = "matchCriteria";
 
                         throw new InvalidParameterException(
@@ -1904,7 +2609,7 @@ class GraphOMRSMetadataStore {
             }
         }
 
-        g.tx().commit();
+        commitTransaction(g);
 
         return entities;
 
@@ -2137,7 +2842,7 @@ class GraphOMRSMetadataStore {
                      */
                     if (matchCriteria == MatchCriteria.ALL)
                     {
-                        g.tx().rollback();
+                        abandonTransaction(g);
                         return null;
                     }
                     /*
@@ -2212,7 +2917,7 @@ class GraphOMRSMetadataStore {
                                         else
                                         {
                                             // Must be a full match...
-                                            t = t.has(thisMatchedPropName, Text.textRegex(searchString));
+                                            t = t.has(thisMatchedPropName, getFullMatchPredicate(searchString));
                                         }
                                     }
                                     break;
@@ -2265,12 +2970,14 @@ class GraphOMRSMetadataStore {
 
             if (matchCriteria != null)
             {
+                indexManager.recordQuery(propCriteria, matchCriteria);
+
                 switch (matchCriteria)
                 {
                     case ALL:
                         if (propCriteria.isEmpty())
                         {
-                            g.tx().rollback();
+                            abandonTransaction(g);
                             return null;
                         }
                         else
@@ -2282,7 +2989,7 @@ class GraphOMRSMetadataStore {
                     case ANY:
                         if (propCriteria.isEmpty())
                         {
-                            g.tx().rollback();
+                            abandonTransaction(g);
                             return null;
                         }
                         else
@@ -2298,7 +3005,7 @@ class GraphOMRSMetadataStore {
                         log.debug("{} traversal looks like this --> {} ", methodName, gt);
                         break;
                     default:
-                        g.tx().rollback();
+                        abandonTransaction(g);
                         final String parameterName = "matchCriteria";
 
                         throw new InvalidParameterException(
@@ -2350,7 +3057,7 @@ class GraphOMRSMetadataStore {
             catch (Exception e)
             {
                 log.error("{} Caught exception from entity mapper {}", methodName, e.getMessage());
-                g.tx().rollback();
+                abandonTransaction(g);
 
                 throw new RepositoryErrorException(
                         GraphOMRSErrorCode.ENTITY_PROPERTIES_ERROR.getMessageDefinition(
@@ -2362,7 +3069,7 @@ class GraphOMRSMetadataStore {
             }
         }
 
-        g.tx().commit();
+        commitTransaction(g);
 
         return entities;
 
@@ -2598,7 +3305,7 @@ class GraphOMRSMetadataStore {
                      */
                     if (matchCriteria == MatchCriteria.ALL)
                     {
-                        g.tx().rollback();
+                        abandonTransaction(g);
                         return null;
                     }
                     /*
@@ -2673,7 +3380,7 @@ class GraphOMRSMetadataStore {
                                         else
                                         {
                                             // Must be a full match...
-                                            t = t.has(thisMatchedPropName, Text.textRegex(searchString));
+                                            t = t.has(thisMatchedPropName, getFullMatchPredicate(searchString));
                                         }
                                     }
                                     break;
@@ -2725,12 +3432,14 @@ class GraphOMRSMetadataStore {
 
             if (matchCriteria != null)
             {
+                indexManager.recordQuery(propCriteria, matchCriteria);
+
                 switch (matchCriteria)
                 {
                     case ALL:
                         if (propCriteria.isEmpty())
                         {
-                            g.tx().rollback();
+                            abandonTransaction(g);
                             return null;
                         }
                         else
@@ -2742,7 +3451,7 @@ class GraphOMRSMetadataStore {
                     case ANY:
                         if (propCriteria.isEmpty())
                         {
-                            g.tx().rollback();
+                            abandonTransaction(g);
                             return null;
                         }
                         else
@@ -2758,7 +3467,7 @@ class GraphOMRSMetadataStore {
                         log.debug("{} traversal looks like this --> {} ", methodName, gt);
                         break;
                     default:
-                        g.tx().rollback();
+                        abandonTransaction(g);
                         final String parameterName = "matchCriteria";
 
                         throw new InvalidParameterException(
@@ -2809,7 +3518,7 @@ class GraphOMRSMetadataStore {
             catch (Exception e)
             {
                 log.error("{} Caught exception from entity mapper {}", methodName, e.getMessage());
-                g.tx().rollback();
+                abandonTransaction(g);
 
                 throw new RepositoryErrorException(
                         GraphOMRSErrorCode.ENTITY_PROPERTIES_ERROR.getMessageDefinition(
@@ -2821,7 +3530,7 @@ class GraphOMRSMetadataStore {
             }
         }
 
-        g.tx().commit();
+        commitTransaction(g);
 
         return entities;
 
@@ -3047,7 +3756,7 @@ class GraphOMRSMetadataStore {
                      */
                     if (matchCriteria == MatchCriteria.ALL)
                     {
-                        g.tx().rollback();
+                        abandonTransaction(g);
                         return null;
                     }
                     /*
@@ -3100,7 +3809,7 @@ class GraphOMRSMetadataStore {
                                     else
                                     {
                                         // Must be a full match...
-                                        t = t.has(propNameToSearch, Text.textRegex(searchString));
+                                        t = t.has(propNameToSearch, getFullMatchPredicate(searchString));
                                     }
                                 }
                                 break;
@@ -3147,12 +3856,14 @@ class GraphOMRSMetadataStore {
 
             if (matchCriteria != null)
             {
+                indexManager.recordQuery(propCriteria, matchCriteria);
+
                 switch (matchCriteria)
                 {
                     case ALL:
                         if (propCriteria.isEmpty())
                         {
-                            g.tx().rollback();
+                            abandonTransaction(g);
                             return null;
                         }
                         else
@@ -3164,7 +3875,7 @@ class GraphOMRSMetadataStore {
                     case ANY:
                         if (propCriteria.isEmpty())
                         {
-                            g.tx().rollback();
+                            abandonTransaction(g);
                             return null;
                         }
                         else
@@ -3180,7 +3891,7 @@ class GraphOMRSMetadataStore {
                         log.debug("{} traversal looks like this --> {} ", methodName, gt);
                         break;
                     default:
-                        g.tx().rollback();
+                        abandonTransaction(g);
                         final String parameterName = "matchCriteria";
 
                         throw new InvalidParameterException(
@@ -3236,7 +3947,7 @@ class GraphOMRSMetadataStore {
             catch (Exception e)
             {
                 log.error("{} Caught exception from relationship or entity mapper {}", methodName, e.getMessage());
-                g.tx().rollback();
+                abandonTransaction(g);
 
                 throw new RepositoryErrorException(
                         GraphOMRSErrorCode.RELATIONSHIP_PROPERTIES_ERROR.getMessageDefinition(
@@ -3250,7 +3961,7 @@ class GraphOMRSMetadataStore {
             relationships.add(relationship);
         }
 
-        g.tx().commit();
+        commitTransaction(g);
 
         return relationships;
 
@@ -3478,7 +4189,7 @@ class GraphOMRSMetadataStore {
                      */
                     if (matchCriteria == MatchCriteria.ALL)
                     {
-                        g.tx().rollback();
+                        abandonTransaction(g);
                         return null;
                     }
                     /*
@@ -3553,7 +4264,7 @@ class GraphOMRSMetadataStore {
                                         else
                                         {
                                             // Must be a full match...
-                                            t = t.has(thisMatchedPropName, Text.textRegex(searchString));
+                                            t = t.has(thisMatchedPropName, getFullMatchPredicate(searchString));
                                         }
                                     }
                                     break;
@@ -3606,12 +4317,14 @@ class GraphOMRSMetadataStore {
 
             if (matchCriteria != null)
             {
+                indexManager.recordQuery(propCriteria, matchCriteria);
+
                 switch (matchCriteria)
                 {
                     case ALL:
                         if (propCriteria.isEmpty())
                         {
-                            g.tx().rollback();
+                            abandonTransaction(g);
                             return null;
                         }
                         else
@@ -3623,7 +4336,7 @@ class GraphOMRSMetadataStore {
                     case ANY:
                         if (propCriteria.isEmpty())
                         {
-                            g.tx().rollback();
+                            abandonTransaction(g);
                             return null;
                         }
                         else
@@ -3639,7 +4352,7 @@ class GraphOMRSMetadataStore {
                         log.debug("{} traversal looks like this --> {} ", methodName, gt);
                         break;
                     default:
-                        g.tx().rollback();
+                        abandonTransaction(g);
                         final String parameterName = "matchCriteria";
 
                         throw new InvalidParameterException(
@@ -3706,7 +4419,7 @@ class GraphOMRSMetadataStore {
             catch (Exception e)
             {
                 log.error("{} Caught exception from relationship or entity mapper {}", methodName, e.getMessage());
-                g.tx().rollback();
+                abandonTransaction(g);
 
                 throw new RepositoryErrorException(
                         GraphOMRSErrorCode.RELATIONSHIP_PROPERTIES_ERROR.getMessageDefinition(
@@ -3720,7 +4433,7 @@ class GraphOMRSMetadataStore {
             relationships.add(relationship);
         }
 
-        g.tx().commit();
+        commitTransaction(g);
 
         return relationships;
 
@@ -3949,7 +4662,7 @@ class GraphOMRSMetadataStore {
                      */
                     if (matchCriteria == MatchCriteria.ALL)
                     {
-                        g.tx().rollback();
+                        abandonTransaction(g);
                         return null;
                     }
                     /*
@@ -4024,7 +4737,7 @@ class GraphOMRSMetadataStore {
                                         else
                                         {
                                             // Must be a full match...
-                                            t = t.has(thisMatchedPropName, Text.textRegex(searchString));
+                                            t = t.has(thisMatchedPropName, getFullMatchPredicate(searchString));
                                         }
                                     }
                                     break;
@@ -4076,12 +4789,14 @@ class GraphOMRSMetadataStore {
 
             if (matchCriteria != null)
             {
+                indexManager.recordQuery(propCriteria, matchCriteria);
+
                 switch (matchCriteria)
                 {
                     case ALL:
                         if (propCriteria.isEmpty())
                         {
-                            g.tx().rollback();
+                            abandonTransaction(g);
                             return null;
                         }
                         else
@@ -4093,7 +4808,7 @@ class GraphOMRSMetadataStore {
                     case ANY:
                         if (propCriteria.isEmpty())
                         {
-                            g.tx().rollback();
+                            abandonTransaction(g);
                             return null;
                         }
                         else
@@ -4109,7 +4824,7 @@ class GraphOMRSMetadataStore {
                         log.debug("{} traversal looks like this --> {} ", methodName, gt);
                         break;
                     default:
-                        g.tx().rollback();
+                        abandonTransaction(g);
                         final String parameterName = "matchCriteria";
 
                         throw new InvalidParameterException(
@@ -4175,7 +4890,7 @@ class GraphOMRSMetadataStore {
             catch (Exception e)
             {
                 log.error("{} Caught exception from relationship or entity mapper {}", methodName, e.getMessage());
-                g.tx().rollback();
+                abandonTransaction(g);
 
                 throw new RepositoryErrorException(
                         GraphOMRSErrorCode.RELATIONSHIP_PROPERTIES_ERROR.getMessageDefinition(
@@ -4189,7 +4904,7 @@ class GraphOMRSMetadataStore {
             relationships.add(relationship);
         }
 
-        g.tx().commit();
+        commitTransaction(g);
 
         return relationships;
 
@@ -4197,6 +4912,55 @@ class GraphOMRSMetadataStore {
 
 
 
+    /*
+     * Characters that have a special meaning in a regular expression - see convertSearchStringToJanusRegex.
+     */
+    private static final String regexSpecialCharacters = ".[]^*()${}|+?#&<\\";
+
+
+    /**
+     * Return the predicate for a full match of a string property.  A search string with no special characters (after
+     * any escapes are removed) can only match one value, so it is tested for equality.  JanusGraph can answer an
+     * equality test from a composite index as well as a mixed index, whereas a regular expression needs a mixed index.
+     *
+     * @param searchString regular expression returned by convertSearchStringToJanusRegex
+     * @return predicate
+     */
+    P<String> getFullMatchPredicate(String searchString)
+    {
+        if (searchString == null)
+        {
+            return Text.textRegex(searchString);
+        }
+
+        StringBuilder literalValue = new StringBuilder();
+
+        for (int i = 0; i < searchString.length(); i++)
+        {
+            char c = searchString.charAt(i);
+
+            if (c == '\\')
+            {
+                if ((i + 1 < searchString.length()) && (regexSpecialCharacters.indexOf(searchString.charAt(i + 1)) >= 0))
+                {
+                    literalValue.append(searchString.charAt(++i));
+                    continue;
+                }
+
+                return Text.textRegex(searchString);
+            }
+            else if (regexSpecialCharacters.indexOf(c) >= 0)
+            {
+                return Text.textRegex(searchString);
+            }
+
+            literalValue.append(c);
+        }
+
+        return eq(literalValue.toString());
+    }
+
+
     /*
      * This method converts an Egeria regex into an expression that can be used with the JanusGraph
      * text predicates.
@@ -4540,12 +5304,30 @@ class GraphOMRSMetadataStore {
     }
 
 
+    /**
+     * Return whether a TypeDef attribute needs a search (mixed) index.  If the connection lists the indexed properties,
+     * only those attributes are indexed.  Otherwise every attribute that is indexable or unique is indexed.
+     *
+     * @param typeDefAttribute attribute definition
+     * @return boolean flag
+     */
+    private boolean isSearchIndexRequired(TypeDefAttribute typeDefAttribute)
+    {
+        if (indexedProperties != null)
+        {
+            return indexedProperties.contains(typeDefAttribute.getAttributeName());
+        }
+
+        return typeDefAttribute.isIndexable() || typeDefAttribute.isUnique();
+    }
+
+
     void createEntityIndexes(TypeDef typeDef)
     {
 
         final String methodName = "createEntityIndexes";
 
-        // Add mixed index for any primitive properties
+        // Add mixed index for any searchable primitive properties and a composite index for any unique primitive properties
         // (This does mean that we will introduce a mixed index for Date although we cannot yet query with date ranges for example..... )
 
         // MatchProperties are expressed using the short property name for each property.
@@ -4592,11 +5374,13 @@ class GraphOMRSMetadataStore {
                         else
                             mapping = GraphOMRSGraphFactory.MixedIndexMapping.Default;
 
-                        graphFactory.createMixedIndexForVertexProperty(
+                        graphFactory.createIndexesForTypeProperty(
+                                Vertex.class,
                                 qualifiedPropertyName,
                                 getPropertyKeyEntity(qualifiedPropertyName),
                                 primDefCat.getJavaClassName(),
-                                mapping);
+                                isSearchIndexRequired(typeDefAttribute) ? mapping : null,
+                                typeDefAttribute.isUnique());
 
                     }
                 }
@@ -4610,7 +5394,7 @@ class GraphOMRSMetadataStore {
 
         final String methodName = "createClassificationIndexes";
 
-        // Add mixed index for any primitive properties
+        // Add mixed index for any searchable primitive properties and a composite index for any unique primitive properties
         // (This does mean that we will introduce a mixed index for Date although we cannot yet query with date ranges for example..... )
 
         // MatchProperties are expressed using the short property name for each property.
@@ -4657,11 +5441,13 @@ class GraphOMRSMetadataStore {
                         else
                             mapping = GraphOMRSGraphFactory.MixedIndexMapping.Default;
 
-                        graphFactory.createMixedIndexForVertexProperty(
+                        graphFactory.createIndexesForTypeProperty(
+                                Vertex.class,
                                 qualifiedPropertyName,
                                 getPropertyKeyClassification(qualifiedPropertyName),
                                 primDefCat.getJavaClassName(),
-                                mapping);
+                                isSearchIndexRequired(typeDefAttribute) ? mapping : null,
+                                typeDefAttribute.isUnique());
 
                     }
                 }
@@ -4675,7 +5461,7 @@ class GraphOMRSMetadataStore {
 
         final String methodName = "createRelationshipIndexes";
 
-        // Add mixed index for any primitive properties
+        // Add mixed index for any searchable primitive properties and a composite index for any unique primitive properties
         // (This does mean that we will introduce a mixed index for Date although we cannot yet query with date ranges for example..... )
 
         List<TypeDefAttribute> propertyDefs = typeDef.getPropertiesDefinition();
@@ -4723,11 +5509,13 @@ class GraphOMRSMetadataStore {
                         else
                             mapping = GraphOMRSGraphFactory.MixedIndexMapping.Default;
 
-                        graphFactory.createMixedIndexForEdgeProperty(
+                        graphFactory.createIndexesForTypeProperty(
+                                Edge.class,
                                 qualifiedPropertyName,
                                 getPropertyKeyRelationship(qualifiedPropertyName),
                                 primDefCat.getJavaClassName(),
-                                mapping);
+                                isSearchIndexRequired(typeDefAttribute) ? mapping : null,
+                                typeDefAttribute.isUnique());
 
                     }
                 }
@@ -4943,7 +5731,7 @@ class GraphOMRSMetadataStore {
                          */
                         if (matchCriteria == MatchCriteria.ALL)
                         {
-                            g.tx().rollback();
+                            abandonTransaction(g);
                             return null;
                         }
                         /*
@@ -4997,7 +5785,7 @@ class GraphOMRSMetadataStore {
                                         else
                                         {
                                             // Must be a full match...
-                                            t =t.has(propNameToSearch, Text.textRegex(searchString));
+                                            t =t.has(propNameToSearch, getFullMatchPredicate(searchString));
                                         }
                                     }
                                     break;
@@ -5035,6 +5823,8 @@ class GraphOMRSMetadataStore {
 
             if (matchCriteria != null)
             {
+                indexManager.recordQuery(propCriteria, matchCriteria);
+
                 switch (matchCriteria)
                 {
                     case ALL:
@@ -5064,7 +5854,7 @@ class GraphOMRSMetadataStore {
                         break;
 
                     default:
-                        g.tx().rollback();
+                        abandonTransaction(g);
                         final String parameterName = "matchCriteria";
 
                         throw new InvalidParameterException(
@@ -5114,7 +5904,7 @@ class GraphOMRSMetadataStore {
             }
         }
 
-        g.tx().commit();
+        commitTransaction(g);
 
         return entities;
 
@@ -5301,7 +6091,7 @@ class GraphOMRSMetadataStore {
             if (!t.hasNext())
             {
                 log.error("{} could not retrieve start entity with GUID {}", methodName, entityGUID);
-                g.tx().rollback();
+                abandonTransaction(g);
 
                 throw new EntityNotKnownException(
                         GraphOMRSErrorCode.ENTITY_NOT_FOUND.getMessageDefinition(
@@ -5323,13 +6113,13 @@ class GraphOMRSMetadataStore {
                     EntityDetail rootEntity = new EntityDetail();
                     entityMapper.mapVertexToEntityDetail(rootVertex, rootEntity);
                     entities.add(rootEntity);
-                    g.tx().commit();
+                    commitTransaction(g);
 
                 }
                 catch (EntityProxyOnlyException | RepositoryErrorException e)
                 {
                     log.error("{} caught exception whilst trying to map entity with GUID {}, exception {}", methodName, entityGUID, e.getMessage());
-                    g.tx().rollback();
+                    abandonTransaction(g);
 
                     throw new EntityNotKnownException(
                             GraphOMRSErrorCode.ENTITY_NOT_FOUND.getMessageDefinition(
@@ -5488,7 +6278,7 @@ class GraphOMRSMetadataStore {
                                  * is wrong rather than plough on in ignorance.
                                  */
                                 log.error("{} caught exception whilst trying to map entity, exception {}", methodName, e.getMessage());
-                                g.tx().rollback();
+                                abandonTransaction(g);
 
                                 throw new EntityNotKnownException(
                                         GraphOMRSErrorCode.ENTITY_NOT_FOUND.getMessageDefinition(
@@ -5500,7 +6290,7 @@ class GraphOMRSMetadataStore {
                             }
                         }
                     }
-                    g.tx().commit();
+                    commitTransaction(g);
                 }
             }
 
@@ -5514,13 +6304,13 @@ class GraphOMRSMetadataStore {
         catch (EntityNotKnownException e)
         {
             log.error("{} caught entity not known exception from subgraph traversal {}", methodName, e.getMessage());
-            g.tx().rollback();
+            abandonTransaction(g);
             throw e;
         }
         catch (Exception e)
         {
             log.error("{} caught exception from subgraph traversal {}", methodName, e.getMessage());
-            g.tx().rollback();
+            abandonTransaction(g);
             return null;
         }
 
@@ -5619,7 +6409,7 @@ class GraphOMRSMetadataStore {
             {
 
                 log.error("{} could not retrieve start entity with GUID {}", methodName, startEntityGUID);
-                g.tx().rollback();
+                abandonTransaction(g);
 
                 throw new EntityNotKnownException(
                         GraphOMRSErrorCode.ENTITY_NOT_FOUND.getMessageDefinition(
@@ -5653,14 +6443,14 @@ class GraphOMRSMetadataStore {
                     if (startEntityGUID.equals(endEntityGUID))
                         entities.add(rootEntity);
 
-                    g.tx().commit();
+                    commitTransaction(g);
 
                 }
                 catch (EntityProxyOnlyException | RepositoryErrorException e)
                 {
 
                     log.error("{} caught exception whilst trying to map entity with GUID {}, exception {}", methodName, startEntityGUID, e.getMessage());
-                    g.tx().rollback();
+                    abandonTransaction(g);
 
                     throw new EntityNotKnownException(
                             GraphOMRSErrorCode.ENTITY_NOT_FOUND.getMessageDefinition(
@@ -5744,7 +6534,7 @@ class GraphOMRSMetadataStore {
                                     catch (RepositoryErrorException | EntityProxyOnlyException e)
                                     {
                                         log.error("{} could not map vertex returned in path expression, entity GUID {}, exception {}", methodName, entityMapper.getEntityGUID(vertex), e.getMessage());
-                                        g.tx().rollback();
+                                        abandonTransaction(g);
 
                                         throw new EntityNotKnownException(
                                                 GraphOMRSErrorCode.ENTITY_NOT_FOUND.getMessageDefinition(
@@ -5811,7 +6601,7 @@ class GraphOMRSMetadataStore {
                                      * is wrong rather than plough on in ignorance.
                                      */
                                     log.error("{} caught exception whilst trying to map entity, exception {}", methodName, e.getMessage());
-                                    g.tx().rollback();
+                                    abandonTransaction(g);
 
                                     throw new EntityNotKnownException(
                                             GraphOMRSErrorCode.ENTITY_NOT_FOUND.getMessageDefinition(
@@ -5833,7 +6623,7 @@ class GraphOMRSMetadataStore {
                 }
             }
 
-            g.tx().commit();
+            commitTransaction(g);
 
             // Construct the InstanceGraph from entities and relationships
             subGraph.setEntities(entities);
@@ -5845,7 +6635,7 @@ class GraphOMRSMetadataStore {
         catch (Exception e)
         {
             log.error("{} caught exception from subgraph traversal {}", methodName, e.getMessage());
-            g.tx().rollback();
+            abandonTransaction(g);
             return null;
         }
 
@@ -5953,6 +6743,8 @@ class GraphOMRSMetadataStore {
                  * entity) so let that case continue.
                  */
 
+                indexManager.recordQuery(propCriteria, searchProperties.getMatchCriteria());
+
                 switch (searchProperties.getMatchCriteria())
                 {
                     case ALL:
@@ -6002,7 +6794,7 @@ class GraphOMRSMetadataStore {
                  * If anything went wrong (e.g. invalid match criteria or invalid parameter) catch the
                  * exception and perform a rollback. Then rethrow for error reporting.
                  */
-                g.tx().rollback();
+                abandonTransaction(g);
                 throw e;
             }
         }
@@ -6026,7 +6818,7 @@ class GraphOMRSMetadataStore {
             catch (Exception e)
             {
                 log.error("{} Caught exception from entity mapper {}", methodName, e.getMessage());
-                g.tx().rollback();
+                abandonTransaction(g);
 
                 throw new RepositoryErrorException(
                         GraphOMRSErrorCode.ENTITY_PROPERTIES_ERROR.getMessageDefinition(
@@ -6038,7 +6830,7 @@ class GraphOMRSMetadataStore {
             }
         }
 
-        g.tx().commit();
+        commitTransaction(g);
 
         return entities;
 
@@ -6160,6 +6952,8 @@ class GraphOMRSMetadataStore {
                  * entity) so let that case continue.
                  */
 
+                indexManager.recordQuery(propCriteria, searchProperties.getMatchCriteria());
+
                 switch (searchProperties.getMatchCriteria())
                 {
                     case ALL:
@@ -6209,7 +7003,7 @@ class GraphOMRSMetadataStore {
                  * If anything went wrong (e.g. invalid match criteria or invalid parameter) catch the
                  * exception and perform a rollback. Then rethrow for error reporting.
                  */
-                g.tx().rollback();
+                abandonTransaction(g);
                 throw e;
             }
 
@@ -6252,7 +7046,7 @@ class GraphOMRSMetadataStore {
             catch (Exception e)
             {
                 log.error("{} Caught exception from entity mapper {}", methodName, e.getMessage());
-                g.tx().rollback();
+                abandonTransaction(g);
 
                 throw new RepositoryErrorException(
                         GraphOMRSErrorCode.ENTITY_PROPERTIES_ERROR.getMessageDefinition(
@@ -6264,7 +7058,7 @@ class GraphOMRSMetadataStore {
             }
         }
 
-        g.tx().commit();
+        commitTransaction(g);
 
         return entities;
     }
@@ -6344,6 +7138,8 @@ class GraphOMRSMetadataStore {
                  * entity) so let that case continue.
                  */
 
+                indexManager.recordQuery(propCriteria, searchProperties.getMatchCriteria());
+
                 switch (searchProperties.getMatchCriteria())
                 {
                     case ALL:
@@ -6393,7 +7189,7 @@ class GraphOMRSMetadataStore {
                  * If anything went wrong (e.g. invalid match criteria or invalid parameter) catch the
                  * exception and perform a rollback. Then rethrow for error reporting.
                  */
-                g.tx().rollback();
+                abandonTransaction(g);
                 throw e;
             }
 
@@ -6451,7 +7247,7 @@ class GraphOMRSMetadataStore {
             catch (Exception e)
             {
                 log.error("{} Caught exception from relationship or entity mapper {}", methodName, e.getMessage());
-                g.tx().rollback();
+                abandonTransaction(g);
 
                 throw new RepositoryErrorException(
                         GraphOMRSErrorCode.RELATIONSHIP_PROPERTIES_ERROR.getMessageDefinition(
@@ -6465,7 +7261,7 @@ class GraphOMRSMetadataStore {
             relationships.add(relationship);
         }
 
-        g.tx().commit();
+        commitTransaction(g);
 
         return relationships;
     }
@@ -6537,6 +7333,8 @@ class GraphOMRSMetadataStore {
                  * entity) so let that case continue.
                  */
 
+                indexManager.recordQuery(propCriteria, searchProperties.getMatchCriteria());
+
                 switch (searchProperties.getMatchCriteria())
                 {
                     case ALL:
@@ -6586,7 +7384,7 @@ class GraphOMRSMetadataStore {
                  * If anything went wrong (e.g. invalid match criteria or invalid parameter) catch the
                  * exception and perform a rollback. Then rethrow for error reporting.
                  */
-                g.tx().rollback();
+                abandonTransaction(g);
                 throw e;
             }
         }
@@ -6627,7 +7425,7 @@ class GraphOMRSMetadataStore {
             catch (Exception e)
             {
                 log.error("{} Caught exception from relationship or entity mapper {}", methodName, e.getMessage());
-                g.tx().rollback();
+                abandonTransaction(g);
 
                 throw new RepositoryErrorException(
                         GraphOMRSErrorCode.RELATIONSHIP_PROPERTIES_ERROR.getMessageDefinition(
@@ -6641,7 +7439,7 @@ class GraphOMRSMetadataStore {
             relationships.add(relationship);
         }
 
-        g.tx().commit();
+        commitTransaction(g);
 
         return relationships;
 
@@ -9272,7 +10070,7 @@ class GraphOMRSMetadataStore {
                 }
                 else // Must be a full match...
                 {
-                    t = t.has(propNameInGraph, Text.textRegex(searchString));
+                    t = t.has(propNameInGraph, getFullMatchPredicate(searchString));
                 }
             }
         }
@@ -9422,7 +10220,7 @@ class GraphOMRSMetadataStore {
                 }
                 else // Must be a full match...
                 {
-                    t = t.has(propNameInGraph, Text.textRegex(searchString));
+                    t = t.has(propNameInGraph, getFullMatchPredicate(searchString));
                 }
             }
         }
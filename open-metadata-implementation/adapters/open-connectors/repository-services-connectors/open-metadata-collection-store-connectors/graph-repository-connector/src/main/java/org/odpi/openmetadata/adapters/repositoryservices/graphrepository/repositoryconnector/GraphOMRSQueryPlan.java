@@ -23,6 +23,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -121,6 +122,31 @@ public class GraphOMRSQueryPlan {
     }
 
 
+    /*
+     * Property names constructor - for the query plan cache, which has already extracted the property names
+     * from the match properties or search properties
+     */
+    GraphOMRSQueryPlan(String                repositoryName,
+                       String                metadataCollectionId,
+                       OMRSRepositoryHelper  repositoryHelper,
+                       TypeDefCategory       typeDefCategory,
+                       List<String>          queryPropertyNames,
+                       String                filterTypeGUID,
+                       List<String>          subTypeGUIDs)
+
+    throws TypeErrorException
+    {
+
+        generateQueryPlan(repositoryName,
+                          metadataCollectionId,
+                          repositoryHelper,
+                          typeDefCategory,
+                          queryPropertyNames,
+                          filterTypeGUID,
+                          subTypeGUIDs);
+    }
+
+
     /*
      * SearchProperties constructor - for APIs accepting searchCritera parameter
      */
@@ -372,6 +398,13 @@ public class GraphOMRSQueryPlan {
         {
             queryStrategy = QueryStrategy.Delegate;
         }
+
+        /*
+         * A plan may be shared by concurrent queries through the query plan cache so it must not be changed.
+         */
+        qualifiedPropertyNameToTypeDefinedAttribute = Collections.unmodifiableMap(qualifiedPropertyNameToTypeDefinedAttribute);
+        shortPropertyNameToQualifiedPropertyNames = Collections.unmodifiableMap(shortPropertyNameToQualifiedPropertyNames);
+        validTypeNames = Collections.unmodifiableList(validTypeNames);
         return;
     }
 
@@ -0,0 +1,344 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.repositoryservices.graphrepository.repositoryconnector;
+
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceProperties;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.search.SearchProperties;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDefCategory;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryHelper;
+import org.odpi.openmetadata.repositoryservices.ffdc.exception.InvalidParameterException;
+import org.odpi.openmetadata.repositoryservices.ffdc.exception.TypeErrorException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * GraphOMRSQueryPlanCache keeps the query plans for recent query shapes.  A query plan depends only on the
+ * category of instance, the type and subtypes being searched and the names of the properties in the query -
+ * not on the property values or comparison operators.  Queries with the same shape therefore share a plan,
+ * which saves walking the type hierarchy for every query.
+ *
+ * The plans are built from the active types, so the cache is cleared whenever a TypeDef is added, changed or
+ * removed.  The cache also counts how often a plan is reused and how long the queries take with each
+ * query strategy.
+ */
+class GraphOMRSQueryPlanCache
+{
+    private static final Logger log = LoggerFactory.getLogger(GraphOMRSQueryPlanCache.class);
+
+    private static final String allProperties = "*";
+    private static final String allSubtypes   = "*";
+    private static final String separator     = "|";
+
+    private final int                             maxPlans;
+    private final Map<String, GraphOMRSQueryPlan> plans;
+    private       long                            generation = 0;
+
+    private final GraphOMRSQueryPlan              propertyNameExtractor = new GraphOMRSQueryPlan();
+
+    private final AtomicLong hitCount          = new AtomicLong(0);
+    private final AtomicLong missCount         = new AtomicLong(0);
+    private final AtomicLong invalidationCount = new AtomicLong(0);
+
+    private final Map<GraphOMRSQueryPlan.QueryStrategy, AtomicLong> executionCount = new EnumMap<>(GraphOMRSQueryPlan.QueryStrategy.class);
+    private final Map<GraphOMRSQueryPlan.QueryStrategy, AtomicLong> executionTime  = new EnumMap<>(GraphOMRSQueryPlan.QueryStrategy.class);
+
+
+    /**
+     * Constructor sets the number of plans to keep.  The least recently used plan is dropped when the cache is full.
+     *
+     * @param maxPlans maximum number of plans to keep - zero means plans are not cached
+     */
+    GraphOMRSQueryPlanCache(int maxPlans)
+    {
+        this.maxPlans = maxPlans;
+        this.plans    = new LinkedHashMap<String, GraphOMRSQueryPlan>(16, 0.75f, true)
+        {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, GraphOMRSQueryPlan> eldest)
+            {
+                return size() > GraphOMRSQueryPlanCache.this.maxPlans;
+            }
+        };
+
+        for (GraphOMRSQueryPlan.QueryStrategy queryStrategy : GraphOMRSQueryPlan.QueryStrategy.values())
+        {
+            executionCount.put(queryStrategy, new AtomicLong(0));
+            executionTime.put(queryStrategy, new AtomicLong(0));
+        }
+    }
+
+
+    /**
+     * Return the query plan for a query that uses match properties.
+     *
+     * @param repositoryName name of this repository
+     * @param metadataCollectionId unique identifier for the metadata collection
+     * @param repositoryHelper utilities
+     * @param typeDefCategory category of instance being searched
+     * @param matchProperties properties to match - only the property names are used
+     * @param filterTypeGUID type to search - null means all types
+     * @param subTypeGUIDs subtypes of the filter type to search - null means all subtypes
+     * @return query plan
+     * @throws TypeErrorException the filter type is not known
+     */
+    GraphOMRSQueryPlan getQueryPlan(String               repositoryName,
+                                    String               metadataCollectionId,
+                                    OMRSRepositoryHelper repositoryHelper,
+                                    TypeDefCategory      typeDefCategory,
+                                    InstanceProperties   matchProperties,
+                                    String               filterTypeGUID,
+                                    List<String>         subTypeGUIDs) throws TypeErrorException
+    {
+        return getQueryPlan(repositoryName,
+                            metadataCollectionId,
+                            repositoryHelper,
+                            typeDefCategory,
+                            propertyNameExtractor.extractPropertyNamesFromMatchProperties(matchProperties),
+                            filterTypeGUID,
+                            subTypeGUIDs);
+    }
+
+
+    /**
+     * Return the query plan for a query that uses search properties.
+     *
+     * @param repositoryName name of this repository
+     * @param metadataCollectionId unique identifier for the metadata collection
+     * @param repositoryHelper utilities
+     * @param typeDefCategory category of instance being searched
+     * @param searchProperties property conditions - only the property names are used
+     * @param filterTypeGUID type to search - null means all types
+     * @param subTypeGUIDs subtypes of the filter type to search - null means all subtypes
+     * @return query plan
+     * @throws InvalidParameterException the search properties are not valid
+     * @throws TypeErrorException the filter type is not known
+     */
+    GraphOMRSQueryPlan getQueryPlan(String               repositoryName,
+                                    String               metadataCollectionId,
+                                    OMRSRepositoryHelper repositoryHelper,
+                                    TypeDefCategory      typeDefCategory,
+                                    SearchProperties     searchProperties,
+                                    String               filterTypeGUID,
+                                    List<String>         subTypeGUIDs) throws InvalidParameterException,
+                                                                              TypeErrorException
+    {
+        return getQueryPlan(repositoryName,
+                            metadataCollectionId,
+                            repositoryHelper,
+                            typeDefCategory,
+                            propertyNameExtractor.extractPropertyNamesFromSearchProperties(searchProperties, repositoryName),
+                            filterTypeGUID,
+                            subTypeGUIDs);
+    }
+
+
+    /**
+     * Return the query plan for a query that covers all of the properties of the types, such as a search
+     * by property value.
+     *
+     * @param repositoryName name of this repository
+     * @param metadataCollectionId unique identifier for the metadata collection
+     * @param repositoryHelper utilities
+     * @param typeDefCategory category of instance being searched
+     * @param filterTypeGUID type to search - null means all types
+     * @param subTypeGUIDs subtypes of the filter type to search - null means all subtypes
+     * @return query plan
+     * @throws TypeErrorException the filter type is not known
+     */
+    GraphOMRSQueryPlan getQueryPlan(String               repositoryName,
+                                    String               metadataCollectionId,
+                                    OMRSRepositoryHelper repositoryHelper,
+                                    TypeDefCategory      typeDefCategory,
+                                    String               filterTypeGUID,
+                                    List<String>         subTypeGUIDs) throws TypeErrorException
+    {
+        return getQueryPlan(repositoryName,
+                            metadataCollectionId,
+                            repositoryHelper,
+                            typeDefCategory,
+                            (List<String>) null,
+                            filterTypeGUID,
+                            subTypeGUIDs);
+    }
+
+
+    /**
+     * Return the cached plan for the query shape, or build and cache a new plan.
+     *
+     * @param repositoryName name of this repository
+     * @param metadataCollectionId unique identifier for the metadata collection
+     * @param repositoryHelper utilities
+     * @param typeDefCategory category of instance being searched
+     * @param queryPropertyNames names of the properties in the query - null means all properties
+     * @param filterTypeGUID type to search - null means all types
+     * @param subTypeGUIDs subtypes of the filter type to search - null means all subtypes
+     * @return query plan
+     * @throws TypeErrorException the filter type is not known
+     */
+    private GraphOMRSQueryPlan getQueryPlan(String               repositoryName,
+                                            String               metadataCollectionId,
+                                            OMRSRepositoryHelper repositoryHelper,
+                                            TypeDefCategory      typeDefCategory,
+                                            List<String>         queryPropertyNames,
+                                            String               filterTypeGUID,
+                                            List<String>         subTypeGUIDs) throws TypeErrorException
+    {
+        String queryShape = getQueryShape(typeDefCategory, queryPropertyNames, filterTypeGUID, subTypeGUIDs);
+        long   planGeneration;
+
+        synchronized (this)
+        {
+            GraphOMRSQueryPlan queryPlan = plans.get(queryShape);
+
+            if (queryPlan != null)
+            {
+                hitCount.incrementAndGet();
+                return queryPlan;
+            }
+
+            planGeneration = generation;
+        }
+
+        missCount.incrementAndGet();
+
+        GraphOMRSQueryPlan queryPlan = new GraphOMRSQueryPlan(repositoryName,
+                                                              metadataCollectionId,
+                                                              repositoryHelper,
+                                                              typeDefCategory,
+                                                              queryPropertyNames,
+                                                              filterTypeGUID,
+                                                              subTypeGUIDs);
+
+        synchronized (this)
+        {
+            /*
+             * A plan built while the types were changing may be out of date so it is used for this query only.
+             */
+            if ((maxPlans > 0) && (planGeneration == generation))
+            {
+                plans.put(queryShape, queryPlan);
+            }
+        }
+
+        return queryPlan;
+    }
+
+
+    /**
+     * Build the key for a query shape.  The lists are sorted so that the order the caller supplies them in
+     * does not matter.
+     *
+     * @param typeDefCategory category of instance being searched
+     * @param queryPropertyNames names of the properties in the query - null means all properties
+     * @param filterTypeGUID type to search - null means all types
+     * @param subTypeGUIDs subtypes of the filter type to search - null means all subtypes
+     * @return key for the plan
+     */
+    private String getQueryShape(TypeDefCategory typeDefCategory,
+                                 List<String>    queryPropertyNames,
+                                 String          filterTypeGUID,
+                                 List<String>    subTypeGUIDs)
+    {
+        StringBuilder queryShape = new StringBuilder();
+
+        queryShape.append(typeDefCategory).append(separator).append(filterTypeGUID).append(separator);
+
+        if (subTypeGUIDs == null)
+        {
+            queryShape.append(allSubtypes);
+        }
+        else
+        {
+            queryShape.append(new TreeSet<>(subTypeGUIDs));
+        }
+
+        queryShape.append(separator);
+
+        if (queryPropertyNames == null)
+        {
+            queryShape.append(allProperties);
+        }
+        else
+        {
+            queryShape.append(new TreeSet<>(queryPropertyNames));
+        }
+
+        return queryShape.toString();
+    }
+
+
+    /**
+     * Remove all of the plans because the types they were built from have changed.
+     */
+    void invalidate()
+    {
+        synchronized (this)
+        {
+            generation++;
+
+            if (plans.isEmpty())
+            {
+                return;
+            }
+
+            plans.clear();
+        }
+
+        invalidationCount.incrementAndGet();
+
+        log.debug("Query plan cache cleared: {}", getStatistics());
+    }
+
+
+    /**
+     * Record the time taken by a query that used the supplied strategy.
+     *
+     * @param queryStrategy strategy used by the query
+     * @param startTime value of System.nanoTime() when the query started
+     */
+    void recordExecution(GraphOMRSQueryPlan.QueryStrategy queryStrategy,
+                         long                             startTime)
+    {
+        executionCount.get(queryStrategy).incrementAndGet();
+        executionTime.get(queryStrategy).addAndGet(System.nanoTime() - startTime);
+    }
+
+
+    /**
+     * Return the statistics for the cache and the query strategies.  The times are in milliseconds.
+     *
+     * @return map of statistic name to value
+     */
+    Map<String, Long> getStatistics()
+    {
+        Map<String, Long> statistics = new LinkedHashMap<>();
+
+        synchronized (this)
+        {
+            statistics.put("cachedPlans", (long) plans.size());
+        }
+
+        statistics.put("planCacheHits", hitCount.get());
+        statistics.put("planCacheMisses", missCount.get());
+        statistics.put("planCacheInvalidations", invalidationCount.get());
+
+        for (GraphOMRSQueryPlan.QueryStrategy queryStrategy : GraphOMRSQueryPlan.QueryStrategy.values())
+        {
+            statistics.put(queryStrategy.name().toLowerCase() + "Queries", executionCount.get(queryStrategy).get());
+            statistics.put(queryStrategy.name().toLowerCase() + "QueryTime",
+                           TimeUnit.NANOSECONDS.toMillis(executionTime.get(queryStrategy).get()));
+        }
+
+        return statistics;
+    }
+}
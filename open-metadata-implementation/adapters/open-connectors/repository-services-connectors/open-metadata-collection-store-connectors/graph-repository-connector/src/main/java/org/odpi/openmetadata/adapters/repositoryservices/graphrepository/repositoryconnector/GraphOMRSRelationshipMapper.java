@@ -22,6 +22,7 @@ import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollec
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryHelper;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.RepositoryErrorException;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.TypeErrorException;
+import org.odpi.openmetadata.repositoryservices.serialization.OMRSJSONSerializer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -248,7 +249,7 @@ class GraphOMRSRelationshipMapper {
 
         List<String> maintainedByList = relationship.getMaintainedBy();
         if (maintainedByList != null && !maintainedByList.isEmpty()) {
-            ObjectMapper objectMapper = new ObjectMapper();
+            ObjectMapper objectMapper = OMRSJSONSerializer.getObjectMapper();
             String jsonString;
             try {
                 jsonString = objectMapper.writeValueAsString(maintainedByList);
@@ -284,7 +285,7 @@ class GraphOMRSRelationshipMapper {
 
         Map<String, Serializable> mappingProperties = relationship.getMappingProperties();
         if (mappingProperties != null && !mappingProperties.isEmpty()) {
-            ObjectMapper objectMapper = new ObjectMapper();
+            ObjectMapper objectMapper = OMRSJSONSerializer.getObjectMapper();
             String jsonString;
             try {
                 jsonString = objectMapper.writeValueAsString(mappingProperties);
@@ -315,7 +316,7 @@ class GraphOMRSRelationshipMapper {
         InstanceProperties instanceProperties = relationship.getProperties();
         if (instanceProperties != null) {
             // First approach is to write properties as json - useful for handling collections and possibly for full text/string matching???
-            ObjectMapper objectMapper = new ObjectMapper();
+            ObjectMapper objectMapper = OMRSJSONSerializer.getObjectMapper();
             String jsonString;
 
             try {
@@ -429,7 +430,7 @@ class GraphOMRSRelationshipMapper {
         // maintainedBy
         String maintainedByString = (String) getEdgeProperty(edge, PROPERTY_KEY_RELATIONSHIP_MAINTAINED_BY);
         if (maintainedByString != null) {
-            ObjectMapper objectMapper = new ObjectMapper();
+            ObjectMapper objectMapper = OMRSJSONSerializer.getObjectMapper();
             try {
                 List<String> maintainedByList = (List<String>) objectMapper.readValue(maintainedByString, List.class);
                 log.debug("{} edge has deserialized maintainedBy list {}", methodName, maintainedByList);
@@ -452,7 +453,7 @@ class GraphOMRSRelationshipMapper {
         // mappingProperties
         String mappingPropertiesString = (String) getEdgeProperty(edge, PROPERTY_KEY_RELATIONSHIP_MAPPING_PROPERTIES);
         if (mappingPropertiesString != null) {
-            ObjectMapper objectMapper = new ObjectMapper();
+            ObjectMapper objectMapper = OMRSJSONSerializer.getObjectMapper();
             try {
                 TypeReference<Map<String, Serializable>> typeReference = new TypeReference<Map<String, Serializable>>() {};
                 Map<String, Serializable> mappingPropertiesMap = objectMapper.readValue(mappingPropertiesString, typeReference);
@@ -474,7 +475,7 @@ class GraphOMRSRelationshipMapper {
         // relationshipProperties
         String stringProps = (String) (getEdgeProperty(edge, "relationshipProperties"));
         if (stringProps != null) {
-            ObjectMapper objectMapper = new ObjectMapper();
+            ObjectMapper objectMapper = OMRSJSONSerializer.getObjectMapper();
             try {
                 InstanceProperties instanceProperties = objectMapper.readValue(stringProps, InstanceProperties.class);
                 log.debug("{} relationship has deserialized properties {}", methodName, instanceProperties);
@@ -24,6 +24,23 @@ public class GraphOMRSRepositoryConnectorProvider extends OMRSRepositoryConnecto
     static final String  connectorTypeName        = "OMRS Graph Repository Connector";
     static final String  connectorTypeDescription = "OMRS Repository Connector that uses graph repository store.";
 
+    /**
+     * Configuration properties that control how the repository uses graph transactions.  They are read from the
+     * configuration properties of the connection; the remaining configuration properties are passed to JanusGraph.
+     */
+    public static final String  transactionRetryLimitProperty   = "transactionRetryLimit";
+    public static final String  transactionRetryBackoffProperty = "transactionRetryBackoff";
+    public static final String  batchCommitSizeProperty         = "batchCommitSize";
+    public static final String  queryPlanCacheSizeProperty      = "queryPlanCacheSize";
+    public static final String  indexedPropertiesProperty       = "indexedProperties";
+    public static final String  reindexProgressIntervalProperty = "reindexProgressInterval";
+
+    static final int  defaultTransactionRetryLimit   = 5;
+    static final int  defaultTransactionRetryBackoff = 20;
+    static final int  defaultBatchCommitSize         = 1000;
+    static final int  defaultQueryPlanCacheSize      = 500;
+    static final int  defaultReindexProgressInterval = 30;
+
 
     /**
      * Constructor used to initialize the ConnectorProviderBase with the Java class name of the specific
@@ -0,0 +1,369 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.repositoryservices.graphrepository.repositoryconnector;
+
+import org.odpi.openmetadata.frameworks.auditlog.AuditLog;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityProxy;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntitySummary;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceHeader;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceProvenanceType;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceStatus;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceType;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Relationship;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.EntityDef;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.RelationshipDef;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDef;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryHelper;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryValidator;
+import org.odpi.openmetadata.repositoryservices.ffdc.exception.EntityNotKnownException;
+import org.odpi.openmetadata.repositoryservices.ffdc.exception.InvalidParameterException;
+import org.odpi.openmetadata.repositoryservices.ffdc.exception.StatusNotSupportedException;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.expectThrows;
+
+
+/**
+ * Verify that the bulk methods of the graph repository store every instance in a valid request and
+ * nothing from a request that fails part way through its list, whether the failure is found while
+ * validating the request or while storing it.  Each test uses a new BerkeleyDB graph under the
+ * build's target directory.
+ */
+public class TestGraphBulkOperations
+{
+    private static final String USER_ID                = "testUser";
+    private static final String REPOSITORY_NAME        = "testRepository";
+    private static final String ENTITY_TYPE_GUID       = "entity-type-guid";
+    private static final String ENTITY_TYPE_NAME       = "TestEntity";
+    private static final String RELATIONSHIP_TYPE_GUID = "relationship-type-guid";
+    private static final String RELATIONSHIP_TYPE_NAME = "TestRelationship";
+
+    private OMRSRepositoryHelper        repositoryHelper;
+    private OMRSRepositoryValidator     repositoryValidator;
+    private GraphOMRSMetadataCollection metadataCollection;
+
+    /*
+     * GUIDs to give to the next new instances - a random GUID is used when this is empty.
+     */
+    private Deque<String> nextGUIDs;
+
+
+    @BeforeMethod
+    public void setup() throws Exception
+    {
+        String metadataCollectionId = UUID.randomUUID().toString();
+        String graphDirectory       = "target/test-graphs/" + metadataCollectionId;
+
+        repositoryHelper    = mock(OMRSRepositoryHelper.class);
+        repositoryValidator = mock(OMRSRepositoryValidator.class);
+        nextGUIDs           = new ArrayDeque<>();
+
+        EntityDef entityDef = new EntityDef();
+        entityDef.setGUID(ENTITY_TYPE_GUID);
+        entityDef.setName(ENTITY_TYPE_NAME);
+
+        RelationshipDef relationshipDef = new RelationshipDef();
+        relationshipDef.setGUID(RELATIONSHIP_TYPE_GUID);
+        relationshipDef.setName(RELATIONSHIP_TYPE_NAME);
+
+        when(repositoryHelper.getTypeDef(anyString(), anyString(), eq(ENTITY_TYPE_GUID), anyString())).thenReturn(entityDef);
+        when(repositoryHelper.getTypeDef(anyString(), anyString(), eq(RELATIONSHIP_TYPE_GUID), anyString())).thenReturn(relationshipDef);
+        when(repositoryHelper.getTypeDefByName(anyString(), eq(ENTITY_TYPE_NAME))).thenReturn(entityDef);
+        when(repositoryHelper.getTypeDefByName(anyString(), eq(RELATIONSHIP_TYPE_NAME))).thenReturn(relationshipDef);
+
+        when(repositoryHelper.getNewInstanceType(anyString(), any())).thenAnswer(invocation -> {
+            TypeDef typeDef = invocation.getArgument(1);
+            return getInstanceType(typeDef == null ? null : typeDef.getName());
+        });
+
+        when(repositoryHelper.getNewEntity(anyString(), anyString(), any(), anyString(), anyString(), any(), any())).thenAnswer(invocation -> {
+            EntityDetail entity = new EntityDetail();
+            setHeader(entity, invocation.getArgument(1), invocation.getArgument(4));
+            entity.setProperties(invocation.getArgument(5));
+            entity.setClassifications(invocation.getArgument(6));
+            return entity;
+        });
+
+        when(repositoryHelper.getNewRelationship(anyString(), anyString(), any(), anyString(), anyString(), any())).thenAnswer(invocation -> {
+            Relationship relationship = new Relationship();
+            setHeader(relationship, invocation.getArgument(1), invocation.getArgument(4));
+            relationship.setProperties(invocation.getArgument(5));
+            return relationship;
+        });
+
+        /*
+         * An entity that is not in the graph has no proxy.
+         */
+        doThrow(EntityNotKnownException.class).when(repositoryValidator).validateEntityFromStore(anyString(),
+                                                                                                 anyString(),
+                                                                                                 eq((EntitySummary) null),
+                                                                                                 anyString());
+
+        Map<String, Object> storageProperties = new HashMap<>();
+        storageProperties.put("storage.backend", "berkeleyje");
+        storageProperties.put("storage.directory", graphDirectory + "/berkeley");
+        storageProperties.put("index.search.backend", "lucene");
+        storageProperties.put("index.search.directory", graphDirectory + "/searchindex");
+
+        metadataCollection = new GraphOMRSMetadataCollection(mock(GraphOMRSRepositoryConnector.class),
+                                                             REPOSITORY_NAME,
+                                                             repositoryHelper,
+                                                             repositoryValidator,
+                                                             metadataCollectionId,
+                                                             mock(AuditLog.class),
+                                                             storageProperties);
+    }
+
+
+    /**
+     * Build the type of a new instance.
+     *
+     * @param typeName name of the type
+     * @return instance type
+     */
+    private InstanceType getInstanceType(String typeName)
+    {
+        InstanceType type = new InstanceType();
+        type.setTypeDefName(typeName);
+        return type;
+    }
+
+
+    /**
+     * Fill in the header of a new instance in the way the repository helper does.
+     *
+     * @param instance new entity or relationship
+     * @param metadataCollectionId home metadata collection
+     * @param typeName name of the type
+     */
+    private void setHeader(InstanceHeader instance,
+                           String         metadataCollectionId,
+                           String         typeName)
+    {
+        instance.setGUID(nextGUIDs.isEmpty() ? UUID.randomUUID().toString() : nextGUIDs.removeFirst());
+        instance.setType(getInstanceType(typeName));
+        instance.setMetadataCollectionId(metadataCollectionId);
+        instance.setInstanceProvenanceType(InstanceProvenanceType.LOCAL_COHORT);
+        instance.setCreatedBy(USER_ID);
+        instance.setCreateTime(new Date());
+        instance.setStatus(InstanceStatus.ACTIVE);
+        instance.setVersion(1L);
+    }
+
+
+    /**
+     * Build a template for a new entity.
+     *
+     * @param status requested status
+     * @return template
+     */
+    private EntityDetail getEntityTemplate(InstanceStatus status)
+    {
+        InstanceType type = new InstanceType();
+        type.setTypeDefGUID(ENTITY_TYPE_GUID);
+
+        EntityDetail template = new EntityDetail();
+        template.setType(type);
+        template.setStatus(status);
+
+        return template;
+    }
+
+
+    /**
+     * Build a template for a new relationship.
+     *
+     * @param entityOneGUID unique identifier of the entity at end one
+     * @param entityTwoGUID unique identifier of the entity at end two
+     * @return template
+     */
+    private Relationship getRelationshipTemplate(String entityOneGUID,
+                                                 String entityTwoGUID)
+    {
+        InstanceType type = new InstanceType();
+        type.setTypeDefGUID(RELATIONSHIP_TYPE_GUID);
+
+        EntityProxy entityOne = new EntityProxy();
+        entityOne.setGUID(entityOneGUID);
+
+        EntityProxy entityTwo = new EntityProxy();
+        entityTwo.setGUID(entityTwoGUID);
+
+        Relationship template = new Relationship();
+        template.setType(type);
+        template.setEntityOneProxy(entityOne);
+        template.setEntityTwoProxy(entityTwo);
+
+        return template;
+    }
+
+
+    /**
+     * Add entities to use as the ends of relationships.
+     *
+     * @param count number of entities
+     * @return unique identifiers of the new entities
+     * @throws Exception unexpected failure
+     */
+    private List<String> addEndEntities(int count) throws Exception
+    {
+        List<EntityDetail> templates = new ArrayList<>();
+
+        for (int i = 0; i < count; i++)
+        {
+            templates.add(getEntityTemplate(null));
+        }
+
+        List<String> entityGUIDs = new ArrayList<>();
+
+        for (EntityDetail entity : metadataCollection.addEntities(USER_ID, templates))
+        {
+            entityGUIDs.add(entity.getGUID());
+        }
+
+        return entityGUIDs;
+    }
+
+
+    @Test
+    public void testAddEntitiesStoresEveryEntity() throws Exception
+    {
+        List<EntityDetail> results = metadataCollection.addEntities(USER_ID,
+                                                                    Arrays.asList(getEntityTemplate(InstanceStatus.DRAFT),
+                                                                                  getEntityTemplate(null),
+                                                                                  getEntityTemplate(InstanceStatus.PROPOSED)));
+
+        assertEquals(results.size(), 3);
+
+        assertEquals(metadataCollection.isEntityKnown(USER_ID, results.get(0).getGUID()).getStatus(), InstanceStatus.DRAFT);
+        assertEquals(metadataCollection.isEntityKnown(USER_ID, results.get(1).getGUID()).getStatus(), InstanceStatus.ACTIVE);
+        assertEquals(metadataCollection.isEntityKnown(USER_ID, results.get(2).getGUID()).getStatus(), InstanceStatus.PROPOSED);
+    }
+
+
+    @Test
+    public void testAddEntitiesValidationFailureStoresNothing() throws Exception
+    {
+        doThrow(StatusNotSupportedException.class).when(repositoryValidator).validateInstanceStatus(anyString(),
+                                                                                                    anyString(),
+                                                                                                    eq(InstanceStatus.PROPOSED),
+                                                                                                    any(),
+                                                                                                    anyString());
+
+        expectThrows(StatusNotSupportedException.class,
+                     () -> metadataCollection.addEntities(USER_ID,
+                                                          Arrays.asList(getEntityTemplate(InstanceStatus.DRAFT),
+                                                                        getEntityTemplate(InstanceStatus.PROPOSED),
+                                                                        getEntityTemplate(InstanceStatus.ACTIVE))));
+
+        verify(repositoryHelper, never()).getNewEntity(anyString(), anyString(), any(), anyString(), anyString(), any(), any());
+    }
+
+
+    @Test
+    public void testAddEntitiesStoreFailureRollsBackEveryEntity() throws Exception
+    {
+        nextGUIDs.add("existing-entity");
+        addEndEntities(1);
+
+        /*
+         * The second new entity clashes with the existing entity so the graph rejects it after the first
+         * entity has been added to the transaction.
+         */
+        nextGUIDs.addAll(Arrays.asList("first-entity", "existing-entity", "third-entity"));
+
+        expectThrows(InvalidParameterException.class,
+                     () -> metadataCollection.addEntities(USER_ID,
+                                                          Arrays.asList(getEntityTemplate(null),
+                                                                        getEntityTemplate(null),
+                                                                        getEntityTemplate(null))));
+
+        assertNull(metadataCollection.isEntityKnown(USER_ID, "first-entity"));
+        assertNull(metadataCollection.isEntityKnown(USER_ID, "third-entity"));
+        assertNotNull(metadataCollection.isEntityKnown(USER_ID, "existing-entity"));
+    }
+
+
+    @Test
+    public void testAddRelationshipsStoresEveryRelationship() throws Exception
+    {
+        List<String> entityGUIDs = addEndEntities(3);
+
+        List<Relationship> results = metadataCollection.addRelationships(USER_ID,
+                                                                         Arrays.asList(getRelationshipTemplate(entityGUIDs.get(0), entityGUIDs.get(1)),
+                                                                                       getRelationshipTemplate(entityGUIDs.get(1), entityGUIDs.get(2)),
+                                                                                       getRelationshipTemplate(entityGUIDs.get(0), entityGUIDs.get(2))));
+
+        assertEquals(results.size(), 3);
+
+        for (int i = 0; i < results.size(); i++)
+        {
+            Relationship stored = metadataCollection.isRelationshipKnown(USER_ID, results.get(i).getGUID());
+
+            assertNotNull(stored);
+            assertEquals(stored.getEntityOneProxy().getGUID(), results.get(i).getEntityOneProxy().getGUID());
+            assertEquals(stored.getEntityTwoProxy().getGUID(), results.get(i).getEntityTwoProxy().getGUID());
+        }
+    }
+
+
+    @Test
+    public void testAddRelationshipsUnknownEndStoresNothing() throws Exception
+    {
+        List<String> entityGUIDs = addEndEntities(2);
+
+        nextGUIDs.addAll(Arrays.asList("first-relationship", "second-relationship", "third-relationship"));
+
+        expectThrows(EntityNotKnownException.class,
+                     () -> metadataCollection.addRelationships(USER_ID,
+                                                               Arrays.asList(getRelationshipTemplate(entityGUIDs.get(0), entityGUIDs.get(1)),
+                                                                             getRelationshipTemplate(entityGUIDs.get(1), "unknown-entity"),
+                                                                             getRelationshipTemplate(entityGUIDs.get(0), entityGUIDs.get(1)))));
+
+        assertNull(metadataCollection.isRelationshipKnown(USER_ID, "first-relationship"));
+        assertNull(metadataCollection.isRelationshipKnown(USER_ID, "second-relationship"));
+    }
+
+
+    @Test
+    public void testAddRelationshipsStoreFailureRollsBackEveryRelationship() throws Exception
+    {
+        List<String> entityGUIDs = addEndEntities(2);
+
+        nextGUIDs.add("existing-relationship");
+        metadataCollection.addRelationships(USER_ID, Arrays.asList(getRelationshipTemplate(entityGUIDs.get(0), entityGUIDs.get(1))));
+
+        nextGUIDs.addAll(Arrays.asList("first-relationship", "existing-relationship"));
+
+        expectThrows(InvalidParameterException.class,
+                     () -> metadataCollection.addRelationships(USER_ID,
+                                                               Arrays.asList(getRelationshipTemplate(entityGUIDs.get(1), entityGUIDs.get(0)),
+                                                                             getRelationshipTemplate(entityGUIDs.get(0), entityGUIDs.get(1)))));
+
+        assertNull(metadataCollection.isRelationshipKnown(USER_ID, "first-relationship"));
+        assertNotNull(metadataCollection.isRelationshipKnown(USER_ID, "existing-relationship"));
+    }
+}
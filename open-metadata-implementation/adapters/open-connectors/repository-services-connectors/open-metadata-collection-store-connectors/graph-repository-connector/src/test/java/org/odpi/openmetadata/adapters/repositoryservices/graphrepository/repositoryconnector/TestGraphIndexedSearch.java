@@ -0,0 +1,384 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.repositoryservices.graphrepository.repositoryconnector;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Compare;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.janusgraph.core.attribute.Text;
+import org.odpi.openmetadata.frameworks.auditlog.AuditLog;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.MatchCriteria;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceProperties;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceProvenanceType;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceStatus;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceType;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.PrimitivePropertyValue;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.EntityDef;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.PrimitiveDef;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.PrimitiveDefCategory;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDefAttribute;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryHelper;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertTrue;
+
+
+/**
+ * Verify that exact match searches on string properties return the same entities whether or not the properties
+ * are indexed.  The type has a unique attribute, which has both a mixed and a composite index, an indexable
+ * attribute, which has a mixed index, and an attribute with no index.  Each test uses new BerkeleyDB graphs
+ * under the build's target directory.
+ */
+public class TestGraphIndexedSearch
+{
+    private static final String REPOSITORY_NAME        = "testRepository";
+    private static final String METADATA_COLLECTION_ID = "test-metadata-collection";
+    private static final String ENTITY_TYPE_GUID       = "entity-type-guid";
+    private static final String ENTITY_TYPE_NAME       = "TestEntity";
+
+    private static final String UNIQUE_PROPERTY    = "qualifiedName";
+    private static final String INDEXABLE_PROPERTY = "displayName";
+    private static final String PLAIN_PROPERTY     = "notes";
+
+    /*
+     * Values chosen to catch a literal that is treated as a regular expression, a value that is split into words
+     * and a search that ignores case.
+     */
+    private static final List<String> values = Arrays.asList("alpha",
+                                                             "Alpha",
+                                                             "alpha beta",
+                                                             "a.b",
+                                                             "axb",
+                                                             "a*b",
+                                                             "(x)",
+                                                             "back\\slash");
+
+    private OMRSRepositoryHelper          repositoryHelper;
+    private EntityDef                     entityDef;
+    private Map<String, TypeDefAttribute> qualifiedPropertyNameToTypeDefinedAttribute;
+    private Map<String, List<String>>     shortPropertyNameToQualifiedPropertyNames;
+
+
+    @BeforeMethod
+    public void setup() throws Exception
+    {
+        repositoryHelper = mock(OMRSRepositoryHelper.class);
+
+        List<TypeDefAttribute> attributes = Arrays.asList(getAttribute(UNIQUE_PROPERTY, true, true),
+                                                          getAttribute(INDEXABLE_PROPERTY, false, true),
+                                                          getAttribute(PLAIN_PROPERTY, false, false));
+
+        entityDef = new EntityDef();
+        entityDef.setGUID(ENTITY_TYPE_GUID);
+        entityDef.setName(ENTITY_TYPE_NAME);
+        entityDef.setPropertiesDefinition(attributes);
+
+        qualifiedPropertyNameToTypeDefinedAttribute = new HashMap<>();
+        shortPropertyNameToQualifiedPropertyNames   = new HashMap<>();
+
+        for (TypeDefAttribute attribute : attributes)
+        {
+            String qualifiedName = ENTITY_TYPE_NAME + "x" + attribute.getAttributeName();
+
+            qualifiedPropertyNameToTypeDefinedAttribute.put(qualifiedName, attribute);
+            shortPropertyNameToQualifiedPropertyNames.put(attribute.getAttributeName(), Arrays.asList(qualifiedName));
+        }
+
+        when(repositoryHelper.getTypeDefByName(anyString(), eq(ENTITY_TYPE_NAME))).thenReturn(entityDef);
+        when(repositoryHelper.getTypeDef(anyString(), anyString(), anyString(), anyString(), anyString(), anyString())).thenReturn(entityDef);
+        when(repositoryHelper.getAllPropertiesForTypeDef(anyString(), any(), anyString())).thenReturn(attributes);
+        when(repositoryHelper.getNewInstanceType(anyString(), any())).thenAnswer(invocation -> getInstanceType());
+        when(repositoryHelper.isExactMatchRegex(anyString())).thenAnswer(invocation -> {
+            String searchString = invocation.getArgument(0);
+
+            return searchString.startsWith("\\Q") && searchString.endsWith("\\E") && (searchString.indexOf("\\E") == searchString.length() - 2);
+        });
+    }
+
+
+    /**
+     * Build a string attribute definition.
+     *
+     * @param name name of the attribute
+     * @param unique whether the attribute is unique
+     * @param indexable whether the attribute is indexable
+     * @return attribute definition
+     */
+    private TypeDefAttribute getAttribute(String  name,
+                                          boolean unique,
+                                          boolean indexable)
+    {
+        TypeDefAttribute attribute = new TypeDefAttribute();
+
+        attribute.setAttributeName(name);
+        attribute.setAttributeType(new PrimitiveDef(PrimitiveDefCategory.OM_PRIMITIVE_TYPE_STRING));
+        attribute.setUnique(unique);
+        attribute.setIndexable(indexable);
+
+        return attribute;
+    }
+
+
+    /**
+     * Return the instance type for the test entities.
+     *
+     * @return instance type
+     */
+    private InstanceType getInstanceType()
+    {
+        InstanceType type = new InstanceType();
+
+        type.setTypeDefGUID(ENTITY_TYPE_GUID);
+        type.setTypeDefName(ENTITY_TYPE_NAME);
+
+        return type;
+    }
+
+
+    /**
+     * Open a new graph store.
+     *
+     * @return graph store
+     * @throws Exception unable to open the graph
+     */
+    private GraphOMRSMetadataStore getGraphStore() throws Exception
+    {
+        String graphDirectory = "target/test-graphs/" + UUID.randomUUID().toString();
+
+        Map<String, Object> storageProperties = new HashMap<>();
+        storageProperties.put("storage.backend", "berkeleyje");
+        storageProperties.put("storage.directory", graphDirectory + "/berkeley");
+        storageProperties.put("index.search.backend", "lucene");
+        storageProperties.put("index.search.directory", graphDirectory + "/searchindex");
+        storageProperties.put(GraphOMRSRepositoryConnectorProvider.reindexProgressIntervalProperty, 1);
+
+        return new GraphOMRSMetadataStore(METADATA_COLLECTION_ID,
+                                          REPOSITORY_NAME,
+                                          repositoryHelper,
+                                          mock(AuditLog.class),
+                                          storageProperties);
+    }
+
+
+    /**
+     * Store an entity for each test value.  Each entity has the value in all three properties.
+     *
+     * @param graphStore store to add the entities to
+     * @throws Exception unable to store the entities
+     */
+    private void addEntities(GraphOMRSMetadataStore graphStore) throws Exception
+    {
+        for (int i = 0; i < values.size(); i++)
+        {
+            InstanceProperties properties = new InstanceProperties();
+
+            for (String propertyName : Arrays.asList(UNIQUE_PROPERTY, INDEXABLE_PROPERTY, PLAIN_PROPERTY))
+            {
+                properties.setProperty(propertyName, getStringValue(values.get(i)));
+            }
+
+            EntityDetail entity = new EntityDetail();
+            entity.setGUID("entity-" + i);
+            entity.setType(getInstanceType());
+            entity.setMetadataCollectionId(METADATA_COLLECTION_ID);
+            entity.setInstanceProvenanceType(InstanceProvenanceType.LOCAL_COHORT);
+            entity.setCreatedBy("testUser");
+            entity.setCreateTime(new Date());
+            entity.setStatus(InstanceStatus.ACTIVE);
+            entity.setVersion(1L);
+            entity.setProperties(properties);
+
+            graphStore.createEntityInStore(entity);
+        }
+    }
+
+
+    /**
+     * Build a string property value.
+     *
+     * @param value string
+     * @return property value
+     */
+    private PrimitivePropertyValue getStringValue(String value)
+    {
+        PrimitivePropertyValue propertyValue = new PrimitivePropertyValue();
+
+        propertyValue.setPrimitiveDefCategory(PrimitiveDefCategory.OM_PRIMITIVE_TYPE_STRING);
+        propertyValue.setPrimitiveValue(value);
+
+        return propertyValue;
+    }
+
+
+    /**
+     * Return the GUIDs of the entities whose property matches the search string.
+     *
+     * @param graphStore store to search
+     * @param propertyName property to test
+     * @param searchString regular expression in the form used by the repository helper
+     * @return sorted GUIDs
+     * @throws Exception search failed
+     */
+    private List<String> find(GraphOMRSMetadataStore graphStore,
+                              String                 propertyName,
+                              String                 searchString) throws Exception
+    {
+        InstanceProperties matchProperties = new InstanceProperties();
+
+        matchProperties.setProperty(propertyName, getStringValue(searchString));
+
+        List<EntityDetail> entities = graphStore.findEntitiesByPropertyForTypes(Arrays.asList(ENTITY_TYPE_NAME),
+                                                                               ENTITY_TYPE_NAME,
+                                                                               qualifiedPropertyNameToTypeDefinedAttribute,
+                                                                               shortPropertyNameToQualifiedPropertyNames,
+                                                                               matchProperties,
+                                                                               MatchCriteria.ALL);
+        TreeSet<String> guids = new TreeSet<>();
+
+        if (entities != null)
+        {
+            for (EntityDetail entity : entities)
+            {
+                guids.add(entity.getGUID());
+            }
+        }
+
+        return new ArrayList<>(guids);
+    }
+
+
+    /**
+     * Return the exact match search string for a value, as built by the repository helper.
+     *
+     * @param value literal value
+     * @return regular expression
+     */
+    private String getExactMatchRegex(String value)
+    {
+        return "\\Q" + value + "\\E";
+    }
+
+
+    /**
+     * Run an exact match search for every test value on every property and check that the indexed and unindexed
+     * stores return the same entities, and that each search finds only the entity with that value.
+     *
+     * @param indexedStore store with indexes
+     * @param unindexedStore store without indexes
+     * @throws Exception search failed
+     */
+    private void checkSameResults(GraphOMRSMetadataStore indexedStore,
+                                  GraphOMRSMetadataStore unindexedStore) throws Exception
+    {
+        for (String propertyName : Arrays.asList(UNIQUE_PROPERTY, INDEXABLE_PROPERTY, PLAIN_PROPERTY))
+        {
+            for (int i = 0; i < values.size(); i++)
+            {
+                String       searchString  = getExactMatchRegex(values.get(i));
+                List<String> indexedResult = find(indexedStore, propertyName, searchString);
+
+                assertEquals(indexedResult, Arrays.asList("entity-" + i), propertyName + " " + searchString);
+                assertEquals(find(unindexedStore, propertyName, searchString), indexedResult, propertyName + " " + searchString);
+            }
+
+            for (String searchString : Arrays.asList(getExactMatchRegex("alp"), getExactMatchRegex("beta"), "alpha.*", "a.b"))
+            {
+                assertEquals(find(indexedStore, propertyName, searchString),
+                             find(unindexedStore, propertyName, searchString),
+                             propertyName + " " + searchString);
+            }
+        }
+    }
+
+
+    @Test
+    public void testLiteralSearchUsesEquality() throws Exception
+    {
+        GraphOMRSMetadataStore graphStore = getGraphStore();
+
+        P<String> literal       = graphStore.getFullMatchPredicate("a\\.b\\*c\\\\d");
+        P<String> regex         = graphStore.getFullMatchPredicate("a.b");
+        P<String> unknownEscape = graphStore.getFullMatchPredicate("a\\sb");
+
+        assertEquals(literal.getBiPredicate(), Compare.eq);
+        assertEquals(literal.getValue(), "a.b*c\\d");
+        assertEquals(graphStore.getFullMatchPredicate("alpha beta").getBiPredicate(), Compare.eq);
+
+        assertEquals(regex.getBiPredicate(), Text.REGEX);
+        assertEquals(regex.getValue(), "a.b");
+        assertEquals(unknownEscape.getBiPredicate(), Text.REGEX);
+    }
+
+
+    @Test
+    public void testIndexesCreatedBeforeDataGiveSameResults() throws Exception
+    {
+        GraphOMRSMetadataStore indexedStore   = getGraphStore();
+        GraphOMRSMetadataStore unindexedStore = getGraphStore();
+
+        indexedStore.createEntityIndexes(entityDef);
+
+        addEntities(indexedStore);
+        addEntities(unindexedStore);
+
+        checkSameResults(indexedStore, unindexedStore);
+
+        /*
+         * Exact matches on the indexed properties are counted as indexed queries.
+         */
+        assertTrue(indexedStore.getIndexStatistics().get("indexedQueries") > 0);
+        assertEquals(unindexedStore.getIndexStatistics().get("indexedQueries"), Long.valueOf(0));
+    }
+
+
+    @Test
+    public void testIndexesCreatedAfterDataAreReindexed() throws Exception
+    {
+        GraphOMRSMetadataStore indexedStore   = getGraphStore();
+        GraphOMRSMetadataStore unindexedStore = getGraphStore();
+
+        addEntities(indexedStore);
+        addEntities(unindexedStore);
+
+        /*
+         * The property keys already exist so the new indexes are filled by background reindex jobs.
+         */
+        indexedStore.createEntityIndexes(entityDef);
+
+        Map<String, String> reindexStatus = indexedStore.getReindexStatus();
+        long                deadline      = System.currentTimeMillis() + 60000;
+
+        assertEquals(reindexStatus.size(), 3);
+
+        while ((! "ENABLED ENABLED ENABLED".equals(String.join(" ", reindexStatus.values())))
+                && (System.currentTimeMillis() < deadline))
+        {
+            assertTrue(! reindexStatus.containsValue("FAILED"), reindexStatus.toString());
+            Thread.sleep(100);
+            reindexStatus = indexedStore.getReindexStatus();
+        }
+
+        assertEquals(String.join(" ", reindexStatus.values()), "ENABLED ENABLED ENABLED");
+        assertEquals(indexedStore.getIndexStatistics().get("reindexJobs"), Long.valueOf(3));
+        assertNotEquals(indexedStore.getIndexStatistics().get("reindexedElements"), Long.valueOf(0));
+
+        checkSameResults(indexedStore, unindexedStore);
+    }
+}
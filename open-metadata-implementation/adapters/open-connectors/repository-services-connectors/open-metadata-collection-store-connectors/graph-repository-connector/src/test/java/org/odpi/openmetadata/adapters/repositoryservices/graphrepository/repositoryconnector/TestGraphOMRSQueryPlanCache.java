@@ -0,0 +1,296 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.repositoryservices.graphrepository.repositoryconnector;
+
+import org.odpi.openmetadata.frameworks.auditlog.AuditLog;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.MatchCriteria;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceProperties;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.PrimitivePropertyValue;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.ClassificationDef;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.EntityDef;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.PrimitiveDefCategory;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDefCategory;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDefGallery;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryHelper;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryValidator;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+
+
+/**
+ * Verify that the query plan cache shares a plan between queries with the same shape, keeps separate plans
+ * for different shapes, drops the least recently used plan when it is full and is cleared when the types change.
+ */
+public class TestGraphOMRSQueryPlanCache
+{
+    private static final String USER_ID             = "testUser";
+    private static final String REPOSITORY_NAME     = "testRepository";
+    private static final String METADATA_COLLECTION = "testMetadataCollection";
+    private static final String ENTITY_TYPE_GUID    = "entity-type-guid";
+    private static final String OTHER_TYPE_GUID     = "other-type-guid";
+
+    private OMRSRepositoryHelper repositoryHelper;
+
+
+    @BeforeMethod
+    public void setup() throws Exception
+    {
+        repositoryHelper = mock(OMRSRepositoryHelper.class);
+
+        /*
+         * The only active type is a classification, so the entity and relationship plans have no valid types.
+         * Only the caching of the plans is being tested.
+         */
+        ClassificationDef classificationDef = new ClassificationDef();
+        classificationDef.setGUID("classification-type-guid");
+        classificationDef.setName("TestClassification");
+
+        TypeDefGallery activeTypes = new TypeDefGallery();
+        activeTypes.setTypeDefs(Arrays.asList(classificationDef));
+
+        EntityDef entityDef = new EntityDef();
+        entityDef.setGUID(ENTITY_TYPE_GUID);
+        entityDef.setName("TestEntity");
+
+        when(repositoryHelper.getActiveTypeDefGallery()).thenReturn(activeTypes);
+        when(repositoryHelper.getTypeDef(anyString(), anyString(), anyString(), anyString())).thenReturn(entityDef);
+    }
+
+
+    /**
+     * Build match properties with a string value for each property name.
+     *
+     * @param value value to give each property
+     * @param propertyNames names of the properties
+     * @return match properties
+     */
+    private InstanceProperties getMatchProperties(String    value,
+                                                  String... propertyNames)
+    {
+        InstanceProperties matchProperties = new InstanceProperties();
+
+        for (String propertyName : propertyNames)
+        {
+            PrimitivePropertyValue propertyValue = new PrimitivePropertyValue();
+            propertyValue.setPrimitiveDefCategory(PrimitiveDefCategory.OM_PRIMITIVE_TYPE_STRING);
+            propertyValue.setPrimitiveValue(value);
+
+            matchProperties.setProperty(propertyName, propertyValue);
+        }
+
+        return matchProperties;
+    }
+
+
+    /**
+     * Return the plan for an entity query with match properties.
+     *
+     * @param queryPlanCache cache to use
+     * @param matchProperties properties to match
+     * @param filterTypeGUID type to search
+     * @param subTypeGUIDs subtypes to search
+     * @return query plan
+     * @throws Exception unexpected failure
+     */
+    private GraphOMRSQueryPlan getPlan(GraphOMRSQueryPlanCache queryPlanCache,
+                                       InstanceProperties      matchProperties,
+                                       String                  filterTypeGUID,
+                                       String...               subTypeGUIDs) throws Exception
+    {
+        return getPlan(queryPlanCache, TypeDefCategory.ENTITY_DEF, matchProperties, filterTypeGUID, subTypeGUIDs);
+    }
+
+
+    /**
+     * Return the plan for a query with match properties.
+     *
+     * @param queryPlanCache cache to use
+     * @param typeDefCategory category of instance being searched
+     * @param matchProperties properties to match
+     * @param filterTypeGUID type to search
+     * @param subTypeGUIDs subtypes to search - no subtypes means all subtypes
+     * @return query plan
+     * @throws Exception unexpected failure
+     */
+    private GraphOMRSQueryPlan getPlan(GraphOMRSQueryPlanCache queryPlanCache,
+                                       TypeDefCategory         typeDefCategory,
+                                       InstanceProperties      matchProperties,
+                                       String                  filterTypeGUID,
+                                       String...               subTypeGUIDs) throws Exception
+    {
+        return queryPlanCache.getQueryPlan(REPOSITORY_NAME,
+                                           METADATA_COLLECTION,
+                                           repositoryHelper,
+                                           typeDefCategory,
+                                           matchProperties,
+                                           filterTypeGUID,
+                                           subTypeGUIDs.length == 0 ? null : Arrays.asList(subTypeGUIDs));
+    }
+
+
+    @Test
+    public void testQueriesWithSameShapeSharePlan() throws Exception
+    {
+        GraphOMRSQueryPlanCache queryPlanCache = new GraphOMRSQueryPlanCache(10);
+
+        GraphOMRSQueryPlan queryPlan = getPlan(queryPlanCache, getMatchProperties("a", "name", "description"), ENTITY_TYPE_GUID, "sub1", "sub2");
+
+        /*
+         * The property values and the order of the subtypes and property names do not change the shape.
+         */
+        assertSame(getPlan(queryPlanCache, getMatchProperties("b", "description", "name"), ENTITY_TYPE_GUID, "sub2", "sub1"), queryPlan);
+        assertSame(getPlan(queryPlanCache, getMatchProperties("c", "name", "description"), ENTITY_TYPE_GUID, "sub1", "sub2"), queryPlan);
+
+        Map<String, Long> statistics = queryPlanCache.getStatistics();
+
+        assertEquals(statistics.get("cachedPlans"), Long.valueOf(1));
+        assertEquals(statistics.get("planCacheHits"), Long.valueOf(2));
+        assertEquals(statistics.get("planCacheMisses"), Long.valueOf(1));
+    }
+
+
+    @Test
+    public void testQueriesWithDifferentShapesHaveDifferentPlans() throws Exception
+    {
+        GraphOMRSQueryPlanCache queryPlanCache = new GraphOMRSQueryPlanCache(10);
+        InstanceProperties      nameProperty   = getMatchProperties("a", "name");
+
+        GraphOMRSQueryPlan queryPlan = getPlan(queryPlanCache, nameProperty, ENTITY_TYPE_GUID, "sub1");
+
+        assertNotSame(getPlan(queryPlanCache, TypeDefCategory.RELATIONSHIP_DEF, nameProperty, ENTITY_TYPE_GUID, "sub1"), queryPlan);
+        assertNotSame(getPlan(queryPlanCache, nameProperty, OTHER_TYPE_GUID, "sub1"), queryPlan);
+        assertNotSame(getPlan(queryPlanCache, nameProperty, null, "sub1"), queryPlan);
+        assertNotSame(getPlan(queryPlanCache, nameProperty, ENTITY_TYPE_GUID, "sub2"), queryPlan);
+        assertNotSame(getPlan(queryPlanCache, nameProperty, ENTITY_TYPE_GUID), queryPlan);
+        assertNotSame(getPlan(queryPlanCache, getMatchProperties("a", "description"), ENTITY_TYPE_GUID, "sub1"), queryPlan);
+        assertNotSame(getPlan(queryPlanCache, getMatchProperties("a", "name", "description"), ENTITY_TYPE_GUID, "sub1"), queryPlan);
+
+        /*
+         * A query with no match properties covers all properties, which is a different shape to a query on named properties.
+         */
+        assertNotSame(queryPlanCache.getQueryPlan(REPOSITORY_NAME,
+                                                  METADATA_COLLECTION,
+                                                  repositoryHelper,
+                                                  TypeDefCategory.ENTITY_DEF,
+                                                  ENTITY_TYPE_GUID,
+                                                  Arrays.asList("sub1")), queryPlan);
+
+        Map<String, Long> statistics = queryPlanCache.getStatistics();
+
+        assertEquals(statistics.get("cachedPlans"), Long.valueOf(9));
+        assertEquals(statistics.get("planCacheHits"), Long.valueOf(0));
+    }
+
+
+    @Test
+    public void testLeastRecentlyUsedPlanIsDropped() throws Exception
+    {
+        GraphOMRSQueryPlanCache queryPlanCache = new GraphOMRSQueryPlanCache(2);
+
+        GraphOMRSQueryPlan firstPlan  = getPlan(queryPlanCache, getMatchProperties("a", "first"), ENTITY_TYPE_GUID);
+        GraphOMRSQueryPlan secondPlan = getPlan(queryPlanCache, getMatchProperties("a", "second"), ENTITY_TYPE_GUID);
+
+        /*
+         * Using the first plan makes the second plan the least recently used, so it is dropped for the third.
+         */
+        assertSame(getPlan(queryPlanCache, getMatchProperties("b", "first"), ENTITY_TYPE_GUID), firstPlan);
+
+        getPlan(queryPlanCache, getMatchProperties("a", "third"), ENTITY_TYPE_GUID);
+
+        assertEquals(queryPlanCache.getStatistics().get("cachedPlans"), Long.valueOf(2));
+        assertSame(getPlan(queryPlanCache, getMatchProperties("c", "first"), ENTITY_TYPE_GUID), firstPlan);
+        assertNotSame(getPlan(queryPlanCache, getMatchProperties("b", "second"), ENTITY_TYPE_GUID), secondPlan);
+        assertEquals(queryPlanCache.getStatistics().get("cachedPlans"), Long.valueOf(2));
+    }
+
+
+    @Test
+    public void testZeroSizeCacheDoesNotKeepPlans() throws Exception
+    {
+        GraphOMRSQueryPlanCache queryPlanCache = new GraphOMRSQueryPlanCache(0);
+
+        GraphOMRSQueryPlan queryPlan = getPlan(queryPlanCache, getMatchProperties("a", "name"), ENTITY_TYPE_GUID);
+
+        assertNotSame(getPlan(queryPlanCache, getMatchProperties("a", "name"), ENTITY_TYPE_GUID), queryPlan);
+        assertEquals(queryPlanCache.getStatistics().get("cachedPlans"), Long.valueOf(0));
+    }
+
+
+    @Test
+    public void testInvalidateDropsAllPlans() throws Exception
+    {
+        GraphOMRSQueryPlanCache queryPlanCache = new GraphOMRSQueryPlanCache(10);
+
+        GraphOMRSQueryPlan queryPlan = getPlan(queryPlanCache, getMatchProperties("a", "name"), ENTITY_TYPE_GUID);
+
+        getPlan(queryPlanCache, getMatchProperties("a", "description"), ENTITY_TYPE_GUID);
+
+        queryPlanCache.invalidate();
+
+        assertEquals(queryPlanCache.getStatistics().get("cachedPlans"), Long.valueOf(0));
+        assertEquals(queryPlanCache.getStatistics().get("planCacheInvalidations"), Long.valueOf(1));
+        assertNotSame(getPlan(queryPlanCache, getMatchProperties("a", "name"), ENTITY_TYPE_GUID), queryPlan);
+    }
+
+
+    @Test
+    public void testTypeDefChangeClearsMetadataCollectionCache() throws Exception
+    {
+        String metadataCollectionId = UUID.randomUUID().toString();
+        String graphDirectory       = "target/test-graphs/" + metadataCollectionId;
+
+        Map<String, Object> storageProperties = new HashMap<>();
+        storageProperties.put("storage.backend", "berkeleyje");
+        storageProperties.put("storage.directory", graphDirectory + "/berkeley");
+        storageProperties.put("index.search.backend", "lucene");
+        storageProperties.put("index.search.directory", graphDirectory + "/searchindex");
+
+        GraphOMRSMetadataCollection metadataCollection = new GraphOMRSMetadataCollection(mock(GraphOMRSRepositoryConnector.class),
+                                                                                         REPOSITORY_NAME,
+                                                                                         repositoryHelper,
+                                                                                         mock(OMRSRepositoryValidator.class),
+                                                                                         metadataCollectionId,
+                                                                                         mock(AuditLog.class),
+                                                                                         storageProperties);
+
+        InstanceProperties matchProperties = getMatchProperties("a", "name");
+
+        metadataCollection.findEntitiesByProperty(USER_ID, ENTITY_TYPE_GUID, matchProperties, MatchCriteria.ALL,
+                                                  0, null, null, null, null, null, 0);
+        metadataCollection.findEntitiesByProperty(USER_ID, ENTITY_TYPE_GUID, matchProperties, MatchCriteria.ALL,
+                                                  0, null, null, null, null, null, 0);
+
+        assertEquals(metadataCollection.getQueryPlanStatistics().get("cachedPlans"), Long.valueOf(1));
+        assertEquals(metadataCollection.getQueryPlanStatistics().get("planCacheHits"), Long.valueOf(1));
+
+        EntityDef newEntityDef = new EntityDef();
+        newEntityDef.setGUID(OTHER_TYPE_GUID);
+        newEntityDef.setName("NewEntity");
+
+        metadataCollection.addTypeDef(USER_ID, newEntityDef);
+
+        assertEquals(metadataCollection.getQueryPlanStatistics().get("cachedPlans"), Long.valueOf(0));
+        assertEquals(metadataCollection.getQueryPlanStatistics().get("planCacheInvalidations"), Long.valueOf(1));
+
+        /*
+         * The next query builds its plan again from the new set of types.
+         */
+        metadataCollection.findEntitiesByProperty(USER_ID, ENTITY_TYPE_GUID, matchProperties, MatchCriteria.ALL,
+                                                  0, null, null, null, null, null, 0);
+
+        assertEquals(metadataCollection.getQueryPlanStatistics().get("cachedPlans"), Long.valueOf(1));
+        assertEquals(metadataCollection.getQueryPlanStatistics().get("planCacheMisses"), Long.valueOf(2));
+    }
+}
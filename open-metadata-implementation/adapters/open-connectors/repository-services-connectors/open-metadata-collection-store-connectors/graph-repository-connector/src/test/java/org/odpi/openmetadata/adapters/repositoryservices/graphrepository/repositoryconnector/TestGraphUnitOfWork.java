@@ -0,0 +1,216 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.repositoryservices.graphrepository.repositoryconnector;
+
+import org.odpi.openmetadata.frameworks.auditlog.AuditLog;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntitySummary;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceProvenanceType;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceStatus;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceType;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.EntityDef;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryHelper;
+import org.odpi.openmetadata.repositoryservices.ffdc.exception.EntityNotKnownException;
+import org.odpi.openmetadata.repositoryservices.ffdc.exception.InvalidParameterException;
+import org.odpi.openmetadata.repositoryservices.ffdc.exception.RepositoryErrorException;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.expectThrows;
+
+
+/**
+ * Verify that a unit of work in the graph repository only loses its changes when one of its operations
+ * fails after it has started to change the graph, or when an exception escapes from the unit of work.
+ * An operation that fails before changing the graph, such as a retrieve of an unknown entity, does not
+ * stop the unit of work committing if the caller handles the exception.  Each test uses a new BerkeleyDB
+ * graph under the build's target directory.
+ */
+public class TestGraphUnitOfWork
+{
+    private static final String REPOSITORY_NAME  = "testRepository";
+    private static final String ENTITY_TYPE_GUID = "entity-type-guid";
+    private static final String ENTITY_TYPE_NAME = "TestEntity";
+
+    private String                 metadataCollectionId;
+    private GraphOMRSMetadataStore graphStore;
+
+
+    @BeforeMethod
+    public void setup() throws Exception
+    {
+        OMRSRepositoryHelper repositoryHelper = mock(OMRSRepositoryHelper.class);
+
+        metadataCollectionId = UUID.randomUUID().toString();
+
+        String graphDirectory = "target/test-graphs/" + metadataCollectionId;
+
+        EntityDef entityDef = new EntityDef();
+        entityDef.setGUID(ENTITY_TYPE_GUID);
+        entityDef.setName(ENTITY_TYPE_NAME);
+
+        when(repositoryHelper.getTypeDefByName(anyString(), eq(ENTITY_TYPE_NAME))).thenReturn(entityDef);
+
+        Map<String, Object> storageProperties = new HashMap<>();
+        storageProperties.put("storage.backend", "berkeleyje");
+        storageProperties.put("storage.directory", graphDirectory + "/berkeley");
+        storageProperties.put("index.search.backend", "lucene");
+        storageProperties.put("index.search.directory", graphDirectory + "/searchindex");
+
+        graphStore = new GraphOMRSMetadataStore(metadataCollectionId,
+                                                REPOSITORY_NAME,
+                                                repositoryHelper,
+                                                mock(AuditLog.class),
+                                                storageProperties);
+    }
+
+
+    /**
+     * Build a local entity.
+     *
+     * @param guid unique identifier of the entity
+     * @return entity
+     */
+    private EntityDetail getEntity(String guid)
+    {
+        InstanceType type = new InstanceType();
+        type.setTypeDefGUID(ENTITY_TYPE_GUID);
+        type.setTypeDefName(ENTITY_TYPE_NAME);
+
+        EntityDetail entity = new EntityDetail();
+        entity.setGUID(guid);
+        entity.setType(type);
+        entity.setMetadataCollectionId(metadataCollectionId);
+        entity.setInstanceProvenanceType(InstanceProvenanceType.LOCAL_COHORT);
+        entity.setCreatedBy("testUser");
+        entity.setCreateTime(new Date());
+        entity.setStatus(InstanceStatus.ACTIVE);
+        entity.setVersion(1L);
+
+        return entity;
+    }
+
+
+    /**
+     * Retrieve an entity from the graph.
+     *
+     * @param guid unique identifier of the entity
+     * @return entity summary or null if it is not in the graph
+     * @throws Exception unexpected failure
+     */
+    private EntitySummary findEntity(String guid) throws Exception
+    {
+        try
+        {
+            return graphStore.getEntitySummaryFromStore(guid);
+        }
+        catch (EntityNotKnownException notKnown)
+        {
+            return null;
+        }
+    }
+
+
+    @Test
+    public void testHandledNotFoundDoesNotRollBackUnitOfWork() throws Exception
+    {
+        graphStore.executeUnitOfWork("test", () -> {
+            graphStore.createEntityInStore(getEntity("first-entity"));
+
+            expectThrows(EntityNotKnownException.class, () -> graphStore.getEntityDetailFromStore("unknown-entity"));
+            expectThrows(EntityNotKnownException.class, () -> graphStore.getEntitySummaryFromStore("unknown-entity"));
+
+            graphStore.createEntityInStore(getEntity("second-entity"));
+
+            return null;
+        });
+
+        assertNotNull(findEntity("first-entity"));
+        assertNotNull(findEntity("second-entity"));
+    }
+
+
+    @Test
+    public void testHandledClashDoesNotRollBackUnitOfWork() throws Exception
+    {
+        graphStore.createEntityInStore(getEntity("existing-entity"));
+
+        graphStore.executeUnitOfWork("test", () -> {
+            graphStore.createEntityInStore(getEntity("first-entity"));
+
+            /*
+             * The clash is found before the graph is changed.
+             */
+            expectThrows(InvalidParameterException.class, () -> graphStore.createEntityInStore(getEntity("existing-entity")));
+
+            graphStore.createEntityInStore(getEntity("second-entity"));
+
+            return null;
+        });
+
+        assertNotNull(findEntity("first-entity"));
+        assertNotNull(findEntity("second-entity"));
+        assertNotNull(findEntity("existing-entity"));
+    }
+
+
+    @Test
+    public void testUnhandledNotFoundRollsBackUnitOfWork() throws Exception
+    {
+        expectThrows(EntityNotKnownException.class, () -> graphStore.executeUnitOfWork("test", () -> {
+            graphStore.createEntityInStore(getEntity("first-entity"));
+
+            return graphStore.getEntityDetailFromStore("unknown-entity");
+        }));
+
+        assertNull(findEntity("first-entity"));
+    }
+
+
+    @Test
+    public void testFailureAfterChangeRollsBackUnitOfWork() throws Exception
+    {
+        /*
+         * The vertex for an entity with no type is added to the graph before the mapper fails on it.
+         */
+        EntityDetail untypedEntity = getEntity("untyped-entity");
+        untypedEntity.setType(null);
+
+        expectThrows(RepositoryErrorException.class, () -> graphStore.executeUnitOfWork("test", () -> {
+            graphStore.createEntityInStore(getEntity("first-entity"));
+
+            expectThrows(RepositoryErrorException.class, () -> graphStore.createEntityInStore(untypedEntity));
+
+            graphStore.createEntityInStore(getEntity("second-entity"));
+
+            return null;
+        }));
+
+        assertNull(findEntity("first-entity"));
+        assertNull(findEntity("second-entity"));
+        assertNull(findEntity("untyped-entity"));
+    }
+
+
+    @Test
+    public void testNotFoundOutsideUnitOfWork() throws Exception
+    {
+        graphStore.createEntityInStore(getEntity("first-entity"));
+
+        expectThrows(EntityNotKnownException.class, () -> graphStore.getEntityDetailFromStore("unknown-entity"));
+
+        assertNotNull(findEntity("first-entity"));
+        assertNotNull(graphStore.getEntityDetailFromStore("first-entity"));
+    }
+}
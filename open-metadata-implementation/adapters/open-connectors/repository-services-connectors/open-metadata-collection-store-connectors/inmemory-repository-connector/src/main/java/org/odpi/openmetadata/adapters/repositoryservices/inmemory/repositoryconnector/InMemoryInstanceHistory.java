@@ -0,0 +1,346 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.repositoryservices.inmemory.repositoryconnector;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceHeader;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * InMemoryInstanceHistory holds the previous versions of the instances (entities or relationships) stored in the
+ * InMemoryOMRSMetadataStore.  Each instance has its own version chain, ordered by the time that each version
+ * became effective (its update time, or its create time if it has never been updated), so the version that was
+ * active at a point in time is found with a binary search.  The instances are also indexed by the time bucket of
+ * their earliest known version so that historical queries only visit the instances that existed at the
+ * requested time.
+ * <p>
+ * The version chains are immutable lists that are replaced on each change so they can be read without locking.
+ * The InMemoryOMRSMetadataStore serializes the changes to each instance.
+ * </p>
+ * <p>
+ * The retention policy limits the number of previous versions kept for each instance and/or discards versions
+ * that were superseded longer ago than the retention period.  The most recent previous version is always kept
+ * so that the last update to an instance can be undone.
+ * </p>
+ *
+ * @param <T> type of instance
+ */
+class InMemoryInstanceHistory<T extends InstanceHeader>
+{
+    private static final long  timeBucketDuration = 60L * 60L * 1000L;
+
+    private final int                                      maxVersionsPerInstance;
+    private final long                                     retentionPeriod;
+    private final Map<String, List<T>>                     versionChains     = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<Long, Set<String>> guidsByTimeBucket = new ConcurrentSkipListMap<>();
+    private final Map<String, Long>                        timeBucketForGUID = new ConcurrentHashMap<>();
+
+
+    /**
+     * Constructor supplies the retention policy.
+     *
+     * @param maxVersionsPerInstance maximum number of previous versions kept for each instance - zero means no limit
+     * @param retentionPeriod milliseconds that a superseded version is kept for - zero means no limit
+     */
+    InMemoryInstanceHistory(int    maxVersionsPerInstance,
+                            long   retentionPeriod)
+    {
+        this.maxVersionsPerInstance = Math.max(maxVersionsPerInstance, 0);
+        this.retentionPeriod        = Math.max(retentionPeriod, 0L);
+    }
+
+
+    /**
+     * Return the time that a version of an instance became effective.
+     *
+     * @param instance version of an instance
+     * @return update time, or the create time if the instance has not been updated - may be null
+     */
+    static Date getEffectiveTime(InstanceHeader   instance)
+    {
+        if (instance.getUpdateTime() != null)
+        {
+            return instance.getUpdateTime();
+        }
+
+        return instance.getCreateTime();
+    }
+
+
+    /**
+     * Record that a version of an instance exists.  This maintains the time bucket index for the instance.
+     *
+     * @param instance version of the instance
+     */
+    void recordInstance(T   instance)
+    {
+        Date effectiveTime = getEffectiveTime(instance);
+
+        if ((effectiveTime == null) || (instance.getGUID() == null))
+        {
+            return;
+        }
+
+        String guid          = instance.getGUID();
+        Long   newTimeBucket = Math.floorDiv(effectiveTime.getTime(), timeBucketDuration);
+        Long   oldTimeBucket = timeBucketForGUID.get(guid);
+
+        if ((oldTimeBucket == null) || (newTimeBucket < oldTimeBucket))
+        {
+            /*
+             * The instance is added to the new bucket before it is removed from the old one so readers
+             * always find it.
+             */
+            guidsByTimeBucket.compute(newTimeBucket, (bucket, guids) ->
+            {
+                Set<String> updatedGUIDs = guids;
+
+                if (updatedGUIDs == null)
+                {
+                    updatedGUIDs = ConcurrentHashMap.newKeySet();
+                }
+
+                updatedGUIDs.add(guid);
+                return updatedGUIDs;
+            });
+            timeBucketForGUID.put(guid, newTimeBucket);
+
+            if (oldTimeBucket != null)
+            {
+                removeFromTimeBucket(oldTimeBucket, guid);
+            }
+        }
+    }
+
+
+    /**
+     * Add a superseded version of an instance to its version chain.  The retention policy is applied
+     * to the chain.
+     *
+     * @param previousVersion version of the instance that has been replaced
+     */
+    void addPreviousVersion(T   previousVersion)
+    {
+        String guid = previousVersion.getGUID();
+
+        recordInstance(previousVersion);
+
+        List<T> oldChain = versionChains.get(guid);
+        List<T> newChain = (oldChain == null) ? new ArrayList<>() : new ArrayList<>(oldChain);
+
+        /*
+         * Versions normally arrive in time order so the new version is usually appended at the end.
+         * A version with the same effective time as an existing one is placed after it.
+         */
+        int insertionPoint = newChain.size();
+        while ((insertionPoint > 0) && (compareEffectiveTimes(newChain.get(insertionPoint - 1), previousVersion) > 0))
+        {
+            insertionPoint--;
+        }
+        newChain.add(insertionPoint, previousVersion);
+
+        applyRetentionPolicy(newChain);
+
+        versionChains.put(guid, Collections.unmodifiableList(newChain));
+    }
+
+
+    /**
+     * Return the most recent previous version of an instance.
+     *
+     * @param guid unique identifier of the instance
+     * @return previous version or null if there is no history for this instance
+     */
+    T getLatestPreviousVersion(String   guid)
+    {
+        List<T> chain = versionChains.get(guid);
+
+        if ((chain == null) || (chain.isEmpty()))
+        {
+            return null;
+        }
+
+        return chain.get(chain.size() - 1);
+    }
+
+
+    /**
+     * Return the version of an instance that was active at the requested time.
+     *
+     * @param currentVersion current version of the instance
+     * @param asOfTime requested time
+     * @return version of the instance or null if the instance did not exist at that time
+     */
+    T getVersionAsOf(T      currentVersion,
+                     Date   asOfTime)
+    {
+        Date currentTime = getEffectiveTime(currentVersion);
+
+        if ((currentTime != null) && (! currentTime.after(asOfTime)))
+        {
+            return currentVersion;
+        }
+
+        List<T> chain = versionChains.get(currentVersion.getGUID());
+
+        if (chain == null)
+        {
+            return null;
+        }
+
+        /*
+         * Binary search for the last version that became effective at or before the requested time.
+         */
+        int low  = 0;
+        int high = chain.size() - 1;
+        T   activeVersion = null;
+
+        while (low <= high)
+        {
+            int  middle      = (low + high) >>> 1;
+            T    version     = chain.get(middle);
+            Date versionTime = getEffectiveTime(version);
+
+            if ((versionTime == null) || (! versionTime.after(asOfTime)))
+            {
+                activeVersion = version;
+                low = middle + 1;
+            }
+            else
+            {
+                high = middle - 1;
+            }
+        }
+
+        if ((activeVersion == null) || (getEffectiveTime(activeVersion) == null))
+        {
+            return null;
+        }
+
+        return activeVersion;
+    }
+
+
+    /**
+     * Return the unique identifiers of the instances whose earliest known version falls in a time bucket that
+     * starts at or before the requested time.  This is a superset of the instances that existed at that time.
+     *
+     * @param asOfTime requested time
+     * @return set of unique identifiers
+     */
+    Set<String> getGUIDsActiveBefore(Date   asOfTime)
+    {
+        Set<String> guids = new HashSet<>();
+
+        for (Set<String> bucketGUIDs : guidsByTimeBucket.headMap(Math.floorDiv(asOfTime.getTime(), timeBucketDuration), true).values())
+        {
+            guids.addAll(bucketGUIDs);
+        }
+
+        return guids;
+    }
+
+
+    /**
+     * Remove all history for an instance.
+     *
+     * @param guid unique identifier of the instance
+     */
+    void removeInstance(String   guid)
+    {
+        versionChains.remove(guid);
+
+        Long timeBucket = timeBucketForGUID.remove(guid);
+
+        if (timeBucket != null)
+        {
+            removeFromTimeBucket(timeBucket, guid);
+        }
+    }
+
+
+    /**
+     * Discard the versions that fall outside of the retention policy.  The most recent previous
+     * version is always kept.
+     *
+     * @param chain version chain ordered oldest first
+     */
+    private void applyRetentionPolicy(List<T>   chain)
+    {
+        if (maxVersionsPerInstance > 0)
+        {
+            while (chain.size() > maxVersionsPerInstance)
+            {
+                chain.remove(0);
+            }
+        }
+
+        if (retentionPeriod > 0)
+        {
+            long cutOffTime = System.currentTimeMillis() - retentionPeriod;
+
+            /*
+             * A version is no longer visible to queries after the cut off time once the version
+             * that follows it became effective before the cut off time.
+             */
+            while (chain.size() > 1)
+            {
+                Date successorTime = getEffectiveTime(chain.get(1));
+
+                if ((successorTime != null) && (successorTime.getTime() < cutOffTime))
+                {
+                    chain.remove(0);
+                }
+                else
+                {
+                    break;
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Compare the effective times of two versions.  Versions without an effective time sort first.
+     *
+     * @param version1 first version
+     * @param version2 second version
+     * @return negative, zero or positive as for a comparator
+     */
+    private int compareEffectiveTimes(T   version1,
+                                      T   version2)
+    {
+        Date time1 = getEffectiveTime(version1);
+        Date time2 = getEffectiveTime(version2);
+
+        if (time1 == null)
+        {
+            return (time2 == null) ? 0 : -1;
+        }
+        else if (time2 == null)
+        {
+            return 1;
+        }
+
+        return time1.compareTo(time2);
+    }
+
+
+    /**
+     * Remove an instance from a time bucket, removing the bucket once it is empty.
+     *
+     * @param timeBucket bucket key
+     * @param guid unique identifier of the instance
+     */
+    private void removeFromTimeBucket(Long     timeBucket,
+                                      String   guid)
+    {
+        guidsByTimeBucket.computeIfPresent(timeBucket, (bucket, guids) ->
+        {
+            guids.remove(guid);
+            return guids.isEmpty() ? null : guids;
+        });
+    }
+}
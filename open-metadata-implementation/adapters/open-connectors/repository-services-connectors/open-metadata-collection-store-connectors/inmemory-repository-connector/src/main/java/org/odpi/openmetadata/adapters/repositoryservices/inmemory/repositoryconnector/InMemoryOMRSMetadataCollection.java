@@ -6,6 +6,9 @@ import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollec
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.MatchCriteria;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.SequencingOrder;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.*;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.search.ClassificationCondition;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.search.PropertyComparisonOperator;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.search.PropertyCondition;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.search.SearchClassifications;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.search.SearchProperties;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.*;
@@ -22,7 +25,7 @@ import java.util.*;
  */
 public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollectionBase
 {
-    private InMemoryOMRSMetadataStore  repositoryStore = new InMemoryOMRSMetadataStore();
+    private InMemoryOMRSMetadataStore  repositoryStore;
 
 
     /**
@@ -34,18 +37,42 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
      * @param repositoryHelper class used to build type definitions and instances.
      * @param repositoryValidator class used to validate type definitions and instances.
      * @param metadataCollectionId unique Identifier of the metadata collection Id.
+     * @param configurationProperties configuration properties from the connection - these set the retention
+     *                                policy for the history of the instances (may be null).
      */
     protected InMemoryOMRSMetadataCollection(InMemoryOMRSRepositoryConnector parentConnector,
                                              String                          repositoryName,
                                              OMRSRepositoryHelper            repositoryHelper,
                                              OMRSRepositoryValidator         repositoryValidator,
-                                             String                          metadataCollectionId)
+                                             String                          metadataCollectionId,
+                                             Map<String, Object>             configurationProperties)
     {
         /*
          * The metadata collection Id is the unique identifier for the metadata collection.  It is managed by the super class.
          */
         super(parentConnector, repositoryName, repositoryHelper, repositoryValidator, metadataCollectionId);
 
+        int  maxVersionsPerInstance = 0;
+        long historyRetentionPeriod = 0L;
+
+        if (configurationProperties != null)
+        {
+            Object maxVersionsProperty     = configurationProperties.get(InMemoryOMRSRepositoryConnectorProvider.MAX_VERSIONS_PER_INSTANCE_PROPERTY);
+            Object retentionPeriodProperty = configurationProperties.get(InMemoryOMRSRepositoryConnectorProvider.HISTORY_RETENTION_PERIOD_PROPERTY);
+
+            if (maxVersionsProperty instanceof Integer)
+            {
+                maxVersionsPerInstance = (Integer)maxVersionsProperty;
+            }
+
+            if (retentionPeriodProperty instanceof Number)
+            {
+                historyRetentionPeriod = ((Number)retentionPeriodProperty).longValue();
+            }
+        }
+
+        this.repositoryStore = new InMemoryOMRSMetadataStore(maxVersionsPerInstance, historyRetentionPeriod);
+
         /*
          * Set up the repository name in the repository store
          */
@@ -53,6 +80,74 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
     }
 
 
+    /* ==============================
+     * Group 2: Working with typedefs
+     */
+
+
+    /**
+     * Create a definition of a new TypeDef.  Any unique string attributes defined by the TypeDef are added to
+     * the indexes maintained by the repository store.
+     *
+     * @param userId unique identifier for requesting user.
+     * @param newTypeDef TypeDef structure describing the new TypeDef.
+     * @throws InvalidParameterException the new TypeDef is null.
+     * @throws RepositoryErrorException there is a problem communicating with the metadata repository where
+     *                                  the metadata collection is stored.
+     * @throws TypeDefKnownException the TypeDef is already stored in the repository.
+     * @throws TypeDefConflictException the new TypeDef conflicts with an existing TypeDef.
+     * @throws InvalidTypeDefException the new TypeDef has invalid contents.
+     * @throws UserNotAuthorizedException the userId is not permitted to perform this operation.
+     */
+    @Override
+    public void addTypeDef(String  userId,
+                           TypeDef newTypeDef) throws InvalidParameterException,
+                                                      RepositoryErrorException,
+                                                      TypeDefKnownException,
+                                                      TypeDefConflictException,
+                                                      InvalidTypeDefException,
+                                                      UserNotAuthorizedException
+    {
+        super.addTypeDef(userId, newTypeDef);
+
+        this.addUniquePropertyIndexes(newTypeDef);
+    }
+
+
+    /**
+     * Verify that a definition of a TypeDef is either new - or matches the definition already stored.
+     * Any unique string attributes defined by a known TypeDef are added to the indexes maintained by the
+     * repository store.
+     *
+     * @param userId unique identifier for requesting user.
+     * @param typeDef TypeDef structure describing the TypeDef to test.
+     * @return boolean - true means the TypeDef matches the local definition - false means the TypeDef is not known.
+     * @throws InvalidParameterException the TypeDef is null.
+     * @throws RepositoryErrorException there is a problem communicating with the metadata repository where
+     *                                  the metadata collection is stored.
+     * @throws TypeDefConflictException the new TypeDef conflicts with an existing TypeDef.
+     * @throws InvalidTypeDefException the new TypeDef has invalid contents.
+     * @throws UserNotAuthorizedException the userId is not permitted to perform this operation.
+     */
+    @Override
+    public boolean verifyTypeDef(String       userId,
+                                 TypeDef      typeDef) throws InvalidParameterException,
+                                                              RepositoryErrorException,
+                                                              TypeDefConflictException,
+                                                              InvalidTypeDefException,
+                                                              UserNotAuthorizedException
+    {
+        boolean typeDefKnown = super.verifyTypeDef(userId, typeDef);
+
+        if (typeDefKnown)
+        {
+            this.addUniquePropertyIndexes(typeDef);
+        }
+
+        return typeDefKnown;
+    }
+
+
     /* ===================================================
      * Group 3: Locating entity and relationship instances
      */
@@ -216,7 +311,7 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
         /*
          * Perform operation
          */
-        EntityDetail  entity = repositoryStore.timeWarpEntityStore(asOfTime).get(guid);
+        EntityDetail  entity = repositoryStore.getEntity(guid, asOfTime);
         if (entity == null)
         {
             EntityProxy  entityProxy = repositoryStore.getEntityProxy(guid);
@@ -304,10 +399,18 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
         repositoryValidator.validateEntityIsNotDeleted(repositoryName, entity, methodName);
 
         List<Relationship> entityRelationships = new ArrayList<>();
+        Collection<Relationship> candidateRelationships;
 
-        Map<String, Relationship>   relationshipStore = repositoryStore.timeWarpRelationshipStore(asOfTime);
+        if (asOfTime == null)
+        {
+            candidateRelationships = repositoryStore.getRelationshipsForEntity(entityGUID);
+        }
+        else
+        {
+            candidateRelationships = repositoryStore.timeWarpRelationshipStore(asOfTime).values();
+        }
 
-        for (Relationship  storedRelationship : relationshipStore.values())
+        for (Relationship  storedRelationship : candidateRelationships)
         {
             if (storedRelationship != null)
             {
@@ -416,13 +519,15 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
         /*
          * Perform operation
          *
-         * This is a brute force implementation of locating in entity since it iterates through all of
-         * the stored entities.
+         * The indexes supply the candidate entities and each candidate is checked against the full criteria.
          */
-        List<EntityDetail>         foundEntities = new ArrayList<>();
-        Map<String, EntityDetail>  entityStore = repositoryStore.timeWarpEntityStore(asOfTime);
+        List<EntityDetail>  foundEntities = new ArrayList<>();
+        Collection<EntityDetail>  candidateEntities = this.getCandidateEntities(asOfTime,
+                                                                          this.getInstanceTypeNames(entityTypeGUID, null),
+                                                                          limitResultsByClassification,
+                                                                          this.getExactMatchPropertyValues(matchProperties, matchCriteria));
 
-        for (EntityDetail  entity : entityStore.values())
+        for (EntityDetail  entity : candidateEntities)
         {
             if (entity != null)
             {
@@ -513,13 +618,15 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
         /*
          * Perform operation
          *
-         * This is a brute force implementation of locating in entity since it iterates through all of
-         * the stored entities.
+         * The indexes supply the candidate entities and each candidate is checked against the full criteria.
          */
-        List<EntityDetail>         foundEntities = new ArrayList<>();
-        Map<String, EntityDetail>  entityStore = repositoryStore.timeWarpEntityStore(asOfTime);
+        List<EntityDetail>  foundEntities = new ArrayList<>();
+        Collection<EntityDetail>  candidateEntities = this.getCandidateEntities(asOfTime,
+                                                                          this.getInstanceTypeNames(entityTypeGUID, entitySubtypeGUIDs),
+                                                                          this.getRequiredClassificationNames(matchClassifications),
+                                                                          this.getExactMatchPropertyValues(matchProperties));
 
-        for (EntityDetail  entity : entityStore.values())
+        for (EntityDetail  entity : candidateEntities)
         {
             if (entity != null)
             {
@@ -611,16 +718,19 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
         /*
          * Perform operation
          *
-         * This is a brute force implementation of locating in entity since it iterates through all of
-         * the stored entities.
+         * The indexes supply the candidate entities and each candidate is checked against the full criteria.
          */
-        Map<String, EntityDetail>   entityStore = repositoryStore.timeWarpEntityStore(asOfTime);
         List<EntityDetail>          foundEntities = new ArrayList<>();
 
         List<String>                classificationList = new ArrayList<>();
         classificationList.add(classificationName);
 
-        for (EntityDetail  entity : entityStore.values())
+        Collection<EntityDetail>          candidateEntities = this.getCandidateEntities(asOfTime,
+                                                                                  this.getInstanceTypeNames(entityTypeGUID, null),
+                                                                                  classificationList,
+                                                                                  null);
+
+        for (EntityDetail  entity : candidateEntities)
         {
             if (entity != null)
             {
@@ -736,12 +846,16 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
         /*
          * Process operation
          *
-         * This is a brute force implementation of locating in entity since it iterates through all of
-         * the stored entities.
+         * The search criteria may match any string property so only the type and classification indexes
+         * can be used to narrow down the entities to test.
          */
         List<EntityDetail>   foundEntities = new ArrayList<>();
+        Collection<EntityDetail>   candidateEntities = this.getCandidateEntities(asOfTime,
+                                                                           this.getInstanceTypeNames(entityTypeGUID, null),
+                                                                           limitResultsByClassification,
+                                                                           null);
 
-        for (EntityDetail  entity : repositoryStore.timeWarpEntityStore(asOfTime).values())
+        for (EntityDetail  entity : candidateEntities)
         {
             if (entity != null)
             {
@@ -865,7 +979,7 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
         /*
          * Perform operation
          */
-        Relationship  relationship = repositoryStore.timeWarpRelationshipStore(asOfTime).get(guid);
+        Relationship  relationship = repositoryStore.getRelationship(guid, asOfTime);
 
         repositoryValidator.validateRelationshipFromStore(repositoryName, guid, relationship, methodName);
         repositoryValidator.validateRelationshipIsNotDeleted(repositoryName, relationship, methodName);
@@ -946,13 +1060,14 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
         /*
          * Perform operation
          *
-         * This is a brute force implementation of locating a relationship since it iterates through all of
-         * the stored entities.
+         * The type index supplies the candidate relationships and each candidate is checked against the full criteria.
          */
-        List<Relationship>         foundRelationships = new ArrayList<>();
-        Map<String, Relationship>  relationshipStore = repositoryStore.timeWarpRelationshipStore(asOfTime);
+        List<Relationship>  foundRelationships = new ArrayList<>();
+        Collection<Relationship>  candidateRelationships = this.getCandidateRelationships(asOfTime,
+                                                                                    this.getInstanceTypeNames(relationshipTypeGUID,
+                                                                                                              relationshipSubtypeGUIDs));
 
-        for (Relationship  relationship : relationshipStore.values())
+        for (Relationship  relationship : candidateRelationships)
         {
             if (relationship != null)
             {
@@ -1048,13 +1163,13 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
         /*
          * Perform operation
          *
-         * This is a brute force implementation of locating a relationship since it iterates through all of
-         * the stored entities.
+         * The type index supplies the candidate relationships and each candidate is checked against the full criteria.
          */
-        List<Relationship>         foundRelationships = new ArrayList<>();
-        Map<String, Relationship>  relationshipStore = repositoryStore.timeWarpRelationshipStore(asOfTime);
+        List<Relationship>  foundRelationships = new ArrayList<>();
+        Collection<Relationship>  candidateRelationships = this.getCandidateRelationships(asOfTime,
+                                                                                    this.getInstanceTypeNames(relationshipTypeGUID, null));
 
-        for (Relationship  relationship : relationshipStore.values())
+        for (Relationship  relationship : candidateRelationships)
         {
             if (relationship != null)
             {
@@ -1147,12 +1262,13 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
         /*
          * Perform operation
          *
-         * This is a brute force implementation of locating a relationship since it iterates through all of
-         * the stored relationships.
+         * The type index supplies the candidate relationships and each candidate is checked against the full criteria.
          */
         List<Relationship>  foundRelationships = new ArrayList<>();
+        Collection<Relationship>  candidateRelationships = this.getCandidateRelationships(asOfTime,
+                                                                                    this.getInstanceTypeNames(relationshipTypeGUID, null));
 
-        for (Relationship  relationship : repositoryStore.timeWarpRelationshipStore(asOfTime).values())
+        for (Relationship  relationship : candidateRelationships)
         {
             if (relationship != null)
             {
@@ -1372,6 +1488,78 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
     }
 
 
+    /**
+     * Create a list of new entities and put them in their requested states.  Each entity type is only
+     * retrieved and validated once for the whole list.  The new entities are returned in the same order
+     * as the templates.
+     *
+     * @param userId unique identifier for requesting user.
+     * @param newEntities templates for the new entities - only the type, properties, classifications and status are used.
+     * @return list of EntityDetail objects showing the new headers plus the requested properties and classifications.
+     * @throws InvalidParameterException one of the parameters is invalid or null.
+     * @throws RepositoryErrorException there is a problem communicating with the metadata repository where
+     *                                    the metadata collection is stored.
+     * @throws TypeErrorException one of the requested types is not known, or not supported in the metadata repository
+     *                              hosting the metadata collection.
+     * @throws PropertyErrorException one or more of the requested properties are not defined, or have different
+     *                                  characteristics in the TypeDef for the entity's type.
+     * @throws ClassificationErrorException one or more of the requested classifications are either not known or
+     *                                           not defined for the entity's type.
+     * @throws StatusNotSupportedException the metadata repository hosting the metadata collection does not support
+     *                                       one of the requested statuses.
+     * @throws FunctionNotSupportedException the repository does not support maintenance of metadata.
+     * @throws UserNotAuthorizedException the userId is not permitted to perform this operation.
+     */
+    @Override
+    public List<EntityDetail> addEntities(String             userId,
+                                          List<EntityDetail> newEntities) throws InvalidParameterException,
+                                                                                 RepositoryErrorException,
+                                                                                 TypeErrorException,
+                                                                                 PropertyErrorException,
+                                                                                 ClassificationErrorException,
+                                                                                 StatusNotSupportedException,
+                                                                                 UserNotAuthorizedException,
+                                                                                 FunctionNotSupportedException
+    {
+        final String methodName = "addEntities";
+
+        /*
+         * Validate parameters
+         */
+        List<TypeDef> typeDefs = super.addEntitiesParameterValidation(userId, newEntities, methodName);
+
+        /*
+         * Validation complete - ok to create new instances
+         */
+        List<EntityDetail> results = new ArrayList<>();
+
+        for (int i = 0; i < typeDefs.size(); i++)
+        {
+            EntityDetail template = newEntities.get(i);
+
+            EntityDetail newEntity = repositoryHelper.getNewEntity(repositoryName,
+                                                                   null,
+                                                                   InstanceProvenanceType.LOCAL_COHORT,
+                                                                   userId,
+                                                                   typeDefs.get(i).getName(),
+                                                                   template.getProperties(),
+                                                                   template.getClassifications());
+            if (template.getStatus() != null)
+            {
+                newEntity.setStatus(template.getStatus());
+            }
+
+            newEntity = repositoryStore.createEntityInStore(newEntity);
+
+            repositoryStore.addEntityProxyToStore(repositoryHelper.getNewEntityProxy(repositoryName, newEntity));
+
+            results.add(newEntity);
+        }
+
+        return results;
+    }
+
+
     /**
      * Save a new entity that is sourced from an external technology.  The external
      * technology is identified by a GUID and a name.  These can be recorded in a
@@ -2491,6 +2679,131 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
     }
 
 
+    /**
+     * Add a list of new relationships to the metadata collection.  Each relationship type is only retrieved
+     * and validated once, and each end entity is only looked up once, for the whole list.  No relationship is
+     * stored unless they are all valid.  The new relationships are returned in the same order as the templates.
+     *
+     * @param userId unique identifier for requesting user.
+     * @param newRelationships templates for the new relationships - only the type, properties, end entity guids
+     *                         and status are used.
+     * @return list of Relationship structures with the new headers, requested entities and properties.
+     * @throws InvalidParameterException one of the parameters is invalid or null.
+     * @throws RepositoryErrorException there is a problem communicating with the metadata repository where
+     *                                 the metadata collection is stored.
+     * @throws TypeErrorException one of the requested types is not known, or not supported in the metadata repository
+     *                            hosting the metadata collection.
+     * @throws PropertyErrorException one or more of the requested properties are not defined, or have different
+     *                                  characteristics in the TypeDef for the relationship's type.
+     * @throws EntityNotKnownException one of the requested entities is not known in the metadata collection.
+     * @throws StatusNotSupportedException the metadata repository hosting the metadata collection does not support
+     *                                     one of the requested statuses.
+     * @throws FunctionNotSupportedException the repository does not support maintenance of metadata.
+     * @throws UserNotAuthorizedException the userId is not permitted to perform this operation.
+     */
+    @Override
+    public List<Relationship> addRelationships(String             userId,
+                                               List<Relationship> newRelationships) throws InvalidParameterException,
+                                                                                           RepositoryErrorException,
+                                                                                           TypeErrorException,
+                                                                                           PropertyErrorException,
+                                                                                           EntityNotKnownException,
+                                                                                           StatusNotSupportedException,
+                                                                                           UserNotAuthorizedException,
+                                                                                           FunctionNotSupportedException
+    {
+        final String  methodName = "addRelationships";
+
+        /*
+         * Validate parameters
+         */
+        List<TypeDef> typeDefs = super.addRelationshipsParameterValidation(userId, newRelationships, methodName);
+
+        /*
+         * Build each relationship and check its ends before any are stored, so a list with an unknown or
+         * unsuitable end entity does not leave the earlier relationships in the store.
+         */
+        List<Relationship>       results       = new ArrayList<>();
+        Map<String, EntityProxy> entityProxies = new HashMap<>();
+
+        for (int i = 0; i < typeDefs.size(); i++)
+        {
+            Relationship template = newRelationships.get(i);
+            TypeDef      typeDef  = typeDefs.get(i);
+
+            Relationship relationship = repositoryHelper.getNewRelationship(repositoryName,
+                                                                            null,
+                                                                            InstanceProvenanceType.LOCAL_COHORT,
+                                                                            userId,
+                                                                            typeDef.getName(),
+                                                                            template.getProperties());
+
+            EntityProxy entityOneProxy = getEntityProxyForNewRelationship(getEntityGUID(template.getEntityOneProxy()), entityProxies, methodName);
+            EntityProxy entityTwoProxy = getEntityProxyForNewRelationship(getEntityGUID(template.getEntityTwoProxy()), entityProxies, methodName);
+
+            repositoryValidator.validateRelationshipEnds(repositoryName, entityOneProxy, entityTwoProxy, typeDef, methodName);
+
+            relationship.setEntityOneProxy(entityOneProxy);
+            relationship.setEntityTwoProxy(entityTwoProxy);
+
+            if (template.getStatus() != null)
+            {
+                relationship.setStatus(template.getStatus());
+            }
+
+            results.add(relationship);
+        }
+
+        /*
+         * Validation complete - ok to create new instances
+         */
+        for (Relationship relationship : results)
+        {
+            repositoryStore.createRelationshipInStore(relationship);
+        }
+
+        return results;
+    }
+
+
+    /**
+     * Return the proxy for one of the ends of a new relationship.  The proxy is looked up in the store
+     * (or built from the stored entity) the first time the entity is requested.
+     *
+     * @param entityGUID unique identifier of the entity
+     * @param entityProxies proxies already retrieved
+     * @param methodName calling method
+     * @return entity proxy
+     * @throws EntityNotKnownException the entity is not in the store or is deleted
+     * @throws RepositoryErrorException there is a problem building the proxy
+     */
+    private EntityProxy getEntityProxyForNewRelationship(String                   entityGUID,
+                                                         Map<String, EntityProxy> entityProxies,
+                                                         String                   methodName) throws EntityNotKnownException,
+                                                                                                     RepositoryErrorException
+    {
+        EntityProxy entityProxy = entityProxies.get(entityGUID);
+
+        if (entityProxy == null)
+        {
+            entityProxy = repositoryStore.getEntityProxy(entityGUID);
+
+            if (entityProxy == null)
+            {
+                EntityDetail entityDetail = repositoryStore.getEntity(entityGUID);
+                entityProxy = repositoryHelper.getNewEntityProxy(repositoryName, entityDetail);
+            }
+
+            repositoryValidator.validateEntityFromStore(repositoryName, entityGUID, entityProxy, methodName);
+            repositoryValidator.validateEntityIsNotDeleted(repositoryName, entityProxy, methodName);
+
+            entityProxies.put(entityGUID, entityProxy);
+        }
+
+        return entityProxy;
+    }
+
+
     /**
      * Save a new relationship that is sourced from an external technology.  The external
      * technology is identified by a GUID and a name.  These can be recorded in a
@@ -4019,4 +4332,302 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
             super.reportRelationshipNotKnown(relationshipGUID, methodName);
         }
     }
+
+
+    /*
+     * =======================================================
+     * Private methods for working with the indexes in the repository store
+     */
+
+
+    /**
+     * Add an index for each of the unique string attributes defined in a TypeDef.
+     *
+     * @param typeDef type definition
+     */
+    private void addUniquePropertyIndexes(TypeDef   typeDef)
+    {
+        if ((typeDef != null) && (typeDef.getPropertiesDefinition() != null))
+        {
+            for (TypeDefAttribute attribute : typeDef.getPropertiesDefinition())
+            {
+                if ((attribute != null) && (attribute.isUnique()) && (attribute.getAttributeName() != null))
+                {
+                    AttributeTypeDef attributeType = attribute.getAttributeType();
+
+                    if ((attributeType instanceof PrimitiveDef) &&
+                        (((PrimitiveDef)attributeType).getPrimitiveDefCategory() == PrimitiveDefCategory.OM_PRIMITIVE_TYPE_STRING))
+                    {
+                        repositoryStore.addUniquePropertyIndex(attribute.getAttributeName());
+                    }
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Return the names of the types that a query is restricted to.  This includes all of their subtypes.
+     *
+     * @param typeGUID unique identifier of the requested type - null means any type
+     * @param subtypeGUIDs optional list of subtypes that the results are restricted to
+     * @return set of type names or null if the query is not restricted by type
+     */
+    private Set<String> getInstanceTypeNames(String         typeGUID,
+                                             List<String>   subtypeGUIDs)
+    {
+        final String  methodName        = "getInstanceTypeNames";
+        final String  guidParameterName = "typeGUID";
+
+        List<String>  requestedTypeGUIDs;
+
+        if (subtypeGUIDs != null)
+        {
+            requestedTypeGUIDs = subtypeGUIDs;
+        }
+        else if (typeGUID != null)
+        {
+            requestedTypeGUIDs = Collections.singletonList(typeGUID);
+        }
+        else
+        {
+            return null;
+        }
+
+        Set<String>  typeNames = new HashSet<>();
+
+        try
+        {
+            for (String requestedTypeGUID : requestedTypeGUIDs)
+            {
+                TypeDef typeDef = repositoryHelper.getTypeDef(repositoryName, guidParameterName, requestedTypeGUID, methodName);
+
+                if ((typeDef == null) || (typeDef.getName() == null))
+                {
+                    return null;
+                }
+
+                typeNames.add(typeDef.getName());
+
+                List<String> subTypeNames = repositoryHelper.getSubTypesOf(repositoryName, typeDef.getName());
+
+                if (subTypeNames != null)
+                {
+                    typeNames.addAll(subTypeNames);
+                }
+            }
+        }
+        catch (TypeErrorException error)
+        {
+            /*
+             * The type can not be resolved so the query falls back to testing every instance.
+             */
+            return null;
+        }
+
+        return typeNames;
+    }
+
+
+    /**
+     * Return the names of the classifications that every matching entity must have.
+     *
+     * @param matchClassifications classification conditions from the query
+     * @return list of classification names or null if there are none
+     */
+    private List<String> getRequiredClassificationNames(SearchClassifications   matchClassifications)
+    {
+        if ((matchClassifications == null) ||
+            (matchClassifications.getConditions() == null) ||
+            (! isConjunction(matchClassifications.getMatchCriteria(), matchClassifications.getConditions().size())))
+        {
+            return null;
+        }
+
+        List<String> classificationNames = new ArrayList<>();
+
+        for (ClassificationCondition condition : matchClassifications.getConditions())
+        {
+            if ((condition != null) && (condition.getName() != null))
+            {
+                classificationNames.add(condition.getName());
+            }
+        }
+
+        if (classificationNames.isEmpty())
+        {
+            return null;
+        }
+
+        return classificationNames;
+    }
+
+
+    /**
+     * Return the string property values that every matching instance must have exactly.
+     * These are the properties whose requested value is an exact match regular expression.
+     *
+     * @param matchProperties properties from the query
+     * @param matchCriteria how the properties are to be matched
+     * @return map of property name to literal value or null if there are none
+     */
+    private Map<String, String> getExactMatchPropertyValues(InstanceProperties   matchProperties,
+                                                            MatchCriteria        matchCriteria)
+    {
+        if ((matchProperties == null) ||
+            (matchProperties.getInstanceProperties() == null) ||
+            (! isConjunction(matchCriteria, matchProperties.getPropertyCount())))
+        {
+            return null;
+        }
+
+        Map<String, String> propertyValues = new HashMap<>();
+
+        for (Map.Entry<String, InstancePropertyValue> matchProperty : matchProperties.getInstanceProperties().entrySet())
+        {
+            String matchValue = getStringValue(matchProperty.getValue());
+
+            if ((matchValue != null) && (repositoryHelper.isExactMatchRegex(matchValue, false)))
+            {
+                propertyValues.put(matchProperty.getKey(), repositoryHelper.getUnqualifiedLiteralString(matchValue));
+            }
+        }
+
+        if (propertyValues.isEmpty())
+        {
+            return null;
+        }
+
+        return propertyValues;
+    }
+
+
+    /**
+     * Return the string property values that every matching instance must have exactly.
+     * These come from the top-level equality conditions and the like conditions that use an exact
+     * match regular expression.
+     *
+     * @param matchProperties property conditions from the query
+     * @return map of property name to literal value or null if there are none
+     */
+    private Map<String, String> getExactMatchPropertyValues(SearchProperties   matchProperties)
+    {
+        if ((matchProperties == null) ||
+            (matchProperties.getConditions() == null) ||
+            (! isConjunction(matchProperties.getMatchCriteria(), matchProperties.getConditions().size())))
+        {
+            return null;
+        }
+
+        Map<String, String> propertyValues = new HashMap<>();
+
+        for (PropertyCondition condition : matchProperties.getConditions())
+        {
+            if ((condition != null) && (condition.getProperty() != null) && (condition.getNestedConditions() == null))
+            {
+                String matchValue = getStringValue(condition.getValue());
+
+                if (matchValue != null)
+                {
+                    if (condition.getOperator() == PropertyComparisonOperator.EQ)
+                    {
+                        propertyValues.put(condition.getProperty(), matchValue);
+                    }
+                    else if ((condition.getOperator() == PropertyComparisonOperator.LIKE) &&
+                             (repositoryHelper.isExactMatchRegex(matchValue, false)))
+                    {
+                        propertyValues.put(condition.getProperty(), repositoryHelper.getUnqualifiedLiteralString(matchValue));
+                    }
+                }
+            }
+        }
+
+        if (propertyValues.isEmpty())
+        {
+            return null;
+        }
+
+        return propertyValues;
+    }
+
+
+    /**
+     * Return whether every one of the conditions has to be satisfied by a matching instance.
+     *
+     * @param matchCriteria how the conditions are combined
+     * @param conditionCount number of conditions
+     * @return boolean flag
+     */
+    private boolean isConjunction(MatchCriteria   matchCriteria,
+                                  int             conditionCount)
+    {
+        return (matchCriteria == MatchCriteria.ALL) || ((matchCriteria == MatchCriteria.ANY) && (conditionCount == 1));
+    }
+
+
+    /**
+     * Return the value of a string property value.
+     *
+     * @param propertyValue property value from a query
+     * @return string or null if the value is not a string
+     */
+    private String getStringValue(InstancePropertyValue   propertyValue)
+    {
+        if (propertyValue instanceof PrimitivePropertyValue)
+        {
+            PrimitivePropertyValue primitivePropertyValue = (PrimitivePropertyValue)propertyValue;
+
+            if ((primitivePropertyValue.getPrimitiveDefCategory() == PrimitiveDefCategory.OM_PRIMITIVE_TYPE_STRING) &&
+                (primitivePropertyValue.getPrimitiveValue() != null))
+            {
+                return primitivePropertyValue.getPrimitiveValue().toString();
+            }
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Return the entities that need to be tested against a query.  Queries for the current versions of the entities
+     * use the indexes.  Historical queries test every entity that existed at the requested time.
+     *
+     * @param asOfTime time of the query - null means now
+     * @param typeNames names of the types that the query is restricted to - null means any type
+     * @param classificationNames classifications that all matching entities must have - null means no restriction
+     * @param propertyValues string property values that all matching entities must have - null means no restriction
+     * @return candidate entities
+     */
+    private Collection<EntityDetail> getCandidateEntities(Date                 asOfTime,
+                                                          Set<String>          typeNames,
+                                                          List<String>         classificationNames,
+                                                          Map<String, String>  propertyValues)
+    {
+        if (asOfTime == null)
+        {
+            return repositoryStore.getEntityCandidates(typeNames, classificationNames, propertyValues);
+        }
+
+        return repositoryStore.timeWarpEntityStore(asOfTime).values();
+    }
+
+
+    /**
+     * Return the relationships that need to be tested against a query.  Queries for the current versions of
+     * the relationships use the indexes.  Historical queries test every relationship that existed at the requested time.
+     *
+     * @param asOfTime time of the query - null means now
+     * @param typeNames names of the types that the query is restricted to - null means any type
+     * @return candidate relationships
+     */
+    private Collection<Relationship> getCandidateRelationships(Date          asOfTime,
+                                                               Set<String>   typeNames)
+    {
+        if (asOfTime == null)
+        {
+            return repositoryStore.getRelationshipCandidates(typeNames);
+        }
+
+        return repositoryStore.timeWarpRelationshipStore(asOfTime).values();
+    }
 }
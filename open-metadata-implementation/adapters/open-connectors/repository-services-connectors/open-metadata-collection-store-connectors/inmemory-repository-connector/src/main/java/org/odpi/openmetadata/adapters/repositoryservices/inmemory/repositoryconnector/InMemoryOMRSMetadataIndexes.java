@@ -0,0 +1,486 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.repositoryservices.inmemory.repositoryconnector;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.*;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.PrimitiveDefCategory;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * InMemoryOMRSMetadataIndexes maintains the secondary indexes over the current versions of the instances held in
+ * the InMemoryOMRSMetadataStore.  They allow the queries to locate their candidate instances without iterating
+ * through the whole store.  The indexes are:
+ * <ul>
+ *     <li>entity type name to entity GUIDs</li>
+ *     <li>classification name to entity GUIDs</li>
+ *     <li>unique property name and string value to entity GUIDs</li>
+ *     <li>relationship type name to relationship GUIDs</li>
+ *     <li>entity GUID to the GUIDs of the relationships connected to it</li>
+ * </ul>
+ * The keys that each instance was indexed under are remembered so the instance can be removed from the indexes
+ * even if the stored object has been changed in place.
+ * <p>
+ * The indexes can be read without locking.  The InMemoryOMRSMetadataStore serializes the changes to each
+ * instance so only one thread at a time updates the index entries for a particular GUID.
+ * </p>
+ */
+class InMemoryOMRSMetadataIndexes
+{
+    /**
+     * The unique property that is indexed even before any types have been registered.
+     */
+    static final String QUALIFIED_NAME_PROPERTY = "qualifiedName";
+
+    private Map<String, Set<String>>              entityGUIDsByTypeName            = new ConcurrentHashMap<>();
+    private Map<String, Set<String>>              entityGUIDsByClassificationName  = new ConcurrentHashMap<>();
+    private Map<String, Map<String, Set<String>>> entityGUIDsByUniquePropertyValue = new ConcurrentHashMap<>();
+    private Map<String, IndexedEntity>            indexedEntities                  = new ConcurrentHashMap<>();
+
+    private Map<String, Set<String>>              relationshipGUIDsByTypeName      = new ConcurrentHashMap<>();
+    private Map<String, Set<String>>              relationshipGUIDsByEntityGUID    = new ConcurrentHashMap<>();
+    private Map<String, IndexedRelationship>      indexedRelationships             = new ConcurrentHashMap<>();
+
+
+    /**
+     * Default constructor
+     */
+    InMemoryOMRSMetadataIndexes()
+    {
+        entityGUIDsByUniquePropertyValue.put(QUALIFIED_NAME_PROPERTY, new ConcurrentHashMap<>());
+    }
+
+
+    /**
+     * Return whether the values of the named property are indexed.
+     *
+     * @param propertyName name of the property
+     * @return boolean flag
+     */
+    boolean isUniquePropertyIndexed(String   propertyName)
+    {
+        return entityGUIDsByUniquePropertyValue.containsKey(propertyName);
+    }
+
+
+    /**
+     * Add a unique property to the properties that are indexed.  The caller is responsible for re-indexing
+     * the entities that are already stored.
+     *
+     * @param propertyName name of the property
+     * @return true if the property was not indexed before
+     */
+    boolean addUniqueProperty(String   propertyName)
+    {
+        if (propertyName == null)
+        {
+            return false;
+        }
+
+        return entityGUIDsByUniquePropertyValue.putIfAbsent(propertyName, new ConcurrentHashMap<>()) == null;
+    }
+
+
+    /**
+     * Add (or replace) the index entries for an entity.  The new entries are added before the entries for
+     * the previous version are removed so a reader never finds the entity missing from a key that both
+     * versions are indexed under.
+     *
+     * @param entity current version of the entity
+     */
+    void indexEntity(EntityDetail   entity)
+    {
+        if ((entity == null) || (entity.getGUID() == null))
+        {
+            return;
+        }
+
+        String entityGUID = entity.getGUID();
+
+        IndexedEntity indexedEntity = new IndexedEntity();
+
+        InstanceType type = entity.getType();
+        if (type != null)
+        {
+            indexedEntity.typeName = type.getTypeDefName();
+            addToIndex(entityGUIDsByTypeName, indexedEntity.typeName, entityGUID);
+        }
+
+        List<Classification> classifications = entity.getClassifications();
+        if (classifications != null)
+        {
+            for (Classification classification : classifications)
+            {
+                if ((classification != null) && (classification.getName() != null))
+                {
+                    indexedEntity.classificationNames.add(classification.getName());
+                    addToIndex(entityGUIDsByClassificationName, classification.getName(), entityGUID);
+                }
+            }
+        }
+
+        for (String propertyName : entityGUIDsByUniquePropertyValue.keySet())
+        {
+            String value = getStringPropertyValue(entity.getProperties(), propertyName);
+
+            if (value != null)
+            {
+                indexedEntity.uniquePropertyValues.put(propertyName, value);
+                addToIndex(entityGUIDsByUniquePropertyValue.get(propertyName), value, entityGUID);
+            }
+        }
+
+        IndexedEntity previousIndexedEntity = indexedEntities.put(entityGUID, indexedEntity);
+
+        if (previousIndexedEntity != null)
+        {
+            if (! Objects.equals(previousIndexedEntity.typeName, indexedEntity.typeName))
+            {
+                removeFromIndex(entityGUIDsByTypeName, previousIndexedEntity.typeName, entityGUID);
+            }
+
+            for (String classificationName : previousIndexedEntity.classificationNames)
+            {
+                if (! indexedEntity.classificationNames.contains(classificationName))
+                {
+                    removeFromIndex(entityGUIDsByClassificationName, classificationName, entityGUID);
+                }
+            }
+
+            for (String propertyName : previousIndexedEntity.uniquePropertyValues.keySet())
+            {
+                String previousValue = previousIndexedEntity.uniquePropertyValues.get(propertyName);
+
+                if (! previousValue.equals(indexedEntity.uniquePropertyValues.get(propertyName)))
+                {
+                    removeFromIndex(entityGUIDsByUniquePropertyValue.get(propertyName), previousValue, entityGUID);
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Remove the index entries for an entity.
+     *
+     * @param entityGUID unique identifier of the entity
+     */
+    void unindexEntity(String   entityGUID)
+    {
+        IndexedEntity indexedEntity = indexedEntities.remove(entityGUID);
+
+        if (indexedEntity != null)
+        {
+            removeFromIndex(entityGUIDsByTypeName, indexedEntity.typeName, entityGUID);
+
+            for (String classificationName : indexedEntity.classificationNames)
+            {
+                removeFromIndex(entityGUIDsByClassificationName, classificationName, entityGUID);
+            }
+
+            for (String propertyName : indexedEntity.uniquePropertyValues.keySet())
+            {
+                removeFromIndex(entityGUIDsByUniquePropertyValue.get(propertyName),
+                                indexedEntity.uniquePropertyValues.get(propertyName),
+                                entityGUID);
+            }
+        }
+    }
+
+
+    /**
+     * Add (or replace) the index entries for a relationship.  As for entities, the entries for the previous
+     * version are only removed once the new entries are in place.
+     *
+     * @param relationship current version of the relationship
+     */
+    void indexRelationship(Relationship   relationship)
+    {
+        if ((relationship == null) || (relationship.getGUID() == null))
+        {
+            return;
+        }
+
+        String relationshipGUID = relationship.getGUID();
+
+        IndexedRelationship indexedRelationship = new IndexedRelationship();
+
+        InstanceType type = relationship.getType();
+        if (type != null)
+        {
+            indexedRelationship.typeName = type.getTypeDefName();
+            addToIndex(relationshipGUIDsByTypeName, indexedRelationship.typeName, relationshipGUID);
+        }
+
+        if (relationship.getEntityOneProxy() != null)
+        {
+            indexedRelationship.entityOneGUID = relationship.getEntityOneProxy().getGUID();
+            addToIndex(relationshipGUIDsByEntityGUID, indexedRelationship.entityOneGUID, relationshipGUID);
+        }
+
+        if (relationship.getEntityTwoProxy() != null)
+        {
+            indexedRelationship.entityTwoGUID = relationship.getEntityTwoProxy().getGUID();
+            addToIndex(relationshipGUIDsByEntityGUID, indexedRelationship.entityTwoGUID, relationshipGUID);
+        }
+
+        IndexedRelationship previousIndexedRelationship = indexedRelationships.put(relationshipGUID, indexedRelationship);
+
+        if (previousIndexedRelationship != null)
+        {
+            if (! Objects.equals(previousIndexedRelationship.typeName, indexedRelationship.typeName))
+            {
+                removeFromIndex(relationshipGUIDsByTypeName, previousIndexedRelationship.typeName, relationshipGUID);
+            }
+
+            for (String previousEntityGUID : Arrays.asList(previousIndexedRelationship.entityOneGUID,
+                                                           previousIndexedRelationship.entityTwoGUID))
+            {
+                if ((! Objects.equals(previousEntityGUID, indexedRelationship.entityOneGUID)) &&
+                    (! Objects.equals(previousEntityGUID, indexedRelationship.entityTwoGUID)))
+                {
+                    removeFromIndex(relationshipGUIDsByEntityGUID, previousEntityGUID, relationshipGUID);
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Remove the index entries for a relationship.
+     *
+     * @param relationshipGUID unique identifier of the relationship
+     */
+    void unindexRelationship(String   relationshipGUID)
+    {
+        IndexedRelationship indexedRelationship = indexedRelationships.remove(relationshipGUID);
+
+        if (indexedRelationship != null)
+        {
+            removeFromIndex(relationshipGUIDsByTypeName, indexedRelationship.typeName, relationshipGUID);
+            removeFromIndex(relationshipGUIDsByEntityGUID, indexedRelationship.entityOneGUID, relationshipGUID);
+            removeFromIndex(relationshipGUIDsByEntityGUID, indexedRelationship.entityTwoGUID, relationshipGUID);
+        }
+    }
+
+
+    /**
+     * Return the GUIDs of the entities that are of one of the requested types.
+     *
+     * @param typeNames names of the types - these should include any subtypes of interest
+     * @return set of entity GUIDs
+     */
+    Set<String> getEntityGUIDsForTypes(Collection<String>   typeNames)
+    {
+        return getUnion(entityGUIDsByTypeName, typeNames);
+    }
+
+
+    /**
+     * Return the GUIDs of the entities that have the named classification.
+     *
+     * @param classificationName name of the classification
+     * @return set of entity GUIDs
+     */
+    Set<String> getEntityGUIDsForClassification(String   classificationName)
+    {
+        return getIndexEntry(entityGUIDsByClassificationName, classificationName);
+    }
+
+
+    /**
+     * Return the GUIDs of the entities that have exactly the requested value for a unique property.
+     *
+     * @param propertyName name of the property
+     * @param propertyValue value of the property
+     * @return set of entity GUIDs or null if this property is not indexed
+     */
+    Set<String> getEntityGUIDsForPropertyValue(String   propertyName,
+                                               String   propertyValue)
+    {
+        Map<String, Set<String>> valueIndex = entityGUIDsByUniquePropertyValue.get(propertyName);
+
+        if (valueIndex == null)
+        {
+            return null;
+        }
+
+        return getIndexEntry(valueIndex, propertyValue);
+    }
+
+
+    /**
+     * Return the GUIDs of the relationships that are of one of the requested types.
+     *
+     * @param typeNames names of the types
+     * @return set of relationship GUIDs
+     */
+    Set<String> getRelationshipGUIDsForTypes(Collection<String>   typeNames)
+    {
+        return getUnion(relationshipGUIDsByTypeName, typeNames);
+    }
+
+
+    /**
+     * Return the GUIDs of the relationships that are connected to an entity.
+     *
+     * @param entityGUID unique identifier of the entity
+     * @return set of relationship GUIDs
+     */
+    Set<String> getRelationshipGUIDsForEntity(String   entityGUID)
+    {
+        return getIndexEntry(relationshipGUIDsByEntityGUID, entityGUID);
+    }
+
+
+    /**
+     * Extract the value of a string property.
+     *
+     * @param properties properties from the instance
+     * @param propertyName name of the property
+     * @return string value or null if the property is not set or is not a string
+     */
+    private String getStringPropertyValue(InstanceProperties   properties,
+                                          String               propertyName)
+    {
+        if (properties != null)
+        {
+            InstancePropertyValue propertyValue = properties.getPropertyValue(propertyName);
+
+            if (propertyValue instanceof PrimitivePropertyValue)
+            {
+                PrimitivePropertyValue primitivePropertyValue = (PrimitivePropertyValue)propertyValue;
+
+                if ((primitivePropertyValue.getPrimitiveDefCategory() == PrimitiveDefCategory.OM_PRIMITIVE_TYPE_STRING) &&
+                    (primitivePropertyValue.getPrimitiveValue() != null))
+                {
+                    return primitivePropertyValue.getPrimitiveValue().toString();
+                }
+            }
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Add a GUID to an index.
+     *
+     * @param index index to update
+     * @param key key for the GUID
+     * @param guid unique identifier of the instance
+     */
+    private void addToIndex(Map<String, Set<String>> index,
+                            String                   key,
+                            String                   guid)
+    {
+        if (key != null)
+        {
+            index.compute(key, (indexKey, guids) ->
+            {
+                Set<String> updatedGUIDs = guids;
+
+                if (updatedGUIDs == null)
+                {
+                    updatedGUIDs = ConcurrentHashMap.newKeySet();
+                }
+
+                updatedGUIDs.add(guid);
+                return updatedGUIDs;
+            });
+        }
+    }
+
+
+    /**
+     * Remove a GUID from an index, removing the key once it has no GUIDs left.  The update is atomic for
+     * the key so it does not race with another instance being added under the same key.
+     *
+     * @param index index to update
+     * @param key key for the GUID
+     * @param guid unique identifier of the instance
+     */
+    private void removeFromIndex(Map<String, Set<String>> index,
+                                 String                   key,
+                                 String                   guid)
+    {
+        if ((index != null) && (key != null))
+        {
+            index.computeIfPresent(key, (indexKey, guids) ->
+            {
+                guids.remove(guid);
+                return guids.isEmpty() ? null : guids;
+            });
+        }
+    }
+
+
+    /**
+     * Return a copy of an index entry.
+     *
+     * @param index index to query
+     * @param key requested key
+     * @return set of GUIDs (empty if there are none)
+     */
+    private Set<String> getIndexEntry(Map<String, Set<String>> index,
+                                      String                   key)
+    {
+        Set<String> guids = index.get(key);
+
+        if (guids == null)
+        {
+            return new HashSet<>();
+        }
+
+        return new HashSet<>(guids);
+    }
+
+
+    /**
+     * Return the union of the index entries for a list of keys.
+     *
+     * @param index index to query
+     * @param keys requested keys
+     * @return set of GUIDs (empty if there are none)
+     */
+    private Set<String> getUnion(Map<String, Set<String>> index,
+                                 Collection<String>       keys)
+    {
+        Set<String> guids = new HashSet<>();
+
+        for (String key : keys)
+        {
+            Set<String> keyGUIDs = index.get(key);
+
+            if (keyGUIDs != null)
+            {
+                guids.addAll(keyGUIDs);
+            }
+        }
+
+        return guids;
+    }
+
+
+    /**
+     * The keys that an entity is indexed under.
+     */
+    private static class IndexedEntity
+    {
+        String              typeName             = null;
+        List<String>        classificationNames  = new ArrayList<>();
+        Map<String, String> uniquePropertyValues = new HashMap<>();
+    }
+
+
+    /**
+     * The keys that a relationship is indexed under.
+     */
+    private static class IndexedRelationship
+    {
+        String typeName      = null;
+        String entityOneGUID = null;
+        String entityTwoGUID = null;
+    }
+}
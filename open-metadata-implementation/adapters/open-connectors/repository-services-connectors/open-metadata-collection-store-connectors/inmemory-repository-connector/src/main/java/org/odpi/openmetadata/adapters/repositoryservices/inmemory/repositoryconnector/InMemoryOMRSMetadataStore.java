@@ -8,25 +8,61 @@ import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollec
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Relationship;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * InMemoryOMRSMetadataStore provides the in memory stores for the InMemoryRepositoryConnector
+ * InMemoryOMRSMetadataStore provides the in memory stores for the InMemoryRepositoryConnector.
+ * <p>
+ * The stores are concurrent maps so readers do not take any locks and queries for the current instances
+ * work directly against read-only views of the stores rather than copies.  Readers see each instance either
+ * before or after a change, never part way through.  Changes to an instance are serialized on a lock selected
+ * from the instance's GUID so updates to the same instance are applied in order, while updates to different
+ * instances can proceed in parallel.
+ * </p>
+ * <p>
+ * The previous versions of each instance are held in a version chain ordered by time, so historical
+ * queries use a binary search per instance rather than scanning the whole history.
+ * </p>
  */
 class InMemoryOMRSMetadataStore
 {
-    private String                                 repositoryName           = null;
-    private volatile Map<String, EntityDetail>     entityStore              = new HashMap<>();
-    private volatile Map<String, EntityProxy>      entityProxyStore         = new HashMap<>();
-    private volatile List<EntityDetail>            entityHistoryStore       = new ArrayList<>();
-    private volatile Map<String, Relationship>     relationshipStore        = new HashMap<>();
-    private volatile List<Relationship>            relationshipHistoryStore = new ArrayList<>();
+    private static final int  guidLockCount = 64;
+
+    private String                                      repositoryName    = null;
+    private final Map<String, EntityDetail>             entityStore       = new ConcurrentHashMap<>();
+    private final Map<String, EntityProxy>              entityProxyStore  = new ConcurrentHashMap<>();
+    private final InMemoryInstanceHistory<EntityDetail> entityHistoryStore;
+    private final Map<String, Relationship>             relationshipStore = new ConcurrentHashMap<>();
+    private final InMemoryInstanceHistory<Relationship> relationshipHistoryStore;
+    private final InMemoryOMRSMetadataIndexes           indexes           = new InMemoryOMRSMetadataIndexes();
+    private final Object[]                              guidLocks         = new Object[guidLockCount];
 
 
     /**
-     * Default constructor
+     * Default constructor - all versions are kept.
      */
     InMemoryOMRSMetadataStore()
     {
+        this(0, 0L);
+    }
+
+
+    /**
+     * Constructor supplies the retention policy for the history of the instances.
+     *
+     * @param maxVersionsPerInstance maximum number of previous versions kept for each instance - zero means no limit
+     * @param historyRetentionPeriod milliseconds that a superseded version is kept for - zero means no limit
+     */
+    InMemoryOMRSMetadataStore(int    maxVersionsPerInstance,
+                              long   historyRetentionPeriod)
+    {
+        this.entityHistoryStore       = new InMemoryInstanceHistory<>(maxVersionsPerInstance, historyRetentionPeriod);
+        this.relationshipHistoryStore = new InMemoryInstanceHistory<>(maxVersionsPerInstance, historyRetentionPeriod);
+
+        for (int i = 0; i < guidLockCount; i++)
+        {
+            guidLocks[i] = new Object();
+        }
     }
 
 
@@ -41,12 +77,24 @@ class InMemoryOMRSMetadataStore
     }
 
 
+    /**
+     * Return the lock that serializes the changes to the instance with the supplied GUID.
+     *
+     * @param guid unique identifier of the instance
+     * @return lock object
+     */
+    private Object getGUIDLock(String   guid)
+    {
+        return guidLocks[Math.floorMod(guid.hashCode(), guidLockCount)];
+    }
+
+
     /**
      * Return a list of entities from the store that are at the latest level.
      *
      * @return list of EntityDetail objects
      */
-    synchronized List<EntityDetail>   getEntities()
+    List<EntityDetail>   getEntities()
     {
         return new ArrayList<>(entityStore.values());
     }
@@ -58,7 +106,7 @@ class InMemoryOMRSMetadataStore
      * @param guid - unique identifier for the entity
      * @return entity object
      */
-    synchronized EntityDetail  getEntity(String   guid)
+    EntityDetail  getEntity(String   guid)
     {
         return entityStore.get(guid);
     }
@@ -70,89 +118,144 @@ class InMemoryOMRSMetadataStore
      * @param guid - unique identifier
      * @return entity proxy object
      */
-    synchronized EntityProxy  getEntityProxy(String   guid)
+    EntityProxy  getEntityProxy(String   guid)
     {
         return entityProxyStore.get(guid);
     }
 
 
     /**
-     * Return an entity store that contains entities as they were at the time supplied in the asOfTime
-     * parameter
+     * Return the current versions of the entities that could match a query.  The indexes are used to pick out
+     * the candidates - starting with the most selective of the supplied restrictions.  The caller must still
+     * check each candidate against the full query.
      *
-     * @param asOfTime - time for the store (or null means now)
-     * @return entity store for the requested time
+     * @param typeNames names of the entity types (including subtypes) that are of interest - null means any type
+     * @param classificationNames names of classifications that all matching entities must have - null means no restriction
+     * @param uniquePropertyValues values that string properties must match exactly - null means no restriction.
+     *                             Properties that are not indexed are ignored.
+     * @return candidate entities
      */
-    synchronized Map<String, EntityDetail>  timeWarpEntityStore(Date         asOfTime)
+    Collection<EntityDetail> getEntityCandidates(Collection<String>   typeNames,
+                                                 Collection<String>   classificationNames,
+                                                 Map<String, String>  uniquePropertyValues)
     {
-        if (asOfTime == null)
+        Set<String> candidateGUIDs = null;
+
+        if (uniquePropertyValues != null)
         {
-            return new HashMap<>(entityStore);
+            for (String propertyName : uniquePropertyValues.keySet())
+            {
+                candidateGUIDs = getSmallestSet(candidateGUIDs,
+                                                indexes.getEntityGUIDsForPropertyValue(propertyName,
+                                                                                       uniquePropertyValues.get(propertyName)));
+            }
         }
 
-        Map<String, EntityDetail>  timeWarpedEntityStore = new HashMap<>();
+        if (classificationNames != null)
+        {
+            for (String classificationName : classificationNames)
+            {
+                candidateGUIDs = getSmallestSet(candidateGUIDs, indexes.getEntityGUIDsForClassification(classificationName));
+            }
+        }
 
-        /*
-         * First step through the current relationship store and extract all of the relationships that were
-         * last updated before the asOfTime.
-         */
-        for (EntityDetail  entity : entityStore.values())
+        if (typeNames != null)
         {
+            candidateGUIDs = getSmallestSet(candidateGUIDs, indexes.getEntityGUIDsForTypes(typeNames));
+        }
+
+        if (candidateGUIDs == null)
+        {
+            return Collections.unmodifiableCollection(entityStore.values());
+        }
+
+        List<EntityDetail> candidates = new ArrayList<>();
+
+        for (String guid : candidateGUIDs)
+        {
+            EntityDetail entity = entityStore.get(guid);
+
             if (entity != null)
             {
-                if (entity.getUpdateTime() != null)
-                {
-                    String entityGUID = entity.getGUID();
+                candidates.add(entity);
+            }
+        }
 
-                    if (entityGUID != null)
-                    {
-                        if (! entity.getUpdateTime().after(asOfTime))
-                        {
-                            timeWarpedEntityStore.put(entityGUID, entity);
-                        }
-                    }
-                }
-                else if (entity.getCreateTime() != null)
+        return candidates;
+    }
+
+
+    /**
+     * Ensure the values of a unique string property are indexed.  Each stored entity is re-indexed
+     * under its own lock so that changes made while the index is being built are not lost.
+     *
+     * @param propertyName name of the property
+     */
+    void addUniquePropertyIndex(String   propertyName)
+    {
+        if (indexes.addUniqueProperty(propertyName))
+        {
+            for (String entityGUID : entityStore.keySet())
+            {
+                synchronized (getGUIDLock(entityGUID))
                 {
-                    if (! entity.getCreateTime().after(asOfTime))
+                    EntityDetail entity = entityStore.get(entityGUID);
+
+                    if (entity != null)
                     {
-                        timeWarpedEntityStore.put(entity.getGUID(), entity);
+                        indexes.indexEntity(entity);
                     }
                 }
             }
         }
+    }
 
-        /*
-         * Now step through the history store picking up the versions of other entities that were active
-         * at the time of the asOfTime.
-         */
-        for (EntityDetail oldEntity : entityHistoryStore)
+
+    /**
+     * Return the entity identified by the guid as it was at the time supplied in the asOfTime parameter.
+     *
+     * @param guid - unique identifier for the entity
+     * @param asOfTime - time for the entity (or null means now)
+     * @return entity object or null if the entity did not exist at that time
+     */
+    EntityDetail  getEntity(String   guid,
+                            Date     asOfTime)
+    {
+        EntityDetail currentEntity = entityStore.get(guid);
+
+        if ((currentEntity == null) || (asOfTime == null))
         {
-            if (oldEntity != null)
-            {
-                String entityGUID = oldEntity.getGUID();
+            return currentEntity;
+        }
 
-                if (oldEntity.getUpdateTime() != null)
-                {
-                    if (! oldEntity.getUpdateTime().after(asOfTime))
-                    {
-                        EntityDetail newerEntity = timeWarpedEntityStore.put(entityGUID, oldEntity);
+        return entityHistoryStore.getVersionAsOf(currentEntity, asOfTime);
+    }
 
-                        if (newerEntity != null)
-                        {
-                            timeWarpedEntityStore.put(entityGUID, newerEntity);
-                        }
-                        break;
-                    }
-                }
-                else if (oldEntity.getCreateTime() != null)
-                {
-                    if (! oldEntity.getCreateTime().after(asOfTime))
-                    {
-                        timeWarpedEntityStore.put(entityGUID, oldEntity);
-                        break;
-                    }
-                }
+
+    /**
+     * Return an entity store that contains entities as they were at the time supplied in the asOfTime
+     * parameter.  The store for the current time is a read-only view of the live store.  For earlier times,
+     * only the entities that existed at that time are visited.
+     *
+     * @param asOfTime - time for the store (or null means now)
+     * @return entity store for the requested time
+     */
+    Map<String, EntityDetail>  timeWarpEntityStore(Date         asOfTime)
+    {
+        if (asOfTime == null)
+        {
+            return Collections.unmodifiableMap(entityStore);
+        }
+
+        Map<String, EntityDetail>  timeWarpedEntityStore = new HashMap<>();
+
+        for (String entityGUID : entityHistoryStore.getGUIDsActiveBefore(asOfTime))
+        {
+            EntityDetail entity = this.getEntity(entityGUID, asOfTime);
+
+            if (entity != null)
+            {
+                timeWarpedEntityStore.put(entityGUID, entity);
             }
         }
 
@@ -165,7 +268,7 @@ class InMemoryOMRSMetadataStore
      *
      * @return list of relationships
      */
-    synchronized List<Relationship>   getRelationships()
+    List<Relationship>   getRelationships()
     {
         return new ArrayList<>(relationshipStore.values());
     }
@@ -177,117 +280,170 @@ class InMemoryOMRSMetadataStore
      * @param guid - unique identifier for the relationship
      * @return relationship object
      */
-    protected synchronized Relationship  getRelationship(String   guid)
+    protected Relationship  getRelationship(String   guid)
     {
         return relationshipStore.get(guid);
     }
 
+
     /**
-     * Return a relationship store that contains relationships as they were at the time supplied in the asOfTime
-     * parameter
+     * Return the current versions of the relationships that could match a query.  The caller must still
+     * check each candidate against the full query.
      *
-     * @param asOfTime - time for the store (or null means now)
-     * @return relationship store for the requested time
+     * @param typeNames names of the relationship types (including subtypes) that are of interest - null means any type
+     * @return candidate relationships
      */
-    synchronized Map<String, Relationship>  timeWarpRelationshipStore(Date         asOfTime)
+    Collection<Relationship> getRelationshipCandidates(Collection<String>   typeNames)
     {
-        if (asOfTime == null)
+        if (typeNames == null)
         {
-            return new HashMap<>(relationshipStore);
+            return Collections.unmodifiableCollection(relationshipStore.values());
         }
 
-        Map<String, Relationship>  timeWarpedRelationshipStore = new HashMap<>();
+        return getRelationships(indexes.getRelationshipGUIDsForTypes(typeNames));
+    }
 
 
-        /*
-         * First step through the current relationship store and extract all of the relationships that were
-         * last updated before the asOfTime.
-         */
-        for (Relationship  relationship : relationshipStore.values())
+    /**
+     * Return the current versions of the relationships connected to an entity.
+     *
+     * @param entityGUID unique identifier of the entity
+     * @return list of relationships
+     */
+    List<Relationship> getRelationshipsForEntity(String   entityGUID)
+    {
+        return getRelationships(indexes.getRelationshipGUIDsForEntity(entityGUID));
+    }
+
+
+    /**
+     * Return the relationships for a set of GUIDs.
+     *
+     * @param relationshipGUIDs unique identifiers of the relationships
+     * @return list of relationships
+     */
+    private List<Relationship> getRelationships(Set<String>   relationshipGUIDs)
+    {
+        List<Relationship> relationships = new ArrayList<>();
+
+        for (String guid : relationshipGUIDs)
         {
+            Relationship relationship = relationshipStore.get(guid);
+
             if (relationship != null)
             {
-                if (relationship.getUpdateTime() != null)
-                {
-                    String relationshipGUID = relationship.getGUID();
-
-                    if (relationshipGUID != null)
-                    {
-                        if (! relationship.getUpdateTime().after(asOfTime))
-                        {
-                            timeWarpedRelationshipStore.put(relationshipGUID, relationship);
-                        }
-                    }
-                }
-                else if (relationship.getCreateTime() != null)
-                {
-                    if (! relationship.getCreateTime().after(asOfTime))
-                    {
-                        timeWarpedRelationshipStore.put(relationship.getGUID(), relationship);
-                    }
-                }
+                relationships.add(relationship);
             }
         }
 
-        /*
-         * Now step through the history store picking up the versions of other relationships that were active
-         * at the time of the asOfTime.
-         */
-        for (Relationship oldRelationship : relationshipHistoryStore)
+        return relationships;
+    }
+
+
+    /**
+     * Return the smaller of two candidate sets.  Null means the candidates are not restricted.
+     *
+     * @param currentCandidates the candidates so far
+     * @param newCandidates candidates from another index
+     * @return the smaller set
+     */
+    private Set<String> getSmallestSet(Set<String>   currentCandidates,
+                                       Set<String>   newCandidates)
+    {
+        if (newCandidates == null)
         {
-            if (oldRelationship != null)
-            {
-                String relationshipGUID = oldRelationship.getGUID();
+            return currentCandidates;
+        }
 
-                if (oldRelationship.getUpdateTime() != null)
-                {
-                    if (! oldRelationship.getUpdateTime().after(asOfTime))
-                    {
-                        Relationship newerRelationship = timeWarpedRelationshipStore.put(relationshipGUID, oldRelationship);
+        if ((currentCandidates == null) || (newCandidates.size() < currentCandidates.size()))
+        {
+            return newCandidates;
+        }
 
-                        if (newerRelationship != null)
-                        {
-                            timeWarpedRelationshipStore.put(relationshipGUID, newerRelationship);
-                        }
-                        break;
-                    }
-                }
-                else if (oldRelationship.getCreateTime() != null)
-                {
-                    if (! oldRelationship.getCreateTime().after(asOfTime))
-                    {
-                        timeWarpedRelationshipStore.put(relationshipGUID, oldRelationship);
-                        break;
-                    }
-                }
+        return currentCandidates;
+    }
+
+
+    /**
+     * Return the relationship identified by the guid as it was at the time supplied in the asOfTime parameter.
+     *
+     * @param guid - unique identifier for the relationship
+     * @param asOfTime - time for the relationship (or null means now)
+     * @return relationship object or null if the relationship did not exist at that time
+     */
+    Relationship  getRelationship(String   guid,
+                                  Date     asOfTime)
+    {
+        Relationship currentRelationship = relationshipStore.get(guid);
+
+        if ((currentRelationship == null) || (asOfTime == null))
+        {
+            return currentRelationship;
+        }
+
+        return relationshipHistoryStore.getVersionAsOf(currentRelationship, asOfTime);
+    }
+
+
+    /**
+     * Return a relationship store that contains relationships as they were at the time supplied in the asOfTime
+     * parameter.  The store for the current time is a read-only view of the live store.  For earlier times,
+     * only the relationships that existed at that time are visited.
+     *
+     * @param asOfTime - time for the store (or null means now)
+     * @return relationship store for the requested time
+     */
+    Map<String, Relationship>  timeWarpRelationshipStore(Date         asOfTime)
+    {
+        if (asOfTime == null)
+        {
+            return Collections.unmodifiableMap(relationshipStore);
+        }
+
+        Map<String, Relationship>  timeWarpedRelationshipStore = new HashMap<>();
+
+        for (String relationshipGUID : relationshipHistoryStore.getGUIDsActiveBefore(asOfTime))
+        {
+            Relationship relationship = this.getRelationship(relationshipGUID, asOfTime);
+
+            if (relationship != null)
+            {
+                timeWarpedRelationshipStore.put(relationshipGUID, relationship);
             }
         }
 
         return timeWarpedRelationshipStore;
     }
 
+
     /**
      * Create a new entity in the entity store.
      *
      * @param entity - new version of the entity
      * @return entity with potentially updated GUID
      */
-    synchronized EntityDetail createEntityInStore(EntityDetail    entity)
+    EntityDetail createEntityInStore(EntityDetail    entity)
     {
         /*
-         * There is a small chance the randomly generated GUID will clash with an existing relationship.
-         * If this happens a new GUID is generated for the relationship and the process repeats.
+         * There is a small chance the randomly generated GUID will clash with an existing entity.
+         * If this happens a new GUID is generated for the entity and the process repeats.
          */
-        EntityDetail existingEntity = entityStore.put(entity.getGUID(), entity);
-
-        while (existingEntity != null)
+        while (true)
         {
-            entityStore.put(entity.getGUID(), existingEntity);
+            String entityGUID = entity.getGUID();
+
+            synchronized (getGUIDLock(entityGUID))
+            {
+                if (entityStore.putIfAbsent(entityGUID, entity) == null)
+                {
+                    indexes.indexEntity(entity);
+                    entityHistoryStore.recordInstance(entity);
+                    return entity;
+                }
+            }
+
             entity.setGUID(UUID.randomUUID().toString());
-            existingEntity = entityStore.put(entity.getGUID(), entity);
         }
-
-        return entity;
     }
 
 
@@ -297,22 +453,28 @@ class InMemoryOMRSMetadataStore
      * @param relationship - new version of the relationship
      * @return relationship with potentially updated GUID
      */
-    synchronized Relationship createRelationshipInStore(Relationship    relationship)
+    Relationship createRelationshipInStore(Relationship    relationship)
     {
         /*
          * There is a small chance the randomly generated GUID will clash with an existing relationship.
          * If this happens a new GUID is generated for the relationship and the process repeats.
          */
-        Relationship existingRelationship = relationshipStore.put(relationship.getGUID(), relationship);
-
-        while (existingRelationship != null)
+        while (true)
         {
-            relationshipStore.put(relationship.getGUID(), existingRelationship);
+            String relationshipGUID = relationship.getGUID();
+
+            synchronized (getGUIDLock(relationshipGUID))
+            {
+                if (relationshipStore.putIfAbsent(relationshipGUID, relationship) == null)
+                {
+                    indexes.indexRelationship(relationship);
+                    relationshipHistoryStore.recordInstance(relationship);
+                    return relationship;
+                }
+            }
+
             relationship.setGUID(UUID.randomUUID().toString());
-            existingRelationship = relationshipStore.put(relationship.getGUID(), relationship);
         }
-
-        return relationship;
     }
 
 
@@ -321,9 +483,12 @@ class InMemoryOMRSMetadataStore
      *
      * @param entityProxy - entity proxy object to add
      */
-    synchronized void addEntityProxyToStore(EntityProxy    entityProxy)
+    void addEntityProxyToStore(EntityProxy    entityProxy)
     {
-        entityProxyStore.put(entityProxy.getGUID(), entityProxy);
+        synchronized (getGUIDLock(entityProxy.getGUID()))
+        {
+            entityProxyStore.put(entityProxy.getGUID(), entityProxy);
+        }
     }
 
 
@@ -333,13 +498,24 @@ class InMemoryOMRSMetadataStore
      *
      * @param entity - new version of the entity
      */
-    synchronized void updateEntityInStore(EntityDetail entity)
+    void updateEntityInStore(EntityDetail entity)
     {
-        EntityDetail oldEntity = entityStore.put(entity.getGUID(), entity);
-
-        if (oldEntity != null)
+        synchronized (getGUIDLock(entity.getGUID()))
         {
-            entityHistoryStore.add(0, oldEntity);
+            /*
+             * The old version is added to the history before the new version replaces it so readers
+             * always find one or the other.
+             */
+            EntityDetail oldEntity = entityStore.get(entity.getGUID());
+
+            if (oldEntity != null)
+            {
+                entityHistoryStore.addPreviousVersion(oldEntity);
+            }
+
+            entityStore.put(entity.getGUID(), entity);
+            indexes.indexEntity(entity);
+            entityHistoryStore.recordInstance(entity);
         }
     }
 
@@ -349,9 +525,12 @@ class InMemoryOMRSMetadataStore
      *
      * @param entityProxy - entity proxy object to add
      */
-    synchronized void updateEntityProxyInStore(EntityProxy entityProxy)
+    void updateEntityProxyInStore(EntityProxy entityProxy)
     {
-        entityProxyStore.put(entityProxy.getGUID(), entityProxy);
+        synchronized (getGUIDLock(entityProxy.getGUID()))
+        {
+            entityProxyStore.put(entityProxy.getGUID(), entityProxy);
+        }
     }
 
 
@@ -361,14 +540,24 @@ class InMemoryOMRSMetadataStore
      *
      * @param relationship - new version of the relationship
      */
-    synchronized void updateRelationshipInStore(Relationship    relationship)
+    void updateRelationshipInStore(Relationship    relationship)
     {
+        synchronized (getGUIDLock(relationship.getGUID()))
+        {
+            /*
+             * The old version is added to the history before the new version replaces it so readers
+             * always find one or the other.
+             */
+            Relationship    oldRelationship = relationshipStore.get(relationship.getGUID());
 
-        Relationship    oldRelationship = relationshipStore.put(relationship.getGUID(), relationship);
+            if (oldRelationship != null)
+            {
+                relationshipHistoryStore.addPreviousVersion(oldRelationship);
+            }
 
-        if (oldRelationship != null)
-        {
-            relationshipHistoryStore.add(0, oldRelationship);
+            relationshipStore.put(relationship.getGUID(), relationship);
+            indexes.indexRelationship(relationship);
+            relationshipHistoryStore.recordInstance(relationship);
         }
     }
 
@@ -379,9 +568,14 @@ class InMemoryOMRSMetadataStore
      *
      * @param entity - object to save
      */
-    synchronized void saveReferenceEntityToStore(EntityDetail    entity)
+    void saveReferenceEntityToStore(EntityDetail    entity)
     {
-        entityStore.put(entity.getGUID(), entity);
+        synchronized (getGUIDLock(entity.getGUID()))
+        {
+            entityStore.put(entity.getGUID(), entity);
+            indexes.indexEntity(entity);
+            entityHistoryStore.recordInstance(entity);
+        }
     }
 
 
@@ -391,59 +585,61 @@ class InMemoryOMRSMetadataStore
      *
      * @param relationship - object to save
      */
-    synchronized void saveReferenceRelationshipToStore(Relationship    relationship)
+    void saveReferenceRelationshipToStore(Relationship    relationship)
     {
-        relationshipStore.put(relationship.getGUID(), relationship);
+        synchronized (getGUIDLock(relationship.getGUID()))
+        {
+            relationshipStore.put(relationship.getGUID(), relationship);
+            indexes.indexRelationship(relationship);
+            relationshipHistoryStore.recordInstance(relationship);
+        }
     }
 
 
     /**
-     * Retrieve the previous version of a Relationship.  This is the first instance of this element that
-     * appears in the history.
+     * Retrieve the previous version of a Relationship.  This is the most recent version in the relationship's
+     * version chain.
      *
      * @param guid - unique identifier for the required element
      * @return - previous version of this relationship - or null if not found
      */
-    synchronized Relationship retrievePreviousVersionOfRelationship(String   guid)
+    Relationship retrievePreviousVersionOfRelationship(String   guid)
     {
         if (guid != null)
         {
-            Relationship  currentVersionOfRelationship = relationshipStore.get(guid);
-
-            long versionNumber = 0;
-
-            if (currentVersionOfRelationship != null)
+            synchronized (getGUIDLock(guid))
             {
-                versionNumber = currentVersionOfRelationship.getVersion() + 1;
-            }
+                Relationship  previousVersionOfRelationship = relationshipHistoryStore.getLatestPreviousVersion(guid);
 
-
-            for (Relationship relationship : relationshipHistoryStore)
-            {
-                if (relationship != null)
+                if (previousVersionOfRelationship != null)
                 {
-                    if (guid.equals(relationship.getGUID()))
+                    Relationship  currentVersionOfRelationship = relationshipStore.get(guid);
+
+                    long versionNumber = previousVersionOfRelationship.getVersion() + 1;
+
+                    if (currentVersionOfRelationship != null)
                     {
-                        if (versionNumber == 0)
-                        {
-                            versionNumber = relationship.getVersion() + 1;
-                        }
-                        /*
-                         * Clone the head (most recent) version in the history, set its version number to the next version
-                         * and insert the new clone into the current store (under key GUID). Also, take the 'current version'
-                         * (as was at start of method) and shunt that into the history. Do not remove anything from the history.
-                         * Remember also to set the updateTime to NOW - otherwise the historical copy will appear to have been
-                         * updated longer ago than was really the case.
-                         */
-                        Relationship newRelationship = new Relationship(relationship);
-                        newRelationship.setVersion(versionNumber);
-                        Date restoreTime = new Date();
-                        newRelationship.setUpdateTime(restoreTime);
-                        relationshipStore.put(guid, newRelationship);
-                        relationshipHistoryStore.add(0, currentVersionOfRelationship);
-                        return newRelationship;
+                        versionNumber = currentVersionOfRelationship.getVersion() + 1;
+                    }
 
+                    /*
+                     * Clone the head (most recent) version in the history, set its version number to the next version
+                     * and insert the new clone into the current store (under key GUID). Also, take the 'current version'
+                     * (as was at start of method) and shunt that into the history. Do not remove anything from the history.
+                     * Remember also to set the updateTime to NOW - otherwise the historical copy will appear to have been
+                     * updated longer ago than was really the case.
+                     */
+                    Relationship newRelationship = new Relationship(previousVersionOfRelationship);
+                    newRelationship.setVersion(versionNumber);
+                    Date restoreTime = new Date();
+                    newRelationship.setUpdateTime(restoreTime);
+                    if (currentVersionOfRelationship != null)
+                    {
+                        relationshipHistoryStore.addPreviousVersion(currentVersionOfRelationship);
                     }
+                    relationshipStore.put(guid, newRelationship);
+                    indexes.indexRelationship(newRelationship);
+                    return newRelationship;
                 }
             }
         }
@@ -454,52 +650,48 @@ class InMemoryOMRSMetadataStore
 
     /**
      * Retrieve the previous version of an Entity from the history store and restore it in the entity store.
-     * This is the first instance of this element that appears in the history.
+     * This is the most recent version in the entity's version chain.
      *
      * @param guid - unique identifier for the required element
      * @return - previous version of this Entity - or null if not found
      */
-    synchronized EntityDetail retrievePreviousVersionOfEntity(String   guid)
+    EntityDetail retrievePreviousVersionOfEntity(String   guid)
     {
         if (guid != null)
         {
-            EntityDetail  currentVersionOfEntity = entityStore.get(guid);
-
-            long versionNumber = 0;
-
-            if (currentVersionOfEntity != null)
+            synchronized (getGUIDLock(guid))
             {
-                versionNumber = currentVersionOfEntity.getVersion() + 1;
-            }
+                EntityDetail  previousVersionOfEntity = entityHistoryStore.getLatestPreviousVersion(guid);
 
-            for (EntityDetail entity : entityHistoryStore)
-            {
-                if (entity != null)
+                if (previousVersionOfEntity != null)
                 {
-                    if (guid.equals(entity.getGUID()))
+                    EntityDetail  currentVersionOfEntity = entityStore.get(guid);
+
+                    long versionNumber = previousVersionOfEntity.getVersion() + 1;
+
+                    if (currentVersionOfEntity != null)
                     {
-                        if (versionNumber == 0)
-                        {
-                            versionNumber = entity.getVersion() + 1;
-                        }
-
-                        /*
-                         * Clone the head (most recent) version in the history, set its version number to the next version
-                         * and insert the new clone into the current store (under key GUID). Also, take the 'current version'
-                         * (as was at start of method) and shunt that into the history. Do not remove anything from the history.
-                         * Remember also to set the updateTime to NOW - otherwise the historical copy will appear to have been
-                         * updated longer ago than was really the case.
-                         *
-                         */
-                        EntityDetail newEntity = new EntityDetail(entity);
-                        newEntity.setVersion(versionNumber);
-                        Date restoreTime = new Date();
-                        newEntity.setUpdateTime(restoreTime);
-                        entityStore.put(guid, newEntity);
-                        entityHistoryStore.add(0, currentVersionOfEntity);
-                        return newEntity;
+                        versionNumber = currentVersionOfEntity.getVersion() + 1;
+                    }
 
+                    /*
+                     * Clone the head (most recent) version in the history, set its version number to the next version
+                     * and insert the new clone into the current store (under key GUID). Also, take the 'current version'
+                     * (as was at start of method) and shunt that into the history. Do not remove anything from the history.
+                     * Remember also to set the updateTime to NOW - otherwise the historical copy will appear to have been
+                     * updated longer ago than was really the case.
+                     */
+                    EntityDetail newEntity = new EntityDetail(previousVersionOfEntity);
+                    newEntity.setVersion(versionNumber);
+                    Date restoreTime = new Date();
+                    newEntity.setUpdateTime(restoreTime);
+                    if (currentVersionOfEntity != null)
+                    {
+                        entityHistoryStore.addPreviousVersion(currentVersionOfEntity);
                     }
+                    entityStore.put(guid, newEntity);
+                    indexes.indexEntity(newEntity);
+                    return newEntity;
                 }
             }
         }
@@ -513,19 +705,16 @@ class InMemoryOMRSMetadataStore
      *
      * @param entity - entity to remove
      */
-    synchronized void removeEntityFromStore(EntityDetail     entity)
+    void removeEntityFromStore(EntityDetail     entity)
     {
         String entityGUID = entity.getGUID();
-        entityStore.remove(entityGUID);
-        List<EntityDetail> purgedHistory = new ArrayList<>();
-        for (EntityDetail history : entityHistoryStore)
+
+        synchronized (getGUIDLock(entityGUID))
         {
-            if (history != null && !entityGUID.equals(history.getGUID()))
-            {
-                purgedHistory.add(history);
-            }
+            entityStore.remove(entityGUID);
+            indexes.unindexEntity(entityGUID);
+            entityHistoryStore.removeInstance(entityGUID);
         }
-        entityHistoryStore = purgedHistory;
     }
 
 
@@ -534,21 +723,17 @@ class InMemoryOMRSMetadataStore
      *
      * @param guid - entity to remove
      */
-    synchronized void removeReferenceEntityFromStore(String     guid)
+    void removeReferenceEntityFromStore(String     guid)
     {
-        EntityDetail entity = entityStore.remove(guid);
-
-        if (entity != null)
+        synchronized (getGUIDLock(guid))
         {
-            List<EntityDetail> purgedHistory = new ArrayList<>();
-            for (EntityDetail history : entityHistoryStore)
+            EntityDetail entity = entityStore.remove(guid);
+            indexes.unindexEntity(guid);
+
+            if (entity != null)
             {
-                if (history != null && !guid.equals(history.getGUID()))
-                {
-                    purgedHistory.add(history);
-                }
+                entityHistoryStore.removeInstance(guid);
             }
-            entityHistoryStore = purgedHistory;
         }
     }
 
@@ -558,9 +743,12 @@ class InMemoryOMRSMetadataStore
      *
      * @param guid - entity proxy to remove
      */
-    synchronized void removeEntityProxyFromStore(String     guid)
+    void removeEntityProxyFromStore(String     guid)
     {
-        entityProxyStore.remove(guid);
+        synchronized (getGUIDLock(guid))
+        {
+            entityProxyStore.remove(guid);
+        }
     }
 
 
@@ -569,19 +757,16 @@ class InMemoryOMRSMetadataStore
      *
      * @param relationship - relationship to remove
      */
-    synchronized void removeRelationshipFromStore(Relationship     relationship)
+    void removeRelationshipFromStore(Relationship     relationship)
     {
         String relationshipGUID = relationship.getGUID();
-        relationshipStore.remove(relationshipGUID);
-        List<Relationship> purgedHistory = new ArrayList<>();
-        for (Relationship history : relationshipHistoryStore)
+
+        synchronized (getGUIDLock(relationshipGUID))
         {
-            if (history != null && !relationshipGUID.equals(history.getGUID()))
-            {
-                purgedHistory.add(history);
-            }
+            relationshipStore.remove(relationshipGUID);
+            indexes.unindexRelationship(relationshipGUID);
+            relationshipHistoryStore.removeInstance(relationshipGUID);
         }
-        relationshipHistoryStore = purgedHistory;
     }
 
 
@@ -590,21 +775,17 @@ class InMemoryOMRSMetadataStore
      *
      * @param guid - relationship to remove
      */
-    synchronized void removeReferenceRelationshipFromStore(String     guid)
+    void removeReferenceRelationshipFromStore(String     guid)
     {
-        Relationship  relationship = relationshipStore.remove(guid);
-
-        if (relationship != null)
+        synchronized (getGUIDLock(guid))
         {
-            List<Relationship> purgedHistory = new ArrayList<>();
-            for (Relationship history : relationshipHistoryStore)
+            Relationship  relationship = relationshipStore.remove(guid);
+            indexes.unindexRelationship(guid);
+
+            if (relationship != null)
             {
-                if (history != null && !guid.equals(history.getGUID()))
-                {
-                    purgedHistory.add(history);
-                }
+                relationshipHistoryStore.removeInstance(guid);
             }
-            relationshipHistoryStore = purgedHistory;
         }
     }
 
@@ -7,6 +7,9 @@ import org.odpi.openmetadata.frameworks.connectors.properties.beans.ConnectorTyp
 import org.odpi.openmetadata.repositoryservices.auditlog.OMRSAuditingComponent;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryConnectorProviderBase;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * In the Open Connector Framework (OCF), a ConnectorProvider is a factory for a specific type of connector.
  * The InMemoryOMRSRepositoryConnectorProvider is the connector provider for the InMemoryOMRSRepositoryConnector.
@@ -23,6 +26,18 @@ public class InMemoryOMRSRepositoryConnectorProvider extends OMRSRepositoryConne
     static final String  connectorTypeName = "OMRS In Memory Repository Connector";
     static final String  connectorTypeDescription = "OMRS Repository Connector that uses an in-memory store.";
 
+    /**
+     * Configuration property for the maximum number of previous versions kept for each instance.
+     * The default (or zero) keeps all versions.
+     */
+    public static final String  MAX_VERSIONS_PER_INSTANCE_PROPERTY = "maxVersionsPerInstance";
+
+    /**
+     * Configuration property for the number of milliseconds that a superseded version of an instance is kept for.
+     * The default (or zero) keeps versions forever.
+     */
+    public static final String  HISTORY_RETENTION_PERIOD_PROPERTY  = "historyRetentionPeriod";
+
 
     /**
      * Constructor used to initialize the ConnectorProviderBase with the Java class name of the specific
@@ -42,6 +57,12 @@ public class InMemoryOMRSRepositoryConnectorProvider extends OMRSRepositoryConne
         connectorType.setDescription(connectorTypeDescription);
         connectorType.setConnectorProviderClassName(this.getClass().getName());
 
+        List<String> recognizedConfigurationProperties = new ArrayList<>();
+        recognizedConfigurationProperties.add(MAX_VERSIONS_PER_INSTANCE_PROPERTY);
+        recognizedConfigurationProperties.add(HISTORY_RETENTION_PERIOD_PROPERTY);
+
+        connectorType.setRecognizedConfigurationProperties(recognizedConfigurationProperties);
+
         super.connectorTypeBean = connectorType;
         super.setConnectorComponentDescription(OMRSAuditingComponent.INMEM_REPOSITORY_CONNECTOR);
     }
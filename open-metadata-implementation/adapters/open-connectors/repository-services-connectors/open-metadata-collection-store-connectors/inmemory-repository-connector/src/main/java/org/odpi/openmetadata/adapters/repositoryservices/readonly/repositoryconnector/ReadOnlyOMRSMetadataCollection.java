@@ -27,17 +27,19 @@ public class ReadOnlyOMRSMetadataCollection extends InMemoryOMRSMetadataCollecti
      * @param repositoryHelper class used to build type definitions and instances.
      * @param repositoryValidator class used to validate type definitions and instances.
      * @param metadataCollectionId unique Identifier of the metadata collection Id.
+     * @param configurationProperties configuration properties from the connection (may be null).
      */
     ReadOnlyOMRSMetadataCollection(ReadOnlyOMRSRepositoryConnector parentConnector,
                                    String                          repositoryName,
                                    OMRSRepositoryHelper            repositoryHelper,
                                    OMRSRepositoryValidator         repositoryValidator,
-                                   String                          metadataCollectionId)
+                                   String                          metadataCollectionId,
+                                   Map<String, Object>             configurationProperties)
     {
         /*
          * The metadata collection Id is the unique identifier for the metadata collection.  It is managed by the super class.
          */
-        super(parentConnector, repositoryName, repositoryHelper, repositoryValidator, metadataCollectionId);
+        super(parentConnector, repositoryName, repositoryHelper, repositoryValidator, metadataCollectionId, configurationProperties);
     }
 
 
@@ -42,7 +42,8 @@ public class ReadOnlyOMRSRepositoryConnector extends InMemoryOMRSRepositoryConne
                                                                           super.serverName,
                                                                           repositoryHelper,
                                                                           repositoryValidator,
-                                                                          metadataCollectionId);
+                                                                          metadataCollectionId,
+                                                                          connectionBean.getConfigurationProperties());
         }
     }
 }
\ No newline at end of file
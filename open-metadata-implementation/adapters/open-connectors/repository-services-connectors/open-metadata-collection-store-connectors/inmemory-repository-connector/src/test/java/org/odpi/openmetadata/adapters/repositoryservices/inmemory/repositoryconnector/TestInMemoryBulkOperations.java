@@ -0,0 +1,330 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.repositoryservices.inmemory.repositoryconnector;
+
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityProxy;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntitySummary;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceStatus;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceType;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Relationship;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.EntityDef;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.RelationshipDef;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryHelper;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryValidator;
+import org.odpi.openmetadata.repositoryservices.ffdc.exception.EntityNotKnownException;
+import org.odpi.openmetadata.repositoryservices.ffdc.exception.InvalidParameterException;
+import org.odpi.openmetadata.repositoryservices.ffdc.exception.StatusNotSupportedException;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.expectThrows;
+
+
+/**
+ * Verify that the bulk methods of the in-memory repository store every instance in a valid request and
+ * nothing from a request that fails part way through its list.
+ */
+public class TestInMemoryBulkOperations
+{
+    private static final String USER_ID                = "testUser";
+    private static final String REPOSITORY_NAME        = "testRepository";
+    private static final String ENTITY_TYPE_GUID       = "entity-type-guid";
+    private static final String ENTITY_TYPE_NAME       = "TestEntity";
+    private static final String RELATIONSHIP_TYPE_GUID = "relationship-type-guid";
+    private static final String RELATIONSHIP_TYPE_NAME = "TestRelationship";
+
+    @Mock
+    private OMRSRepositoryValidator repositoryValidator;
+    @Mock
+    private OMRSRepositoryHelper    repositoryHelper;
+
+    private InMemoryOMRSMetadataCollection metadataCollection;
+
+    /*
+     * Every relationship built by the helper, whether or not it is stored.
+     */
+    private List<Relationship> builtRelationships;
+
+
+    @BeforeMethod
+    public void setup() throws Exception
+    {
+        MockitoAnnotations.openMocks(this);
+
+        builtRelationships = new ArrayList<>();
+
+        EntityDef entityDef = new EntityDef();
+        entityDef.setGUID(ENTITY_TYPE_GUID);
+        entityDef.setName(ENTITY_TYPE_NAME);
+
+        RelationshipDef relationshipDef = new RelationshipDef();
+        relationshipDef.setGUID(RELATIONSHIP_TYPE_GUID);
+        relationshipDef.setName(RELATIONSHIP_TYPE_NAME);
+
+        when(repositoryHelper.getTypeDef(anyString(), anyString(), eq(ENTITY_TYPE_GUID), anyString())).thenReturn(entityDef);
+        when(repositoryHelper.getTypeDef(anyString(), anyString(), eq(RELATIONSHIP_TYPE_GUID), anyString())).thenReturn(relationshipDef);
+
+        when(repositoryHelper.getNewEntity(anyString(), any(), any(), anyString(), anyString(), any(), any())).thenAnswer(invocation -> {
+            EntityDetail entity = new EntityDetail();
+            entity.setGUID(UUID.randomUUID().toString());
+            entity.setType(getInstanceType(invocation.getArgument(4)));
+            entity.setProperties(invocation.getArgument(5));
+            entity.setClassifications(invocation.getArgument(6));
+            entity.setStatus(InstanceStatus.ACTIVE);
+            return entity;
+        });
+
+        when(repositoryHelper.getNewEntityProxy(anyString(), any())).thenAnswer(invocation -> {
+            EntityDetail entity = invocation.getArgument(1);
+
+            if (entity == null)
+            {
+                return null;
+            }
+
+            EntityProxy entityProxy = new EntityProxy();
+            entityProxy.setGUID(entity.getGUID());
+            entityProxy.setType(entity.getType());
+            return entityProxy;
+        });
+
+        when(repositoryHelper.getNewRelationship(anyString(), any(), any(), anyString(), anyString(), any())).thenAnswer(invocation -> {
+            Relationship relationship = new Relationship();
+            relationship.setGUID(UUID.randomUUID().toString());
+            relationship.setType(getInstanceType(invocation.getArgument(4)));
+            relationship.setStatus(InstanceStatus.ACTIVE);
+            builtRelationships.add(relationship);
+            return relationship;
+        });
+
+        /*
+         * An entity that is not in the store has no proxy.
+         */
+        doThrow(EntityNotKnownException.class).when(repositoryValidator).validateEntityFromStore(anyString(),
+                                                                                                 anyString(),
+                                                                                                 eq((EntitySummary) null),
+                                                                                                 anyString());
+
+        metadataCollection = new InMemoryOMRSMetadataCollection(mock(InMemoryOMRSRepositoryConnector.class),
+                                                                REPOSITORY_NAME,
+                                                                repositoryHelper,
+                                                                repositoryValidator,
+                                                                "test-metadata-collection-id",
+                                                                null);
+    }
+
+
+    /**
+     * Build the type of a new instance.
+     *
+     * @param typeName name of the type
+     * @return instance type
+     */
+    private InstanceType getInstanceType(String typeName)
+    {
+        InstanceType type = new InstanceType();
+        type.setTypeDefName(typeName);
+        return type;
+    }
+
+
+    /**
+     * Build a template for a new entity.
+     *
+     * @param status requested status
+     * @return template
+     */
+    private EntityDetail getEntityTemplate(InstanceStatus status)
+    {
+        InstanceType type = new InstanceType();
+        type.setTypeDefGUID(ENTITY_TYPE_GUID);
+
+        EntityDetail template = new EntityDetail();
+        template.setType(type);
+        template.setStatus(status);
+
+        return template;
+    }
+
+
+    /**
+     * Build a template for a new relationship.
+     *
+     * @param entityOneGUID unique identifier of the entity at end one
+     * @param entityTwoGUID unique identifier of the entity at end two
+     * @return template
+     */
+    private Relationship getRelationshipTemplate(String entityOneGUID,
+                                                 String entityTwoGUID)
+    {
+        InstanceType type = new InstanceType();
+        type.setTypeDefGUID(RELATIONSHIP_TYPE_GUID);
+
+        EntityProxy entityOne = new EntityProxy();
+        entityOne.setGUID(entityOneGUID);
+
+        EntityProxy entityTwo = new EntityProxy();
+        entityTwo.setGUID(entityTwoGUID);
+
+        Relationship template = new Relationship();
+        template.setType(type);
+        template.setEntityOneProxy(entityOne);
+        template.setEntityTwoProxy(entityTwo);
+
+        return template;
+    }
+
+
+    /**
+     * Add entities to use as the ends of relationships.
+     *
+     * @param count number of entities
+     * @return unique identifiers of the new entities
+     * @throws Exception unexpected failure
+     */
+    private List<String> addEndEntities(int count) throws Exception
+    {
+        List<EntityDetail> templates = new ArrayList<>();
+
+        for (int i = 0; i < count; i++)
+        {
+            templates.add(getEntityTemplate(null));
+        }
+
+        List<String> entityGUIDs = new ArrayList<>();
+
+        for (EntityDetail entity : metadataCollection.addEntities(USER_ID, templates))
+        {
+            entityGUIDs.add(entity.getGUID());
+        }
+
+        return entityGUIDs;
+    }
+
+
+    @Test
+    public void testAddEntitiesStoresEveryEntity() throws Exception
+    {
+        List<EntityDetail> results = metadataCollection.addEntities(USER_ID,
+                                                                    Arrays.asList(getEntityTemplate(InstanceStatus.DRAFT),
+                                                                                  getEntityTemplate(null),
+                                                                                  getEntityTemplate(InstanceStatus.PROPOSED)));
+
+        assertEquals(results.size(), 3);
+        assertEquals(results.get(0).getStatus(), InstanceStatus.DRAFT);
+        assertEquals(results.get(1).getStatus(), InstanceStatus.ACTIVE);
+        assertEquals(results.get(2).getStatus(), InstanceStatus.PROPOSED);
+
+        for (EntityDetail entity : results)
+        {
+            assertNotNull(metadataCollection.isEntityKnown(USER_ID, entity.getGUID()));
+        }
+
+        /*
+         * The type is only looked up once for the whole list.
+         */
+        verify(repositoryHelper).getTypeDef(anyString(), anyString(), eq(ENTITY_TYPE_GUID), anyString());
+    }
+
+
+    @Test
+    public void testAddEntitiesValidationFailureStoresNothing() throws Exception
+    {
+        doThrow(StatusNotSupportedException.class).when(repositoryValidator).validateInstanceStatus(anyString(),
+                                                                                                    anyString(),
+                                                                                                    eq(InstanceStatus.PROPOSED),
+                                                                                                    any(),
+                                                                                                    anyString());
+
+        expectThrows(StatusNotSupportedException.class,
+                     () -> metadataCollection.addEntities(USER_ID,
+                                                          Arrays.asList(getEntityTemplate(InstanceStatus.DRAFT),
+                                                                        getEntityTemplate(InstanceStatus.PROPOSED),
+                                                                        getEntityTemplate(InstanceStatus.ACTIVE))));
+
+        verify(repositoryHelper, never()).getNewEntity(anyString(), any(), any(), anyString(), anyString(), any(), any());
+    }
+
+
+    @Test
+    public void testAddRelationshipsStoresEveryRelationship() throws Exception
+    {
+        List<String> entityGUIDs = addEndEntities(3);
+
+        List<Relationship> results = metadataCollection.addRelationships(USER_ID,
+                                                                         Arrays.asList(getRelationshipTemplate(entityGUIDs.get(0), entityGUIDs.get(1)),
+                                                                                       getRelationshipTemplate(entityGUIDs.get(1), entityGUIDs.get(2)),
+                                                                                       getRelationshipTemplate(entityGUIDs.get(0), entityGUIDs.get(2))));
+
+        assertEquals(results.size(), 3);
+        assertEquals(results.get(0).getEntityOneProxy().getGUID(), entityGUIDs.get(0));
+        assertEquals(results.get(1).getEntityOneProxy().getGUID(), entityGUIDs.get(1));
+        assertEquals(results.get(2).getEntityTwoProxy().getGUID(), entityGUIDs.get(2));
+
+        for (Relationship relationship : results)
+        {
+            assertNotNull(metadataCollection.isRelationshipKnown(USER_ID, relationship.getGUID()));
+        }
+    }
+
+
+    @Test
+    public void testAddRelationshipsUnknownEndStoresNothing() throws Exception
+    {
+        List<String> entityGUIDs = addEndEntities(2);
+
+        expectThrows(EntityNotKnownException.class,
+                     () -> metadataCollection.addRelationships(USER_ID,
+                                                               Arrays.asList(getRelationshipTemplate(entityGUIDs.get(0), entityGUIDs.get(1)),
+                                                                             getRelationshipTemplate(entityGUIDs.get(1), "unknown-entity"),
+                                                                             getRelationshipTemplate(entityGUIDs.get(0), entityGUIDs.get(1)))));
+
+        assertEquals(builtRelationships.size(), 2);
+
+        for (Relationship relationship : builtRelationships)
+        {
+            assertNull(metadataCollection.isRelationshipKnown(USER_ID, relationship.getGUID()));
+        }
+    }
+
+
+    @Test
+    public void testAddRelationshipsInvalidEndsStoresNothing() throws Exception
+    {
+        List<String> entityGUIDs = addEndEntities(2);
+
+        doNothing().doThrow(InvalidParameterException.class).when(repositoryValidator).validateRelationshipEnds(anyString(),
+                                                                                                                 any(),
+                                                                                                                 any(),
+                                                                                                                 any(),
+                                                                                                                 anyString());
+
+        expectThrows(InvalidParameterException.class,
+                     () -> metadataCollection.addRelationships(USER_ID,
+                                                               Arrays.asList(getRelationshipTemplate(entityGUIDs.get(0), entityGUIDs.get(1)),
+                                                                             getRelationshipTemplate(entityGUIDs.get(1), entityGUIDs.get(0)))));
+
+        assertEquals(builtRelationships.size(), 2);
+        assertNull(metadataCollection.isRelationshipKnown(USER_ID, builtRelationships.get(0).getGUID()));
+    }
+}
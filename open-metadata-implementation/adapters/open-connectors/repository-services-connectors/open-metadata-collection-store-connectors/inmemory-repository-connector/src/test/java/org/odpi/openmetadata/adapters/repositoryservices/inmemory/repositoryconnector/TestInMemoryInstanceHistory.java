@@ -0,0 +1,91 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.repositoryservices.inmemory.repositoryconnector;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.testng.annotations.Test;
+
+import java.util.Date;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+
+public class TestInMemoryInstanceHistory
+{
+    private static final long HOUR = 60L * 60L * 1000L;
+
+    @Test
+    void testAsOfTimeQueries()
+    {
+        InMemoryOMRSMetadataStore store = new InMemoryOMRSMetadataStore();
+
+        store.createEntityInStore(getEntity("1111", 1L, 10 * HOUR, null));
+        store.updateEntityInStore(getEntity("1111", 2L, 10 * HOUR, 12 * HOUR));
+        store.updateEntityInStore(getEntity("1111", 3L, 10 * HOUR, 15 * HOUR));
+        store.createEntityInStore(getEntity("2222", 1L, 13 * HOUR, null));
+
+        assertNull(store.getEntity("1111", new Date(9 * HOUR)));
+        assertEquals(store.getEntity("1111", new Date(10 * HOUR)).getVersion(), 1L);
+        assertEquals(store.getEntity("1111", new Date(14 * HOUR)).getVersion(), 2L);
+        assertEquals(store.getEntity("1111", new Date(16 * HOUR)).getVersion(), 3L);
+        assertEquals(store.getEntity("1111", null).getVersion(), 3L);
+
+        assertTrue(store.timeWarpEntityStore(new Date(9 * HOUR)).isEmpty());
+        assertEquals(store.timeWarpEntityStore(new Date(12 * HOUR)).keySet().size(), 1);
+        assertEquals(store.timeWarpEntityStore(new Date(12 * HOUR)).get("1111").getVersion(), 2L);
+        assertEquals(store.timeWarpEntityStore(new Date(13 * HOUR)).keySet().size(), 2);
+
+        EntityDetail restoredEntity = store.retrievePreviousVersionOfEntity("1111");
+        assertEquals(restoredEntity.getVersion(), 4L);
+        assertEquals(restoredEntity.getUpdateTime().getTime() > 15 * HOUR, true);
+        assertEquals(store.getEntity("1111", new Date(16 * HOUR)).getVersion(), 3L);
+    }
+
+
+    @Test
+    void testRetentionPolicy()
+    {
+        InMemoryOMRSMetadataStore store = new InMemoryOMRSMetadataStore(2, 0L);
+
+        store.createEntityInStore(getEntity("1111", 1L, 10 * HOUR, null));
+        store.updateEntityInStore(getEntity("1111", 2L, 10 * HOUR, 11 * HOUR));
+        store.updateEntityInStore(getEntity("1111", 3L, 10 * HOUR, 12 * HOUR));
+        store.updateEntityInStore(getEntity("1111", 4L, 10 * HOUR, 13 * HOUR));
+
+        assertNull(store.getEntity("1111", new Date(10 * HOUR)));
+        assertEquals(store.getEntity("1111", new Date(11 * HOUR)).getVersion(), 2L);
+
+        InMemoryOMRSMetadataStore expiringStore = new InMemoryOMRSMetadataStore(0, HOUR);
+
+        expiringStore.createEntityInStore(getEntity("1111", 1L, 10 * HOUR, null));
+        expiringStore.updateEntityInStore(getEntity("1111", 2L, 10 * HOUR, 11 * HOUR));
+        expiringStore.updateEntityInStore(getEntity("1111", 3L, 10 * HOUR, 12 * HOUR));
+
+        /*
+         * The most recent previous version is always kept.
+         */
+        assertNull(expiringStore.getEntity("1111", new Date(10 * HOUR)));
+        assertEquals(expiringStore.getEntity("1111", new Date(11 * HOUR)).getVersion(), 2L);
+    }
+
+
+    private EntityDetail getEntity(String guid,
+                                   long   version,
+                                   long   createTime,
+                                   Long   updateTime)
+    {
+        EntityDetail entity = new EntityDetail();
+        entity.setGUID(guid);
+        entity.setVersion(version);
+        entity.setCreateTime(new Date(createTime));
+
+        if (updateTime != null)
+        {
+            entity.setUpdateTime(new Date(updateTime));
+        }
+
+        return entity;
+    }
+}
@@ -0,0 +1,153 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.repositoryservices.inmemory.repositoryconnector;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.*;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.PrimitiveDefCategory;
+import org.testng.annotations.Test;
+
+import java.util.*;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+
+public class TestInMemoryOMRSMetadataIndexes
+{
+    @Test
+    void testEntityIndexes()
+    {
+        InMemoryOMRSMetadataStore store = new InMemoryOMRSMetadataStore();
+
+        EntityDetail entity1 = getEntity("1111", "Asset", "Confidentiality", "asset1");
+        EntityDetail entity2 = getEntity("2222", "GlossaryTerm", null, "term1");
+
+        store.createEntityInStore(entity1);
+        store.createEntityInStore(entity2);
+
+        assertEquals(getGUIDs(store.getEntityCandidates(Collections.singletonList("Asset"), null, null)), Collections.singleton("1111"));
+        assertEquals(getGUIDs(store.getEntityCandidates(null, Collections.singletonList("Confidentiality"), null)), Collections.singleton("1111"));
+        assertEquals(getGUIDs(store.getEntityCandidates(null, null, Collections.singletonMap("qualifiedName", "term1"))), Collections.singleton("2222"));
+        assertEquals(store.getEntityCandidates(null, null, null).size(), 2);
+
+        /*
+         * Unindexed properties do not restrict the candidates.
+         */
+        assertEquals(store.getEntityCandidates(null, null, Collections.singletonMap("displayName", "term1")).size(), 2);
+
+        /*
+         * Changes made in place are picked up when the entity is saved.
+         */
+        entity1.setType(getType("DataSet"));
+        entity1.setClassifications(null);
+        store.updateEntityInStore(entity1);
+
+        assertTrue(store.getEntityCandidates(Collections.singletonList("Asset"), null, null).isEmpty());
+        assertTrue(store.getEntityCandidates(null, Collections.singletonList("Confidentiality"), null).isEmpty());
+        assertEquals(getGUIDs(store.getEntityCandidates(Collections.singletonList("DataSet"), null, null)), Collections.singleton("1111"));
+
+        /*
+         * New unique properties index the entities already stored.
+         */
+        store.addUniquePropertyIndex("displayName");
+        assertEquals(getGUIDs(store.getEntityCandidates(null, null, Collections.singletonMap("displayName", "term1 name"))), Collections.singleton("2222"));
+
+        store.removeEntityFromStore(entity2);
+        assertTrue(store.getEntityCandidates(null, null, Collections.singletonMap("qualifiedName", "term1")).isEmpty());
+    }
+
+
+    @Test
+    void testRelationshipIndexes()
+    {
+        InMemoryOMRSMetadataStore store = new InMemoryOMRSMetadataStore();
+
+        store.createRelationshipInStore(getRelationship("3333", "SemanticAssignment", "1111", "2222"));
+        store.createRelationshipInStore(getRelationship("4444", "AttributeForSchema", "2222", "5555"));
+
+        assertEquals(getGUIDs(store.getRelationshipsForEntity("1111")), Collections.singleton("3333"));
+        assertEquals(getGUIDs(store.getRelationshipsForEntity("2222")), new HashSet<>(Arrays.asList("3333", "4444")));
+        assertEquals(getGUIDs(store.getRelationshipCandidates(Collections.singletonList("AttributeForSchema"))), Collections.singleton("4444"));
+
+        store.removeReferenceRelationshipFromStore("3333");
+
+        assertTrue(store.getRelationshipsForEntity("1111").isEmpty());
+        assertEquals(getGUIDs(store.getRelationshipsForEntity("2222")), Collections.singleton("4444"));
+    }
+
+
+    private EntityDetail getEntity(String guid,
+                                   String typeName,
+                                   String classificationName,
+                                   String qualifiedName)
+    {
+        EntityDetail entity = new EntityDetail();
+        entity.setGUID(guid);
+        entity.setType(getType(typeName));
+
+        if (classificationName != null)
+        {
+            Classification classification = new Classification();
+            classification.setName(classificationName);
+            entity.setClassifications(Collections.singletonList(classification));
+        }
+
+        InstanceProperties properties = new InstanceProperties();
+        properties.setProperty("qualifiedName", getStringValue(qualifiedName));
+        properties.setProperty("displayName", getStringValue(qualifiedName + " name"));
+        entity.setProperties(properties);
+
+        return entity;
+    }
+
+
+    private Relationship getRelationship(String guid,
+                                         String typeName,
+                                         String entityOneGUID,
+                                         String entityTwoGUID)
+    {
+        Relationship relationship = new Relationship();
+        relationship.setGUID(guid);
+        relationship.setType(getType(typeName));
+
+        EntityProxy entityOneProxy = new EntityProxy();
+        entityOneProxy.setGUID(entityOneGUID);
+        relationship.setEntityOneProxy(entityOneProxy);
+
+        EntityProxy entityTwoProxy = new EntityProxy();
+        entityTwoProxy.setGUID(entityTwoGUID);
+        relationship.setEntityTwoProxy(entityTwoProxy);
+
+        return relationship;
+    }
+
+
+    private InstanceType getType(String typeName)
+    {
+        InstanceType type = new InstanceType();
+        type.setTypeDefName(typeName);
+        return type;
+    }
+
+
+    private PrimitivePropertyValue getStringValue(String value)
+    {
+        PrimitivePropertyValue propertyValue = new PrimitivePropertyValue();
+        propertyValue.setPrimitiveDefCategory(PrimitiveDefCategory.OM_PRIMITIVE_TYPE_STRING);
+        propertyValue.setPrimitiveValue(value);
+        return propertyValue;
+    }
+
+
+    private Set<String> getGUIDs(Collection<? extends InstanceHeader> instances)
+    {
+        Set<String> guids = new HashSet<>();
+
+        for (InstanceHeader instance : instances)
+        {
+            guids.add(instance.getGUID());
+        }
+
+        return guids;
+    }
+}
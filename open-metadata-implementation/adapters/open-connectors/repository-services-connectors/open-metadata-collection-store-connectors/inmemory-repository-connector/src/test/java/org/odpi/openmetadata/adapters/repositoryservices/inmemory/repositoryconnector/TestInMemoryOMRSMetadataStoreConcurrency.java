@@ -0,0 +1,490 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.repositoryservices.inmemory.repositoryconnector;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Classification;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityProxy;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceHeader;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceProperties;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceType;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.PrimitivePropertyValue;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Relationship;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.PrimitiveDefCategory;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+
+/**
+ * Verify that readers of the in-memory metadata store never see a missing or half-updated instance while
+ * other threads are updating the same instances.
+ */
+public class TestInMemoryOMRSMetadataStoreConcurrency
+{
+    private static final int    instanceCount  = 20;
+    private static final int    writerCount    = 4;
+    private static final int    readerCount    = 4;
+    private static final int    updateCount    = 500;
+    private static final String hubGUID        = "hub";
+    private static final String entityType     = "Asset";
+    private static final String classification = "Confidentiality";
+
+    /*
+     * The last version number used for each instance.  Only the writer that owns an instance updates it.
+     */
+    private final Map<String, Long> lastVersions = Collections.synchronizedMap(new HashMap<>());
+
+
+    @Test(timeOut = 120000)
+    void testReadersSeeEveryEntityWhileItIsUpdated() throws Exception
+    {
+        InMemoryOMRSMetadataStore store = new InMemoryOMRSMetadataStore();
+        List<String>              guids = getGUIDs("entity");
+
+        for (String guid : guids)
+        {
+            store.createEntityInStore(getEntity(guid, 1));
+        }
+
+        runConcurrently(guids,
+                        guid -> store.updateEntityInStore(getEntity(guid, 0)),
+                        () -> checkEntities(store, guids));
+
+        for (String guid : guids)
+        {
+            assertEquals(store.getEntity(guid).getVersion(), updateCount + 1);
+        }
+    }
+
+
+    @Test(timeOut = 120000)
+    void testReadersSeeEveryRelationshipWhileItIsUpdated() throws Exception
+    {
+        InMemoryOMRSMetadataStore store = new InMemoryOMRSMetadataStore();
+        List<String>              guids = getGUIDs("relationship");
+
+        for (String guid : guids)
+        {
+            store.createRelationshipInStore(getRelationship(guid, 1));
+        }
+
+        runConcurrently(guids,
+                        guid -> store.updateRelationshipInStore(getRelationship(guid, 0)),
+                        () -> checkRelationships(store, guids));
+
+        for (String guid : guids)
+        {
+            assertEquals(store.getRelationship(guid).getVersion(), updateCount + 1);
+        }
+    }
+
+
+    @Test(timeOut = 120000)
+    void testRemovedEntitiesAreNotReturned() throws Exception
+    {
+        InMemoryOMRSMetadataStore store = new InMemoryOMRSMetadataStore();
+        List<String>              guids = getGUIDs("entity");
+
+        for (String guid : guids)
+        {
+            store.createEntityInStore(getEntity(guid, 1));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(readerCount + 1);
+
+        try
+        {
+            AtomicBoolean           removing = new AtomicBoolean(true);
+            List<Future<Boolean>>   results  = new ArrayList<>();
+
+            for (int reader = 0; reader < readerCount; reader++)
+            {
+                results.add(executor.submit(() -> {
+                    while (removing.get())
+                    {
+                        /*
+                         * An entity is either returned whole or not at all.
+                         */
+                        for (EntityDetail entity : store.getEntityCandidates(Collections.singletonList(entityType), null, null))
+                        {
+                            if (! isConsistent(entity))
+                            {
+                                return false;
+                            }
+                        }
+                    }
+
+                    return true;
+                }));
+            }
+
+            executor.submit(() -> {
+                for (String guid : guids)
+                {
+                    store.removeEntityFromStore(store.getEntity(guid));
+                }
+
+                removing.set(false);
+                return true;
+            }).get();
+
+            for (Future<Boolean> result : results)
+            {
+                assertTrue(result.get());
+            }
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+
+        assertTrue(store.getEntities().isEmpty());
+        assertTrue(store.getEntityCandidates(Collections.singletonList(entityType), null, null).isEmpty());
+
+        for (String guid : guids)
+        {
+            assertNull(store.getEntity(guid));
+        }
+    }
+
+
+    /**
+     * An update to one instance.
+     */
+    private interface Update
+    {
+        /**
+         * Store the next version of an instance.
+         *
+         * @param guid unique identifier of the instance
+         */
+        void update(String guid);
+    }
+
+
+    /**
+     * Run writers that each update their own share of the instances while readers check the store.
+     *
+     * @param guids unique identifiers of the instances
+     * @param update stores the next version of an instance
+     * @param check reads the store and returns false if something is missing or inconsistent
+     * @throws Exception the test failed
+     */
+    private void runConcurrently(List<String>      guids,
+                                 Update            update,
+                                 Callable<Boolean> check) throws Exception
+    {
+        ExecutorService executor = Executors.newFixedThreadPool(writerCount + readerCount);
+
+        try
+        {
+            AtomicBoolean         writing = new AtomicBoolean(true);
+            List<Future<Boolean>> writers = new ArrayList<>();
+            List<Future<Boolean>> readers = new ArrayList<>();
+
+            for (int reader = 0; reader < readerCount; reader++)
+            {
+                readers.add(executor.submit(() -> {
+                    while (writing.get())
+                    {
+                        if (! check.call())
+                        {
+                            return false;
+                        }
+                    }
+
+                    return check.call();
+                }));
+            }
+
+            for (int writer = 0; writer < writerCount; writer++)
+            {
+                final int first = writer;
+
+                writers.add(executor.submit(() -> {
+                    for (int i = 0; i < updateCount; i++)
+                    {
+                        for (int instance = first; instance < guids.size(); instance = instance + writerCount)
+                        {
+                            update.update(guids.get(instance));
+                        }
+                    }
+
+                    return true;
+                }));
+            }
+
+            for (Future<Boolean> writer : writers)
+            {
+                assertTrue(writer.get());
+            }
+
+            writing.set(false);
+
+            for (Future<Boolean> reader : readers)
+            {
+                assertTrue(reader.get());
+            }
+        }
+        finally
+        {
+            executor.shutdownNow();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+
+    /**
+     * Check that every entity can be found by GUID and through each of the indexes, and that each version
+     * returned is complete.
+     *
+     * @param store store to check
+     * @param guids unique identifiers of the entities
+     * @return true if every entity was found
+     */
+    private boolean checkEntities(InMemoryOMRSMetadataStore store,
+                                  List<String>              guids)
+    {
+        for (String guid : guids)
+        {
+            EntityDetail entity = store.getEntity(guid);
+
+            if ((entity == null) || (! isConsistent(entity)))
+            {
+                return false;
+            }
+
+            if (! getGUIDs(store.getEntityCandidates(null, null, Collections.singletonMap("qualifiedName", guid))).equals(Collections.singleton(guid)))
+            {
+                return false;
+            }
+        }
+
+        Set<String> expectedGUIDs = new HashSet<>(guids);
+
+        return (getGUIDs(store.getEntityCandidates(Collections.singletonList(entityType), null, null)).equals(expectedGUIDs)) &&
+               (getGUIDs(store.getEntityCandidates(null, Collections.singletonList(classification), null)).equals(expectedGUIDs)) &&
+               (getGUIDs(store.getEntities()).equals(expectedGUIDs));
+    }
+
+
+    /**
+     * Check that every relationship can be found by GUID, by type and from the entity it is connected to,
+     * and that each version returned is complete.
+     *
+     * @param store store to check
+     * @param guids unique identifiers of the relationships
+     * @return true if every relationship was found
+     */
+    private boolean checkRelationships(InMemoryOMRSMetadataStore store,
+                                       List<String>              guids)
+    {
+        for (String guid : guids)
+        {
+            Relationship relationship = store.getRelationship(guid);
+
+            if ((relationship == null) || (! isConsistent(relationship)))
+            {
+                return false;
+            }
+        }
+
+        Set<String> expectedGUIDs = new HashSet<>(guids);
+
+        return (getGUIDs(store.getRelationshipsForEntity(hubGUID)).equals(expectedGUIDs)) &&
+               (getGUIDs(store.getRelationshipCandidates(Collections.singletonList(entityType + "Link"))).equals(expectedGUIDs)) &&
+               (getGUIDs(store.getRelationships()).equals(expectedGUIDs));
+    }
+
+
+    /**
+     * Return whether the version number in the header matches the version stored in the properties.
+     * A mismatch means the reader saw part of one version and part of another.
+     *
+     * @param instance instance to check
+     * @return boolean flag
+     */
+    private boolean isConsistent(InstanceHeader instance)
+    {
+        InstanceProperties properties;
+
+        if (instance instanceof EntityDetail)
+        {
+            properties = ((EntityDetail)instance).getProperties();
+        }
+        else
+        {
+            properties = ((Relationship)instance).getProperties();
+        }
+
+        PrimitivePropertyValue version = (PrimitivePropertyValue)properties.getPropertyValue("version");
+
+        return (version != null) && (Long.toString(instance.getVersion()).equals(version.getPrimitiveValue()));
+    }
+
+
+    /**
+     * Return the version number to use for an instance.
+     *
+     * @param guid unique identifier of the instance
+     * @param version requested version or zero for the next one
+     * @return version number
+     */
+    private long getVersion(String guid,
+                            long   version)
+    {
+        if (version == 0)
+        {
+            version = lastVersions.get(guid) + 1;
+        }
+
+        lastVersions.put(guid, version);
+
+        return version;
+    }
+
+
+    /**
+     * Build a new version of an entity.  Each version is a new object so the stored versions are never
+     * changed in place.
+     *
+     * @param guid unique identifier of the entity
+     * @param version version number or zero for the next one
+     * @return entity
+     */
+    private EntityDetail getEntity(String guid,
+                                   long   version)
+    {
+        EntityDetail entity = new EntityDetail();
+        entity.setGUID(guid);
+        entity.setType(getType(entityType));
+        entity.setVersion(getVersion(guid, version));
+
+        Classification entityClassification = new Classification();
+        entityClassification.setName(classification);
+        entity.setClassifications(Collections.singletonList(entityClassification));
+
+        InstanceProperties properties = new InstanceProperties();
+        properties.setProperty("qualifiedName", getStringValue(guid));
+        properties.setProperty("version", getStringValue(Long.toString(entity.getVersion())));
+        entity.setProperties(properties);
+
+        return entity;
+    }
+
+
+    /**
+     * Build a new version of a relationship from the hub entity.
+     *
+     * @param guid unique identifier of the relationship
+     * @param version version number or zero for the next one
+     * @return relationship
+     */
+    private Relationship getRelationship(String guid,
+                                         long   version)
+    {
+        Relationship relationship = new Relationship();
+        relationship.setGUID(guid);
+        relationship.setType(getType(entityType + "Link"));
+        relationship.setVersion(getVersion(guid, version));
+
+        EntityProxy entityOneProxy = new EntityProxy();
+        entityOneProxy.setGUID(hubGUID);
+        relationship.setEntityOneProxy(entityOneProxy);
+
+        EntityProxy entityTwoProxy = new EntityProxy();
+        entityTwoProxy.setGUID(guid + "End");
+        relationship.setEntityTwoProxy(entityTwoProxy);
+
+        InstanceProperties properties = new InstanceProperties();
+        properties.setProperty("version", getStringValue(Long.toString(relationship.getVersion())));
+        relationship.setProperties(properties);
+
+        return relationship;
+    }
+
+
+    /**
+     * Return the unique identifiers for the test instances.
+     *
+     * @param prefix start of each identifier
+     * @return list of identifiers
+     */
+    private List<String> getGUIDs(String prefix)
+    {
+        List<String> guids = new ArrayList<>();
+
+        for (int i = 0; i < instanceCount; i++)
+        {
+            guids.add(prefix + i);
+        }
+
+        return guids;
+    }
+
+
+    /**
+     * Return the unique identifiers of a collection of instances.
+     *
+     * @param instances instances
+     * @return set of identifiers
+     */
+    private Set<String> getGUIDs(Collection<? extends InstanceHeader> instances)
+    {
+        Set<String> guids = new HashSet<>();
+
+        for (InstanceHeader instance : instances)
+        {
+            guids.add(instance.getGUID());
+        }
+
+        return guids;
+    }
+
+
+    /**
+     * Build the instance type for an instance.
+     *
+     * @param typeName name of the type
+     * @return instance type
+     */
+    private InstanceType getType(String typeName)
+    {
+        InstanceType type = new InstanceType();
+        type.setTypeDefName(typeName);
+        return type;
+    }
+
+
+    /**
+     * Build a string property value.
+     *
+     * @param value string value
+     * @return property value
+     */
+    private PrimitivePropertyValue getStringValue(String value)
+    {
+        PrimitivePropertyValue propertyValue = new PrimitivePropertyValue();
+        propertyValue.setPrimitiveDefCategory(PrimitiveDefCategory.OM_PRIMITIVE_TYPE_STRING);
+        propertyValue.setPrimitiveValue(value);
+        return propertyValue;
+    }
+}
@@ -8,6 +8,8 @@ import com.fasterxml.jackson.annotation.JsonAutoDetect;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonInclude;
 
+import java.util.Map;
+
 import static com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility.NONE;
 import static com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility.PUBLIC_ONLY;
 
@@ -30,6 +32,10 @@ import static com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility.PUBLIC_
  *         enterpriseOMRSTopicProtocolVersion - the protocol version for the events passed on the
  *                                            enterprise OMRS topic.
  *     </li>
+ *     <li>
+ *         enterpriseRepositoryConfigurationProperties - configuration properties for the enterprise repository
+ *                                                     connectors, such as whether federated queries run in parallel.
+ *     </li>
  * </ul>
  */
 @JsonAutoDetect(getterVisibility=PUBLIC_ONLY, setterVisibility=PUBLIC_ONLY, fieldVisibility=NONE)
@@ -43,6 +49,7 @@ public class EnterpriseAccessConfig extends AdminServicesConfigHeader
     private String                           enterpriseMetadataCollectionId     = null;
     private Connection                       enterpriseOMRSTopicConnection      = null;
     private OpenMetadataEventProtocolVersion enterpriseOMRSTopicProtocolVersion = null;
+    private Map<String, Object>              enterpriseRepositoryConfigurationProperties = null;
 
 
     /**
@@ -179,6 +186,30 @@ public class EnterpriseAccessConfig extends AdminServicesConfigHeader
     }
 
 
+    /**
+     * Return the configuration properties for the enterprise repository connectors.  These control how
+     * requests are federated across the open metadata repository cohort(s).
+     *
+     * @return map of property names to values
+     */
+    public Map<String, Object> getEnterpriseRepositoryConfigurationProperties()
+    {
+        return enterpriseRepositoryConfigurationProperties;
+    }
+
+
+    /**
+     * Set up the configuration properties for the enterprise repository connectors.  These control how
+     * requests are federated across the open metadata repository cohort(s).
+     *
+     * @param enterpriseRepositoryConfigurationProperties map of property names to values
+     */
+    public void setEnterpriseRepositoryConfigurationProperties(Map<String, Object> enterpriseRepositoryConfigurationProperties)
+    {
+        this.enterpriseRepositoryConfigurationProperties = enterpriseRepositoryConfigurationProperties;
+    }
+
+
     /**
      * Standard toString method.
      *
@@ -12,15 +12,16 @@ import static com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility.NONE;
 import static com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility.PUBLIC_ONLY;
 
 /**
- * OpenMetadataEventProtocolVersion provides the identifier for the version number of the event payload.  There is
- * only one version at the moment which is why it looks a little sad.
+ * OpenMetadataEventProtocolVersion provides the identifier for the version number of the event payload.
+ * V1_COMPRESSED sends the same events as V1 but compresses them once all members of the cohort support it.
  */
 @JsonAutoDetect(getterVisibility=PUBLIC_ONLY, setterVisibility=PUBLIC_ONLY, fieldVisibility=NONE)
 @JsonInclude(JsonInclude.Include.NON_NULL)
 @JsonIgnoreProperties(ignoreUnknown=true)
 public enum OpenMetadataEventProtocolVersion implements Serializable
 {
-    V1 (1, "V1", "Version 1");
+    V1            (1, "V1", "Version 1"),
+    V1_COMPRESSED (2, "V1 Compressed", "Version 1 with compressed events when all members of the cohort support them");
 
     private static final long     serialVersionUID = 1L;
 
@@ -15,6 +15,7 @@ import org.odpi.openmetadata.frameworks.governanceaction.properties.ActionTarget
 import org.odpi.openmetadata.frameworks.governanceaction.properties.RequestSourceElement;
 import org.odpi.openmetadata.governanceservers.enginehostservices.admin.GovernanceEngineHandler;
 import org.odpi.openmetadata.governanceservers.enginehostservices.admin.GovernanceServiceCache;
+import org.odpi.openmetadata.governanceservers.enginehostservices.admin.GovernanceServiceExecutor;
 import org.odpi.openmetadata.governanceservers.enginehostservices.admin.GovernanceServiceHandler;
 
 import java.util.*;
@@ -95,7 +96,13 @@ public class DiscoveryEngineHandler extends GovernanceEngineHandler
 
         if (discoveryServiceCache != null)
         {
-            return runDiscoveryService(assetGUID, discoveryRequestType, analysisParameters, annotationTypes, discoveryServiceCache);
+            return runDiscoveryService(assetGUID,
+                                       discoveryRequestType,
+                                       analysisParameters,
+                                       annotationTypes,
+                                       discoveryServiceCache,
+                                       GovernanceServiceExecutor.INTERACTIVE_PRIORITY,
+                                       methodName);
         }
 
         return null;
@@ -146,7 +153,9 @@ public class DiscoveryEngineHandler extends GovernanceEngineHandler
                                                 discoveryRequestType,
                                                 analysisParameters,
                                                 annotationTypes,
-                                                discoveryServiceCache);
+                                                discoveryServiceCache,
+                                                GovernanceServiceExecutor.GOVERNANCE_ACTION_PRIORITY,
+                                                methodName);
                         }
                     }
 
@@ -218,6 +227,8 @@ public class DiscoveryEngineHandler extends GovernanceEngineHandler
                 }
             }
 
+            governanceServiceExecutor.validateCapacity(governanceServiceCache.getGovernanceServiceName(), requestType, methodName);
+
             DiscoveryServiceHandler discoveryServiceHandler = this.getDiscoveryServiceHandler(assetGUID,
                                                                                               requestType,
                                                                                               requestParameters,
@@ -225,8 +236,10 @@ public class DiscoveryEngineHandler extends GovernanceEngineHandler
                                                                                               governanceActionGUID,
                                                                                               governanceServiceCache);
 
-            Thread thread = new Thread(discoveryServiceHandler, governanceServiceCache.getGovernanceServiceName() + assetGUID + new Date().toString());
-            thread.start();
+            super.runGovernanceServiceHandler(discoveryServiceHandler,
+                                              requestType,
+                                              GovernanceServiceExecutor.GOVERNANCE_ACTION_PRIORITY,
+                                              methodName);
 
             return discoveryServiceHandler;
         }
@@ -236,13 +249,15 @@ public class DiscoveryEngineHandler extends GovernanceEngineHandler
 
 
     /**
-     * Run an instance of a discovery service in its own thread.
+     * Queue an instance of a discovery service to run on one of the discovery engine's worker threads.
      *
      * @param assetGUID unique identifier of the asset to analyse
      * @param discoveryRequestType type of discovery
      * @param suppliedAnalysisParameters parameters for the discovery
      * @param annotationTypes types of annotations that can be returned
      * @param governanceServiceCache factory for discovery services.
+     * @param defaultPriority priority of the request if the request type does not have its own priority
+     * @param methodName calling method
      *
      * @return unique identifier for this request.
      *
@@ -254,10 +269,14 @@ public class DiscoveryEngineHandler extends GovernanceEngineHandler
                                        String                 discoveryRequestType,
                                        Map<String, String>    suppliedAnalysisParameters,
                                        List<String>           annotationTypes,
-                                       GovernanceServiceCache governanceServiceCache) throws InvalidParameterException,
-                                                                                             UserNotAuthorizedException,
-                                                                                             PropertyServerException
+                                       GovernanceServiceCache governanceServiceCache,
+                                       int                    defaultPriority,
+                                       String                 methodName) throws InvalidParameterException,
+                                                                                 UserNotAuthorizedException,
+                                                                                 PropertyServerException
     {
+        governanceServiceExecutor.validateCapacity(governanceServiceCache.getGovernanceServiceName(), discoveryRequestType, methodName);
+
         DiscoveryServiceHandler discoveryServiceHandler = this.getDiscoveryServiceHandler(assetGUID,
                                                                                           discoveryRequestType,
                                                                                           suppliedAnalysisParameters,
@@ -265,8 +284,7 @@ public class DiscoveryEngineHandler extends GovernanceEngineHandler
                                                                                           null,
                                                                                           governanceServiceCache);
 
-        Thread thread = new Thread(discoveryServiceHandler, governanceServiceCache.getGovernanceServiceName() + assetGUID + new Date().toString());
-        thread.start();
+        super.runGovernanceServiceHandler(discoveryServiceHandler, discoveryRequestType, defaultPriority, methodName);
 
         return discoveryServiceHandler.getDiscoveryReportGUID();
     }
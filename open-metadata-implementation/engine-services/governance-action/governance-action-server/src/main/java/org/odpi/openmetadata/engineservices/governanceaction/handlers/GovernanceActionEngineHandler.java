@@ -13,6 +13,7 @@ import org.odpi.openmetadata.frameworks.governanceaction.properties.ActionTarget
 import org.odpi.openmetadata.frameworks.governanceaction.properties.RequestSourceElement;
 import org.odpi.openmetadata.governanceservers.enginehostservices.admin.GovernanceEngineHandler;
 import org.odpi.openmetadata.governanceservers.enginehostservices.admin.GovernanceServiceCache;
+import org.odpi.openmetadata.governanceservers.enginehostservices.admin.GovernanceServiceExecutor;
 import org.odpi.openmetadata.governanceservers.enginehostservices.admin.GovernanceServiceHandler;
 
 import java.util.*;
@@ -122,6 +123,8 @@ public class GovernanceActionEngineHandler extends GovernanceEngineHandler
 
         if (governanceServiceCache != null)
         {
+            governanceServiceExecutor.validateCapacity(governanceServiceCache.getGovernanceServiceName(), requestType, methodName);
+
             GovernanceActionServiceHandler governanceActionServiceHandler = new GovernanceActionServiceHandler(governanceEngineProperties,
                                                                                                                governanceEngineGUID,
                                                                                                                serverUserId,
@@ -140,8 +143,10 @@ public class GovernanceActionEngineHandler extends GovernanceEngineHandler
                                                                                                                governanceListenerManager,
                                                                                                                auditLog);
 
-            Thread thread = new Thread(governanceActionServiceHandler, governanceServiceCache.getGovernanceServiceName() + governanceActionGUID + new Date().toString());
-            thread.start();
+            super.runGovernanceServiceHandler(governanceActionServiceHandler,
+                                              requestType,
+                                              GovernanceServiceExecutor.GOVERNANCE_ACTION_PRIORITY,
+                                              methodName);
 
             return governanceActionServiceHandler;
         }
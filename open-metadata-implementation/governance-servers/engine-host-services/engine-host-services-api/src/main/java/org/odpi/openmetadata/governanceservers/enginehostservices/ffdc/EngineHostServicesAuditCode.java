@@ -298,6 +298,48 @@ public enum EngineHostServicesAuditCode implements AuditLogMessageSet
                                 "Review the error messages and resolve the cause of the problem.  Once resolved, it is possible to " +
                                         "retry the governance action by updating its status back to REQUESTED status."),
 
+    GOVERNANCE_ACTION_DEFERRED("ENGINE-HOST-SERVICES-0033",
+                               OMRSAuditLogRecordSeverity.ACTION,
+                               "Governance engine {0} is too busy to run governance action {1} for request type {2}; {3} requests are already waiting to run",
+                               "The governance action is not claimed by this engine host server.  It is left in APPROVED status.",
+                               "Restart the governance action once the governance engine has caught up.  If this message is logged often, " +
+                                       "increase the maxConcurrentGovernanceServices and maxQueuedGovernanceRequests options for the engine " +
+                                       "service or spread the work of the governance engine over more engine host servers."),
+
+    GOVERNANCE_ACTION_SCHEDULED("ENGINE-HOST-SERVICES-0034",
+                                OMRSAuditLogRecordSeverity.INFO,
+                                "Governance action {0} for request type {1} is scheduled to run in governance engine {2} at {3}",
+                                "The governance action is held by the engine host server until its start time.  It stays in APPROVED " +
+                                        "status until then.",
+                                "No action is required.  The governance action can be cancelled or given a new start time in the " +
+                                        "metadata server before it runs."),
+
+    GOVERNANCE_ACTIONS_RELOADED("ENGINE-HOST-SERVICES-0035",
+                                OMRSAuditLogRecordSeverity.INFO,
+                                "Governance engine {0} has found {1} approved governance actions waiting to run",
+                                "The governance engine has retrieved the approved governance actions from the metadata server " +
+                                        "after starting up.  Those with a start time in the future are scheduled.  The rest are run now.",
+                                "No action is required.  Check the audit log for the outcome of each governance action."),
+
+    GOVERNANCE_ACTIONS_NOT_RELOADED("ENGINE-HOST-SERVICES-0036",
+                                    OMRSAuditLogRecordSeverity.EXCEPTION,
+                                    "Governance engine {0} is unable to retrieve the approved governance actions from the metadata " +
+                                            "server due to a {1} exception with message {2}",
+                                    "Governance actions that were approved while the engine host server was down, or that are waiting " +
+                                            "for a future start time, are not run until a new event is received for them.",
+                                    "Correct the cause of the exception and restart the engine host server."),
+
+    GOVERNANCE_ACTION_RETRY_SCHEDULED("ENGINE-HOST-SERVICES-0037",
+                                      OMRSAuditLogRecordSeverity.ACTION,
+                                      "Governance engine {0} is too busy to run governance action {1} for request type {2}; {3} requests " +
+                                              "are already waiting to run.  It will try again at {4}",
+                                      "The governance action is not claimed by this engine host server.  It stays in APPROVED status and " +
+                                              "is held by the engine host server until the retry time.  It is then run if it is still approved " +
+                                              "and the governance engine has space for it.",
+                                      "No action is required.  If this message is logged often, increase the maxConcurrentGovernanceServices " +
+                                              "and maxQueuedGovernanceRequests options for the engine service or spread the work of the " +
+                                              "governance engine over more engine host servers."),
+
     NO_OMAS_SERVER_URL("ENGINE-HOST-SERVICES-0150",
                        OMRSAuditLogRecordSeverity.ERROR,
                        "{0} in server {1} is not configured with the platform URL root for the {2}",
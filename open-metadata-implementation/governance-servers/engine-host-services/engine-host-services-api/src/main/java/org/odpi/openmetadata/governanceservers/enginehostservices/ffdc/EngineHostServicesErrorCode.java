@@ -264,6 +264,13 @@ public enum EngineHostServicesErrorCode implements ExceptionMessageSet
                        "the server to fail too.",
                "Add the qualified name for at least one engine to the engine service in this server's configuration document " +
                        "and then restart the server."),
+
+    GOVERNANCE_ENGINE_BUSY(503, "ENGINE-HOST-SERVICES-503-001",
+               "Governance engine {0} in engine host server {1} is not able to accept a request of type {2} because {3} requests are already waiting to run",
+               "The request is rejected to protect the server from running out of threads and memory.",
+               "Retry the request once the governance engine has caught up.  If the governance engine is regularly busy, increase the " +
+                       "maxConcurrentGovernanceServices and maxQueuedGovernanceRequests engine service options for the engine service, " +
+                       "or spread the governance engine's work over more engine host servers."),
  ;
 
 
@@ -31,6 +31,10 @@ public class GovernanceEngineSummary implements Serializable
     private String                 governanceEngineDescription = null;
     private GovernanceEngineStatus governanceEngineStatus      = null;
     private List<String>           governanceRequestTypes      = null;
+    private int                    activeGovernanceServices    = 0;
+    private int                    queuedGovernanceRequests    = 0;
+    private int                    scheduledGovernanceActions  = 0;
+    private List<GovernanceServiceMetrics> governanceServiceMetrics = null;
 
 
     /**
@@ -57,6 +61,10 @@ public class GovernanceEngineSummary implements Serializable
             governanceEngineDescription = template.getGovernanceEngineDescription();
             governanceEngineStatus = template.getGovernanceEngineStatus();
             governanceRequestTypes = template.getGovernanceRequestTypes();
+            activeGovernanceServices = template.getActiveGovernanceServices();
+            queuedGovernanceRequests = template.getQueuedGovernanceRequests();
+            scheduledGovernanceActions = template.getScheduledGovernanceActions();
+            governanceServiceMetrics = template.getGovernanceServiceMetrics();
         }
     }
 
@@ -224,6 +232,103 @@ public class GovernanceEngineSummary implements Serializable
     }
 
 
+    /**
+     * Return the number of governance services that are currently running in this governance engine.
+     *
+     * @return count
+     */
+    public int getActiveGovernanceServices()
+    {
+        return activeGovernanceServices;
+    }
+
+
+    /**
+     * Set up the number of governance services that are currently running in this governance engine.
+     *
+     * @param activeGovernanceServices count
+     */
+    public void setActiveGovernanceServices(int activeGovernanceServices)
+    {
+        this.activeGovernanceServices = activeGovernanceServices;
+    }
+
+
+    /**
+     * Return the number of governance requests that are waiting for a thread.
+     *
+     * @return count
+     */
+    public int getQueuedGovernanceRequests()
+    {
+        return queuedGovernanceRequests;
+    }
+
+
+    /**
+     * Set up the number of governance requests that are waiting for a thread.
+     *
+     * @param queuedGovernanceRequests count
+     */
+    public void setQueuedGovernanceRequests(int queuedGovernanceRequests)
+    {
+        this.queuedGovernanceRequests = queuedGovernanceRequests;
+    }
+
+
+    /**
+     * Return the number of governance actions that are waiting for their start time.
+     *
+     * @return count
+     */
+    public int getScheduledGovernanceActions()
+    {
+        return scheduledGovernanceActions;
+    }
+
+
+    /**
+     * Set up the number of governance actions that are waiting for their start time.
+     *
+     * @param scheduledGovernanceActions count
+     */
+    public void setScheduledGovernanceActions(int scheduledGovernanceActions)
+    {
+        this.scheduledGovernanceActions = scheduledGovernanceActions;
+    }
+
+
+    /**
+     * Return the execution metrics for each governance service that has been requested.
+     *
+     * @return list of metrics
+     */
+    public List<GovernanceServiceMetrics> getGovernanceServiceMetrics()
+    {
+        if (governanceServiceMetrics == null)
+        {
+            return null;
+        }
+        else if (governanceServiceMetrics.isEmpty())
+        {
+            return null;
+        }
+
+        return governanceServiceMetrics;
+    }
+
+
+    /**
+     * Set up the execution metrics for each governance service that has been requested.
+     *
+     * @param governanceServiceMetrics list of metrics
+     */
+    public void setGovernanceServiceMetrics(List<GovernanceServiceMetrics> governanceServiceMetrics)
+    {
+        this.governanceServiceMetrics = governanceServiceMetrics;
+    }
+
+
     /**
      * JSON-style toString
      *
@@ -240,6 +345,10 @@ public class GovernanceEngineSummary implements Serializable
                        ", governanceEngineDescription='" + governanceEngineDescription + '\'' +
                        ", governanceEngineStatus=" + governanceEngineStatus +
                        ", governanceRequestTypes=" + governanceRequestTypes +
+                       ", activeGovernanceServices=" + activeGovernanceServices +
+                       ", queuedGovernanceRequests=" + queuedGovernanceRequests +
+                       ", scheduledGovernanceActions=" + scheduledGovernanceActions +
+                       ", governanceServiceMetrics=" + governanceServiceMetrics +
                        '}';
     }
 
@@ -268,7 +377,11 @@ public class GovernanceEngineSummary implements Serializable
                        Objects.equals(governanceEngineGUID, that.governanceEngineGUID) &&
                 Objects.equals(governanceEngineDescription, that.governanceEngineDescription) &&
                 governanceEngineStatus == that.governanceEngineStatus &&
-                Objects.equals(governanceRequestTypes, that.governanceRequestTypes);
+                Objects.equals(governanceRequestTypes, that.governanceRequestTypes) &&
+                activeGovernanceServices == that.activeGovernanceServices &&
+                queuedGovernanceRequests == that.queuedGovernanceRequests &&
+                scheduledGovernanceActions == that.scheduledGovernanceActions &&
+                Objects.equals(governanceServiceMetrics, that.governanceServiceMetrics);
     }
 
 
@@ -281,6 +394,8 @@ public class GovernanceEngineSummary implements Serializable
    public int hashCode()
    {
        return Objects.hash(governanceEngineName, governanceEngineTypeName, governanceEngineService,
-                           governanceEngineGUID, governanceEngineDescription, governanceEngineStatus, governanceRequestTypes);
+                           governanceEngineGUID, governanceEngineDescription, governanceEngineStatus, governanceRequestTypes,
+                           activeGovernanceServices, queuedGovernanceRequests, scheduledGovernanceActions,
+                           governanceServiceMetrics);
    }
 }
@@ -0,0 +1,278 @@
+/* SPDX-License-Identifier: Apache 2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+package org.odpi.openmetadata.governanceservers.enginehostservices.properties;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+import static com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility.NONE;
+import static com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility.PUBLIC_ONLY;
+
+/**
+ * GovernanceServiceMetrics records how the requests for a governance service have been handled by a governance engine
+ * since the engine host server started.  The times are in milliseconds.  The queue wait time is the time between the
+ * request being accepted and a thread starting to run it.  The run time is the time taken by the handler's run method.
+ */
+@JsonAutoDetect(getterVisibility=PUBLIC_ONLY, setterVisibility=PUBLIC_ONLY, fieldVisibility=NONE)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonIgnoreProperties(ignoreUnknown=true)
+public class GovernanceServiceMetrics implements Serializable
+{
+    private static final long    serialVersionUID = 1L;
+
+    private String governanceServiceName = null;
+    private long   completedRequests     = 0;
+    private long   rejectedRequests      = 0;
+    private long   totalQueueWaitTime    = 0;
+    private long   maxQueueWaitTime      = 0;
+    private long   totalRunTime          = 0;
+    private long   maxRunTime            = 0;
+
+
+    /**
+     * Default constructor
+     */
+    public GovernanceServiceMetrics()
+    {
+    }
+
+
+    /**
+     * Copy/clone constructor
+     *
+     * @param template object to copy
+     */
+    public GovernanceServiceMetrics(GovernanceServiceMetrics template)
+    {
+        if (template != null)
+        {
+            governanceServiceName = template.getGovernanceServiceName();
+            completedRequests = template.getCompletedRequests();
+            rejectedRequests = template.getRejectedRequests();
+            totalQueueWaitTime = template.getTotalQueueWaitTime();
+            maxQueueWaitTime = template.getMaxQueueWaitTime();
+            totalRunTime = template.getTotalRunTime();
+            maxRunTime = template.getMaxRunTime();
+        }
+    }
+
+
+    /**
+     * Return the name of the governance service.
+     *
+     * @return string name
+     */
+    public String getGovernanceServiceName()
+    {
+        return governanceServiceName;
+    }
+
+
+    /**
+     * Set up the name of the governance service.
+     *
+     * @param governanceServiceName string name
+     */
+    public void setGovernanceServiceName(String governanceServiceName)
+    {
+        this.governanceServiceName = governanceServiceName;
+    }
+
+
+    /**
+     * Return the number of requests that have finished running.
+     *
+     * @return count
+     */
+    public long getCompletedRequests()
+    {
+        return completedRequests;
+    }
+
+
+    /**
+     * Set up the number of requests that have finished running.
+     *
+     * @param completedRequests count
+     */
+    public void setCompletedRequests(long completedRequests)
+    {
+        this.completedRequests = completedRequests;
+    }
+
+
+    /**
+     * Return the number of requests that were turned away because the governance engine's queue was full.
+     *
+     * @return count
+     */
+    public long getRejectedRequests()
+    {
+        return rejectedRequests;
+    }
+
+
+    /**
+     * Set up the number of requests that were turned away because the governance engine's queue was full.
+     *
+     * @param rejectedRequests count
+     */
+    public void setRejectedRequests(long rejectedRequests)
+    {
+        this.rejectedRequests = rejectedRequests;
+    }
+
+
+    /**
+     * Return the total time that the completed requests waited for a thread.
+     *
+     * @return milliseconds
+     */
+    public long getTotalQueueWaitTime()
+    {
+        return totalQueueWaitTime;
+    }
+
+
+    /**
+     * Set up the total time that the completed requests waited for a thread.
+     *
+     * @param totalQueueWaitTime milliseconds
+     */
+    public void setTotalQueueWaitTime(long totalQueueWaitTime)
+    {
+        this.totalQueueWaitTime = totalQueueWaitTime;
+    }
+
+
+    /**
+     * Return the longest time that a request waited for a thread.
+     *
+     * @return milliseconds
+     */
+    public long getMaxQueueWaitTime()
+    {
+        return maxQueueWaitTime;
+    }
+
+
+    /**
+     * Set up the longest time that a request waited for a thread.
+     *
+     * @param maxQueueWaitTime milliseconds
+     */
+    public void setMaxQueueWaitTime(long maxQueueWaitTime)
+    {
+        this.maxQueueWaitTime = maxQueueWaitTime;
+    }
+
+
+    /**
+     * Return the total run time of the completed requests.
+     *
+     * @return milliseconds
+     */
+    public long getTotalRunTime()
+    {
+        return totalRunTime;
+    }
+
+
+    /**
+     * Set up the total run time of the completed requests.
+     *
+     * @param totalRunTime milliseconds
+     */
+    public void setTotalRunTime(long totalRunTime)
+    {
+        this.totalRunTime = totalRunTime;
+    }
+
+
+    /**
+     * Return the longest run time of a request.
+     *
+     * @return milliseconds
+     */
+    public long getMaxRunTime()
+    {
+        return maxRunTime;
+    }
+
+
+    /**
+     * Set up the longest run time of a request.
+     *
+     * @param maxRunTime milliseconds
+     */
+    public void setMaxRunTime(long maxRunTime)
+    {
+        this.maxRunTime = maxRunTime;
+    }
+
+
+    /**
+     * JSON-style toString
+     *
+     * @return description of the object values
+     */
+    @Override
+    public String toString()
+    {
+        return "GovernanceServiceMetrics{" +
+                       "governanceServiceName='" + governanceServiceName + '\'' +
+                       ", completedRequests=" + completedRequests +
+                       ", rejectedRequests=" + rejectedRequests +
+                       ", totalQueueWaitTime=" + totalQueueWaitTime +
+                       ", maxQueueWaitTime=" + maxQueueWaitTime +
+                       ", totalRunTime=" + totalRunTime +
+                       ", maxRunTime=" + maxRunTime +
+                       '}';
+    }
+
+
+    /**
+     * Compare objects
+     *
+     * @param objectToCompare object
+     * @return boolean
+     */
+    @Override
+    public boolean equals(Object objectToCompare)
+    {
+        if (this == objectToCompare)
+        {
+            return true;
+        }
+        if (objectToCompare == null || getClass() != objectToCompare.getClass())
+        {
+            return false;
+        }
+        GovernanceServiceMetrics that = (GovernanceServiceMetrics) objectToCompare;
+        return completedRequests == that.completedRequests &&
+                       rejectedRequests == that.rejectedRequests &&
+                       totalQueueWaitTime == that.totalQueueWaitTime &&
+                       maxQueueWaitTime == that.maxQueueWaitTime &&
+                       totalRunTime == that.totalRunTime &&
+                       maxRunTime == that.maxRunTime &&
+                       Objects.equals(governanceServiceName, that.governanceServiceName);
+    }
+
+
+    /**
+     * Simple hash for the object
+     *
+     * @return int
+     */
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash(governanceServiceName, completedRequests, rejectedRequests, totalQueueWaitTime, maxQueueWaitTime,
+                            totalRunTime, maxRunTime);
+    }
+}
@@ -0,0 +1,299 @@
+/* SPDX-License-Identifier: Apache 2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.governanceservers.enginehostservices.admin;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * GovernanceActionScheduler holds the governance actions that have a start time in the future until they are due.
+ * There is one scheduler for the engine host server and it is shared by all of its governance engines.  A single
+ * thread sleeps until the earliest start time, so the cost of the scheduler does not grow with the number of
+ * waiting governance actions.
+ * <p>
+ * The scheduler only holds the unique identifier of each governance action.  The governance action itself stays in
+ * APPROVED status in the metadata store until it is due.  When the start time is reached, the governance engine
+ * handler retrieves the latest version of the governance action and claims it.  This means the governance action
+ * can be cancelled or rescheduled in the meantime, and the schedule is rebuilt from the metadata store when
+ * the engine host server restarts.
+ * </p>
+ */
+public class GovernanceActionScheduler implements Runnable
+{
+    private final String threadName;
+
+    private final ReentrantLock lock    = new ReentrantLock();
+    private final Condition     changed = lock.newCondition();
+
+    private final PriorityQueue<ScheduledGovernanceAction> scheduleQueue      = new PriorityQueue<>();
+    private final Map<String, ScheduledGovernanceAction>   scheduledActions   = new HashMap<>();
+    private final AtomicLong                               nextSequence       = new AtomicLong(0);
+
+    private Thread           schedulerThread = null;
+    private volatile boolean keepRunning     = true;
+
+
+    /**
+     * Constructor supplies the name of the engine host server.
+     *
+     * @param serverName name of the engine host server - used in the thread name
+     */
+    public GovernanceActionScheduler(String serverName)
+    {
+        this.threadName = serverName + " Governance Action Scheduler";
+    }
+
+
+    /**
+     * Add a governance action to the schedule.  If the governance action is already scheduled, its start time is
+     * updated.  The scheduler thread is started with the first request.
+     *
+     * @param governanceEngineHandler governance engine that will run the governance action
+     * @param governanceActionGUID unique identifier of the governance action
+     * @param startTime time that the governance action should run
+     */
+    public void schedule(GovernanceEngineHandler governanceEngineHandler,
+                         String                  governanceActionGUID,
+                         Date                    startTime)
+    {
+        lock.lock();
+
+        try
+        {
+            if (! keepRunning)
+            {
+                return;
+            }
+
+            ScheduledGovernanceAction previousEntry = scheduledActions.get(governanceActionGUID);
+
+            if (previousEntry != null)
+            {
+                if (previousEntry.startTime == startTime.getTime())
+                {
+                    return;
+                }
+
+                scheduleQueue.remove(previousEntry);
+            }
+
+            ScheduledGovernanceAction newEntry = new ScheduledGovernanceAction(governanceEngineHandler,
+                                                                               governanceActionGUID,
+                                                                               startTime.getTime(),
+                                                                               nextSequence.getAndIncrement());
+
+            scheduledActions.put(governanceActionGUID, newEntry);
+            scheduleQueue.add(newEntry);
+
+            if (schedulerThread == null)
+            {
+                schedulerThread = new Thread(this, threadName);
+                schedulerThread.setDaemon(true);
+                schedulerThread.start();
+            }
+
+            /*
+             * The scheduler thread needs to recalculate its sleep time if the new entry is now the earliest.
+             */
+            if (scheduleQueue.peek() == newEntry)
+            {
+                changed.signal();
+            }
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+
+    /**
+     * Return the number of governance actions waiting for their start time in the requested governance engine.
+     *
+     * @param governanceEngineHandler governance engine
+     * @return count
+     */
+    public int getScheduledCount(GovernanceEngineHandler governanceEngineHandler)
+    {
+        lock.lock();
+
+        try
+        {
+            int count = 0;
+
+            for (ScheduledGovernanceAction scheduledAction : scheduleQueue)
+            {
+                if (scheduledAction.governanceEngineHandler == governanceEngineHandler)
+                {
+                    count++;
+                }
+            }
+
+            return count;
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+
+    /**
+     * Remove all of the governance actions for a governance engine that is shutting down.  They remain APPROVED in the
+     * metadata store.
+     *
+     * @param governanceEngineHandler governance engine
+     */
+    public void cancel(GovernanceEngineHandler governanceEngineHandler)
+    {
+        lock.lock();
+
+        try
+        {
+            scheduleQueue.removeIf(scheduledAction -> scheduledAction.governanceEngineHandler == governanceEngineHandler);
+            scheduledActions.values().removeIf(scheduledAction -> scheduledAction.governanceEngineHandler == governanceEngineHandler);
+            changed.signal();
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+
+    /**
+     * Wait for the earliest start time and then pass the governance action back to its governance engine.
+     */
+    @Override
+    public void run()
+    {
+        while (keepRunning)
+        {
+            ScheduledGovernanceAction dueAction = null;
+
+            lock.lock();
+
+            try
+            {
+                ScheduledGovernanceAction nextAction = scheduleQueue.peek();
+
+                if (nextAction == null)
+                {
+                    changed.await();
+                }
+                else
+                {
+                    long delay = nextAction.startTime - System.currentTimeMillis();
+
+                    if (delay > 0)
+                    {
+                        changed.await(delay, TimeUnit.MILLISECONDS);
+                    }
+                    else
+                    {
+                        dueAction = scheduleQueue.poll();
+                        scheduledActions.remove(dueAction.governanceActionGUID);
+                    }
+                }
+            }
+            catch (InterruptedException error)
+            {
+                /*
+                 * Interrupted by stop().
+                 */
+            }
+            finally
+            {
+                lock.unlock();
+            }
+
+            /*
+             * The governance action is run outside of the lock so that new governance actions can be scheduled while
+             * the governance engine is retrieving and claiming it.
+             */
+            if ((dueAction != null) && (keepRunning))
+            {
+                dueAction.governanceEngineHandler.executeGovernanceAction(dueAction.governanceActionGUID);
+            }
+        }
+    }
+
+
+    /**
+     * Stop the scheduler thread.  The governance actions that are waiting remain APPROVED in the metadata store
+     * and are scheduled again when the engine host server restarts.
+     */
+    public void stop()
+    {
+        lock.lock();
+
+        try
+        {
+            keepRunning = false;
+            scheduleQueue.clear();
+            scheduledActions.clear();
+            changed.signalAll();
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+
+    /**
+     * ScheduledGovernanceAction is an entry in the schedule.  Entries are ordered by start time and then by the order
+     * they were scheduled.
+     */
+    private static class ScheduledGovernanceAction implements Comparable<ScheduledGovernanceAction>
+    {
+        private final GovernanceEngineHandler governanceEngineHandler;
+        private final String                  governanceActionGUID;
+        private final long                    startTime;
+        private final long                    sequence;
+
+
+        /**
+         * Constructor supplies the details of the entry.
+         *
+         * @param governanceEngineHandler governance engine that will run the governance action
+         * @param governanceActionGUID unique identifier of the governance action
+         * @param startTime time that the governance action should run
+         * @param sequence order that the governance action was scheduled
+         */
+        ScheduledGovernanceAction(GovernanceEngineHandler governanceEngineHandler,
+                                  String                  governanceActionGUID,
+                                  long                    startTime,
+                                  long                    sequence)
+        {
+            this.governanceEngineHandler = governanceEngineHandler;
+            this.governanceActionGUID = governanceActionGUID;
+            this.startTime = startTime;
+            this.sequence = sequence;
+        }
+
+
+        /**
+         * Earliest start time first.
+         *
+         * @param other entry to compare with
+         * @return negative if this entry is due first
+         */
+        @Override
+        public int compareTo(ScheduledGovernanceAction other)
+        {
+            if (startTime != other.startTime)
+            {
+                return Long.compare(startTime, other.startTime);
+            }
+
+            return Long.compare(sequence, other.sequence);
+        }
+    }
+}
@@ -55,6 +55,14 @@ public abstract class GovernanceEngineHandler
 
     private GovernanceServiceCacheMap  governanceServiceLookupTable = new GovernanceServiceCacheMap();
 
+    /*
+     * How long a governance action that arrives when the governance engine is busy waits before it is tried again.
+     */
+    private static final long deferredActionRetryInterval = 10 * 1000L;
+
+    protected GovernanceServiceExecutor governanceServiceExecutor;   /* Initialized in constructor */
+    private   GovernanceActionScheduler governanceActionScheduler = null;
+
 
     /**
      * Create a client-side object for calling a governance engine.
@@ -90,6 +98,34 @@ public abstract class GovernanceEngineHandler
         this.serverClient = serverClient;
         this.auditLog = auditLog;
         this.maxPageSize = maxPageSize;
+        this.governanceServiceExecutor = new GovernanceServiceExecutor(serverName, governanceEngineName);
+    }
+
+
+    /**
+     * Apply the engine service options that control how many governance services run at once and how many
+     * requests may wait for a thread.
+     *
+     * @param engineServiceOptions options from the engine service configuration (may be null)
+     */
+    public void setEngineServiceOptions(Map<String, Object> engineServiceOptions)
+    {
+        governanceServiceExecutor.configure(engineServiceOptions);
+    }
+
+
+    /**
+     * Set up the scheduler that holds governance actions with a start time in the future.  The scheduler also holds
+     * the governance actions that arrive when the governance engine is too busy to run them, so they are tried
+     * again after a short delay.  Without a scheduler, future governance actions run as soon as they are received and
+     * governance actions that arrive when the governance engine is busy are left for another engine host server or
+     * a later restart.
+     *
+     * @param governanceActionScheduler scheduler shared by the governance engines in this server
+     */
+    public void setGovernanceActionScheduler(GovernanceActionScheduler governanceActionScheduler)
+    {
+        this.governanceActionScheduler = governanceActionScheduler;
     }
 
 
@@ -138,6 +174,15 @@ public abstract class GovernanceEngineHandler
             mySummary.setGovernanceEngineStatus(GovernanceEngineStatus.RUNNING);
         }
 
+        mySummary.setActiveGovernanceServices(governanceServiceExecutor.getActiveServiceCount());
+        mySummary.setQueuedGovernanceRequests(governanceServiceExecutor.getQueuedRequestCount());
+        mySummary.setGovernanceServiceMetrics(governanceServiceExecutor.getGovernanceServiceMetrics());
+
+        if (governanceActionScheduler != null)
+        {
+            mySummary.setScheduledGovernanceActions(governanceActionScheduler.getScheduledCount(this));
+        }
+
         return mySummary;
     }
 
@@ -407,6 +452,28 @@ public abstract class GovernanceEngineHandler
     }
 
 
+    /**
+     * Run a governance service handler on one of the governance engine's worker threads.  The handler waits in a
+     * priority queue if all of the threads are busy.
+     *
+     * @param governanceServiceHandler handler to run
+     * @param requestType governance request type
+     * @param defaultPriority priority to use if the request type does not have its own priority in the engine service options
+     * @param methodName calling method
+     * @throws PropertyServerException the governance engine is too busy to accept the request
+     */
+    protected void runGovernanceServiceHandler(GovernanceServiceHandler governanceServiceHandler,
+                                               String                   requestType,
+                                               int                      defaultPriority,
+                                               String                   methodName) throws PropertyServerException
+    {
+        governanceServiceExecutor.execute(governanceServiceHandler,
+                                          requestType,
+                                          governanceServiceExecutor.getPriority(requestType, defaultPriority),
+                                          methodName);
+    }
+
+
     /**
      * Execute the requested governance action on or after the start time.
      *
@@ -418,32 +485,228 @@ public abstract class GovernanceEngineHandler
 
         try
         {
-            GovernanceActionElement    latestGovernanceActionElement = serverClient.getGovernanceAction(serverUserId, governanceActionGUID);
-            GovernanceActionProperties properties                    = latestGovernanceActionElement.getProperties();
+            GovernanceActionElement latestGovernanceActionElement = serverClient.getGovernanceAction(serverUserId, governanceActionGUID);
 
-            if (properties.getActionStatus() == GovernanceActionStatus.APPROVED)
+            processGovernanceAction(governanceActionGUID, latestGovernanceActionElement.getProperties());
+        }
+        catch (Exception error)
+        {
+            auditLog.logException(methodName,
+                                  EngineHostServicesAuditCode.ACTION_PROCESSING_ERROR.getMessageDefinition(methodName,
+                                                                                                           error.getClass().getName(),
+                                                                                                           governanceActionGUID,
+                                                                                                           error.getMessage()),
+                                  error);
+        }
+    }
+
+
+    /**
+     * Reload the approved governance actions for this governance engine from the metadata server.  This is called
+     * once the governance engine's configuration has been retrieved at start up.  It picks up the governance actions
+     * that are waiting for a future start time, along with those that were approved while this server was down.
+     *
+     * @throws InvalidParameterException one of the parameters is null or invalid.
+     * @throws UserNotAuthorizedException user not authorized to issue this request.
+     * @throws PropertyServerException there was a problem detected by the metadata server.
+     */
+    public void restartGovernanceActions() throws InvalidParameterException,
+                                                  UserNotAuthorizedException,
+                                                  PropertyServerException
+    {
+        final String methodName = "restartGovernanceActions";
+
+        int      approvedActionCount = 0;
+        int      startingFrom = 0;
+        boolean  moreToReceive = true;
+
+        while (moreToReceive)
+        {
+            List<GovernanceActionElement> governanceActions = serverClient.getActiveGovernanceActions(serverUserId, startingFrom, maxPageSize);
+
+            if ((governanceActions != null) && (! governanceActions.isEmpty()))
             {
-                serverClient.claimGovernanceAction(serverUserId, governanceActionGUID);
+                for (GovernanceActionElement governanceAction : governanceActions)
+                {
+                    if ((governanceAction != null) &&
+                                (governanceAction.getElementHeader() != null) &&
+                                (governanceAction.getProperties() != null) &&
+                                (governanceAction.getProperties().getActionStatus() == GovernanceActionStatus.APPROVED) &&
+                                (isForThisGovernanceEngine(governanceAction.getProperties())))
+                    {
+                        String governanceActionGUID = governanceAction.getElementHeader().getGUID();
+
+                        approvedActionCount++;
+
+                        try
+                        {
+                            processGovernanceAction(governanceActionGUID, governanceAction.getProperties());
+                        }
+                        catch (Exception error)
+                        {
+                            auditLog.logException(methodName,
+                                                  EngineHostServicesAuditCode.ACTION_PROCESSING_ERROR.getMessageDefinition(methodName,
+                                                                                                                           error.getClass().getName(),
+                                                                                                                           governanceActionGUID,
+                                                                                                                           error.getMessage()),
+                                                  error);
+                        }
+                    }
+                }
 
-                // todo if the start date is in the future then the governance action should be given to the scheduler
+                if (governanceActions.size() < maxPageSize)
+                {
+                    moreToReceive = false;
+                }
+                else
+                {
+                    startingFrom = startingFrom + maxPageSize;
+                }
+            }
+            else
+            {
+                moreToReceive = false;
+            }
+        }
+
+        auditLog.logMessage(methodName,
+                            EngineHostServicesAuditCode.GOVERNANCE_ACTIONS_RELOADED.getMessageDefinition(governanceEngineName,
+                                                                                                         Integer.toString(approvedActionCount)));
+    }
+
+
+    /**
+     * Determine whether a governance action is to be run by this governance engine.
+     *
+     * @param properties properties of the governance action
+     * @return boolean
+     */
+    private boolean isForThisGovernanceEngine(GovernanceActionProperties properties)
+    {
+        if ((governanceEngineGUID != null) && (governanceEngineGUID.equals(properties.getGovernanceEngineGUID())))
+        {
+            return true;
+        }
+
+        return governanceEngineName.equals(properties.getGovernanceEngineName());
+    }
+
+
+    /**
+     * Run, schedule or defer an approved governance action.  A governance action with a start time in the future is
+     * passed to the scheduler.  It is not claimed until it is due so that it stays visible to the metadata server
+     * as waiting to run.
+     *
+     * @param governanceActionGUID unique identifier of the governance action
+     * @param properties latest properties of the governance action
+     *
+     * @throws InvalidParameterException one of the parameters is null or invalid.
+     * @throws UserNotAuthorizedException user not authorized to issue this request.
+     * @throws PropertyServerException there was a problem detected by the metadata server or the governance engine is too busy.
+     */
+    private void processGovernanceAction(String                     governanceActionGUID,
+                                         GovernanceActionProperties properties) throws InvalidParameterException,
+                                                                                       UserNotAuthorizedException,
+                                                                                       PropertyServerException
+    {
+        final String methodName = "processGovernanceAction";
+
+        if (properties.getActionStatus() == GovernanceActionStatus.APPROVED)
+        {
+            if ((governanceActionScheduler != null) &&
+                        (properties.getStartTime() != null) &&
+                        (properties.getStartTime().getTime() > System.currentTimeMillis()))
+            {
+                governanceActionScheduler.schedule(this, governanceActionGUID, properties.getStartTime());
+
+                auditLog.logMessage(methodName,
+                                    EngineHostServicesAuditCode.GOVERNANCE_ACTION_SCHEDULED.getMessageDefinition(governanceActionGUID,
+                                                                                                                 properties.getRequestType(),
+                                                                                                                 governanceEngineName,
+                                                                                                                 properties.getStartTime().toString()));
+                return;
+            }
+
+            /*
+             * The governance action is not claimed if this governance engine is too busy to run it.
+             * This leaves it for another engine host server while this governance engine waits to try again.
+             */
+            if (! governanceServiceExecutor.hasCapacity())
+            {
+                deferGovernanceAction(governanceActionGUID, properties, methodName);
+                return;
+            }
 
-                serverClient.updateGovernanceActionStatus(serverUserId, governanceActionGUID, GovernanceActionStatus.IN_PROGRESS);
+            serverClient.claimGovernanceAction(serverUserId, governanceActionGUID);
+            serverClient.updateGovernanceActionStatus(serverUserId, governanceActionGUID, GovernanceActionStatus.IN_PROGRESS);
 
+            try
+            {
                 runGovernanceService(governanceActionGUID,
                                      properties.getRequestType(),
                                      properties.getRequestParameters(),
                                      properties.getRequestSourceElements(),
                                      properties.getActionTargetElements());
             }
+            catch (PropertyServerException error)
+            {
+                /*
+                 * The queue filled up between the capacity check and the request to run the governance service.
+                 * The governance action is returned to APPROVED status so that it can be restarted.
+                 */
+                if (EngineHostServicesErrorCode.GOVERNANCE_ENGINE_BUSY.getMessageDefinition().getMessageId().equals(error.getReportedErrorMessageId()))
+                {
+                    serverClient.updateGovernanceActionStatus(serverUserId, governanceActionGUID, GovernanceActionStatus.APPROVED);
+
+                    if (governanceActionScheduler != null)
+                    {
+                        deferGovernanceAction(governanceActionGUID, properties, methodName);
+                        return;
+                    }
+                }
+
+                throw error;
+            }
         }
-        catch (Exception error)
+    }
+
+
+    /**
+     * Hold a governance action that this governance engine is too busy to run.  It is passed to the scheduler to be
+     * tried again after a short delay.  When it is due, the latest version is retrieved, so it is only run if it is
+     * still approved.  Without a scheduler, it is left in APPROVED status for another engine host server or a later
+     * restart.
+     *
+     * @param governanceActionGUID unique identifier of the governance action
+     * @param properties latest properties of the governance action
+     * @param methodName calling method
+     */
+    private void deferGovernanceAction(String                     governanceActionGUID,
+                                       GovernanceActionProperties properties,
+                                       String                     methodName)
+    {
+        String queuedRequestCount = Integer.toString(governanceServiceExecutor.getQueuedRequestCount());
+
+        if (governanceActionScheduler != null)
         {
-            auditLog.logException(methodName,
-                                  EngineHostServicesAuditCode.ACTION_PROCESSING_ERROR.getMessageDefinition(methodName,
-                                                                                                           error.getClass().getName(),
-                                                                                                           governanceActionGUID,
-                                                                                                           error.getMessage()),
-                                  error);
+            Date retryTime = new Date(System.currentTimeMillis() + deferredActionRetryInterval);
+
+            governanceActionScheduler.schedule(this, governanceActionGUID, retryTime);
+
+            auditLog.logMessage(methodName,
+                                EngineHostServicesAuditCode.GOVERNANCE_ACTION_RETRY_SCHEDULED.getMessageDefinition(governanceEngineName,
+                                                                                                                   governanceActionGUID,
+                                                                                                                   properties.getRequestType(),
+                                                                                                                   queuedRequestCount,
+                                                                                                                   retryTime.toString()));
+        }
+        else
+        {
+            auditLog.logMessage(methodName,
+                                EngineHostServicesAuditCode.GOVERNANCE_ACTION_DEFERRED.getMessageDefinition(governanceEngineName,
+                                                                                                            governanceActionGUID,
+                                                                                                            properties.getRequestType(),
+                                                                                                            queuedRequestCount));
         }
     }
 
@@ -505,5 +768,12 @@ public abstract class GovernanceEngineHandler
         governanceEngineGUID = null;
         governanceEngineProperties = null;
         governanceServiceLookupTable.clear();
+
+        if (governanceActionScheduler != null)
+        {
+            governanceActionScheduler.cancel(this);
+        }
+
+        governanceServiceExecutor.shutdown();
     }
 }
@@ -0,0 +1,541 @@
+/* SPDX-License-Identifier: Apache 2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.governanceservers.enginehostservices.admin;
+
+import org.odpi.openmetadata.frameworks.connectors.ffdc.PropertyServerException;
+import org.odpi.openmetadata.governanceservers.enginehostservices.ffdc.EngineHostServicesErrorCode;
+import org.odpi.openmetadata.governanceservers.enginehostservices.properties.GovernanceServiceMetrics;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * GovernanceServiceExecutor runs the governance service handlers for a single governance engine.
+ * It replaces a new thread for each request with a bounded pool of worker threads.  Requests that arrive
+ * when all of the worker threads are busy wait in a priority queue.  Requests with a higher priority run first and
+ * requests of equal priority run in the order they arrived.
+ * <p>
+ * The number of waiting requests is also bounded.  When the queue is full, the request is rejected with a
+ * PropertyServerException so that the governance engine handler can leave the work for another engine host server
+ * or a later retry.
+ * </p>
+ * <p>
+ * The limits are set through the engine service options of the engine service that hosts the governance engine.
+ * </p>
+ */
+public class GovernanceServiceExecutor
+{
+    /**
+     * Engine service option for the maximum number of governance services that run at the same time in each governance engine.
+     */
+    public static final String MAX_CONCURRENT_SERVICES_OPTION = "maxConcurrentGovernanceServices";
+
+    /**
+     * Engine service option for the maximum number of requests that can be waiting for a thread in each governance engine.
+     */
+    public static final String MAX_QUEUED_REQUESTS_OPTION     = "maxQueuedGovernanceRequests";
+
+    /**
+     * Engine service option that maps governance request types to their priority.  Higher numbers run first.
+     */
+    public static final String REQUEST_TYPE_PRIORITIES_OPTION = "requestTypePriorities";
+
+    /**
+     * Priority of requests issued by governance actions.
+     */
+    public static final int    GOVERNANCE_ACTION_PRIORITY     = 5;
+
+    /**
+     * Priority of requests issued directly by a caller through the engine service's REST API.
+     */
+    public static final int    INTERACTIVE_PRIORITY           = 10;
+
+    private static final int  defaultMaxQueuedRequests = 1000;
+    private static final long threadKeepAliveSecs      = 60L;
+
+    private final String governanceEngineName;
+    private final String serverName;
+
+    private final ThreadPoolExecutor workerPool;
+    private final AtomicInteger      queuedRequests = new AtomicInteger(0);
+    private final AtomicInteger      activeServices = new AtomicInteger(0);
+    private final AtomicLong         nextSequence   = new AtomicLong(0);
+
+    private volatile int                  maxQueuedRequests     = defaultMaxQueuedRequests;
+    private volatile Map<String, Integer> requestTypePriorities = new HashMap<>();
+
+    private final Map<String, ServiceStatistics> serviceStatistics = new ConcurrentHashMap<>();
+
+
+    /**
+     * Constructor sets up the pool with the default limits.
+     *
+     * @param serverName name of the engine host server - used in thread names and messages
+     * @param governanceEngineName name of the governance engine - used in thread names and messages
+     */
+    public GovernanceServiceExecutor(String serverName,
+                                     String governanceEngineName)
+    {
+        this.serverName = serverName;
+        this.governanceEngineName = governanceEngineName;
+
+        int maxConcurrentServices = Runtime.getRuntime().availableProcessors() * 2;
+
+        workerPool = new ThreadPoolExecutor(maxConcurrentServices,
+                                            maxConcurrentServices,
+                                            threadKeepAliveSecs,
+                                            TimeUnit.SECONDS,
+                                            new PriorityBlockingQueue<>(),
+                                            new GovernanceServiceThreadFactory(serverName, governanceEngineName));
+
+        workerPool.allowCoreThreadTimeOut(true);
+    }
+
+
+    /**
+     * Apply the engine service options.  Options that are missing or not valid leave the current setting unchanged.
+     *
+     * @param engineServiceOptions options from the engine service configuration (may be null)
+     */
+    public synchronized void configure(Map<String, Object> engineServiceOptions)
+    {
+        if (engineServiceOptions == null)
+        {
+            return;
+        }
+
+        Object maxConcurrentServicesOption = engineServiceOptions.get(MAX_CONCURRENT_SERVICES_OPTION);
+        Object maxQueuedRequestsOption     = engineServiceOptions.get(MAX_QUEUED_REQUESTS_OPTION);
+        Object requestTypePrioritiesOption = engineServiceOptions.get(REQUEST_TYPE_PRIORITIES_OPTION);
+
+        if ((maxConcurrentServicesOption instanceof Integer) && ((Integer)maxConcurrentServicesOption > 0))
+        {
+            int maxConcurrentServices = (Integer)maxConcurrentServicesOption;
+
+            /*
+             * The maximum pool size may never be less than the core pool size so the order of the updates matters.
+             */
+            if (maxConcurrentServices > workerPool.getMaximumPoolSize())
+            {
+                workerPool.setMaximumPoolSize(maxConcurrentServices);
+                workerPool.setCorePoolSize(maxConcurrentServices);
+            }
+            else
+            {
+                workerPool.setCorePoolSize(maxConcurrentServices);
+                workerPool.setMaximumPoolSize(maxConcurrentServices);
+            }
+        }
+
+        if ((maxQueuedRequestsOption instanceof Integer) && ((Integer)maxQueuedRequestsOption > 0))
+        {
+            maxQueuedRequests = (Integer)maxQueuedRequestsOption;
+        }
+
+        if (requestTypePrioritiesOption instanceof Map)
+        {
+            Map<String, Integer> newPriorities = new HashMap<>();
+
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>)requestTypePrioritiesOption).entrySet())
+            {
+                if ((entry.getKey() instanceof String) && (entry.getValue() instanceof Integer))
+                {
+                    newPriorities.put((String)entry.getKey(), (Integer)entry.getValue());
+                }
+            }
+
+            requestTypePriorities = newPriorities;
+        }
+    }
+
+
+    /**
+     * Return the priority for a governance request type.  This is the value from the requestTypePriorities option
+     * if the request type is listed, otherwise the supplied default.
+     *
+     * @param requestType governance request type
+     * @param defaultPriority priority to use if the request type does not have its own priority
+     * @return priority
+     */
+    public int getPriority(String requestType,
+                           int    defaultPriority)
+    {
+        if (requestType != null)
+        {
+            Integer priority = requestTypePriorities.get(requestType);
+
+            if (priority != null)
+            {
+                return priority;
+            }
+        }
+
+        return defaultPriority;
+    }
+
+
+    /**
+     * Return whether there is space in the queue for another request.
+     *
+     * @return boolean
+     */
+    public boolean hasCapacity()
+    {
+        return queuedRequests.get() < maxQueuedRequests;
+    }
+
+
+    /**
+     * Throw an exception if there is no space in the queue for another request.  It is called before any work
+     * is done to set up a request so that nothing is created for a request that is going to be rejected.
+     *
+     * @param governanceServiceName name of the governance service that will run the request
+     * @param requestType governance request type
+     * @param methodName calling method
+     * @throws PropertyServerException the governance engine is too busy to accept the request
+     */
+    public void validateCapacity(String governanceServiceName,
+                                 String requestType,
+                                 String methodName) throws PropertyServerException
+    {
+        if (! hasCapacity())
+        {
+            throw getBusyException(governanceServiceName, requestType, methodName);
+        }
+    }
+
+
+    /**
+     * Queue a governance service handler to run on one of the worker threads.
+     *
+     * @param governanceServiceHandler handler to run
+     * @param requestType governance request type
+     * @param priority priority of the request - higher numbers run first
+     * @param methodName calling method
+     * @throws PropertyServerException the governance engine is too busy to accept the request
+     */
+    public void execute(GovernanceServiceHandler governanceServiceHandler,
+                        String                   requestType,
+                        int                      priority,
+                        String                   methodName) throws PropertyServerException
+    {
+        String governanceServiceName = governanceServiceHandler.getGovernanceServiceName();
+
+        if (queuedRequests.incrementAndGet() > maxQueuedRequests)
+        {
+            queuedRequests.decrementAndGet();
+            throw getBusyException(governanceServiceName, requestType, methodName);
+        }
+
+        try
+        {
+            workerPool.execute(new GovernanceServiceTask(governanceServiceHandler,
+                                                         governanceServiceName,
+                                                         priority,
+                                                         nextSequence.getAndIncrement()));
+        }
+        catch (RejectedExecutionException error)
+        {
+            /*
+             * The pool has been shut down.
+             */
+            queuedRequests.decrementAndGet();
+            throw getBusyException(governanceServiceName, requestType, methodName);
+        }
+    }
+
+
+    /**
+     * Count the rejection and build the exception that reports that the governance engine is too busy.
+     *
+     * @param governanceServiceName name of the governance service that would have run the request
+     * @param requestType governance request type
+     * @param methodName calling method
+     * @return exception to throw
+     */
+    private PropertyServerException getBusyException(String governanceServiceName,
+                                                     String requestType,
+                                                     String methodName)
+    {
+        getServiceStatistics(governanceServiceName).recordRejection();
+
+        return new PropertyServerException(EngineHostServicesErrorCode.GOVERNANCE_ENGINE_BUSY.getMessageDefinition(governanceEngineName,
+                                                                                                                    serverName,
+                                                                                                                    requestType,
+                                                                                                                    Integer.toString(queuedRequests.get())),
+                                           this.getClass().getName(),
+                                           methodName);
+    }
+
+
+    /**
+     * Return the statistics object for a governance service, creating it if necessary.
+     *
+     * @param governanceServiceName name of the governance service
+     * @return statistics
+     */
+    private ServiceStatistics getServiceStatistics(String governanceServiceName)
+    {
+        String key = governanceServiceName;
+
+        if (key == null)
+        {
+            key = "<Unknown>";
+        }
+
+        return serviceStatistics.computeIfAbsent(key, ServiceStatistics::new);
+    }
+
+
+    /**
+     * Return the number of requests waiting for a thread.
+     *
+     * @return count
+     */
+    public int getQueuedRequestCount()
+    {
+        return queuedRequests.get();
+    }
+
+
+    /**
+     * Return the number of governance services that are running.
+     *
+     * @return count
+     */
+    public int getActiveServiceCount()
+    {
+        return activeServices.get();
+    }
+
+
+    /**
+     * Return the execution metrics for each governance service that has been requested.
+     *
+     * @return list of metrics or null if no requests have been received
+     */
+    public List<GovernanceServiceMetrics> getGovernanceServiceMetrics()
+    {
+        if (serviceStatistics.isEmpty())
+        {
+            return null;
+        }
+
+        List<GovernanceServiceMetrics> metricsList = new ArrayList<>();
+
+        for (ServiceStatistics statistics : serviceStatistics.values())
+        {
+            metricsList.add(statistics.getMetrics());
+        }
+
+        return metricsList;
+    }
+
+
+    /**
+     * Stop accepting new requests.  Requests already running or queued are allowed to complete.
+     */
+    public void shutdown()
+    {
+        workerPool.shutdown();
+    }
+
+
+    /**
+     * GovernanceServiceTask wraps a governance service handler so that it can be ordered in the queue and its
+     * queue wait and run times can be measured.
+     */
+    private class GovernanceServiceTask implements Runnable, Comparable<GovernanceServiceTask>
+    {
+        private final GovernanceServiceHandler governanceServiceHandler;
+        private final String                   governanceServiceName;
+        private final int                      priority;
+        private final long                     sequence;
+        private final long                     queuedTime = System.currentTimeMillis();
+
+
+        /**
+         * Constructor supplies the handler and its position in the queue.
+         *
+         * @param governanceServiceHandler handler to run
+         * @param governanceServiceName name of the governance service
+         * @param priority priority of the request
+         * @param sequence order that the request arrived in
+         */
+        GovernanceServiceTask(GovernanceServiceHandler governanceServiceHandler,
+                              String                   governanceServiceName,
+                              int                      priority,
+                              long                     sequence)
+        {
+            this.governanceServiceHandler = governanceServiceHandler;
+            this.governanceServiceName = governanceServiceName;
+            this.priority = priority;
+            this.sequence = sequence;
+        }
+
+
+        /**
+         * Run the governance service handler and record the timings.
+         */
+        @Override
+        public void run()
+        {
+            long startTime = System.currentTimeMillis();
+
+            queuedRequests.decrementAndGet();
+            activeServices.incrementAndGet();
+
+            try
+            {
+                governanceServiceHandler.run();
+            }
+            finally
+            {
+                activeServices.decrementAndGet();
+                getServiceStatistics(governanceServiceName).recordCompletion(startTime - queuedTime,
+                                                                            System.currentTimeMillis() - startTime);
+            }
+        }
+
+
+        /**
+         * Higher priorities come first in the queue, then the earliest request.
+         *
+         * @param other task to compare with
+         * @return negative if this task should run first
+         */
+        @Override
+        public int compareTo(GovernanceServiceTask other)
+        {
+            if (priority != other.priority)
+            {
+                return Integer.compare(other.priority, priority);
+            }
+
+            return Long.compare(sequence, other.sequence);
+        }
+    }
+
+
+    /**
+     * ServiceStatistics accumulates the metrics for a single governance service.
+     */
+    private static class ServiceStatistics
+    {
+        private final String governanceServiceName;
+        private long         completedRequests  = 0;
+        private long         rejectedRequests   = 0;
+        private long         totalQueueWaitTime = 0;
+        private long         maxQueueWaitTime   = 0;
+        private long         totalRunTime       = 0;
+        private long         maxRunTime         = 0;
+
+
+        /**
+         * Constructor supplies the name of the governance service.
+         *
+         * @param governanceServiceName name
+         */
+        ServiceStatistics(String governanceServiceName)
+        {
+            this.governanceServiceName = governanceServiceName;
+        }
+
+
+        /**
+         * Record a request that has finished running.
+         *
+         * @param queueWaitTime milliseconds waiting for a thread
+         * @param runTime milliseconds running
+         */
+        synchronized void recordCompletion(long queueWaitTime,
+                                           long runTime)
+        {
+            completedRequests++;
+            totalQueueWaitTime = totalQueueWaitTime + queueWaitTime;
+            maxQueueWaitTime = Math.max(maxQueueWaitTime, queueWaitTime);
+            totalRunTime = totalRunTime + runTime;
+            maxRunTime = Math.max(maxRunTime, runTime);
+        }
+
+
+        /**
+         * Record a request that was rejected.
+         */
+        synchronized void recordRejection()
+        {
+            rejectedRequests++;
+        }
+
+
+        /**
+         * Return a snapshot of the statistics.
+         *
+         * @return metrics bean
+         */
+        synchronized GovernanceServiceMetrics getMetrics()
+        {
+            GovernanceServiceMetrics metrics = new GovernanceServiceMetrics();
+
+            metrics.setGovernanceServiceName(governanceServiceName);
+            metrics.setCompletedRequests(completedRequests);
+            metrics.setRejectedRequests(rejectedRequests);
+            metrics.setTotalQueueWaitTime(totalQueueWaitTime);
+            metrics.setMaxQueueWaitTime(maxQueueWaitTime);
+            metrics.setTotalRunTime(totalRunTime);
+            metrics.setMaxRunTime(maxRunTime);
+
+            return metrics;
+        }
+    }
+
+
+    /**
+     * GovernanceServiceThreadFactory names the worker threads and makes sure they do not hold up the shutdown of the JVM.
+     */
+    private static class GovernanceServiceThreadFactory implements ThreadFactory
+    {
+        private final String        threadNamePrefix;
+        private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+
+        /**
+         * Constructor supplies the names used in the thread names.
+         *
+         * @param serverName name of the engine host server
+         * @param governanceEngineName name of the governance engine
+         */
+        GovernanceServiceThreadFactory(String serverName,
+                                       String governanceEngineName)
+        {
+            this.threadNamePrefix = serverName + " " + governanceEngineName + " Governance Service-";
+        }
+
+
+        /**
+         * Create a new worker thread.
+         *
+         * @param runnable work for the thread
+         * @return new thread
+         */
+        @Override
+        public Thread newThread(Runnable runnable)
+        {
+            Thread thread = new Thread(runnable, threadNamePrefix + threadNumber.getAndIncrement());
+
+            thread.setDaemon(true);
+
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,160 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.governanceservers.enginehostservices.admin;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Verify that the governance action scheduler passes governance actions back to their governance engine in start
+ * time order, and that cancelled or stopped governance actions are not run.
+ */
+public class GovernanceActionSchedulerTest
+{
+    private GovernanceActionScheduler scheduler;
+    private List<String>              executedActions;
+
+
+    @BeforeMethod
+    public void setup()
+    {
+        scheduler       = new GovernanceActionScheduler("testServer");
+        executedActions = Collections.synchronizedList(new ArrayList<>());
+    }
+
+
+    @AfterMethod
+    public void tearDown()
+    {
+        scheduler.stop();
+    }
+
+
+    /**
+     * Create a governance engine handler that records the governance actions it is asked to run.
+     *
+     * @param executed latch counted down for each governance action
+     * @return mock handler
+     */
+    private GovernanceEngineHandler getGovernanceEngineHandler(CountDownLatch executed)
+    {
+        GovernanceEngineHandler governanceEngineHandler = mock(GovernanceEngineHandler.class);
+
+        doAnswer(invocation -> {
+            executedActions.add(invocation.getArgument(0));
+            executed.countDown();
+            return null;
+        }).when(governanceEngineHandler).executeGovernanceAction(anyString());
+
+        return governanceEngineHandler;
+    }
+
+
+    /**
+     * Return a start time relative to now.
+     *
+     * @param delay milliseconds from now
+     * @return date
+     */
+    private Date inMillis(long delay)
+    {
+        return new Date(System.currentTimeMillis() + delay);
+    }
+
+
+    @Test
+    public void testActionsRunInStartTimeOrder() throws Exception
+    {
+        CountDownLatch          executed = new CountDownLatch(4);
+        GovernanceEngineHandler handler  = getGovernanceEngineHandler(executed);
+
+        scheduler.schedule(handler, "third", inMillis(600));
+        scheduler.schedule(handler, "first", inMillis(200));
+        scheduler.schedule(handler, "fourth", inMillis(800));
+        scheduler.schedule(handler, "second", inMillis(400));
+
+        assertEquals(scheduler.getScheduledCount(handler), 4);
+        assertTrue(executed.await(5, TimeUnit.SECONDS));
+        assertEquals(executedActions, Arrays.asList("first", "second", "third", "fourth"));
+        assertEquals(scheduler.getScheduledCount(handler), 0);
+    }
+
+
+    @Test
+    public void testRescheduleMovesAction() throws Exception
+    {
+        CountDownLatch          executed = new CountDownLatch(2);
+        GovernanceEngineHandler handler  = getGovernanceEngineHandler(executed);
+
+        scheduler.schedule(handler, "moved", inMillis(200));
+        scheduler.schedule(handler, "fixed", inMillis(400));
+        scheduler.schedule(handler, "moved", inMillis(600));
+
+        assertEquals(scheduler.getScheduledCount(handler), 2);
+        assertTrue(executed.await(5, TimeUnit.SECONDS));
+        assertEquals(executedActions, Arrays.asList("fixed", "moved"));
+    }
+
+
+    @Test
+    public void testCancelRemovesOnlyThatEngine() throws Exception
+    {
+        CountDownLatch          executed        = new CountDownLatch(1);
+        GovernanceEngineHandler cancelledEngine = getGovernanceEngineHandler(executed);
+        GovernanceEngineHandler runningEngine   = getGovernanceEngineHandler(executed);
+
+        scheduler.schedule(cancelledEngine, "cancelled", inMillis(200));
+        scheduler.schedule(runningEngine, "running", inMillis(300));
+
+        scheduler.cancel(cancelledEngine);
+
+        assertEquals(scheduler.getScheduledCount(cancelledEngine), 0);
+        assertEquals(scheduler.getScheduledCount(runningEngine), 1);
+        assertTrue(executed.await(5, TimeUnit.SECONDS));
+        verify(cancelledEngine, after(300).never()).executeGovernanceAction(anyString());
+        assertEquals(executedActions, Collections.singletonList("running"));
+    }
+
+
+    @Test
+    public void testStopDiscardsWaitingActions()
+    {
+        GovernanceEngineHandler handler = getGovernanceEngineHandler(new CountDownLatch(1));
+
+        scheduler.schedule(handler, "waiting", inMillis(200));
+        scheduler.stop();
+        scheduler.schedule(handler, "afterStop", inMillis(0));
+
+        assertEquals(scheduler.getScheduledCount(handler), 0);
+        verify(handler, after(500).never()).executeGovernanceAction(anyString());
+    }
+
+
+    @Test
+    public void testDueActionRunsImmediately()
+    {
+        GovernanceEngineHandler handler = getGovernanceEngineHandler(new CountDownLatch(1));
+
+        scheduler.schedule(handler, "late", inMillis(-1000));
+
+        verify(handler, timeout(5000)).executeGovernanceAction("late");
+    }
+}
@@ -0,0 +1,215 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.governanceservers.enginehostservices.admin;
+
+import org.mockito.ArgumentCaptor;
+import org.odpi.openmetadata.accessservices.governanceengine.client.GovernanceEngineClient;
+import org.odpi.openmetadata.accessservices.governanceengine.client.GovernanceEngineConfigurationClient;
+import org.odpi.openmetadata.accessservices.governanceengine.metadataelements.GovernanceActionElement;
+import org.odpi.openmetadata.accessservices.governanceengine.properties.GovernanceActionProperties;
+import org.odpi.openmetadata.adminservices.configuration.properties.EngineConfig;
+import org.odpi.openmetadata.frameworks.auditlog.AuditLog;
+import org.odpi.openmetadata.frameworks.connectors.ffdc.PropertyServerException;
+import org.odpi.openmetadata.frameworks.governanceaction.properties.ActionTargetElement;
+import org.odpi.openmetadata.frameworks.governanceaction.properties.GovernanceActionStatus;
+import org.odpi.openmetadata.frameworks.governanceaction.properties.RequestSourceElement;
+import org.odpi.openmetadata.governanceservers.enginehostservices.ffdc.EngineHostServicesErrorCode;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Verify that a governance action that arrives when the governance engine is busy is held for a retry rather
+ * than left in APPROVED status with nothing waiting to run it.
+ */
+public class GovernanceEngineHandlerTest
+{
+    private static final String engineHostUserId     = "testServerUser";
+    private static final String governanceActionGUID = "testGovernanceActionGUID";
+    private static final String requestType          = "testRequestType";
+
+    private GovernanceEngineClient      serverClient;
+    private GovernanceActionScheduler   scheduler;
+    private GovernanceServiceExecutor   executor;
+    private TestGovernanceEngineHandler governanceEngineHandler;
+
+
+    /**
+     * TestGovernanceEngineHandler records the governance actions that it is asked to run.
+     */
+    private static class TestGovernanceEngineHandler extends GovernanceEngineHandler
+    {
+        private int                     runCount = 0;
+        private PropertyServerException runError = null;
+
+
+        /**
+         * Constructor passes the test clients to the governance engine handler.
+         *
+         * @param serverClient client for governance actions
+         * @param executor executor to use in place of the real one
+         */
+        TestGovernanceEngineHandler(GovernanceEngineClient    serverClient,
+                                    GovernanceServiceExecutor executor)
+        {
+            super(getEngineConfig(),
+                  "testServer",
+                  engineHostUserId,
+                  "testEngineService",
+                  mock(GovernanceEngineConfigurationClient.class),
+                  serverClient,
+                  mock(AuditLog.class),
+                  100);
+
+            this.governanceServiceExecutor = executor;
+        }
+
+
+        /**
+         * Count the request and fail if requested.
+         */
+        @Override
+        public GovernanceServiceHandler runGovernanceService(String                     governanceActionGUID,
+                                                             String                     requestType,
+                                                             Map<String, String>        requestParameters,
+                                                             List<RequestSourceElement> requestSourceElements,
+                                                             List<ActionTargetElement>  actionTargetElements) throws PropertyServerException
+        {
+            runCount++;
+
+            if (runError != null)
+            {
+                throw runError;
+            }
+
+            return null;
+        }
+    }
+
+
+    /**
+     * Return the configuration for the test governance engine.
+     *
+     * @return engine config
+     */
+    private static EngineConfig getEngineConfig()
+    {
+        EngineConfig engineConfig = new EngineConfig();
+
+        engineConfig.setEngineQualifiedName("testGovernanceEngine");
+
+        return engineConfig;
+    }
+
+
+    @BeforeMethod
+    public void setup() throws Exception
+    {
+        GovernanceActionProperties properties = new GovernanceActionProperties();
+
+        properties.setActionStatus(GovernanceActionStatus.APPROVED);
+        properties.setRequestType(requestType);
+
+        GovernanceActionElement governanceAction = new GovernanceActionElement();
+
+        governanceAction.setProperties(properties);
+
+        serverClient = mock(GovernanceEngineClient.class);
+        scheduler    = mock(GovernanceActionScheduler.class);
+        executor     = mock(GovernanceServiceExecutor.class);
+
+        when(serverClient.getGovernanceAction(engineHostUserId, governanceActionGUID)).thenReturn(governanceAction);
+
+        governanceEngineHandler = new TestGovernanceEngineHandler(serverClient, executor);
+        governanceEngineHandler.setGovernanceActionScheduler(scheduler);
+    }
+
+
+    @Test
+    public void testActionRunsWhenEngineHasCapacity() throws Exception
+    {
+        when(executor.hasCapacity()).thenReturn(true);
+
+        governanceEngineHandler.executeGovernanceAction(governanceActionGUID);
+
+        assertEquals(governanceEngineHandler.runCount, 1);
+        verify(serverClient).claimGovernanceAction(engineHostUserId, governanceActionGUID);
+        verify(serverClient).updateGovernanceActionStatus(engineHostUserId, governanceActionGUID, GovernanceActionStatus.IN_PROGRESS);
+        verify(scheduler, never()).schedule(any(), anyString(), any());
+    }
+
+
+    @Test
+    public void testBusyEngineSchedulesRetry() throws Exception
+    {
+        when(executor.hasCapacity()).thenReturn(false);
+
+        long startTime = System.currentTimeMillis();
+
+        governanceEngineHandler.executeGovernanceAction(governanceActionGUID);
+
+        ArgumentCaptor<Date> retryTime = ArgumentCaptor.forClass(Date.class);
+
+        verify(scheduler).schedule(eq(governanceEngineHandler), eq(governanceActionGUID), retryTime.capture());
+        verify(serverClient, never()).claimGovernanceAction(anyString(), anyString());
+        assertEquals(governanceEngineHandler.runCount, 0);
+        assertTrue(retryTime.getValue().getTime() > startTime, "Retry is not in the future");
+
+        /*
+         * Once the scheduler passes it back and there is space, the governance action runs.
+         */
+        when(executor.hasCapacity()).thenReturn(true);
+
+        governanceEngineHandler.executeGovernanceAction(governanceActionGUID);
+
+        assertEquals(governanceEngineHandler.runCount, 1);
+        verify(serverClient).claimGovernanceAction(engineHostUserId, governanceActionGUID);
+    }
+
+
+    @Test
+    public void testQueueFilledAfterClaimSchedulesRetry() throws Exception
+    {
+        when(executor.hasCapacity()).thenReturn(true);
+
+        governanceEngineHandler.runError = new PropertyServerException(EngineHostServicesErrorCode.GOVERNANCE_ENGINE_BUSY.getMessageDefinition("testGovernanceEngine",
+                                                                                                                                                  "testServer",
+                                                                                                                                                  requestType,
+                                                                                                                                                  "1"),
+                                                                       this.getClass().getName(),
+                                                                       "testQueueFilledAfterClaimSchedulesRetry");
+
+        governanceEngineHandler.executeGovernanceAction(governanceActionGUID);
+
+        verify(serverClient).updateGovernanceActionStatus(engineHostUserId, governanceActionGUID, GovernanceActionStatus.APPROVED);
+        verify(scheduler).schedule(eq(governanceEngineHandler), eq(governanceActionGUID), any(Date.class));
+    }
+
+
+    @Test
+    public void testActionNoLongerApprovedIsIgnored() throws Exception
+    {
+        GovernanceActionElement governanceAction = serverClient.getGovernanceAction(engineHostUserId, governanceActionGUID);
+
+        governanceAction.getProperties().setActionStatus(GovernanceActionStatus.IGNORED);
+        when(executor.hasCapacity()).thenReturn(false);
+
+        governanceEngineHandler.executeGovernanceAction(governanceActionGUID);
+
+        verify(scheduler, never()).schedule(any(), anyString(), any());
+        assertEquals(governanceEngineHandler.runCount, 0);
+    }
+}
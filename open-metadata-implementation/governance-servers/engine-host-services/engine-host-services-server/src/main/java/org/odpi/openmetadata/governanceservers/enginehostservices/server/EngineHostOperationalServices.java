@@ -17,6 +17,7 @@ import org.odpi.openmetadata.commonservices.ffdc.InvalidParameterHandler;
 import org.odpi.openmetadata.frameworks.auditlog.AuditLog;
 import org.odpi.openmetadata.frameworks.connectors.ffdc.InvalidParameterException;
 import org.odpi.openmetadata.governanceservers.enginehostservices.admin.EngineServiceAdmin;
+import org.odpi.openmetadata.governanceservers.enginehostservices.admin.GovernanceActionScheduler;
 import org.odpi.openmetadata.governanceservers.enginehostservices.admin.GovernanceEngineHandler;
 import org.odpi.openmetadata.governanceservers.enginehostservices.ffdc.EngineHostServicesAuditCode;
 import org.odpi.openmetadata.governanceservers.enginehostservices.ffdc.EngineHostServicesErrorCode;
@@ -48,6 +49,8 @@ public class EngineHostOperationalServices
 
     private List<EngineServiceAdmin> engineServiceAdminList = null;
 
+    private GovernanceActionScheduler governanceActionScheduler = null;
+
     /**
      * Constructor used at server startup.
      *
@@ -167,6 +170,11 @@ public class EngineHostOperationalServices
             Map<String, List<String>>            serviceEngineLists       = new HashMap<>();
             Map<String, GovernanceEngineHandler> governanceEngineHandlers = new HashMap<>();
 
+            /*
+             * The scheduler holds the governance actions with a future start time for all of the governance engines.
+             */
+            governanceActionScheduler = new GovernanceActionScheduler(localServerName);
+
             List<String> activatedServiceList = initializeEngineServices(configuration.getEngineServiceConfigs(),
                                                                          configurationClient,
                                                                          serverClient,
@@ -313,6 +321,15 @@ public class EngineHostOperationalServices
                                                                       methodName);
                         }
 
+                        for (GovernanceEngineHandler governanceEngineHandler : serviceEngineHandlers.values())
+                        {
+                            if (governanceEngineHandler != null)
+                            {
+                                governanceEngineHandler.setEngineServiceOptions(engineServiceConfig.getEngineServiceOptions());
+                                governanceEngineHandler.setGovernanceActionScheduler(governanceActionScheduler);
+                            }
+                        }
+
                         governanceEngineHandlers.putAll(serviceEngineHandlers);
                         engineServiceAdminList.add(engineServiceAdmin);
                         activatedEngineServices.add(engineServiceConfig.getEngineServiceFullName());
@@ -379,6 +396,11 @@ public class EngineHostOperationalServices
 
         engineHostInstance.shutdown();
 
+        if (governanceActionScheduler != null)
+        {
+            governanceActionScheduler.stop();
+        }
+
         /*
          * Shutdown the engine services
          */
@@ -156,6 +156,24 @@ public class EngineConfigurationRefreshThread implements Runnable
                                                   error);
 
                             configFailed.add(engineHandler);
+                            continue;
+                        }
+
+                        /*
+                         * Now the governance engine knows its identity, it can pick up the governance actions that
+                         * were approved while this server was down, or that are waiting for a future start time.
+                         */
+                        try
+                        {
+                            engineHandler.restartGovernanceActions();
+                        }
+                        catch (Throwable error)
+                        {
+                            auditLog.logException(actionDescription,
+                                                  EngineHostServicesAuditCode.GOVERNANCE_ACTIONS_NOT_RELOADED.getMessageDefinition(engineHandler.getGovernanceEngineName(),
+                                                                                                                                   error.getClass().getName(),
+                                                                                                                                   error.getMessage()),
+                                                  error);
                         }
                     }
                 }
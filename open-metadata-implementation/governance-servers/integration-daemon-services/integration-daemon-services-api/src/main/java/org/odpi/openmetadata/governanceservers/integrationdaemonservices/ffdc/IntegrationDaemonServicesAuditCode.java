@@ -206,7 +206,8 @@ public enum IntegrationDaemonServicesAuditCode implements AuditLogMessageSet
     CONNECTOR_ERROR("INTEGRATION-DAEMON-SERVICES-0031",
                     OMRSAuditLogRecordSeverity.EXCEPTION,
                      "The integration connector {0} method {1} has returned with a {2} exception containing message {3}",
-                              "The server will change the integration connector's status to failed.",
+                              "The server will change the integration connector's status to failed.  The integration daemon thread restarts a " +
+                            "failed connector at its next refresh time, waiting longer between attempts while it continues to fail.",
                               "Use the message from the exception and knowledge of the integration connector's behavior to " +
                             "track down and resolve the cause of the error and then restart the connector."),
 
@@ -285,6 +286,14 @@ public enum IntegrationDaemonServicesAuditCode implements AuditLogMessageSet
                     "Use the message from the exception and knowledge of the integration connector's behavior to " +
                             "track down and resolve the cause of the error and then restart the connector.  The integration daemon thread will then continue to call the connector."),
 
+    DAEMON_CONNECTOR_RESTARTING("INTEGRATION-DAEMON-SERVICES-0045",
+                    OMRSAuditLogRecordSeverity.INFO,
+                    "The integration daemon thread is restarting failed integration connector {0} in integration daemon {1} after {2} consecutive failures",
+                    "The thread disconnects the failed connector instance, creates a new instance and starts it before calling refresh().  " +
+                            "If the connector fails again, the time before the next attempt is increased.",
+                    "Ensure that the connector restarts without errors.  If it continues to fail, use the earlier error messages to " +
+                            "track down and resolve the cause of the error."),
+
     SERVER_NOT_AUTHORIZED("INTEGRATION-DAEMON-SERVICES-0050",
                           OMRSAuditLogRecordSeverity.SECURITY,
                           "Integration service {0} is not authorized to call its partner " +
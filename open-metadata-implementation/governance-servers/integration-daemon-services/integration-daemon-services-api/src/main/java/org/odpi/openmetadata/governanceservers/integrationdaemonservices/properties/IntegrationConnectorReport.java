@@ -33,6 +33,13 @@ public class IntegrationConnectorReport implements Serializable
     private long                       minMinutesBetweenRefresh = 0L;
     private String                     failingExceptionMessage  = null;
     private Map<String, Object>        statistics               = null;
+    private Date                       nextRefreshTime          = null;
+    private long                       refreshCount             = 0L;
+    private long                       refreshOverrunCount      = 0L;
+    private int                        consecutiveRefreshFailures = 0;
+    private long                       lastRefreshDuration      = 0L;
+    private long                       maxRefreshDuration       = 0L;
+    private long                       totalRefreshDuration     = 0L;
 
 
     /**
@@ -59,6 +66,13 @@ public class IntegrationConnectorReport implements Serializable
             minMinutesBetweenRefresh = template.getMinMinutesBetweenRefresh();
             failingExceptionMessage  = template.getFailingExceptionMessage();
             statistics               = template.getStatistics();
+            nextRefreshTime          = template.getNextRefreshTime();
+            refreshCount             = template.getRefreshCount();
+            refreshOverrunCount      = template.getRefreshOverrunCount();
+            consecutiveRefreshFailures = template.getConsecutiveRefreshFailures();
+            lastRefreshDuration      = template.getLastRefreshDuration();
+            maxRefreshDuration       = template.getMaxRefreshDuration();
+            totalRefreshDuration     = template.getTotalRefreshDuration();
         }
     }
 
@@ -223,6 +237,164 @@ public class IntegrationConnectorReport implements Serializable
     }
 
 
+    /**
+     * Return the time that the integration daemon will next refresh the connector.  Null means the connector is
+     * refreshing now or is only refreshed on request.
+     *
+     * @return timestamp
+     */
+    public Date getNextRefreshTime()
+    {
+        return nextRefreshTime;
+    }
+
+
+    /**
+     * Set up the time that the integration daemon will next refresh the connector.  Null means the connector is
+     * refreshing now or is only refreshed on request.
+     *
+     * @param nextRefreshTime timestamp
+     */
+    public void setNextRefreshTime(Date nextRefreshTime)
+    {
+        this.nextRefreshTime = nextRefreshTime;
+    }
+
+
+    /**
+     * Return the number of times that the connector's refresh method has been called.
+     *
+     * @return count
+     */
+    public long getRefreshCount()
+    {
+        return refreshCount;
+    }
+
+
+    /**
+     * Set up the number of times that the connector's refresh method has been called.
+     *
+     * @param refreshCount count
+     */
+    public void setRefreshCount(long refreshCount)
+    {
+        this.refreshCount = refreshCount;
+    }
+
+
+    /**
+     * Return the number of refresh calls that took longer than the time between refreshes.
+     *
+     * @return count
+     */
+    public long getRefreshOverrunCount()
+    {
+        return refreshOverrunCount;
+    }
+
+
+    /**
+     * Set up the number of refresh calls that took longer than the time between refreshes.
+     *
+     * @param refreshOverrunCount count
+     */
+    public void setRefreshOverrunCount(long refreshOverrunCount)
+    {
+        this.refreshOverrunCount = refreshOverrunCount;
+    }
+
+
+    /**
+     * Return the number of refresh requests in a row that have failed.  The time to the next refresh increases with
+     * each failure.
+     *
+     * @return count
+     */
+    public int getConsecutiveRefreshFailures()
+    {
+        return consecutiveRefreshFailures;
+    }
+
+
+    /**
+     * Set up the number of refresh requests in a row that have failed.
+     *
+     * @param consecutiveRefreshFailures count
+     */
+    public void setConsecutiveRefreshFailures(int consecutiveRefreshFailures)
+    {
+        this.consecutiveRefreshFailures = consecutiveRefreshFailures;
+    }
+
+
+    /**
+     * Return the time taken by the last call to the connector's refresh method in milliseconds.
+     *
+     * @return milliseconds
+     */
+    public long getLastRefreshDuration()
+    {
+        return lastRefreshDuration;
+    }
+
+
+    /**
+     * Set up the time taken by the last call to the connector's refresh method in milliseconds.
+     *
+     * @param lastRefreshDuration milliseconds
+     */
+    public void setLastRefreshDuration(long lastRefreshDuration)
+    {
+        this.lastRefreshDuration = lastRefreshDuration;
+    }
+
+
+    /**
+     * Return the longest time taken by a call to the connector's refresh method in milliseconds.
+     *
+     * @return milliseconds
+     */
+    public long getMaxRefreshDuration()
+    {
+        return maxRefreshDuration;
+    }
+
+
+    /**
+     * Set up the longest time taken by a call to the connector's refresh method in milliseconds.
+     *
+     * @param maxRefreshDuration milliseconds
+     */
+    public void setMaxRefreshDuration(long maxRefreshDuration)
+    {
+        this.maxRefreshDuration = maxRefreshDuration;
+    }
+
+
+    /**
+     * Return the total time taken by calls to the connector's refresh method in milliseconds.  Divide by the
+     * refresh count for the average.
+     *
+     * @return milliseconds
+     */
+    public long getTotalRefreshDuration()
+    {
+        return totalRefreshDuration;
+    }
+
+
+    /**
+     * Set up the total time taken by calls to the connector's refresh method in milliseconds.
+     *
+     * @param totalRefreshDuration milliseconds
+     */
+    public void setTotalRefreshDuration(long totalRefreshDuration)
+    {
+        this.totalRefreshDuration = totalRefreshDuration;
+    }
+
+
     /**
      * Standard toString method.
      *
@@ -239,6 +411,13 @@ public class IntegrationConnectorReport implements Serializable
                 ", minMinutesBetweenRefresh=" + minMinutesBetweenRefresh +
                 ", failingExceptionMessage='" + failingExceptionMessage + '\'' +
                 ", statistics=" + statistics +
+                ", nextRefreshTime=" + nextRefreshTime +
+                ", refreshCount=" + refreshCount +
+                ", refreshOverrunCount=" + refreshOverrunCount +
+                ", consecutiveRefreshFailures=" + consecutiveRefreshFailures +
+                ", lastRefreshDuration=" + lastRefreshDuration +
+                ", maxRefreshDuration=" + maxRefreshDuration +
+                ", totalRefreshDuration=" + totalRefreshDuration +
                 '}';
     }
 
@@ -262,6 +441,13 @@ public class IntegrationConnectorReport implements Serializable
         }
         IntegrationConnectorReport that = (IntegrationConnectorReport) objectToCompare;
         return minMinutesBetweenRefresh == that.minMinutesBetweenRefresh &&
+                refreshCount == that.refreshCount &&
+                refreshOverrunCount == that.refreshOverrunCount &&
+                consecutiveRefreshFailures == that.consecutiveRefreshFailures &&
+                lastRefreshDuration == that.lastRefreshDuration &&
+                maxRefreshDuration == that.maxRefreshDuration &&
+                totalRefreshDuration == that.totalRefreshDuration &&
+                Objects.equals(nextRefreshTime, that.nextRefreshTime) &&
                 Objects.equals(connectorName, that.connectorName) &&
                 connectorStatus == that.connectorStatus &&
                 Objects.equals(lastStatusChange, that.lastStatusChange) &&
@@ -279,6 +465,8 @@ public class IntegrationConnectorReport implements Serializable
     @Override
     public int hashCode()
     {
-        return Objects.hash(connectorName, connectorStatus, lastStatusChange, lastRefreshTime, minMinutesBetweenRefresh, failingExceptionMessage, statistics);
+        return Objects.hash(connectorName, connectorStatus, lastStatusChange, lastRefreshTime, minMinutesBetweenRefresh, failingExceptionMessage, statistics,
+                            nextRefreshTime, refreshCount, refreshOverrunCount, consecutiveRefreshFailures, lastRefreshDuration, maxRefreshDuration,
+                            totalRefreshDuration);
     }
 }
@@ -17,6 +17,7 @@ import org.odpi.openmetadata.governanceservers.integrationdaemonservices.context
 import org.odpi.openmetadata.governanceservers.integrationdaemonservices.ffdc.IntegrationDaemonServicesAuditCode;
 import org.odpi.openmetadata.governanceservers.integrationdaemonservices.properties.IntegrationConnectorStatus;
 import org.odpi.openmetadata.governanceservers.integrationdaemonservices.threads.IntegrationConnectorDedicatedThread;
+import org.odpi.openmetadata.governanceservers.integrationdaemonservices.threads.IntegrationDaemonThread;
 
 import java.io.Serializable;
 import java.util.Date;
@@ -59,6 +60,20 @@ public class IntegrationConnectorHandler implements Serializable
     private Map<String, Object>                 statistics                          = null;
     private Date                                lastRefreshTime                     = null;
 
+    /*
+     * These values are maintained for the connector report.  They are read without locking the handler so that a
+     * long-running refresh does not hold up a status request.  The refresh durations are in milliseconds.
+     */
+    private volatile long                       refreshCount                        = 0L;
+    private volatile long                       refreshOverrunCount                 = 0L;
+    private volatile int                        consecutiveRefreshFailures          = 0;
+    private volatile long                       lastRefreshDuration                 = 0L;
+    private volatile long                       maxRefreshDuration                  = 0L;
+    private volatile long                       totalRefreshDuration                = 0L;
+    private volatile Date                       nextRefreshTime                     = null;
+
+    private transient volatile IntegrationDaemonThread integrationDaemonThread     = null;
+
 
     /**
      * Constructor creates the integration connector and manages it state.
@@ -92,7 +107,7 @@ public class IntegrationConnectorHandler implements Serializable
         this.contextManager              = contextManager;
         this.auditLog                    = auditLog;
 
-        this.reinitializeConnector(actionDescription);
+        this.initializeConnector(actionDescription);
     }
 
 
@@ -176,6 +191,107 @@ public class IntegrationConnectorHandler implements Serializable
     }
 
 
+    /**
+     * Return the number of times that the connector's refresh method has been called.
+     *
+     * @return count
+     */
+    public long getRefreshCount()
+    {
+        return refreshCount;
+    }
+
+
+    /**
+     * Return the number of refresh calls that took longer than the connector's refresh interval.
+     *
+     * @return count
+     */
+    public long getRefreshOverrunCount()
+    {
+        return refreshOverrunCount;
+    }
+
+
+    /**
+     * Return the number of refresh requests in a row that have failed.  Zero means the last refresh worked.
+     *
+     * @return count
+     */
+    public int getConsecutiveRefreshFailures()
+    {
+        return consecutiveRefreshFailures;
+    }
+
+
+    /**
+     * Return the time taken by the last call to the connector's refresh method.
+     *
+     * @return milliseconds
+     */
+    public long getLastRefreshDuration()
+    {
+        return lastRefreshDuration;
+    }
+
+
+    /**
+     * Return the longest time taken by a call to the connector's refresh method.
+     *
+     * @return milliseconds
+     */
+    public long getMaxRefreshDuration()
+    {
+        return maxRefreshDuration;
+    }
+
+
+    /**
+     * Return the total time taken by calls to the connector's refresh method.
+     *
+     * @return milliseconds
+     */
+    public long getTotalRefreshDuration()
+    {
+        return totalRefreshDuration;
+    }
+
+
+    /**
+     * Return the time that the integration daemon thread will next refresh the connector.  Null means that the
+     * connector is refreshing now or is only refreshed on request.
+     *
+     * @return timestamp
+     */
+    public Date getNextRefreshTime()
+    {
+        return nextRefreshTime;
+    }
+
+
+    /**
+     * Set up the time that the integration daemon thread will next refresh the connector.
+     *
+     * @param nextRefreshTime timestamp
+     */
+    public void setNextRefreshTime(Date nextRefreshTime)
+    {
+        this.nextRefreshTime = nextRefreshTime;
+    }
+
+
+    /**
+     * Set up the integration daemon thread that schedules the refresh of this connector.  It is called when the
+     * connector needs refreshing as soon as possible after a restart.
+     *
+     * @param integrationDaemonThread scheduler for connector refresh
+     */
+    public void setIntegrationDaemonThread(IntegrationDaemonThread integrationDaemonThread)
+    {
+        this.integrationDaemonThread = integrationDaemonThread;
+    }
+
+
     /**
      * Return the connector described in the connection object.
      *
@@ -207,11 +323,29 @@ public class IntegrationConnectorHandler implements Serializable
 
 
     /**
-     * Initialize a new integration connector instance.  This is called from the constructor and during restart.
+     * Initialize a new integration connector instance and request that it is refreshed straight away rather than
+     * waiting for its next scheduled refresh.  This is called when the connector is restarted through the API.
      *
      * @param actionDescription description of caller's operation
      */
     synchronized void reinitializeConnector(String    actionDescription)
+    {
+        this.initializeConnector(actionDescription);
+
+        if (integrationDaemonThread != null)
+        {
+            integrationDaemonThread.requestRefresh(this);
+        }
+    }
+
+
+    /**
+     * Initialize a new integration connector instance.  Any existing instance is disconnected first.  This is called
+     * from the constructor, during restart and when a failed connector is due to be refreshed.
+     *
+     * @param actionDescription description of caller's operation
+     */
+    private void initializeConnector(String    actionDescription)
     {
         final String operationName = "initialize";
 
@@ -383,16 +517,30 @@ public class IntegrationConnectorHandler implements Serializable
 
 
     /**
-     * Call refresh on the connector provided it is in the correct state.
+     * Call refresh on the connector provided it is in the correct state.  A connector that has failed is replaced
+     * by a new instance, which is started before it is refreshed.  The caller controls how often this happens by
+     * increasing the time between calls while the connector continues to fail.
      *
      * @param actionDescription external caller's activity
      * @param firstCall is this the first call to refresh?
+     * @return boolean indicating whether the connector is still working after the request
      */
-    public synchronized void refreshConnector(String   actionDescription,
-                                              boolean  firstCall)
+    public synchronized boolean refreshConnector(String   actionDescription,
+                                                 boolean  firstCall)
     {
         final String operationName = "refresh";
 
+        if (integrationConnectorStatus == IntegrationConnectorStatus.FAILED)
+        {
+            auditLog.logMessage(actionDescription,
+                                IntegrationDaemonServicesAuditCode.DAEMON_CONNECTOR_RESTARTING.getMessageDefinition(integrationConnectorName,
+                                                                                                                    integrationDaemonName,
+                                                                                                                    Integer.toString(consecutiveRefreshFailures)));
+
+            this.initializeConnector(actionDescription);
+            firstCall = true;
+        }
+
         try
         {
             if (integrationConnectorStatus == IntegrationConnectorStatus.INITIALIZED)
@@ -417,7 +565,16 @@ public class IntegrationConnectorHandler implements Serializable
                     }
                 }
 
-                integrationConnector.refresh();
+                long startTime = System.currentTimeMillis();
+
+                try
+                {
+                    integrationConnector.refresh();
+                }
+                finally
+                {
+                    recordRefreshDuration(System.currentTimeMillis() - startTime);
+                }
             }
 
             this.lastRefreshTime = new Date();
@@ -426,6 +583,39 @@ public class IntegrationConnectorHandler implements Serializable
         {
             processConnectorException(actionDescription, operationName, error);
         }
+
+        if (integrationConnectorStatus == IntegrationConnectorStatus.FAILED)
+        {
+            consecutiveRefreshFailures++;
+            return false;
+        }
+
+        consecutiveRefreshFailures = 0;
+        return true;
+    }
+
+
+    /**
+     * Update the refresh metrics.  A refresh that takes longer than the refresh interval is counted as an overrun
+     * because the next refresh is late.
+     *
+     * @param refreshDuration milliseconds taken by the refresh call
+     */
+    private void recordRefreshDuration(long refreshDuration)
+    {
+        refreshCount++;
+        lastRefreshDuration = refreshDuration;
+        totalRefreshDuration = totalRefreshDuration + refreshDuration;
+
+        if (refreshDuration > maxRefreshDuration)
+        {
+            maxRefreshDuration = refreshDuration;
+        }
+
+        if ((minMinutesBetweenRefresh > 0) && (refreshDuration > minMinutesBetweenRefresh * 60000))
+        {
+            refreshOverrunCount++;
+        }
     }
 
 
@@ -481,8 +671,9 @@ public class IntegrationConnectorHandler implements Serializable
 
         try
         {
-            if ((integrationConnectorStatus == IntegrationConnectorStatus.RUNNING) ||
-                (integrationConnectorStatus == IntegrationConnectorStatus.FAILED))
+            if ((integrationConnector != null) &&
+                ((integrationConnectorStatus == IntegrationConnectorStatus.RUNNING) ||
+                 (integrationConnectorStatus == IntegrationConnectorStatus.FAILED)))
             {
                 integrationConnector.disconnect();
                 updateStatus(IntegrationConnectorStatus.STOPPED);
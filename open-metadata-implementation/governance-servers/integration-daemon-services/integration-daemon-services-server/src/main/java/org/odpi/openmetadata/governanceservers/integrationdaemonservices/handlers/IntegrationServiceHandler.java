@@ -135,6 +135,13 @@ public class IntegrationServiceHandler
                     connectorReport.setLastStatusChange(connectorHandler.getLastStatusChange());
                     connectorReport.setLastRefreshTime(connectorHandler.getLastRefreshTime());
                     connectorReport.setMinMinutesBetweenRefresh(connectorHandler.getMinMinutesBetweenRefresh());
+                    connectorReport.setNextRefreshTime(connectorHandler.getNextRefreshTime());
+                    connectorReport.setRefreshCount(connectorHandler.getRefreshCount());
+                    connectorReport.setRefreshOverrunCount(connectorHandler.getRefreshOverrunCount());
+                    connectorReport.setConsecutiveRefreshFailures(connectorHandler.getConsecutiveRefreshFailures());
+                    connectorReport.setLastRefreshDuration(connectorHandler.getLastRefreshDuration());
+                    connectorReport.setMaxRefreshDuration(connectorHandler.getMaxRefreshDuration());
+                    connectorReport.setTotalRefreshDuration(connectorHandler.getTotalRefreshDuration());
 
                     connectorReports.add(connectorReport);
                 }
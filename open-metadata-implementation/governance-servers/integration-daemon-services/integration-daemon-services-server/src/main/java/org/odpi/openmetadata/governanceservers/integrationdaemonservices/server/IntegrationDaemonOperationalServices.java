@@ -98,6 +98,7 @@ public class IntegrationDaemonOperationalServices
              */
             List<String>                           activatedServicesList = new ArrayList<>();
             List<IntegrationConnectorHandler>      daemonConnectorHandlers = new ArrayList<>();
+            int                                    refreshWorkerThreads = 0;
             Map<String, IntegrationServiceHandler> integrationServiceHandlerMap = new HashMap<>();
 
             for (IntegrationServiceConfig integrationServiceConfig : configuration)
@@ -141,6 +142,7 @@ public class IntegrationDaemonOperationalServices
                     }
 
                     integrationServiceHandlerMap.put(integrationServiceURLMarker, integrationServiceHandler);
+                    refreshWorkerThreads = Math.max(refreshWorkerThreads, this.getRefreshWorkerThreads(integrationServiceConfig));
                     activatedServicesList.add(integrationServiceConfig.getIntegrationServiceFullName());
                 }
             }
@@ -150,6 +152,7 @@ public class IntegrationDaemonOperationalServices
              */
             IntegrationDaemonThread integrationDaemonThread = new IntegrationDaemonThread(localServerName,
                                                                                           daemonConnectorHandlers,
+                                                                                          refreshWorkerThreads,
                                                                                           auditLog);
 
             integrationDaemonThread.start();
@@ -194,6 +197,30 @@ public class IntegrationDaemonOperationalServices
     }
 
 
+    /**
+     * Return the number of refresh worker threads requested in the integration service options.
+     *
+     * @param integrationServiceConfig configuration
+     * @return number of threads or 0 if the option is not set
+     */
+    private int getRefreshWorkerThreads(IntegrationServiceConfig integrationServiceConfig)
+    {
+        Map<String, Object> integrationServiceOptions = integrationServiceConfig.getIntegrationServiceOptions();
+
+        if (integrationServiceOptions != null)
+        {
+            Object refreshWorkerThreadsOption = integrationServiceOptions.get(IntegrationDaemonThread.REFRESH_WORKER_THREADS_OPTION);
+
+            if ((refreshWorkerThreadsOption instanceof Integer) && ((Integer)refreshWorkerThreadsOption > 0))
+            {
+                return (Integer)refreshWorkerThreadsOption;
+            }
+        }
+
+        return 0;
+    }
+
+
     /**
      * Return the open metadata server's root URL from the configuration.
      *
@@ -6,28 +6,66 @@ package org.odpi.openmetadata.governanceservers.integrationdaemonservices.thread
 import org.odpi.openmetadata.frameworks.auditlog.AuditLog;
 import org.odpi.openmetadata.governanceservers.integrationdaemonservices.ffdc.IntegrationDaemonServicesAuditCode;
 import org.odpi.openmetadata.governanceservers.integrationdaemonservices.handlers.IntegrationConnectorHandler;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * IntegrationDaemonThread is the class responsible for managing executing integration connectors
  * within an integration daemon.  It manages the automated refresh of the connectors.
  * The connectors are also being refreshed through the REST API.
+ * <p>
+ * Each connector has an entry in a queue ordered by the time its next refresh is due.  The daemon thread sleeps until
+ * the earliest entry is due and then passes the connector to a bounded pool of worker threads so that a slow connector
+ * does not delay the others.  A connector is not queued again until its refresh has finished, so its refreshes never
+ * overlap.  The next refresh is set from the connector's refresh interval plus a small random jitter so that connectors
+ * with the same interval spread out over time.  A connector that fails is restarted at its next refresh, with a delay
+ * that increases while it continues to fail.
+ * </p>
  */
 public class IntegrationDaemonThread implements Runnable
 {
-    private static final Logger log = LoggerFactory.getLogger(IntegrationDaemonThread.class);
+    /**
+     * Integration service option for the number of worker threads that run connector refreshes.  If several
+     * integration services set this option, the largest value is used.
+     */
+    public static final String REFRESH_WORKER_THREADS_OPTION = "refreshWorkerThreads";
+
+    private static final long   minRetryInterval     = 10 * 1000L;
+    private static final long   maxRetryInterval     = 30 * 60 * 1000L;
+    private static final double maxJitterFraction    = 0.1;
+    private static final long   threadKeepAliveSecs  = 60L;
 
     private String                            integrationDaemonName;
     private List<IntegrationConnectorHandler> connectorHandlers;
     private AuditLog                          auditLog;
+    private int                               refreshWorkerThreads;
 
+    private final ReentrantLock lock    = new ReentrantLock();
+    private final Condition     changed = lock.newCondition();
 
-    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final PriorityQueue<ScheduledRefresh>                    refreshQueue      = new PriorityQueue<>();
+    private final Map<IntegrationConnectorHandler, ScheduledRefresh> scheduledRefreshes = new HashMap<>();
+    private final Set<IntegrationConnectorHandler>                   refreshesRunning  = new HashSet<>();
+    private final Set<IntegrationConnectorHandler>                   refreshesRequested = new HashSet<>();
+
+    private long                sequence      = 0;
+    private volatile boolean    running       = false;
+    private ThreadPoolExecutor  refreshWorkers = null;
 
 
     /**
@@ -35,25 +73,57 @@ public class IntegrationDaemonThread implements Runnable
      *
      * @param integrationDaemonName name of this integration daemon server
      * @param connectorHandlers wrapper for the connector.
+     * @param refreshWorkerThreads number of connectors that can be refreshing at the same time (0 means use the default)
      * @param auditLog logging destination
      */
     public IntegrationDaemonThread(String                            integrationDaemonName,
                                    List<IntegrationConnectorHandler> connectorHandlers,
+                                   int                               refreshWorkerThreads,
                                    AuditLog                          auditLog)
     {
         this.integrationDaemonName = integrationDaemonName;
         this.connectorHandlers     = connectorHandlers;
         this.auditLog              = auditLog;
+
+        if (refreshWorkerThreads > 0)
+        {
+            this.refreshWorkerThreads = refreshWorkerThreads;
+        }
+        else
+        {
+            this.refreshWorkerThreads = Runtime.getRuntime().availableProcessors();
+        }
     }
 
 
     /**
-     * Requests that the integration daemon thread starts
+     * Requests that the integration daemon thread starts.  Each connector is due for its first refresh immediately.
      */
     public void start()
     {
         final String threadName = "::IntegrationDaemonThread";
 
+        refreshWorkers = new ThreadPoolExecutor(refreshWorkerThreads,
+                                                refreshWorkerThreads,
+                                                threadKeepAliveSecs,
+                                                TimeUnit.SECONDS,
+                                                new LinkedBlockingQueue<>(),
+                                                new RefreshThreadFactory(integrationDaemonName));
+        refreshWorkers.allowCoreThreadTimeOut(true);
+
+        running = true;
+
+        long now = System.currentTimeMillis();
+
+        for (IntegrationConnectorHandler connectorHandler : connectorHandlers)
+        {
+            if (connectorHandler != null)
+            {
+                connectorHandler.setIntegrationDaemonThread(this);
+                schedule(connectorHandler, now);
+            }
+        }
+
         Thread worker = new Thread(this, integrationDaemonName + threadName);
         worker.start();
     }
@@ -64,82 +134,329 @@ public class IntegrationDaemonThread implements Runnable
      */
     public void stop()
     {
-        running.set(false);
+        lock.lock();
+
+        try
+        {
+            running = false;
+            refreshQueue.clear();
+            scheduledRefreshes.clear();
+            changed.signalAll();
+        }
+        finally
+        {
+            lock.unlock();
+        }
+
+        if (refreshWorkers != null)
+        {
+            refreshWorkers.shutdown();
+        }
+    }
+
+
+    /**
+     * Request that a connector is refreshed as soon as possible.  This is called when the connector is restarted.
+     * If the connector is refreshing at the moment, it is refreshed again once the current refresh completes.
+     *
+     * @param connectorHandler connector to refresh
+     */
+    public void requestRefresh(IntegrationConnectorHandler connectorHandler)
+    {
+        lock.lock();
+
+        try
+        {
+            if (refreshesRunning.contains(connectorHandler))
+            {
+                refreshesRequested.add(connectorHandler);
+            }
+            else
+            {
+                schedule(connectorHandler, System.currentTimeMillis());
+            }
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+
+    /**
+     * Add or move the queue entry for a connector.
+     *
+     * @param connectorHandler connector to refresh
+     * @param dueTime time that the refresh is due
+     */
+    private void schedule(IntegrationConnectorHandler connectorHandler,
+                          long                        dueTime)
+    {
+        lock.lock();
+
+        try
+        {
+            if (! running)
+            {
+                return;
+            }
+
+            ScheduledRefresh previousEntry = scheduledRefreshes.remove(connectorHandler);
+
+            if (previousEntry != null)
+            {
+                refreshQueue.remove(previousEntry);
+            }
+
+            ScheduledRefresh newEntry = new ScheduledRefresh(connectorHandler, dueTime, sequence++);
+
+            scheduledRefreshes.put(connectorHandler, newEntry);
+            refreshQueue.add(newEntry);
+            connectorHandler.setNextRefreshTime(new Date(dueTime));
+
+            if (refreshQueue.peek() == newEntry)
+            {
+                changed.signal();
+            }
+        }
+        finally
+        {
+            lock.unlock();
+        }
     }
 
 
     /**
-     * This is the method that runs in the new thread when it is started.
+     * This is the method that runs in the new thread when it is started.  It waits for the next refresh to be due
+     * and hands it to the worker threads.
      */
     @Override
     public void run()
     {
         final String actionDescription = "Periodic refresh of connector";
 
-        running.set(true);
-
         auditLog.logMessage(actionDescription,
                             IntegrationDaemonServicesAuditCode.DAEMON_THREAD_STARTING.getMessageDefinition(integrationDaemonName));
 
-        while (running.get())
+        while (running)
         {
-            Date now = new Date();
+            lock.lock();
 
-            for (IntegrationConnectorHandler connectorHandler : connectorHandlers)
+            try
             {
-                if (connectorHandler != null)
+                ScheduledRefresh nextRefresh = refreshQueue.peek();
+
+                if (nextRefresh == null)
                 {
-                    try
+                    changed.await();
+                }
+                else
+                {
+                    long delay = nextRefresh.dueTime - System.currentTimeMillis();
+
+                    if (delay > 0)
                     {
-                        if (connectorHandler.getLastRefreshTime() == null)
-                        {
-                            connectorHandler.refreshConnector(actionDescription, true);
-                        }
-                        else if (connectorHandler.getMinMinutesBetweenRefresh() > 0)
-                        {
-                            long nextRefreshTime =
-                                    connectorHandler.getLastRefreshTime().getTime() +
-                                            (connectorHandler.getMinMinutesBetweenRefresh() * 60000);
-
-                            if (nextRefreshTime < now.getTime())
-                            {
-                                connectorHandler.refreshConnector(actionDescription, false);
-                            }
-                        }
+                        changed.await(delay, TimeUnit.MILLISECONDS);
                     }
-                    catch (Exception error)
+                    else
                     {
-                        auditLog.logMessage(actionDescription,
-                                            IntegrationDaemonServicesAuditCode.DAEMON_THREAD_CONNECTOR_ERROR.getMessageDefinition(integrationDaemonName,
-                                                                                                                                  error.getClass().getName(),
-                                                                                                                                  error.getMessage()));
+                        refreshQueue.poll();
+                        scheduledRefreshes.remove(nextRefresh.connectorHandler);
+                        refreshesRunning.add(nextRefresh.connectorHandler);
+                        nextRefresh.connectorHandler.setNextRefreshTime(null);
+
+                        refreshWorkers.execute(() -> refreshConnector(nextRefresh.connectorHandler, actionDescription));
                     }
                 }
             }
-
-            waitToRetry();
+            catch (InterruptedException | RejectedExecutionException error)
+            {
+                /*
+                 * The integration daemon is shutting down.
+                 */
+            }
+            finally
+            {
+                lock.unlock();
+            }
         }
 
         auditLog.logMessage(actionDescription,
                             IntegrationDaemonServicesAuditCode.DAEMON_THREAD_TERMINATING.getMessageDefinition(integrationDaemonName));
-
     }
 
 
     /**
-     * Wait before retrying ...
+     * Refresh a connector on a worker thread and then queue its next refresh.
+     *
+     * @param connectorHandler connector to refresh
+     * @param actionDescription calling activity
      */
-    private void waitToRetry()
+    private void refreshConnector(IntegrationConnectorHandler connectorHandler,
+                                  String                      actionDescription)
     {
-        final int  sleepTime = 1000;
-
         try
         {
-            Thread.sleep(sleepTime);
+            connectorHandler.refreshConnector(actionDescription, connectorHandler.getLastRefreshTime() == null);
         }
         catch (Exception error)
         {
-            log.error("Ignored exception from sleep - probably ok", error);
+            auditLog.logMessage(actionDescription,
+                                IntegrationDaemonServicesAuditCode.DAEMON_THREAD_CONNECTOR_ERROR.getMessageDefinition(integrationDaemonName,
+                                                                                                                      error.getClass().getName(),
+                                                                                                                      error.getMessage()));
+        }
+        finally
+        {
+            lock.lock();
+
+            try
+            {
+                refreshesRunning.remove(connectorHandler);
+
+                if (refreshesRequested.remove(connectorHandler))
+                {
+                    schedule(connectorHandler, System.currentTimeMillis());
+                }
+                else
+                {
+                    long delay = getNextRefreshDelay(connectorHandler);
+
+                    if (delay >= 0)
+                    {
+                        schedule(connectorHandler, System.currentTimeMillis() + delay);
+                    }
+                }
+            }
+            finally
+            {
+                lock.unlock();
+            }
+        }
+    }
+
+
+    /**
+     * Work out how long to wait before the next refresh of a connector.  A connector that is failing is restarted
+     * and refreshed after a delay that doubles with each consecutive failure, even if it is otherwise only refreshed
+     * on request.  Otherwise the connector's refresh interval is used.  A random jitter of up to 10% is added to
+     * the delay.
+     *
+     * @param connectorHandler connector that has just been refreshed
+     * @return delay in milliseconds or -1 if the connector is only refreshed on request
+     */
+    long getNextRefreshDelay(IntegrationConnectorHandler connectorHandler)
+    {
+        long refreshInterval = connectorHandler.getMinMinutesBetweenRefresh() * 60000L;
+        int  failures        = connectorHandler.getConsecutiveRefreshFailures();
+        long delay;
+
+        if (failures > 0)
+        {
+            long retryCeiling = maxRetryInterval;
+
+            if ((refreshInterval > 0) && (refreshInterval < retryCeiling))
+            {
+                retryCeiling = Math.max(refreshInterval, minRetryInterval);
+            }
+
+            delay = minRetryInterval << Math.min(failures - 1, 20);
+            delay = Math.min(delay, retryCeiling);
+        }
+        else if (refreshInterval > 0)
+        {
+            delay = refreshInterval;
+        }
+        else
+        {
+            return -1;
+        }
+
+        return delay + (long)(ThreadLocalRandom.current().nextDouble() * maxJitterFraction * delay);
+    }
+
+
+    /**
+     * ScheduledRefresh is an entry in the refresh queue.  Entries are ordered by due time and then by the order they
+     * were added.
+     */
+    private static class ScheduledRefresh implements Comparable<ScheduledRefresh>
+    {
+        private final IntegrationConnectorHandler connectorHandler;
+        private final long                        dueTime;
+        private final long                        sequence;
+
+
+        /**
+         * Constructor supplies the details of the entry.
+         *
+         * @param connectorHandler connector to refresh
+         * @param dueTime time the refresh is due
+         * @param sequence order the entry was added
+         */
+        ScheduledRefresh(IntegrationConnectorHandler connectorHandler,
+                         long                        dueTime,
+                         long                        sequence)
+        {
+            this.connectorHandler = connectorHandler;
+            this.dueTime = dueTime;
+            this.sequence = sequence;
+        }
+
+
+        /**
+         * Earliest due time first.
+         *
+         * @param other entry to compare with
+         * @return negative if this entry is due first
+         */
+        @Override
+        public int compareTo(ScheduledRefresh other)
+        {
+            if (dueTime != other.dueTime)
+            {
+                return Long.compare(dueTime, other.dueTime);
+            }
+
+            return Long.compare(sequence, other.sequence);
+        }
+    }
+
+
+    /**
+     * RefreshThreadFactory names the worker threads and makes sure they do not hold up the shutdown of the JVM.
+     */
+    private static class RefreshThreadFactory implements ThreadFactory
+    {
+        private final String        threadNamePrefix;
+        private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+
+        /**
+         * Constructor supplies the name of the integration daemon.
+         *
+         * @param integrationDaemonName name of the integration daemon server
+         */
+        RefreshThreadFactory(String integrationDaemonName)
+        {
+            this.threadNamePrefix = integrationDaemonName + "::IntegrationConnectorRefresh-";
+        }
+
+
+        /**
+         * Create a new worker thread.
+         *
+         * @param runnable work for the thread
+         * @return new thread
+         */
+        @Override
+        public Thread newThread(Runnable runnable)
+        {
+            Thread thread = new Thread(runnable, threadNamePrefix + threadNumber.getAndIncrement());
+
+            thread.setDaemon(true);
+
+            return thread;
         }
     }
 }
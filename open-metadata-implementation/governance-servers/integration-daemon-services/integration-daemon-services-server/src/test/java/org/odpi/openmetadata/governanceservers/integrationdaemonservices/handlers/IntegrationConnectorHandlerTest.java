@@ -0,0 +1,124 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.governanceservers.integrationdaemonservices.handlers;
+
+import org.odpi.openmetadata.adminservices.configuration.properties.IntegrationConnectorConfig;
+import org.odpi.openmetadata.adminservices.configuration.properties.PermittedSynchronization;
+import org.odpi.openmetadata.frameworks.auditlog.AuditLog;
+import org.odpi.openmetadata.frameworks.connectors.properties.beans.Connection;
+import org.odpi.openmetadata.frameworks.connectors.properties.beans.ConnectorType;
+import org.odpi.openmetadata.governanceservers.integrationdaemonservices.contextmanager.IntegrationContextManager;
+import org.odpi.openmetadata.governanceservers.integrationdaemonservices.properties.IntegrationConnectorStatus;
+import org.odpi.openmetadata.governanceservers.integrationdaemonservices.threads.IntegrationDaemonThread;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Verify that the connector handler replaces a failed connector when it is next refreshed.
+ */
+public class IntegrationConnectorHandlerTest
+{
+    private static final String actionDescription = "Test refresh";
+
+    private IntegrationDaemonThread integrationDaemonThread;
+
+
+    @BeforeMethod
+    public void setup()
+    {
+        MockIntegrationConnector.instances.clear();
+        MockIntegrationConnector.failRefresh = false;
+
+        integrationDaemonThread = mock(IntegrationDaemonThread.class);
+    }
+
+
+    /**
+     * Create a connector handler for a MockIntegrationConnector.
+     *
+     * @return new handler
+     */
+    private IntegrationConnectorHandler getConnectorHandler()
+    {
+        ConnectorType connectorType = new ConnectorType();
+        connectorType.setConnectorProviderClassName(MockIntegrationConnectorProvider.class.getName());
+
+        Connection connection = new Connection();
+        connection.setConnectorType(connectorType);
+
+        IntegrationConnectorConfig config = new IntegrationConnectorConfig();
+        config.setConnectorId("testConnectorId");
+        config.setConnectorName("testConnector");
+        config.setConnection(connection);
+        config.setPermittedSynchronization(PermittedSynchronization.BOTH_DIRECTIONS);
+
+        IntegrationConnectorHandler connectorHandler = new IntegrationConnectorHandler(config,
+                                                                                       "Test Integration Service",
+                                                                                       null,
+                                                                                       "testDaemon",
+                                                                                       mock(IntegrationContextManager.class),
+                                                                                       mock(AuditLog.class));
+
+        connectorHandler.setIntegrationDaemonThread(integrationDaemonThread);
+
+        return connectorHandler;
+    }
+
+
+    @Test
+    public void testFailedConnectorRestartedOnRefresh()
+    {
+        IntegrationConnectorHandler connectorHandler = getConnectorHandler();
+
+        assertTrue(connectorHandler.refreshConnector(actionDescription, true));
+        assertEquals(connectorHandler.getIntegrationConnectorStatus(), IntegrationConnectorStatus.RUNNING);
+
+        MockIntegrationConnector.failRefresh = true;
+
+        assertFalse(connectorHandler.refreshConnector(actionDescription, false));
+        assertFalse(connectorHandler.refreshConnector(actionDescription, false));
+        assertEquals(connectorHandler.getIntegrationConnectorStatus(), IntegrationConnectorStatus.FAILED);
+        assertEquals(connectorHandler.getConsecutiveRefreshFailures(), 2);
+        assertEquals(MockIntegrationConnector.instances.size(), 2);
+
+        MockIntegrationConnector.failRefresh = false;
+
+        assertTrue(connectorHandler.refreshConnector(actionDescription, false));
+        assertEquals(connectorHandler.getIntegrationConnectorStatus(), IntegrationConnectorStatus.RUNNING);
+        assertEquals(connectorHandler.getConsecutiveRefreshFailures(), 0);
+        assertEquals(MockIntegrationConnector.instances.size(), 3);
+
+        MockIntegrationConnector failedConnector    = MockIntegrationConnector.instances.get(1);
+        MockIntegrationConnector restartedConnector = MockIntegrationConnector.instances.get(2);
+
+        assertNotSame(failedConnector, restartedConnector);
+        assertTrue(failedConnector.isDisconnected());
+        assertFalse(restartedConnector.isDisconnected());
+        assertEquals(restartedConnector.getRefreshCount(), 1);
+
+        /*
+         * The daemon thread schedules the next refresh itself so the restart must not request another one.
+         */
+        verify(integrationDaemonThread, never()).requestRefresh(connectorHandler);
+    }
+
+
+    @Test
+    public void testReinitializeRequestsRefresh()
+    {
+        IntegrationConnectorHandler connectorHandler = getConnectorHandler();
+
+        connectorHandler.reinitializeConnector(actionDescription);
+
+        assertEquals(connectorHandler.getIntegrationConnectorStatus(), IntegrationConnectorStatus.INITIALIZED);
+        verify(integrationDaemonThread).requestRefresh(connectorHandler);
+    }
+}
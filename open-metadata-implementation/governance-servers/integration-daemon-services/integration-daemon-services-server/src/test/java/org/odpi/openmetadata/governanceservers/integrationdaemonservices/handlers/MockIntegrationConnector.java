@@ -0,0 +1,90 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.governanceservers.integrationdaemonservices.handlers;
+
+import org.odpi.openmetadata.frameworks.connectors.ffdc.ConnectorCheckedException;
+import org.odpi.openmetadata.governanceservers.integrationdaemonservices.connectors.IntegrationConnectorBase;
+import org.odpi.openmetadata.governanceservers.integrationdaemonservices.ffdc.IntegrationDaemonServicesErrorCode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * MockIntegrationConnector is an integration connector whose refresh fails on request.  The instances that are
+ * created are recorded so that the tests can see when the connector handler replaces its connector.
+ */
+public class MockIntegrationConnector extends IntegrationConnectorBase
+{
+    static final List<MockIntegrationConnector> instances = new ArrayList<>();
+
+    static volatile boolean failRefresh = false;
+
+    private int     refreshCount = 0;
+    private boolean disconnected = false;
+
+
+    /**
+     * Constructor records the new instance.
+     */
+    public MockIntegrationConnector()
+    {
+        synchronized (instances)
+        {
+            instances.add(this);
+        }
+    }
+
+
+    /**
+     * Count the refresh calls and fail if requested.
+     *
+     * @throws ConnectorCheckedException the test has requested a failure
+     */
+    @Override
+    public void refresh() throws ConnectorCheckedException
+    {
+        refreshCount++;
+
+        if (failRefresh)
+        {
+            throw new ConnectorCheckedException(IntegrationDaemonServicesErrorCode.UNKNOWN_CONNECTOR_NAME.getMessageDefinition("mock", "refresh", "test"),
+                                                this.getClass().getName(),
+                                                "refresh");
+        }
+    }
+
+
+    /**
+     * Record that the connector has been disconnected.
+     *
+     * @throws ConnectorCheckedException not thrown
+     */
+    @Override
+    public void disconnect() throws ConnectorCheckedException
+    {
+        super.disconnect();
+        disconnected = true;
+    }
+
+
+    /**
+     * Return the number of times refresh has been called on this instance.
+     *
+     * @return count
+     */
+    int getRefreshCount()
+    {
+        return refreshCount;
+    }
+
+
+    /**
+     * Return whether this instance has been disconnected.
+     *
+     * @return boolean
+     */
+    boolean isDisconnected()
+    {
+        return disconnected;
+    }
+}
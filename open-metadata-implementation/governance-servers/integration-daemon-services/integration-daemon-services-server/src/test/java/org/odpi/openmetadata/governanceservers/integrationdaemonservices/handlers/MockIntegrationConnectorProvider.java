@@ -0,0 +1,19 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.governanceservers.integrationdaemonservices.handlers;
+
+import org.odpi.openmetadata.frameworks.connectors.ConnectorProviderBase;
+
+/**
+ * MockIntegrationConnectorProvider creates instances of MockIntegrationConnector for the connector handler tests.
+ */
+public class MockIntegrationConnectorProvider extends ConnectorProviderBase
+{
+    /**
+     * The constructor sets up the name of the connector class.
+     */
+    public MockIntegrationConnectorProvider()
+    {
+        super.setConnectorClassName(MockIntegrationConnector.class.getName());
+    }
+}
@@ -0,0 +1,212 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.governanceservers.integrationdaemonservices.threads;
+
+import org.mockito.ArgumentCaptor;
+import org.odpi.openmetadata.frameworks.auditlog.AuditLog;
+import org.odpi.openmetadata.governanceservers.integrationdaemonservices.handlers.IntegrationConnectorHandler;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Verify the scheduling of connector refreshes by the integration daemon thread.
+ */
+public class IntegrationDaemonThreadTest
+{
+    private static final long second = 1000L;
+    private static final long minute = 60 * second;
+
+    private IntegrationDaemonThread integrationDaemonThread = null;
+
+
+    @AfterMethod
+    public void tearDown()
+    {
+        if (integrationDaemonThread != null)
+        {
+            integrationDaemonThread.stop();
+            integrationDaemonThread = null;
+        }
+    }
+
+
+    /**
+     * Create a connector handler that refreshes successfully.
+     *
+     * @param minutesBetweenRefresh refresh interval
+     * @param consecutiveFailures failures reported by the handler
+     * @return mock handler
+     */
+    private IntegrationConnectorHandler getConnectorHandler(long minutesBetweenRefresh,
+                                                            int  consecutiveFailures)
+    {
+        IntegrationConnectorHandler connectorHandler = mock(IntegrationConnectorHandler.class);
+
+        when(connectorHandler.getMinMinutesBetweenRefresh()).thenReturn(minutesBetweenRefresh);
+        when(connectorHandler.getConsecutiveRefreshFailures()).thenReturn(consecutiveFailures);
+        when(connectorHandler.refreshConnector(anyString(), anyBoolean())).thenReturn(consecutiveFailures == 0);
+
+        return connectorHandler;
+    }
+
+
+    /**
+     * Create and start the integration daemon thread.
+     *
+     * @param connectorHandlers connectors to refresh
+     */
+    private void startThread(List<IntegrationConnectorHandler> connectorHandlers)
+    {
+        integrationDaemonThread = new IntegrationDaemonThread("testDaemon", connectorHandlers, 2, mock(AuditLog.class));
+        integrationDaemonThread.start();
+    }
+
+
+    /**
+     * Check that a delay is within the jitter range of the expected delay.
+     *
+     * @param delay delay returned by the thread
+     * @param expectedDelay delay without jitter
+     */
+    private void assertDelay(long delay,
+                             long expectedDelay)
+    {
+        assertTrue((delay >= expectedDelay) && (delay <= expectedDelay + expectedDelay / 10),
+                   "Delay " + delay + " is not close to " + expectedDelay);
+    }
+
+
+    @Test
+    public void testRefreshIntervalUsedWhenWorking()
+    {
+        IntegrationDaemonThread thread = new IntegrationDaemonThread("testDaemon", Collections.emptyList(), 1, mock(AuditLog.class));
+
+        assertDelay(thread.getNextRefreshDelay(getConnectorHandler(5, 0)), 5 * minute);
+        assertEquals(thread.getNextRefreshDelay(getConnectorHandler(0, 0)), -1L);
+    }
+
+
+    @Test
+    public void testFailingConnectorBacksOff()
+    {
+        IntegrationDaemonThread thread = new IntegrationDaemonThread("testDaemon", Collections.emptyList(), 1, mock(AuditLog.class));
+
+        /*
+         * A failed connector is retried even if it is only refreshed on request.
+         */
+        assertDelay(thread.getNextRefreshDelay(getConnectorHandler(0, 1)), 10 * second);
+        assertDelay(thread.getNextRefreshDelay(getConnectorHandler(0, 2)), 20 * second);
+        assertDelay(thread.getNextRefreshDelay(getConnectorHandler(0, 3)), 40 * second);
+        assertDelay(thread.getNextRefreshDelay(getConnectorHandler(0, 50)), 30 * minute);
+
+        /*
+         * The retry delay does not grow beyond the connector's own refresh interval.
+         */
+        assertDelay(thread.getNextRefreshDelay(getConnectorHandler(1, 10)), minute);
+    }
+
+
+    @Test
+    public void testConnectorsRefreshedAtStart()
+    {
+        IntegrationConnectorHandler first  = getConnectorHandler(0, 0);
+        IntegrationConnectorHandler second = getConnectorHandler(0, 0);
+
+        startThread(Arrays.asList(first, second));
+
+        verify(first, timeout(5000)).refreshConnector(anyString(), anyBoolean());
+        verify(second, timeout(5000)).refreshConnector(anyString(), anyBoolean());
+
+        /*
+         * These connectors are only refreshed on request so they are not queued again.
+         */
+        verify(first, after(500).times(1)).refreshConnector(anyString(), anyBoolean());
+        verify(second, times(1)).refreshConnector(anyString(), anyBoolean());
+    }
+
+
+    @Test
+    public void testFailedConnectorRescheduledWithBackoff()
+    {
+        IntegrationConnectorHandler connectorHandler = getConnectorHandler(0, 2);
+
+        long startTime = System.currentTimeMillis();
+
+        startThread(Collections.singletonList(connectorHandler));
+
+        verify(connectorHandler, timeout(5000)).refreshConnector(anyString(), anyBoolean());
+
+        ArgumentCaptor<Date> nextRefreshTimes = ArgumentCaptor.forClass(Date.class);
+
+        verify(connectorHandler, timeout(5000).times(3)).setNextRefreshTime(nextRefreshTimes.capture());
+
+        /*
+         * The refresh is due at start up, cleared while it runs and then set after the second failure's delay.
+         */
+        List<Date> values = nextRefreshTimes.getAllValues();
+        long       delay  = values.get(2).getTime() - startTime;
+
+        assertNull(values.get(1));
+        assertTrue((delay >= 20 * second) && (delay < 25 * second), "Unexpected delay " + delay);
+        verify(connectorHandler, after(500).times(1)).refreshConnector(anyString(), anyBoolean());
+    }
+
+
+    @Test
+    public void testRequestDuringRefreshRunsAgain() throws Exception
+    {
+        CountDownLatch refreshStarted = new CountDownLatch(1);
+        CountDownLatch releaseRefresh = new CountDownLatch(1);
+
+        IntegrationConnectorHandler connectorHandler = getConnectorHandler(10, 0);
+
+        when(connectorHandler.refreshConnector(anyString(), anyBoolean())).thenAnswer(invocation -> {
+            refreshStarted.countDown();
+            return releaseRefresh.await(5, TimeUnit.SECONDS);
+        });
+
+        startThread(Collections.singletonList(connectorHandler));
+
+        assertTrue(refreshStarted.await(5, TimeUnit.SECONDS));
+
+        integrationDaemonThread.requestRefresh(connectorHandler);
+        releaseRefresh.countDown();
+
+        verify(connectorHandler, timeout(5000).times(2)).refreshConnector(anyString(), anyBoolean());
+    }
+
+
+    @Test
+    public void testNoRefreshAfterStop()
+    {
+        IntegrationConnectorHandler connectorHandler = getConnectorHandler(10, 0);
+
+        startThread(Collections.singletonList(connectorHandler));
+
+        verify(connectorHandler, timeout(5000)).refreshConnector(anyString(), anyBoolean());
+
+        integrationDaemonThread.stop();
+        integrationDaemonThread.requestRefresh(connectorHandler);
+
+        verify(connectorHandler, after(500).times(1)).refreshConnector(anyString(), anyBoolean());
+    }
+}
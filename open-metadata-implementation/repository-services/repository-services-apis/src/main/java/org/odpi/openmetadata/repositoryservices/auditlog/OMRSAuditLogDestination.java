@@ -20,12 +20,13 @@ import java.util.List;
 
 /**
  * OMRSAuditLogDestination provides information needed to log records to the configured audit log destinations
- * for a specific server instance.
+ * for a specific server instance.  Each audit log store has its own dispatcher so a slow store does not
+ * hold up the thread logging the record or the delivery to the other stores.
  */
 public class OMRSAuditLogDestination extends AuditLogDestination
 {
     private final OMRSAuditLogRecordOriginator omrsOriginator = new OMRSAuditLogRecordOriginator();
-    private       List<OMRSAuditLogStore>      auditLogStores = null;
+    private       List<OMRSAuditLogDispatcher> dispatchers    = null;
 
     private static final Logger log = LoggerFactory.getLogger(OMRSAuditLogDestination.class);
 
@@ -66,7 +67,23 @@ public class OMRSAuditLogDestination extends AuditLogDestination
 
         if (auditLogStores != null)
         {
-            this.auditLogStores = new ArrayList<>(auditLogStores);
+            String spillDirectory = "data/servers/" + localServerName + "/logs/audit-log-spill";
+
+            this.dispatchers = new ArrayList<>();
+
+            for (OMRSAuditLogStore auditLogStore : auditLogStores)
+            {
+                if (auditLogStore != null)
+                {
+                    String destinationName = auditLogStore.getDestinationName();
+                    String spillFileName   = dispatchers.size() + "-" + ((destinationName == null) ? "" : destinationName.replaceAll("[^A-Za-z0-9._-]", "_"));
+
+                    OMRSAuditLogDispatcher dispatcher = new OMRSAuditLogDispatcher(auditLogStore, spillDirectory, spillFileName);
+
+                    dispatcher.start("AuditLogDispatcher:" + localServerName + ":" + destinationName);
+                    dispatchers.add(dispatcher);
+                }
+            }
         }
     }
 
@@ -114,21 +131,27 @@ public class OMRSAuditLogDestination extends AuditLogDestination
      */
     void addLogRecord(OMRSAuditLogRecord logRecord)
     {
-        if (auditLogStores != null)
+        if (dispatchers != null)
         {
-            for (OMRSAuditLogStore auditLogStore : auditLogStores)
+            for (OMRSAuditLogDispatcher dispatcher : dispatchers)
             {
-                if (auditLogStore != null)
-                {
-                    try
-                    {
-                        auditLogStore.storeLogRecord(new OMRSAuditLogRecord(logRecord));
-                    }
-                    catch (Throwable error)
-                    {
-                        log.error("Error: " + error + " writing audit log: " + logRecord + " to destination " + auditLogStore.getClass().getName());
-                    }
-                }
+                dispatcher.addLogRecord(new OMRSAuditLogRecord(logRecord));
+            }
+        }
+    }
+
+
+    /**
+     * Deliver the queued log records and stop the dispatcher threads.  Records logged after this call
+     * are passed to the audit log stores on the thread that logs them.
+     */
+    public void disconnect()
+    {
+        if (dispatchers != null)
+        {
+            for (OMRSAuditLogDispatcher dispatcher : dispatchers)
+            {
+                dispatcher.disconnect();
             }
         }
     }
@@ -143,24 +166,26 @@ public class OMRSAuditLogDestination extends AuditLogDestination
     {
         OMRSAuditLogDestinationsReport report = null;
 
-        if (auditLogStores != null)
+        if (dispatchers != null)
         {
             report = new OMRSAuditLogDestinationsReport();
 
             List<OMRSAuditLogStoreReport>  storeReportList = new ArrayList<>();
 
-            for (OMRSAuditLogStore auditLogStore : auditLogStores)
+            for (OMRSAuditLogDispatcher dispatcher : dispatchers)
             {
-                if (auditLogStore != null)
-                {
-                    OMRSAuditLogStoreReport auditLogStoreReport = new OMRSAuditLogStoreReport();
-
-                    auditLogStoreReport.setDestinationName(auditLogStore.getDestinationName());
-                    auditLogStoreReport.setSupportedSeverities((auditLogStore.getSupportedSeverities()));
-                    auditLogStoreReport.setImplementationClass(auditLogStore.getClass().getName());
-
-                    storeReportList.add(auditLogStoreReport);
-                }
+                OMRSAuditLogStore       auditLogStore       = dispatcher.getAuditLogStore();
+                OMRSAuditLogStoreReport auditLogStoreReport = new OMRSAuditLogStoreReport();
+
+                auditLogStoreReport.setDestinationName(auditLogStore.getDestinationName());
+                auditLogStoreReport.setSupportedSeverities((auditLogStore.getSupportedSeverities()));
+                auditLogStoreReport.setImplementationClass(auditLogStore.getClass().getName());
+                auditLogStoreReport.setQueueCapacity(dispatcher.getQueueCapacity());
+                auditLogStoreReport.setQueueDepth(dispatcher.getQueueDepth());
+                auditLogStoreReport.setDroppedRecordCount(dispatcher.getDroppedRecordCount());
+                auditLogStoreReport.setSpilledRecordCount(dispatcher.getSpilledRecordCount());
+
+                storeReportList.add(auditLogStoreReport);
             }
 
             if (! storeReportList.isEmpty())
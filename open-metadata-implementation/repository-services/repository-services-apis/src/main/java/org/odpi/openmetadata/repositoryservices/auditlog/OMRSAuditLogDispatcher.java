@@ -0,0 +1,788 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.auditlog;
+
+import org.odpi.openmetadata.frameworks.auditlog.AuditLogRecord;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.auditlogstore.OMRSAuditLogRecord;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.auditlogstore.OMRSAuditLogStore;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.auditlogstore.OMRSAuditLogStoreConnectorBase;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.auditlogstore.OMRSAuditLogStoreOverflowPolicy;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.auditlogstore.OMRSAuditLogStoreProviderBase;
+import org.odpi.openmetadata.repositoryservices.serialization.OMRSJSONSerializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * OMRSAuditLogDispatcher delivers log records to one audit log store.  By default the store is called on the
+ * thread that logged the record.  A store that sets a dispatch queue size has its records placed in a bounded
+ * ring buffer and passed to it in batches by a background thread, so the thread that logged the record
+ * is not held up by a slow store.  The overflow policy from the store's connection decides what happens when
+ * the ring buffer is full.  The default policy drops the least important record.  Records about actions, errors,
+ * exceptions and security are never dropped: if the ring buffer is full of them the logging thread waits for space.
+ * Dropped records are counted and the count is reported periodically.
+ * <p>
+ * Each spilled record is flushed to the spill file as it is written.  The background thread forces the spill file
+ * to disk at most a second after each write, so a logging thread never waits for the disk.
+ * </p>
+ */
+class OMRSAuditLogDispatcher implements Runnable
+{
+    private static final String spillFileSuffix    = ".spill";
+    private static final String replayFileSuffix   = ".replay";
+    private static final long   shutdownTimeout    = 30000;
+    private static final long   spillSyncInterval  = 1000;
+    private static final long   dropReportInterval = 60000;
+
+    /*
+     * The overflow policy dropLowestSeverity discards records with a lower priority first.
+     * Records with the highest priority are never discarded.
+     */
+    private static final int                  priorityLevels   = 4;
+    private static final int                  highestPriority  = priorityLevels - 1;
+    private static final Map<String, Integer> severityPriority = new HashMap<>();
+
+    static
+    {
+        severityPriority.put(OMRSAuditLogRecordSeverity.TRACE.getName(),     0);
+        severityPriority.put(OMRSAuditLogRecordSeverity.PERFMON.getName(),   0);
+        severityPriority.put(OMRSAuditLogRecordSeverity.INFO.getName(),      1);
+        severityPriority.put(OMRSAuditLogRecordSeverity.EVENT.getName(),     1);
+        severityPriority.put(OMRSAuditLogRecordSeverity.TYPES.getName(),     1);
+        severityPriority.put(OMRSAuditLogRecordSeverity.COHORT.getName(),    1);
+        severityPriority.put(OMRSAuditLogRecordSeverity.DECISION.getName(),  2);
+        severityPriority.put(OMRSAuditLogRecordSeverity.STARTUP.getName(),   2);
+        severityPriority.put(OMRSAuditLogRecordSeverity.SHUTDOWN.getName(),  2);
+        severityPriority.put(OMRSAuditLogRecordSeverity.ASSET.getName(),     2);
+        severityPriority.put(OMRSAuditLogRecordSeverity.ACTION.getName(),    3);
+        severityPriority.put(OMRSAuditLogRecordSeverity.ERROR.getName(),     3);
+        severityPriority.put(OMRSAuditLogRecordSeverity.EXCEPTION.getName(), 3);
+        severityPriority.put(OMRSAuditLogRecordSeverity.SECURITY.getName(),  3);
+    }
+
+    private final OMRSAuditLogStore               auditLogStore;
+    private final OMRSAuditLogStoreOverflowPolicy overflowPolicy;
+    private final int                             batchSize;
+    private final File                            spillFile;
+    private final File                            replayFile;
+
+    /*
+     * The ring buffer and the values below it are protected by lock.  The ring buffer is null if the
+     * records are delivered on the logging thread.
+     */
+    private final ReentrantLock        lock           = new ReentrantLock();
+    private final Condition            notEmpty       = lock.newCondition();
+    private final Condition            notFull        = lock.newCondition();
+    private final OMRSAuditLogRecord[] ring;
+    private final int[]                priorityCounts = new int[priorityLevels];
+    private       int                  head           = 0;
+    private       int                  count          = 0;
+    private       boolean              closing        = false;
+
+    /*
+     * While spillPending is set, new records are written to the spill file rather than the ring buffer
+     * so they are delivered in the order they were logged.
+     */
+    private boolean          spillPending      = false;
+    private FileOutputStream spillStream       = null;
+    private BufferedWriter   spillWriter       = null;
+    private boolean          spillSyncPending  = false;
+    private long             lastSpillSyncTime = 0;
+
+    private long droppedRecordCount         = 0;
+    private long spilledRecordCount         = 0;
+    private long reportedDroppedRecordCount = 0;
+    private long lastDropReportTime         = 0;
+
+    private Thread worker = null;
+
+    private static final Logger log = LoggerFactory.getLogger(OMRSAuditLogDispatcher.class);
+
+
+    /**
+     * Set up the dispatcher for an audit log store using the dispatch properties from the store's connection.
+     *
+     * @param auditLogStore store to deliver records to
+     * @param defaultSpillDirectory directory for the spill file if the store does not set one
+     * @param spillFileName name of the spill file (without suffix)
+     */
+    OMRSAuditLogDispatcher(OMRSAuditLogStore auditLogStore,
+                           String            defaultSpillDirectory,
+                           String            spillFileName)
+    {
+        int                             queueSize      = OMRSAuditLogStoreProviderBase.defaultDispatchQueueSize;
+        int                             batchSize      = OMRSAuditLogStoreProviderBase.defaultDispatchBatchSize;
+        OMRSAuditLogStoreOverflowPolicy overflowPolicy = OMRSAuditLogStoreOverflowPolicy.DROP_LOWEST_SEVERITY;
+        String                          spillDirectory = defaultSpillDirectory;
+
+        if (auditLogStore instanceof OMRSAuditLogStoreConnectorBase)
+        {
+            OMRSAuditLogStoreConnectorBase storeConnector = (OMRSAuditLogStoreConnectorBase)auditLogStore;
+
+            queueSize      = storeConnector.getDispatchQueueSize();
+            batchSize      = storeConnector.getDispatchBatchSize();
+            overflowPolicy = storeConnector.getOverflowPolicy();
+
+            if (storeConnector.getSpillDirectory() != null)
+            {
+                spillDirectory = storeConnector.getSpillDirectory();
+            }
+        }
+
+        this.auditLogStore  = auditLogStore;
+        this.overflowPolicy = overflowPolicy;
+        this.batchSize      = Math.max(batchSize, 1);
+        this.ring           = (queueSize > 0) ? new OMRSAuditLogRecord[queueSize] : null;
+        this.spillFile      = new File(spillDirectory, spillFileName + spillFileSuffix);
+        this.replayFile     = new File(spillDirectory, spillFileName + replayFileSuffix);
+
+        /*
+         * Records spilled before the last shutdown are delivered before any new records.
+         */
+        if (ring != null)
+        {
+            spillPending = spillFile.exists();
+        }
+    }
+
+
+    /**
+     * Start the thread that delivers the queued records.
+     *
+     * @param threadName name of the thread
+     */
+    void start(String threadName)
+    {
+        if (ring != null)
+        {
+            worker = new Thread(this, threadName);
+            worker.setDaemon(true);
+            worker.start();
+        }
+    }
+
+
+    /**
+     * Queue a log record for delivery to the store, or deliver it directly if the store is not queued,
+     * the dispatcher is shutting down, or the record is logged by the store itself.
+     *
+     * @param logRecord record to deliver
+     */
+    void addLogRecord(OMRSAuditLogRecord logRecord)
+    {
+        if ((ring == null) || (Thread.currentThread() == worker))
+        {
+            deliver(Collections.singletonList(logRecord));
+            return;
+        }
+
+        boolean deliverNow   = false;
+        long    newlyDropped = 0;
+        long    totalDropped = 0;
+
+        lock.lock();
+        try
+        {
+            if (closing)
+            {
+                deliverNow = true;
+            }
+            else if (spillPending && (overflowPolicy == OMRSAuditLogStoreOverflowPolicy.SPILL_TO_DISK))
+            {
+                spill(logRecord);
+            }
+            else if (count < ring.length)
+            {
+                enqueue(logRecord);
+            }
+            else
+            {
+                switch (overflowPolicy)
+                {
+                    case SPILL_TO_DISK:
+                        spill(logRecord);
+                        break;
+
+                    case DROP_LOWEST_SEVERITY:
+                        int priority = getPriority(logRecord);
+
+                        if (evictLowerPriority(priority))
+                        {
+                            enqueue(logRecord);
+                        }
+                        else if (priority < highestPriority)
+                        {
+                            droppedRecordCount++;
+                        }
+                        else if (awaitSpace())
+                        {
+                            enqueue(logRecord);
+                        }
+                        else
+                        {
+                            deliverNow = true;
+                        }
+                        break;
+
+                    default:
+                        if (awaitSpace())
+                        {
+                            enqueue(logRecord);
+                        }
+                        else
+                        {
+                            deliverNow = true;
+                        }
+                        break;
+                }
+            }
+        }
+        catch (InterruptedException error)
+        {
+            droppedRecordCount++;
+            Thread.currentThread().interrupt();
+        }
+        finally
+        {
+            /*
+             * Dropped records are reported as a count, at most once a minute, so that a full queue does not
+             * also flood the log.
+             */
+            long now = System.currentTimeMillis();
+
+            if ((droppedRecordCount > reportedDroppedRecordCount) && (now - lastDropReportTime >= dropReportInterval))
+            {
+                newlyDropped = droppedRecordCount - reportedDroppedRecordCount;
+                totalDropped = droppedRecordCount;
+                reportedDroppedRecordCount = droppedRecordCount;
+                lastDropReportTime = now;
+            }
+
+            lock.unlock();
+        }
+
+        if (newlyDropped > 0)
+        {
+            log.error("{} audit log records were dropped because the queue for destination {} is full ({} since the server started)",
+                      newlyDropped, auditLogStore.getClass().getName(), totalDropped);
+        }
+
+        if (deliverNow)
+        {
+            deliver(Collections.singletonList(logRecord));
+        }
+    }
+
+
+    /**
+     * Wait for space in the ring buffer.  Called with the lock held.
+     *
+     * @return true if there is space; false if the dispatcher is closing and the record should be delivered directly
+     * @throws InterruptedException the logging thread was interrupted while waiting
+     */
+    private boolean awaitSpace() throws InterruptedException
+    {
+        while ((count == ring.length) && (! closing))
+        {
+            notFull.await();
+        }
+
+        return ! closing;
+    }
+
+
+    /**
+     * Add a record to the end of the ring buffer.  Called with the lock held and space in the buffer.
+     *
+     * @param logRecord record to queue
+     */
+    private void enqueue(OMRSAuditLogRecord logRecord)
+    {
+        ring[(head + count) % ring.length] = logRecord;
+        count++;
+        priorityCounts[getPriority(logRecord)]++;
+        notEmpty.signal();
+    }
+
+
+    /**
+     * Remove the oldest queued record with the lowest priority, provided it is lower than the priority
+     * of the new record.  Called with the lock held.
+     *
+     * @param newPriority priority of the record that needs a place in the ring buffer
+     * @return true if a record was removed
+     */
+    private boolean evictLowerPriority(int newPriority)
+    {
+        for (int priority = 0; priority < newPriority; priority++)
+        {
+            if (priorityCounts[priority] > 0)
+            {
+                for (int position = 0; position < count; position++)
+                {
+                    if (getPriority(ring[(head + position) % ring.length]) == priority)
+                    {
+                        for (int later = position + 1; later < count; later++)
+                        {
+                            ring[(head + later - 1) % ring.length] = ring[(head + later) % ring.length];
+                        }
+
+                        count--;
+                        ring[(head + count) % ring.length] = null;
+                        priorityCounts[priority]--;
+                        droppedRecordCount++;
+
+                        return true;
+                    }
+                }
+            }
+        }
+
+        return false;
+    }
+
+
+    /**
+     * Append a record to the spill file and flush it to the operating system.  The background thread forces it
+     * to disk.  Called with the lock held.
+     *
+     * @param logRecord record to save
+     */
+    private void spill(OMRSAuditLogRecord logRecord)
+    {
+        try
+        {
+            if (spillWriter == null)
+            {
+                Files.createDirectories(spillFile.getAbsoluteFile().getParentFile().toPath());
+                spillStream = new FileOutputStream(spillFile, true);
+                spillWriter = new BufferedWriter(new OutputStreamWriter(spillStream, StandardCharsets.UTF_8));
+            }
+
+            spillWriter.write(OMRSJSONSerializer.writeValueAsString(logRecord));
+            spillWriter.newLine();
+            spillWriter.flush();
+
+            spillPending = true;
+            spillSyncPending = true;
+            spilledRecordCount++;
+            notEmpty.signal();
+        }
+        catch (IOException error)
+        {
+            droppedRecordCount++;
+            log.error("Error: {} writing to audit log spill file {}; {} audit log records have been dropped since the server started",
+                      error.toString(), spillFile.getPath(), droppedRecordCount);
+        }
+    }
+
+
+    /**
+     * Force the records written to the spill file to disk if they have been waiting for longer than the sync
+     * interval.  Called on the background thread without the lock so that logging threads can carry on
+     * spilling while the disk catches up.
+     */
+    private void syncSpillFile()
+    {
+        FileOutputStream streamToSync = null;
+
+        lock.lock();
+        try
+        {
+            long now = System.currentTimeMillis();
+
+            if ((spillSyncPending) && (spillStream != null) && (now - lastSpillSyncTime >= spillSyncInterval))
+            {
+                streamToSync = spillStream;
+                spillSyncPending = false;
+                lastSpillSyncTime = now;
+            }
+        }
+        finally
+        {
+            lock.unlock();
+        }
+
+        if (streamToSync != null)
+        {
+            try
+            {
+                streamToSync.getChannel().force(false);
+            }
+            catch (IOException error)
+            {
+                /*
+                 * The spill file has been closed, which forces it to disk, so there is nothing more to do.
+                 */
+                log.debug("Unable to force audit log spill file {} to disk: {}", spillFile.getPath(), error.toString());
+            }
+        }
+    }
+
+
+    /**
+     * Deliver the queued records in batches until the dispatcher is closed and the queue is empty.
+     */
+    @Override
+    public void run()
+    {
+        if (replayFile.exists())
+        {
+            replaySpilledRecords();
+        }
+
+        while (true)
+        {
+            List<OMRSAuditLogRecord> batch  = null;
+            boolean                  replay = false;
+
+            syncSpillFile();
+
+            lock.lock();
+            try
+            {
+                while ((count == 0) && (! spillPending) && (! closing))
+                {
+                    notEmpty.await();
+                }
+
+                if (count > 0)
+                {
+                    batch = new ArrayList<>(Math.min(count, batchSize));
+
+                    while ((count > 0) && (batch.size() < batchSize))
+                    {
+                        OMRSAuditLogRecord logRecord = ring[head];
+
+                        ring[head] = null;
+                        head = (head + 1) % ring.length;
+                        count--;
+                        priorityCounts[getPriority(logRecord)]--;
+                        batch.add(logRecord);
+                    }
+
+                    notFull.signalAll();
+                }
+                else if (spillPending)
+                {
+                    /*
+                     * The spill file is only read once the records queued before it have been delivered.
+                     * It is renamed so new overflow records start a new spill file.
+                     */
+                    closeSpillWriter();
+                    Files.move(spillFile.toPath(), replayFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                    spillPending = false;
+                    replay = true;
+                }
+                else
+                {
+                    return;
+                }
+            }
+            catch (InterruptedException error)
+            {
+                return;
+            }
+            catch (IOException error)
+            {
+                spillPending = false;
+                log.error("Error: " + error + " reading audit log spill file " + spillFile.getPath());
+            }
+            finally
+            {
+                lock.unlock();
+            }
+
+            if (replay)
+            {
+                replaySpilledRecords();
+            }
+            else if (batch != null)
+            {
+                deliver(batch);
+            }
+        }
+    }
+
+
+    /**
+     * Deliver the records in the replay file to the store and remove the file.
+     */
+    private void replaySpilledRecords()
+    {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(replayFile), StandardCharsets.UTF_8)))
+        {
+            List<OMRSAuditLogRecord> batch = new ArrayList<>(batchSize);
+            String                   line;
+
+            while ((line = reader.readLine()) != null)
+            {
+                if (! line.isEmpty())
+                {
+                    try
+                    {
+                        batch.add(new OMRSAuditLogRecord(OMRSJSONSerializer.readValue(line, AuditLogRecord.class)));
+                    }
+                    catch (IOException error)
+                    {
+                        log.error("Skipping unreadable audit log record in spill file {}", replayFile.getPath());
+                    }
+
+                    if (batch.size() == batchSize)
+                    {
+                        deliver(batch);
+                        batch = new ArrayList<>(batchSize);
+                    }
+                }
+            }
+
+            if (! batch.isEmpty())
+            {
+                deliver(batch);
+            }
+        }
+        catch (IOException error)
+        {
+            log.error("Error: " + error + " reading audit log spill file " + replayFile.getPath());
+        }
+
+        try
+        {
+            Files.deleteIfExists(replayFile.toPath());
+        }
+        catch (IOException error)
+        {
+            log.error("Error: " + error + " removing audit log spill file " + replayFile.getPath());
+        }
+    }
+
+
+    /**
+     * Pass records to the store.  A store built on OMRSAuditLogStoreConnectorBase receives the whole batch.
+     *
+     * @param logRecords records to deliver
+     */
+    private void deliver(List<OMRSAuditLogRecord> logRecords)
+    {
+        if (auditLogStore instanceof OMRSAuditLogStoreConnectorBase)
+        {
+            try
+            {
+                ((OMRSAuditLogStoreConnectorBase)auditLogStore).storeLogRecords(logRecords);
+            }
+            catch (Throwable error)
+            {
+                log.error("Error: " + error + " writing " + logRecords.size() + " audit log records to destination " + auditLogStore.getClass().getName());
+            }
+        }
+        else
+        {
+            for (OMRSAuditLogRecord logRecord : logRecords)
+            {
+                try
+                {
+                    auditLogStore.storeLogRecord(logRecord);
+                }
+                catch (Throwable error)
+                {
+                    log.error("Error: " + error + " writing audit log record " + logRecord.getGUID() + " to destination " + auditLogStore.getClass().getName());
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Force the spill file to disk and close it.  Called with the lock held.
+     *
+     * @throws IOException unable to close the file
+     */
+    private void closeSpillWriter() throws IOException
+    {
+        if (spillWriter != null)
+        {
+            BufferedWriter   writer = spillWriter;
+            FileOutputStream stream = spillStream;
+
+            spillWriter = null;
+            spillStream = null;
+            spillSyncPending = false;
+
+            try
+            {
+                writer.flush();
+                stream.getChannel().force(false);
+            }
+            finally
+            {
+                writer.close();
+            }
+        }
+    }
+
+
+    /**
+     * Return the priority used by the dropLowestSeverity overflow policy.
+     *
+     * @param logRecord record
+     * @return priority - 0 is the first to be dropped
+     */
+    private static int getPriority(OMRSAuditLogRecord logRecord)
+    {
+        Integer priority = severityPriority.get(logRecord.getSeverity());
+
+        return (priority == null) ? 1 : priority;
+    }
+
+
+    /**
+     * Return the store that this dispatcher delivers to.
+     *
+     * @return audit log store
+     */
+    OMRSAuditLogStore getAuditLogStore()
+    {
+        return auditLogStore;
+    }
+
+
+    /**
+     * Return the maximum number of records that can be queued.
+     *
+     * @return queue capacity - 0 means records are not queued
+     */
+    int getQueueCapacity()
+    {
+        return (ring == null) ? 0 : ring.length;
+    }
+
+
+    /**
+     * Return the number of records waiting in the queue.  This does not include records in the spill file.
+     *
+     * @return queue depth
+     */
+    int getQueueDepth()
+    {
+        lock.lock();
+        try
+        {
+            return count;
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+
+    /**
+     * Return the number of records discarded because the queue was full, or because they could not be spilled.
+     *
+     * @return count
+     */
+    long getDroppedRecordCount()
+    {
+        lock.lock();
+        try
+        {
+            return droppedRecordCount;
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+
+    /**
+     * Return the number of records written to the spill file because the queue was full.
+     *
+     * @return count
+     */
+    long getSpilledRecordCount()
+    {
+        lock.lock();
+        try
+        {
+            return spilledRecordCount;
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+
+    /**
+     * Deliver the queued records and stop the background thread.  Records logged after this call are
+     * delivered on the logging thread.  Records still in the spill file when the wait for the background
+     * thread times out are delivered the next time the server starts.
+     */
+    void disconnect()
+    {
+        if (worker == null)
+        {
+            return;
+        }
+
+        lock.lock();
+        try
+        {
+            closing = true;
+            notEmpty.signalAll();
+            notFull.signalAll();
+        }
+        finally
+        {
+            lock.unlock();
+        }
+
+        try
+        {
+            worker.join(shutdownTimeout);
+        }
+        catch (InterruptedException error)
+        {
+            Thread.currentThread().interrupt();
+        }
+
+        lock.lock();
+        try
+        {
+            if (count > 0)
+            {
+                log.error("{} audit log records were not delivered to destination {} before shutdown",
+                          count, auditLogStore.getClass().getName());
+            }
+
+            closeSpillWriter();
+        }
+        catch (IOException error)
+        {
+            log.error("Error: " + error + " closing audit log spill file " + spillFile.getPath());
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+}
@@ -28,6 +28,10 @@ public class OMRSAuditLogStoreReport implements Serializable
     private String       destinationName     = null;
     private List<String> supportedSeverities = null;
     private String       implementationClass = null;
+    private int          queueCapacity       = 0;
+    private int          queueDepth          = 0;
+    private long         droppedRecordCount  = 0;
+    private long         spilledRecordCount  = 0;
 
 
     /**
@@ -49,6 +53,11 @@ public class OMRSAuditLogStoreReport implements Serializable
         {
             destinationName = template.getDestinationName();
             supportedSeverities = template.getSupportedSeverities();
+            implementationClass = template.getImplementationClass();
+            queueCapacity = template.getQueueCapacity();
+            queueDepth = template.getQueueDepth();
+            droppedRecordCount = template.getDroppedRecordCount();
+            spilledRecordCount = template.getSpilledRecordCount();
         }
     }
 
@@ -128,6 +137,96 @@ public class OMRSAuditLogStoreReport implements Serializable
     }
 
 
+    /**
+     * Return the number of log records that can be queued for this audit log store.  Zero means the
+     * records are passed to the store on the thread that logs them.
+     *
+     * @return queue capacity
+     */
+    public int getQueueCapacity()
+    {
+        return queueCapacity;
+    }
+
+
+    /**
+     * Set up the number of log records that can be queued for this audit log store.
+     *
+     * @param queueCapacity queue capacity
+     */
+    public void setQueueCapacity(int queueCapacity)
+    {
+        this.queueCapacity = queueCapacity;
+    }
+
+
+    /**
+     * Return the number of log records waiting to be passed to this audit log store when the report was made.
+     *
+     * @return queue depth
+     */
+    public int getQueueDepth()
+    {
+        return queueDepth;
+    }
+
+
+    /**
+     * Set up the number of log records waiting to be passed to this audit log store.
+     *
+     * @param queueDepth queue depth
+     */
+    public void setQueueDepth(int queueDepth)
+    {
+        this.queueDepth = queueDepth;
+    }
+
+
+    /**
+     * Return the number of log records that were discarded since the server started because the queue was full.
+     *
+     * @return count
+     */
+    public long getDroppedRecordCount()
+    {
+        return droppedRecordCount;
+    }
+
+
+    /**
+     * Set up the number of log records that were discarded because the queue was full.
+     *
+     * @param droppedRecordCount count
+     */
+    public void setDroppedRecordCount(long droppedRecordCount)
+    {
+        this.droppedRecordCount = droppedRecordCount;
+    }
+
+
+    /**
+     * Return the number of log records that were written to the spill file since the server started
+     * because the queue was full.
+     *
+     * @return count
+     */
+    public long getSpilledRecordCount()
+    {
+        return spilledRecordCount;
+    }
+
+
+    /**
+     * Set up the number of log records that were written to the spill file because the queue was full.
+     *
+     * @param spilledRecordCount count
+     */
+    public void setSpilledRecordCount(long spilledRecordCount)
+    {
+        this.spilledRecordCount = spilledRecordCount;
+    }
+
+
     /**
      * Standard toString method.
      *
@@ -140,6 +239,10 @@ public class OMRSAuditLogStoreReport implements Serializable
                 "destinationName='" + destinationName + '\'' +
                 ", supportedSeverities=" + supportedSeverities +
                 ", implementationClass='" + implementationClass + '\'' +
+                ", queueCapacity=" + queueCapacity +
+                ", queueDepth=" + queueDepth +
+                ", droppedRecordCount=" + droppedRecordCount +
+                ", spilledRecordCount=" + spilledRecordCount +
                 '}';
     }
 
@@ -162,7 +265,11 @@ public class OMRSAuditLogStoreReport implements Serializable
             return false;
         }
         OMRSAuditLogStoreReport that = (OMRSAuditLogStoreReport) objectToCompare;
-        return Objects.equals(destinationName, that.destinationName) &&
+        return queueCapacity == that.queueCapacity &&
+                queueDepth == that.queueDepth &&
+                droppedRecordCount == that.droppedRecordCount &&
+                spilledRecordCount == that.spilledRecordCount &&
+                Objects.equals(destinationName, that.destinationName) &&
                 Objects.equals(supportedSeverities, that.supportedSeverities) &&
                 Objects.equals(implementationClass, that.implementationClass);
     }
@@ -176,6 +283,7 @@ public class OMRSAuditLogStoreReport implements Serializable
     @Override
     public int hashCode()
     {
-        return Objects.hash(destinationName, supportedSeverities, implementationClass);
+        return Objects.hash(destinationName, supportedSeverities, implementationClass, queueCapacity, queueDepth,
+                            droppedRecordCount, spilledRecordCount);
     }
 }
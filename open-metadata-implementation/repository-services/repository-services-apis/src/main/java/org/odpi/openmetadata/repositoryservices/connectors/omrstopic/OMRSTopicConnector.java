@@ -2,7 +2,6 @@
 /* Copyright Contributors to the ODPi Egeria project. */
 package org.odpi.openmetadata.repositoryservices.connectors.omrstopic;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.odpi.openmetadata.frameworks.auditlog.AuditLog;
 import org.odpi.openmetadata.frameworks.auditlog.AuditLoggingComponent;
 import org.odpi.openmetadata.frameworks.connectors.Connector;
@@ -21,11 +20,16 @@ import org.odpi.openmetadata.repositoryservices.events.beans.OMRSEventBean;
 import org.odpi.openmetadata.repositoryservices.events.beans.v1.OMRSEventV1;
 import org.odpi.openmetadata.repositoryservices.ffdc.OMRSErrorCode;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.OMRSLogicErrorException;
+import org.odpi.openmetadata.repositoryservices.serialization.OMRSCompressedEventCodec;
+import org.odpi.openmetadata.repositoryservices.serialization.OMRSJSONSerializer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 
 /**
@@ -70,6 +74,12 @@ public class OMRSTopicConnector extends ConnectorBase implements OMRSTopic,
     private String                    topicName = "<Unknown>";
     private OMRSEventProtocolVersion  eventProtocolVersion = OMRSEventProtocolVersion.V1;
 
+    /*
+     * The protocol that all of the members of the cohort support.  This is maintained by the cohort registry
+     * from the registration events.  Compressed events are only sent when all members support them.
+     */
+    private volatile OMRSEventProtocolVersion cohortEventProtocolVersion = OMRSEventProtocolVersion.V1;
+
     protected AuditLog auditLog = null;
 
 
@@ -123,6 +133,21 @@ public class OMRSTopicConnector extends ConnectorBase implements OMRSTopic,
     }
 
 
+    /**
+     * Set up the version of the protocol that all of the members of the cohort support.  The cohort registry
+     * calls this method as members register and unregister.
+     *
+     * @param cohortEventProtocolVersion version enum
+     */
+    public void setCohortEventProtocolLevel(OMRSEventProtocolVersion cohortEventProtocolVersion)
+    {
+        if (cohortEventProtocolVersion != null)
+        {
+            this.cohortEventProtocolVersion = cohortEventProtocolVersion;
+        }
+    }
+
+
     /**
      * Register an OMRSTopicListener object.  This object will be supplied with all of the OMRS events
      * received on the topic.
@@ -287,7 +312,33 @@ public class OMRSTopicConnector extends ConnectorBase implements OMRSTopic,
 
 
     /**
-     * Send the registry event to the OMRS Topic connector and manage errors
+     * Return whether the configured event protocol is one this connector can send.
+     *
+     * @return boolean flag
+     */
+    private boolean isSupportedEventVersion()
+    {
+        return (eventProtocolVersion == OMRSEventProtocolVersion.V1) || (eventProtocolVersion == OMRSEventProtocolVersion.V1_COMPRESSED);
+    }
+
+
+    /**
+     * Return whether TypeDef and instance events should be compressed.  This requires the local server to be
+     * configured for compression and all of the members of the cohort to support it.
+     *
+     * @return boolean flag
+     */
+    private boolean isCompressionAgreed()
+    {
+        return (eventProtocolVersion == OMRSEventProtocolVersion.V1_COMPRESSED) &&
+               (cohortEventProtocolVersion == OMRSEventProtocolVersion.V1_COMPRESSED);
+    }
+
+
+    /**
+     * Send the registry event to the OMRS Topic connector and manage errors.  Registry events are never
+     * compressed so that every member of the cohort can process them.  They carry the configured
+     * protocol version so the other members know which protocols this server supports.
      *
      * @param registryEvent  properties of the event to send
      * @throws ConnectorCheckedException the connector is not able to communicate with the event bus
@@ -297,9 +348,12 @@ public class OMRSTopicConnector extends ConnectorBase implements OMRSTopic,
     {
         final String methodName = "sendRegistryEvent";
 
-        if (eventProtocolVersion == OMRSEventProtocolVersion.V1)
+        if (isSupportedEventVersion())
         {
-            this.sendEvent(registryEvent.getOMRSEventV1());
+            OMRSEventV1 event = registryEvent.getOMRSEventV1();
+
+            event.setProtocolVersionId(eventProtocolVersion.getName());
+            this.sendEvent(event, false);
         }
         else
         {
@@ -319,9 +373,9 @@ public class OMRSTopicConnector extends ConnectorBase implements OMRSTopic,
     {
         final String methodName = "sendTypeDefEvent";
 
-        if (eventProtocolVersion == OMRSEventProtocolVersion.V1)
+        if (isSupportedEventVersion())
         {
-            this.sendEvent(typeDefEvent.getOMRSEventV1());
+            this.sendEvent(typeDefEvent.getOMRSEventV1(), isCompressionAgreed());
         }
         else
         {
@@ -342,9 +396,9 @@ public class OMRSTopicConnector extends ConnectorBase implements OMRSTopic,
     {
         final String methodName = "sendInstanceEvent";
 
-        if (eventProtocolVersion == OMRSEventProtocolVersion.V1)
+        if (isSupportedEventVersion())
         {
-            this.sendEvent(instanceEvent.getOMRSEventV1());
+            this.sendEvent(instanceEvent.getOMRSEventV1(), isCompressionAgreed());
         }
         else
         {
@@ -353,13 +407,70 @@ public class OMRSTopicConnector extends ConnectorBase implements OMRSTopic,
     }
 
 
+    /**
+     * Log an event that an event bus was not able to deliver.
+     *
+     * @param error exception from the event bus connector, or null if the event was delivered
+     */
+    private void reportSendFailure(Throwable error)
+    {
+        final String methodName = "reportSendFailure";
+
+        if (error != null)
+        {
+            log.debug("Unable to deliver event: " + error.getMessage());
+
+            if (auditLog != null)
+            {
+                auditLog.logException(methodName,
+                                      OMRSAuditCode.EVENT_BUS_SEND_FAILED.getMessageDefinition(connectionName,
+                                                                                               error.getClass().getName(),
+                                                                                               error.getMessage()),
+                                      error);
+            }
+        }
+    }
+
+
+    /**
+     * Return the exception from an event bus that rejected an event as soon as it was handed over.
+     *
+     * @param delivery future returned by the event bus connector
+     * @return exception or null if the event bus has accepted the event or is still sending it
+     */
+    private Throwable getImmediateFailure(CompletableFuture<Void> delivery)
+    {
+        if ((delivery != null) && (delivery.isCompletedExceptionally()))
+        {
+            try
+            {
+                delivery.getNow(null);
+            }
+            catch (CompletionException | CancellationException error)
+            {
+                if (error.getCause() != null)
+                {
+                    return error.getCause();
+                }
+
+                return error;
+            }
+        }
+
+        return null;
+    }
+
+
     /**
      * Sends the supplied event outbound to the OMRSTopicListeners using the event bus connectors.
      *
      * @param event OMRSEvent object containing the event properties.
-     * @throws ConnectorCheckedException the connector is not able to communicate with the event bus
+     * @param compress should the event be compressed
+     * @throws ConnectorCheckedException the connector is not able to communicate with the event bus, or one of
+     *                                   the event buses rejected the event
      */
-    private void sendEvent(OMRSEventV1 event) throws ConnectorCheckedException
+    private void sendEvent(OMRSEventV1 event,
+                           boolean     compress) throws ConnectorCheckedException
     {
         final String methodName = "send";
 
@@ -367,21 +478,60 @@ public class OMRSTopicConnector extends ConnectorBase implements OMRSTopic,
         {
             try
             {
-                ObjectMapper objectMapper = new ObjectMapper();
+                /*
+                 * The event is serialized once and the same string is sent to each event bus.
+                 */
+                String eventString;
+
+                if (compress)
+                {
+                    eventString = OMRSCompressedEventCodec.encode(event);
+                }
+                else
+                {
+                    eventString = OMRSJSONSerializer.writeValueAsString(event);
+                }
+
+                /*
+                 * The event buses deliver the event in the background so the caller is not held up
+                 * waiting for them.  A failure that is known as soon as the event is handed to an event bus,
+                 * for example because it is disconnected, is returned to the caller.  Failures that happen
+                 * later, once the caller has moved on, are reported to the audit log.
+                 */
+                List<CompletableFuture<Void>> deliveries = new ArrayList<>();
 
                 for (OpenMetadataTopicConnector eventBusConnector : eventBusConnectors)
                 {
                     if (eventBusConnector != null)
                     {
-                        eventBusConnector.sendEvent(objectMapper.writeValueAsString(event));
+                        deliveries.add(eventBusConnector.sendEventAsync(eventString));
                     }
                 }
-            }
-            catch (ConnectorCheckedException exc)
-            {
-                log.debug("Unable to send event: " + exc.getMessage());
 
-                throw exc;
+                Throwable sendFailure = null;
+
+                for (CompletableFuture<Void> delivery : deliveries)
+                {
+                    Throwable immediateFailure = getImmediateFailure(delivery);
+
+                    if (immediateFailure == null)
+                    {
+                        delivery.whenComplete((result, error) -> reportSendFailure(error));
+                    }
+                    else if (sendFailure == null)
+                    {
+                        sendFailure = immediateFailure;
+                    }
+                    else
+                    {
+                        reportSendFailure(immediateFailure);
+                    }
+                }
+
+                if (sendFailure != null)
+                {
+                    throw sendFailure;
+                }
             }
             catch (Throwable exc)
             {
@@ -427,9 +577,17 @@ public class OMRSTopicConnector extends ConnectorBase implements OMRSTopic,
              */
             try
             {
-                ObjectMapper objectMapper = new ObjectMapper();
-
-                eventBean = objectMapper.readValue(event, OMRSEventBean.class);
+                /*
+                 * Compressed events are always accepted, whatever the configured protocol level.
+                 */
+                if (OMRSCompressedEventCodec.isCompressed(event))
+                {
+                    eventBean = OMRSCompressedEventCodec.decode(event, OMRSEventBean.class);
+                }
+                else
+                {
+                    eventBean = OMRSJSONSerializer.readValue(event, OMRSEventBean.class);
+                }
             }
             catch (Throwable   exception)
             {
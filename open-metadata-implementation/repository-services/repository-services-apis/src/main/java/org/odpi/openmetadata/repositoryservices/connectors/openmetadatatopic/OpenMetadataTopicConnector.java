@@ -2,15 +2,22 @@
 /* Copyright Contributors to the ODPi Egeria project. */
 package org.odpi.openmetadata.repositoryservices.connectors.openmetadatatopic;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.odpi.openmetadata.frameworks.auditlog.AuditLog;
 import org.odpi.openmetadata.frameworks.auditlog.AuditLoggingComponent;
 import org.odpi.openmetadata.frameworks.connectors.ConnectorBase;
 import org.odpi.openmetadata.frameworks.connectors.ffdc.ConnectorCheckedException;
+import org.odpi.openmetadata.frameworks.connectors.properties.ConnectionProperties;
 import org.odpi.openmetadata.frameworks.connectors.properties.EndpointProperties;
 import org.odpi.openmetadata.repositoryservices.ffdc.OMRSAuditCode;
 import org.odpi.openmetadata.repositoryservices.connectors.omrstopic.InternalOMRSEventProcessingContext;
@@ -25,10 +32,18 @@ import org.slf4j.LoggerFactory;
  * extend this class to include the interaction with the eventing/messaging layer.
  * <ul>
  *     <li>
- *         For inbound events it should call the protected distributeEvents() method.
+ *         For inbound events it should either return them from the protected checkForIncomingEvents() method,
+ *         which is polled by the listener thread, or hand them to the protected pushEvent() method as they arrive.
+ *         Pushed events are held in a single first-in-first-out queue and wake the listener thread immediately.
+ *         They are distributed in batches, in the order they were pushed.  When the queue is full, the sender waits
+ *         for up to the event queue timeout so a slow listener applies back-pressure.  Events are never discarded:
+ *         if the queue is still full after the timeout, the event is queued anyway and senders stop waiting until
+ *         the listener has caught up.
  *     </li>
  *     <li>
- *         For outbound events, callers will invoke the sendEvent() method.
+ *         For outbound events, callers will invoke the sendEvent() or sendEventAsync() method.  Connectors that
+ *         buffer events before sending them to the event bus should override sendEventAsync() so the returned
+ *         future completes when the event bus has accepted the event.
  *     </li>
  *     <li>
  *         When the server no longer needs the topic, it will call disconnect().
@@ -50,6 +65,24 @@ public abstract class OpenMetadataTopicConnector extends ConnectorBase implement
     private String                          listenerThreadName = defaultThreadName;
     private String                          topicName          = defaultTopicName;
     private int                             sleepTime          = 100;
+    private int                             eventBatchSize     = 100;
+
+    private static final int                defaultEventQueueCapacity = 10000;
+    private static final long               defaultEventQueueTimeout  = 1000;
+
+    /*
+     * The pushed events and the overflow flag are protected by eventQueueLock.  The queue may grow beyond its
+     * capacity when the listener thread pushes events, or when the listeners have not freed space within the
+     * timeout.  While eventQueueOverflow is set, senders do not wait for space.
+     */
+    private final    ReentrantLock        eventQueueLock     = new ReentrantLock();
+    private final    Condition            eventQueueNotEmpty = eventQueueLock.newCondition();
+    private final    Condition            eventQueueNotFull  = eventQueueLock.newCondition();
+    private final    Deque<IncomingEvent> pushedEvents       = new ArrayDeque<>();
+    private          int                  eventQueueCapacity = defaultEventQueueCapacity;
+    private          boolean              eventQueueOverflow = false;
+    private volatile Thread               listenerThread     = null;
+    private          long                 eventQueueTimeout  = defaultEventQueueTimeout;
 
     protected AuditLog auditLog = null;
 
@@ -62,6 +95,43 @@ public abstract class OpenMetadataTopicConnector extends ConnectorBase implement
     }
 
 
+    /**
+     * Call made by the ConnectorProvider to initialize the Connector with the base services.  The size of the
+     * queue for pushed events, and how long a sender waits for space in it, are set from the configuration properties.
+     *
+     * @param connectorInstanceId   unique id for the connector instance   useful for messages etc
+     * @param connectionProperties   POJO for the configuration used to create the connector.
+     */
+    @Override
+    public void initialize(String               connectorInstanceId,
+                           ConnectionProperties connectionProperties)
+    {
+        super.initialize(connectorInstanceId, connectionProperties);
+
+        if (connectionProperties != null)
+        {
+            Map<String, Object> configurationProperties = connectionProperties.getConfigurationProperties();
+
+            if (configurationProperties != null)
+            {
+                Object   eventQueueCapacity = configurationProperties.get(OpenMetadataTopicProvider.eventQueueCapacityProperty);
+
+                if ((eventQueueCapacity instanceof Integer) && ((Integer)eventQueueCapacity > 0))
+                {
+                    this.eventQueueCapacity = (Integer)eventQueueCapacity;
+                }
+
+                Object   eventQueueTimeout = configurationProperties.get(OpenMetadataTopicProvider.eventQueueTimeoutProperty);
+
+                if ((eventQueueTimeout instanceof Number) && (((Number)eventQueueTimeout).longValue() >= 0))
+                {
+                    this.eventQueueTimeout = ((Number)eventQueueTimeout).longValue();
+                }
+            }
+        }
+    }
+
+
     /**
      * Receive an audit log object that can be used to record audit log messages.  The caller has initialized it
      * with the correct component description and log destinations.
@@ -106,7 +176,10 @@ public abstract class OpenMetadataTopicConnector extends ConnectorBase implement
                     log.error("Bad exception from checkForEvents", error);
                 }
 
-                Thread.sleep(sleepTime);
+                /*
+                 * Rather than sleeping, wait for pushed events so the listener wakes as soon as they arrive.
+                 */
+                this.distributePushedEvents();
             }
             catch (InterruptedException   wakeUp)
             {
@@ -121,11 +194,185 @@ public abstract class OpenMetadataTopicConnector extends ConnectorBase implement
 
 
     /**
-     * Pass an event that has been received on the topic to each of the registered listeners.
+     * Wait up to the sleep time for pushed events and then distribute the events that are waiting, up to
+     * the batch size, in the order they were pushed.
+     *
+     * @throws InterruptedException the listener thread was interrupted while waiting
+     */
+    private void distributePushedEvents() throws InterruptedException
+    {
+        List<IncomingEvent> batch = new ArrayList<>();
+
+        eventQueueLock.lockInterruptibly();
+        try
+        {
+            long remainingWait = TimeUnit.MILLISECONDS.toNanos(sleepTime);
+
+            while (pushedEvents.isEmpty())
+            {
+                if (remainingWait <= 0)
+                {
+                    return;
+                }
+
+                remainingWait = eventQueueNotEmpty.awaitNanos(remainingWait);
+            }
+
+            while ((! pushedEvents.isEmpty()) && (batch.size() < eventBatchSize))
+            {
+                batch.add(pushedEvents.poll());
+            }
+
+            if (pushedEvents.size() < eventQueueCapacity)
+            {
+                eventQueueOverflow = false;
+                eventQueueNotFull.signalAll();
+            }
+        }
+        finally
+        {
+            eventQueueLock.unlock();
+        }
+
+        for (IncomingEvent event : batch)
+        {
+            this.distributeEvent(event);
+        }
+    }
+
+
+    /**
+     * Hand an event received from the event bus to the listener thread.  While the queue of waiting events is
+     * full, the caller waits up to the event queue timeout for space.  If there is still no space, the event is
+     * queued anyway so it is not lost, and later callers do not wait until the listener thread has caught up.
+     * The listener thread itself (for example, when a listener's processing causes a new event on the same topic)
+     * never waits since it is the thread that frees the space.  Every event joins the end of the same queue so
+     * events are distributed in the order they are pushed.
+     *
+     * @param event incoming event
+     * @return false if the queue stayed full for the whole timeout so the event was queued beyond its capacity
+     * @throws InterruptedException the caller was interrupted while waiting for space in the queue - the event
+     *                              is not queued
+     */
+    protected boolean pushEvent(IncomingEvent event) throws InterruptedException
+    {
+        final String actionDescription = "pushEvent";
+
+        boolean queuedWithinCapacity = true;
+        boolean overflowStarted      = false;
+
+        if (event != null)
+        {
+            eventQueueLock.lockInterruptibly();
+            try
+            {
+                if (Thread.currentThread() != listenerThread)
+                {
+                    long remainingWait = TimeUnit.MILLISECONDS.toNanos(eventQueueTimeout);
+
+                    while ((pushedEvents.size() >= eventQueueCapacity) && (! eventQueueOverflow) && (remainingWait > 0))
+                    {
+                        remainingWait = eventQueueNotFull.awaitNanos(remainingWait);
+                    }
+
+                    if (pushedEvents.size() >= eventQueueCapacity)
+                    {
+                        queuedWithinCapacity = false;
+                        overflowStarted = ! eventQueueOverflow;
+                        eventQueueOverflow = true;
+                    }
+                }
+
+                pushedEvents.add(event);
+                eventQueueNotEmpty.signal();
+            }
+            finally
+            {
+                eventQueueLock.unlock();
+            }
+        }
+
+        if ((overflowStarted) && (auditLog != null))
+        {
+            auditLog.logMessage(actionDescription,
+                                OMRSAuditCode.OPEN_METADATA_TOPIC_QUEUE_OVERFLOW.getMessageDefinition(topicName,
+                                                                                                     Long.toString(eventQueueTimeout),
+                                                                                                     Integer.toString(eventQueueCapacity)));
+        }
+
+        return queuedWithinCapacity;
+    }
+
+
+    /**
+     * Hand an event received from the event bus to the listener thread.  The message id is derived from the
+     * event in the same way as events returned from checkForEvents().
+     *
+     * @param event incoming event
+     * @return false if the queue stayed full for the whole timeout so the event was queued beyond its capacity
+     * @throws InterruptedException the caller was interrupted while waiting for space in the queue - the event
+     *                              is not queued
+     */
+    protected boolean pushEvent(String event) throws InterruptedException
+    {
+        if (event != null)
+        {
+            return this.pushEvent(new IncomingEvent(event, String.valueOf(event.hashCode())));
+        }
+
+        return true;
+    }
+
+
+    /**
+     * Return the name of the topic.
+     *
+     * @return topic name from the connection's endpoint
+     */
+    protected String getTopicName()
+    {
+        return topicName;
+    }
+
+
+    /**
+     * Return the number of pushed events waiting for the listener thread.
+     *
+     * @return queue depth
+     */
+    protected int getPushedEventCount()
+    {
+        eventQueueLock.lock();
+        try
+        {
+            return pushedEvents.size();
+        }
+        finally
+        {
+            eventQueueLock.unlock();
+        }
+    }
+
+
+    /**
+     * Return the number of milliseconds that pushEvent() waits for space in a full queue.
+     *
+     * @return timeout in milliseconds
+     */
+    protected long getEventQueueTimeout()
+    {
+        return eventQueueTimeout;
+    }
+
+
+    /**
+     * Pass an event that has been received on the topic to each of the registered listeners.  This is
+     * normally called on the listener thread.  Connectors that process events on their own worker threads
+     * may call it directly, provided each worker handles its events in order.
      *
      * @param event OMRSEvent to distribute
      */
-    private void distributeEvent(IncomingEvent event)
+    protected void distributeEvent(IncomingEvent event)
     {
         //Initially clear the async event processing context to ensure that it will only
         //have results from processing this event
@@ -189,6 +436,32 @@ public abstract class OpenMetadataTopicConnector extends ConnectorBase implement
     }
 
 
+    /**
+     * Sends the supplied event to the topic without waiting for the event bus.  The returned future completes
+     * when the event has been delivered, or completes exceptionally if it could not be delivered.  By default, the
+     * event is sent with sendEvent() and the future is already complete when it is returned.
+     *
+     * @param event  object containing the event properties.
+     * @return future for the delivery of the event
+     */
+    public CompletableFuture<Void> sendEventAsync(String event)
+    {
+        CompletableFuture<Void> result = new CompletableFuture<>();
+
+        try
+        {
+            this.sendEvent(event);
+            result.complete(null);
+        }
+        catch (Throwable error)
+        {
+            result.completeExceptionally(error);
+        }
+
+        return result;
+    }
+
+
     /**
      * Register a listener object.  This object will be supplied with all of the events received on the topic.
      *
@@ -249,16 +522,23 @@ public abstract class OpenMetadataTopicConnector extends ConnectorBase implement
 
             if (configurationProperties != null)
             {
-                Object   sleepTime = configurationProperties.get("sleepTime");
+                Object   sleepTime = configurationProperties.get(OpenMetadataTopicProvider.sleepTimeProperty);
 
                 if (sleepTime instanceof Integer)
                 {
                     this.sleepTime = (Integer)sleepTime;
                 }
+
+                Object   eventBatchSize = configurationProperties.get(OpenMetadataTopicProvider.eventBatchSizeProperty);
+
+                if ((eventBatchSize instanceof Integer) && ((Integer)eventBatchSize > 0))
+                {
+                    this.eventBatchSize = (Integer)eventBatchSize;
+                }
             }
         }
 
-        Thread listenerThread = new Thread(this, listenerThreadName);
+        listenerThread = new Thread(this, listenerThreadName);
         listenerThread.start();
     }
 
@@ -11,7 +11,10 @@ import org.odpi.openmetadata.repositoryservices.auditlog.OMRSAuditingComponent;
  */
 public abstract class OpenMetadataTopicProvider extends ConnectorProviderBase
 {
-    protected static final String  sleepTimeProperty = "sleepTime";
+    protected static final String  sleepTimeProperty          = "sleepTime";
+    protected static final String  eventQueueCapacityProperty = "eventQueueCapacity";
+    protected static final String  eventBatchSizeProperty     = "eventBatchSize";
+    protected static final String  eventQueueTimeoutProperty  = "eventQueueTimeout";
 
     /**
      * Constructor used to initialize the ConnectorProviderBase with the Java class name of the specific
@@ -2,7 +2,6 @@
 /* Copyright Contributors to the ODPi Egeria project. */
 package org.odpi.openmetadata.repositoryservices.connectors.stores.auditlogstore;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.odpi.openmetadata.frameworks.auditlog.AuditLogRecord;
 import org.odpi.openmetadata.frameworks.connectors.ConnectorBase;
 import org.odpi.openmetadata.frameworks.connectors.properties.ConnectionProperties;
@@ -12,6 +11,7 @@ import org.odpi.openmetadata.repositoryservices.ffdc.exception.FunctionNotSuppor
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.InvalidParameterException;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.PagingErrorException;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.RepositoryErrorException;
+import org.odpi.openmetadata.repositoryservices.serialization.OMRSJSONSerializer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -33,6 +33,11 @@ public abstract class OMRSAuditLogStoreConnectorBase extends ConnectorBase imple
     private String        destinationName = "<Unknown";
     private List<String>  supportedSeverities = null;
 
+    private int                             dispatchQueueSize = OMRSAuditLogStoreProviderBase.defaultDispatchQueueSize;
+    private int                             dispatchBatchSize = OMRSAuditLogStoreProviderBase.defaultDispatchBatchSize;
+    private OMRSAuditLogStoreOverflowPolicy overflowPolicy    = OMRSAuditLogStoreOverflowPolicy.DROP_LOWEST_SEVERITY;
+    private String                          spillDirectory    = null;
+
 
     /**
      * Default constructor
@@ -64,6 +69,52 @@ public abstract class OMRSAuditLogStoreConnectorBase extends ConnectorBase imple
     }
 
 
+    /**
+     * Return the number of log records that the audit log destination queues for this store.
+     * Zero means the records are delivered on the thread that logs them.
+     *
+     * @return queue size
+     */
+    public int getDispatchQueueSize()
+    {
+        return dispatchQueueSize;
+    }
+
+
+    /**
+     * Return the maximum number of queued log records that are passed to storeLogRecords in one call.
+     *
+     * @return batch size
+     */
+    public int getDispatchBatchSize()
+    {
+        return dispatchBatchSize;
+    }
+
+
+    /**
+     * Return what happens to new log records when the dispatch queue is full.
+     *
+     * @return overflow policy
+     */
+    public OMRSAuditLogStoreOverflowPolicy getOverflowPolicy()
+    {
+        return overflowPolicy;
+    }
+
+
+    /**
+     * Return the directory used for the spill file when the overflow policy is SPILL_TO_DISK.
+     * Null means the server's default location.
+     *
+     * @return directory name
+     */
+    public String getSpillDirectory()
+    {
+        return spillDirectory;
+    }
+
+
     /**
      * Store the audit log record in the audit log store.
      *
@@ -91,6 +142,36 @@ public abstract class OMRSAuditLogStoreConnectorBase extends ConnectorBase imple
     }
 
 
+    /**
+     * Store a batch of audit log records in the audit log store, in list order.  This is called by the
+     * audit log destination when it delivers queued records.  This implementation stores the records one
+     * at a time, logging any record that can not be stored and carrying on with the rest.  Stores that can
+     * write a batch more efficiently than a record at a time should override it.
+     *
+     * @param logRecords log records to store
+     * @throws InvalidParameterException indicates that the logRecords parameter is invalid.
+     * @throws RepositoryErrorException  indicates that the audit log store is not available or has an error.
+     */
+    public void storeLogRecords(List<OMRSAuditLogRecord> logRecords) throws InvalidParameterException,
+                                                                             RepositoryErrorException
+    {
+        if (logRecords != null)
+        {
+            for (OMRSAuditLogRecord logRecord : logRecords)
+            {
+                try
+                {
+                    this.storeLogRecord(logRecord);
+                }
+                catch (InvalidParameterException | RepositoryErrorException error)
+                {
+                    log.error("Error: " + error + " writing audit log: " + logRecord + " to destination " + destinationName);
+                }
+            }
+        }
+    }
+
+
     /**
      * Retrieve a specific audit log record.
      *
@@ -288,11 +369,9 @@ public abstract class OMRSAuditLogStoreConnectorBase extends ConnectorBase imple
     {
         final String parameterName = "logRecord";
 
-        ObjectMapper objectMapper = new ObjectMapper();
-
         try
         {
-            return objectMapper.writeValueAsString(logRecord);
+            return OMRSJSONSerializer.writeValueAsString(logRecord);
         }
         catch (Throwable  exc)
         {
@@ -373,7 +452,75 @@ public abstract class OMRSAuditLogStoreConnectorBase extends ConnectorBase imple
                         }
                     }
                 }
+
+                dispatchQueueSize = getIntProperty(configurationProperties,
+                                                   OMRSAuditLogStoreProviderBase.dispatchQueueSizeProperty,
+                                                   dispatchQueueSize);
+                dispatchBatchSize = getIntProperty(configurationProperties,
+                                                   OMRSAuditLogStoreProviderBase.dispatchBatchSizeProperty,
+                                                   dispatchBatchSize);
+
+                Object overflowPolicyProperty = configurationProperties.get(OMRSAuditLogStoreProviderBase.overflowPolicyProperty);
+
+                if (overflowPolicyProperty != null)
+                {
+                    OMRSAuditLogStoreOverflowPolicy policy = OMRSAuditLogStoreOverflowPolicy.getPolicy(overflowPolicyProperty.toString());
+
+                    if (policy == null)
+                    {
+                        log.error("Ignoring invalid value {} for audit log store property {}",
+                                  overflowPolicyProperty, OMRSAuditLogStoreProviderBase.overflowPolicyProperty);
+                    }
+                    else
+                    {
+                        overflowPolicy = policy;
+                    }
+                }
+
+                Object spillDirectoryProperty = configurationProperties.get(OMRSAuditLogStoreProviderBase.spillDirectoryProperty);
+
+                if (spillDirectoryProperty != null)
+                {
+                    spillDirectory = spillDirectoryProperty.toString();
+                }
             }
         }
     }
+
+
+    /**
+     * Return a numeric configuration property.  Negative values are ignored.
+     *
+     * @param configurationProperties properties from the connection
+     * @param propertyName name of the property
+     * @param defaultValue value to use if the property is not set or is not valid
+     * @return property value
+     */
+    private int getIntProperty(Map<String, Object> configurationProperties,
+                               String              propertyName,
+                               int                 defaultValue)
+    {
+        Object property = configurationProperties.get(propertyName);
+
+        if (property != null)
+        {
+            try
+            {
+                int value = Integer.parseInt(property.toString());
+
+                if (value >= 0)
+                {
+                    return value;
+                }
+            }
+            catch (NumberFormatException error)
+            {
+                // Reported below
+            }
+
+            log.error("Ignoring invalid value {} for audit log store property {}", property, propertyName);
+        }
+
+        return defaultValue;
+    }
 }
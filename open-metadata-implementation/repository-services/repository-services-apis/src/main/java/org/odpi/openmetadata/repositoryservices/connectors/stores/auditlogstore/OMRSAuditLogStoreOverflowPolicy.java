@@ -0,0 +1,109 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.connectors.stores.auditlogstore;
+
+/**
+ * OMRSAuditLogStoreOverflowPolicy defines what happens to a new log record when the dispatch queue of an
+ * audit log store is full because the store is not keeping up with the rate that records are logged.
+ */
+public enum OMRSAuditLogStoreOverflowPolicy
+{
+    BLOCK                (0, "block",              "The thread logging the record waits until there is space in the queue."),
+    DROP_LOWEST_SEVERITY (1, "dropLowestSeverity", "The least important record in the queue, or the new record if it is the " +
+            "least important, is discarded.  Trace and performance records are discarded first, then informational records " +
+            "and then decision, startup, shutdown and asset records.  Records about actions, errors, exceptions and security " +
+            "are never discarded: if the queue is full of them, the thread logging the record waits."),
+    SPILL_TO_DISK        (2, "spillToDisk",        "The record is written to a spill file and delivered to the store once the " +
+            "queue has drained.  Records left in the spill file at shutdown are delivered when the server next starts.");
+
+
+    private int    ordinal;
+    private String name;
+    private String description;
+
+
+    /**
+     * Typical constructor sets up the selected enum value.
+     *
+     * @param ordinal numeric of this enum.
+     * @param name name of enum - this is the value used in the overflowPolicy configuration property.
+     * @param description default description of enum.
+     */
+    OMRSAuditLogStoreOverflowPolicy(int    ordinal,
+                                    String name,
+                                    String description)
+    {
+        this.ordinal = ordinal;
+        this.name = name;
+        this.description = description;
+    }
+
+
+    /**
+     * Return the code for this enum.
+     *
+     * @return int numeric for this enum
+     */
+    public int getOrdinal()
+    {
+        return ordinal;
+    }
+
+
+    /**
+     * Return the name of this enum.  This is the value used in the overflowPolicy configuration property.
+     *
+     * @return String name
+     */
+    public String getName()
+    {
+        return name;
+    }
+
+
+    /**
+     * Return the default description of this enum.
+     *
+     * @return String default description
+     */
+    public String getDescription()
+    {
+        return description;
+    }
+
+
+    /**
+     * Return the policy with the supplied name.  The match ignores case.
+     *
+     * @param name value of the overflowPolicy configuration property
+     * @return matching policy or null if the name is not recognized
+     */
+    public static OMRSAuditLogStoreOverflowPolicy getPolicy(String name)
+    {
+        for (OMRSAuditLogStoreOverflowPolicy policy : OMRSAuditLogStoreOverflowPolicy.values())
+        {
+            if (policy.getName().equalsIgnoreCase(name) || policy.name().equalsIgnoreCase(name))
+            {
+                return policy;
+            }
+        }
+
+        return null;
+    }
+
+
+    /**
+     * toString() JSON-style
+     *
+     * @return string description
+     */
+    @Override
+    public String toString()
+    {
+        return "OMRSAuditLogStoreOverflowPolicy{" +
+                "ordinal=" + ordinal +
+                ", name='" + name + '\'' +
+                ", description='" + description + '\'' +
+                '}';
+    }
+}
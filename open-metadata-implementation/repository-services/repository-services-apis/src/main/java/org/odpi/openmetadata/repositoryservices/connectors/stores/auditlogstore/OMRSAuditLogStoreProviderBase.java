@@ -18,6 +18,18 @@ public abstract class OMRSAuditLogStoreProviderBase extends ConnectorProviderBas
 {
     public static final String  supportedSeveritiesProperty = "supportedSeverities";
 
+    /*
+     * These properties control how the audit log destination delivers records to the store.
+     * A dispatchQueueSize of 0 delivers each record on the thread that logged it.  This is the default,
+     * so a store only has its records queued if its connection sets dispatchQueueSize.
+     */
+    public static final String  dispatchQueueSizeProperty   = "dispatchQueueSize";
+    public static final int     defaultDispatchQueueSize    = 0;
+    public static final String  dispatchBatchSizeProperty   = "dispatchBatchSize";
+    public static final int     defaultDispatchBatchSize    = 100;
+    public static final String  overflowPolicyProperty      = "overflowPolicy";
+    public static final String  spillDirectoryProperty      = "spillDirectory";
+
     /**
      * Default Constructor
      */
@@ -32,13 +44,17 @@ public abstract class OMRSAuditLogStoreProviderBase extends ConnectorProviderBas
     /**
      * Return the list of recognized configuration properties supported by the base class for the connector.
      *
-     * @return list of Audit log severities that this connector is configured to support (see OMRSAuditLogRecordSeverity).
+     * @return list of configuration property names
      */
     protected List<String> getRecognizedConfigurationProperties()
     {
         List<String> recognizedConfigurationProperties = new ArrayList<>();
 
         recognizedConfigurationProperties.add(supportedSeveritiesProperty);
+        recognizedConfigurationProperties.add(dispatchQueueSizeProperty);
+        recognizedConfigurationProperties.add(dispatchBatchSizeProperty);
+        recognizedConfigurationProperties.add(overflowPolicyProperty);
+        recognizedConfigurationProperties.add(spillDirectoryProperty);
 
         return recognizedConfigurationProperties;
     }
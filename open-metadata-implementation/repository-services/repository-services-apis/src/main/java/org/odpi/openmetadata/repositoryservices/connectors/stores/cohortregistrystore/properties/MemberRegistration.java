@@ -36,6 +36,7 @@ public class MemberRegistration implements Serializable
     private String     organizationName       = null;
     private Date       registrationTime       = null;
     private Connection repositoryConnection   = null;
+    private String     eventProtocolVersion   = null;
 
 
     /**
@@ -65,6 +66,7 @@ public class MemberRegistration implements Serializable
             organizationName = template.getOrganizationName();
             registrationTime = template.getRegistrationTime();
             repositoryConnection = template.getRepositoryConnection();
+            eventProtocolVersion = template.getEventProtocolVersion();
 
         }
     }
@@ -231,6 +233,29 @@ public class MemberRegistration implements Serializable
     }
 
 
+    /**
+     * Return the name of the OMRSEventProtocolVersion that the member advertised in its registration.
+     * Null means the member only supports the original V1 protocol.
+     *
+     * @return String protocol version name
+     */
+    public String getEventProtocolVersion()
+    {
+        return eventProtocolVersion;
+    }
+
+
+    /**
+     * Set up the name of the OMRSEventProtocolVersion that the member advertised in its registration.
+     *
+     * @param eventProtocolVersion String protocol version name
+     */
+    public void setEventProtocolVersion(String eventProtocolVersion)
+    {
+        this.eventProtocolVersion = eventProtocolVersion;
+    }
+
+
     /**
      * Validate if the values stored match the object to compare.
      *
@@ -255,7 +280,8 @@ public class MemberRegistration implements Serializable
                 Objects.equals(getServerType(), that.getServerType()) &&
                 Objects.equals(getOrganizationName(), that.getOrganizationName()) &&
                 Objects.equals(getRegistrationTime(), that.getRegistrationTime()) &&
-                Objects.equals(getRepositoryConnection(), that.getRepositoryConnection());
+                Objects.equals(getRepositoryConnection(), that.getRepositoryConnection()) &&
+                Objects.equals(getEventProtocolVersion(), that.getEventProtocolVersion());
     }
 
 
@@ -274,7 +300,8 @@ public class MemberRegistration implements Serializable
                             getServerType(),
                             getOrganizationName(),
                             getRegistrationTime(),
-                            getRepositoryConnection());
+                            getRepositoryConnection(),
+                            getEventProtocolVersion());
     }
 
 
@@ -294,6 +321,7 @@ public class MemberRegistration implements Serializable
                 ", organizationName='" + organizationName + '\'' +
                 ", registrationTime=" + registrationTime +
                 ", repositoryConnection=" + repositoryConnection +
+                ", eventProtocolVersion='" + eventProtocolVersion + '\'' +
                 '}';
     }
 }
@@ -2,6 +2,7 @@
 /* Copyright Contributors to the ODPi Egeria project. */
 package org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore;
 
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.concurrent.Future;
@@ -1631,6 +1632,63 @@ public abstract class OMRSMetadataCollection implements AuditLoggingComponent
     }
 
 
+    /**
+     * Create a list of new entities and put them in their requested states.  Each entity in the list is a
+     * template for a new entity: its type, properties, classifications and status are used in the same way as
+     * the parameters of addEntity and the rest of its header is ignored.  The new entities are returned
+     * in the same order as the templates.
+     *
+     * This default implementation calls addEntity for each entity.  Repositories that can validate and store
+     * a list of instances more efficiently should override it.  If one of the entities can not be created, the
+     * entities that were created before it remain in the metadata collection.
+     *
+     * @param userId unique identifier for requesting user.
+     * @param newEntities templates for the new entities.
+     * @return list of EntityDetail objects showing the new headers plus the requested properties and classifications.
+     * @throws InvalidParameterException one of the parameters is invalid or null.
+     * @throws RepositoryErrorException there is a problem communicating with the metadata repository where
+     *                                    the metadata collection is stored.
+     * @throws TypeErrorException one of the requested types is not known, or not supported in the metadata repository
+     *                              hosting the metadata collection.
+     * @throws PropertyErrorException one or more of the requested properties are not defined, or have different
+     *                                  characteristics in the TypeDef for the entity's type.
+     * @throws ClassificationErrorException one or more of the requested classifications are either not known or
+     *                                           not defined for the entity's type.
+     * @throws StatusNotSupportedException the metadata repository hosting the metadata collection does not support
+     *                                       one of the requested statuses.
+     * @throws FunctionNotSupportedException the repository does not support maintenance of metadata.
+     * @throws UserNotAuthorizedException the userId is not permitted to perform this operation.
+     */
+    public List<EntityDetail> addEntities(String             userId,
+                                          List<EntityDetail> newEntities) throws InvalidParameterException,
+                                                                                 RepositoryErrorException,
+                                                                                 TypeErrorException,
+                                                                                 PropertyErrorException,
+                                                                                 ClassificationErrorException,
+                                                                                 StatusNotSupportedException,
+                                                                                 FunctionNotSupportedException,
+                                                                                 UserNotAuthorizedException
+    {
+        List<EntityDetail> results = new ArrayList<>();
+
+        if (newEntities != null)
+        {
+            for (EntityDetail newEntity : newEntities)
+            {
+                EntityDetail template = (newEntity == null) ? new EntityDetail() : newEntity;
+
+                results.add(this.addEntity(userId,
+                                           getTypeDefGUID(template),
+                                           template.getProperties(),
+                                           template.getClassifications(),
+                                           template.getStatus()));
+            }
+        }
+
+        return results;
+    }
+
+
     /**
      * Create an entity proxy in the metadata collection.  This is used to store relationships that span metadata
      * repositories.
@@ -1879,6 +1937,55 @@ public abstract class OMRSMetadataCollection implements AuditLoggingComponent
     }
 
 
+    /**
+     * Add the requested classification to each entity in a list.  The updated entities are returned in the
+     * same order as the list of unique identifiers.
+     *
+     * This default implementation calls classifyEntity for each entity.  Repositories that can validate and
+     * store a list of instances more efficiently should override it.  If one of the entities can not be
+     * classified, the entities that were classified before it keep their new classification.
+     *
+     * @param userId unique identifier for requesting user.
+     * @param entityGUIDs list of unique identifiers (guids) for the entities.
+     * @param classificationName String name for the classification.
+     * @param classificationProperties list of properties to set in the classification.
+     * @return list of EntityDetail objects showing the resulting entity headers, properties and classifications.
+     * @throws InvalidParameterException one of the parameters is invalid or null.
+     * @throws RepositoryErrorException there is a problem communicating with the metadata repository where
+     *                                  the metadata collection is stored.
+     * @throws EntityNotKnownException one of the entities identified by the guids is not found in the metadata collection
+     * @throws ClassificationErrorException the requested classification is either not known or not valid
+     *                                         for one of the entities.
+     * @throws PropertyErrorException one or more of the requested properties are not defined, or have different
+     *                                characteristics in the TypeDef for this classification type
+     * @throws FunctionNotSupportedException the repository does not support maintenance of metadata.
+     * @throws UserNotAuthorizedException the userId is not permitted to perform this operation.
+     */
+    public List<EntityDetail> classifyEntities(String             userId,
+                                               List<String>       entityGUIDs,
+                                               String             classificationName,
+                                               InstanceProperties classificationProperties) throws InvalidParameterException,
+                                                                                                   RepositoryErrorException,
+                                                                                                   EntityNotKnownException,
+                                                                                                   ClassificationErrorException,
+                                                                                                   PropertyErrorException,
+                                                                                                   FunctionNotSupportedException,
+                                                                                                   UserNotAuthorizedException
+    {
+        List<EntityDetail> results = new ArrayList<>();
+
+        if (entityGUIDs != null)
+        {
+            for (String entityGUID : entityGUIDs)
+            {
+                results.add(this.classifyEntity(userId, entityGUID, classificationName, classificationProperties));
+            }
+        }
+
+        return results;
+    }
+
+
     /**
      * Remove a specific classification from an entity.
      *
@@ -2029,6 +2136,98 @@ public abstract class OMRSMetadataCollection implements AuditLoggingComponent
     }
 
 
+    /**
+     * Add a list of new relationships to the metadata collection.  Each relationship in the list is a template
+     * for a new relationship: its type, properties, status and the unique identifiers of the entities in its
+     * entity proxies are used in the same way as the parameters of addRelationship and the rest of its
+     * header is ignored.  The new relationships are returned in the same order as the templates.
+     *
+     * This default implementation calls addRelationship for each relationship.  Repositories that can validate
+     * and store a list of instances more efficiently should override it.  If one of the relationships can not
+     * be created, the relationships that were created before it remain in the metadata collection.
+     *
+     * @param userId unique identifier for requesting user.
+     * @param newRelationships templates for the new relationships.
+     * @return list of Relationship structures with the new headers, requested entities and properties.
+     * @throws InvalidParameterException one of the parameters is invalid or null.
+     * @throws RepositoryErrorException there is a problem communicating with the metadata repository where
+     *                                 the metadata collection is stored.
+     * @throws TypeErrorException one of the requested types is not known, or not supported in the metadata repository
+     *                            hosting the metadata collection.
+     * @throws PropertyErrorException one or more of the requested properties are not defined, or have different
+     *                                  characteristics in the TypeDef for the relationship's type.
+     * @throws EntityNotKnownException one of the requested entities is not known in the metadata collection.
+     * @throws StatusNotSupportedException the metadata repository hosting the metadata collection does not support
+     *                                     one of the requested statuses.
+     * @throws UserNotAuthorizedException the userId is not permitted to perform this operation.
+     * @throws FunctionNotSupportedException the repository does not support maintenance of metadata.
+     */
+    public List<Relationship> addRelationships(String             userId,
+                                               List<Relationship> newRelationships) throws InvalidParameterException,
+                                                                                           RepositoryErrorException,
+                                                                                           TypeErrorException,
+                                                                                           PropertyErrorException,
+                                                                                           EntityNotKnownException,
+                                                                                           StatusNotSupportedException,
+                                                                                           UserNotAuthorizedException,
+                                                                                           FunctionNotSupportedException
+    {
+        List<Relationship> results = new ArrayList<>();
+
+        if (newRelationships != null)
+        {
+            for (Relationship newRelationship : newRelationships)
+            {
+                Relationship template = (newRelationship == null) ? new Relationship() : newRelationship;
+
+                results.add(this.addRelationship(userId,
+                                                 getTypeDefGUID(template),
+                                                 template.getProperties(),
+                                                 getEntityGUID(template.getEntityOneProxy()),
+                                                 getEntityGUID(template.getEntityTwoProxy()),
+                                                 template.getStatus()));
+            }
+        }
+
+        return results;
+    }
+
+
+    /**
+     * Return the unique identifier of the type of an instance supplied as a template for a new instance.
+     *
+     * @param template template for a new instance
+     * @return typeDef guid or null if the template has no type
+     */
+    protected String getTypeDefGUID(InstanceHeader template)
+    {
+        if (template.getType() == null)
+        {
+            return null;
+        }
+
+        return template.getType().getTypeDefGUID();
+    }
+
+
+    /**
+     * Return the unique identifier of the entity at one end of a relationship supplied as a template for a
+     * new relationship.
+     *
+     * @param entityProxy proxy for the entity
+     * @return entity guid or null if there is no proxy
+     */
+    protected String getEntityGUID(EntityProxy entityProxy)
+    {
+        if (entityProxy == null)
+        {
+            return null;
+        }
+
+        return entityProxy.getGUID();
+    }
+
+
     /**
      * Update the status of a specific relationship.
      *
@@ -3906,6 +3906,91 @@ public abstract class OMRSMetadataCollectionBase extends OMRSMetadataCollection
     }
 
 
+    /**
+     * Validate the parameters passed to addEntities.  The type of the new entities is retrieved and validated
+     * once for all of the entities of the same type; the properties, classifications and status of
+     * each entity are validated against its type.
+     *
+     * @param userId unique identifier for requesting user.
+     * @param newEntities templates for the new entities.
+     * @param methodName calling method
+     * @return typeDefs of the entities' types in the same order as the templates
+     * @throws InvalidParameterException one of the parameters is invalid or null.
+     * @throws RepositoryErrorException there is a problem communicating with the metadata repository where
+     *                                    the metadata collection is stored.
+     * @throws TypeErrorException one of the requested types is not known, or not supported in the metadata repository
+     *                              hosting the metadata collection.
+     * @throws PropertyErrorException one or more of the requested properties are not defined, or have different
+     *                                  characteristics in the TypeDef for the entity's type.
+     * @throws ClassificationErrorException one or more of the requested classifications are either not known or
+     *                                           not defined for the entity's type.
+     * @throws StatusNotSupportedException the metadata repository hosting the metadata collection does not support
+     *                                       one of the requested statuses.
+     */
+    protected List<TypeDef> addEntitiesParameterValidation(String             userId,
+                                                           List<EntityDetail> newEntities,
+                                                           String             methodName) throws InvalidParameterException,
+                                                                                                 RepositoryErrorException,
+                                                                                                 TypeErrorException,
+                                                                                                 PropertyErrorException,
+                                                                                                 ClassificationErrorException,
+                                                                                                 StatusNotSupportedException
+    {
+        final String  entitiesParameterName         = "newEntities";
+        final String  propertiesParameterName       = "newEntities.properties";
+        final String  classificationsParameterName  = "newEntities.classifications";
+        final String  initialStatusParameterName    = "newEntities.status";
+
+        super.basicRequestValidation(userId, methodName);
+
+        Map<String, TypeDef> validatedTypeDefs = new HashMap<>();
+        List<TypeDef>        typeDefs          = new ArrayList<>();
+
+        if (newEntities != null)
+        {
+            for (EntityDetail newEntity : newEntities)
+            {
+                EntityDetail template       = (newEntity == null) ? new EntityDetail() : newEntity;
+                String       entityTypeGUID = getTypeDefGUID(template);
+                TypeDef      typeDef        = validatedTypeDefs.get(entityTypeGUID);
+
+                if (typeDef == null)
+                {
+                    repositoryValidator.validateTypeGUID(repositoryName, entitiesParameterName, entityTypeGUID, methodName);
+
+                    typeDef = repositoryHelper.getTypeDef(repositoryName, entitiesParameterName, entityTypeGUID, methodName);
+
+                    repositoryValidator.validateTypeDefForInstance(repositoryName, entitiesParameterName, typeDef, methodName);
+
+                    validatedTypeDefs.put(entityTypeGUID, typeDef);
+                }
+
+                repositoryValidator.validateClassificationList(repositoryName,
+                                                               classificationsParameterName,
+                                                               template.getClassifications(),
+                                                               typeDef.getName(),
+                                                               methodName);
+
+                repositoryValidator.validatePropertiesForType(repositoryName,
+                                                              propertiesParameterName,
+                                                              typeDef,
+                                                              template.getProperties(),
+                                                              methodName);
+
+                repositoryValidator.validateInstanceStatus(repositoryName,
+                                                           initialStatusParameterName,
+                                                           template.getStatus(),
+                                                           typeDef,
+                                                           methodName);
+
+                typeDefs.add(typeDef);
+            }
+        }
+
+        return typeDefs;
+    }
+
+
     /**
      * Validate parameters needed to save a new entity that is sourced from an external technology.
      *
@@ -4235,6 +4320,56 @@ public abstract class OMRSMetadataCollectionBase extends OMRSMetadataCollection
     }
 
 
+    /**
+     * Validate the parameters passed to classifyEntities.  The classification is validated once for all of the
+     * entities.
+     *
+     * @param userId unique identifier for requesting user.
+     * @param entityGUIDs list of unique identifiers (guids) for the entities.
+     * @param classificationName String name for the classification.
+     * @param classificationProperties list of properties to set in the classification.
+     * @param methodName calling method
+     * @return typeDef for the classification
+     * @throws InvalidParameterException one of the parameters is invalid or null.
+     * @throws RepositoryErrorException there is a problem communicating with the metadata repository where
+     *                                  the metadata collection is stored.
+     * @throws PropertyErrorException one or more of the requested properties are not defined, or have different
+     *                                characteristics in the TypeDef for this classification type
+     */
+    protected TypeDef  classifyEntitiesParameterValidation(String               userId,
+                                                           List<String>         entityGUIDs,
+                                                           String               classificationName,
+                                                           InstanceProperties   classificationProperties,
+                                                           String               methodName) throws InvalidParameterException,
+                                                                                                   RepositoryErrorException,
+                                                                                                   PropertyErrorException
+    {
+        final String entityGUIDsParameterName    = "entityGUIDs";
+        final String classificationParameterName = "classificationName";
+        final String propertiesParameterName     = "classificationProperties";
+
+        super.basicRequestValidation(userId, methodName);
+        repositoryValidator.validateUserId(repositoryName, userId, methodName);
+
+        if (entityGUIDs != null)
+        {
+            for (String entityGUID : entityGUIDs)
+            {
+                repositoryValidator.validateGUID(repositoryName, entityGUIDsParameterName, entityGUID, methodName);
+            }
+        }
+
+        TypeDef typeDef = repositoryValidator.validateClassificationName(repositoryName, classificationParameterName, classificationName, methodName);
+        repositoryValidator.validateClassificationProperties(repositoryName,
+                                                             classificationName,
+                                                             propertiesParameterName,
+                                                             classificationProperties,
+                                                             methodName);
+
+        return typeDef;
+    }
+
+
     /**
      * Validate the parameters passed to declassifyEntity.
      *
@@ -4433,6 +4568,86 @@ public abstract class OMRSMetadataCollectionBase extends OMRSMetadataCollection
     }
 
 
+    /**
+     * Validate the parameters passed to addRelationships.  The type of the new relationships is retrieved and
+     * validated once for all of the relationships of the same type; the properties, status and entity
+     * identifiers of each relationship are validated individually.
+     *
+     * @param userId unique identifier for requesting user.
+     * @param newRelationships templates for the new relationships.
+     * @param methodName calling method
+     * @return typeDefs of the relationships' types in the same order as the templates
+     * @throws InvalidParameterException one of the parameters is invalid or null.
+     * @throws RepositoryErrorException there is a problem communicating with the metadata repository where
+     *                                 the metadata collection is stored.
+     * @throws TypeErrorException one of the requested types is not known, or not supported in the metadata repository
+     *                            hosting the metadata collection.
+     * @throws PropertyErrorException one or more of the requested properties are not defined, or have different
+     *                                  characteristics in the TypeDef for the relationship's type.
+     * @throws StatusNotSupportedException the metadata repository hosting the metadata collection does not support
+     *                                     one of the requested statuses.
+     */
+    protected List<TypeDef> addRelationshipsParameterValidation(String             userId,
+                                                                List<Relationship> newRelationships,
+                                                                String             methodName) throws InvalidParameterException,
+                                                                                                      RepositoryErrorException,
+                                                                                                      TypeErrorException,
+                                                                                                      PropertyErrorException,
+                                                                                                      StatusNotSupportedException
+    {
+        final String relationshipsParameterName = "newRelationships";
+        final String entityOneParameterName     = "newRelationships.entityOneProxy";
+        final String entityTwoParameterName     = "newRelationships.entityTwoProxy";
+        final String propertiesParameterName    = "newRelationships.properties";
+        final String initialStatusParameterName = "newRelationships.status";
+
+        super.basicRequestValidation(userId, methodName);
+
+        Map<String, TypeDef> validatedTypeDefs = new HashMap<>();
+        List<TypeDef>        typeDefs          = new ArrayList<>();
+
+        if (newRelationships != null)
+        {
+            for (Relationship newRelationship : newRelationships)
+            {
+                Relationship template             = (newRelationship == null) ? new Relationship() : newRelationship;
+                String       relationshipTypeGUID = getTypeDefGUID(template);
+                TypeDef      typeDef              = validatedTypeDefs.get(relationshipTypeGUID);
+
+                if (typeDef == null)
+                {
+                    repositoryValidator.validateTypeGUID(repositoryName, relationshipsParameterName, relationshipTypeGUID, methodName);
+
+                    typeDef = repositoryHelper.getTypeDef(repositoryName, relationshipsParameterName, relationshipTypeGUID, methodName);
+
+                    repositoryValidator.validateTypeDefForInstance(repositoryName, relationshipsParameterName, typeDef, methodName);
+
+                    validatedTypeDefs.put(relationshipTypeGUID, typeDef);
+                }
+
+                repositoryValidator.validateGUID(repositoryName, entityOneParameterName, getEntityGUID(template.getEntityOneProxy()), methodName);
+                repositoryValidator.validateGUID(repositoryName, entityTwoParameterName, getEntityGUID(template.getEntityTwoProxy()), methodName);
+
+                repositoryValidator.validatePropertiesForType(repositoryName,
+                                                              propertiesParameterName,
+                                                              typeDef,
+                                                              template.getProperties(),
+                                                              methodName);
+
+                repositoryValidator.validateInstanceStatus(repositoryName,
+                                                           initialStatusParameterName,
+                                                           template.getStatus(),
+                                                           typeDef,
+                                                           methodName);
+
+                typeDefs.add(typeDef);
+            }
+        }
+
+        return typeDefs;
+    }
+
+
     /**
      * Validate the parameters needed to save a new relationship that is sourced from an external technology.
      *
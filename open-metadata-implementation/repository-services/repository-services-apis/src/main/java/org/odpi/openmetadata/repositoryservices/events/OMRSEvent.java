@@ -27,6 +27,7 @@ public abstract class OMRSEvent
      */
     protected Date                         eventTimestamp       = null;
     protected OMRSEventDirection           eventDirection       = null;
+    protected String                       protocolVersionId    = null;
 
     /*
      * The category of the event.
@@ -71,6 +72,7 @@ public abstract class OMRSEvent
         if (inboundEvent != null)
         {
             this.eventTimestamp = inboundEvent.getTimestamp();
+            this.protocolVersionId = inboundEvent.getProtocolVersionId();
             this.eventOriginator = inboundEvent.getOriginator();
             this.eventCategory = inboundEvent.getEventCategory();
 
@@ -380,6 +382,18 @@ public abstract class OMRSEvent
     }
 
 
+    /**
+     * Return the name of the event protocol version that the sender of an inbound event used.  For registry
+     * events, this is the protocol level that the sender is configured for.
+     *
+     * @return OMRSEventProtocolVersion name or null for outbound events
+     */
+    public String getProtocolVersionId()
+    {
+        return protocolVersionId;
+    }
+
+
     /**
      * Return the category of the event. If the event category is null then the event was unreadable
      * in some form (or there is a logic error).
@@ -597,6 +611,7 @@ public abstract class OMRSEvent
     {
         return "OMRSEvent{" +
                 "eventTimestamp=" + eventTimestamp +
+                ", protocolVersionId='" + protocolVersionId + '\'' +
                 ", eventDirection=" + eventDirection +
                 ", eventCategory=" + eventCategory +
                 ", eventOriginator=" + eventOriginator +
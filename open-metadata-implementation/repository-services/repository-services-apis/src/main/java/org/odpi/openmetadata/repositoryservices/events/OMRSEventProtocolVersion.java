@@ -12,15 +12,17 @@ import static com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility.NONE;
 import static com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility.PUBLIC_ONLY;
 
 /**
- * OMRSEventProtocolVersion provides the identifier for the version number of the event payload.  There is
- * only one version at the moment which is why it looks a little sad.
+ * OMRSEventProtocolVersion provides the identifier for the version number of the event payload.
+ * V1_COMPRESSED uses the same event beans as V1 but the TypeDef and instance events are compressed on the wire.
+ * It is only used when every member of the cohort has advertised that it supports it in its registration.
  */
 @JsonAutoDetect(getterVisibility=PUBLIC_ONLY, setterVisibility=PUBLIC_ONLY, fieldVisibility=NONE)
 @JsonInclude(JsonInclude.Include.NON_NULL)
 @JsonIgnoreProperties(ignoreUnknown=true)
 public enum OMRSEventProtocolVersion implements Serializable
 {
-    V1 (1, "OMRS V1.0", "OMRS Version 1");
+    V1            (1, "OMRS V1.0", "OMRS Version 1"),
+    V1_COMPRESSED (2, "OMRS V1.0 Compressed", "OMRS Version 1 with compressed TypeDef and instance events");
 
     private static final long     serialVersionUID = 1L;
 
@@ -82,6 +82,80 @@ public abstract class OMRSRegistryEventProcessor implements OMRSRegistryEventPro
                                                        Connection                remoteConnection);
 
 
+    /**
+     * Introduces a new server/repository to the metadata repository cohort along with the event protocol
+     * level that it supports.  By default, the event protocol is ignored.
+     *
+     * @param sourceName  name of the source of the event.  It may be the cohort name for incoming events or the
+     *                   local repository, or event mapper name.
+     * @param originatorMetadataCollectionId  unique identifier of metadata collection of originator.
+     * @param originatorMetadataCollectionName  display name of metadata collection of originator.
+     * @param originatorServerName  name of the server that the event came from.
+     * @param originatorServerType  type of server that the event came from.
+     * @param originatorOrganizationName  name of the organization that owns the server that sent the event.
+     * @param registrationTimestamp  the time that the server/repository issued the registration request.
+     * @param remoteConnection  the Connection properties for the connector used to call the registering server.
+     * @param eventProtocolVersion  name of the OMRSEventProtocolVersion that the originator supports - may be null.
+     * @return flag indicating if the event was sent or not.
+     */
+    public boolean processRegistrationEvent(String                    sourceName,
+                                            String                    originatorMetadataCollectionId,
+                                            String                    originatorMetadataCollectionName,
+                                            String                    originatorServerName,
+                                            String                    originatorServerType,
+                                            String                    originatorOrganizationName,
+                                            Date                      registrationTimestamp,
+                                            Connection                remoteConnection,
+                                            String                    eventProtocolVersion)
+    {
+        return this.processRegistrationEvent(sourceName,
+                                             originatorMetadataCollectionId,
+                                             originatorMetadataCollectionName,
+                                             originatorServerName,
+                                             originatorServerType,
+                                             originatorOrganizationName,
+                                             registrationTimestamp,
+                                             remoteConnection);
+    }
+
+
+    /**
+     * Refreshes the other servers in the cohort with the originating server's registration along with the
+     * event protocol level that it supports.  By default, the event protocol is ignored.
+     *
+     * @param sourceName  name of the source of the event.  It may be the cohort name for incoming events or the
+     *                   local repository, or event mapper name.
+     * @param originatorMetadataCollectionId  unique identifier of metadata collection of originator.
+     * @param originatorMetadataCollectionName  display name of metadata collection of originator.
+     * @param originatorServerName  name of the server that the event came from.
+     * @param originatorServerType  type of server that the event came from.
+     * @param originatorOrganizationName  name of the organization that owns the server that sent the event.
+     * @param registrationTimestamp  the time that the server/repository first registered with the cohort.
+     * @param remoteConnection  the Connection properties for the connector used to call the registering server.
+     * @param eventProtocolVersion  name of the OMRSEventProtocolVersion that the originator supports - may be null.
+     * @return flag indicating if the event was sent or not.
+     */
+    public boolean processReRegistrationEvent(String                    sourceName,
+                                              String                    originatorMetadataCollectionId,
+                                              String                    originatorMetadataCollectionName,
+                                              String                    originatorServerName,
+                                              String                    originatorServerType,
+                                              String                    originatorOrganizationName,
+                                              Date                      registrationTimestamp,
+                                              Connection                remoteConnection,
+                                              String                    eventProtocolVersion)
+    {
+        return this.processReRegistrationEvent(sourceName,
+                                               originatorMetadataCollectionId,
+                                               originatorMetadataCollectionName,
+                                               originatorServerName,
+                                               originatorServerType,
+                                               originatorOrganizationName,
+                                               registrationTimestamp,
+                                               remoteConnection);
+    }
+
+
     /**
      * A server/repository is being removed from the metadata repository cohort.
      *
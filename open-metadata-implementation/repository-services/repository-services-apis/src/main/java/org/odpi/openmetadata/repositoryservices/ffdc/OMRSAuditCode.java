@@ -695,6 +695,36 @@ public enum OMRSAuditCode implements AuditLogMessageSet
                                   "This exception is saved and may be returned to the caller if the other repositories can not satisfy the caller's request.",
                                          "Investigate whether this exception is the result of an underlying issue in the remote repository."),
 
+    REPOSITORY_REQUEST_TIMEOUT("OMRS-AUDIT-0137",
+                               OMRSAuditLogRecordSeverity.ERROR,
+                               "The enterprise repository services abandoned the {0} request to the repository with metadata collection id {1} after {2} milliseconds",
+                               "The repository did not respond within the configured time.  The request continues with the results " +
+                                       "returned by the other repositories in the cohort.",
+                               "Investigate whether the remote repository is overloaded or unavailable.  The timeout is set in the " +
+                                       "federationRepositoryTimeout configuration property of the enterprise repository services."),
+
+    COHORT_EVENT_PROTOCOL_CHANGED("OMRS-AUDIT-0138",
+                                  OMRSAuditLogRecordSeverity.COHORT,
+                                  "The event protocol used by the local server to send metadata events to cohort {0} has changed from {1} to {2}",
+                                  "The event protocol is negotiated through the registration events of the cohort members.  Compressed " +
+                                          "events are only sent when every remote member of the cohort has registered support for them.",
+                                  "No action is required.  If compressed events are expected, verify that every member of the cohort " +
+                                          "is configured with the V1_COMPRESSED event protocol version."),
+
+    OPEN_METADATA_TOPIC_EVENT_NOT_SENT("OMRS-AUDIT-0139",
+                                       OMRSAuditLogRecordSeverity.EXCEPTION,
+                                       "The open metadata topic connector for topic {0} did not send event {1}: {2}",
+                                       "The event is not passed to the listeners of the topic.  The sender is told that the event was not sent.",
+                                       "Review the error message to determine why the event was not sent and correct the cause."),
+
+    OPEN_METADATA_TOPIC_QUEUE_OVERFLOW("OMRS-AUDIT-0140",
+                                       OMRSAuditLogRecordSeverity.ERROR,
+                                       "The listeners of open metadata topic {0} did not free space in the event queue within {1} milliseconds so it has grown beyond its capacity of {2} events",
+                                       "The events are still passed to the listeners in the order they were sent, but senders no longer wait for " +
+                                               "space in the queue until the listeners have caught up.  The memory used by the queue grows until then.",
+                                       "Look for errors or slow processing in the listeners of the topic.  If the load is expected, increase the " +
+                                               "eventQueueCapacity or eventQueueTimeout configuration properties of the topic's connection."),
+
     INCOMING_CONFLICTING_TYPEDEFS("OMRS-AUDIT-0201",
                                   OMRSAuditLogRecordSeverity.TYPES,
                                   "Server {1} in cohort {0} that hosts metadata collection {2} has detected that " +
@@ -1106,7 +1136,14 @@ public enum OMRSAuditCode implements AuditLogMessageSet
                                              OMRSAuditLogRecordSeverity.EXCEPTION,
                                              "The type definition event processor for the {0} service caught an unexpected exception {1} with message {2}",
                                              "The contents of the type were not accepted by the topic listener.",
-                                             "Review the exception and resolve the issue with the type that it documents.")
+                                             "Review the exception and resolve the issue with the type that it documents."),
+
+    EVENT_BUS_SEND_FAILED("OMRS-AUDIT-9020",
+                          OMRSAuditLogRecordSeverity.EXCEPTION,
+                          "The event bus connector for {0} was unable to deliver an event.  It returned exception {1} with message {2}",
+                          "The event has not been received by the other members of the event bus.",
+                          "Review the exception and resolve the issue that it documents.  Check the audit log of the event bus " +
+                                  "connector for related messages.")
 
 
     ;
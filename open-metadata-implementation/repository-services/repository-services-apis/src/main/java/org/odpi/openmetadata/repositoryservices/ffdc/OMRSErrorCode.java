@@ -489,6 +489,11 @@ public enum OMRSErrorCode implements ExceptionMessageSet
             "The system is unable to create a list of TypeDefs for the enterprise.",
             "Look for errors in the set up of the repositories in the audit log and verify that TypeDefs are configured. " +
                                             "Retry the request when the cohort configuration is correct."),
+    INVALID_PAGING_CURSOR(400, "OMRS-ENTERPRISE-REPOSITORY-400-003",
+            "The paging cursor passed on the {0} request is not valid: {1}",
+            "The system is unable to continue the query from the position saved in the cursor.",
+            "Pass the cursor exactly as it was returned from the previous page of the same query, " +
+                                  "or pass null to start the query from the first page."),
     DUPLICATE_TYPE_IN_ARCHIVE(400, "OMRS-ARCHIVE-BUILDER-400-001",
             "The same type {0} of category {1} has been added twice to an open metadata archive. First version was {2} and the second was {3}.",
             "The build of the archive terminates.",
@@ -575,6 +580,18 @@ public enum OMRSErrorCode implements ExceptionMessageSet
             "The system is unable to store the log record to this destination because it is not able to" +
                                               " convert its contents into a suitable format.",
             "Investigate and correct the cause of the conversion failure."),
+    NULL_AUDIT_LOG_QUERY_PARAMETER(400, "OMRS-AUDIT-LOG-400-009",
+            "A null {0} parameter has been passed on the {1} query to the Audit Log destination {2}",
+            "The system is unable to run the audit log query because a required parameter is missing.",
+            "Correct the caller's code to supply a value for the parameter and retry the request."),
+    INVALID_AUDIT_LOG_QUERY_PERIOD(400, "OMRS-AUDIT-LOG-400-010",
+            "The {0} query to the Audit Log destination {1} has a start date of {2} that is after its end date of {3}",
+            "The system is unable to run the audit log query because the time period is empty.",
+            "Correct the caller's code so the start of the time period is before its end and retry the request."),
+    INVALID_AUDIT_LOG_QUERY_PAGING(400, "OMRS-AUDIT-LOG-400-011",
+            "The {0} query to the Audit Log destination {1} has an offset of {2} and a maximumRecords of {3}; neither may be negative",
+            "The system is unable to run the audit log query because the paging parameters are invalid.",
+            "Correct the caller's code to supply valid paging parameters and retry the request."),
     REPOSITORY_NOT_AVAILABLE(404, "OMRS-REPOSITORY-404-001",
             "The open metadata repository connector for server {0} is not active and is unable to service the {1} request",
             "The system is unable to retrieve any metadata properties from this repository.",
@@ -852,6 +869,12 @@ public enum OMRSErrorCode implements ExceptionMessageSet
             "The enterprise repository services has detected a repository connector from cohort {0} for metadata collection identifier {1} that has a null metadata collection API object.",
             "There is an internal error in the OMRS Repository Connector implementation.",
             "Raise a Github issue on the Egeria project to get this fixed."),
+    ENTERPRISE_REQUEST_TIMEOUT(503, "OMRS-ENTERPRISE-REPOSITORY-503-004",
+            "The {0} request to the open metadata repository with metadata collection identifier {1} did not complete within {2} milliseconds",
+            "The enterprise repository services have stopped waiting for this repository.  Results from the other repositories " +
+                            "are returned to the caller if they are available.",
+            "Check that the repository is running and is reachable.  If it is simply slow, increase the federationRepositoryTimeout " +
+                            "configuration property of the enterprise repository services."),
     NULL_CONTENT_MANAGER(503, "OMRS-LOCAL-REPOSITORY-503-001",
             "A null repository content manager has been passed to one of the local repository's components on method {0}.",
             "There is an internal error in the OMRS Local Repository Connector implementation, or the way it has been initialized.",
@@ -936,7 +959,15 @@ public enum OMRSErrorCode implements ExceptionMessageSet
     CLIENT_SIDE_REST_API_ERROR(503, "OMRS-REST-API-503-006",
             "A client-side exception was received from API call {0} to repository {1}.  The error message was {2}",
             "The server has invoked a call on the open metadata repository REST API services in a remote repository and has received an exception from the local client libraries.",
-            "Look for errors in the local repository's audit log and console to identify and correct the source of the error.")
+            "Look for errors in the local repository's audit log and console to identify and correct the source of the error."),
+    OPEN_METADATA_TOPIC_DISCONNECTED(503, "OMRS-METADATA-TOPIC-CONNECTOR-503-001",
+            "The open metadata topic connector for topic {0} did not send event {1} because it has been disconnected",
+            "The event is not sent because the listener thread of the topic has stopped.",
+            "This is expected while the server is shutting down.  Otherwise, review the audit log to find out why the topic connector was disconnected."),
+    OPEN_METADATA_TOPIC_SEND_INTERRUPTED(503, "OMRS-METADATA-TOPIC-CONNECTOR-503-002",
+            "The open metadata topic connector for topic {0} did not send event {1} because the sending thread was interrupted while waiting for space in the event queue",
+            "The event is not sent.",
+            "This is expected while the server is shutting down.  Otherwise, review the audit log to find out why the sending thread was interrupted.")
 
     ;
 
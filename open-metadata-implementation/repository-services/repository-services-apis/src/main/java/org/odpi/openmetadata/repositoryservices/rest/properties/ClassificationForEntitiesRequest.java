@@ -0,0 +1,168 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.rest.properties;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import static com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility.NONE;
+import static com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility.PUBLIC_ONLY;
+
+/**
+ * ClassificationForEntitiesRequest carries the list of entities to classify and the properties of the
+ * classification to add to each of them.
+ */
+@JsonAutoDetect(getterVisibility=PUBLIC_ONLY, setterVisibility=PUBLIC_ONLY, fieldVisibility=NONE)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonIgnoreProperties(ignoreUnknown=true)
+public class ClassificationForEntitiesRequest extends OMRSAPIRequest
+{
+    private static final long    serialVersionUID = 1L;
+
+    private List<String>       entityGUIDs              = null;
+    private InstanceProperties classificationProperties = null;
+
+
+    /**
+     * Default constructor
+     */
+    public ClassificationForEntitiesRequest()
+    {
+        super();
+    }
+
+
+    /**
+     * Copy/clone constructor
+     *
+     * @param template object to copy
+     */
+    public ClassificationForEntitiesRequest(ClassificationForEntitiesRequest template)
+    {
+        super(template);
+
+        if (template != null)
+        {
+            this.entityGUIDs = template.getEntityGUIDs();
+            this.classificationProperties = template.getClassificationProperties();
+        }
+    }
+
+
+    /**
+     * Return the unique identifiers of the entities to classify.
+     *
+     * @return list of guids
+     */
+    public List<String> getEntityGUIDs()
+    {
+        if (entityGUIDs == null)
+        {
+            return null;
+        }
+        else if (entityGUIDs.isEmpty())
+        {
+            return null;
+        }
+        else
+        {
+            return new ArrayList<>(entityGUIDs);
+        }
+    }
+
+
+    /**
+     * Set up the unique identifiers of the entities to classify.
+     *
+     * @param entityGUIDs list of guids
+     */
+    public void setEntityGUIDs(List<String> entityGUIDs)
+    {
+        this.entityGUIDs = entityGUIDs;
+    }
+
+
+    /**
+     * Return the properties for the new classification.
+     *
+     * @return instance properties object
+     */
+    public InstanceProperties getClassificationProperties()
+    {
+        if (classificationProperties == null)
+        {
+            return null;
+        }
+        else
+        {
+            return new InstanceProperties(classificationProperties);
+        }
+    }
+
+
+    /**
+     * Set up the properties for the new classification.
+     *
+     * @param classificationProperties InstanceProperties object
+     */
+    public void setClassificationProperties(InstanceProperties classificationProperties)
+    {
+        this.classificationProperties = classificationProperties;
+    }
+
+
+    /**
+     * Standard toString method.
+     *
+     * @return print out of variables in a JSON-style
+     */
+    @Override
+    public String toString()
+    {
+        return "ClassificationForEntitiesRequest{" +
+                "entityGUIDs=" + entityGUIDs +
+                ", classificationProperties=" + classificationProperties +
+                '}';
+    }
+
+
+    /**
+     * Compare the values of the supplied object with those stored in the current object.
+     *
+     * @param objectToCompare supplied object
+     * @return boolean result of comparison
+     */
+    @Override
+    public boolean equals(Object objectToCompare)
+    {
+        if (this == objectToCompare)
+        {
+            return true;
+        }
+        if (objectToCompare == null || getClass() != objectToCompare.getClass())
+        {
+            return false;
+        }
+        ClassificationForEntitiesRequest that = (ClassificationForEntitiesRequest) objectToCompare;
+        return Objects.equals(getEntityGUIDs(), that.getEntityGUIDs()) &&
+                Objects.equals(getClassificationProperties(), that.getClassificationProperties());
+    }
+
+
+    /**
+     * Create a hash code for this element type.
+     *
+     * @return int hash code
+     */
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash(getEntityGUIDs(), getClassificationProperties());
+    }
+}
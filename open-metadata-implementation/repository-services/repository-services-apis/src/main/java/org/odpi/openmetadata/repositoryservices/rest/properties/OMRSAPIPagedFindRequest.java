@@ -33,6 +33,7 @@ public class OMRSAPIPagedFindRequest extends OMRSAPIFindRequest
     private SequencingOrder      sequencingOrder      = null;
     private int                  offset               = 0;
     private int                  pageSize             = 0;
+    private String               pagingCursor         = null;
 
     /**
      * Default constructor
@@ -58,6 +59,7 @@ public class OMRSAPIPagedFindRequest extends OMRSAPIFindRequest
             this.sequencingOrder = template.getSequencingOrder();
             this.offset = template.getOffset();
             this.pageSize = getPageSize();
+            this.pagingCursor = template.getPagingCursor();
         }
     }
 
@@ -152,6 +154,31 @@ public class OMRSAPIPagedFindRequest extends OMRSAPIFindRequest
     }
 
 
+    /**
+     * Return the cursor returned with the previous page of results.  It is only used by the by-cursor
+     * operations of the enterprise repository services, which ignore the offset.  Null means start from
+     * the first page.
+     *
+     * @return opaque cursor string
+     */
+    public String getPagingCursor()
+    {
+        return pagingCursor;
+    }
+
+
+    /**
+     * Set up the cursor returned with the previous page of results.  It is only used by the by-cursor
+     * operations of the enterprise repository services, which ignore the offset.  Null means start from
+     * the first page.
+     *
+     * @param pagingCursor opaque cursor string
+     */
+    public void setPagingCursor(String pagingCursor)
+    {
+        this.pagingCursor = pagingCursor;
+    }
+
 
     /**
      * Standard toString method.
@@ -166,6 +193,7 @@ public class OMRSAPIPagedFindRequest extends OMRSAPIFindRequest
                 ", sequencingOrder=" + sequencingOrder +
                 ", offset=" + offset +
                 ", pageSize=" + pageSize +
+                ", pagingCursor='" + pagingCursor + '\'' +
                 ", limitResultsByStatus=" + getLimitResultsByStatus() +
                 '}';
     }
@@ -197,7 +225,8 @@ public class OMRSAPIPagedFindRequest extends OMRSAPIFindRequest
         return getOffset() == that.getOffset() &&
                 getPageSize() == that.getPageSize() &&
                 Objects.equals(getSequencingProperty(), that.getSequencingProperty()) &&
-                getSequencingOrder() == that.getSequencingOrder();
+                getSequencingOrder() == that.getSequencingOrder() &&
+                Objects.equals(getPagingCursor(), that.getPagingCursor());
     }
 
 
@@ -214,6 +243,7 @@ public class OMRSAPIPagedFindRequest extends OMRSAPIFindRequest
                             getSequencingProperty(),
                             getSequencingOrder(),
                             getOffset(),
-                            getPageSize());
+                            getPageSize(),
+                            getPagingCursor());
     }
 }
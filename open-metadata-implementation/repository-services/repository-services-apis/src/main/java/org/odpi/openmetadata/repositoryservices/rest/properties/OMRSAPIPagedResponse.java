@@ -30,9 +30,10 @@ public abstract class OMRSAPIPagedResponse extends OMRSAPIResponse
 {
     private static final long    serialVersionUID = 1L;
 
-    protected String  nextPageURL = null;
-    protected int     offset      = 0;
-    protected int     pageSize    = 0;
+    protected String  nextPageURL      = null;
+    protected int     offset           = 0;
+    protected int     pageSize         = 0;
+    protected String  nextPagingCursor = null;
 
 
     /**
@@ -58,6 +59,7 @@ public abstract class OMRSAPIPagedResponse extends OMRSAPIResponse
             nextPageURL = template.getNextPageURL();
             offset = template.getOffset();
             pageSize = template.getPageSize();
+            nextPagingCursor = template.getNextPagingCursor();
         }
     }
 
@@ -130,6 +132,29 @@ public abstract class OMRSAPIPagedResponse extends OMRSAPIResponse
     }
 
 
+    /**
+     * Return the cursor that is passed on the request for the next page.  It is only set by the by-cursor
+     * operations of the enterprise repository services.  Null means there are no more results.
+     *
+     * @return opaque cursor string
+     */
+    public String getNextPagingCursor()
+    {
+        return nextPagingCursor;
+    }
+
+
+    /**
+     * Set up the cursor that is passed on the request for the next page.
+     *
+     * @param nextPagingCursor opaque cursor string
+     */
+    public void setNextPagingCursor(String nextPagingCursor)
+    {
+        this.nextPagingCursor = nextPagingCursor;
+    }
+
+
     /**
      * Standard toString method.
      *
@@ -142,6 +167,7 @@ public abstract class OMRSAPIPagedResponse extends OMRSAPIResponse
                 "nextPageURL='" + nextPageURL + '\'' +
                 ", offset=" + offset +
                 ", pageSize=" + pageSize +
+                ", nextPagingCursor='" + nextPagingCursor + '\'' +
                 ", relatedHTTPCode=" + relatedHTTPCode +
                 ", actionDescription='" + actionDescription + '\'' +
                 ", exceptionClassName='" + exceptionClassName + '\'' +
@@ -181,7 +207,8 @@ public abstract class OMRSAPIPagedResponse extends OMRSAPIResponse
                 that = (OMRSAPIPagedResponse) objectToCompare;
         return getOffset() == that.getOffset() &&
                 getPageSize() == that.getPageSize() &&
-                Objects.equals(getNextPageURL(), that.getNextPageURL());
+                Objects.equals(getNextPageURL(), that.getNextPageURL()) &&
+                Objects.equals(getNextPagingCursor(), that.getNextPagingCursor());
     }
 
 
@@ -193,6 +220,6 @@ public abstract class OMRSAPIPagedResponse extends OMRSAPIResponse
     @Override
     public int hashCode()
     {
-        return Objects.hash(super.hashCode(), getNextPageURL(), getOffset(), getPageSize());
+        return Objects.hash(super.hashCode(), getNextPageURL(), getOffset(), getPageSize(), getNextPagingCursor());
     }
 }
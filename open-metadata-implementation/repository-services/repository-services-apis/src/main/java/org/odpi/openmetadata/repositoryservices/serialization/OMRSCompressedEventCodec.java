@@ -0,0 +1,113 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.serialization;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * OMRSCompressedEventCodec encodes and decodes the events sent with the V1_COMPRESSED event protocol.
+ * The event is serialized to JSON as for V1 and then compressed with GZIP.  The event bus connectors carry
+ * events as strings so the compressed bytes are Base64 encoded and given a prefix that can not start a
+ * JSON document.  This means a receiver can tell the two encodings apart and process events in either format.
+ */
+public class OMRSCompressedEventCodec
+{
+    private static final String compressedEventPrefix = "OMRS-GZIP:";
+    private static final int    bufferSize            = 8192;
+
+
+    /**
+     * Private constructor since all methods are static.
+     */
+    private OMRSCompressedEventCodec()
+    {
+    }
+
+
+    /**
+     * Return whether the event string uses the compressed encoding.
+     *
+     * @param event event from the event bus
+     * @return boolean flag
+     */
+    public static boolean isCompressed(String   event)
+    {
+        return (event != null) && (event.startsWith(compressedEventPrefix));
+    }
+
+
+    /**
+     * Convert a bean into a compressed event string.
+     *
+     * @param bean event bean
+     * @return compressed event
+     * @throws IOException the bean can not be serialized
+     */
+    public static String encode(Object   bean) throws IOException
+    {
+        ByteArrayOutputStream compressedBytes = new ByteArrayOutputStream();
+
+        try (GZIPOutputStream compressor = new GZIPOutputStream(compressedBytes, bufferSize))
+        {
+            OMRSJSONSerializer.getWriter(bean.getClass()).writeValue(compressor, bean);
+        }
+
+        return compressedEventPrefix + Base64.getEncoder().encodeToString(compressedBytes.toByteArray());
+    }
+
+
+    /**
+     * Parse a compressed event string into a bean.
+     *
+     * @param event compressed event
+     * @param beanClass class of the event bean
+     * @param <T> type of the bean
+     * @return event bean
+     * @throws IOException the event is not a valid compressed event for this class
+     */
+    public static <T> T decode(String     event,
+                               Class<T>   beanClass) throws IOException
+    {
+        try (InputStream decompressor = getJSONStream(event))
+        {
+            return OMRSJSONSerializer.getReader(beanClass).readValue(decompressor);
+        }
+    }
+
+
+    /**
+     * Return a stream of the JSON held in a compressed event string.  This is used by callers that only
+     * need to read part of the event.  The caller must close the stream.
+     *
+     * @param event compressed event
+     * @return stream of UTF-8 JSON
+     * @throws IOException the event is not a valid compressed event
+     */
+    public static InputStream getJSONStream(String   event) throws IOException
+    {
+        if (! isCompressed(event))
+        {
+            throw new IOException("Event is not compressed");
+        }
+
+        byte[] compressedBytes;
+
+        try
+        {
+            compressedBytes = Base64.getDecoder().decode(event.substring(compressedEventPrefix.length()).getBytes(StandardCharsets.US_ASCII));
+        }
+        catch (IllegalArgumentException badEncoding)
+        {
+            throw new IOException("Event is not valid Base64", badEncoding);
+        }
+
+        return new GZIPInputStream(new ByteArrayInputStream(compressedBytes), bufferSize);
+    }
+}
@@ -0,0 +1,201 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.serialization;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * OMRSJSONSerializer provides the JSON serialization used by the OMRS event and store connectors.
+ * Creating an ObjectMapper is expensive because it has to introspect each bean class before it can
+ * (de)serialize it.  OMRSJSONSerializer holds a single ObjectMapper for the server and hands out
+ * ObjectReader and ObjectWriter instances for each bean class.  These are immutable and thread-safe and
+ * hold the (de)serializers for their class, so the introspection is done once rather than on each call.
+ * <p>
+ * The byte array and file methods stream directly to and from UTF-8 bytes without building an
+ * intermediate String.
+ * </p>
+ */
+public class OMRSJSONSerializer
+{
+    private static final ObjectMapper                   objectMapper = new ObjectMapper();
+    private static final Map<Class<?>, ObjectReader>    readers      = new ConcurrentHashMap<>();
+    private static final Map<Class<?>, ObjectWriter>    writers      = new ConcurrentHashMap<>();
+
+
+    /**
+     * Private constructor since all methods are static.
+     */
+    private OMRSJSONSerializer()
+    {
+    }
+
+
+    /**
+     * Return the shared object mapper.  It must not be reconfigured by the caller since it is used
+     * by all of the connectors in the server.
+     *
+     * @return object mapper
+     */
+    public static ObjectMapper getObjectMapper()
+    {
+        return objectMapper;
+    }
+
+
+    /**
+     * Return the reader for a bean class.  The deserializer for the class is located when the
+     * reader is created.
+     *
+     * @param beanClass class of the Java bean
+     * @return thread-safe reader
+     */
+    public static ObjectReader getReader(Class<?>   beanClass)
+    {
+        return readers.computeIfAbsent(beanClass, objectMapper::readerFor);
+    }
+
+
+    /**
+     * Return the writer for a bean class.
+     *
+     * @param beanClass class of the Java bean
+     * @return thread-safe writer
+     */
+    public static ObjectWriter getWriter(Class<?>   beanClass)
+    {
+        return writers.computeIfAbsent(beanClass, objectMapper::writerFor);
+    }
+
+
+    /**
+     * Pre-load the reader and writer for a bean class so the first event of that type does not pay
+     * the cost of introspecting the class.
+     *
+     * @param beanClass class of the Java bean
+     */
+    public static void prepare(Class<?>   beanClass)
+    {
+        getReader(beanClass);
+        getWriter(beanClass);
+    }
+
+
+    /**
+     * Convert a bean to a JSON string.
+     *
+     * @param bean Java bean
+     * @return JSON string
+     * @throws IOException the bean can not be serialized
+     */
+    public static String writeValueAsString(Object   bean) throws IOException
+    {
+        if (bean == null)
+        {
+            return objectMapper.writeValueAsString(null);
+        }
+
+        return getWriter(bean.getClass()).writeValueAsString(bean);
+    }
+
+
+    /**
+     * Convert a bean to JSON encoded as UTF-8 bytes.
+     *
+     * @param bean Java bean
+     * @return JSON bytes
+     * @throws IOException the bean can not be serialized
+     */
+    public static byte[] writeValueAsBytes(Object   bean) throws IOException
+    {
+        if (bean == null)
+        {
+            return objectMapper.writeValueAsBytes(null);
+        }
+
+        return getWriter(bean.getClass()).writeValueAsBytes(bean);
+    }
+
+
+    /**
+     * Write a bean as JSON to a file, replacing any existing content.  The parent directories are
+     * created if they do not exist.
+     *
+     * @param file destination file
+     * @param bean Java bean
+     * @throws IOException the bean can not be serialized or the file can not be written
+     */
+    public static void writeValue(File     file,
+                                  Object   bean) throws IOException
+    {
+        File parentDirectory = file.getAbsoluteFile().getParentFile();
+
+        if ((parentDirectory != null) && (! parentDirectory.isDirectory()) && (! parentDirectory.mkdirs()))
+        {
+            throw new IOException("Unable to create directory " + parentDirectory.getPath());
+        }
+
+        if (bean == null)
+        {
+            objectMapper.writeValue(file, null);
+        }
+        else
+        {
+            getWriter(bean.getClass()).writeValue(file, bean);
+        }
+    }
+
+
+    /**
+     * Parse a JSON string into a bean.
+     *
+     * @param json JSON string
+     * @param beanClass class of the Java bean
+     * @param <T> type of the bean
+     * @return Java bean
+     * @throws IOException the JSON can not be parsed into the requested class
+     */
+    public static <T> T readValue(String     json,
+                                  Class<T>   beanClass) throws IOException
+    {
+        return getReader(beanClass).readValue(json);
+    }
+
+
+    /**
+     * Parse JSON encoded as UTF-8 bytes into a bean.
+     *
+     * @param json JSON bytes
+     * @param beanClass class of the Java bean
+     * @param <T> type of the bean
+     * @return Java bean
+     * @throws IOException the JSON can not be parsed into the requested class
+     */
+    public static <T> T readValue(byte[]     json,
+                                  Class<T>   beanClass) throws IOException
+    {
+        return getReader(beanClass).readValue(json);
+    }
+
+
+    /**
+     * Parse the JSON content of a file into a bean.
+     *
+     * @param file source file
+     * @param beanClass class of the Java bean
+     * @param <T> type of the bean
+     * @return Java bean
+     * @throws IOException the file can not be read or parsed into the requested class
+     */
+    public static <T> T readValue(File       file,
+                                  Class<T>   beanClass) throws IOException
+    {
+        return getReader(beanClass).readValue(file);
+    }
+}
@@ -0,0 +1,215 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.auditlog;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.auditlogstore.OMRSAuditLogRecord;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.auditlogstore.OMRSAuditLogStore;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.auditlogstore.OMRSAuditLogStoreConnectorBase;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.auditlogstore.OMRSAuditLogStoreOverflowPolicy;
+import org.testng.annotations.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Verify that the audit log dispatcher calls the store on the logging thread unless the store asks for a queue,
+ * and that the default overflow policy drops the least important records but never drops records about
+ * actions, errors, exceptions and security.
+ */
+public class TestOMRSAuditLogDispatcher
+{
+    private static final int queueSize = 10;
+
+
+    /**
+     * Build a log record.
+     *
+     * @param severity severity of the record
+     * @return record
+     */
+    private OMRSAuditLogRecord getLogRecord(String severity)
+    {
+        OMRSAuditLogRecord logRecord = new OMRSAuditLogRecord();
+
+        logRecord.setSeverity(severity);
+
+        return logRecord;
+    }
+
+
+    /**
+     * Build a store that has asked for a queue with the default overflow policy.  The store holds up the
+     * background thread until storeReleased is counted down.
+     *
+     * @param storeEntered counted down when the background thread is in the store
+     * @param storeReleased awaited by the background thread in the store
+     * @return store
+     * @throws Exception unexpected error
+     */
+    private OMRSAuditLogStoreConnectorBase getQueuedStore(CountDownLatch storeEntered,
+                                                          CountDownLatch storeReleased) throws Exception
+    {
+        OMRSAuditLogStoreConnectorBase auditLogStore = mock(OMRSAuditLogStoreConnectorBase.class);
+
+        when(auditLogStore.getDispatchQueueSize()).thenReturn(queueSize);
+        when(auditLogStore.getDispatchBatchSize()).thenReturn(1);
+        when(auditLogStore.getOverflowPolicy()).thenReturn(OMRSAuditLogStoreOverflowPolicy.DROP_LOWEST_SEVERITY);
+
+        doAnswer(invocation -> {
+            storeEntered.countDown();
+            storeReleased.await();
+            return null;
+        }).when(auditLogStore).storeLogRecords(any());
+
+        return auditLogStore;
+    }
+
+
+    /**
+     * Build a dispatcher for a store.
+     *
+     * @param auditLogStore store
+     * @return dispatcher
+     * @throws Exception unable to create the spill directory
+     */
+    private OMRSAuditLogDispatcher getDispatcher(OMRSAuditLogStore auditLogStore) throws Exception
+    {
+        Path spillDirectory = Files.createTempDirectory("audit-log-dispatcher");
+
+        return new OMRSAuditLogDispatcher(auditLogStore, spillDirectory.toString(), "testDispatcher");
+    }
+
+
+    @Test(timeOut = 30000)
+    public void testDefaultIsSynchronous() throws Exception
+    {
+        OMRSAuditLogStore      auditLogStore = mock(OMRSAuditLogStore.class);
+        OMRSAuditLogDispatcher dispatcher    = getDispatcher(auditLogStore);
+        OMRSAuditLogRecord     logRecord     = getLogRecord("Information");
+
+        dispatcher.start("TestAuditLogDispatcher");
+
+        try
+        {
+            dispatcher.addLogRecord(logRecord);
+
+            assertEquals(dispatcher.getQueueCapacity(), 0);
+            verify(auditLogStore).storeLogRecord(logRecord);
+        }
+        finally
+        {
+            dispatcher.disconnect();
+        }
+    }
+
+
+    @Test(timeOut = 30000)
+    public void testLowerSeveritiesAreDropped() throws Exception
+    {
+        CountDownLatch         storeEntered  = new CountDownLatch(1);
+        CountDownLatch         storeReleased = new CountDownLatch(1);
+        OMRSAuditLogDispatcher dispatcher    = getDispatcher(getQueuedStore(storeEntered, storeReleased));
+
+        dispatcher.start("TestAuditLogDispatcher");
+
+        try
+        {
+            /*
+             * The first record holds up the background thread in the store so the queue fills.
+             */
+            dispatcher.addLogRecord(getLogRecord("Information"));
+            assertTrue(storeEntered.await(10, TimeUnit.SECONDS));
+
+            assertEquals(dispatcher.getQueueCapacity(), queueSize);
+
+            for (int i = 0; i < queueSize + 10; i++)
+            {
+                dispatcher.addLogRecord(getLogRecord("Information"));
+            }
+
+            assertEquals(dispatcher.getQueueDepth(), queueSize);
+            assertEquals(dispatcher.getDroppedRecordCount(), 10L);
+
+            /*
+             * Errors replace the information records rather than being dropped.
+             */
+            for (int i = 0; i < queueSize; i++)
+            {
+                dispatcher.addLogRecord(getLogRecord("Error"));
+            }
+
+            assertEquals(dispatcher.getQueueDepth(), queueSize);
+            assertEquals(dispatcher.getDroppedRecordCount(), 10L + queueSize);
+            assertEquals(dispatcher.getSpilledRecordCount(), 0L);
+        }
+        finally
+        {
+            storeReleased.countDown();
+            dispatcher.disconnect();
+        }
+    }
+
+
+    @Test(timeOut = 30000)
+    public void testHighestSeverityWaitsForSpace() throws Exception
+    {
+        CountDownLatch         storeEntered  = new CountDownLatch(1);
+        CountDownLatch         storeReleased = new CountDownLatch(1);
+        OMRSAuditLogDispatcher dispatcher    = getDispatcher(getQueuedStore(storeEntered, storeReleased));
+
+        dispatcher.start("TestAuditLogDispatcher");
+
+        try
+        {
+            dispatcher.addLogRecord(getLogRecord("Error"));
+            assertTrue(storeEntered.await(10, TimeUnit.SECONDS));
+
+            for (int i = 0; i < queueSize; i++)
+            {
+                dispatcher.addLogRecord(getLogRecord("Exception"));
+            }
+
+            /*
+             * The queue is full of records that may not be dropped, so the next one waits for space.
+             */
+            CountDownLatch logged = new CountDownLatch(1);
+            Thread         logger = new Thread(() -> {
+                dispatcher.addLogRecord(getLogRecord("Security"));
+                logged.countDown();
+            });
+
+            logger.start();
+
+            assertFalse(logged.await(500, TimeUnit.MILLISECONDS));
+            assertEquals(dispatcher.getDroppedRecordCount(), 0L);
+
+            /*
+             * Informational records are still dropped rather than waiting.
+             */
+            dispatcher.addLogRecord(getLogRecord("Information"));
+            assertEquals(dispatcher.getDroppedRecordCount(), 1L);
+
+            storeReleased.countDown();
+
+            assertTrue(logged.await(10, TimeUnit.SECONDS));
+            logger.join();
+            assertEquals(dispatcher.getDroppedRecordCount(), 1L);
+        }
+        finally
+        {
+            storeReleased.countDown();
+            dispatcher.disconnect();
+        }
+    }
+}
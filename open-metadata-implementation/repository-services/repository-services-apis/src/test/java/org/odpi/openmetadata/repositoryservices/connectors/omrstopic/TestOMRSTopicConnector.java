@@ -0,0 +1,137 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.connectors.omrstopic;
+
+import org.odpi.openmetadata.frameworks.auditlog.AuditLog;
+import org.odpi.openmetadata.frameworks.connectors.Connector;
+import org.odpi.openmetadata.frameworks.connectors.ffdc.ConnectorCheckedException;
+import org.odpi.openmetadata.frameworks.connectors.properties.ConnectionProperties;
+import org.odpi.openmetadata.frameworks.connectors.properties.beans.Connection;
+import org.odpi.openmetadata.repositoryservices.connectors.openmetadatatopic.OpenMetadataTopicConnector;
+import org.odpi.openmetadata.repositoryservices.events.OMRSRegistryEvent;
+import org.odpi.openmetadata.repositoryservices.events.OMRSRegistryEventType;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.expectThrows;
+
+/**
+ * Verify that the OMRS topic connector returns a failure to the caller when an event bus rejects an event
+ * straight away, and reports a failure to the audit log when the event bus fails to deliver the event later.
+ */
+public class TestOMRSTopicConnector
+{
+    /**
+     * Build an event bus connector that returns the supplied future from sendEventAsync.
+     *
+     * @param delivery future to return
+     * @return mock event bus connector
+     */
+    private OpenMetadataTopicConnector getEventBus(CompletableFuture<Void> delivery)
+    {
+        OpenMetadataTopicConnector eventBus = mock(OpenMetadataTopicConnector.class);
+
+        when(eventBus.registerListener(any())).thenReturn("testTopic");
+        when(eventBus.sendEventAsync(anyString())).thenReturn(delivery);
+
+        return eventBus;
+    }
+
+
+    /**
+     * Start an OMRS topic connector that sends events to the supplied event buses.
+     *
+     * @param auditLog audit log for the connector
+     * @param eventBuses embedded event bus connectors
+     * @return started connector
+     * @throws ConnectorCheckedException unable to start the connector
+     */
+    private OMRSTopicConnector getConnector(AuditLog                      auditLog,
+                                            OpenMetadataTopicConnector... eventBuses) throws ConnectorCheckedException
+    {
+        OMRSTopicConnector connector = new OMRSTopicConnector();
+
+        connector.initialize(UUID.randomUUID().toString(), new ConnectionProperties(new Connection()));
+        connector.initializeEmbeddedConnectors(Arrays.<Connector>asList(eventBuses));
+        connector.setAuditLog(auditLog);
+        connector.start();
+
+        return connector;
+    }
+
+
+    /**
+     * Return a future that has already failed.
+     *
+     * @return failed future
+     */
+    private CompletableFuture<Void> getFailedDelivery()
+    {
+        CompletableFuture<Void> delivery = new CompletableFuture<>();
+
+        delivery.completeExceptionally(new IllegalStateException("event bus disconnected"));
+
+        return delivery;
+    }
+
+
+    @Test
+    public void testImmediateFailureIsReturnedToCaller() throws Exception
+    {
+        AuditLog                   auditLog   = mock(AuditLog.class);
+        OpenMetadataTopicConnector workingBus = getEventBus(CompletableFuture.completedFuture(null));
+        OpenMetadataTopicConnector failedBus  = getEventBus(getFailedDelivery());
+        OMRSTopicConnector         connector  = getConnector(auditLog, workingBus, failedBus);
+
+        expectThrows(ConnectorCheckedException.class,
+                     () -> connector.sendRegistryEvent(new OMRSRegistryEvent(OMRSRegistryEventType.REFRESH_REGISTRATION_REQUEST)));
+
+        /*
+         * The event is still sent to the other event buses.
+         */
+        verify(workingBus).sendEventAsync(anyString());
+        verify(failedBus).sendEventAsync(anyString());
+    }
+
+
+    @Test
+    public void testLaterFailureIsReportedToAuditLog() throws Exception
+    {
+        AuditLog                auditLog  = mock(AuditLog.class);
+        CompletableFuture<Void> delivery  = new CompletableFuture<>();
+        OMRSTopicConnector      connector = getConnector(auditLog, getEventBus(delivery));
+
+        connector.sendRegistryEvent(new OMRSRegistryEvent(OMRSRegistryEventType.REFRESH_REGISTRATION_REQUEST));
+
+        verify(auditLog, never()).logException(eq("reportSendFailure"), any(), any());
+
+        delivery.completeExceptionally(new IllegalStateException("broker rejected event"));
+
+        verify(auditLog, times(1)).logException(eq("reportSendFailure"), any(), any());
+    }
+
+
+    @Test
+    public void testDeliveredEventIsNotReported() throws Exception
+    {
+        AuditLog                auditLog  = mock(AuditLog.class);
+        CompletableFuture<Void> delivery  = new CompletableFuture<>();
+        OMRSTopicConnector      connector = getConnector(auditLog, getEventBus(delivery));
+
+        connector.sendRegistryEvent(new OMRSRegistryEvent(OMRSRegistryEventType.REFRESH_REGISTRATION_REQUEST));
+        delivery.complete(null);
+
+        verify(auditLog, never()).logException(eq("reportSendFailure"), any(), any());
+    }
+}
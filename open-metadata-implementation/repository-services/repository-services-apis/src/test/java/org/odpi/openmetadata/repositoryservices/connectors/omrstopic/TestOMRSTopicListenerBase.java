@@ -0,0 +1,90 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.connectors.omrstopic;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceGraph;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Relationship;
+import org.odpi.openmetadata.repositoryservices.events.OMRSEventOriginator;
+import org.odpi.openmetadata.repositoryservices.events.OMRSInstanceEvent;
+import org.odpi.openmetadata.repositoryservices.events.OMRSInstanceEventType;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+
+/**
+ * Verify that the listener base passes each instance from a batch instances event to the new entity and
+ * new relationship methods, so listeners that only handle these events see instances created in bulk.
+ */
+public class TestOMRSTopicListenerBase
+{
+    /**
+     * Listener that records the guids of the new instances it is passed.
+     */
+    private static class RecordingListener extends OMRSTopicListenerBase
+    {
+        private final List<String> newInstances = new ArrayList<>();
+
+        RecordingListener()
+        {
+            super("TestService");
+        }
+
+        @Override
+        public void processNewEntityEvent(String       sourceName,
+                                          String       originatorMetadataCollectionId,
+                                          String       originatorServerName,
+                                          String       originatorServerType,
+                                          String       originatorOrganizationName,
+                                          EntityDetail entity)
+        {
+            newInstances.add(originatorMetadataCollectionId + ":" + entity.getGUID());
+        }
+
+        @Override
+        public void processNewRelationshipEvent(String       sourceName,
+                                                String       originatorMetadataCollectionId,
+                                                String       originatorServerName,
+                                                String       originatorServerType,
+                                                String       originatorOrganizationName,
+                                                Relationship relationship)
+        {
+            newInstances.add(originatorMetadataCollectionId + ":" + relationship.getGUID());
+        }
+    }
+
+
+    @Test
+    public void testBatchEventIsPassedOnAsNewInstanceEvents()
+    {
+        EntityDetail entity1 = new EntityDetail();
+        entity1.setGUID("entity-1");
+
+        EntityDetail entity2 = new EntityDetail();
+        entity2.setGUID("entity-2");
+
+        Relationship relationship = new Relationship();
+        relationship.setGUID("relationship-1");
+
+        OMRSEventOriginator originator = new OMRSEventOriginator();
+        originator.setMetadataCollectionId("home");
+
+        OMRSInstanceEvent event = mock(OMRSInstanceEvent.class);
+        when(event.getInstanceEventType()).thenReturn(OMRSInstanceEventType.BATCH_INSTANCES_EVENT);
+        when(event.getEventOriginator()).thenReturn(originator);
+        when(event.getInstanceBatch()).thenReturn(new InstanceGraph(Arrays.asList(entity1, null, entity2),
+                                                                    Arrays.asList(relationship)));
+
+        RecordingListener listener = new RecordingListener();
+
+        listener.processInstanceEvent(event);
+
+        assertEquals(listener.newInstances, Arrays.asList("home:entity-1", "home:entity-2", "home:relationship-1"));
+    }
+}
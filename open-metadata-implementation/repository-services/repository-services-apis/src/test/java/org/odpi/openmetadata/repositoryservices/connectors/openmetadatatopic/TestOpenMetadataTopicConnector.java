@@ -0,0 +1,280 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.connectors.openmetadatatopic;
+
+import org.odpi.openmetadata.frameworks.auditlog.AuditLog;
+import org.odpi.openmetadata.frameworks.connectors.ffdc.ConnectorCheckedException;
+import org.odpi.openmetadata.frameworks.connectors.properties.ConnectionProperties;
+import org.odpi.openmetadata.frameworks.connectors.properties.beans.Connection;
+import org.odpi.openmetadata.frameworks.connectors.properties.beans.Endpoint;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Verify that the events pushed to an open metadata topic connector are distributed in the order they were pushed,
+ * that a sender waits while the queue is full, and that events are not lost when the listeners do not catch up.
+ */
+public class TestOpenMetadataTopicConnector
+{
+    /**
+     * Topic connector that pushes the events sent to it.
+     */
+    private static class PushingTopicConnector extends OpenMetadataTopicConnector
+    {
+        @Override
+        public void sendEvent(String event)
+        {
+            try
+            {
+                super.pushEvent(event);
+            }
+            catch (InterruptedException interrupted)
+            {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+
+    /**
+     * Listener that records the events it receives.  It waits on the first event until it is released.
+     */
+    private static class RecordingTopicListener implements OpenMetadataTopicListener
+    {
+        private final List<String>   receivedEvents = new CopyOnWriteArrayList<>();
+        private final CountDownLatch firstEvent     = new CountDownLatch(1);
+        private final CountDownLatch release        = new CountDownLatch(1);
+
+        @Override
+        public void processEvent(String event)
+        {
+            receivedEvents.add(event);
+
+            if (firstEvent.getCount() > 0)
+            {
+                firstEvent.countDown();
+
+                try
+                {
+                    release.await();
+                }
+                catch (InterruptedException interrupted)
+                {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+
+        /**
+         * Wait until the listener has received the requested number of events.
+         *
+         * @param count number of events
+         * @return received events
+         * @throws InterruptedException interrupted while waiting
+         */
+        List<String> waitForEvents(int count) throws InterruptedException
+        {
+            long deadline = System.currentTimeMillis() + 10000;
+
+            while ((receivedEvents.size() < count) && (System.currentTimeMillis() < deadline))
+            {
+                Thread.sleep(10);
+            }
+
+            return receivedEvents;
+        }
+    }
+
+
+    /**
+     * Start a topic connector.
+     *
+     * @param eventQueueCapacity number of events that can wait for the listener
+     * @param eventQueueTimeout milliseconds that a sender waits for space
+     * @param topicListener listener to register
+     * @param auditLog audit log for the connector
+     * @return started connector
+     * @throws ConnectorCheckedException unable to start the connector
+     */
+    private PushingTopicConnector getConnector(int                       eventQueueCapacity,
+                                               long                      eventQueueTimeout,
+                                               OpenMetadataTopicListener topicListener,
+                                               AuditLog                  auditLog) throws ConnectorCheckedException
+    {
+        Map<String, Object> configurationProperties = new HashMap<>();
+        Endpoint            endpoint                = new Endpoint();
+        Connection          connection              = new Connection();
+
+        configurationProperties.put(OpenMetadataTopicProvider.eventQueueCapacityProperty, eventQueueCapacity);
+        configurationProperties.put(OpenMetadataTopicProvider.eventQueueTimeoutProperty, eventQueueTimeout);
+        endpoint.setAddress("testTopic");
+        connection.setEndpoint(endpoint);
+        connection.setConfigurationProperties(configurationProperties);
+
+        PushingTopicConnector connector = new PushingTopicConnector();
+
+        connector.initialize(UUID.randomUUID().toString(), new ConnectionProperties(connection));
+        connector.setAuditLog(auditLog);
+        connector.registerListener(topicListener);
+        connector.start();
+
+        return connector;
+    }
+
+
+    @Test(timeOut = 30000)
+    public void testEventsFromListenerThreadKeepTheirOrder() throws Exception
+    {
+        CountDownLatch               queued    = new CountDownLatch(1);
+        List<String>                 received  = new CopyOnWriteArrayList<>();
+        PushingTopicConnector[]      connector = new PushingTopicConnector[1];
+        OpenMetadataTopicListener    listener  = event -> {
+            received.add(event);
+
+            if ("a".equals(event))
+            {
+                try
+                {
+                    queued.await();
+                }
+                catch (InterruptedException interrupted)
+                {
+                    Thread.currentThread().interrupt();
+                }
+
+                /*
+                 * The queue is full so this event is queued beyond its capacity, behind b and c.
+                 */
+                connector[0].sendEvent("x");
+            }
+        };
+
+        connector[0] = getConnector(2, 10000, listener, mock(AuditLog.class));
+
+        try
+        {
+            connector[0].sendEvent("a");
+
+            while (received.isEmpty())
+            {
+                Thread.sleep(10);
+            }
+
+            connector[0].sendEvent("b");
+            connector[0].sendEvent("c");
+            queued.countDown();
+
+            long deadline = System.currentTimeMillis() + 10000;
+
+            while ((received.size() < 4) && (System.currentTimeMillis() < deadline))
+            {
+                Thread.sleep(10);
+            }
+
+            assertEquals(received, Arrays.asList("a", "b", "c", "x"));
+        }
+        finally
+        {
+            connector[0].disconnect();
+        }
+    }
+
+
+    @Test(timeOut = 30000)
+    public void testSenderWaitsForSpace() throws Exception
+    {
+        RecordingTopicListener listener  = new RecordingTopicListener();
+        AuditLog               auditLog  = mock(AuditLog.class);
+        PushingTopicConnector  connector = getConnector(1, 20000, listener, auditLog);
+
+        try
+        {
+            connector.sendEvent("a");
+            assertTrue(listener.firstEvent.await(10, TimeUnit.SECONDS));
+
+            connector.sendEvent("b");
+            assertEquals(connector.getPushedEventCount(), 1);
+
+            CompletableFuture<Boolean> sender = CompletableFuture.supplyAsync(() -> {
+                try
+                {
+                    return connector.pushEvent("c");
+                }
+                catch (InterruptedException interrupted)
+                {
+                    return false;
+                }
+            });
+
+            Thread.sleep(300);
+            assertFalse(sender.isDone());
+
+            listener.release.countDown();
+
+            assertTrue(sender.get(10, TimeUnit.SECONDS));
+            assertEquals(listener.waitForEvents(3), Arrays.asList("a", "b", "c"));
+            verify(auditLog, times(0)).logMessage(eq("pushEvent"), any());
+        }
+        finally
+        {
+            listener.release.countDown();
+            connector.disconnect();
+        }
+    }
+
+
+    @Test(timeOut = 30000)
+    public void testEventsAreQueuedWhenListenerDoesNotCatchUp() throws Exception
+    {
+        RecordingTopicListener listener  = new RecordingTopicListener();
+        AuditLog               auditLog  = mock(AuditLog.class);
+        PushingTopicConnector  connector = getConnector(1, 100, listener, auditLog);
+
+        try
+        {
+            connector.sendEvent("a");
+            assertTrue(listener.firstEvent.await(10, TimeUnit.SECONDS));
+
+            assertTrue(connector.pushEvent("b"));
+            assertFalse(connector.pushEvent("c"));
+
+            /*
+             * Once the queue has overflowed, senders do not wait until the listener has caught up.
+             */
+            long start = System.currentTimeMillis();
+
+            assertFalse(connector.pushEvent("d"));
+            assertTrue(System.currentTimeMillis() - start < 100);
+            assertEquals(connector.getPushedEventCount(), 3);
+            verify(auditLog, times(1)).logMessage(eq("pushEvent"), any());
+
+            listener.release.countDown();
+
+            assertEquals(listener.waitForEvents(4), Arrays.asList("a", "b", "c", "d"));
+        }
+        finally
+        {
+            listener.release.countDown();
+            connector.disconnect();
+        }
+    }
+}
@@ -0,0 +1,209 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore;
+
+import org.mockito.InOrder;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityProxy;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceProperties;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceStatus;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceType;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Relationship;
+import org.odpi.openmetadata.repositoryservices.ffdc.exception.EntityNotKnownException;
+import org.odpi.openmetadata.repositoryservices.ffdc.exception.PropertyErrorException;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+/**
+ * Verify that the default implementations of the bulk methods of {@link OMRSMetadataCollection} call the
+ * single instance methods for each instance in order, and stop at the first failure.
+ */
+public class OMRSMetadataCollectionBulkTest
+{
+    private static final String userId           = "testUser";
+    private static final String entityTypeGUID   = "entity-type-guid";
+    private static final String relationshipGUID = "relationship-type-guid";
+
+    private OMRSMetadataCollection metadataCollection;
+
+
+    @BeforeMethod
+    public void setup()
+    {
+        metadataCollection = mock(OMRSMetadataCollection.class, CALLS_REAL_METHODS);
+    }
+
+
+    /**
+     * Build a template for a new entity.  The templates in a test are told apart by their status.
+     *
+     * @param status initial status
+     * @return template
+     */
+    private EntityDetail getEntityTemplate(InstanceStatus status)
+    {
+        InstanceType type = new InstanceType();
+        type.setTypeDefGUID(entityTypeGUID);
+
+        EntityDetail template = new EntityDetail();
+        template.setType(type);
+        template.setProperties(new InstanceProperties());
+        template.setStatus(status);
+
+        return template;
+    }
+
+
+    /**
+     * Build a template for a new relationship.
+     *
+     * @param entityOneGUID unique identifier of the entity at end one
+     * @param entityTwoGUID unique identifier of the entity at end two
+     * @return template
+     */
+    private Relationship getRelationshipTemplate(String entityOneGUID,
+                                                 String entityTwoGUID)
+    {
+        InstanceType type = new InstanceType();
+        type.setTypeDefGUID(relationshipGUID);
+
+        EntityProxy entityOne = new EntityProxy();
+        entityOne.setGUID(entityOneGUID);
+
+        EntityProxy entityTwo = new EntityProxy();
+        entityTwo.setGUID(entityTwoGUID);
+
+        Relationship template = new Relationship();
+        template.setType(type);
+        template.setEntityOneProxy(entityOne);
+        template.setEntityTwoProxy(entityTwo);
+
+        return template;
+    }
+
+
+    @Test
+    public void testAddEntitiesCallsAddEntityInOrder() throws Exception
+    {
+        List<EntityDetail> templates = Arrays.asList(getEntityTemplate(InstanceStatus.DRAFT),
+                                                     getEntityTemplate(InstanceStatus.PROPOSED),
+                                                     getEntityTemplate(InstanceStatus.ACTIVE));
+
+        doAnswer(invocation -> {
+            EntityDetail entity = new EntityDetail();
+            entity.setStatus(invocation.getArgument(4));
+            return entity;
+        }).when(metadataCollection).addEntity(anyString(), anyString(), any(), any(), any());
+
+        List<EntityDetail> results = metadataCollection.addEntities(userId, templates);
+
+        assertEquals(results.size(), 3);
+
+        InOrder order = inOrder(metadataCollection);
+        for (int i = 0; i < templates.size(); i++)
+        {
+            EntityDetail template = templates.get(i);
+
+            assertEquals(results.get(i).getStatus(), template.getStatus());
+            order.verify(metadataCollection).addEntity(userId,
+                                                       entityTypeGUID,
+                                                       template.getProperties(),
+                                                       template.getClassifications(),
+                                                       template.getStatus());
+        }
+    }
+
+
+    @Test
+    public void testAddEntitiesStopsAtFirstFailure() throws Exception
+    {
+        EntityDetail first  = getEntityTemplate(InstanceStatus.DRAFT);
+        EntityDetail second = getEntityTemplate(InstanceStatus.PROPOSED);
+        EntityDetail third  = getEntityTemplate(InstanceStatus.ACTIVE);
+
+        doAnswer(invocation -> new EntityDetail()).when(metadataCollection).addEntity(anyString(), anyString(), any(), any(), any());
+        doThrow(PropertyErrorException.class).when(metadataCollection).addEntity(anyString(), anyString(), any(), any(), eq(InstanceStatus.PROPOSED));
+
+        expectThrows(PropertyErrorException.class, () -> metadataCollection.addEntities(userId, Arrays.asList(first, second, third)));
+
+        verify(metadataCollection).addEntity(userId, entityTypeGUID, first.getProperties(), null, InstanceStatus.DRAFT);
+        verify(metadataCollection, never()).addEntity(any(), any(), any(), any(), eq(InstanceStatus.ACTIVE));
+    }
+
+
+    @Test
+    public void testEmptyAndNullLists() throws Exception
+    {
+        assertTrue(metadataCollection.addEntities(userId, null).isEmpty());
+        assertTrue(metadataCollection.addEntities(userId, Collections.emptyList()).isEmpty());
+        assertTrue(metadataCollection.addRelationships(userId, null).isEmpty());
+        assertTrue(metadataCollection.classifyEntities(userId, null, "Confidentiality", null).isEmpty());
+
+        verify(metadataCollection, never()).addEntity(any(), any(), any(), any(), any());
+        verify(metadataCollection, never()).addRelationship(any(), any(), any(), any(), any(), any());
+        verify(metadataCollection, never()).classifyEntity(any(), any(), any(), any(InstanceProperties.class));
+    }
+
+
+    @Test
+    public void testNullTemplateIsPassedOnAsEmptyRequest() throws Exception
+    {
+        doAnswer(invocation -> new EntityDetail()).when(metadataCollection).addEntity(any(), any(), any(), any(), any());
+
+        assertEquals(metadataCollection.addEntities(userId, Collections.singletonList(null)).size(), 1);
+
+        verify(metadataCollection).addEntity(eq(userId), isNull(), isNull(), isNull(), isNull());
+    }
+
+
+    @Test
+    public void testAddRelationshipsPassesEndGUIDs() throws Exception
+    {
+        doAnswer(invocation -> new Relationship()).when(metadataCollection).addRelationship(any(), any(), any(), any(), any(), any());
+
+        List<Relationship> results = metadataCollection.addRelationships(userId,
+                                                                         Arrays.asList(getRelationshipTemplate("a", "b"),
+                                                                                       getRelationshipTemplate("b", "c")));
+
+        assertEquals(results.size(), 2);
+
+        InOrder order = inOrder(metadataCollection);
+        order.verify(metadataCollection).addRelationship(userId, relationshipGUID, null, "a", "b", null);
+        order.verify(metadataCollection).addRelationship(userId, relationshipGUID, null, "b", "c", null);
+    }
+
+
+    @Test
+    public void testClassifyEntitiesStopsAtUnknownEntity() throws Exception
+    {
+        InstanceProperties properties = new InstanceProperties();
+
+        doAnswer(invocation -> new EntityDetail()).when(metadataCollection).classifyEntity(any(), any(), any(), any(InstanceProperties.class));
+        doThrow(EntityNotKnownException.class).when(metadataCollection).classifyEntity(userId, "unknown", "Confidentiality", properties);
+
+        expectThrows(EntityNotKnownException.class,
+                     () -> metadataCollection.classifyEntities(userId, Arrays.asList("known", "unknown", "later"), "Confidentiality", properties));
+
+        verify(metadataCollection).classifyEntity(userId, "known", "Confidentiality", properties);
+        verify(metadataCollection, never()).classifyEntity(userId, "later", "Confidentiality", properties);
+    }
+}
@@ -0,0 +1,87 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.serialization;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceProperties;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.PrimitivePropertyValue;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.PrimitiveDefCategory;
+import org.odpi.openmetadata.repositoryservices.events.OMRSEventCategory;
+import org.odpi.openmetadata.repositoryservices.events.OMRSInstanceEventType;
+import org.odpi.openmetadata.repositoryservices.events.beans.v1.OMRSEventV1;
+import org.odpi.openmetadata.repositoryservices.events.beans.v1.OMRSEventV1InstanceSection;
+import org.testng.annotations.Test;
+
+import java.util.Date;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Verify that the compressed event encoding round-trips an instance event and is smaller than the V1 JSON encoding.
+ */
+public class TestOMRSCompressedEventCodec
+{
+    private OMRSEventV1 getInstanceEvent()
+    {
+        InstanceProperties properties = new InstanceProperties();
+
+        for (int i = 0; i < 20; i++)
+        {
+            PrimitivePropertyValue propertyValue = new PrimitivePropertyValue();
+
+            propertyValue.setPrimitiveDefCategory(PrimitiveDefCategory.OM_PRIMITIVE_TYPE_STRING);
+            propertyValue.setPrimitiveValue("Value of property " + i + " for the test asset");
+            properties.setProperty("property" + i, propertyValue);
+        }
+
+        EntityDetail entity = new EntityDetail();
+
+        entity.setGUID("0f6a4ea2-3b3c-4d2e-8a5d-6c1c2e0b7d11");
+        entity.setMetadataCollectionId("b2b0f2c4-6a73-4f36-9a1c-3f1e6a1d2c44");
+        entity.setCreatedBy("testUser");
+        entity.setCreateTime(new Date());
+        entity.setVersion(1L);
+        entity.setProperties(properties);
+
+        OMRSEventV1InstanceSection instanceSection = new OMRSEventV1InstanceSection();
+
+        instanceSection.setEventType(OMRSInstanceEventType.NEW_ENTITY_EVENT);
+        instanceSection.setInstanceGUID(entity.getGUID());
+        instanceSection.setEntity(entity);
+
+        OMRSEventV1 event = new OMRSEventV1();
+
+        event.setTimestamp(new Date());
+        event.setEventCategory(OMRSEventCategory.INSTANCE);
+        event.setInstanceEventSection(instanceSection);
+
+        return event;
+    }
+
+
+    @Test
+    void testRoundTrip() throws Exception
+    {
+        OMRSEventV1 event      = getInstanceEvent();
+        String      jsonEvent  = OMRSJSONSerializer.writeValueAsString(event);
+        String      compressed = OMRSCompressedEventCodec.encode(event);
+
+        assertTrue(OMRSCompressedEventCodec.isCompressed(compressed));
+        assertFalse(OMRSCompressedEventCodec.isCompressed(jsonEvent));
+
+        OMRSEventV1 decodedEvent = OMRSCompressedEventCodec.decode(compressed, OMRSEventV1.class);
+
+        assertEquals(OMRSJSONSerializer.writeValueAsString(decodedEvent), jsonEvent);
+    }
+
+
+    @Test
+    void testCompressedEventIsSmaller() throws Exception
+    {
+        OMRSEventV1 event = getInstanceEvent();
+
+        assertTrue(OMRSCompressedEventCodec.encode(event).length() < OMRSJSONSerializer.writeValueAsString(event).length());
+    }
+}
@@ -0,0 +1,364 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.serialization;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.odpi.openmetadata.frameworks.connectors.properties.beans.Connection;
+import org.odpi.openmetadata.frameworks.connectors.properties.beans.ConnectorType;
+import org.odpi.openmetadata.frameworks.connectors.properties.beans.Endpoint;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.properties.OpenMetadataArchive;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.properties.OpenMetadataArchiveInstanceStore;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.properties.OpenMetadataArchiveProperties;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.properties.OpenMetadataArchiveType;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.properties.OpenMetadataArchiveTypeStore;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.cohortregistrystore.properties.CohortMembership;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.cohortregistrystore.properties.MemberRegistration;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EnumPropertyValue;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceProperties;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceStatus;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.PrimitivePropertyValue;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.EntityDef;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.PrimitiveDefCategory;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDef;
+import org.odpi.openmetadata.repositoryservices.events.OMRSInstanceEvent;
+import org.odpi.openmetadata.repositoryservices.events.OMRSInstanceEventType;
+import org.odpi.openmetadata.repositoryservices.events.OMRSRegistryEvent;
+import org.odpi.openmetadata.repositoryservices.events.OMRSRegistryEventType;
+import org.odpi.openmetadata.repositoryservices.events.OMRSTypeDefEvent;
+import org.odpi.openmetadata.repositoryservices.events.OMRSTypeDefEventType;
+import org.odpi.openmetadata.repositoryservices.events.beans.OMRSEventBean;
+import org.odpi.openmetadata.repositoryservices.events.beans.v1.OMRSEventV1;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Verify that the shared serializer produces exactly the same JSON as a new ObjectMapper did before it was
+ * introduced, and that it reads back the events, registry files, archives and graph properties it writes.
+ */
+public class TestOMRSJSONSerializer
+{
+    private static final Date timestamp = new Date(1600000000000L);
+
+
+    /**
+     * Check that the string, byte and file forms of a bean match the JSON from a new ObjectMapper and
+     * that the JSON reads back into an equivalent bean.
+     *
+     * @param bean bean to serialize
+     * @param beanClass class used to read the JSON back
+     * @throws Exception the bean could not be serialized
+     */
+    private void checkRoundTrip(Object   bean,
+                                Class<?> beanClass) throws Exception
+    {
+        ObjectMapper previousMapper = new ObjectMapper();
+        String       expectedJSON   = previousMapper.writeValueAsString(bean);
+
+        assertEquals(OMRSJSONSerializer.writeValueAsString(bean), expectedJSON);
+        assertEquals(new String(OMRSJSONSerializer.writeValueAsBytes(bean), StandardCharsets.UTF_8), expectedJSON);
+
+        /*
+         * Reading the JSON back and writing it again gives the same JSON as the previous mapper.  This may
+         * differ from the original JSON since some beans do not keep the order of their map entries.
+         */
+        String expectedRereadJSON = previousMapper.writeValueAsString(previousMapper.readValue(expectedJSON, beanClass));
+        Object stringBean         = OMRSJSONSerializer.readValue(expectedJSON, beanClass);
+        Object bytesBean          = OMRSJSONSerializer.readValue(expectedJSON.getBytes(StandardCharsets.UTF_8), beanClass);
+
+        assertEquals(stringBean.getClass(), bean.getClass());
+        assertEquals(OMRSJSONSerializer.writeValueAsString(stringBean), expectedRereadJSON);
+        assertEquals(OMRSJSONSerializer.writeValueAsString(bytesBean), expectedRereadJSON);
+    }
+
+
+    /**
+     * Check that a bean written to a file matches the JSON from a new ObjectMapper and reads back unchanged.
+     *
+     * @param bean bean to store
+     * @param beanClass class used to read the file
+     * @throws Exception the file could not be written or read
+     */
+    private void checkFileRoundTrip(Object   bean,
+                                    Class<?> beanClass) throws Exception
+    {
+        ObjectMapper previousMapper     = new ObjectMapper();
+        String       expectedJSON       = previousMapper.writeValueAsString(bean);
+        String       expectedRereadJSON = previousMapper.writeValueAsString(previousMapper.readValue(expectedJSON, beanClass));
+        File         directory          = Files.createTempDirectory("omrs-serializer").toFile();
+        File         file               = new File(new File(directory, "subdirectory"), "store.json");
+
+        try
+        {
+            OMRSJSONSerializer.writeValue(file, bean);
+
+            assertEquals(new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8), expectedJSON);
+            assertEquals(OMRSJSONSerializer.writeValueAsString(OMRSJSONSerializer.readValue(file, beanClass)), expectedRereadJSON);
+
+            /*
+             * Writing again replaces the previous content.
+             */
+            OMRSJSONSerializer.writeValue(file, bean);
+
+            assertEquals(new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8), expectedJSON);
+        }
+        finally
+        {
+            file.delete();
+            file.getParentFile().delete();
+            directory.delete();
+        }
+    }
+
+
+    /**
+     * Build a set of instance properties with string, integer and enum values, including characters
+     * outside ASCII.
+     *
+     * @return instance properties
+     */
+    private InstanceProperties getProperties()
+    {
+        InstanceProperties properties = new InstanceProperties();
+
+        PrimitivePropertyValue qualifiedName = new PrimitivePropertyValue();
+        qualifiedName.setPrimitiveDefCategory(PrimitiveDefCategory.OM_PRIMITIVE_TYPE_STRING);
+        qualifiedName.setPrimitiveValue("Donn\u00e9es client \u00e9t\u00e9 \u4e2d\u6587");
+        properties.setProperty("qualifiedName", qualifiedName);
+
+        PrimitivePropertyValue count = new PrimitivePropertyValue();
+        count.setPrimitiveDefCategory(PrimitiveDefCategory.OM_PRIMITIVE_TYPE_INT);
+        count.setPrimitiveValue(42);
+        properties.setProperty("count", count);
+
+        EnumPropertyValue status = new EnumPropertyValue();
+        status.setOrdinal(1);
+        status.setSymbolicName("Active");
+        properties.setProperty("status", status);
+
+        return properties;
+    }
+
+
+    /**
+     * Build an entity with properties.
+     *
+     * @return entity
+     */
+    private EntityDetail getEntity()
+    {
+        EntityDetail entity = new EntityDetail();
+
+        entity.setGUID("0f6a4ea2-3b3c-4d2e-8a5d-6c1c2e0b7d11");
+        entity.setMetadataCollectionId("b2b0f2c4-6a73-4f36-9a1c-3f1e6a1d2c44");
+        entity.setCreatedBy("testUser");
+        entity.setCreateTime(timestamp);
+        entity.setVersion(3L);
+        entity.setStatus(InstanceStatus.ACTIVE);
+        entity.setMaintainedBy(Arrays.asList("steward1", "steward2"));
+        entity.setProperties(getProperties());
+
+        return entity;
+    }
+
+
+    /**
+     * Build an entity type.
+     *
+     * @return type definition
+     */
+    private EntityDef getEntityDef()
+    {
+        EntityDef entityDef = new EntityDef();
+
+        entityDef.setGUID("896d14c2-7522-4f6c-8519-757711943fe6");
+        entityDef.setName("Asset");
+        entityDef.setVersion(1L);
+        entityDef.setVersionName("1.0");
+        entityDef.setDescription("Something of value");
+
+        return entityDef;
+    }
+
+
+    /**
+     * Build a connection to a remote repository.
+     *
+     * @return connection
+     */
+    private Connection getConnection()
+    {
+        ConnectorType connectorType = new ConnectorType();
+        connectorType.setConnectorProviderClassName("org.odpi.openmetadata.TestConnectorProvider");
+
+        Endpoint endpoint = new Endpoint();
+        endpoint.setAddress("https://localhost:9443");
+
+        Connection connection = new Connection();
+        connection.setQualifiedName("remoteRepositoryConnection");
+        connection.setConnectorType(connectorType);
+        connection.setEndpoint(endpoint);
+
+        return connection;
+    }
+
+
+    /**
+     * Build a member registration.
+     *
+     * @param metadataCollectionId identifier of the member's metadata collection
+     * @return member registration
+     */
+    private MemberRegistration getMemberRegistration(String metadataCollectionId)
+    {
+        MemberRegistration registration = new MemberRegistration();
+
+        registration.setMetadataCollectionId(metadataCollectionId);
+        registration.setMetadataCollectionName(metadataCollectionId + " name");
+        registration.setServerName("server " + metadataCollectionId);
+        registration.setServerType("Metadata Server");
+        registration.setOrganizationName("Coco Pharmaceuticals");
+        registration.setRegistrationTime(timestamp);
+        registration.setRepositoryConnection(getConnection());
+        registration.setEventProtocolVersion("OMRS V1.0");
+
+        return registration;
+    }
+
+
+    @Test
+    public void testInstanceEventUnchanged() throws Exception
+    {
+        OMRSEventV1 event = new OMRSInstanceEvent(OMRSInstanceEventType.NEW_ENTITY_EVENT, getEntity()).getOMRSEventV1();
+
+        event.setTimestamp(timestamp);
+
+        checkRoundTrip(event, OMRSEventBean.class);
+    }
+
+
+    @Test
+    public void testTypeDefEventUnchanged() throws Exception
+    {
+        OMRSEventV1 event = new OMRSTypeDefEvent(OMRSTypeDefEventType.NEW_TYPEDEF_EVENT, getEntityDef()).getOMRSEventV1();
+
+        event.setTimestamp(timestamp);
+
+        checkRoundTrip(event, OMRSEventBean.class);
+    }
+
+
+    @Test
+    public void testRegistryEventUnchanged() throws Exception
+    {
+        OMRSEventV1 event = new OMRSRegistryEvent(OMRSRegistryEventType.REGISTRATION_EVENT,
+                                                  timestamp,
+                                                  "Test metadata collection",
+                                                  getConnection()).getOMRSEventV1();
+
+        event.setTimestamp(timestamp);
+
+        checkRoundTrip(event, OMRSEventBean.class);
+    }
+
+
+    @Test
+    public void testRegistryFileUnchanged() throws Exception
+    {
+        CohortMembership membership = new CohortMembership();
+
+        membership.setLocalRegistration(getMemberRegistration("local"));
+        membership.setRemoteRegistrations(Arrays.asList(getMemberRegistration("remote1"), getMemberRegistration("remote2")));
+
+        checkRoundTrip(membership, CohortMembership.class);
+        checkFileRoundTrip(membership, CohortMembership.class);
+    }
+
+
+    @Test
+    public void testArchiveUnchanged() throws Exception
+    {
+        OpenMetadataArchiveProperties archiveProperties = new OpenMetadataArchiveProperties();
+        archiveProperties.setArchiveGUID("2e7a6f5c-9d7e-4d4b-a9a1-8f3e2b4c6d10");
+        archiveProperties.setArchiveName("Test archive");
+        archiveProperties.setArchiveType(OpenMetadataArchiveType.CONTENT_PACK);
+        archiveProperties.setCreationDate(timestamp);
+        archiveProperties.setDependsOnArchives(Collections.singletonList("9e1a2b3c-4d5e-6f70-8192-a3b4c5d6e7f8"));
+
+        OpenMetadataArchiveTypeStore typeStore = new OpenMetadataArchiveTypeStore();
+        typeStore.setNewTypeDefs(Collections.<TypeDef>singletonList(getEntityDef()));
+
+        OpenMetadataArchiveInstanceStore instanceStore = new OpenMetadataArchiveInstanceStore();
+        instanceStore.setEntities(Collections.singletonList(getEntity()));
+
+        OpenMetadataArchive archive = new OpenMetadataArchive();
+        archive.setArchiveProperties(archiveProperties);
+        archive.setArchiveTypeStore(typeStore);
+        archive.setArchiveInstanceStore(instanceStore);
+
+        checkRoundTrip(archive, OpenMetadataArchive.class);
+        checkFileRoundTrip(archive, OpenMetadataArchive.class);
+    }
+
+
+    @Test
+    public void testGraphPropertiesUnchanged() throws Exception
+    {
+        ObjectMapper previousMapper = new ObjectMapper();
+        ObjectMapper sharedMapper   = OMRSJSONSerializer.getObjectMapper();
+
+        assertSame(sharedMapper, OMRSJSONSerializer.getObjectMapper());
+
+        /*
+         * The graph repository stores instance properties, maintainedBy lists and mapping properties as JSON strings.
+         */
+        InstanceProperties properties = getProperties();
+        String             jsonProps  = previousMapper.writeValueAsString(properties);
+
+        assertEquals(sharedMapper.writeValueAsString(properties), jsonProps);
+        assertEquals(sharedMapper.writeValueAsString(sharedMapper.readValue(jsonProps, InstanceProperties.class)),
+                     previousMapper.writeValueAsString(previousMapper.readValue(jsonProps, InstanceProperties.class)));
+
+        List<String> maintainedBy     = Arrays.asList("steward1", "steward2");
+        String       jsonMaintainedBy = previousMapper.writeValueAsString(maintainedBy);
+
+        assertEquals(sharedMapper.writeValueAsString(maintainedBy), jsonMaintainedBy);
+        assertEquals(sharedMapper.readValue(jsonMaintainedBy, List.class), maintainedBy);
+
+        Map<String, Serializable> mappingProperties = new HashMap<>();
+        mappingProperties.put("sourceSystem", "Data Lake");
+        mappingProperties.put("sourceVersion", 7);
+
+        String                                   jsonMapping   = previousMapper.writeValueAsString(mappingProperties);
+        TypeReference<Map<String, Serializable>> typeReference = new TypeReference<Map<String, Serializable>>() {};
+
+        assertEquals(sharedMapper.writeValueAsString(mappingProperties), jsonMapping);
+        assertEquals(sharedMapper.readValue(jsonMapping, typeReference), mappingProperties);
+        checkRoundTrip(properties, InstanceProperties.class);
+    }
+
+
+    @Test
+    public void testNullBeanUnchanged() throws Exception
+    {
+        String expectedJSON = new ObjectMapper().writeValueAsString(null);
+
+        assertEquals(OMRSJSONSerializer.writeValueAsString(null), expectedJSON);
+        assertTrue(Arrays.equals(OMRSJSONSerializer.writeValueAsBytes(null), expectedJSON.getBytes(StandardCharsets.UTF_8)));
+    }
+}
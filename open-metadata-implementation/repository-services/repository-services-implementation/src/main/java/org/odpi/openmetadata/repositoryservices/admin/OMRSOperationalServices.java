@@ -26,6 +26,7 @@ import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollec
 import org.odpi.openmetadata.repositoryservices.enterprise.connectormanager.OMRSConnectionConsumer;
 import org.odpi.openmetadata.repositoryservices.enterprise.connectormanager.OMRSEnterpriseConnectorManager;
 import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.EnterpriseOMRSConnection;
+import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.control.FederationWorkerPool;
 import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.EnterpriseOMRSRepositoryConnector;
 import org.odpi.openmetadata.repositoryservices.eventmanagement.OMRSRepositoryEventExchangeRule;
 import org.odpi.openmetadata.repositoryservices.eventmanagement.OMRSRepositoryEventManager;
@@ -43,6 +44,7 @@ import org.odpi.openmetadata.repositoryservices.rest.server.OMRSRepositoryRESTSe
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 
 /**
@@ -86,6 +88,8 @@ public class OMRSOperationalServices
     private OMRSEnterpriseConnectorManager enterpriseConnectorManager       = null;
     private String                         enterpriseMetadataCollectionId   = null;
     private String                         enterpriseMetadataCollectionName = null;
+    private Map<String, Object>            enterpriseConfigurationProperties = null;
+    private FederationWorkerPool           federationWorkerPool             = null;
     private OMRSTopicConnector             enterpriseOMRSTopicConnector     = null;
     private LocalOMRSRepositoryConnector   localRepositoryConnector         = null;
     private OMRSArchiveManager             archiveManager                   = null;
@@ -159,11 +163,12 @@ public class OMRSOperationalServices
                                                         auditLog.createNewAuditLog(OMRSAuditingComponent.ENTERPRISE_REPOSITORY_CONNECTOR),
                                                         enterpriseMetadataCollectionId,
                                                         enterpriseMetadataCollectionName,
-                                                        localMetadataCollectionId);
+                                                        localMetadataCollectionId,
+                                                        federationWorkerPool);
 
             try
             {
-                Connector connector = connectorProvider.getConnector(new EnterpriseOMRSConnection());
+                Connector connector = connectorProvider.getConnector(new EnterpriseOMRSConnection(enterpriseConfigurationProperties));
 
                 EnterpriseOMRSRepositoryConnector omrsRepositoryConnector = (EnterpriseOMRSRepositoryConnector) connector;
 
@@ -677,6 +682,13 @@ public class OMRSOperationalServices
              */
             enterpriseMetadataCollectionId = enterpriseAccessConfig.getEnterpriseMetadataCollectionId();
             enterpriseMetadataCollectionName = enterpriseAccessConfig.getEnterpriseMetadataCollectionName();
+            enterpriseConfigurationProperties = enterpriseAccessConfig.getEnterpriseRepositoryConfigurationProperties();
+
+            /*
+             * The worker pool is shared by all of the EnterpriseOMRSConnectors in this server.  It is used to issue
+             * federated queries to the members of the cohorts in parallel.
+             */
+            federationWorkerPool = new FederationWorkerPool(localServerName, enterpriseConfigurationProperties);
         }
 
         return enterpriseConnectorManager;
@@ -916,6 +928,11 @@ public class OMRSOperationalServices
             }
         }
 
+        if (federationWorkerPool != null)
+        {
+            federationWorkerPool.shutdown();
+        }
+
         if (archiveManager != null)
         {
             archiveManager.close();
@@ -923,6 +940,14 @@ public class OMRSOperationalServices
 
         auditLog.logMessage(actionDescription, OMRSAuditCode.OMRS_DISCONNECTED.getMessageDefinition());
 
+        /*
+         * Deliver any queued audit log records before the server goes away.
+         */
+        if (auditLogDestination != null)
+        {
+            auditLogDestination.disconnect();
+        }
+
         return true;
     }
 
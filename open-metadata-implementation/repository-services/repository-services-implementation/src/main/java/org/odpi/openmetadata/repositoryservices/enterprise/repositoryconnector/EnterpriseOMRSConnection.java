@@ -6,6 +6,8 @@ import org.odpi.openmetadata.frameworks.connectors.properties.ConnectionProperti
 import org.odpi.openmetadata.frameworks.connectors.properties.beans.Connection;
 import org.odpi.openmetadata.frameworks.connectors.properties.beans.ConnectorType;
 
+import java.util.Map;
+
 /**
  * EnterpriseOMRSConnection provides a valid connection for the EnterpriseOMRSConnector.
  */
@@ -26,4 +28,18 @@ public class EnterpriseOMRSConnection extends ConnectionProperties
         connectorType.setConnectorProviderClassName(EnterpriseOMRSConnectorProvider.class.getName());
         connectionBean.setConnectorType(connectorType);
     }
+
+
+    /**
+     * Constructor that sets up the connector with configuration properties.  These control
+     * how the connector federates requests across the open metadata repository cohort(s).
+     *
+     * @param configurationProperties properties for the connector (may be null)
+     */
+    public EnterpriseOMRSConnection(Map<String, Object> configurationProperties)
+    {
+        this();
+
+        super.getConnectionBean().setConfigurationProperties(configurationProperties);
+    }
 }
@@ -13,6 +13,7 @@ import org.odpi.openmetadata.frameworks.connectors.ffdc.ConnectorCheckedExceptio
 import org.odpi.openmetadata.frameworks.connectors.properties.ConnectionProperties;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryConnectorProviderBase;
 import org.odpi.openmetadata.repositoryservices.enterprise.connectormanager.OMRSConnectorManager;
+import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.control.FederationWorkerPool;
 import org.odpi.openmetadata.repositoryservices.ffdc.OMRSErrorCode;
 
 import org.odpi.openmetadata.repositoryservices.localrepository.repositorycontentmanager.OMRSRepositoryContentHelper;
@@ -43,6 +44,7 @@ public class EnterpriseOMRSConnectorProvider extends OMRSRepositoryConnectorProv
     private  String                       enterpriseMetadataCollectionId;
     private  String                       enterpriseMetadataCollectionName;
     private  String                       localMetadataCollectionId;
+    private  FederationWorkerPool         federationWorkerPool;
 
 
 
@@ -61,6 +63,10 @@ public class EnterpriseOMRSConnectorProvider extends OMRSRepositoryConnectorProv
      *                                      connected open metadata repositories.
      * @param enterpriseMetadataCollectionName name of the combined metadata collection covered by the connected open
      *                                        metadata repositories.  Used for messages.
+     * @param localMetadataCollectionId unique identifier for the local repository's metadata collection (null if no
+     *                                  local repository).
+     * @param federationWorkerPool pool of worker threads for issuing federated queries in parallel (null means use
+     *                             the caller's thread).
      */
     public EnterpriseOMRSConnectorProvider(OMRSConnectorManager         connectorManager,
                                            OMRSRepositoryContentManager repositoryContentManager,
@@ -70,7 +76,8 @@ public class EnterpriseOMRSConnectorProvider extends OMRSRepositoryConnectorProv
                                            OMRSAuditLog                 auditLog,
                                            String                       enterpriseMetadataCollectionId,
                                            String                       enterpriseMetadataCollectionName,
-                                           String                       localMetadataCollectionId)
+                                           String                       localMetadataCollectionId,
+                                           FederationWorkerPool         federationWorkerPool)
     {
         super();
         super.setConnectorComponentDescription(OMRSAuditingComponent.ENTERPRISE_REPOSITORY_CONNECTOR);
@@ -89,6 +96,7 @@ public class EnterpriseOMRSConnectorProvider extends OMRSRepositoryConnectorProv
         this.enterpriseMetadataCollectionId = enterpriseMetadataCollectionId;
         this.enterpriseMetadataCollectionName = enterpriseMetadataCollectionName;
         this.localMetadataCollectionId = localMetadataCollectionId;
+        this.federationWorkerPool = federationWorkerPool;
     }
 
 
@@ -135,6 +143,7 @@ public class EnterpriseOMRSConnectorProvider extends OMRSRepositoryConnectorProv
          * Set the localMetadataCollectionId in the connector so that it is available during creation of the EnterpriseMetadataCollection, during setMetaadataCollectionId().
          */
         connector.setLocalMetadataCollectionId(localMetadataCollectionId);
+        connector.setFederationWorkerPool(federationWorkerPool);
 
         connector.setMetadataCollectionId(enterpriseMetadataCollectionId);
         connector.setMetadataCollectionName(enterpriseMetadataCollectionName);
@@ -15,7 +15,7 @@ import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollec
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryHelper;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryValidator;
 import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.control.FederationControl;
-import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.control.ParallelFederationControl;
+import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.accumulators.EnterprisePagingCursor;
 import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.control.SequentialFederationControl;
 import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.executors.*;
 import org.odpi.openmetadata.repositoryservices.ffdc.OMRSAuditCode;
@@ -52,8 +52,14 @@ import java.util.*;
  *     and the duplicates are removed.  Queries are directed to the local repository and then the remote repositories
  *     until all of the requested metadata is assembled.
  * </p>
+ * <p>
+ *     Queries may also be paged with a cursor (see findEntitiesByCursor and findRelationshipsByCursor).  Each
+ *     repository returns its results in sequence starting from its own position in the cursor, and these results
+ *     are merged.  This means each page costs about one page from each repository however deep it is.  These
+ *     queries are called through the by-cursor operations of the enterprise repository services REST API.
+ * </p>
  */
-class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
+public class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
 {
     /*
      * Private variables for a metadata collection instance
@@ -134,7 +140,7 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getCohortConnectors(methodName);
 
-        FederationControl federationControl = new ParallelFederationControl(userId, cohortConnectors, methodName);
+        FederationControl federationControl = enterpriseParentConnector.getQueryFederationControl(userId, cohortConnectors, methodName);
         GetAllTypesExecutor executor = new GetAllTypesExecutor(userId,
                                                                methodName,
                                                                localMetadataCollectionId,
@@ -1154,7 +1160,7 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getCohortConnectors(methodName);
 
-        FederationControl federationControl = new ParallelFederationControl(userId, cohortConnectors, methodName);
+        FederationControl federationControl = enterpriseParentConnector.getQueryFederationControl(userId, cohortConnectors, methodName);
         GetRelationshipsForEntityExecutor executor          = new GetRelationshipsForEntityExecutor(userId,
                                                                                                     entityGUID,
                                                                                                     relationshipTypeGUID,
@@ -1273,7 +1279,7 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getCohortConnectors(methodName);
 
-        FederationControl federationControl = new ParallelFederationControl(userId, cohortConnectors, methodName);
+        FederationControl federationControl = enterpriseParentConnector.getQueryFederationControl(userId, cohortConnectors, methodName);
         FindEntitiesByPropertyExecutor executor          = new FindEntitiesByPropertyExecutor(userId,
                                                                                               entityTypeGUID,
                                                                                               matchProperties,
@@ -1379,7 +1385,7 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getCohortConnectors(methodName);
 
-        FederationControl federationControl = new ParallelFederationControl(userId, cohortConnectors, methodName);
+        FederationControl federationControl = enterpriseParentConnector.getQueryFederationControl(userId, cohortConnectors, methodName);
         FindEntitiesExecutor executor       = new FindEntitiesExecutor(userId,
                                                                        entityTypeGUID,
                                                                        entitySubtypeGUIDs,
@@ -1407,6 +1413,120 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
     }
 
 
+    /**
+     * Return a page of entities that match the supplied criteria.  Rather than a starting element, the position
+     * in the results is passed as a cursor.  Each repository is called from its own position in the cursor and
+     * the results are merged in sequence, removing duplicates.  The cursor for the next page is returned
+     * with the results.
+     *
+     * @param userId unique identifier for requesting user.
+     * @param entityTypeGUID String unique identifier for the entity type of interest (null means any entity type).
+     * @param entitySubtypeGUIDs optional list of the unique identifiers (guids) for subtypes of the entityTypeGUID to
+     *                           include in the search results. Null means all subtypes.
+     * @param matchProperties Optional list of entity property conditions to match.
+     * @param pagingCursor cursor returned with the previous page of the same query.  Null means start from the
+     *                     first page.
+     * @param limitResultsByStatus By default, entities in all statuses are returned.  However, it is possible
+     *                             to specify a list of statuses (eg ACTIVE) to restrict the results to.  Null means all
+     *                             status values.
+     * @param matchClassifications Optional list of entity classifications to match.
+     * @param asOfTime Requests a historical query of the entity.  Null means return the present values.
+     * @param sequencingProperty String name of the entity property that is to be used to sequence the results.
+     *                           Null means do not sequence on a property name (see SequencingOrder).
+     * @param sequencingOrder Enum defining how the results should be ordered.  No order (or ANY) means
+     *                        the results are returned in GUID order.
+     * @param pageSize the maximum number of result entities that can be returned on this request.  Zero means
+     *                 unrestricted return results size.
+     * @return page of entities matching the supplied criteria along with the cursor for the next page.
+     * @throws InvalidParameterException a parameter is invalid or null.
+     * @throws TypeErrorException the type guid passed on the request is not known by the
+     *                              metadata collection.
+     * @throws RepositoryErrorException there is a problem communicating with the metadata repository where
+     *                                    the metadata collection is stored.
+     * @throws PropertyErrorException the properties specified are not valid for any of the requested types of
+     *                                  entity.
+     * @throws PagingErrorException the paging/sequencing parameters or the cursor are not valid.
+     * @throws FunctionNotSupportedException the repository does not support this optional method.
+     * @throws UserNotAuthorizedException the userId is not permitted to perform this operation.
+     */
+    public EnterpriseQueryPage<EntityDetail> findEntitiesByCursor(String                userId,
+                                                                  String                entityTypeGUID,
+                                                                  List<String>          entitySubtypeGUIDs,
+                                                                  SearchProperties      matchProperties,
+                                                                  String                pagingCursor,
+                                                                  List<InstanceStatus>  limitResultsByStatus,
+                                                                  SearchClassifications matchClassifications,
+                                                                  Date                  asOfTime,
+                                                                  String                sequencingProperty,
+                                                                  SequencingOrder       sequencingOrder,
+                                                                  int                   pageSize) throws InvalidParameterException,
+                                                                                                         RepositoryErrorException,
+                                                                                                         TypeErrorException,
+                                                                                                         PropertyErrorException,
+                                                                                                         PagingErrorException,
+                                                                                                         FunctionNotSupportedException,
+                                                                                                         UserNotAuthorizedException
+    {
+        final String  methodName = "findEntitiesByCursor";
+
+        /*
+         * Validate parameters
+         */
+        super.findEntitiesParameterValidation(userId,
+                                              entityTypeGUID,
+                                              entitySubtypeGUIDs,
+                                              matchProperties,
+                                              0,
+                                              limitResultsByStatus,
+                                              matchClassifications,
+                                              asOfTime,
+                                              sequencingProperty,
+                                              sequencingOrder,
+                                              pageSize);
+
+        EnterprisePagingCursor cursor = EnterprisePagingCursor.decode(pagingCursor, methodName);
+
+        /*
+         * The results of the repositories are merged, so they must be in a defined order.
+         */
+        SequencingOrder cursorSequencingOrder = EnterprisePagingCursor.getSequencingOrder(sequencingOrder);
+
+        /*
+         * Validation complete, ok to continue with request
+         *
+         * The list of cohort connectors are retrieved for each request to ensure that any changes in
+         * the shape of the cohort are reflected immediately.
+         */
+        List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getCohortConnectors(methodName);
+
+        FederationControl federationControl = enterpriseParentConnector.getQueryFederationControl(userId, cohortConnectors, methodName);
+        FindEntitiesExecutor executor       = new FindEntitiesExecutor(userId,
+                                                                       entityTypeGUID,
+                                                                       entitySubtypeGUIDs,
+                                                                       matchProperties,
+                                                                       0,
+                                                                       limitResultsByStatus,
+                                                                       matchClassifications,
+                                                                       asOfTime,
+                                                                       sequencingProperty,
+                                                                       cursorSequencingOrder,
+                                                                       pageSize,
+                                                                       localMetadataCollectionId,
+                                                                       auditLog,
+                                                                       repositoryValidator,
+                                                                       methodName);
+
+        executor.setPagingCursor(cursor);
+
+        /*
+         * Ready to process the request.  Each repository is called from its position in the cursor.
+         */
+        federationControl.executeCommand(executor);
+
+        return this.getQueryPage(executor.getResults(enterpriseParentConnector, this), cursor);
+    }
+
+
     /**
      * Return a list of entities that have the requested type of classifications attached.
      *
@@ -1491,7 +1611,7 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getCohortConnectors(methodName);
 
-        FederationControl federationControl = new ParallelFederationControl(userId, cohortConnectors, methodName);
+        FederationControl federationControl = enterpriseParentConnector.getQueryFederationControl(userId, cohortConnectors, methodName);
         FindEntitiesByClassificationExecutor executor          = new FindEntitiesByClassificationExecutor(userId,
                                                                                                           entityTypeGUID,
                                                                                                           classificationName,
@@ -1599,7 +1719,7 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getCohortConnectors(methodName);
 
-        FederationControl federationControl = new ParallelFederationControl(userId, cohortConnectors, methodName);
+        FederationControl federationControl = enterpriseParentConnector.getQueryFederationControl(userId, cohortConnectors, methodName);
         FindEntitiesByPropertyValueExecutor executor          = new FindEntitiesByPropertyValueExecutor(userId,
                                                                                                         entityTypeGUID,
                                                                                                         searchCriteria,
@@ -1852,7 +1972,7 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getCohortConnectors(methodName);
 
-        FederationControl federationControl = new ParallelFederationControl(userId, cohortConnectors, methodName);
+        FederationControl federationControl = enterpriseParentConnector.getQueryFederationControl(userId, cohortConnectors, methodName);
         FindRelationshipsExecutor executor          = new FindRelationshipsExecutor(userId,
                                                                                     relationshipTypeGUID,
                                                                                     relationshipSubtypeGUIDs,
@@ -1879,6 +1999,138 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
     }
 
 
+    /**
+     * Return a page of relationships that match the requested conditions.  Rather than a starting element,
+     * the position in the results is passed as a cursor.  Each repository is called from its own position in the
+     * cursor and the results are merged in sequence, removing duplicates.  The cursor for the next page is
+     * returned with the results.
+     *
+     * @param userId unique identifier for requesting user.
+     * @param relationshipTypeGUID unique identifier (guid) for the relationship's type.  Null means all types
+     *                             (but may be slow so not recommended).
+     * @param relationshipSubtypeGUIDs optional list of the unique identifiers (guids) for subtypes of the
+     *                                 relationshipTypeGUID to include in the search results. Null means all subtypes.
+     * @param matchProperties Optional list of relationship property conditions to match.
+     * @param pagingCursor cursor returned with the previous page of the same query.  Null means start from the
+     *                     first page.
+     * @param limitResultsByStatus By default, relationships in all statuses are returned.  However, it is possible
+     *                             to specify a list of statuses (eg ACTIVE) to restrict the results to.  Null means all
+     *                             status values.
+     * @param asOfTime Requests a historical query of the relationships for the entity.  Null means return the
+     *                 present values.
+     * @param sequencingProperty String name of the property that is to be used to sequence the results.
+     *                           Null means do not sequence on a property name (see SequencingOrder).
+     * @param sequencingOrder Enum defining how the results should be ordered.  No order (or ANY) means
+     *                        the results are returned in GUID order.
+     * @param pageSize the maximum number of result relationships that can be returned on this request.  Zero means
+     *                 unrestricted return results size.
+     * @return page of relationships matching the supplied criteria along with the cursor for the next page.
+     * @throws InvalidParameterException one of the parameters is invalid or null.
+     * @throws TypeErrorException the type guid passed on the request is not known by the
+     *                              metadata collection.
+     * @throws RepositoryErrorException there is a problem communicating with the metadata repository where
+     *                                    the metadata collection is stored.
+     * @throws PropertyErrorException the properties specified are not valid for any of the requested types of
+     *                                  relationships.
+     * @throws PagingErrorException the paging/sequencing parameters or the cursor are not valid.
+     * @throws FunctionNotSupportedException the repository does not support one of the provided parameters.
+     * @throws UserNotAuthorizedException the userId is not permitted to perform this operation.
+     */
+    public EnterpriseQueryPage<Relationship> findRelationshipsByCursor(String               userId,
+                                                                       String               relationshipTypeGUID,
+                                                                       List<String>         relationshipSubtypeGUIDs,
+                                                                       SearchProperties     matchProperties,
+                                                                       String               pagingCursor,
+                                                                       List<InstanceStatus> limitResultsByStatus,
+                                                                       Date                 asOfTime,
+                                                                       String               sequencingProperty,
+                                                                       SequencingOrder      sequencingOrder,
+                                                                       int                  pageSize) throws InvalidParameterException,
+                                                                                                             TypeErrorException,
+                                                                                                             RepositoryErrorException,
+                                                                                                             PropertyErrorException,
+                                                                                                             PagingErrorException,
+                                                                                                             FunctionNotSupportedException,
+                                                                                                             UserNotAuthorizedException
+    {
+        final String  methodName = "findRelationshipsByCursor";
+
+        /*
+         * Validate parameters
+         */
+        super.findRelationshipsParameterValidation(userId,
+                                                   relationshipTypeGUID,
+                                                   relationshipSubtypeGUIDs,
+                                                   matchProperties,
+                                                   0,
+                                                   limitResultsByStatus,
+                                                   asOfTime,
+                                                   sequencingProperty,
+                                                   sequencingOrder,
+                                                   pageSize);
+
+        EnterprisePagingCursor cursor = EnterprisePagingCursor.decode(pagingCursor, methodName);
+
+        /*
+         * The results of the repositories are merged, so they must be in a defined order.
+         */
+        SequencingOrder cursorSequencingOrder = EnterprisePagingCursor.getSequencingOrder(sequencingOrder);
+
+        /*
+         * Validation complete, ok to continue with request
+         *
+         * The list of cohort connectors are retrieved for each request to ensure that any changes in
+         * the shape of the cohort are reflected immediately.
+         */
+        List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getCohortConnectors(methodName);
+
+        FederationControl federationControl = enterpriseParentConnector.getQueryFederationControl(userId, cohortConnectors, methodName);
+        FindRelationshipsExecutor executor          = new FindRelationshipsExecutor(userId,
+                                                                                    relationshipTypeGUID,
+                                                                                    relationshipSubtypeGUIDs,
+                                                                                    matchProperties,
+                                                                                    0,
+                                                                                    limitResultsByStatus,
+                                                                                    asOfTime,
+                                                                                    sequencingProperty,
+                                                                                    cursorSequencingOrder,
+                                                                                    pageSize,
+                                                                                    localMetadataCollectionId,
+                                                                                    auditLog,
+                                                                                    repositoryValidator,
+                                                                                    methodName);
+
+        executor.setPagingCursor(cursor);
+
+        /*
+         * Ready to process the request.  Each repository is called from its position in the cursor.
+         */
+        federationControl.executeCommand(executor);
+
+        return this.getQueryPage(executor.getResults(enterpriseParentConnector), cursor);
+    }
+
+
+    /**
+     * Package the results of a query that is paged with a cursor.
+     *
+     * @param results results for the page
+     * @param cursor cursor updated with the positions for the next page
+     * @param <T> type of instance
+     * @return page of results
+     */
+    private <T> EnterpriseQueryPage<T> getQueryPage(List<T>                results,
+                                                    EnterprisePagingCursor cursor)
+    {
+        if ((results == null) || (cursor.isComplete()))
+        {
+            return new EnterpriseQueryPage<>(results, null);
+        }
+
+        return new EnterpriseQueryPage<>(results, cursor.encode());
+    }
+
+
     /**
      * Return a list of relationships that match the requested properties by the matching criteria.   The results
      * can be received as a series of pages.
@@ -1957,7 +2209,7 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getCohortConnectors(methodName);
 
-        FederationControl federationControl = new ParallelFederationControl(userId, cohortConnectors, methodName);
+        FederationControl federationControl = enterpriseParentConnector.getQueryFederationControl(userId, cohortConnectors, methodName);
         FindRelationshipsByPropertyExecutor executor          = new FindRelationshipsByPropertyExecutor(userId,
                                                                                                         relationshipTypeGUID,
                                                                                                         matchProperties,
@@ -2061,7 +2313,7 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getCohortConnectors(methodName);
 
-        FederationControl federationControl = new ParallelFederationControl(userId, cohortConnectors, methodName);
+        FederationControl federationControl = enterpriseParentConnector.getQueryFederationControl(userId, cohortConnectors, methodName);
         FindRelationshipsByPropertyValueExecutor executor          = new FindRelationshipsByPropertyValueExecutor(userId,
                                                                                                                   relationshipTypeGUID,
                                                                                                                   searchCriteria,
@@ -13,13 +13,19 @@ import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollec
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryConnector;
 import org.odpi.openmetadata.repositoryservices.enterprise.connectormanager.OMRSConnectorConsumer;
 import org.odpi.openmetadata.repositoryservices.enterprise.connectormanager.OMRSConnectorManager;
+import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.control.FederationControl;
+import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.control.FederationWorkerPool;
+import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.control.ParallelFederationControl;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.RepositoryErrorException;
 import org.odpi.openmetadata.repositoryservices.ffdc.OMRSErrorCode;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.OMRSRuntimeException;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * EnterpriseOMRSRepositoryConnector supports federating calls to multiple metadata repositories.  As a result,
@@ -47,6 +53,19 @@ public class EnterpriseOMRSRepositoryConnector extends OMRSRepositoryConnector i
 
     private String callingServiceName = null;
 
+    /*
+     * Control of the parallel federation of queries.  These values are set from the configuration properties
+     * in the connection when the connector is started.
+     */
+    public static final String PARALLEL_FEDERATION_PROPERTY            = "parallelFederation";
+    public static final String SEQUENTIAL_FEDERATION_METHODS_PROPERTY  = "sequentialFederationMethods";
+    public static final String FEDERATION_REPOSITORY_TIMEOUT_PROPERTY  = "federationRepositoryTimeout";
+
+    private FederationWorkerPool federationWorkerPool        = null;
+    private boolean              parallelFederation          = true;
+    private Set<String>          sequentialFederationMethods = new HashSet<>();
+    private long                 federationRepositoryTimeout = 0;
+
     private static final Logger log = LoggerFactory.getLogger(EnterpriseOMRSRepositoryConnector.class);
 
     /**
@@ -106,6 +125,18 @@ public class EnterpriseOMRSRepositoryConnector extends OMRSRepositoryConnector i
     }
 
 
+    /**
+     * Set up the pool of worker threads used to issue federated queries in parallel.  The pool is shared
+     * by all of the enterprise connectors in the server.
+     *
+     * @param federationWorkerPool pool of worker threads (null means issue requests on the caller's thread)
+     */
+    void setFederationWorkerPool(FederationWorkerPool federationWorkerPool)
+    {
+        this.federationWorkerPool = federationWorkerPool;
+    }
+
+
     /**
      * Indicates that the connector is completely configured and can begin processing.
      *
@@ -116,6 +147,39 @@ public class EnterpriseOMRSRepositoryConnector extends OMRSRepositoryConnector i
     {
         super.start();
 
+        if (connectionProperties != null)
+        {
+            Map<String, Object> configurationProperties = connectionProperties.getConfigurationProperties();
+
+            if (configurationProperties != null)
+            {
+                Object parallelFederationProperty          = configurationProperties.get(PARALLEL_FEDERATION_PROPERTY);
+                Object sequentialFederationMethodsProperty = configurationProperties.get(SEQUENTIAL_FEDERATION_METHODS_PROPERTY);
+                Object federationRepositoryTimeoutProperty = configurationProperties.get(FEDERATION_REPOSITORY_TIMEOUT_PROPERTY);
+
+                if (parallelFederationProperty instanceof Boolean)
+                {
+                    parallelFederation = (Boolean)parallelFederationProperty;
+                }
+
+                if (sequentialFederationMethodsProperty instanceof List)
+                {
+                    for (Object methodName : (List<?>)sequentialFederationMethodsProperty)
+                    {
+                        if (methodName != null)
+                        {
+                            sequentialFederationMethods.add(methodName.toString());
+                        }
+                    }
+                }
+
+                if (federationRepositoryTimeoutProperty instanceof Number)
+                {
+                    federationRepositoryTimeout = ((Number)federationRepositoryTimeoutProperty).longValue();
+                }
+            }
+        }
+
         if (auditLog != null)
         {
             final String actionDescription = "start";
@@ -483,6 +547,33 @@ public class EnterpriseOMRSRepositoryConnector extends OMRSRepositoryConnector i
     }
 
 
+    /**
+     * Return the federation control for a request that is issued to every repository in the cohort(s).
+     * The requests run in parallel on the server's worker threads unless parallel federation is switched off
+     * in the configuration, either for all requests or just for this method.
+     *
+     * @param userId calling user
+     * @param cohortConnectors list of connectors to call
+     * @param methodName name of method making the request (also used for logging)
+     * @return federation control for the request
+     */
+    FederationControl getQueryFederationControl(String                        userId,
+                                                List<OMRSRepositoryConnector> cohortConnectors,
+                                                String                        methodName)
+    {
+        if ((parallelFederation) && (! sequentialFederationMethods.contains(methodName)))
+        {
+            return new ParallelFederationControl(userId,
+                                                 cohortConnectors,
+                                                 methodName,
+                                                 federationWorkerPool,
+                                                 federationRepositoryTimeout);
+        }
+
+        return new ParallelFederationControl(userId, cohortConnectors, methodName);
+    }
+
+
     /**
      * Request the refresh of this instance.
      *
@@ -0,0 +1,68 @@
+/* SPDX-License-Identifier: Apache 2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector;
+
+import java.util.List;
+
+/**
+ * EnterpriseQueryPage is a page of results from a federated query that is paged using a cursor.  It holds
+ * the results for the page and the cursor to pass on the request for the next page.
+ *
+ * @param <T> type of instance returned
+ */
+public class EnterpriseQueryPage<T>
+{
+    private final List<T> results;
+    private final String  nextPageCursor;
+
+
+    /**
+     * Constructor supplies the contents of the page.
+     *
+     * @param results results for the page - null means no results
+     * @param nextPageCursor cursor for the next page - null means there are no more results
+     */
+    EnterpriseQueryPage(List<T> results,
+                        String  nextPageCursor)
+    {
+        this.results        = results;
+        this.nextPageCursor = nextPageCursor;
+    }
+
+
+    /**
+     * Return the results for this page.
+     *
+     * @return list of instances - null means no results
+     */
+    public List<T> getResults()
+    {
+        return results;
+    }
+
+
+    /**
+     * Return the cursor to pass on the request for the next page.
+     *
+     * @return opaque cursor string - null means there are no more results
+     */
+    public String getNextPageCursor()
+    {
+        return nextPageCursor;
+    }
+
+
+    /**
+     * Standard toString method.
+     *
+     * @return print out of variables in a JSON-style
+     */
+    @Override
+    public String toString()
+    {
+        return "EnterpriseQueryPage{" +
+                       "results=" + results +
+                       ", nextPageCursor='" + nextPageCursor + '\'' +
+                       '}';
+    }
+}
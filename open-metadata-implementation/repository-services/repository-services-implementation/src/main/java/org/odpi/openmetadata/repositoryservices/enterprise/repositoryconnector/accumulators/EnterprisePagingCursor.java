@@ -0,0 +1,336 @@
+/* SPDX-License-Identifier: Apache 2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.accumulators;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.SequencingOrder;
+import org.odpi.openmetadata.repositoryservices.ffdc.OMRSErrorCode;
+import org.odpi.openmetadata.repositoryservices.ffdc.exception.PagingErrorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * EnterprisePagingCursor records how far a federated query has read through the results of each member
+ * repository.  Each member repository returns its results in the requested sequence and the enterprise
+ * connector merges them.  The cursor holds, for each member, the number of its results that have been
+ * consumed, so the next page is requested from each member at its own position rather than every member
+ * being asked to skip all of the earlier pages.
+ *
+ * The merge needs every member to return its results in the same total order, so a query with no sequencing
+ * order (or ANY) is run in GUID order when it is paged with a cursor.
+ *
+ * An instance that is stored in more than one member repository is only returned once.  When it is returned
+ * on a page and its copies in other members have been seen but not yet consumed, the cursor remembers to skip
+ * these copies on the next page.  When the results are sequenced on a property or the last update time,
+ * the copies of an instance at different versions may sort a long way apart.  The cursor then also remembers
+ * every GUID it has returned so a copy that is reached on a later page is skipped.  This means the cursor
+ * grows with the number of results returned for these orders.
+ *
+ * The cursor is passed to the caller as an opaque string.
+ */
+public class EnterprisePagingCursor
+{
+    private static final String memberSeparator = "\n";
+    private static final String fieldSeparator  = "\t";
+
+    private final Map<String, Integer>     memberOffsets   = new HashMap<>();
+    private final Map<String, Set<String>> memberSkipGUIDs = new HashMap<>();
+    private final Set<String>              returnedGUIDs   = new HashSet<>();
+    private       boolean                  complete        = false;
+
+
+    /**
+     * Default constructor creates a cursor for the first page of results.
+     */
+    public EnterprisePagingCursor()
+    {
+    }
+
+
+    /**
+     * Rebuild a cursor from the string returned with the previous page of results.
+     *
+     * @param cursor string form of the cursor - null means start at the first page
+     * @param methodName calling method
+     * @return cursor object
+     * @throws PagingErrorException the string is not a valid cursor
+     */
+    public static EnterprisePagingCursor decode(String cursor,
+                                                String methodName) throws PagingErrorException
+    {
+        EnterprisePagingCursor pagingCursor = new EnterprisePagingCursor();
+
+        if ((cursor == null) || (cursor.isEmpty()))
+        {
+            return pagingCursor;
+        }
+
+        try
+        {
+            String decodedCursor = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+
+            for (String member : decodedCursor.split(memberSeparator))
+            {
+                if (member.startsWith(fieldSeparator))
+                {
+                    /*
+                     * The line with no metadata collection id lists the GUIDs already returned.
+                     */
+                    for (String returnedGUID : member.substring(1).split(fieldSeparator))
+                    {
+                        if (! returnedGUID.isEmpty())
+                        {
+                            pagingCursor.returnedGUIDs.add(returnedGUID);
+                        }
+                    }
+                }
+                else if (! member.isEmpty())
+                {
+                    String[] fields               = member.split(fieldSeparator);
+                    String   metadataCollectionId = fields[0];
+                    int      offset               = Integer.parseInt(fields[1]);
+
+                    if (offset < 0)
+                    {
+                        throw new IllegalArgumentException("negative offset for " + metadataCollectionId);
+                    }
+
+                    pagingCursor.memberOffsets.put(metadataCollectionId, offset);
+
+                    for (int i = 2; i < fields.length; i++)
+                    {
+                        pagingCursor.addSkipGUID(metadataCollectionId, fields[i]);
+                    }
+                }
+            }
+        }
+        catch (Exception error)
+        {
+            throw new PagingErrorException(OMRSErrorCode.INVALID_PAGING_CURSOR.getMessageDefinition(methodName, error.getMessage()),
+                                           EnterprisePagingCursor.class.getName(),
+                                           methodName,
+                                           error);
+        }
+
+        return pagingCursor;
+    }
+
+
+    /**
+     * Return the string form of the cursor that is passed back to the caller.
+     *
+     * @return opaque string
+     */
+    public synchronized String encode()
+    {
+        StringBuilder cursor  = new StringBuilder();
+        Set<String>   members = new HashSet<>(memberOffsets.keySet());
+
+        members.addAll(memberSkipGUIDs.keySet());
+
+        for (String metadataCollectionId : members)
+        {
+            cursor.append(metadataCollectionId).append(fieldSeparator).append(getStartingElement(metadataCollectionId));
+
+            Set<String> skipGUIDs = memberSkipGUIDs.get(metadataCollectionId);
+
+            if (skipGUIDs != null)
+            {
+                for (String skipGUID : skipGUIDs)
+                {
+                    cursor.append(fieldSeparator).append(skipGUID);
+                }
+            }
+
+            cursor.append(memberSeparator);
+        }
+
+        if (! returnedGUIDs.isEmpty())
+        {
+            for (String returnedGUID : returnedGUIDs)
+            {
+                cursor.append(fieldSeparator).append(returnedGUID);
+            }
+
+            cursor.append(memberSeparator);
+        }
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+
+    /**
+     * Return the sequencing order that the members are asked for when a query is paged with a cursor.
+     * Results with no order can not be merged, so GUID order is used in place of no order.
+     *
+     * @param sequencingOrder order requested by the caller
+     * @return order to use
+     */
+    public static SequencingOrder getSequencingOrder(SequencingOrder sequencingOrder)
+    {
+        if ((sequencingOrder == null) || (sequencingOrder == SequencingOrder.ANY))
+        {
+            return SequencingOrder.GUID;
+        }
+
+        return sequencingOrder;
+    }
+
+
+    /**
+     * Return whether the copies of an instance at different versions can have different positions in the
+     * sequencing order.  If so, the GUIDs that have been returned are remembered for the later pages.
+     *
+     * @param sequencingOrder order used by the members
+     * @return boolean flag
+     */
+    static boolean isPositionVersionDependent(SequencingOrder sequencingOrder)
+    {
+        return (sequencingOrder == SequencingOrder.PROPERTY_ASCENDING)  ||
+               (sequencingOrder == SequencingOrder.PROPERTY_DESCENDING) ||
+               (sequencingOrder == SequencingOrder.LAST_UPDATE_RECENT)  ||
+               (sequencingOrder == SequencingOrder.LAST_UPDATE_OLDEST);
+    }
+
+
+    /**
+     * Return the position in the member's results that the next request should start from.
+     *
+     * @param metadataCollectionId identifier of the member repository's metadata collection
+     * @return starting element for the member - zero for a member that has not been called before
+     */
+    public synchronized int getStartingElement(String metadataCollectionId)
+    {
+        Integer offset = memberOffsets.get(metadataCollectionId);
+
+        if (offset == null)
+        {
+            return 0;
+        }
+
+        return offset;
+    }
+
+
+    /**
+     * Return the number of results to request from the member.  This is the page size plus the number of
+     * duplicates that are waiting to be skipped so that skipping them does not make the page short.
+     *
+     * @param metadataCollectionId identifier of the member repository's metadata collection
+     * @param pageSize page size requested by the caller - zero means no limit
+     * @return page size for the member
+     */
+    public synchronized int getPageSize(String metadataCollectionId,
+                                        int    pageSize)
+    {
+        if (pageSize == 0)
+        {
+            return 0;
+        }
+
+        Set<String> skipGUIDs = memberSkipGUIDs.get(metadataCollectionId);
+
+        if (skipGUIDs == null)
+        {
+            return pageSize;
+        }
+
+        return pageSize + skipGUIDs.size();
+    }
+
+
+    /**
+     * Record that one more result from the member has been consumed.
+     *
+     * @param metadataCollectionId identifier of the member repository's metadata collection
+     */
+    synchronized void advance(String metadataCollectionId)
+    {
+        memberOffsets.put(metadataCollectionId, getStartingElement(metadataCollectionId) + 1);
+    }
+
+
+    /**
+     * Record that a copy of an instance that has already been returned is waiting in the member's results.
+     *
+     * @param metadataCollectionId identifier of the member repository's metadata collection
+     * @param instanceGUID unique identifier of the instance
+     */
+    synchronized void addSkipGUID(String metadataCollectionId,
+                                  String instanceGUID)
+    {
+        memberSkipGUIDs.computeIfAbsent(metadataCollectionId, key -> new HashSet<>()).add(instanceGUID);
+    }
+
+
+    /**
+     * Check whether an instance from the member should be skipped because a copy has already been returned.
+     * The skip is removed once it has been used.
+     *
+     * @param metadataCollectionId identifier of the member repository's metadata collection
+     * @param instanceGUID unique identifier of the instance
+     * @return boolean flag - true means skip the instance
+     */
+    synchronized boolean consumeSkipGUID(String metadataCollectionId,
+                                         String instanceGUID)
+    {
+        Set<String> skipGUIDs = memberSkipGUIDs.get(metadataCollectionId);
+
+        if ((skipGUIDs != null) && (skipGUIDs.remove(instanceGUID)))
+        {
+            if (skipGUIDs.isEmpty())
+            {
+                memberSkipGUIDs.remove(metadataCollectionId);
+            }
+
+            return true;
+        }
+
+        return false;
+    }
+
+
+    /**
+     * Record that an instance has been returned on a page.
+     *
+     * @param instanceGUID unique identifier of the instance
+     */
+    synchronized void addReturnedGUID(String instanceGUID)
+    {
+        returnedGUIDs.add(instanceGUID);
+    }
+
+
+    /**
+     * Check whether an instance was returned on an earlier page.
+     *
+     * @param instanceGUID unique identifier of the instance
+     * @return boolean flag
+     */
+    synchronized boolean wasReturned(String instanceGUID)
+    {
+        return returnedGUIDs.contains(instanceGUID);
+    }
+
+
+    /**
+     * Return whether all of the results from all of the members have been returned.
+     *
+     * @return boolean flag
+     */
+    public synchronized boolean isComplete()
+    {
+        return complete;
+    }
+
+
+    /**
+     * Set whether all of the results from all of the members have been returned.
+     *
+     * @param complete boolean flag
+     */
+    synchronized void setComplete(boolean complete)
+    {
+        this.complete = complete;
+    }
+}
@@ -9,11 +9,9 @@ import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollec
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryValidator;
 import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.EnterpriseOMRSRepositoryConnector;
+import org.odpi.openmetadata.repositoryservices.localrepository.repositorycontentmanager.OMRSRepositoryContentHelper;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 
 /**
  * EntityAccumulator accumulates and validates entities received from a collection of open metadata
@@ -25,6 +23,7 @@ public class EntityAccumulator extends QueryInstanceAccumulatorBase
 {
     private volatile Map<String, EntityDetail>         accumulatedEntities        = new HashMap<>();
     private volatile Map<String, List<Classification>> accumulatedClassifications = new HashMap<>();
+    private volatile Map<String, List<EntityDetail>>   memberEntities             = new HashMap<>();
 
 
     /**
@@ -149,11 +148,35 @@ public class EntityAccumulator extends QueryInstanceAccumulatorBase
     public synchronized void addEntities(List<EntityDetail>   entities,
                                          String               metadataCollectionId)
     {
+        /*
+         * Results that arrive after the request to this repository has been abandoned are ignored.
+         */
+        if (super.requestAbandoned(metadataCollectionId))
+        {
+            return;
+        }
+
         if (entities != null)
         {
+            List<EntityDetail> sequencedEntities = new ArrayList<>();
+
             for (EntityDetail entity : entities)
             {
                 this.addEntity(entity, metadataCollectionId);
+
+                if ((entity != null) && (entity.getGUID() != null))
+                {
+                    sequencedEntities.add(entity);
+                }
+            }
+
+            /*
+             * When paging with a cursor, each member's results are kept in the order they were returned
+             * so they can be merged.
+             */
+            if ((super.getPagingCursor() != null) && (metadataCollectionId != null))
+            {
+                memberEntities.put(metadataCollectionId, sequencedEntities);
             }
 
             /*
@@ -183,6 +206,20 @@ public class EntityAccumulator extends QueryInstanceAccumulatorBase
     public synchronized List<EntityDetail> getResults(EnterpriseOMRSRepositoryConnector repositoryConnector,
                                                       OMRSMetadataCollection            metadataCollection)
     {
+        List<EntityDetail> pageEntities = null;
+
+        if (super.getPagingCursor() != null)
+        {
+            /*
+             * The merge picks the entities for the page in sequence and advances the cursor.
+             */
+            pageEntities = super.mergeMemberResults(memberEntities,
+                                                    (one, two) -> OMRSRepositoryContentHelper.compareEntities(one,
+                                                                                                              two,
+                                                                                                              sequencingProperty,
+                                                                                                              sequencingOrder));
+        }
+
         if (accumulatedEntities.isEmpty())
         {
             return null;
@@ -195,7 +232,22 @@ public class EntityAccumulator extends QueryInstanceAccumulatorBase
 
             if (metadataCollection != null)
             {
-                for (EntityDetail accumulatedEntity : accumulatedEntities.values())
+                Collection<EntityDetail> selectedEntities = accumulatedEntities.values();
+
+                if (pageEntities != null)
+                {
+                    /*
+                     * The latest version of each entity on the page is returned.
+                     */
+                    selectedEntities = new ArrayList<>();
+
+                    for (EntityDetail pageEntity : pageEntities)
+                    {
+                        selectedEntities.add(accumulatedEntities.get(pageEntity.getGUID()));
+                    }
+                }
+
+                for (EntityDetail accumulatedEntity : selectedEntities)
                 {
                     if (accumulatedEntity != null)
                     {
@@ -6,10 +6,13 @@ package org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.
 import org.odpi.openmetadata.frameworks.auditlog.AuditLog;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryValidator;
 import org.odpi.openmetadata.repositoryservices.ffdc.OMRSAuditCode;
+import org.odpi.openmetadata.repositoryservices.ffdc.OMRSErrorCode;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.*;
 
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * QueryAccumulatorBase acts as a base class to the accumulators that need to visit each repository and
@@ -23,6 +26,7 @@ public class QueryAccumulatorBase extends ExceptionAccumulatorBase
     private int                  responsesRequired  = 0;
     private Map<String, Integer> resultsContributed = new HashMap<>();
     private boolean              resultsReturned = false;
+    private Set<String>          abandonedRequests = new HashSet<>();
 
 
     /**
@@ -107,6 +111,74 @@ public class QueryAccumulatorBase extends ExceptionAccumulatorBase
     }
 
 
+    /**
+     * This records that the request to a single repository failed.  The failure is ignored if the request has
+     * already been abandoned, since the request is already recorded as timed out and the exception is most
+     * likely caused by the request being cancelled.
+     *
+     * @param metadataCollectionId identifier of repository's metadata collection
+     * @return true if the exception should be saved
+     */
+    private boolean setRequestFailed(String      metadataCollectionId)
+    {
+        if (abandonedRequests.contains(metadataCollectionId))
+        {
+            return false;
+        }
+
+        setRequestReturned(metadataCollectionId, 0);
+        return true;
+    }
+
+
+
+    /**
+     * Return whether the request to a repository has been abandoned because it did not complete in time.
+     * Results from an abandoned request are ignored.
+     *
+     * @param metadataCollectionId identifier of repository's metadata collection
+     * @return boolean flag
+     */
+    synchronized boolean requestAbandoned(String metadataCollectionId)
+    {
+        return abandonedRequests.contains(metadataCollectionId);
+    }
+
+
+    /**
+     * Record that the request to a repository has been abandoned because it did not complete in time.
+     * The timeout is saved as a repository error so that it is returned if none of the other repositories
+     * are able to return results.
+     *
+     * @param metadataCollectionId identifier of repository's metadata collection
+     * @param methodName calling method
+     * @param timeout number of milliseconds that the request was given
+     */
+    public synchronized void captureRequestTimeout(String metadataCollectionId,
+                                                   String methodName,
+                                                   long   timeout)
+    {
+        if (! resultsContributed.containsKey(metadataCollectionId))
+        {
+            abandonedRequests.add(metadataCollectionId);
+            setRequestReturned(metadataCollectionId, 0);
+
+            repositoryErrorException = new RepositoryErrorException(OMRSErrorCode.ENTERPRISE_REQUEST_TIMEOUT.getMessageDefinition(methodName,
+                                                                                                                                 metadataCollectionId,
+                                                                                                                                 Long.toString(timeout)),
+                                                                    this.getClass().getName(),
+                                                                    methodName);
+
+            if (auditLog != null)
+            {
+                auditLog.logMessage(methodName,
+                                    OMRSAuditCode.REPOSITORY_REQUEST_TIMEOUT.getMessageDefinition(methodName,
+                                                                                                  metadataCollectionId,
+                                                                                                  Long.toString(timeout)));
+            }
+        }
+    }
+
 
     /**
      * Save the supplied exception.
@@ -117,8 +189,10 @@ public class QueryAccumulatorBase extends ExceptionAccumulatorBase
     public synchronized void captureException(String                          metadataCollectionId,
                                               ClassificationErrorException exception)
     {
-        setRequestReturned(metadataCollectionId, 0);
-        classificationErrorException = exception;
+        if (setRequestFailed(metadataCollectionId))
+        {
+            classificationErrorException = exception;
+        }
     }
 
 
@@ -131,8 +205,10 @@ public class QueryAccumulatorBase extends ExceptionAccumulatorBase
     public synchronized void captureException(String                     metadataCollectionId,
                                               EntityNotKnownException exception)
     {
-        setRequestReturned(metadataCollectionId, 0);
-        entityNotKnownException = exception;
+        if (setRequestFailed(metadataCollectionId))
+        {
+            entityNotKnownException = exception;
+        }
     }
 
 
@@ -146,8 +222,10 @@ public class QueryAccumulatorBase extends ExceptionAccumulatorBase
     public synchronized void captureException(String                           metadataCollectionId,
                                               FunctionNotSupportedException exception)
     {
-        setRequestReturned(metadataCollectionId, 0);
-        functionNotSupportedException = exception;
+        if (setRequestFailed(metadataCollectionId))
+        {
+            functionNotSupportedException = exception;
+        }
     }
 
 
@@ -160,8 +238,10 @@ public class QueryAccumulatorBase extends ExceptionAccumulatorBase
     public synchronized void captureException(String                     metadataCollectionId,
                                               InvalidParameterException exception)
     {
-        setRequestReturned(metadataCollectionId, 0);
-        invalidParameterException = exception;
+        if (setRequestFailed(metadataCollectionId))
+        {
+            invalidParameterException = exception;
+        }
     }
 
 
@@ -174,8 +254,10 @@ public class QueryAccumulatorBase extends ExceptionAccumulatorBase
     public synchronized void captureException(String                     metadataCollectionId,
                                               PagingErrorException exception)
     {
-        setRequestReturned(metadataCollectionId, 0);
-        pagingErrorException = exception;
+        if (setRequestFailed(metadataCollectionId))
+        {
+            pagingErrorException = exception;
+        }
     }
 
 
@@ -188,8 +270,10 @@ public class QueryAccumulatorBase extends ExceptionAccumulatorBase
     public synchronized void captureException(String                     metadataCollectionId,
                                               PropertyErrorException exception)
     {
-        setRequestReturned(metadataCollectionId, 0);
-        propertyErrorException = exception;
+        if (setRequestFailed(metadataCollectionId))
+        {
+            propertyErrorException = exception;
+        }
     }
 
 
@@ -202,8 +286,10 @@ public class QueryAccumulatorBase extends ExceptionAccumulatorBase
     public synchronized void captureException(String                        metadataCollectionId,
                                               RelationshipNotKnownException exception)
     {
-        setRequestReturned(metadataCollectionId, 0);
-        relationshipNotKnownException = exception;
+        if (setRequestFailed(metadataCollectionId))
+        {
+            relationshipNotKnownException = exception;
+        }
     }
 
 
@@ -216,8 +302,10 @@ public class QueryAccumulatorBase extends ExceptionAccumulatorBase
     public synchronized void captureException(String                     metadataCollectionId,
                                               RepositoryErrorException exception)
     {
-        setRequestReturned(metadataCollectionId, 0);
-        repositoryErrorException = exception;
+        if (setRequestFailed(metadataCollectionId))
+        {
+            repositoryErrorException = exception;
+        }
     }
 
 
@@ -230,8 +318,10 @@ public class QueryAccumulatorBase extends ExceptionAccumulatorBase
     public synchronized void captureException(String               metadataCollectionId,
                                               TypeErrorException exception)
     {
-        setRequestReturned(metadataCollectionId, 0);
-        typeErrorException = exception;
+        if (setRequestFailed(metadataCollectionId))
+        {
+            typeErrorException = exception;
+        }
     }
 
 
@@ -244,8 +334,10 @@ public class QueryAccumulatorBase extends ExceptionAccumulatorBase
     public synchronized void captureException(String                     metadataCollectionId,
                                               UserNotAuthorizedException exception)
     {
-        setRequestReturned(metadataCollectionId, 0);
-        userNotAuthorizedException = exception;
+        if (setRequestFailed(metadataCollectionId))
+        {
+            userNotAuthorizedException = exception;
+        }
     }
 
 
@@ -260,14 +352,16 @@ public class QueryAccumulatorBase extends ExceptionAccumulatorBase
                                                      String     metadataCollectionId,
                                                      Exception  exception)
     {
-        setRequestReturned(metadataCollectionId, 0);
-        anotherException = exception;
-
-        auditLog.logException(actionDescription,
-                              OMRSAuditCode.UNEXPECTED_EXCEPTION_FROM_REPOSITORY.getMessageDefinition(exception.getClass().getName(),
-                                                                                                      metadataCollectionId,
-                                                                                                      actionDescription,
-                                                                                                      exception.getMessage()),
-                              exception);
+        if (setRequestFailed(metadataCollectionId))
+        {
+            anotherException = exception;
+
+            auditLog.logException(actionDescription,
+                                  OMRSAuditCode.UNEXPECTED_EXCEPTION_FROM_REPOSITORY.getMessageDefinition(exception.getClass().getName(),
+                                                                                                          metadataCollectionId,
+                                                                                                          actionDescription,
+                                                                                                          exception.getMessage()),
+                                  exception);
+        }
     }
 }
@@ -4,12 +4,12 @@ package org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.
 
 
 import org.odpi.openmetadata.frameworks.auditlog.AuditLog;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.SequencingOrder;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceAuditHeader;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceHeader;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryValidator;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
 
 /**
  * QueryAccumulatorBase acts as a base class to the accumulators that need to visit each repository and
@@ -19,6 +19,14 @@ public class QueryInstanceAccumulatorBase extends QueryAccumulatorBase
 {
     protected List<String>            locallyStoredInstancesGUIDs = new ArrayList<>();
 
+    /*
+     * Set when the results are returned a page at a time using a paging cursor.
+     */
+    private   EnterprisePagingCursor  pagingCursor       = null;
+    private   int                     pageSize           = 0;
+    protected String                  sequencingProperty = null;
+    protected SequencingOrder         sequencingOrder    = null;
+
     /**
      * Construct a query accumulator.  This base class manages the common variables needed to
      * control the execution of requests across all members of the cohort(s).
@@ -75,4 +83,177 @@ public class QueryInstanceAccumulatorBase extends QueryAccumulatorBase
     {
         return ! (locallyStoredInstancesGUIDs.contains(instanceGUID));
     }
+
+
+    /**
+     * Request that the results are returned a page at a time using a paging cursor.  Each member repository is
+     * called from its own position in the cursor and the results of the members are merged in sequence.
+     *
+     * @param pagingCursor cursor from the previous page - it is updated with the position for the next page
+     * @param sequencingProperty property used for ordering (optional)
+     * @param sequencingOrder ordering of results - no order (or ANY) means GUID order
+     * @param pageSize maximum number of elements that can be returned
+     */
+    public synchronized void setPagingCursor(EnterprisePagingCursor pagingCursor,
+                                             String                 sequencingProperty,
+                                             SequencingOrder        sequencingOrder,
+                                             int                    pageSize)
+    {
+        this.pagingCursor       = pagingCursor;
+        this.sequencingProperty = sequencingProperty;
+        this.sequencingOrder    = EnterprisePagingCursor.getSequencingOrder(sequencingOrder);
+        this.pageSize           = pageSize;
+    }
+
+
+    /**
+     * Return the paging cursor for the request.
+     *
+     * @return cursor or null if the request is not using a paging cursor
+     */
+    public synchronized EnterprisePagingCursor getPagingCursor()
+    {
+        return pagingCursor;
+    }
+
+
+    /**
+     * Merge the results returned by each member repository into a single page.  Each member's results are
+     * already in the requested sequence so the page is built by repeatedly taking the first remaining
+     * result across the members (a k-way merge).  Ties are broken on the GUID so that copies of the same
+     * instance from different members are taken one after another and only the first is kept.
+     *
+     * The paging cursor is advanced past every result that is consumed.  The merge stops early if a member
+     * runs out of results while it may have more in the repository, since its next results could belong
+     * before the results of the other members.  If the position of an instance depends on its version,
+     * copies that were returned on an earlier page are also skipped.
+     *
+     * Repositories only sequence their results when they are returning a page, so when there is no page size
+     * each member's results are sorted before they are merged.
+     *
+     * @param memberResults results returned from each member repository
+     * @param comparator sequencing order of the results
+     * @param <T> type of instance
+     * @return one instance for each GUID on the page in sequence
+     */
+    <T extends InstanceHeader> List<T> mergeMemberResults(Map<String, List<T>> memberResults,
+                                                          Comparator<T>        comparator)
+    {
+        List<T>              page             = new ArrayList<>();
+        Set<String>          pageGUIDs        = new HashSet<>();
+        Map<String, Integer> positions        = new HashMap<>();
+        Map<String, Integer> requestedResults = new HashMap<>();
+        boolean              trackReturned    = EnterprisePagingCursor.isPositionVersionDependent(sequencingOrder);
+
+        Comparator<T> sequence = comparator.thenComparing(InstanceHeader::getGUID, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+        PriorityQueue<String> members = new PriorityQueue<>((memberOne, memberTwo) ->
+        {
+            T   instanceOne = memberResults.get(memberOne).get(positions.get(memberOne));
+            T   instanceTwo = memberResults.get(memberTwo).get(positions.get(memberTwo));
+            int result      = sequence.compare(instanceOne, instanceTwo);
+
+            if (result == 0)
+            {
+                result = memberOne.compareTo(memberTwo);
+            }
+
+            return result;
+        });
+
+        for (String metadataCollectionId : memberResults.keySet())
+        {
+            requestedResults.put(metadataCollectionId, pagingCursor.getPageSize(metadataCollectionId, pageSize));
+
+            if (pageSize == 0)
+            {
+                memberResults.get(metadataCollectionId).sort(sequence);
+            }
+
+            if (! memberResults.get(metadataCollectionId).isEmpty())
+            {
+                positions.put(metadataCollectionId, 0);
+                members.add(metadataCollectionId);
+            }
+        }
+
+        boolean moreResults = false;
+
+        while ((! members.isEmpty()) && ((pageSize == 0) || (page.size() < pageSize)))
+        {
+            String  metadataCollectionId = members.poll();
+            List<T> results              = memberResults.get(metadataCollectionId);
+            int     position             = positions.get(metadataCollectionId);
+            T       instance             = results.get(position);
+
+            positions.put(metadataCollectionId, position + 1);
+            pagingCursor.advance(metadataCollectionId);
+
+            if ((! pagingCursor.consumeSkipGUID(metadataCollectionId, instance.getGUID())) &&
+                ((! trackReturned) || (! pagingCursor.wasReturned(instance.getGUID()))) &&
+                (pageGUIDs.add(instance.getGUID())))
+            {
+                page.add(instance);
+
+                if (trackReturned)
+                {
+                    pagingCursor.addReturnedGUID(instance.getGUID());
+                }
+            }
+
+            if (position + 1 < results.size())
+            {
+                members.add(metadataCollectionId);
+            }
+            else if (memberMayHaveMoreResults(results, requestedResults.get(metadataCollectionId)))
+            {
+                break;
+            }
+        }
+
+        /*
+         * Copies of the instances on this page that are waiting in the other members' results are skipped
+         * on the next page.  The query is complete when every member has returned all of its results.
+         */
+        for (String metadataCollectionId : memberResults.keySet())
+        {
+            List<T> results  = memberResults.get(metadataCollectionId);
+            Integer position = positions.get(metadataCollectionId);
+
+            if ((position != null) && (position < results.size()))
+            {
+                moreResults = true;
+
+                for (T waitingInstance : results.subList(position, results.size()))
+                {
+                    if (pageGUIDs.contains(waitingInstance.getGUID()))
+                    {
+                        pagingCursor.addSkipGUID(metadataCollectionId, waitingInstance.getGUID());
+                    }
+                }
+            }
+            else if (memberMayHaveMoreResults(results, requestedResults.get(metadataCollectionId)))
+            {
+                moreResults = true;
+            }
+        }
+
+        pagingCursor.setComplete(! moreResults);
+
+        return page;
+    }
+
+
+    /**
+     * Return whether a member returned as many results as were requested, and so may have more.
+     *
+     * @param results results returned by the member
+     * @param requestedResults number of results requested - zero means all results
+     * @return boolean flag
+     */
+    private boolean memberMayHaveMoreResults(List<?> results,
+                                             int     requestedResults)
+    {
+        return (requestedResults > 0) && (results.size() >= requestedResults);
+    }
 }
@@ -6,6 +6,7 @@ import org.odpi.openmetadata.frameworks.auditlog.AuditLog;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Relationship;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryValidator;
 import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.EnterpriseOMRSRepositoryConnector;
+import org.odpi.openmetadata.repositoryservices.localrepository.repositorycontentmanager.OMRSRepositoryContentHelper;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -20,7 +21,8 @@ import java.util.Map;
  */
 public class RelationshipAccumulator extends QueryInstanceAccumulatorBase
 {
-    private volatile Map<String, Relationship> accumulatedRelationships   = new HashMap<>();
+    private volatile Map<String, Relationship>       accumulatedRelationships = new HashMap<>();
+    private volatile Map<String, List<Relationship>> memberRelationships      = new HashMap<>();
 
 
     /**
@@ -85,11 +87,35 @@ public class RelationshipAccumulator extends QueryInstanceAccumulatorBase
     public synchronized void addRelationships(List<Relationship>   relationships,
                                               String               metadataCollectionId)
     {
+        /*
+         * Results that arrive after the request to this repository has been abandoned are ignored.
+         */
+        if (super.requestAbandoned(metadataCollectionId))
+        {
+            return;
+        }
+
         if (relationships != null)
         {
+            List<Relationship> sequencedRelationships = new ArrayList<>();
+
             for (Relationship relationship : relationships)
             {
                 this.addRelationship(relationship, metadataCollectionId);
+
+                if ((relationship != null) && (relationship.getGUID() != null))
+                {
+                    sequencedRelationships.add(relationship);
+                }
+            }
+
+            /*
+             * When paging with a cursor, each member's results are kept in the order they were returned
+             * so they can be merged.
+             */
+            if ((super.getPagingCursor() != null) && (metadataCollectionId != null))
+            {
+                memberRelationships.put(metadataCollectionId, sequencedRelationships);
             }
 
             /*
@@ -117,6 +143,20 @@ public class RelationshipAccumulator extends QueryInstanceAccumulatorBase
      */
     public synchronized List<Relationship>  getResults(EnterpriseOMRSRepositoryConnector repositoryConnector)
     {
+        List<Relationship> pageRelationships = null;
+
+        if (super.getPagingCursor() != null)
+        {
+            /*
+             * The merge picks the relationships for the page in sequence and advances the cursor.
+             */
+            pageRelationships = super.mergeMemberResults(memberRelationships,
+                                                         (one, two) -> OMRSRepositoryContentHelper.compareRelationships(one,
+                                                                                                                        two,
+                                                                                                                        sequencingProperty,
+                                                                                                                        sequencingOrder));
+        }
+
         if (accumulatedRelationships.isEmpty())
         {
             return null;
@@ -124,6 +164,27 @@ public class RelationshipAccumulator extends QueryInstanceAccumulatorBase
         else
         {
             this.makeRefreshRecommendations(repositoryConnector);
+
+            if (pageRelationships != null)
+            {
+                /*
+                 * The latest version of each relationship on the page is returned.
+                 */
+                List<Relationship> results = new ArrayList<>();
+
+                for (Relationship pageRelationship : pageRelationships)
+                {
+                    results.add(accumulatedRelationships.get(pageRelationship.getGUID()));
+                }
+
+                if (results.isEmpty())
+                {
+                    return null;
+                }
+
+                return results;
+            }
+
             return new ArrayList<>(accumulatedRelationships.values());
         }
     }
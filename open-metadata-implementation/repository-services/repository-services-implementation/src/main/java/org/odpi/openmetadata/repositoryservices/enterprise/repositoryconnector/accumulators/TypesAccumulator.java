@@ -104,6 +104,14 @@ public class TypesAccumulator extends QueryAccumulatorBase
     public synchronized void addTypeDefGallery(TypeDefGallery types,
                                                String         metadataCollectionId)
     {
+        /*
+         * Results that arrive after the request to this repository has been abandoned are ignored.
+         */
+        if (super.requestAbandoned(metadataCollectionId))
+        {
+            return;
+        }
+
         int numberOrAttributeTypeDefs = 0;
         int numberOfTypeDefs = 0;
 
@@ -0,0 +1,139 @@
+/* SPDX-License-Identifier: Apache 2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.control;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * FederationWorkerPool manages the worker threads that the ParallelFederationControl uses to issue requests
+ * to the members of the open metadata repository cohort(s).  There is one pool for each server and it is shared
+ * by all of the enterprise repository connectors created for the access services running in that server.
+ * <p>
+ * The pool is bounded both in the number of threads and in the number of requests that can be waiting for a
+ * thread.  If the pool is saturated, or it has been shut down, the request is run on the calling thread so
+ * that the federated query still completes.
+ * </p>
+ */
+public class FederationWorkerPool
+{
+    /**
+     * Configuration property for the maximum number of worker threads.
+     */
+    public static final String WORKER_THREADS_PROPERTY = "federationWorkerThreads";
+
+    /**
+     * Configuration property for the number of requests that can be waiting for a worker thread.
+     */
+    public static final String QUEUE_SIZE_PROPERTY     = "federationQueueSize";
+
+    private static final int  defaultQueueSize      = 1000;
+    private static final long threadKeepAliveSecs   = 60L;
+
+    private ThreadPoolExecutor workerPool;
+
+
+    /**
+     * Constructor for the pool.
+     *
+     * @param serverName name of the server - used in the thread names
+     * @param configurationProperties configuration properties for the enterprise repository services (may be null)
+     */
+    public FederationWorkerPool(String              serverName,
+                                Map<String, Object> configurationProperties)
+    {
+        int workerThreads = Runtime.getRuntime().availableProcessors() * 2;
+        int queueSize     = defaultQueueSize;
+
+        if (configurationProperties != null)
+        {
+            Object workerThreadsProperty = configurationProperties.get(WORKER_THREADS_PROPERTY);
+            Object queueSizeProperty     = configurationProperties.get(QUEUE_SIZE_PROPERTY);
+
+            if ((workerThreadsProperty instanceof Integer) && ((Integer)workerThreadsProperty > 0))
+            {
+                workerThreads = (Integer)workerThreadsProperty;
+            }
+
+            if ((queueSizeProperty instanceof Integer) && ((Integer)queueSizeProperty > 0))
+            {
+                queueSize = (Integer)queueSizeProperty;
+            }
+        }
+
+        workerPool = new ThreadPoolExecutor(workerThreads,
+                                            workerThreads,
+                                            threadKeepAliveSecs,
+                                            TimeUnit.SECONDS,
+                                            new ArrayBlockingQueue<>(queueSize),
+                                            new FederationThreadFactory(serverName),
+                                            (request, executor) -> request.run());
+
+        workerPool.allowCoreThreadTimeOut(true);
+    }
+
+
+    /**
+     * Queue a request to a repository.
+     *
+     * @param request request to run
+     * @return future that completes when the request has run
+     */
+    Future<Boolean> submit(Callable<Boolean> request)
+    {
+        return workerPool.submit(request);
+    }
+
+
+    /**
+     * Stop accepting new requests.  Requests already running are allowed to complete.
+     */
+    public void shutdown()
+    {
+        workerPool.shutdown();
+    }
+
+
+    /**
+     * FederationThreadFactory names the worker threads and makes sure they do not hold up the shutdown of the JVM.
+     */
+    private static class FederationThreadFactory implements ThreadFactory
+    {
+        private String        threadNamePrefix;
+        private AtomicInteger threadNumber = new AtomicInteger(1);
+
+
+        /**
+         * Constructor supplies the server name.
+         *
+         * @param serverName name of the server
+         */
+        FederationThreadFactory(String serverName)
+        {
+            this.threadNamePrefix = serverName + " Enterprise Federation Worker-";
+        }
+
+
+        /**
+         * Create a new worker thread.
+         *
+         * @param runnable work for the thread
+         * @return new thread
+         */
+        @Override
+        public Thread newThread(Runnable runnable)
+        {
+            Thread thread = new Thread(runnable, threadNamePrefix + threadNumber.getAndIncrement());
+
+            thread.setDaemon(true);
+
+            return thread;
+        }
+    }
+}
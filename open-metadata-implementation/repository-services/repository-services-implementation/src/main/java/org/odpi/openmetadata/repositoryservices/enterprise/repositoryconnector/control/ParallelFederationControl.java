@@ -4,22 +4,40 @@ package org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.
 
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.OMRSMetadataCollection;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryConnector;
+import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.executors.CloneableRepositoryExecutor;
 import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.executors.RepositoryExecutor;
+import org.odpi.openmetadata.repositoryservices.ffdc.OMRSErrorCode;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.RepositoryErrorException;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * ParallelFederationControl uses multiple worker threads to perform the calls to different systems in parallel.
+ * Every repository is called and the results are combined by the executor's accumulator.
+ * <p>
+ * The worker threads come from the server's FederationWorkerPool.  Each repository is called through a clone of the
+ * executor and, if a repository timeout is set, any repository that has not responded by the time it expires is
+ * recorded as timed out in the accumulator.  The results from the other repositories are then returned as
+ * partial results.
+ * </p>
+ * <p>
+ * If there is no worker pool, or the executor can not be cloned, the repositories are called one after another
+ * on the caller's thread.
+ * </p>
  */
 public class ParallelFederationControl extends FederationControlBase
 {
-    // todo at this point the parallel federation control uses a sequential since the
-    // todo worker threads are not implemented.
+    private FederationWorkerPool workerPool;
+    private long                 repositoryTimeout;
 
 
     /**
-     * Constructor for a federated query
+     * Constructor for a federated query that calls each repository in turn on the caller's thread.
      *
      * @param userId calling user
      * @param cohortConnectors list of connectors to call
@@ -28,9 +46,30 @@ public class ParallelFederationControl extends FederationControlBase
     public ParallelFederationControl(String                        userId,
                                      List<OMRSRepositoryConnector> cohortConnectors,
                                      String                        methodName)
+    {
+        this(userId, cohortConnectors, methodName, null, 0);
+    }
+
+
+    /**
+     * Constructor for a federated query that calls the repositories in parallel.
+     *
+     * @param userId calling user
+     * @param cohortConnectors list of connectors to call
+     * @param methodName calling method
+     * @param workerPool pool of threads to issue the requests (null means use the caller's thread)
+     * @param repositoryTimeout number of milliseconds to wait for the repositories to respond (0 means wait until they respond)
+     */
+    public ParallelFederationControl(String                        userId,
+                                     List<OMRSRepositoryConnector> cohortConnectors,
+                                     String                        methodName,
+                                     FederationWorkerPool          workerPool,
+                                     long                          repositoryTimeout)
     {
         super(userId, cohortConnectors, methodName);
 
+        this.workerPool = workerPool;
+        this.repositoryTimeout = repositoryTimeout;
     }
 
 
@@ -45,17 +84,105 @@ public class ParallelFederationControl extends FederationControlBase
     {
         if (super.cohortConnectors != null)
         {
-            for (OMRSRepositoryConnector cohortConnector : cohortConnectors)
+            if ((workerPool == null) || (! (executor instanceof CloneableRepositoryExecutor)))
             {
-                if (cohortConnector != null)
+                for (OMRSRepositoryConnector cohortConnector : cohortConnectors)
                 {
-                    OMRSMetadataCollection metadataCollection = cohortConnector.getMetadataCollection();
+                    if (cohortConnector != null)
+                    {
+                        OMRSMetadataCollection metadataCollection = cohortConnector.getMetadataCollection();
 
-                    String metadataCollectionId = this.validateMetadataCollection(metadataCollection, methodName);
+                        String metadataCollectionId = this.validateMetadataCollection(metadataCollection, methodName);
 
-                    executor.issueRequestToRepository(metadataCollectionId, metadataCollection);
+                        executor.issueRequestToRepository(metadataCollectionId, metadataCollection);
+                    }
                 }
             }
+            else
+            {
+                this.executeParallelCommand((CloneableRepositoryExecutor)executor);
+            }
+        }
+    }
+
+
+    /**
+     * Issue the request to each repository on a worker thread and wait for them to complete.
+     *
+     * @param executor command to execute
+     * @throws RepositoryErrorException problem with the state of one of the repositories.
+     */
+    private void executeParallelCommand(CloneableRepositoryExecutor executor) throws RepositoryErrorException
+    {
+        List<String>          metadataCollectionIds = new ArrayList<>();
+        List<Future<Boolean>> requests              = new ArrayList<>();
+
+        for (OMRSRepositoryConnector cohortConnector : cohortConnectors)
+        {
+            if (cohortConnector != null)
+            {
+                OMRSMetadataCollection metadataCollection = cohortConnector.getMetadataCollection();
+
+                String metadataCollectionId = this.validateMetadataCollection(metadataCollection, methodName);
+
+                RepositoryExecutor requestExecutor = (RepositoryExecutor)executor.getClone();
+
+                metadataCollectionIds.add(metadataCollectionId);
+                requests.add(workerPool.submit(() -> requestExecutor.issueRequestToRepository(metadataCollectionId, metadataCollection)));
+            }
+        }
+
+        long deadline = System.currentTimeMillis() + repositoryTimeout;
+
+        for (int i = 0; i < requests.size(); i++)
+        {
+            Future<Boolean> request = requests.get(i);
+
+            try
+            {
+                if (repositoryTimeout > 0)
+                {
+                    request.get(Math.max(deadline - System.currentTimeMillis(), 0L), TimeUnit.MILLISECONDS);
+                }
+                else
+                {
+                    request.get();
+                }
+            }
+            catch (TimeoutException error)
+            {
+                request.cancel(true);
+                executor.captureRequestTimeout(metadataCollectionIds.get(i), repositoryTimeout);
+            }
+            catch (InterruptedException error)
+            {
+                /*
+                 * The caller is being shut down so abandon all of the outstanding requests.
+                 */
+                Thread.currentThread().interrupt();
+
+                for (int j = i; j < requests.size(); j++)
+                {
+                    requests.get(j).cancel(true);
+                    executor.captureRequestTimeout(metadataCollectionIds.get(j), repositoryTimeout);
+                }
+
+                return;
+            }
+            catch (ExecutionException error)
+            {
+                /*
+                 * The executors catch all exceptions from the repositories so this is an error in the JVM.
+                 */
+                Throwable cause = error.getCause();
+
+                throw new RepositoryErrorException(OMRSErrorCode.UNEXPECTED_EXCEPTION_FROM_COHORT.getMessageDefinition(cause.getClass().getName(),
+                                                                                                                       methodName,
+                                                                                                                       cause.getMessage()),
+                                                   this.getClass().getName(),
+                                                   methodName,
+                                                   cause);
+            }
         }
     }
 }
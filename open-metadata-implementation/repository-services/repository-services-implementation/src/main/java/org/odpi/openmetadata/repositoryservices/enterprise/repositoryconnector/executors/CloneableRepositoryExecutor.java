@@ -14,4 +14,15 @@ public interface CloneableRepositoryExecutor
      * @return clone of this executor
      */
     CloneableRepositoryExecutor getClone();
+
+
+    /**
+     * Record that the request to a repository was abandoned because it did not complete in time.
+     * Any results that this repository returns after this call are ignored.
+     *
+     * @param metadataCollectionId unique identifier for the metadata collection for the repository
+     * @param timeout number of milliseconds that the request was given
+     */
+    void captureRequestTimeout(String metadataCollectionId,
+                               long   timeout);
 }
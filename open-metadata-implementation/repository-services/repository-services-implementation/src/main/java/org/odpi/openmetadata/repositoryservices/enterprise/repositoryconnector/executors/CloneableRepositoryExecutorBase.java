@@ -12,12 +12,37 @@ import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.a
  */
 abstract class CloneableRepositoryExecutorBase extends RepositoryExecutorBase implements CloneableRepositoryExecutor
 {
+    private QueryAccumulatorBase accumulator;
+
+    /**
+     * Constructor registers the executor with the shared accumulator.
+     *
+     * @param userId calling user
+     * @param methodName calling method
+     * @param accumulator location for results
+     */
     CloneableRepositoryExecutorBase(String               userId,
                                     String               methodName,
                                     QueryAccumulatorBase accumulator)
     {
         super(userId, methodName);
 
+        this.accumulator = accumulator;
+
         accumulator.registerExecutor();
     }
+
+
+    /**
+     * Record that the request to a repository was abandoned because it did not complete in time.
+     * Any results that this repository returns after this call are ignored.
+     *
+     * @param metadataCollectionId unique identifier for the metadata collection for the repository
+     * @param timeout number of milliseconds that the request was given
+     */
+    public void captureRequestTimeout(String metadataCollectionId,
+                                      long   timeout)
+    {
+        accumulator.captureRequestTimeout(metadataCollectionId, methodName, timeout);
+    }
 }
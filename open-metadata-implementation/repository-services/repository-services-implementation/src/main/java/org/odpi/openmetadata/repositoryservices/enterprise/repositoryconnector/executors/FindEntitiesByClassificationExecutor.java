@@ -191,12 +191,12 @@ public class FindEntitiesByClassificationExecutor extends PageableRepositoryExec
                                                                                          classificationName,
                                                                                          matchClassificationProperties,
                                                                                          matchCriteria,
-                                                                                         startingElement,
+                                                                                         getStartingElement(metadataCollectionId),
                                                                                          limitResultsByStatus,
                                                                                          asOfTime,
                                                                                          sequencingProperty,
                                                                                          sequencingOrder,
-                                                                                         pageSize);
+                                                                                         getPageSize(metadataCollectionId));
 
             accumulator.addEntities(results, metadataCollectionId);
 
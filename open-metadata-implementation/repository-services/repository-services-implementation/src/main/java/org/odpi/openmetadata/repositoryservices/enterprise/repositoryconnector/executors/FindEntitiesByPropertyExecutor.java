@@ -188,13 +188,13 @@ public class FindEntitiesByPropertyExecutor extends PageableRepositoryExecutorBa
                                                                                    instanceTypeGUID,
                                                                                    matchProperties,
                                                                                    matchCriteria,
-                                                                                   startingElement,
+                                                                                   getStartingElement(metadataCollectionId),
                                                                                    limitResultsByStatus,
                                                                                    limitResultsByClassification,
                                                                                    asOfTime,
                                                                                    sequencingProperty,
                                                                                    sequencingOrder,
-                                                                                   pageSize);
+                                                                                   getPageSize(metadataCollectionId));
 
             accumulator.addEntities(results, metadataCollectionId);
         }
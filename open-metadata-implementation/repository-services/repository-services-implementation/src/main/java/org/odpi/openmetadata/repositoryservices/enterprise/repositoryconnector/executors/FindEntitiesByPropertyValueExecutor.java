@@ -181,13 +181,13 @@ public class FindEntitiesByPropertyValueExecutor extends PageableRepositoryExecu
             List<EntityDetail> results = metadataCollection.findEntitiesByPropertyValue(userId,
                                                                                         instanceTypeGUID,
                                                                                         searchCriteria,
-                                                                                        startingElement,
+                                                                                        getStartingElement(metadataCollectionId),
                                                                                         limitResultsByStatus,
                                                                                         limitResultsByClassification,
                                                                                         asOfTime,
                                                                                         sequencingProperty,
                                                                                         sequencingOrder,
-                                                                                        pageSize);
+                                                                                        getPageSize(metadataCollectionId));
 
             accumulator.addEntities(results, metadataCollectionId);
         }
@@ -191,13 +191,13 @@ public class FindEntitiesExecutor extends PageableRepositoryExecutorBase
                                                                          instanceTypeGUID,
                                                                          instanceSubtypeGUIDs,
                                                                          matchProperties,
-                                                                         startingElement,
+                                                                         getStartingElement(metadataCollectionId),
                                                                          limitResultsByStatus,
                                                                          matchClassifications,
                                                                          asOfTime,
                                                                          sequencingProperty,
                                                                          sequencingOrder,
-                                                                         pageSize);
+                                                                         getPageSize(metadataCollectionId));
 
             accumulator.addEntities(results, metadataCollectionId);
         }
@@ -188,12 +188,12 @@ public class FindRelationshipsByPropertyExecutor extends PageableRepositoryExecu
                                                                                         instanceTypeGUID,
                                                                                         matchProperties,
                                                                                         matchCriteria,
-                                                                                        startingElement,
+                                                                                        getStartingElement(metadataCollectionId),
                                                                                         limitResultsByStatus,
                                                                                         asOfTime,
                                                                                         sequencingProperty,
                                                                                         sequencingOrder,
-                                                                                        pageSize);
+                                                                                        getPageSize(metadataCollectionId));
 
             accumulator.addRelationships(results, metadataCollectionId);
         }
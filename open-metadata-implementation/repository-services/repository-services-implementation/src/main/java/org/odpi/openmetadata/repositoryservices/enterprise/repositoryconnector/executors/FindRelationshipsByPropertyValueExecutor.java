@@ -176,12 +176,12 @@ public class FindRelationshipsByPropertyValueExecutor extends PageableRepository
             List<Relationship> results = metadataCollection.findRelationshipsByPropertyValue(userId,
                                                                                              instanceTypeGUID,
                                                                                              searchCriteria,
-                                                                                             startingElement,
+                                                                                             getStartingElement(metadataCollectionId),
                                                                                              limitResultsByStatus,
                                                                                              asOfTime,
                                                                                              sequencingProperty,
                                                                                              sequencingOrder,
-                                                                                             pageSize);
+                                                                                             getPageSize(metadataCollectionId));
 
             accumulator.addRelationships(results, metadataCollectionId);
         }
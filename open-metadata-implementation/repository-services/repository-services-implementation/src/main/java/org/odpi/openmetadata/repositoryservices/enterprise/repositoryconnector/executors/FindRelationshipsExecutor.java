@@ -186,12 +186,12 @@ public class FindRelationshipsExecutor extends PageableRepositoryExecutorBase
                                                                               instanceTypeGUID,
                                                                               instanceSubtypeGUIDs,
                                                                               matchProperties,
-                                                                              startingElement,
+                                                                              getStartingElement(metadataCollectionId),
                                                                               limitResultsByStatus,
                                                                               asOfTime,
                                                                               sequencingProperty,
                                                                               sequencingOrder,
-                                                                              pageSize);
+                                                                              getPageSize(metadataCollectionId));
 
             accumulator.addRelationships(results, metadataCollectionId);
         }
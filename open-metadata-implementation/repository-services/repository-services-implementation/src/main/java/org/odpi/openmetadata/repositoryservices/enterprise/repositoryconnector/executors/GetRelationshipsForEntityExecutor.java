@@ -171,12 +171,12 @@ public class GetRelationshipsForEntityExecutor extends PageableRepositoryExecuto
             List<Relationship> results = metadataCollection.getRelationshipsForEntity(userId,
                                                                                       entityGUID,
                                                                                       instanceTypeGUID,
-                                                                                      startingElement,
+                                                                                      getStartingElement(metadataCollectionId),
                                                                                       limitResultsByStatus,
                                                                                       asOfTime,
                                                                                       sequencingProperty,
                                                                                       sequencingOrder,
-                                                                                      pageSize);
+                                                                                      getPageSize(metadataCollectionId));
 
             accumulator.addRelationships(results, metadataCollectionId);
         }
@@ -5,6 +5,7 @@ package org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.
 
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.SequencingOrder;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceStatus;
+import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.accumulators.EnterprisePagingCursor;
 import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.accumulators.QueryInstanceAccumulatorBase;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.*;
 
@@ -68,6 +69,57 @@ abstract class PageableRepositoryExecutorBase extends CloneableRepositoryExecuto
     }
 
 
+    /**
+     * Request that the results are returned a page at a time using a paging cursor rather than the starting
+     * element.  The cursor is held in the accumulator so it is shared by all of the clones of this executor.
+     *
+     * @param pagingCursor cursor from the previous page - it is updated with the position for the next page
+     */
+    public void setPagingCursor(EnterprisePagingCursor pagingCursor)
+    {
+        queryInstanceAccumulator.setPagingCursor(pagingCursor, sequencingProperty, sequencingOrder, pageSize);
+    }
+
+
+    /**
+     * Return the starting element to use on the request to a member repository.  When paging with a cursor,
+     * each member starts from its own position.
+     *
+     * @param metadataCollectionId unique identifier for the metadata collection for the repository
+     * @return starting element
+     */
+    int getStartingElement(String metadataCollectionId)
+    {
+        EnterprisePagingCursor pagingCursor = queryInstanceAccumulator.getPagingCursor();
+
+        if (pagingCursor != null)
+        {
+            return pagingCursor.getStartingElement(metadataCollectionId);
+        }
+
+        return startingElement;
+    }
+
+
+    /**
+     * Return the page size to use on the request to a member repository.
+     *
+     * @param metadataCollectionId unique identifier for the metadata collection for the repository
+     * @return maximum number of elements to request
+     */
+    int getPageSize(String metadataCollectionId)
+    {
+        EnterprisePagingCursor pagingCursor = queryInstanceAccumulator.getPagingCursor();
+
+        if (pagingCursor != null)
+        {
+            return pagingCursor.getPageSize(metadataCollectionId, pageSize);
+        }
+
+        return pageSize;
+    }
+
+
     /**
      * Return any of the exceptions that are common to paging requests.
      *
@@ -115,7 +115,8 @@ public class OMRSEventListener implements OMRSTopicListener
                                                                         registryEventOriginator.getServerType(),
                                                                         registryEventOriginator.getOrganizationName(),
                                                                         registryEvent.getRegistrationTimestamp(),
-                                                                        registryEvent.getRemoteConnection());
+                                                                        registryEvent.getRemoteConnection(),
+                                                                        registryEvent.getProtocolVersionId());
                         break;
 
                     case RE_REGISTRATION_EVENT:
@@ -126,7 +127,8 @@ public class OMRSEventListener implements OMRSTopicListener
                                                                           registryEventOriginator.getServerType(),
                                                                           registryEventOriginator.getOrganizationName(),
                                                                           registryEvent.getRegistrationTimestamp(),
-                                                                          registryEvent.getRemoteConnection());
+                                                                          registryEvent.getRemoteConnection(),
+                                                                          registryEvent.getProtocolVersionId());
                         break;
 
                     case REFRESH_REGISTRATION_REQUEST:
@@ -291,20 +291,25 @@ public class OMRSRepositoryEventManager extends OMRSRepositoryEventBuilder
     		List<EntityDetail> validEntities = new ArrayList<>();
     		List<Relationship> validRelationships = new ArrayList<>();
     		
-    		for (EntityDetail entity: eventEntities)
+    		if (eventEntities != null)
     		{
-    			if (exchangeRule.processInstanceEvent(entity))
+    			for (EntityDetail entity: eventEntities)
     			{
-    				validEntities.add(entity);
+    				if (exchangeRule.processInstanceEvent(entity))
+    				{
+    					validEntities.add(entity);
+    				}
     			}
     		}
     		
-    		
-    		for (Relationship relationship: eventRelationships)
+    		if (eventRelationships != null)
     		{
-    			if (exchangeRule.processInstanceEvent(relationship))
+    			for (Relationship relationship: eventRelationships)
     			{
-    				validRelationships.add(relationship);
+    				if (exchangeRule.processInstanceEvent(relationship))
+    				{
+    					validRelationships.add(relationship);
+    				}
     			}
     		}
     		
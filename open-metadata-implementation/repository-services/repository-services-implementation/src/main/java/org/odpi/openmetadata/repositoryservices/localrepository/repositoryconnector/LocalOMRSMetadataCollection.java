@@ -21,8 +21,10 @@ import org.odpi.openmetadata.repositoryservices.ffdc.exception.*;
 import org.odpi.openmetadata.repositoryservices.localrepository.repositorycontentmanager.OMRSTypeDefManager;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Date;
+import java.util.Map;
 
 /**
  * LocalOMRSMetadataCollection provides a wrapper around the metadata collection for the real local repository.
@@ -30,6 +32,8 @@ import java.util.Date;
  */
 public class LocalOMRSMetadataCollection extends OMRSMetadataCollectionBase
 {
+    private static final int             maxInstancesPerBatchEvent = 100;
+
     private OMRSMetadataCollection       realMetadataCollection;
     private String                       localServerName;
     private String                       localServerType;
@@ -3238,6 +3242,111 @@ public class LocalOMRSMetadataCollection extends OMRSMetadataCollectionBase
     }
 
 
+    /**
+     * Create a list of new entities and put them in their requested states.  The entities are validated together
+     * and then passed to the real repository in a single call.  Once they are stored they are shared with the
+     * cohort in batch events of up to 100 entities rather than an event for each entity.  If the real repository
+     * fails, no events are sent.  Repositories that store the list in one transaction, such as the graph
+     * repository, then keep none of the entities.  Other repositories may keep the entities they stored
+     * before the failure, and these are not shared with the cohort until they are next updated or refreshed.
+     *
+     * @param userId unique identifier for requesting user.
+     * @param newEntities templates for the new entities.
+     * @return list of EntityDetail objects showing the new headers plus the requested properties and classifications.
+     * @throws InvalidParameterException one of the parameters is invalid or null.
+     * @throws RepositoryErrorException there is a problem communicating with the metadata repository where
+     *                                    the metadata collection is stored.
+     * @throws TypeErrorException one of the requested types is not known, or not supported in the metadata repository
+     *                              hosting the metadata collection.
+     * @throws PropertyErrorException one or more of the requested properties are not defined, or have different
+     *                                  characteristics in the TypeDef for the entity's type.
+     * @throws ClassificationErrorException one or more of the requested classifications are either not known or
+     *                                           not defined for the entity's type.
+     * @throws StatusNotSupportedException the metadata repository hosting the metadata collection does not support
+     *                                       one of the requested statuses.
+     * @throws FunctionNotSupportedException the repository does not support maintenance of metadata.
+     * @throws UserNotAuthorizedException the userId is not permitted to perform this operation.
+     */
+    @Override
+    public List<EntityDetail> addEntities(String             userId,
+                                          List<EntityDetail> newEntities) throws InvalidParameterException,
+                                                                                 RepositoryErrorException,
+                                                                                 TypeErrorException,
+                                                                                 PropertyErrorException,
+                                                                                 ClassificationErrorException,
+                                                                                 StatusNotSupportedException,
+                                                                                 FunctionNotSupportedException,
+                                                                                 UserNotAuthorizedException
+    {
+        final String  methodName  = "addEntities";
+
+        /*
+         * Validate parameters
+         */
+        super.addEntitiesParameterValidation(userId, newEntities, methodName);
+
+        List<EntityDetail> results = new ArrayList<>();
+
+        if (newEntities == null)
+        {
+            return results;
+        }
+
+        /*
+         * Check operation is allowed
+         */
+        for (EntityDetail newEntity : newEntities)
+        {
+            try
+            {
+                securityVerifier.validateUserForEntityCreate(userId,
+                                                             metadataCollectionName,
+                                                             getTypeDefGUID(newEntity),
+                                                             newEntity.getProperties(),
+                                                             newEntity.getClassifications(),
+                                                             newEntity.getStatus());
+            }
+            catch (org.odpi.openmetadata.frameworks.connectors.ffdc.UserNotAuthorizedException  error)
+            {
+                throw new UserNotAuthorizedException(error);
+            }
+        }
+
+        /*
+         * Validation complete, ok to create new instances
+         */
+        List<EntityDetail> entities = realMetadataCollection.addEntities(userId, newEntities);
+
+        if (entities != null)
+        {
+            for (EntityDetail entity : entities)
+            {
+                setLocalProvenanceThroughoutEntity(entity);
+            }
+
+            /*
+             * OK to send out
+             */
+            if (produceEventsForRealConnector)
+            {
+                for (List<EntityDetail> chunk : getBatchEventChunks(entities))
+                {
+                    outboundRepositoryEventProcessor.processInstanceBatchEvent(repositoryName,
+                                                                               metadataCollectionId,
+                                                                               localServerName,
+                                                                               localServerType,
+                                                                               localOrganizationName,
+                                                                               new InstanceGraph(chunk, null));
+                }
+            }
+
+            results.addAll(entities);
+        }
+
+        return results;
+    }
+
+
     /**
      * Create an entity proxy in the metadata collection.  This is used to store relationships that span metadata
      * repositories.
@@ -4621,6 +4730,122 @@ public class LocalOMRSMetadataCollection extends OMRSMetadataCollectionBase
     }
 
 
+    /**
+     * Add the requested classification to each entity in a list.  The classification and the entities are
+     * validated before any entity is changed, and the entities are then passed to the real repository in a single
+     * call.  A classified entity event is sent for each entity since the batch event can not describe a
+     * classification change.  If the real repository fails, no events are sent.
+     *
+     * @param userId unique identifier for requesting user.
+     * @param entityGUIDs list of unique identifiers (guids) for the entities.
+     * @param classificationName String name for the classification.
+     * @param classificationProperties list of properties to set in the classification.
+     * @return list of EntityDetail objects showing the resulting entity headers, properties and classifications.
+     * @throws InvalidParameterException one of the parameters is invalid or null.
+     * @throws RepositoryErrorException there is a problem communicating with the metadata repository where
+     *                                  the metadata collection is stored.
+     * @throws EntityNotKnownException one of the entities identified by the guids is not found in the metadata collection
+     * @throws ClassificationErrorException the requested classification is either not known or not valid
+     *                                         for one of the entities.
+     * @throws PropertyErrorException one or more of the requested properties are not defined, or have different
+     *                                characteristics in the TypeDef for this classification type
+     * @throws FunctionNotSupportedException the repository does not support maintenance of metadata.
+     * @throws UserNotAuthorizedException the userId is not permitted to perform this operation.
+     */
+    @Override
+    public List<EntityDetail> classifyEntities(String             userId,
+                                               List<String>       entityGUIDs,
+                                               String             classificationName,
+                                               InstanceProperties classificationProperties) throws InvalidParameterException,
+                                                                                                   RepositoryErrorException,
+                                                                                                   EntityNotKnownException,
+                                                                                                   ClassificationErrorException,
+                                                                                                   PropertyErrorException,
+                                                                                                   FunctionNotSupportedException,
+                                                                                                   UserNotAuthorizedException
+    {
+        final String methodName = "classifyEntities";
+
+        /*
+         * Validate parameters
+         */
+        TypeDef typeDef = this.classifyEntitiesParameterValidation(userId, entityGUIDs, classificationName, classificationProperties, methodName);
+        if (! repositoryValidator.isActiveType(repositoryName, typeDef.getGUID(), typeDef.getName()))
+        {
+            throw new ClassificationErrorException(OMRSErrorCode.UNSUPPORTED_CLASSIFICATION.getMessageDefinition(repositoryName, classificationName),
+                                                   this.getClass().getName(),
+                                                   methodName);
+        }
+
+        List<EntityDetail> results = new ArrayList<>();
+
+        if (entityGUIDs == null)
+        {
+            return results;
+        }
+
+        /*
+         * Locate each entity, check it can be updated and that the operation is allowed
+         */
+        for (String entityGUID : entityGUIDs)
+        {
+            EntityDetail currentEntity = this.validateEntityCanBeClassified(userId, entityGUID, methodName);
+
+            try
+            {
+                securityVerifier.validateUserForEntityClassificationAdd(userId,
+                                                                        metadataCollectionName,
+                                                                        currentEntity,
+                                                                        classificationName,
+                                                                        classificationProperties);
+            }
+            catch (org.odpi.openmetadata.frameworks.connectors.ffdc.UserNotAuthorizedException  error)
+            {
+                throw new UserNotAuthorizedException(error);
+            }
+        }
+
+        /*
+         * Update entities
+         */
+        List<EntityDetail> entities = realMetadataCollection.classifyEntities(userId,
+                                                                              entityGUIDs,
+                                                                              classificationName,
+                                                                              classificationProperties);
+
+        if (entities != null)
+        {
+            for (EntityDetail entity : entities)
+            {
+                setLocalProvenanceThroughoutEntity(entity);
+
+                /*
+                 * OK to send out
+                 */
+                if ((entity != null) && (produceEventsForRealConnector))
+                {
+                    Classification newClassification = repositoryHelper.getClassificationFromEntity(repositoryName,
+                                                                                                    entity,
+                                                                                                    classificationName,
+                                                                                                    methodName);
+
+                    outboundRepositoryEventProcessor.processClassifiedEntityEvent(repositoryName,
+                                                                                  metadataCollectionId,
+                                                                                  localServerName,
+                                                                                  localServerType,
+                                                                                  localOrganizationName,
+                                                                                  entity,
+                                                                                  newClassification);
+                }
+            }
+
+            results.addAll(entities);
+        }
+
+        return results;
+    }
+
+
     /**
      * Remove a specific classification from an entity.
      *
@@ -5026,6 +5251,152 @@ public class LocalOMRSMetadataCollection extends OMRSMetadataCollectionBase
     }
 
 
+    /**
+     * Add a list of new relationships to the metadata collection.  The relationships are validated together and
+     * then passed to the real repository in a single call.  Once they are stored they are shared with the cohort
+     * in batch events of up to 100 relationships rather than an event for each relationship.  If the real
+     * repository fails, no events are sent.  Repositories that store the list in one transaction, such as the
+     * graph repository, then keep none of the relationships.  Other repositories may keep the relationships they
+     * stored before the failure, and these are not shared with the cohort until they are next updated or refreshed.
+     *
+     * @param userId unique identifier for requesting user.
+     * @param newRelationships templates for the new relationships.
+     * @return list of Relationship structures with the new headers, requested entities and properties.
+     * @throws InvalidParameterException one of the parameters is invalid or null.
+     * @throws RepositoryErrorException there is a problem communicating with the metadata repository where
+     *                                 the metadata collection is stored.
+     * @throws TypeErrorException one of the requested types is not known, or not supported in the metadata repository
+     *                            hosting the metadata collection.
+     * @throws PropertyErrorException one or more of the requested properties are not defined, or have different
+     *                                  characteristics in the TypeDef for the relationship's type.
+     * @throws EntityNotKnownException one of the requested entities is not known in the metadata collection.
+     * @throws StatusNotSupportedException the metadata repository hosting the metadata collection does not support
+     *                                     one of the requested statuses.
+     * @throws FunctionNotSupportedException the repository does not support maintenance of metadata.
+     * @throws UserNotAuthorizedException the userId is not permitted to perform this operation.
+     */
+    @Override
+    public List<Relationship> addRelationships(String             userId,
+                                               List<Relationship> newRelationships) throws InvalidParameterException,
+                                                                                           RepositoryErrorException,
+                                                                                           TypeErrorException,
+                                                                                           PropertyErrorException,
+                                                                                           EntityNotKnownException,
+                                                                                           StatusNotSupportedException,
+                                                                                           FunctionNotSupportedException,
+                                                                                           UserNotAuthorizedException
+    {
+        final String  methodName = "addRelationships";
+
+        /*
+         * Validate parameters
+         */
+        super.addRelationshipsParameterValidation(userId, newRelationships, methodName);
+
+        List<Relationship> results = new ArrayList<>();
+
+        if (newRelationships == null)
+        {
+            return results;
+        }
+
+        /*
+         * Check operation is allowed.  Many of the new relationships typically share an entity so each
+         * entity is only retrieved once.
+         */
+        Map<String, EntitySummary> ends = new HashMap<>();
+
+        for (Relationship newRelationship : newRelationships)
+        {
+            String entityOneGUID = getEntityGUID(newRelationship.getEntityOneProxy());
+            String entityTwoGUID = getEntityGUID(newRelationship.getEntityTwoProxy());
+
+            EntitySummary end1 = ends.get(entityOneGUID);
+            if (end1 == null)
+            {
+                end1 = realMetadataCollection.getEntitySummary(userId, entityOneGUID);
+                ends.put(entityOneGUID, end1);
+            }
+
+            EntitySummary end2 = ends.get(entityTwoGUID);
+            if (end2 == null)
+            {
+                end2 = realMetadataCollection.getEntitySummary(userId, entityTwoGUID);
+                ends.put(entityTwoGUID, end2);
+            }
+
+            try
+            {
+                securityVerifier.validateUserForRelationshipCreate(userId,
+                                                                   metadataCollectionName,
+                                                                   getTypeDefGUID(newRelationship),
+                                                                   newRelationship.getProperties(),
+                                                                   end1,
+                                                                   end2,
+                                                                   newRelationship.getStatus());
+            }
+            catch (org.odpi.openmetadata.frameworks.connectors.ffdc.UserNotAuthorizedException  error)
+            {
+                throw new UserNotAuthorizedException(error);
+            }
+        }
+
+        /*
+         * Validation complete ok to create new instances
+         */
+        List<Relationship> relationships = realMetadataCollection.addRelationships(userId, newRelationships);
+
+        if (relationships != null)
+        {
+            for (Relationship relationship : relationships)
+            {
+                setLocalProvenanceThroughoutRelationship(relationship);
+            }
+
+            /*
+             * OK to send out
+             */
+            if (produceEventsForRealConnector)
+            {
+                for (List<Relationship> chunk : getBatchEventChunks(relationships))
+                {
+                    outboundRepositoryEventProcessor.processInstanceBatchEvent(repositoryName,
+                                                                               metadataCollectionId,
+                                                                               localServerName,
+                                                                               localServerType,
+                                                                               localOrganizationName,
+                                                                               new InstanceGraph(null, chunk));
+                }
+            }
+
+            results.addAll(relationships);
+        }
+
+        return results;
+    }
+
+
+    /**
+     * Split the instances created by a bulk request into the chunks that are sent out in each batch event.
+     * The chunks are kept small enough for the event to fit in a single message on the cohort topic.
+     *
+     * @param instances instances from the request
+     * @param <T> type of the instances
+     * @return list of chunks
+     */
+    private <T> List<List<T>> getBatchEventChunks(List<T> instances)
+    {
+        List<List<T>> chunks = new ArrayList<>();
+
+        for (int start = 0; start < instances.size(); start += maxInstancesPerBatchEvent)
+        {
+            chunks.add(new ArrayList<>(instances.subList(start, Math.min(start + maxInstancesPerBatchEvent, instances.size()))));
+        }
+
+        return chunks;
+    }
+
+
     /**
      * Update the status of a specific relationship.
      *
@@ -0,0 +1,264 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.localrepository.repositorycontentmanager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * OMRSRegexMatcher tests string property values against the regular expressions supplied as search criteria.
+ * Each regular expression is compiled once and held in a bounded cache so it can be reused by later tests
+ * and later requests.  When the cache is full the least recently used matcher is removed.  The cache lock is
+ * only held to look up or add a matcher; regular expressions are compiled outside it.  Compiled patterns are
+ * immutable and a new java.util.regex.Matcher is created for each test, so a cached matcher can be used by any
+ * number of threads at once.
+ * <p>
+ * Most search criteria are built by the OMRSRepositoryHelper as exact match, starts with, ends with or contains
+ * regular expressions around a quoted literal string.  These are recognized when they are case-sensitive and
+ * are tested with the equivalent String operations rather than the regular expression engine.
+ * </p>
+ */
+public class OMRSRegexMatcher
+{
+    static final int            maxCachedPatterns = 1000;
+
+    private static final String quoteStart      = "\\Q";
+    private static final String quoteEnd        = "\\E";
+    private static final String anyCharacters   = ".*";
+
+    private static final Map<String, OMRSRegexMatcher> matcherCache = new LinkedHashMap<String, OMRSRegexMatcher>(16, 0.75f, true)
+    {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, OMRSRegexMatcher> eldest)
+        {
+            return size() > maxCachedPatterns;
+        }
+    };
+
+
+    private enum MatchForm
+    {
+        ExactMatch,
+        StartsWith,
+        EndsWith,
+        Contains,
+        Regex
+    }
+
+    private final MatchForm matchForm;
+    private final String    literal;
+    private final Pattern   pattern;
+
+
+    /**
+     * Constructor is private - matchers are retrieved using getMatcher.
+     *
+     * @param regex regular expression
+     */
+    private OMRSRegexMatcher(String   regex)
+    {
+        this.pattern = Pattern.compile(regex);
+
+        MatchForm form;
+        String    quotedValue = regex;
+
+        if (regex.startsWith(anyCharacters) && regex.endsWith(anyCharacters) && (regex.length() >= 4))
+        {
+            form        = MatchForm.Contains;
+            quotedValue = regex.substring(2, regex.length() - 2);
+        }
+        else if (regex.startsWith(anyCharacters))
+        {
+            form        = MatchForm.EndsWith;
+            quotedValue = regex.substring(2);
+        }
+        else if (regex.endsWith(anyCharacters))
+        {
+            form        = MatchForm.StartsWith;
+            quotedValue = regex.substring(0, regex.length() - 2);
+        }
+        else
+        {
+            form        = MatchForm.ExactMatch;
+        }
+
+        String unquotedValue = getQuotedLiteral(quotedValue);
+
+        if (unquotedValue == null)
+        {
+            this.matchForm = MatchForm.Regex;
+            this.literal   = null;
+        }
+        else
+        {
+            this.matchForm = form;
+            this.literal   = unquotedValue;
+        }
+    }
+
+
+    /**
+     * Return the matcher for a regular expression.  The matcher is retrieved from the cache, or created and
+     * added to the cache if this regular expression is not one of the most recently used.
+     *
+     * @param regex regular expression
+     * @return matcher
+     * @throws java.util.regex.PatternSyntaxException the regular expression is not valid
+     */
+    public static OMRSRegexMatcher getMatcher(String   regex)
+    {
+        OMRSRegexMatcher matcher;
+
+        /*
+         * An access-ordered map is changed by get, so every lookup takes the lock.
+         */
+        synchronized (matcherCache)
+        {
+            matcher = matcherCache.get(regex);
+        }
+
+        if (matcher == null)
+        {
+            /*
+             * Two threads may compile the same expression at once.  The first one cached is kept.
+             */
+            OMRSRegexMatcher newMatcher = new OMRSRegexMatcher(regex);
+
+            synchronized (matcherCache)
+            {
+                matcher = matcherCache.putIfAbsent(regex, newMatcher);
+            }
+
+            if (matcher == null)
+            {
+                matcher = newMatcher;
+            }
+        }
+
+        return matcher;
+    }
+
+
+    /**
+     * Return whether a matcher for the regular expression is in the cache.  This does not change the
+     * order in which matchers are removed from the cache.
+     *
+     * @param regex regular expression
+     * @return boolean result
+     */
+    static boolean isCached(String   regex)
+    {
+        synchronized (matcherCache)
+        {
+            return matcherCache.containsKey(regex);
+        }
+    }
+
+
+    /**
+     * Return whether the complete value matches the regular expression.  This gives the same result as
+     * value.matches(regex).
+     *
+     * @param value value to test
+     * @param regex regular expression
+     * @return boolean result
+     * @throws java.util.regex.PatternSyntaxException the regular expression is not valid
+     */
+    public static boolean matches(String   value,
+                                  String   regex)
+    {
+        return getMatcher(regex).matches(value);
+    }
+
+
+    /**
+     * Return whether the complete value matches this matcher's regular expression.
+     *
+     * @param value value to test
+     * @return boolean result
+     */
+    public boolean matches(String   value)
+    {
+        switch (matchForm)
+        {
+            case ExactMatch:
+                return literal.equals(value);
+
+            case StartsWith:
+                /*
+                 * ".*" does not match line terminators so values that contain them
+                 * are left to the regular expression engine.
+                 */
+                if (! hasLineTerminator(value))
+                {
+                    return value.startsWith(literal);
+                }
+                break;
+
+            case EndsWith:
+                if (! hasLineTerminator(value))
+                {
+                    return value.endsWith(literal);
+                }
+                break;
+
+            case Contains:
+                if (! hasLineTerminator(value))
+                {
+                    return value.contains(literal);
+                }
+                break;
+
+            default:
+                break;
+        }
+
+        return pattern.matcher(value).matches();
+    }
+
+
+    /**
+     * Return the literal string from a quoted regular expression of the form \Q...\E, as produced by
+     * Pattern.quote when the literal contains no \E.
+     *
+     * @param quotedValue possibly quoted regular expression
+     * @return literal string or null if the regular expression is not a simple quoted literal
+     */
+    private static String getQuotedLiteral(String   quotedValue)
+    {
+        if ((! quotedValue.startsWith(quoteStart))
+                || (! quotedValue.endsWith(quoteEnd))
+                || (quotedValue.length() < 4)
+                || (quotedValue.indexOf(quoteEnd) != quotedValue.length() - 2))
+        {
+            return null;
+        }
+
+        return quotedValue.substring(2, quotedValue.length() - 2);
+    }
+
+
+    /**
+     * Return whether the value contains any of the characters that "." does not match.
+     *
+     * @param value value to test
+     * @return boolean result
+     */
+    private static boolean hasLineTerminator(String   value)
+    {
+        for (int i = 0; i < value.length(); i++)
+        {
+            char character = value.charAt(i);
+
+            if ((character == '\n') || (character == '\r') || (character == '\u0085') || (character == '\u2028') || (character == '\u2029'))
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
@@ -2071,21 +2071,7 @@ public class OMRSRepositoryContentHelper extends OMRSRepositoryPropertiesUtiliti
         // If there is no sequencing order, or it is defined as 'ANY', there is no sorting to do
         if (sequencingOrder != null && !sequencingOrder.equals(SequencingOrder.ANY))
         {
-            if (sequencingOrder.equals(SequencingOrder.PROPERTY_ASCENDING) || sequencingOrder.equals(SequencingOrder.PROPERTY_DESCENDING))
-            {
-                // If the sequencing is property-based, handover to the property comparator
-                fullResults.sort((one, two) -> OMRSRepositoryContentHelper.compareProperties(
-                        one.getProperties(),
-                        two.getProperties(),
-                        sequencingProperty,
-                        sequencingOrder
-                ));
-            }
-            else
-            {
-                // Otherwise handover to the instance comparator
-                fullResults.sort((one, two) -> OMRSRepositoryContentHelper.compareInstances(one, two, sequencingOrder));
-            }
+            fullResults.sort((one, two) -> OMRSRepositoryContentHelper.compareEntities(one, two, sequencingProperty, sequencingOrder));
         }
 
         if ((fromElement == 0) && (pageSize > fullResultsSize))
@@ -2148,21 +2134,7 @@ public class OMRSRepositoryContentHelper extends OMRSRepositoryPropertiesUtiliti
         // If there is no sequencing order, or it is defined as 'ANY', there is no sorting to do
         if (sequencingOrder != null && !sequencingOrder.equals(SequencingOrder.ANY))
         {
-            if (sequencingOrder.equals(SequencingOrder.PROPERTY_ASCENDING) || sequencingOrder.equals(SequencingOrder.PROPERTY_DESCENDING))
-            {
-                // If the sequencing is property-based, handover to the property comparator
-                fullResults.sort((one, two) -> OMRSRepositoryContentHelper.compareProperties(
-                        one.getProperties(),
-                        two.getProperties(),
-                        sequencingProperty,
-                        sequencingOrder
-                ));
-            }
-            else
-            {
-                // Otherwise handover to the instance comparator
-                fullResults.sort((one, two) -> OMRSRepositoryContentHelper.compareInstances(one, two, sequencingOrder));
-            }
+            fullResults.sort((one, two) -> OMRSRepositoryContentHelper.compareRelationships(one, two, sequencingProperty, sequencingOrder));
         }
 
         if ((fromElement == 0) && (pageSize > fullResultsSize))
@@ -2178,6 +2150,90 @@ public class OMRSRepositoryContentHelper extends OMRSRepositoryPropertiesUtiliti
     }
 
 
+    /**
+     * Compare two entities using the sequencing parameters of a query.  This is the order used to format
+     * the results of a query and is available to components that need to combine results that are
+     * already in this order.  Ties are broken on the GUID so that tied instances are always returned in
+     * the same order, and a page boundary that falls between them does not move from one query to the next.
+     *
+     * @param one the first entity
+     * @param two the second entity
+     * @param sequencingProperty name of the property used for property-based sequencing
+     * @param sequencingOrder requested sort order - null means no ordering
+     * @return sort result
+     */
+    public static int compareEntities(EntityDetail    one,
+                                      EntityDetail    two,
+                                      String          sequencingProperty,
+                                      SequencingOrder sequencingOrder)
+    {
+        if ((sequencingOrder == null) || (one == null) || (two == null))
+        {
+            return compareInstances(one, two, SequencingOrder.ANY);
+        }
+
+        int sortResult;
+
+        if (sequencingOrder.equals(SequencingOrder.PROPERTY_ASCENDING) || sequencingOrder.equals(SequencingOrder.PROPERTY_DESCENDING))
+        {
+            sortResult = compareProperties(one.getProperties(), two.getProperties(), sequencingProperty, sequencingOrder);
+        }
+        else
+        {
+            sortResult = compareInstances(one, two, sequencingOrder);
+        }
+
+        if ((sortResult == 0) && (! sequencingOrder.equals(SequencingOrder.ANY)))
+        {
+            sortResult = compareInstances(one, two, SequencingOrder.GUID);
+        }
+
+        return sortResult;
+    }
+
+
+    /**
+     * Compare two relationships using the sequencing parameters of a query.  This is the order used to format
+     * the results of a query and is available to components that need to combine results that are
+     * already in this order.  Ties are broken on the GUID so that tied instances are always returned in
+     * the same order, and a page boundary that falls between them does not move from one query to the next.
+     *
+     * @param one the first relationship
+     * @param two the second relationship
+     * @param sequencingProperty name of the property used for property-based sequencing
+     * @param sequencingOrder requested sort order - null means no ordering
+     * @return sort result
+     */
+    public static int compareRelationships(Relationship    one,
+                                           Relationship    two,
+                                           String          sequencingProperty,
+                                           SequencingOrder sequencingOrder)
+    {
+        if ((sequencingOrder == null) || (one == null) || (two == null))
+        {
+            return compareInstances(one, two, SequencingOrder.ANY);
+        }
+
+        int sortResult;
+
+        if (sequencingOrder.equals(SequencingOrder.PROPERTY_ASCENDING) || sequencingOrder.equals(SequencingOrder.PROPERTY_DESCENDING))
+        {
+            sortResult = compareProperties(one.getProperties(), two.getProperties(), sequencingProperty, sequencingOrder);
+        }
+        else
+        {
+            sortResult = compareInstances(one, two, sequencingOrder);
+        }
+
+        if ((sortResult == 0) && (! sequencingOrder.equals(SequencingOrder.ANY)))
+        {
+            sortResult = compareInstances(one, two, SequencingOrder.GUID);
+        }
+
+        return sortResult;
+    }
+
+
     /**
      * Compare the two instances and determine the sort order based on the nominated non-property sort order.
      *
@@ -261,6 +261,17 @@ public class OMRSCohortManager
                                                connectionConsumer);
             }
 
+            /*
+             * The cohort registry tells the topic connectors which event protocol the remote members support.
+             */
+            List<OMRSTopicConnector> cohortTopicConnectors = new ArrayList<>();
+
+            cohortTopicConnectors.add(cohortSingleTopicConnector);
+            cohortTopicConnectors.add(cohortTypesTopicConnector);
+            cohortTopicConnectors.add(cohortInstancesTopicConnector);
+
+            this.cohortRegistry.setTopicConnectors(cohortTopicConnectors);
+
             /*
              * If the enterprise repositoryservices topic is active, then register an event publisher for it.
              * This topic is active if the Open Metadata Access Services (OMASs) are active.
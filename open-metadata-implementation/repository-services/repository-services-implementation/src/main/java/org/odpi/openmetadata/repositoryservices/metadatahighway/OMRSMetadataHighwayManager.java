@@ -545,6 +545,10 @@ public class OMRSMetadataHighwayManager
             {
                 topicConnector.setEventProtocolLevel(OMRSEventProtocolVersion.V1);
             }
+            else if (protocolVersion == OpenMetadataEventProtocolVersion.V1_COMPRESSED)
+            {
+                topicConnector.setEventProtocolLevel(OMRSEventProtocolVersion.V1_COMPRESSED);
+            }
 
             return topicConnector;
         }
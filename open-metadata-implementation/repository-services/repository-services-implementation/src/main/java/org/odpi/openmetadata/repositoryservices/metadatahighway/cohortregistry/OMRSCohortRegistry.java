@@ -5,6 +5,8 @@ package org.odpi.openmetadata.repositoryservices.metadatahighway.cohortregistry;
 import org.odpi.openmetadata.frameworks.auditlog.AuditLog;
 import org.odpi.openmetadata.frameworks.connectors.ffdc.OCFCheckedExceptionBase;
 import org.odpi.openmetadata.frameworks.connectors.properties.beans.Connection;
+import org.odpi.openmetadata.repositoryservices.connectors.omrstopic.OMRSTopicConnector;
+import org.odpi.openmetadata.repositoryservices.events.OMRSEventProtocolVersion;
 import org.odpi.openmetadata.repositoryservices.ffdc.OMRSAuditCode;
 import org.odpi.openmetadata.repositoryservices.events.OMRSRegistryEventProcessor;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.OMRSConfigErrorException;
@@ -15,6 +17,7 @@ import org.odpi.openmetadata.repositoryservices.enterprise.connectormanager.OMRS
 import org.odpi.openmetadata.repositoryservices.ffdc.OMRSErrorCode;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.OMRSRuntimeException;
 
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 
@@ -72,6 +75,13 @@ public class OMRSCohortRegistry extends OMRSRegistryEventProcessor
      */
     private OMRSConnectionConsumer       connectionConsumer = null;
 
+    /*
+     * The topic connectors that send metadata events to the cohort.  They are told the event protocol level
+     * that every remote member of the cohort supports.
+     */
+    private List<OMRSTopicConnector>     topicConnectors            = new ArrayList<>();
+    private OMRSEventProtocolVersion     cohortEventProtocolVersion = OMRSEventProtocolVersion.V1;
+
     /*
      * The audit log provides a verifiable record of the membership of the open metadata repository cohort and the
      * metadata exchange activity they are involved in.  The Logger is for standard debug.
@@ -364,6 +374,8 @@ public class OMRSCohortRegistry extends OMRSRegistryEventProcessor
          * changed.  These are processed asynchronously and update the connection consumer as required.
          */
         this.requestRegistrationRefreshFromCohort(localRegistration);
+
+        this.updateCohortEventProtocolLevel();
     }
 
 
@@ -646,6 +658,7 @@ public class OMRSCohortRegistry extends OMRSRegistryEventProcessor
      * @param originatorOrganizationName name of the organization that owns the server that sent the event.
      * @param registrationTimestamp the time that the server/repository issued the registration request.
      * @param remoteConnection the Connection properties for the connector used to call the registering server.
+     * @param eventProtocolVersion name of the event protocol version supported by the registering server - may be null.
      */
     private void actionInboundRegistration(String      originatorMetadataCollectionId,
                                            String      originatorMetadataCollectionName,
@@ -653,7 +666,8 @@ public class OMRSCohortRegistry extends OMRSRegistryEventProcessor
                                            String      originatorServerType,
                                            String      originatorOrganizationName,
                                            Date        registrationTimestamp,
-                                           Connection  remoteConnection)
+                                           Connection  remoteConnection,
+                                           String      eventProtocolVersion)
     {
         /*
          * Store information about the remote repository in the cohort registry store.
@@ -667,9 +681,12 @@ public class OMRSCohortRegistry extends OMRSRegistryEventProcessor
         remoteRegistration.setOrganizationName(originatorOrganizationName);
         remoteRegistration.setRegistrationTime(registrationTimestamp);
         remoteRegistration.setRepositoryConnection(remoteConnection);
+        remoteRegistration.setEventProtocolVersion(eventProtocolVersion);
 
         registryStore.saveRemoteRegistration(remoteRegistration);
 
+        this.updateCohortEventProtocolLevel();
+
         if (remoteConnection != null)
         {
             /*
@@ -685,6 +702,82 @@ public class OMRSCohortRegistry extends OMRSRegistryEventProcessor
     }
 
 
+    /**
+     * Set up the topic connectors that send metadata events to the cohort.  They are passed the event protocol
+     * level that the remote members of the cohort support each time the membership changes.
+     *
+     * @param topicConnectors list of topic connectors used by the cohort
+     */
+    public synchronized void setTopicConnectors(List<OMRSTopicConnector> topicConnectors)
+    {
+        this.topicConnectors = new ArrayList<>();
+
+        if (topicConnectors != null)
+        {
+            for (OMRSTopicConnector topicConnector : topicConnectors)
+            {
+                if (topicConnector != null)
+                {
+                    this.topicConnectors.add(topicConnector);
+                }
+            }
+        }
+
+        for (OMRSTopicConnector topicConnector : this.topicConnectors)
+        {
+            topicConnector.setCohortEventProtocolLevel(cohortEventProtocolVersion);
+        }
+    }
+
+
+    /**
+     * Work out the event protocol level that can be used to send metadata events to the cohort.  Compressed events
+     * are only sent when there is at least one remote member and every remote member has registered support for
+     * them.  Otherwise the uncompressed V1 protocol is used so that older members can still process the events.
+     */
+    private void updateCohortEventProtocolLevel()
+    {
+        final String actionDescription = "Update cohort event protocol";
+
+        if (registryStore == null)
+        {
+            return;
+        }
+
+        OMRSEventProtocolVersion newProtocolVersion  = OMRSEventProtocolVersion.V1;
+        List<MemberRegistration> remoteRegistrations = registryStore.retrieveRemoteRegistrations();
+
+        if ((remoteRegistrations != null) && (! remoteRegistrations.isEmpty()))
+        {
+            newProtocolVersion = OMRSEventProtocolVersion.V1_COMPRESSED;
+
+            for (MemberRegistration remoteMember : remoteRegistrations)
+            {
+                if ((remoteMember == null) ||
+                    (! OMRSEventProtocolVersion.V1_COMPRESSED.getName().equals(remoteMember.getEventProtocolVersion())))
+                {
+                    newProtocolVersion = OMRSEventProtocolVersion.V1;
+                    break;
+                }
+            }
+        }
+
+        if (newProtocolVersion != cohortEventProtocolVersion)
+        {
+            auditLog.logMessage(actionDescription,
+                                OMRSAuditCode.COHORT_EVENT_PROTOCOL_CHANGED.getMessageDefinition(cohortName,
+                                                                                                 cohortEventProtocolVersion.getName(),
+                                                                                                 newProtocolVersion.getName()));
+            cohortEventProtocolVersion = newProtocolVersion;
+        }
+
+        for (OMRSTopicConnector topicConnector : topicConnectors)
+        {
+            topicConnector.setCohortEventProtocolLevel(cohortEventProtocolVersion);
+        }
+    }
+
+
     /**
      * Check that the registry store is available.
      *
@@ -729,6 +822,43 @@ public class OMRSCohortRegistry extends OMRSRegistryEventProcessor
                                                          String      originatorOrganizationName,
                                                          Date        registrationTimestamp,
                                                          Connection  remoteConnection)
+    {
+        return this.processRegistrationEvent(sourceName,
+                                             originatorMetadataCollectionId,
+                                             originatorMetadataCollectionName,
+                                             originatorServerName,
+                                             originatorServerType,
+                                             originatorOrganizationName,
+                                             registrationTimestamp,
+                                             remoteConnection,
+                                             null);
+    }
+
+
+    /**
+     * Introduces a new server/repository to the metadata repository cohort along with the event protocol
+     * version that it supports.
+     *
+     * @param sourceName name of the source of the event.  It may be the cohort name for incoming events or the
+     *                   local repository, or event mapper name.
+     * @param originatorMetadataCollectionId unique identifier for the metadata collection that is registering with the cohort.
+     * @param originatorMetadataCollectionName display for the metadata collection that is registering with the cohort.
+     * @param originatorServerName name of the server that the event came from.
+     * @param originatorServerType type of server that the event came from.
+     * @param originatorOrganizationName name of the organization that owns the server that sent the event.
+     * @param registrationTimestamp the time that the server/repository issued the registration request.
+     * @param remoteConnection the Connection properties for the connector used to call the registering server.
+     * @param eventProtocolVersion name of the event protocol version supported by the originator - may be null.
+     */
+    public synchronized boolean processRegistrationEvent(String      sourceName,
+                                                         String      originatorMetadataCollectionId,
+                                                         String      originatorMetadataCollectionName,
+                                                         String      originatorServerName,
+                                                         String      originatorServerType,
+                                                         String      originatorOrganizationName,
+                                                         Date        registrationTimestamp,
+                                                         Connection  remoteConnection,
+                                                         String      eventProtocolVersion)
     {
         final String    actionDescription = "Receiving Registration event";
         final String    eventName = "Registration";
@@ -741,7 +871,8 @@ public class OMRSCohortRegistry extends OMRSRegistryEventProcessor
                                       originatorServerType,
                                       originatorOrganizationName,
                                       registrationTimestamp,
-                                      remoteConnection);
+                                      remoteConnection,
+                                      eventProtocolVersion);
 
             auditLog.logMessage(actionDescription,
                                 OMRSAuditCode.NEW_MEMBER_IN_COHORT.getMessageDefinition(cohortName,
@@ -778,6 +909,43 @@ public class OMRSCohortRegistry extends OMRSRegistryEventProcessor
                                                            String         originatorOrganizationName,
                                                            Date           registrationTimestamp,
                                                            Connection     remoteConnection)
+    {
+        return this.processReRegistrationEvent(sourceName,
+                                               originatorMetadataCollectionId,
+                                               originatorMetadataCollectionName,
+                                               originatorServerName,
+                                               originatorServerType,
+                                               originatorOrganizationName,
+                                               registrationTimestamp,
+                                               remoteConnection,
+                                               null);
+    }
+
+
+    /**
+     * Refreshes the other servers in the cohort with the originator server's registration along with the
+     * event protocol version that it supports.
+     *
+     * @param sourceName name of the source of the event.  It may be the cohort name for incoming events or the
+     *                   local repository, or event mapper name.
+     * @param originatorMetadataCollectionId unique identifier for the metadata collection that is registering with the cohort.
+     * @param originatorMetadataCollectionName display name for the metadata collection that is registering with the cohort.
+     * @param originatorServerName name of the server that the event came from.
+     * @param originatorServerType type of server that the event came from.
+     * @param originatorOrganizationName name of the organization that owns the server that sent the event.
+     * @param registrationTimestamp the time that the server/repository first registered with the cohort.
+     * @param remoteConnection the Connection properties for the connector used to call the registering server.
+     * @param eventProtocolVersion name of the event protocol version supported by the originator - may be null.
+     */
+    public synchronized boolean processReRegistrationEvent(String         sourceName,
+                                                           String         originatorMetadataCollectionId,
+                                                           String         originatorMetadataCollectionName,
+                                                           String         originatorServerName,
+                                                           String         originatorServerType,
+                                                           String         originatorOrganizationName,
+                                                           Date           registrationTimestamp,
+                                                           Connection     remoteConnection,
+                                                           String         eventProtocolVersion)
     {
         final String    actionDescription = "Receiving ReRegistration event";
         final String    eventName = "Re-Registration";
@@ -790,7 +958,8 @@ public class OMRSCohortRegistry extends OMRSRegistryEventProcessor
                                       originatorServerType,
                                       originatorOrganizationName,
                                       registrationTimestamp,
-                                      remoteConnection);
+                                      remoteConnection,
+                                      eventProtocolVersion);
 
             auditLog.logMessage(actionDescription,
                                 OMRSAuditCode.REFRESHED_MEMBER_IN_COHORT.getMessageDefinition(cohortName,
@@ -884,6 +1053,7 @@ public class OMRSCohortRegistry extends OMRSRegistryEventProcessor
              * Remove the remote member from the registry store.
              */
             registryStore.removeRemoteRegistration(originatorMetadataCollectionId);
+            this.updateCohortEventProtocolLevel();
 
             /*
              * Pass the new remote connection to the connection consumer.
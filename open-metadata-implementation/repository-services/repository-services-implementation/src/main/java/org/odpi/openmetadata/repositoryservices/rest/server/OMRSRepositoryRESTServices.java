@@ -13,6 +13,8 @@ import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollec
 import org.odpi.openmetadata.repositoryservices.ffdc.OMRSAuditCode;
 import org.odpi.openmetadata.repositoryservices.auditlog.OMRSAuditLog;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryConnector;
+import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.EnterpriseOMRSMetadataCollection;
+import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.EnterpriseQueryPage;
 import org.odpi.openmetadata.repositoryservices.ffdc.OMRSErrorCode;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.OMRSMetadataCollection;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.MatchCriteria;
@@ -2471,6 +2473,119 @@ public class OMRSRepositoryRESTServices
     }
 
 
+    /**
+     * Return a page of entities that match the supplied conditions.  The position in the results is passed
+     * as the paging cursor from the previous page rather than an offset.  This is only supported by the
+     * enterprise repository services.  Each repository is called from its own position in the cursor so
+     * a deep page costs about one page from each repository.
+     *
+     * @param serverName unique identifier for requested server.
+     * @param userId unique identifier for requesting user.
+     * @param findRequestParameters find parameters used to limit the returned results.  The offset is ignored.
+     * @return EntityListResponse:
+     * a list of entities matching the supplied criteria and the cursor for the next page (null when there are no
+     * more results) or
+     * InvalidParameterException a parameter is invalid or null or
+     * TypeErrorException the type guid passed on the request is not known by the metadata collection or
+     * RepositoryErrorException there is a problem communicating with the metadata repository where
+     *                                    the metadata collection is stored or
+     * PropertyErrorException the properties specified are not valid for any of the requested types of
+     *                                  entity or
+     * PagingErrorException the paging/sequencing parameters or the cursor are set up incorrectly or
+     * FunctionNotSupportedException the repository does not support paging with a cursor or
+     * UserNotAuthorizedException the userId is not permitted to perform this operation.
+     */
+    public  EntityListResponse findEntitiesByCursor(String            serverName,
+                                                    String            userId,
+                                                    EntityFindRequest findRequestParameters)
+    {
+        final  String   methodName = "findEntitiesByCursor";
+
+        log.debug("Calling method: " + methodName);
+
+        String                entityTypeGUID               = null;
+        List<String>          entitySubtypeGUIDs           = null;
+        SearchProperties      matchProperties              = null;
+        String                pagingCursor                 = null;
+        List<InstanceStatus>  limitResultsByStatus         = null;
+        SearchClassifications matchClassifications         = null;
+        String                sequencingProperty           = null;
+        SequencingOrder       sequencingOrder              = null;
+        int                   pageSize                     = 0;
+
+        EntityListResponse response = new EntityListResponse();
+
+        if (findRequestParameters != null)
+        {
+            entityTypeGUID                    = findRequestParameters.getTypeGUID();
+            entitySubtypeGUIDs                = findRequestParameters.getSubtypeGUIDs();
+            matchProperties                   = findRequestParameters.getMatchProperties();
+            pagingCursor                      = findRequestParameters.getPagingCursor();
+            limitResultsByStatus              = findRequestParameters.getLimitResultsByStatus();
+            matchClassifications              = findRequestParameters.getMatchClassifications();
+            sequencingProperty                = findRequestParameters.getSequencingProperty();
+            sequencingOrder                   = findRequestParameters.getSequencingOrder();
+            pageSize                          = findRequestParameters.getPageSize();
+        }
+
+        try
+        {
+            EnterpriseOMRSMetadataCollection metadataCollection = validateEnterpriseRepository(userId, serverName, methodName);
+
+            EnterpriseQueryPage<EntityDetail> page = metadataCollection.findEntitiesByCursor(userId,
+                                                                                             entityTypeGUID,
+                                                                                             entitySubtypeGUIDs,
+                                                                                             matchProperties,
+                                                                                             pagingCursor,
+                                                                                             limitResultsByStatus,
+                                                                                             matchClassifications,
+                                                                                             null,
+                                                                                             sequencingProperty,
+                                                                                             sequencingOrder,
+                                                                                             pageSize);
+            response.setEntities(page.getResults());
+            response.setPageSize(pageSize);
+            response.setNextPagingCursor(page.getNextPageCursor());
+        }
+        catch (RepositoryErrorException  error)
+        {
+            captureRepositoryErrorException(response, error);
+        }
+        catch (FunctionNotSupportedException  error)
+        {
+            captureFunctionNotSupportedException(response, error);
+        }
+        catch (UserNotAuthorizedException error)
+        {
+            captureUserNotAuthorizedException(response, error);
+        }
+        catch (InvalidParameterException error)
+        {
+            captureInvalidParameterException(response, error);
+        }
+        catch (TypeErrorException error)
+        {
+            captureTypeErrorException(response, error);
+        }
+        catch (PropertyErrorException error)
+        {
+            capturePropertyErrorException(response, error);
+        }
+        catch (PagingErrorException error)
+        {
+            capturePagingErrorException(response, error);
+        }
+        catch (Exception error)
+        {
+            captureGenericException(response, error, userId, serverName, methodName);
+        }
+
+        log.debug("Returning from method: " + methodName + " with response: " + response.toString());
+
+        return response;
+    }
+
+
     /**
      * Return a list of entities that match the supplied conditions.  The results can be returned over many pages.
      *
@@ -3791,6 +3906,116 @@ public class OMRSRepositoryRESTServices
     }
 
 
+    /**
+     * Return a page of relationships that match the requested conditions.  The position in the results is passed
+     * as the paging cursor from the previous page rather than an offset.  This is only supported by the
+     * enterprise repository services.  Each repository is called from its own position in the cursor so
+     * a deep page costs about one page from each repository.
+     *
+     * @param serverName unique identifier for requested server.
+     * @param userId unique identifier for requesting user
+     * @param findRequestParameters find parameters used to limit the returned results.  The offset is ignored.
+     * @return RelationshipListResponse:
+     * a list of relationships and the cursor for the next page (null when there are no more results).
+     * Null relationships means no matching relationships or
+     * InvalidParameterException one of the parameters is invalid or null or
+     * TypeErrorException the type guid passed on the request is not known by the metadata collection or
+     * RepositoryErrorException there is a problem communicating with the metadata repository where
+     *                                    the metadata collection is stored or
+     * PropertyErrorException the properties specified are not valid for any of the requested types of
+     *                                  relationships or
+     * PagingErrorException the paging/sequencing parameters or the cursor are set up incorrectly or
+     * FunctionNotSupportedException the repository does not support paging with a cursor or
+     * UserNotAuthorizedException the userId is not permitted to perform this operation.
+     */
+    public  RelationshipListResponse findRelationshipsByCursor(String              serverName,
+                                                               String              userId,
+                                                               InstanceFindRequest findRequestParameters)
+    {
+        final  String   methodName = "findRelationshipsByCursor";
+
+        log.debug("Calling method: " + methodName);
+
+        String                    relationshipTypeGUID     = null;
+        List<String>              relationshipSubtypeGUIDs = null;
+        SearchProperties          matchProperties          = null;
+        String                    pagingCursor             = null;
+        List<InstanceStatus>      limitResultsByStatus     = null;
+        String                    sequencingProperty       = null;
+        SequencingOrder           sequencingOrder          = null;
+        int                       pageSize                 = 0;
+
+        RelationshipListResponse response = new RelationshipListResponse();
+
+        if (findRequestParameters != null)
+        {
+            relationshipTypeGUID              = findRequestParameters.getTypeGUID();
+            relationshipSubtypeGUIDs          = findRequestParameters.getSubtypeGUIDs();
+            matchProperties                   = findRequestParameters.getMatchProperties();
+            pagingCursor                      = findRequestParameters.getPagingCursor();
+            limitResultsByStatus              = findRequestParameters.getLimitResultsByStatus();
+            sequencingProperty                = findRequestParameters.getSequencingProperty();
+            sequencingOrder                   = findRequestParameters.getSequencingOrder();
+            pageSize                          = findRequestParameters.getPageSize();
+        }
+
+        try
+        {
+            EnterpriseOMRSMetadataCollection metadataCollection = validateEnterpriseRepository(userId, serverName, methodName);
+
+            EnterpriseQueryPage<Relationship> page = metadataCollection.findRelationshipsByCursor(userId,
+                                                                                                  relationshipTypeGUID,
+                                                                                                  relationshipSubtypeGUIDs,
+                                                                                                  matchProperties,
+                                                                                                  pagingCursor,
+                                                                                                  limitResultsByStatus,
+                                                                                                  null,
+                                                                                                  sequencingProperty,
+                                                                                                  sequencingOrder,
+                                                                                                  pageSize);
+            response.setRelationships(page.getResults());
+            response.setPageSize(pageSize);
+            response.setNextPagingCursor(page.getNextPageCursor());
+        }
+        catch (RepositoryErrorException  error)
+        {
+            captureRepositoryErrorException(response, error);
+        }
+        catch (FunctionNotSupportedException  error)
+        {
+            captureFunctionNotSupportedException(response, error);
+        }
+        catch (UserNotAuthorizedException error)
+        {
+            captureUserNotAuthorizedException(response, error);
+        }
+        catch (InvalidParameterException error)
+        {
+            captureInvalidParameterException(response, error);
+        }
+        catch (TypeErrorException error)
+        {
+            captureTypeErrorException(response, error);
+        }
+        catch (PropertyErrorException error)
+        {
+            capturePropertyErrorException(response, error);
+        }
+        catch (PagingErrorException error)
+        {
+            capturePagingErrorException(response, error);
+        }
+        catch (Exception error)
+        {
+            captureGenericException(response, error, userId, serverName, methodName);
+        }
+
+        log.debug("Returning from method: " + methodName + " with response: " + response.toString());
+
+        return response;
+    }
+
+
     /**
      * Return a list of relationships that match the requested conditions.  The results can be broken into pages.
      *
@@ -5172,6 +5397,95 @@ public class OMRSRepositoryRESTServices
     }
 
 
+    /**
+     * Create a list of new entities and put them in their requested states.  The new entities are returned
+     * in the same order as the templates in the request.
+     *
+     * @param serverName unique identifier for requested server.
+     * @param userId unique identifier for requesting user.
+     * @param requestBody templates for the new entities in the entity list
+     * @return EntityListResponse:
+     * list of EntityDetail objects showing the new headers plus the requested properties and classifications or
+     * InvalidParameterException one of the parameters is invalid or null or
+     * RepositoryErrorException there is a problem communicating with the metadata repository where
+     *                                    the metadata collection is stored or
+     * TypeErrorException one of the requested types is not known, or not supported in the metadata repository
+     *                              hosting the metadata collection or
+     * PropertyErrorException one or more of the requested properties are not defined, or have different
+     *                                  characteristics in the TypeDef for the entity's type or
+     * ClassificationErrorException one or more of the requested classifications are either not known or
+     *                                           not defined for the entity's type or
+     * StatusNotSupportedException the metadata repository hosting the metadata collection does not support
+     *                                       one of the requested statuses or
+     * FunctionNotSupportedException the repository does not support maintenance of metadata.
+     * UserNotAuthorizedException the userId is not permitted to perform this operation.
+     */
+    public EntityListResponse addEntities(String               serverName,
+                                          String               userId,
+                                          InstanceGraphRequest requestBody)
+    {
+        final  String   methodName = "addEntities";
+
+        log.debug("Calling method: " + methodName);
+
+        List<EntityDetail> newEntities = null;
+
+        EntityListResponse response = new EntityListResponse();
+
+        if (requestBody != null)
+        {
+            newEntities = requestBody.getEntityElementList();
+        }
+
+        try
+        {
+            OMRSMetadataCollection metadataCollection = validateRepository(userId, serverName, methodName);
+
+            response.setEntities(metadataCollection.addEntities(userId, newEntities));
+        }
+        catch (RepositoryErrorException  error)
+        {
+            captureRepositoryErrorException(response, error);
+        }
+        catch (UserNotAuthorizedException error)
+        {
+            captureUserNotAuthorizedException(response, error);
+        }
+        catch (InvalidParameterException error)
+        {
+            captureInvalidParameterException(response, error);
+        }
+        catch (TypeErrorException error)
+        {
+            captureTypeErrorException(response, error);
+        }
+        catch (StatusNotSupportedException error)
+        {
+            captureStatusNotSupportedException(response, error);
+        }
+        catch (PropertyErrorException error)
+        {
+            capturePropertyErrorException(response, error);
+        }
+        catch (FunctionNotSupportedException  error)
+        {
+            captureFunctionNotSupportedException(response, error);
+        }
+        catch (ClassificationErrorException error)
+        {
+            captureClassificationErrorException(response, error);
+        }
+        catch (Exception error)
+        {
+            captureGenericException(response, error, userId, serverName, methodName);
+        }
+
+        log.debug("Returning from method: " + methodName + " with response: " + response.toString());
+
+        return response;
+    }
+
+
     /**
      * Save a new entity that is sourced from an external technology.  The external
      * technology is identified by a GUID and a name.  These can be recorded in a
@@ -5939,6 +6253,94 @@ public class OMRSRepositoryRESTServices
     }
 
 
+    /**
+     * Add the requested classification to each entity in a list.
+     *
+     * @param serverName unique identifier for requested server.
+     * @param userId unique identifier for requesting user.
+     * @param classificationName String name for the classification.
+     * @param requestBody list of entities to classify and the properties to set in the classification.
+     * @return EntityListResponse:
+     * list of EntityDetail objects showing the resulting entity headers, properties and classifications or
+     * InvalidParameterException one of the parameters is invalid or null or
+     * RepositoryErrorException there is a problem communicating with the metadata repository where
+     *                                  the metadata collection is stored or
+     * EntityNotKnownException one of the entities identified by the guids is not found in the metadata collection or
+     * ClassificationErrorException the requested classification is either not known or not valid
+     *                                         for one of the entities or
+     * PropertyErrorException one or more of the requested properties are not defined, or have different
+     *                                characteristics in the TypeDef for this classification type or
+     * FunctionNotSupportedException the repository does not support maintenance of metadata.
+     * UserNotAuthorizedException the userId is not permitted to perform this operation.
+     */
+    public EntityListResponse classifyEntities(String                           serverName,
+                                               String                           userId,
+                                               String                           classificationName,
+                                               ClassificationForEntitiesRequest requestBody)
+    {
+        final  String   methodName = "classifyEntities";
+
+        log.debug("Calling method: " + methodName);
+
+        List<String>       entityGUIDs              = null;
+        InstanceProperties classificationProperties = null;
+
+        EntityListResponse response = new EntityListResponse();
+
+        if (requestBody != null)
+        {
+            entityGUIDs = requestBody.getEntityGUIDs();
+            classificationProperties = requestBody.getClassificationProperties();
+        }
+
+        try
+        {
+            OMRSMetadataCollection metadataCollection = validateRepository(userId, serverName, methodName);
+
+            response.setEntities(metadataCollection.classifyEntities(userId,
+                                                                     entityGUIDs,
+                                                                     classificationName,
+                                                                     classificationProperties));
+        }
+        catch (RepositoryErrorException  error)
+        {
+            captureRepositoryErrorException(response, error);
+        }
+        catch (UserNotAuthorizedException error)
+        {
+            captureUserNotAuthorizedException(response, error);
+        }
+        catch (InvalidParameterException error)
+        {
+            captureInvalidParameterException(response, error);
+        }
+        catch (EntityNotKnownException error)
+        {
+            captureEntityNotKnownException(response, error);
+        }
+        catch (ClassificationErrorException error)
+        {
+            captureClassificationErrorException(response, error);
+        }
+        catch (FunctionNotSupportedException  error)
+        {
+            captureFunctionNotSupportedException(response, error);
+        }
+        catch (PropertyErrorException error)
+        {
+            capturePropertyErrorException(response, error);
+        }
+        catch (Exception error)
+        {
+            captureGenericException(response, error, userId, serverName, methodName);
+        }
+
+        log.debug("Returning from method: " + methodName + " with response: " + response.toString());
+
+        return response;
+    }
+
+
     /**
      * Remove a specific classification from an entity.
      *
@@ -6190,6 +6592,94 @@ public class OMRSRepositoryRESTServices
     }
 
 
+    /**
+     * Add a list of new relationships to the metadata collection.  The new relationships are returned in the
+     * same order as the templates in the request.
+     *
+     * @param serverName unique identifier for requested server.
+     * @param userId unique identifier for requesting user.
+     * @param requestBody templates for the new relationships in the relationship list
+     * @return RelationshipListResponse:
+     * list of Relationship structures with the new headers, requested entities and properties or
+     * InvalidParameterException one of the parameters is invalid or null or
+     * RepositoryErrorException there is a problem communicating with the metadata repository where
+     *                                 the metadata collection is stored or
+     * TypeErrorException one of the requested types is not known, or not supported in the metadata repository
+     *                            hosting the metadata collection or
+     * PropertyErrorException one or more of the requested properties are not defined, or have different
+     *                                  characteristics in the TypeDef for the relationship's type or
+     * EntityNotKnownException one of the requested entities is not known in the metadata collection or
+     * StatusNotSupportedException the metadata repository hosting the metadata collection does not support
+     *                                     one of the requested statuses or
+     * FunctionNotSupportedException the repository does not support maintenance of metadata.
+     * UserNotAuthorizedException the userId is not permitted to perform this operation.
+     */
+    public RelationshipListResponse addRelationships(String               serverName,
+                                                     String               userId,
+                                                     InstanceGraphRequest requestBody)
+    {
+        final  String   methodName = "addRelationships";
+
+        log.debug("Calling method: " + methodName);
+
+        List<Relationship> newRelationships = null;
+
+        RelationshipListResponse response = new RelationshipListResponse();
+
+        if (requestBody != null)
+        {
+            newRelationships = requestBody.getRelationshipElementList();
+        }
+
+        try
+        {
+            OMRSMetadataCollection metadataCollection = validateRepository(userId, serverName, methodName);
+
+            response.setRelationships(metadataCollection.addRelationships(userId, newRelationships));
+        }
+        catch (RepositoryErrorException  error)
+        {
+            captureRepositoryErrorException(response, error);
+        }
+        catch (UserNotAuthorizedException error)
+        {
+            captureUserNotAuthorizedException(response, error);
+        }
+        catch (InvalidParameterException error)
+        {
+            captureInvalidParameterException(response, error);
+        }
+        catch (TypeErrorException error)
+        {
+            captureTypeErrorException(response, error);
+        }
+        catch (StatusNotSupportedException error)
+        {
+            captureStatusNotSupportedException(response, error);
+        }
+        catch (PropertyErrorException error)
+        {
+            capturePropertyErrorException(response, error);
+        }
+        catch (EntityNotKnownException error)
+        {
+            captureEntityNotKnownException(response, error);
+        }
+        catch (FunctionNotSupportedException  error)
+        {
+            captureFunctionNotSupportedException(response, error);
+        }
+        catch (Exception error)
+        {
+            captureGenericException(response, error, userId, serverName, methodName);
+        }
+
+        log.debug("Returning from method: " + methodName + " with response: " + response.toString());
+
+        return response;
+    }
+
+
     /**
      * Save a new relationship that is sourced from an external technology.  The external
      * technology is identified by a GUID and a name.  These can be recorded in a
@@ -8618,6 +9108,41 @@ public class OMRSRepositoryRESTServices
     }
 
 
+    /**
+     * Return the enterprise metadata collection for the server.  The operations that page with a cursor are only
+     * supported by the enterprise repository services.
+     *
+     * @param userId calling user
+     * @param serverName name of the server
+     * @param methodName calling method
+     * @return enterprise metadata collection
+     * @throws InvalidParameterException the server name is not known
+     * @throws UserNotAuthorizedException the user is not authorized to issue the request.
+     * @throws RepositoryErrorException the server name is not known
+     * @throws FunctionNotSupportedException the metadata collection is not the enterprise metadata collection
+     */
+    private EnterpriseOMRSMetadataCollection validateEnterpriseRepository(String userId,
+                                                                          String serverName,
+                                                                          String methodName) throws InvalidParameterException,
+                                                                                                    UserNotAuthorizedException,
+                                                                                                    RepositoryErrorException,
+                                                                                                    FunctionNotSupportedException
+    {
+        OMRSMetadataCollection metadataCollection = validateRepository(userId, serverName, methodName);
+
+        if (! (metadataCollection instanceof EnterpriseOMRSMetadataCollection))
+        {
+            throw new FunctionNotSupportedException(OMRSErrorCode.METHOD_NOT_IMPLEMENTED.getMessageDefinition(methodName,
+                                                                                                            metadataCollection.getClass().getName(),
+                                                                                                            serverName),
+                                                    this.getClass().getName(),
+                                                    methodName);
+        }
+
+        return (EnterpriseOMRSMetadataCollection) metadataCollection;
+    }
+
+
     /**
      * Set the exception information into the response.
      *
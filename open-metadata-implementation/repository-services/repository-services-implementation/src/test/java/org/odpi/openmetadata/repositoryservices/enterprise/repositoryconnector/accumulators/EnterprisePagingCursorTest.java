@@ -0,0 +1,268 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.accumulators;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.SequencingOrder;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceProperties;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.PrimitivePropertyValue;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Relationship;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.PrimitiveDefCategory;
+import org.odpi.openmetadata.repositoryservices.ffdc.exception.PagingErrorException;
+import org.odpi.openmetadata.repositoryservices.localrepository.repositorycontentmanager.OMRSRepositoryContentHelper;
+import org.testng.annotations.Test;
+
+import java.util.*;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Verify that paging with a cursor merges the sequenced results of several members without gaps or duplicates.
+ */
+public class EnterprisePagingCursorTest
+{
+    private static final String sequencingProperty = "name";
+
+
+    @Test
+    void testPagesMergedAcrossMembers() throws Exception
+    {
+        Map<String, List<Relationship>> members = new HashMap<>();
+
+        members.put("member1", relationships("a", "c", "e", "g", "i", "k"));
+        members.put("member2", relationships("b", "c", "d", "h", "k", "l", "m"));
+        members.put("member3", relationships("f", "g"));
+
+        assertEquals(pageThrough(members, SequencingOrder.GUID, 3),
+                     Arrays.asList("a", "b", "c", "d", "e", "f", "g", "h", "i", "k", "l", "m"));
+    }
+
+
+    @Test
+    void testUnorderedQueryPagedInGUIDOrder() throws Exception
+    {
+        Map<String, List<Relationship>> members = new HashMap<>();
+
+        members.put("member1", relationships("k", "c", "a", "i", "e", "g"));
+        members.put("member2", relationships("m", "b", "c", "l", "d", "k", "h"));
+        members.put("member3", relationships("g", "f"));
+
+        List<String> expectedGUIDs = Arrays.asList("a", "b", "c", "d", "e", "f", "g", "h", "i", "k", "l", "m");
+
+        assertEquals(EnterprisePagingCursor.getSequencingOrder(null), SequencingOrder.GUID);
+        assertEquals(EnterprisePagingCursor.getSequencingOrder(SequencingOrder.ANY), SequencingOrder.GUID);
+        assertEquals(EnterprisePagingCursor.getSequencingOrder(SequencingOrder.CREATION_DATE_RECENT), SequencingOrder.CREATION_DATE_RECENT);
+
+        assertEquals(pageThrough(members, null, 2), expectedGUIDs);
+        assertEquals(pageThrough(members, SequencingOrder.ANY, 5), expectedGUIDs);
+
+        /*
+         * With no page size the members do not sort their results, so the merge sorts them.
+         */
+        assertEquals(pageThrough(members, SequencingOrder.ANY, 0), expectedGUIDs);
+    }
+
+
+    @Test
+    void testPropertyOrderedPages() throws Exception
+    {
+        Map<String, List<Relationship>> members = new HashMap<>();
+
+        members.put("member1", Arrays.asList(relationship("a", 1, "apple"),
+                                             relationship("b", 1, "cherry"),
+                                             relationship("x", 1, "banana"),
+                                             relationship("c", 1, "date"),
+                                             relationship("d", 1, "fig")));
+
+        /*
+         * The copy of x in member2 is a later version with a different name, so it sorts near the end.
+         * The tie between a and e, and the tie between b and f, are broken on the GUID.
+         */
+        members.put("member2", Arrays.asList(relationship("f", 1, "cherry"),
+                                             relationship("e", 1, "apple"),
+                                             relationship("x", 2, "kiwi"),
+                                             relationship("g", 1, "grape")));
+
+        List<String> expectedGUIDs = Arrays.asList("a", "e", "x", "b", "f", "c", "d", "g");
+
+        assertEquals(pageThrough(members, SequencingOrder.PROPERTY_ASCENDING, 2), expectedGUIDs);
+        assertEquals(pageThrough(members, SequencingOrder.PROPERTY_ASCENDING, 1), expectedGUIDs);
+        assertEquals(pageThrough(members, SequencingOrder.PROPERTY_ASCENDING, 0), expectedGUIDs);
+
+        List<String> descendingGUIDs = pageThrough(members, SequencingOrder.PROPERTY_DESCENDING, 3);
+
+        assertEquals(descendingGUIDs, Arrays.asList("x", "g", "d", "c", "b", "f", "a", "e"));
+    }
+
+
+    @Test
+    void testLatestVersionReturned() throws Exception
+    {
+        EnterprisePagingCursor  pagingCursor = new EnterprisePagingCursor();
+        RelationshipAccumulator accumulator  = new RelationshipAccumulator(null, null, null);
+
+        accumulator.setPagingCursor(pagingCursor, null, SequencingOrder.GUID, 10);
+
+        Relationship oldCopy = relationship("x");
+        Relationship newCopy = relationship("x");
+
+        newCopy.setVersion(2);
+
+        accumulator.addRelationships(Collections.singletonList(oldCopy), "member1");
+        accumulator.addRelationships(Collections.singletonList(newCopy), "member2");
+
+        List<Relationship> page = accumulator.getResults(null);
+
+        assertEquals(page.size(), 1);
+        assertEquals(page.get(0).getVersion(), 2L);
+        assertTrue(pagingCursor.isComplete());
+    }
+
+
+    @Test(expectedExceptions = PagingErrorException.class)
+    void testInvalidCursorRejected() throws Exception
+    {
+        EnterprisePagingCursor.decode("not a cursor!", "test");
+    }
+
+
+    @Test
+    void testCursorRoundTrip() throws Exception
+    {
+        EnterprisePagingCursor pagingCursor = new EnterprisePagingCursor();
+
+        pagingCursor.advance("member1");
+        pagingCursor.advance("member1");
+        pagingCursor.addSkipGUID("member2", "guid1");
+        pagingCursor.addReturnedGUID("guid2");
+        pagingCursor.addReturnedGUID("guid3");
+
+        EnterprisePagingCursor decodedCursor = EnterprisePagingCursor.decode(pagingCursor.encode(), "test");
+
+        assertEquals(decodedCursor.getStartingElement("member1"), 2);
+        assertEquals(decodedCursor.getStartingElement("member3"), 0);
+        assertEquals(decodedCursor.getPageSize("member2", 5), 6);
+        assertTrue(decodedCursor.wasReturned("guid2"));
+        assertTrue(decodedCursor.wasReturned("guid3"));
+        assertFalse(decodedCursor.wasReturned("guid1"));
+        assertFalse(decodedCursor.isComplete());
+    }
+
+
+    /**
+     * Run a query through every page, passing the cursor from each page to the next.  Each member returns the
+     * results from its position in the cursor, in the order a repository would return them.  Repositories only
+     * sort their results when they are returning a page.
+     *
+     * @param members all of the results of each member
+     * @param sequencingOrder order requested by the caller
+     * @param pageSize page size
+     * @return guids returned on all of the pages
+     * @throws Exception problem with the cursor
+     */
+    private static List<String> pageThrough(Map<String, List<Relationship>> members,
+                                            SequencingOrder                 sequencingOrder,
+                                            int                             pageSize) throws Exception
+    {
+        SequencingOrder memberSequencingOrder = EnterprisePagingCursor.getSequencingOrder(sequencingOrder);
+        List<String>    returnedGUIDs         = new ArrayList<>();
+        String          cursor                = null;
+        int             pages                 = 0;
+
+        do
+        {
+            EnterprisePagingCursor  pagingCursor = EnterprisePagingCursor.decode(cursor, "test");
+            RelationshipAccumulator accumulator  = new RelationshipAccumulator(null, null, null);
+
+            accumulator.setPagingCursor(pagingCursor, sequencingProperty, sequencingOrder, pageSize);
+
+            for (String member : members.keySet())
+            {
+                List<Relationship> memberResults = new ArrayList<>(members.get(member));
+
+                if (pageSize != 0)
+                {
+                    memberResults.sort((one, two) -> OMRSRepositoryContentHelper.compareRelationships(one,
+                                                                                                      two,
+                                                                                                      sequencingProperty,
+                                                                                                      memberSequencingOrder));
+                }
+
+                int from = Math.min(pagingCursor.getStartingElement(member), memberResults.size());
+                int to   = memberResults.size();
+
+                if (pageSize != 0)
+                {
+                    to = Math.min(from + pagingCursor.getPageSize(member, pageSize), memberResults.size());
+                }
+
+                accumulator.addRelationships(new ArrayList<>(memberResults.subList(from, to)), member);
+            }
+
+            List<Relationship> page = accumulator.getResults(null);
+
+            if (page != null)
+            {
+                assertTrue((pageSize == 0) || (page.size() <= pageSize));
+
+                for (Relationship relationship : page)
+                {
+                    returnedGUIDs.add(relationship.getGUID());
+                }
+            }
+
+            cursor = pagingCursor.isComplete() ? null : pagingCursor.encode();
+            pages++;
+        }
+        while ((cursor != null) && (pages < 50));
+
+        assertEquals(cursor, null);
+
+        return returnedGUIDs;
+    }
+
+
+    private static List<Relationship> relationships(String... guids)
+    {
+        List<Relationship> relationships = new ArrayList<>();
+
+        for (String guid : guids)
+        {
+            relationships.add(relationship(guid));
+        }
+
+        return relationships;
+    }
+
+
+    private static Relationship relationship(String guid)
+    {
+        Relationship relationship = new Relationship();
+
+        relationship.setGUID(guid);
+        relationship.setVersion(1);
+
+        return relationship;
+    }
+
+
+    private static Relationship relationship(String guid,
+                                             long   version,
+                                             String name)
+    {
+        Relationship           relationship = relationship(guid);
+        InstanceProperties     properties   = new InstanceProperties();
+        PrimitivePropertyValue value        = new PrimitivePropertyValue();
+
+        value.setPrimitiveDefCategory(PrimitiveDefCategory.OM_PRIMITIVE_TYPE_STRING);
+        value.setTypeName(PrimitiveDefCategory.OM_PRIMITIVE_TYPE_STRING.getName());
+        value.setPrimitiveValue(name);
+        properties.setProperty(sequencingProperty, value);
+
+        relationship.setVersion(version);
+        relationship.setProperties(properties);
+
+        return relationship;
+    }
+}
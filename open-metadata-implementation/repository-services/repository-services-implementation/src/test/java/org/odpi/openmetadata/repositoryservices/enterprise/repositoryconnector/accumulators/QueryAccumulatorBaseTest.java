@@ -0,0 +1,58 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.accumulators;
+
+import org.odpi.openmetadata.frameworks.auditlog.AuditLog;
+import org.odpi.openmetadata.repositoryservices.ffdc.exception.InvalidParameterException;
+import org.odpi.openmetadata.repositoryservices.ffdc.exception.RepositoryErrorException;
+import org.testng.annotations.Test;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+/**
+ * Verify that a request that has been abandoned because it timed out is recorded as timed out, and that the
+ * exception it raises when it is cancelled is not recorded as a failure of the repository.
+ */
+public class QueryAccumulatorBaseTest
+{
+    @Test
+    void testExceptionFromAbandonedRequestIsIgnored() throws Exception
+    {
+        AuditLog          auditLog    = mock(AuditLog.class);
+        EntityAccumulator accumulator = new EntityAccumulator(null, auditLog, null);
+
+        accumulator.registerExecutor();
+        accumulator.captureRequestTimeout("member1", "findEntities", 100);
+
+        accumulator.captureException("member1", mock(InvalidParameterException.class));
+        accumulator.captureGenericException("findEntities", "member1", new IllegalStateException("cancelled"));
+
+        accumulator.throwCapturedInvalidParameterException();
+        accumulator.throwCapturedGenericException("findEntities");
+        verify(auditLog, never()).logException(any(), any(), any());
+
+        RepositoryErrorException timeout = expectThrows(RepositoryErrorException.class, accumulator::throwCapturedRepositoryErrorException);
+        assertTrue(timeout.getMessage().contains("member1"));
+    }
+
+
+    @Test
+    void testExceptionFromOtherRepositoryIsRecorded()
+    {
+        EntityAccumulator         accumulator = new EntityAccumulator(null, null, null);
+        InvalidParameterException exception   = mock(InvalidParameterException.class);
+
+        accumulator.registerExecutor();
+        accumulator.captureRequestTimeout("member1", "findEntities", 100);
+        accumulator.captureException("member2", exception);
+
+        assertTrue(accumulator.areResultsComplete());
+        assertSame(expectThrows(InvalidParameterException.class, accumulator::throwCapturedInvalidParameterException), exception);
+    }
+}
@@ -0,0 +1,347 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.localrepository.repositoryconnector;
+
+import org.mockito.ArgumentCaptor;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.OMRSMetadataCollection;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityProxy;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntitySummary;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceGraph;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceType;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Relationship;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.ClassificationDef;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.EntityDef;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.RelationshipDef;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryHelper;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryValidator;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryeventmapper.OMRSRepositoryEventProcessor;
+import org.odpi.openmetadata.repositoryservices.ffdc.exception.RepositoryErrorException;
+import org.odpi.openmetadata.repositoryservices.localrepository.repositorycontentmanager.OMRSTypeDefManager;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.expectThrows;
+
+/**
+ * Verify that the bulk methods of the local metadata collection pass the whole list to the real repository in
+ * one call and then send one batch instances event for each chunk of the instances that it stores.
+ */
+public class LocalOMRSMetadataCollectionBulkTest
+{
+    private static final int    maxInstancesPerBatchEvent = 100;
+    private static final String userId                    = "testUser";
+    private static final String repositoryName            = "testRepository";
+    private static final String metadataCollectionId      = "test-metadata-collection-id";
+    private static final String entityTypeGUID            = "entity-type-guid";
+    private static final String relationshipTypeGUID      = "relationship-type-guid";
+
+    private OMRSRepositoryHelper         repositoryHelper;
+    private OMRSRepositoryValidator      repositoryValidator;
+    private OMRSMetadataCollection       realMetadataCollection;
+    private OMRSRepositoryEventProcessor eventProcessor;
+    private LocalOMRSMetadataCollection  localMetadataCollection;
+
+
+    @BeforeMethod
+    public void setup() throws Exception
+    {
+        repositoryHelper    = mock(OMRSRepositoryHelper.class);
+        repositoryValidator = mock(OMRSRepositoryValidator.class);
+
+        EntityDef entityDef = new EntityDef();
+        entityDef.setGUID(entityTypeGUID);
+        entityDef.setName("TestEntity");
+
+        RelationshipDef relationshipDef = new RelationshipDef();
+        relationshipDef.setGUID(relationshipTypeGUID);
+        relationshipDef.setName("TestRelationship");
+
+        when(repositoryHelper.getTypeDef(anyString(), anyString(), eq(entityTypeGUID), anyString())).thenReturn(entityDef);
+        when(repositoryHelper.getTypeDef(anyString(), anyString(), eq(relationshipTypeGUID), anyString())).thenReturn(relationshipDef);
+
+        realMetadataCollection = mock(OMRSMetadataCollection.class);
+        eventProcessor         = mock(OMRSRepositoryEventProcessor.class);
+
+        /*
+         * The real repository returns the templates as the stored instances.
+         */
+        when(realMetadataCollection.addEntities(anyString(), anyList())).thenAnswer(invocation -> new ArrayList<>(invocation.getArgument(1)));
+        when(realMetadataCollection.addRelationships(anyString(), anyList())).thenAnswer(invocation -> new ArrayList<>(invocation.getArgument(1)));
+        when(realMetadataCollection.getEntitySummary(anyString(), anyString())).thenReturn(new EntitySummary());
+
+        localMetadataCollection = new LocalOMRSMetadataCollection(mock(LocalOMRSRepositoryConnector.class),
+                                                                  repositoryName,
+                                                                  repositoryHelper,
+                                                                  repositoryValidator,
+                                                                  metadataCollectionId,
+                                                                  "testServer",
+                                                                  "testServerType",
+                                                                  "testOrganization",
+                                                                  realMetadataCollection,
+                                                                  eventProcessor,
+                                                                  true,
+                                                                  mock(OMRSTypeDefManager.class));
+    }
+
+
+    /**
+     * Build a list of templates for new entities.
+     *
+     * @param count number of templates
+     * @return list of templates
+     */
+    private List<EntityDetail> getEntityTemplates(int count)
+    {
+        List<EntityDetail> templates = new ArrayList<>();
+
+        for (int i = 0; i < count; i++)
+        {
+            InstanceType type = new InstanceType();
+            type.setTypeDefGUID(entityTypeGUID);
+
+            EntityDetail template = new EntityDetail();
+            template.setType(type);
+            template.setGUID("entity-" + i);
+
+            templates.add(template);
+        }
+
+        return templates;
+    }
+
+
+    /**
+     * Build a list of templates for new relationships that all start from the same entity.
+     *
+     * @param count number of templates
+     * @return list of templates
+     */
+    private List<Relationship> getRelationshipTemplates(int count)
+    {
+        List<Relationship> templates = new ArrayList<>();
+
+        for (int i = 0; i < count; i++)
+        {
+            InstanceType type = new InstanceType();
+            type.setTypeDefGUID(relationshipTypeGUID);
+
+            EntityProxy entityOne = new EntityProxy();
+            entityOne.setGUID("hub");
+
+            EntityProxy entityTwo = new EntityProxy();
+            entityTwo.setGUID("spoke-" + i);
+
+            Relationship template = new Relationship();
+            template.setType(type);
+            template.setGUID("relationship-" + i);
+            template.setEntityOneProxy(entityOne);
+            template.setEntityTwoProxy(entityTwo);
+
+            templates.add(template);
+        }
+
+        return templates;
+    }
+
+
+    /**
+     * Return the sizes of the chunks that a list of instances is split into.
+     *
+     * @param count number of instances
+     * @return chunk sizes
+     */
+    private List<Integer> getExpectedChunkSizes(int count)
+    {
+        List<Integer> chunkSizes = new ArrayList<>();
+
+        for (int remaining = count; remaining > 0; remaining -= maxInstancesPerBatchEvent)
+        {
+            chunkSizes.add(Math.min(remaining, maxInstancesPerBatchEvent));
+        }
+
+        return chunkSizes;
+    }
+
+
+    @DataProvider
+    public Object[][] listSizes()
+    {
+        return new Object[][] { { 0 }, { 1 }, { 99 }, { 100 }, { 101 }, { 250 } };
+    }
+
+
+    @Test(dataProvider = "listSizes")
+    public void testAddEntitiesSendsOneEventPerChunk(int count) throws Exception
+    {
+        List<EntityDetail> templates     = getEntityTemplates(count);
+        List<Integer>      expectedSizes = getExpectedChunkSizes(count);
+
+        List<EntityDetail> results = localMetadataCollection.addEntities(userId, templates);
+
+        assertEquals(results.size(), count);
+        for (int i = 0; i < count; i++)
+        {
+            assertEquals(results.get(i).getGUID(), "entity-" + i);
+            assertEquals(results.get(i).getMetadataCollectionId(), metadataCollectionId);
+        }
+
+        verify(realMetadataCollection, times(1)).addEntities(userId, templates);
+
+        ArgumentCaptor<InstanceGraph> events = ArgumentCaptor.forClass(InstanceGraph.class);
+        verify(eventProcessor, times(expectedSizes.size())).processInstanceBatchEvent(anyString(),
+                                                                                     anyString(),
+                                                                                     anyString(),
+                                                                                     anyString(),
+                                                                                     anyString(),
+                                                                                     events.capture());
+
+        int next = 0;
+        for (int chunk = 0; chunk < expectedSizes.size(); chunk++)
+        {
+            InstanceGraph event = events.getAllValues().get(chunk);
+            assertNull(event.getRelationships());
+            assertEquals(event.getEntities().size(), (int) expectedSizes.get(chunk));
+
+            for (EntityDetail entity : event.getEntities())
+            {
+                assertEquals(entity.getGUID(), "entity-" + next++);
+            }
+        }
+        assertEquals(next, count);
+    }
+
+
+    @Test(dataProvider = "listSizes")
+    public void testAddRelationshipsSendsOneEventPerChunk(int count) throws Exception
+    {
+        List<Integer>      expectedSizes = getExpectedChunkSizes(count);
+        List<Relationship> templates     = getRelationshipTemplates(count);
+
+        List<Relationship> results = localMetadataCollection.addRelationships(userId, templates);
+
+        assertEquals(results.size(), count);
+        verify(realMetadataCollection, times(1)).addRelationships(userId, templates);
+
+        ArgumentCaptor<InstanceGraph> events = ArgumentCaptor.forClass(InstanceGraph.class);
+        verify(eventProcessor, times(expectedSizes.size())).processInstanceBatchEvent(anyString(),
+                                                                                     anyString(),
+                                                                                     anyString(),
+                                                                                     anyString(),
+                                                                                     anyString(),
+                                                                                     events.capture());
+
+        for (int chunk = 0; chunk < expectedSizes.size(); chunk++)
+        {
+            InstanceGraph event = events.getAllValues().get(chunk);
+
+            assertNull(event.getEntities());
+            assertEquals(event.getRelationships().size(), (int) expectedSizes.get(chunk));
+        }
+
+        /*
+         * The shared end entity is only retrieved once for the security checks.
+         */
+        if (count > 0)
+        {
+            verify(realMetadataCollection, times(1)).getEntitySummary(userId, "hub");
+        }
+    }
+
+
+    @Test
+    public void testNoEventsWhenRealRepositoryFails() throws Exception
+    {
+        List<EntityDetail> templates = getEntityTemplates(maxInstancesPerBatchEvent + 1);
+
+        when(realMetadataCollection.addEntities(anyString(), anyList())).thenThrow(RepositoryErrorException.class);
+        when(realMetadataCollection.addRelationships(anyString(), anyList())).thenThrow(RepositoryErrorException.class);
+
+        expectThrows(RepositoryErrorException.class, () -> localMetadataCollection.addEntities(userId, templates));
+        expectThrows(RepositoryErrorException.class,
+                     () -> localMetadataCollection.addRelationships(userId, getRelationshipTemplates(maxInstancesPerBatchEvent + 1)));
+
+        verify(realMetadataCollection, times(1)).addEntities(eq(userId), anyList());
+        verify(realMetadataCollection, times(1)).addRelationships(eq(userId), anyList());
+        verify(eventProcessor, never()).processInstanceBatchEvent(any(), any(), any(), any(), any(), any());
+    }
+
+
+    @Test
+    public void testClassifyEntitiesSendsEventForEachEntity() throws Exception
+    {
+        final String classificationName = "TestClassification";
+
+        List<String>       entityGUIDs = new ArrayList<>();
+        List<EntityDetail> entities    = getEntityTemplates(maxInstancesPerBatchEvent + 1);
+
+        for (EntityDetail entity : entities)
+        {
+            entityGUIDs.add(entity.getGUID());
+        }
+
+        ClassificationDef classificationDef = new ClassificationDef();
+        classificationDef.setGUID("classification-type-guid");
+        classificationDef.setName(classificationName);
+
+        when(repositoryValidator.validateClassificationName(anyString(), anyString(), eq(classificationName), anyString())).thenReturn(classificationDef);
+        when(repositoryValidator.isActiveType(anyString(), anyString(), anyString())).thenReturn(true);
+        when(realMetadataCollection.getEntityDetail(anyString(), anyString())).thenAnswer(invocation -> {
+            EntityDetail entity = new EntityDetail();
+            entity.setGUID(invocation.getArgument(1));
+            return entity;
+        });
+        when(realMetadataCollection.classifyEntities(anyString(), anyList(), anyString(), any())).thenReturn(entities);
+
+        assertEquals(localMetadataCollection.classifyEntities(userId, entityGUIDs, classificationName, null).size(),
+                     entities.size());
+
+        verify(realMetadataCollection, times(1)).classifyEntities(userId, entityGUIDs, classificationName, null);
+        verify(eventProcessor, times(entities.size())).processClassifiedEntityEvent(anyString(),
+                                                                                    anyString(),
+                                                                                    anyString(),
+                                                                                    anyString(),
+                                                                                    anyString(),
+                                                                                    any(EntityDetail.class),
+                                                                                    any());
+    }
+
+
+    @Test
+    public void testNoEventsWhenEventsAreNotProduced() throws Exception
+    {
+        LocalOMRSMetadataCollection quietCollection = new LocalOMRSMetadataCollection(mock(LocalOMRSRepositoryConnector.class),
+                                                                                      repositoryName,
+                                                                                      repositoryHelper,
+                                                                                      repositoryValidator,
+                                                                                      metadataCollectionId,
+                                                                                      "testServer",
+                                                                                      "testServerType",
+                                                                                      "testOrganization",
+                                                                                      realMetadataCollection,
+                                                                                      eventProcessor,
+                                                                                      false,
+                                                                                      mock(OMRSTypeDefManager.class));
+
+        assertEquals(quietCollection.addEntities(userId, getEntityTemplates(maxInstancesPerBatchEvent + 1)).size(),
+                     maxInstancesPerBatchEvent + 1);
+
+        verify(realMetadataCollection, times(1)).addEntities(eq(userId), anyList());
+        verify(eventProcessor, never()).processInstanceBatchEvent(any(), any(), any(), any(), any(), any());
+    }
+}
@@ -0,0 +1,119 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.localrepository.repositorycontentmanager;
+
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+public class OMRSRegexMatcherTest
+{
+    @Test
+    void testMatchesSameAsStringMatches()
+    {
+        OMRSRepositoryContentHelper helper = new OMRSRepositoryContentHelper(null);
+
+        List<String> regexes = Arrays.asList(helper.getExactMatchRegex("a.b"),
+                                             helper.getExactMatchRegex("a.b", true),
+                                             helper.getStartsWithRegex("a.b"),
+                                             helper.getEndsWithRegex("a.b"),
+                                             helper.getContainsRegex("a.b"),
+                                             helper.getContainsRegex("A.B", true),
+                                             helper.getExactMatchRegex("x\\Ey"),
+                                             helper.getExactMatchRegex(""),
+                                             ".*",
+                                             "a.*b",
+                                             "\\Qa\\E|b");
+
+        List<String> values = Arrays.asList("a.b", "A.B", "axb", "a.b tail", "head a.b", "head a.b tail", "head\na.b",
+                                            "a.b\ntail", "x\\Ey", "", "b", "ab");
+
+        for (String regex : regexes)
+        {
+            for (String value : values)
+            {
+                assertEquals(OMRSRegexMatcher.matches(value, regex), value.matches(regex), "regex: " + regex + " value: " + value);
+            }
+        }
+    }
+
+
+    @Test
+    void testConcurrentMatchesBeyondCacheSize() throws Exception
+    {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        try
+        {
+            List<Future<Boolean>> results = new ArrayList<>();
+
+            for (int thread = 0; thread < 8; thread++)
+            {
+                results.add(executor.submit(() -> {
+                    for (int i = 0; i < 3000; i++)
+                    {
+                        String regex = ".*\\Q" + i + "\\E.*";
+
+                        if ((! OMRSRegexMatcher.matches("value " + i + " end", regex))
+                                || (OMRSRegexMatcher.matches("value end", regex)))
+                        {
+                            return false;
+                        }
+                    }
+
+                    return true;
+                }));
+            }
+
+            for (Future<Boolean> result : results)
+            {
+                assertTrue(result.get());
+            }
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+
+    @Test
+    void testLeastRecentlyUsedMatcherIsEvicted()
+    {
+        String           recentRegex   = "\\Qlru-recent\\E";
+        String           unusedRegex   = "\\Qlru-unused\\E";
+        OMRSRegexMatcher recentMatcher = OMRSRegexMatcher.getMatcher(recentRegex);
+
+        OMRSRegexMatcher.getMatcher(unusedRegex);
+
+        for (int i = 0; i < OMRSRegexMatcher.maxCachedPatterns * 2; i++)
+        {
+            OMRSRegexMatcher.getMatcher("\\Qlru-" + i + "\\E");
+
+            if (i % 100 == 0)
+            {
+                assertSame(OMRSRegexMatcher.getMatcher(recentRegex), recentMatcher);
+            }
+        }
+
+        /*
+         * The expression in regular use stays cached while the cache fills up many times over.
+         */
+        assertTrue(OMRSRegexMatcher.isCached(recentRegex));
+        assertFalse(OMRSRegexMatcher.isCached(unusedRegex));
+        assertFalse(OMRSRegexMatcher.isCached("\\Qlru-0\\E"));
+        assertTrue(OMRSRegexMatcher.isCached("\\Qlru-" + (OMRSRegexMatcher.maxCachedPatterns * 2 - 1) + "\\E"));
+        assertSame(OMRSRegexMatcher.getMatcher(recentRegex), recentMatcher);
+        assertTrue(OMRSRegexMatcher.matches("lru-unused", unusedRegex));
+    }
+}
@@ -0,0 +1,257 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.metadatahighway.cohortregistry;
+
+import org.mockito.ArgumentCaptor;
+import org.odpi.openmetadata.frameworks.auditlog.AuditLog;
+import org.odpi.openmetadata.repositoryservices.connectors.omrstopic.OMRSTopicConnector;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.cohortregistrystore.OMRSCohortRegistryStore;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.cohortregistrystore.properties.MemberRegistration;
+import org.odpi.openmetadata.repositoryservices.events.OMRSEventProtocolVersion;
+import org.odpi.openmetadata.repositoryservices.events.OMRSRegistryEventProcessor;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.testng.Assert.assertEquals;
+
+/**
+ * Verify that the cohort registry only tells the topic connectors to send compressed events when every
+ * remote member of the cohort supports them, and that the level is worked out again as members join and leave.
+ */
+public class OMRSCohortRegistryProtocolTest
+{
+    private static final String cohortName = "testCohort";
+    private static final String v1         = OMRSEventProtocolVersion.V1.getName();
+    private static final String compressed = OMRSEventProtocolVersion.V1_COMPRESSED.getName();
+
+
+    /**
+     * Registry store that keeps the registrations in memory.
+     */
+    private static class TestRegistryStore implements OMRSCohortRegistryStore
+    {
+        private MemberRegistration              localRegistration   = null;
+        private Map<String, MemberRegistration> remoteRegistrations = new LinkedHashMap<>();
+
+        public void saveLocalRegistration(MemberRegistration localRegistration)
+        {
+            this.localRegistration = localRegistration;
+        }
+
+        public MemberRegistration retrieveLocalRegistration()
+        {
+            return localRegistration;
+        }
+
+        public void removeLocalRegistration()
+        {
+            localRegistration = null;
+        }
+
+        public void saveRemoteRegistration(MemberRegistration remoteRegistration)
+        {
+            remoteRegistrations.put(remoteRegistration.getMetadataCollectionId(), remoteRegistration);
+        }
+
+        public List<MemberRegistration> retrieveRemoteRegistrations()
+        {
+            return new ArrayList<>(remoteRegistrations.values());
+        }
+
+        public MemberRegistration retrieveRemoteRegistration(String metadataCollectionId)
+        {
+            return remoteRegistrations.get(metadataCollectionId);
+        }
+
+        public void removeRemoteRegistration(String metadataCollectionId)
+        {
+            remoteRegistrations.remove(metadataCollectionId);
+        }
+
+        public void clearAllRegistrations()
+        {
+            localRegistration = null;
+            remoteRegistrations.clear();
+        }
+
+        public void close()
+        {
+        }
+    }
+
+
+    /**
+     * Build a cohort registry with no local repository that passes the event protocol level to the supplied
+     * topic connector.
+     *
+     * @param topicConnector mock topic connector
+     * @return cohort registry
+     */
+    private OMRSCohortRegistry getCohortRegistry(OMRSTopicConnector topicConnector)
+    {
+        OMRSCohortRegistry cohortRegistry = new OMRSCohortRegistry(mock(AuditLog.class));
+
+        cohortRegistry.initialize(cohortName,
+                                  null,
+                                  null,
+                                  null,
+                                  "testServer",
+                                  "testServerType",
+                                  "testOrganization",
+                                  mock(OMRSRegistryEventProcessor.class),
+                                  new TestRegistryStore(),
+                                  null);
+        cohortRegistry.setTopicConnectors(Collections.singletonList(topicConnector));
+
+        return cohortRegistry;
+    }
+
+
+    /**
+     * Register a remote member with the cohort registry.
+     *
+     * @param cohortRegistry cohort registry
+     * @param metadataCollectionId metadata collection id of the remote member
+     * @param eventProtocolVersion event protocol version supported by the remote member
+     */
+    private void register(OMRSCohortRegistry cohortRegistry,
+                          String             metadataCollectionId,
+                          String             eventProtocolVersion)
+    {
+        cohortRegistry.processRegistrationEvent(cohortName,
+                                                metadataCollectionId,
+                                                metadataCollectionId + "Name",
+                                                metadataCollectionId + "Server",
+                                                "remoteServerType",
+                                                "remoteOrganization",
+                                                new Date(),
+                                                null,
+                                                eventProtocolVersion);
+    }
+
+
+    /**
+     * Unregister a remote member from the cohort registry.
+     *
+     * @param cohortRegistry cohort registry
+     * @param metadataCollectionId metadata collection id of the remote member
+     */
+    private void unRegister(OMRSCohortRegistry cohortRegistry,
+                            String             metadataCollectionId)
+    {
+        cohortRegistry.processUnRegistrationEvent(cohortName,
+                                                  metadataCollectionId,
+                                                  metadataCollectionId + "Name",
+                                                  metadataCollectionId + "Server",
+                                                  "remoteServerType",
+                                                  "remoteOrganization");
+    }
+
+
+    /**
+     * Return the last event protocol level passed to the topic connector.
+     *
+     * @param topicConnector mock topic connector
+     * @return event protocol level
+     */
+    private OMRSEventProtocolVersion getLastLevel(OMRSTopicConnector topicConnector)
+    {
+        ArgumentCaptor<OMRSEventProtocolVersion> level = ArgumentCaptor.forClass(OMRSEventProtocolVersion.class);
+
+        verify(topicConnector, atLeastOnce()).setCohortEventProtocolLevel(level.capture());
+
+        return level.getValue();
+    }
+
+
+    @Test
+    public void testEmptyCohortUsesV1()
+    {
+        OMRSTopicConnector topicConnector = mock(OMRSTopicConnector.class);
+
+        getCohortRegistry(topicConnector).connectToCohort();
+
+        assertEquals(getLastLevel(topicConnector), OMRSEventProtocolVersion.V1);
+    }
+
+
+    @Test
+    public void testMixedCohortFallsBackToV1()
+    {
+        OMRSTopicConnector topicConnector = mock(OMRSTopicConnector.class);
+        OMRSCohortRegistry cohortRegistry = getCohortRegistry(topicConnector);
+
+        register(cohortRegistry, "member1", compressed);
+        register(cohortRegistry, "member2", v1);
+        register(cohortRegistry, "member3", compressed);
+
+        assertEquals(getLastLevel(topicConnector), OMRSEventProtocolVersion.V1);
+    }
+
+
+    @Test
+    public void testMemberWithoutVersionFallsBackToV1()
+    {
+        OMRSTopicConnector topicConnector = mock(OMRSTopicConnector.class);
+        OMRSCohortRegistry cohortRegistry = getCohortRegistry(topicConnector);
+
+        register(cohortRegistry, "member1", compressed);
+        register(cohortRegistry, "member2", null);
+
+        assertEquals(getLastLevel(topicConnector), OMRSEventProtocolVersion.V1);
+    }
+
+
+    @Test
+    public void testAllCompressedMembersUpgrade()
+    {
+        OMRSTopicConnector topicConnector = mock(OMRSTopicConnector.class);
+        OMRSCohortRegistry cohortRegistry = getCohortRegistry(topicConnector);
+
+        register(cohortRegistry, "member1", compressed);
+        register(cohortRegistry, "member2", compressed);
+
+        assertEquals(getLastLevel(topicConnector), OMRSEventProtocolVersion.V1_COMPRESSED);
+    }
+
+
+    @Test
+    public void testMemberLeavingAndRejoiningChangesLevel()
+    {
+        OMRSTopicConnector topicConnector = mock(OMRSTopicConnector.class);
+        OMRSCohortRegistry cohortRegistry = getCohortRegistry(topicConnector);
+
+        register(cohortRegistry, "member1", compressed);
+        register(cohortRegistry, "member2", v1);
+        assertEquals(getLastLevel(topicConnector), OMRSEventProtocolVersion.V1);
+
+        /*
+         * Once the V1 member leaves, every remaining member supports compressed events.
+         */
+        unRegister(cohortRegistry, "member2");
+        assertEquals(getLastLevel(topicConnector), OMRSEventProtocolVersion.V1_COMPRESSED);
+
+        /*
+         * The V1 member rejoining drops the cohort back to V1.
+         */
+        register(cohortRegistry, "member2", v1);
+        assertEquals(getLastLevel(topicConnector), OMRSEventProtocolVersion.V1);
+
+        /*
+         * When the last member leaves there is no one to send compressed events to.
+         */
+        unRegister(cohortRegistry, "member2");
+        assertEquals(getLastLevel(topicConnector), OMRSEventProtocolVersion.V1_COMPRESSED);
+        unRegister(cohortRegistry, "member1");
+        assertEquals(getLastLevel(topicConnector), OMRSEventProtocolVersion.V1);
+    }
+}
@@ -576,6 +576,36 @@ public class EnterpriseRepositoryServicesResource
     }
 
 
+    /**
+     * Return a page of entities that match the supplied conditions.  The position in the results is passed as
+     * the paging cursor returned with the previous page rather than an offset.  Each repository in the cohort is
+     * called from its own position so a deep page costs about one page from each repository.
+     *
+     * @param serverName unique identifier for requested server.
+     * @param userId unique identifier for requesting user.
+     * @param findRequestParameters find parameters used to limit the returned results.  The offset is ignored.
+     * @return EntityListResponse:
+     * a list of entities matching the supplied criteria and the cursor for the next page (null when there are no
+     * more results) or
+     * InvalidParameterException a parameter is invalid or null or
+     * TypeErrorException the type guid passed on the request is not known by the metadata collection or
+     * RepositoryErrorException there is a problem communicating with the metadata repository where
+     *                                    the metadata collection is stored or
+     * PropertyErrorException the properties specified are not valid for any of the requested types of
+     *                                  entity or
+     * PagingErrorException the paging/sequencing parameters or the cursor are set up incorrectly or
+     * FunctionNotSupportedException the repository does not support paging with a cursor or
+     * UserNotAuthorizedException the userId is not permitted to perform this operation.
+     */
+    @PostMapping(path = "/instances/entities/by-cursor")
+    public  EntityListResponse findEntitiesByCursor(@PathVariable String            serverName,
+                                                    @PathVariable String            userId,
+                                                    @RequestBody  EntityFindRequest findRequestParameters)
+    {
+        return restAPI.findEntitiesByCursor(serverName, userId, findRequestParameters);
+    }
+
+
     /**
      * Return a list of entities that match the supplied conditions.  The results can be returned over many pages.
      *
@@ -895,6 +925,36 @@ public class EnterpriseRepositoryServicesResource
     }
 
 
+    /**
+     * Return a page of relationships that match the requested conditions.  The position in the results is passed
+     * as the paging cursor returned with the previous page rather than an offset.  Each repository in the cohort
+     * is called from its own position so a deep page costs about one page from each repository.
+     *
+     * @param serverName unique identifier for requested server.
+     * @param userId unique identifier for requesting user
+     * @param findRequestParameters find parameters used to limit the returned results.  The offset is ignored.
+     * @return RelationshipListResponse:
+     * a list of relationships and the cursor for the next page (null when there are no more results).
+     * Null relationships means no matching relationships or
+     * InvalidParameterException one of the parameters is invalid or null or
+     * TypeErrorException the type guid passed on the request is not known by the metadata collection or
+     * RepositoryErrorException there is a problem communicating with the metadata repository where
+     *                                    the metadata collection is stored or
+     * PropertyErrorException the properties specified are not valid for any of the requested types of
+     *                                  relationships or
+     * PagingErrorException the paging/sequencing parameters or the cursor are set up incorrectly or
+     * FunctionNotSupportedException the repository does not support paging with a cursor or
+     * UserNotAuthorizedException the userId is not permitted to perform this operation.
+     */
+    @PostMapping(path = "/instances/relationships/by-cursor")
+    public  RelationshipListResponse findRelationshipsByCursor(@PathVariable String              serverName,
+                                                               @PathVariable String              userId,
+                                                               @RequestBody  InstanceFindRequest findRequestParameters)
+    {
+        return restAPI.findRelationshipsByCursor(serverName, userId, findRequestParameters);
+    }
+
+
     /**
      * Return a list of relationships that match the requested conditions.  The results can be broken into pages.
      *
@@ -1565,6 +1565,39 @@ public class LocalRepositoryServicesResource
     }
 
 
+    /**
+     * Create a list of new entities and put them in their requested states.  The new entities are returned
+     * in the same order as the templates in the request.
+     *
+     * @param serverName unique identifier for requested server.
+     * @param userId unique identifier for requesting user.
+     * @param requestBody templates for the new entities in the entity list
+     * @return EntityListResponse:
+     * list of EntityDetail objects showing the new headers plus the requested properties and classifications or
+     * InvalidParameterException one of the parameters is invalid or null or
+     * RepositoryErrorException there is a problem communicating with the metadata repository where
+     *                                    the metadata collection is stored or
+     * TypeErrorException one of the requested types is not known, or not supported in the metadata repository
+     *                              hosting the metadata collection or
+     * PropertyErrorException one or more of the requested properties are not defined, or have different
+     *                                  characteristics in the TypeDef for the entity's type or
+     * ClassificationErrorException one or more of the requested classifications are either not known or
+     *                                           not defined for the entity's type or
+     * StatusNotSupportedException the metadata repository hosting the metadata collection does not support
+     *                                       one of the requested statuses or
+     * FunctionNotSupportedException the repository does not support maintenance of metadata.
+     * UserNotAuthorizedException the userId is not permitted to perform this operation.
+     */
+    @PostMapping(path = "/instances/entities/batch")
+
+    public EntityListResponse addEntities(@PathVariable String               serverName,
+                                          @PathVariable String               userId,
+                                          @RequestBody  InstanceGraphRequest requestBody)
+    {
+        return restAPI.addEntities(serverName, userId, requestBody);
+    }
+
+
 
     /**
      * Save a new entity that is sourced from an external technology.  The external
@@ -1864,6 +1897,37 @@ public class LocalRepositoryServicesResource
     }
 
 
+    /**
+     * Add the requested classification to each entity in a list.
+     *
+     * @param serverName unique identifier for requested server.
+     * @param userId unique identifier for requesting user.
+     * @param classificationName String name for the classification.
+     * @param requestBody list of entities to classify and the properties to set in the classification.
+     * @return EntityListResponse:
+     * list of EntityDetail objects showing the resulting entity headers, properties and classifications or
+     * InvalidParameterException one of the parameters is invalid or null or
+     * RepositoryErrorException there is a problem communicating with the metadata repository where
+     *                                  the metadata collection is stored or
+     * EntityNotKnownException one of the entities identified by the guids is not found in the metadata collection or
+     * ClassificationErrorException the requested classification is either not known or not valid
+     *                                         for one of the entities or
+     * PropertyErrorException one or more of the requested properties are not defined, or have different
+     *                                characteristics in the TypeDef for this classification type or
+     * FunctionNotSupportedException the repository does not support maintenance of metadata.
+     * UserNotAuthorizedException the userId is not permitted to perform this operation.
+     */
+    @PostMapping(path = "/instances/entities/batch/classification/{classificationName}")
+
+    public EntityListResponse classifyEntities(@PathVariable String                           serverName,
+                                               @PathVariable String                           userId,
+                                               @PathVariable String                           classificationName,
+                                               @RequestBody  ClassificationForEntitiesRequest requestBody)
+    {
+        return restAPI.classifyEntities(serverName, userId, classificationName, requestBody);
+    }
+
+
     /**
      * Remove a specific classification from an entity.
      *
@@ -1955,6 +2019,38 @@ public class LocalRepositoryServicesResource
     }
 
 
+    /**
+     * Add a list of new relationships to the metadata collection.  The new relationships are returned in the
+     * same order as the templates in the request.
+     *
+     * @param serverName unique identifier for requested server.
+     * @param userId unique identifier for requesting user.
+     * @param requestBody templates for the new relationships in the relationship list
+     * @return RelationshipListResponse:
+     * list of Relationship structures with the new headers, requested entities and properties or
+     * InvalidParameterException one of the parameters is invalid or null or
+     * RepositoryErrorException there is a problem communicating with the metadata repository where
+     *                                 the metadata collection is stored or
+     * TypeErrorException one of the requested types is not known, or not supported in the metadata repository
+     *                            hosting the metadata collection or
+     * PropertyErrorException one or more of the requested properties are not defined, or have different
+     *                                  characteristics in the TypeDef for the relationship's type or
+     * EntityNotKnownException one of the requested entities is not known in the metadata collection or
+     * StatusNotSupportedException the metadata repository hosting the metadata collection does not support
+     *                                     one of the requested statuses or
+     * FunctionNotSupportedException the repository does not support maintenance of metadata.
+     * UserNotAuthorizedException the userId is not permitted to perform this operation.
+     */
+    @PostMapping(path = "/instances/relationships/batch")
+
+    public RelationshipListResponse addRelationships(@PathVariable String               serverName,
+                                                     @PathVariable String               userId,
+                                                     @RequestBody  InstanceGraphRequest requestBody)
+    {
+        return restAPI.addRelationships(serverName, userId, requestBody);
+    }
+
+
     /**
      * Save a new relationship that is sourced from an external technology.  The external
      * technology is identified by a GUID and a name.  These can be recorded in a